@@ -0,0 +1,100 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+/**
+ * The neighbours that each vertex of a graph reaches, by position, in
+ * compressed sparse row form: the neighbours of the vertex at position p are
+ * targets[offsets[p]] to targets[offsets[p + 1] - 1], and weights[i] is the
+ * number of transactions by which the vertex reaches targets[i].
+ * <p>
+ * Each neighbour appears at most once for a vertex, and loops are not
+ * included. Instances are shared through {@link AdjacencySnapshot}, so the
+ * arrays must not be modified.
+ *
+ * @param offsets The start of the neighbours of each vertex, with one extra
+ * entry holding the total number of neighbours.
+ * @param targets The position of each neighbour.
+ * @param weights The number of transactions to each neighbour.
+ *
+ * @author algol
+ */
+public record Adjacency(int[] offsets, int[] targets, int[] weights) {
+
+    /**
+     * The number of vertices in the graph.
+     *
+     * @return The number of vertices.
+     */
+    public int vertexCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * The number of neighbours reached by a vertex.
+     *
+     * @param position The position of the vertex.
+     *
+     * @return The number of neighbours.
+     */
+    public int degree(final int position) {
+        return offsets[position + 1] - offsets[position];
+    }
+
+    /**
+     * Find the weakly connected components of the adjacency.
+     * <p>
+     * Components are numbered in order of the lowest position they contain.
+     *
+     * @param components Set to the component of each vertex, by position.
+     *
+     * @return The number of components.
+     */
+    public int components(final int[] components) {
+        final int vertexCount = vertexCount();
+        final int[] parents = new int[vertexCount];
+        for (int position = 0; position < vertexCount; position++) {
+            parents[position] = position;
+        }
+        for (int position = 0; position < vertexCount; position++) {
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                final int root = find(parents, position);
+                final int otherRoot = find(parents, targets[index]);
+                if (root != otherRoot) {
+                    parents[Math.max(root, otherRoot)] = Math.min(root, otherRoot);
+                }
+            }
+        }
+
+        // roots come before the rest of their component, so they are numbered first
+        int componentCount = 0;
+        for (int position = 0; position < vertexCount; position++) {
+            final int root = find(parents, position);
+            components[position] = root == position ? componentCount++ : components[root];
+        }
+
+        return componentCount;
+    }
+
+    private static int find(final int[] parents, final int position) {
+        int root = position;
+        while (parents[root] != root) {
+            parents[root] = parents[parents[root]];
+            root = parents[root];
+        }
+        return root;
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A snapshot of the topology of a graph in primitive arrays, shared by the
+ * algorithm plugins so that their inner loops don't have to go through
+ * {@link GraphReadMethods} for every link and edge.
+ * <p>
+ * The snapshot holds every transaction of the graph twice, once for each of
+ * its vertices, in compressed sparse row form indexed by vertex position. From
+ * this it derives an {@link Adjacency} for each combination of directions an
+ * algorithm can ask for, which is built the first time it is needed.
+ * <p>
+ * Snapshots are kept for the most recently used graphs, and rebuilt when the
+ * structure of a graph has changed according to its structure modification
+ * counter, or changes to it have been undone according to its undo counter.
+ * Only a {@link StoreGraph} is cached: views of part of a graph, such as the
+ * subgraphs used to arrange each component, share the id and counters of the
+ * graph they view, so each gets a snapshot of its own.
+ *
+ * @author algol
+ */
+public final class AdjacencySnapshot {
+
+    private static final int MAX_CACHED_GRAPHS = 4;
+
+    private static final byte OUTGOING = 1;
+    private static final byte UNDIRECTED = 2;
+
+    private static final Map<String, AdjacencySnapshot> SNAPSHOTS = new LinkedHashMap<>(MAX_CACHED_GRAPHS, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, AdjacencySnapshot> eldest) {
+            return size() > MAX_CACHED_GRAPHS;
+        }
+    };
+
+    private final long structureModificationCounter;
+    private final long undoCounter;
+    private final int vertexCount;
+    private final int transactionCount;
+
+    // the neighbour and direction of each transaction of the vertex at position p are
+    // at offsets[p] to offsets[p + 1] - 1, grouped by link
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final byte[] directions;
+
+    private final Adjacency[] adjacencies = new Adjacency[10];
+
+    private AdjacencySnapshot(final GraphReadMethods graph) {
+        structureModificationCounter = graph.getStructureModificationCounter();
+        undoCounter = graph.getUndoCounter();
+        vertexCount = graph.getVertexCount();
+        transactionCount = graph.getTransactionCount();
+
+        offsets = new int[vertexCount + 1];
+        int[] neighbourPositions = new int[Math.max(16, transactionCount * 2)];
+        byte[] transactionDirections = new byte[neighbourPositions.length];
+        int count = 0;
+        for (int position = 0; position < vertexCount; position++) {
+            final int vertexId = graph.getVertex(position);
+            final int linkCount = graph.getVertexLinkCount(vertexId);
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                final int linkId = graph.getVertexLink(vertexId, linkPosition);
+                final int lowVertexId = graph.getLinkLowVertex(linkId);
+                final int neighbourId = lowVertexId == vertexId ? graph.getLinkHighVertex(linkId) : lowVertexId;
+
+                // loops don't connect a vertex to anything else
+                if (neighbourId == vertexId) {
+                    continue;
+                }
+
+                final int neighbourPosition = graph.getVertexPosition(neighbourId);
+                final int edgeCount = graph.getLinkEdgeCount(linkId);
+                for (int edgePosition = 0; edgePosition < edgeCount; edgePosition++) {
+                    final int edgeId = graph.getLinkEdge(linkId, edgePosition);
+                    byte direction = graph.getEdgeSourceVertex(edgeId) == vertexId ? OUTGOING : 0;
+                    if (graph.getEdgeDirection(edgeId) == GraphConstants.UNDIRECTED) {
+                        direction |= UNDIRECTED;
+                    }
+
+                    final int edgeTransactionCount = graph.getEdgeTransactionCount(edgeId);
+                    if (count + edgeTransactionCount > neighbourPositions.length) {
+                        neighbourPositions = Arrays.copyOf(neighbourPositions, Math.max(count + edgeTransactionCount, neighbourPositions.length * 2));
+                        transactionDirections = Arrays.copyOf(transactionDirections, neighbourPositions.length);
+                    }
+                    Arrays.fill(neighbourPositions, count, count + edgeTransactionCount, neighbourPosition);
+                    Arrays.fill(transactionDirections, count, count + edgeTransactionCount, direction);
+                    count += edgeTransactionCount;
+                }
+            }
+            offsets[position + 1] = count;
+        }
+
+        neighbours = Arrays.copyOf(neighbourPositions, count);
+        directions = Arrays.copyOf(transactionDirections, count);
+    }
+
+    /**
+     * Get the snapshot of a graph, building it if the graph has not been seen
+     * before or its structure has changed since the last snapshot was taken.
+     * A graph that is not a {@link StoreGraph} is never cached, and always
+     * gets a new snapshot.
+     * <p>
+     * The caller should hold a lock on the graph while calling this method.
+     *
+     * @param graph The graph.
+     *
+     * @return The snapshot of the graph.
+     */
+    public static AdjacencySnapshot getSnapshot(final GraphReadMethods graph) {
+        if (!(graph instanceof StoreGraph)) {
+            return new AdjacencySnapshot(graph);
+        }
+
+        synchronized (SNAPSHOTS) {
+            AdjacencySnapshot snapshot = SNAPSHOTS.get(graph.getId());
+            if (snapshot == null || !snapshot.isCurrent(graph)) {
+                snapshot = new AdjacencySnapshot(graph);
+                SNAPSHOTS.put(graph.getId(), snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Get the adjacency of a graph, following transactions in the given
+     * directions.
+     * <p>
+     * This is shorthand for
+     * {@code getSnapshot(graph).getAdjacency(includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional)}.
+     *
+     * @param graph The graph.
+     * @param includeConnectionsIn Follow transactions into a vertex.
+     * @param includeConnectionsOut Follow transactions out of a vertex.
+     * @param treatUndirectedBidirectional Follow undirected transactions either
+     * way.
+     *
+     * @return The adjacency.
+     */
+    public static Adjacency getAdjacency(final GraphReadMethods graph, final boolean includeConnectionsIn,
+            final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional) {
+        return getSnapshot(graph).getAdjacency(includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional);
+    }
+
+    private boolean isCurrent(final GraphReadMethods graph) {
+        return structureModificationCounter == graph.getStructureModificationCounter()
+                && undoCounter == graph.getUndoCounter()
+                && vertexCount == graph.getVertexCount()
+                && transactionCount == graph.getTransactionCount();
+    }
+
+    /**
+     * The number of vertices in the snapshot.
+     *
+     * @return The number of vertices.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Get the adjacency of the snapshot, following transactions in the given
+     * directions.
+     * <p>
+     * If includeConnectionsIn and includeConnectionsOut are both true, every
+     * transaction connects its vertices. Otherwise a vertex reaches a neighbour
+     * through the transactions in the requested direction, and through
+     * undirected transactions if treatUndirectedBidirectional is true. The
+     * reverse of an adjacency is the adjacency with includeConnectionsIn and
+     * includeConnectionsOut swapped.
+     *
+     * @param includeConnectionsIn Follow transactions into a vertex.
+     * @param includeConnectionsOut Follow transactions out of a vertex.
+     * @param treatUndirectedBidirectional Follow undirected transactions either
+     * way.
+     *
+     * @return The adjacency.
+     */
+    public Adjacency getAdjacency(final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional) {
+        final boolean undirected = includeConnectionsIn && includeConnectionsOut;
+        final int index = undirected ? 3 : (includeConnectionsIn ? 1 : 0) | (includeConnectionsOut ? 2 : 0) | (treatUndirectedBidirectional ? 4 : 0);
+        return getAdjacency(index, direction -> undirected
+                || (treatUndirectedBidirectional && (direction & UNDIRECTED) != 0)
+                || (includeConnectionsOut && (direction & OUTGOING) != 0)
+                || (includeConnectionsIn && (direction & OUTGOING) == 0));
+    }
+
+    /**
+     * Get the adjacency of the snapshot, following only directed transactions.
+     *
+     * @param outgoing Follow transactions out of a vertex if true, or into a
+     * vertex if false.
+     *
+     * @return The adjacency.
+     */
+    public Adjacency getDirectedAdjacency(final boolean outgoing) {
+        return getAdjacency(outgoing ? 8 : 9, direction -> (direction & UNDIRECTED) == 0
+                && ((direction & OUTGOING) != 0) == outgoing);
+    }
+
+    private Adjacency getAdjacency(final int index, final IntPredicate follow) {
+        synchronized (adjacencies) {
+            if (adjacencies[index] == null) {
+                adjacencies[index] = buildAdjacency(follow);
+            }
+            return adjacencies[index];
+        }
+    }
+
+    private Adjacency buildAdjacency(final IntPredicate follow) {
+        final int[] adjacencyOffsets = new int[vertexCount + 1];
+        final int[] targets = new int[neighbours.length];
+        final int[] weights = new int[neighbours.length];
+        int count = 0;
+        for (int position = 0; position < vertexCount; position++) {
+            // the transactions of a link are next to each other, so a neighbour
+            // is the same as the previous one only if it shares its link
+            int previous = -1;
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                if (follow.test(directions[index])) {
+                    if (neighbours[index] != previous) {
+                        previous = neighbours[index];
+                        targets[count++] = previous;
+                    }
+                    weights[count - 1]++;
+                }
+            }
+            adjacencyOffsets[position + 1] = count;
+        }
+
+        return new Adjacency(adjacencyOffsets, Arrays.copyOf(targets, count), Arrays.copyOf(weights, count));
+    }
+}
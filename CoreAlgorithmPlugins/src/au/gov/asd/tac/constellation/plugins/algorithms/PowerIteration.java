@@ -0,0 +1,198 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A vector of scores, one for each vertex position, calculated by repeatedly
+ * multiplying a {@link SparseMatrix} by a vector, as used by the pagerank,
+ * HITS, Katz and eigenvector centralities.
+ * <p>
+ * Each step writes the product into a second buffer, applies an update to
+ * each element, measures the L1 distance between the result and the current
+ * scores, then normalises the result and swaps the buffers. The rows of the
+ * matrix are shared between threads of the common pool according to its
+ * partitions, and the sums for the distance and normalisation are added up
+ * in partition order so that the result doesn't depend on thread timing.
+ *
+ * @author algol
+ */
+public final class PowerIteration {
+
+    /**
+     * How the scores are scaled after each step. A vector of zeros is left as
+     * it is.
+     */
+    public enum Normalisation {
+        /**
+         * The scores are left as they are.
+         */
+        NONE,
+        /**
+         * The scores are divided by their sum.
+         */
+        SUM,
+        /**
+         * The scores are divided by their Euclidean length.
+         */
+        EUCLIDEAN,
+        /**
+         * The scores are divided by the largest score.
+         */
+        MAX
+    }
+
+    /**
+     * An update applied to each element of the product of a step.
+     */
+    @FunctionalInterface
+    public interface RowUpdate {
+
+        /**
+         * Update an element of the product.
+         *
+         * @param row The row of the element.
+         * @param product The row of the matrix multiplied by the input vector.
+         *
+         * @return The new score of the row.
+         */
+        double apply(int row, double product);
+    }
+
+    private static final int DELTA = 0;
+    private static final int SUM = 1;
+    private static final int SUM_OF_SQUARES = 2;
+    private static final int MAX = 3;
+
+    private final Normalisation normalisation;
+    private double[] scores;
+    private double[] next;
+
+    /**
+     * Create a vector of scores.
+     *
+     * @param size The number of scores.
+     * @param initialScore The initial value of every score.
+     * @param normalisation How the scores are scaled after each step.
+     */
+    public PowerIteration(final int size, final double initialScore, final Normalisation normalisation) {
+        this.normalisation = normalisation;
+        this.scores = new double[size];
+        this.next = new double[size];
+        Arrays.fill(scores, initialScore);
+    }
+
+    /**
+     * The current scores. The array is reused by later steps.
+     *
+     * @return The scores, by vertex position.
+     */
+    public double[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Multiply the matrix by the current scores.
+     *
+     * @param matrix The matrix.
+     *
+     * @return The L1 distance between the new scores before normalisation and
+     * the previous scores.
+     */
+    public double step(final SparseMatrix matrix) {
+        return step(matrix, scores);
+    }
+
+    /**
+     * Multiply the matrix by a vector to get the new scores.
+     *
+     * @param matrix The matrix.
+     * @param input The vector to multiply by, which may be the current scores
+     * or the scores of another PowerIteration.
+     *
+     * @return The L1 distance between the new scores before normalisation and
+     * the previous scores.
+     */
+    public double step(final SparseMatrix matrix, final double[] input) {
+        return step(matrix, input, (row, product) -> product);
+    }
+
+    /**
+     * Multiply the matrix by a vector and update each element of the result
+     * to get the new scores.
+     *
+     * @param matrix The matrix.
+     * @param input The vector to multiply by, which may be the current scores
+     * or the scores of another PowerIteration.
+     * @param update The update applied to each element of the product.
+     *
+     * @return The L1 distance between the new scores before normalisation and
+     * the previous scores.
+     */
+    public double step(final SparseMatrix matrix, final double[] input, final RowUpdate update) {
+        final int partitionCount = matrix.getPartitionCount();
+        final double[][] totals = new double[partitionCount][];
+        IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+            final double[] partitionTotals = new double[4];
+            for (int row = matrix.getPartitionStart(partition); row < matrix.getPartitionEnd(partition); row++) {
+                final double score = update.apply(row, matrix.multiplyRow(row, input));
+                next[row] = score;
+                partitionTotals[DELTA] += Math.abs(scores[row] - score);
+                partitionTotals[SUM] += score;
+                partitionTotals[SUM_OF_SQUARES] += score * score;
+                partitionTotals[MAX] = Math.max(score, partitionTotals[MAX]);
+            }
+            totals[partition] = partitionTotals;
+        });
+
+        double delta = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        double max = 0;
+        for (final double[] partitionTotals : totals) {
+            delta += partitionTotals[DELTA];
+            sum += partitionTotals[SUM];
+            sumOfSquares += partitionTotals[SUM_OF_SQUARES];
+            max = Math.max(partitionTotals[MAX], max);
+        }
+
+        final double norm = switch (normalisation) {
+            case NONE ->
+                1;
+            case SUM ->
+                sum;
+            case EUCLIDEAN ->
+                Math.sqrt(sumOfSquares);
+            case MAX ->
+                max;
+        };
+        if (norm != 1 && norm != 0) {
+            IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+                for (int row = matrix.getPartitionStart(partition); row < matrix.getPartitionEnd(partition); row++) {
+                    next[row] /= norm;
+                }
+            });
+        }
+
+        final double[] previous = scores;
+        scores = next;
+        next = previous;
+
+        return delta;
+    }
+}
@@ -0,0 +1,644 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Single source shortest path searches over an {@link Adjacency}, with either
+ * a length for each entry of the adjacency or a length of 1 for every entry.
+ * <p>
+ * Searches over unit lengths are breadth first, and searches over other
+ * lengths use Dijkstra's algorithm with a pairing heap held in primitive
+ * arrays. A single search over a large graph is shared between threads of the
+ * common pool with delta stepping: vertices are settled in buckets of
+ * distances delta wide, and the edges out of each bucket are relaxed in
+ * parallel, with the relaxations applied in partition order so that the
+ * result doesn't depend on thread timing. Many searches are shared between
+ * threads a source at a time instead.
+ * <p>
+ * When targets are given a search stops as soon as every target has been
+ * settled, so vertices further from the source than the furthest target may
+ * be left unreachable.
+ *
+ * @author algol
+ */
+public final class ShortestPathSearch {
+
+    /**
+     * The distance to a vertex that can't be reached from the source.
+     */
+    public static final double UNREACHABLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * Receives the distances from each source of
+     * {@link #forEachSource(int[], int[], DistanceConsumer)}. The arrays are
+     * reused by later searches, so they must not be kept, and searches may be
+     * running on other threads at the same time.
+     */
+    @FunctionalInterface
+    public interface DistanceConsumer {
+
+        /**
+         * Receive the distances from a source.
+         *
+         * @param source The position of the source.
+         * @param distances The distance to each vertex position, or
+         * {@link #UNREACHABLE}.
+         * @param reached The positions of the vertices that were reached, in
+         * no particular order.
+         * @param reachedCount The number of vertices that were reached.
+         */
+        void accept(int source, double[] distances, int[] reached, int reachedCount);
+    }
+
+    // searches over fewer vertices and entries than this are not worth sharing between threads
+    private static final int MIN_PARALLEL_SIZE = 100000;
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    // frontiers smaller than this are relaxed on the calling thread
+    private static final int MIN_PARALLEL_FRONTIER = 1000;
+
+    private static final int NONE = -1;
+
+    private final int vertexCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] lengths;
+    private final double maxLength;
+    private double delta;
+    private boolean parallel = true;
+
+    /**
+     * Create a search.
+     *
+     * @param adjacency The adjacency to search.
+     * @param lengths The length of each entry of the adjacency, which must not
+     * be negative, or null if every entry has a length of 1.
+     */
+    public ShortestPathSearch(final Adjacency adjacency, final double[] lengths) {
+        this.vertexCount = adjacency.vertexCount();
+        this.offsets = adjacency.offsets();
+        this.targets = adjacency.targets();
+        this.lengths = lengths;
+
+        if (lengths == null) {
+            maxLength = 1;
+            delta = 1;
+        } else {
+            double max = 0;
+            double sum = 0;
+            for (final double length : lengths) {
+                if (length < 0) {
+                    throw new IllegalArgumentException("Lengths must not be negative");
+                }
+                max = Math.max(length, max);
+                sum += length;
+            }
+            maxLength = max;
+            delta = sum > 0 ? sum / lengths.length : 1;
+        }
+    }
+
+    /**
+     * The number of vertex positions of the adjacency.
+     *
+     * @return The number of vertex positions.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Set the width of the buckets of distances used by delta stepping. The
+     * default is 1 for unit lengths and the mean length otherwise.
+     *
+     * @param delta The width of the buckets, which must be positive.
+     */
+    public void setDelta(final double delta) {
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("Delta must be positive");
+        }
+        this.delta = delta;
+    }
+
+    /**
+     * Set whether a single search over a large graph may be shared between
+     * threads. This is true by default.
+     *
+     * @param parallel True to allow single searches to be shared between
+     * threads.
+     */
+    public void setParallel(final boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    private boolean isLarge() {
+        return (long) vertexCount + targets.length >= MIN_PARALLEL_SIZE;
+    }
+
+    private boolean isDeltaStepping() {
+        return parallel && isLarge() && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Find the distances from a source to every vertex.
+     *
+     * @param source The position of the source.
+     * @param targetPositions The positions of the vertices that are wanted,
+     * or null to find the distance to every vertex.
+     *
+     * @return The distance to each vertex position, or {@link #UNREACHABLE}.
+     *
+     * @throws InterruptedException If the search is interrupted.
+     */
+    public double[] getDistances(final int source, final int[] targetPositions) throws InterruptedException {
+        final boolean[] isTarget = getTargetMask(targetPositions);
+        if (isDeltaStepping()) {
+            return new DeltaStepping(isTarget).search(source).distances;
+        }
+
+        final Search search = new Search();
+        search.search(source, isTarget, countTargets(isTarget));
+        return search.distances;
+    }
+
+    /**
+     * Find the distances from each of a number of sources, and pass them to a
+     * consumer. Searches from different sources may run on different threads
+     * at the same time.
+     *
+     * @param sources The positions of the sources.
+     * @param targetPositions The positions of the vertices that are wanted,
+     * or null to find the distance to every vertex.
+     * @param consumer The consumer of the distances from each source.
+     *
+     * @throws InterruptedException If the searches are interrupted.
+     */
+    public void forEachSource(final int[] sources, final int[] targetPositions, final DistanceConsumer consumer) throws InterruptedException {
+        final boolean[] isTarget = getTargetMask(targetPositions);
+        final int targetCount = countTargets(isTarget);
+
+        if (sources.length < ForkJoinPool.getCommonPoolParallelism() && isDeltaStepping()) {
+            // too few sources to keep every thread busy, so share each search instead
+            for (final int source : sources) {
+                final DeltaStepping search = new DeltaStepping(isTarget).search(source);
+                consumer.accept(source, search.distances, search.touched.vertices, search.touched.size);
+            }
+            return;
+        }
+
+        final long size = (long) sources.length * (vertexCount + targets.length);
+        final int partitionCount = size < MIN_PARALLEL_SIZE ? 1
+                : Math.min(sources.length, ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD);
+        final Thread caller = Thread.currentThread();
+
+        // each thread reuses the arrays of a search, rather than each partition allocating its own
+        final Queue<Search> searches = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+            final Search available = searches.poll();
+            final Search search = available != null ? available : new Search();
+            final int end = (int) ((long) sources.length * (partition + 1) / partitionCount);
+            for (int index = (int) ((long) sources.length * partition / partitionCount); index < end && !caller.isInterrupted(); index++) {
+                search.search(sources[index], isTarget, targetCount);
+                consumer.accept(sources[index], search.distances, search.reached, search.reachedCount);
+            }
+            searches.add(search);
+        });
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private boolean[] getTargetMask(final int[] targetPositions) {
+        if (targetPositions == null) {
+            return null;
+        }
+        final boolean[] isTarget = new boolean[vertexCount];
+        for (final int target : targetPositions) {
+            isTarget[target] = true;
+        }
+        return isTarget;
+    }
+
+    private static int countTargets(final boolean[] isTarget) {
+        int count = 0;
+        if (isTarget != null) {
+            for (final boolean target : isTarget) {
+                if (target) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private double getLength(final int entry) {
+        return lengths == null ? 1 : lengths[entry];
+    }
+
+    /**
+     * A search on a single thread, holding arrays that are reset between
+     * sources in proportion to the number of vertices reached.
+     */
+    private final class Search {
+
+        private final double[] distances = new double[vertexCount];
+        private final int[] reached = new int[vertexCount];
+        private int reachedCount = 0;
+
+        // the pairing heap: the first child and next sibling of each vertex,
+        // and either its previous sibling or, for a first child, its parent
+        private final int[] child;
+        private final int[] sibling;
+        private final int[] previous;
+        private final int[] pairs;
+        private int root = NONE;
+
+        private Search() {
+            Arrays.fill(distances, UNREACHABLE);
+            if (lengths == null) {
+                child = null;
+                sibling = null;
+                previous = null;
+                pairs = null;
+            } else {
+                child = new int[vertexCount];
+                sibling = new int[vertexCount];
+                previous = new int[vertexCount];
+                pairs = new int[vertexCount];
+            }
+        }
+
+        private void search(final int source, final boolean[] isTarget, final int targetCount) {
+            for (int index = 0; index < reachedCount; index++) {
+                distances[reached[index]] = UNREACHABLE;
+            }
+            reachedCount = 0;
+
+            if (lengths == null) {
+                searchBreadthFirst(source, isTarget, targetCount);
+            } else {
+                searchDijkstra(source, isTarget, targetCount);
+            }
+        }
+
+        private void searchBreadthFirst(final int source, final boolean[] isTarget, final int targetCount) {
+            int remaining = targetCount;
+            distances[source] = 0;
+            reached[reachedCount++] = source;
+            if (isTarget != null && isTarget[source] && --remaining == 0) {
+                return;
+            }
+
+            // the reached vertices are also the queue, as every vertex gets its final distance when it is reached
+            for (int head = 0; head < reachedCount; head++) {
+                final int vertex = reached[head];
+                final double distance = distances[vertex] + 1;
+                for (int entry = offsets[vertex]; entry < offsets[vertex + 1]; entry++) {
+                    final int neighbour = targets[entry];
+                    if (distances[neighbour] == UNREACHABLE) {
+                        distances[neighbour] = distance;
+                        reached[reachedCount++] = neighbour;
+                        if (isTarget != null && isTarget[neighbour] && --remaining == 0) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void searchDijkstra(final int source, final boolean[] isTarget, final int targetCount) {
+            int remaining = targetCount;
+            distances[source] = 0;
+            insert(source);
+
+            // the reached vertices are those that have been settled
+            while (root != NONE) {
+                final int vertex = removeMin();
+                reached[reachedCount++] = vertex;
+                if (isTarget != null && isTarget[vertex] && --remaining == 0) {
+                    clearHeap();
+                    return;
+                }
+
+                final double distance = distances[vertex];
+                for (int entry = offsets[vertex]; entry < offsets[vertex + 1]; entry++) {
+                    final int neighbour = targets[entry];
+                    final double candidate = distance + lengths[entry];
+                    if (candidate < distances[neighbour]) {
+                        final boolean queued = distances[neighbour] != UNREACHABLE;
+                        distances[neighbour] = candidate;
+                        if (queued) {
+                            decreaseKey(neighbour);
+                        } else {
+                            insert(neighbour);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void insert(final int vertex) {
+            child[vertex] = NONE;
+            sibling[vertex] = NONE;
+            previous[vertex] = NONE;
+            root = root == NONE ? vertex : meld(root, vertex);
+        }
+
+        private void decreaseKey(final int vertex) {
+            if (vertex == root) {
+                return;
+            }
+
+            // cut the vertex and its children out of the heap, then meld them back in at the root
+            final int before = previous[vertex];
+            if (child[before] == vertex) {
+                child[before] = sibling[vertex];
+            } else {
+                sibling[before] = sibling[vertex];
+            }
+            if (sibling[vertex] != NONE) {
+                previous[sibling[vertex]] = before;
+            }
+            sibling[vertex] = NONE;
+            previous[vertex] = NONE;
+            root = meld(root, vertex);
+        }
+
+        private int removeMin() {
+            final int min = root;
+
+            // meld the children in pairs from the left, then meld the pairs from the right
+            int pairCount = 0;
+            int next = child[min];
+            while (next != NONE) {
+                final int first = next;
+                final int second = sibling[first];
+                next = second == NONE ? NONE : sibling[second];
+                sibling[first] = NONE;
+                previous[first] = NONE;
+                if (second == NONE) {
+                    pairs[pairCount++] = first;
+                } else {
+                    sibling[second] = NONE;
+                    previous[second] = NONE;
+                    pairs[pairCount++] = meld(first, second);
+                }
+            }
+
+            root = pairCount == 0 ? NONE : pairs[pairCount - 1];
+            for (int pair = pairCount - 2; pair >= 0; pair--) {
+                root = meld(pairs[pair], root);
+            }
+            return min;
+        }
+
+        private int meld(final int one, final int two) {
+            final int parent = distances[two] < distances[one] ? two : one;
+            final int other = parent == one ? two : one;
+            sibling[other] = child[parent];
+            if (child[parent] != NONE) {
+                previous[child[parent]] = other;
+            }
+            previous[other] = parent;
+            child[parent] = other;
+            return parent;
+        }
+
+        private void clearHeap() {
+            // vertices still in the heap haven't been settled, so their distances are forgotten
+            int top = 0;
+            if (root != NONE) {
+                pairs[top++] = root;
+            }
+            while (top > 0) {
+                final int vertex = pairs[--top];
+                distances[vertex] = UNREACHABLE;
+                for (int next = child[vertex]; next != NONE; next = sibling[next]) {
+                    pairs[top++] = next;
+                }
+            }
+            root = NONE;
+        }
+    }
+
+    /**
+     * A search from a single source that is shared between threads.
+     * <p>
+     * The buckets are cyclic, as every pending distance is within the longest
+     * length of the distances being settled. Vertices are left in a bucket
+     * when their distance improves, and are skipped if their distance no
+     * longer belongs to the bucket or they have already been relaxed at that
+     * distance.
+     */
+    private final class DeltaStepping {
+
+        private final boolean[] isTarget;
+        private final double[] distances = new double[vertexCount];
+        private final double[] relaxed = new double[vertexCount];
+        private final long[] settledBucket = new long[vertexCount];
+        private final VertexList[] buckets;
+        private final VertexList touched = new VertexList();
+        private long pending = 0;
+
+        private DeltaStepping(final boolean[] isTarget) {
+            this.isTarget = isTarget;
+            Arrays.fill(distances, UNREACHABLE);
+            Arrays.fill(relaxed, Double.NaN);
+            Arrays.fill(settledBucket, NONE);
+            buckets = new VertexList[(int) Math.min(Math.ceil(maxLength / delta) + 2, Integer.MAX_VALUE)];
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                buckets[bucket] = new VertexList();
+            }
+        }
+
+        private long getBucket(final double distance) {
+            return (long) (distance / delta);
+        }
+
+        private DeltaStepping search(final int source) throws InterruptedException {
+            final VertexList remainingTargets = new VertexList();
+            if (isTarget != null) {
+                for (int vertex = 0; vertex < vertexCount; vertex++) {
+                    if (isTarget[vertex]) {
+                        remainingTargets.add(vertex);
+                    }
+                }
+            }
+
+            distances[source] = 0;
+            touched.add(source);
+            buckets[0].add(source);
+            pending = 1;
+
+            for (long bucket = 0; pending > 0; bucket++) {
+                final VertexList current = buckets[(int) (bucket % buckets.length)];
+                if (current.size == 0) {
+                    continue;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+
+                // light entries can lead back into this bucket, so keep relaxing until it stays empty
+                final VertexList settled = new VertexList();
+                while (current.size > 0) {
+                    final int[] frontier = current.drain();
+                    pending -= frontier.length;
+                    int frontierSize = 0;
+                    for (final int vertex : frontier) {
+                        final double distance = distances[vertex];
+                        if (getBucket(distance) == bucket && relaxed[vertex] != distance) {
+                            relaxed[vertex] = distance;
+                            frontier[frontierSize++] = vertex;
+                            if (settledBucket[vertex] != bucket) {
+                                settledBucket[vertex] = bucket;
+                                settled.add(vertex);
+                            }
+                        }
+                    }
+                    relax(frontier, frontierSize, true);
+                }
+
+                // heavy entries always lead to later buckets, so they only need relaxing once
+                if (maxLength > delta) {
+                    relax(settled.vertices, settled.size, false);
+                }
+
+                if (isTarget != null && settleTargets(remainingTargets, (bucket + 1) * delta)) {
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private boolean settleTargets(final VertexList remainingTargets, final double bound) {
+            int remaining = 0;
+            for (int index = 0; index < remainingTargets.size; index++) {
+                final int target = remainingTargets.vertices[index];
+                if (distances[target] >= bound) {
+                    remainingTargets.vertices[remaining++] = target;
+                }
+            }
+            remainingTargets.size = remaining;
+            if (remaining > 0) {
+                return false;
+            }
+
+            // every target has been settled, so forget the distances that haven't
+            int reached = 0;
+            for (int index = 0; index < touched.size; index++) {
+                final int vertex = touched.vertices[index];
+                if (distances[vertex] >= bound) {
+                    distances[vertex] = UNREACHABLE;
+                } else {
+                    touched.vertices[reached++] = vertex;
+                }
+            }
+            touched.size = reached;
+            return true;
+        }
+
+        private void relax(final int[] frontier, final int frontierSize, final boolean light) {
+            final int partitionCount = frontierSize < MIN_PARALLEL_FRONTIER ? 1
+                    : Math.min(frontierSize, ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD);
+            final Relaxations[] relaxations = new Relaxations[partitionCount];
+
+            // the distances are only read while relaxing, and only written while applying the relaxations
+            IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+                final Relaxations partitionRelaxations = new Relaxations();
+                final int end = (int) ((long) frontierSize * (partition + 1) / partitionCount);
+                for (int index = (int) ((long) frontierSize * partition / partitionCount); index < end; index++) {
+                    final int vertex = frontier[index];
+                    final double distance = distances[vertex];
+                    for (int entry = offsets[vertex]; entry < offsets[vertex + 1]; entry++) {
+                        final double length = getLength(entry);
+                        if ((length <= delta) == light) {
+                            final int neighbour = targets[entry];
+                            final double candidate = distance + length;
+                            if (candidate < distances[neighbour]) {
+                                partitionRelaxations.add(neighbour, candidate);
+                            }
+                        }
+                    }
+                }
+                relaxations[partition] = partitionRelaxations;
+            });
+
+            for (final Relaxations partitionRelaxations : relaxations) {
+                for (int index = 0; index < partitionRelaxations.size; index++) {
+                    final int vertex = partitionRelaxations.vertices[index];
+                    final double distance = partitionRelaxations.distances[index];
+                    if (distance < distances[vertex]) {
+                        if (distances[vertex] == UNREACHABLE) {
+                            touched.add(vertex);
+                        }
+                        distances[vertex] = distance;
+                        buckets[(int) (getBucket(distance) % buckets.length)].add(vertex);
+                        pending++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A growable list of vertex positions.
+     */
+    private static final class VertexList {
+
+        private int[] vertices = new int[16];
+        private int size = 0;
+
+        private void add(final int vertex) {
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size * 2);
+            }
+            vertices[size++] = vertex;
+        }
+
+        private int[] drain() {
+            final int[] drained = Arrays.copyOf(vertices, size);
+            size = 0;
+            return drained;
+        }
+    }
+
+    /**
+     * A growable list of shorter distances found for vertex positions.
+     */
+    private static final class Relaxations {
+
+        private int[] vertices = new int[16];
+        private double[] distances = new double[16];
+        private int size = 0;
+
+        private void add(final int vertex, final double distance) {
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            vertices[size] = vertex;
+            distances[size++] = distance;
+        }
+    }
+}
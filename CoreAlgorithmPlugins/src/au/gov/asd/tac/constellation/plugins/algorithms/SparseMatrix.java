@@ -0,0 +1,170 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A square matrix in compressed sparse row form, indexed by vertex position:
+ * the entries of row r are in columns[offsets[r]] to columns[offsets[r + 1] -
+ * 1], with the values at the same indices of values, or 1 if there are no
+ * values.
+ * <p>
+ * The rows are split into partitions with roughly equal numbers of entries,
+ * so that a multiplication can be shared between threads. Small matrices have
+ * a single partition, and are multiplied in row order on the calling thread.
+ *
+ * @author algol
+ */
+public final class SparseMatrix {
+
+    // matrices with fewer rows and entries than this are not worth splitting up
+    private static final int MIN_PARALLEL_SIZE = 100000;
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final int[] offsets;
+    private final int[] columns;
+    private final double[] values;
+    private final int[] partitions;
+
+    /**
+     * Create a matrix.
+     *
+     * @param offsets The start of the entries of each row, with one extra
+     * entry holding the total number of entries.
+     * @param columns The column of each entry.
+     * @param values The value of each entry, or null if every entry is 1.
+     */
+    public SparseMatrix(final int[] offsets, final int[] columns, final double[] values) {
+        this.offsets = offsets;
+        this.columns = columns;
+        this.values = values;
+        this.partitions = partition(offsets, columns.length);
+    }
+
+    /**
+     * Create the matrix with a 1 in row r and column c for every neighbour c
+     * of the vertex at position r.
+     *
+     * @param adjacency The adjacency.
+     *
+     * @return The matrix.
+     */
+    public static SparseMatrix fromAdjacency(final Adjacency adjacency) {
+        return new SparseMatrix(adjacency.offsets(), adjacency.targets(), null);
+    }
+
+    /**
+     * Create the matrix holding the number of transactions from the vertex at
+     * position r to each neighbour c in row r and column c.
+     *
+     * @param adjacency The adjacency.
+     *
+     * @return The matrix.
+     */
+    public static SparseMatrix fromWeightedAdjacency(final Adjacency adjacency) {
+        final int[] weights = adjacency.weights();
+        final double[] values = new double[weights.length];
+        for (int index = 0; index < weights.length; index++) {
+            values[index] = weights[index];
+        }
+        return new SparseMatrix(adjacency.offsets(), adjacency.targets(), values);
+    }
+
+    private static int[] partition(final int[] offsets, final int entryCount) {
+        final int rowCount = offsets.length - 1;
+        final long size = (long) rowCount + entryCount;
+        final int partitionCount = size < MIN_PARALLEL_SIZE ? 1
+                : (int) Math.min(rowCount, (long) ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD);
+
+        // split where the running count of rows and entries passes each share
+        final int[] partitionStarts = new int[partitionCount + 1];
+        int row = 0;
+        for (int partition = 1; partition < partitionCount; partition++) {
+            final long share = size * partition / partitionCount;
+            while (row < rowCount && (long) row + offsets[row] < share) {
+                row++;
+            }
+            partitionStarts[partition] = row;
+        }
+        partitionStarts[partitionCount] = rowCount;
+
+        return partitionStarts;
+    }
+
+    /**
+     * The number of rows, and columns, of the matrix.
+     *
+     * @return The size of the matrix.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * The number of partitions the rows are split into.
+     *
+     * @return The number of partitions.
+     */
+    public int getPartitionCount() {
+        return partitions.length - 1;
+    }
+
+    /**
+     * The first row of a partition.
+     *
+     * @param partition The partition.
+     *
+     * @return The first row of the partition.
+     */
+    public int getPartitionStart(final int partition) {
+        return partitions[partition];
+    }
+
+    /**
+     * The row after the last row of a partition.
+     *
+     * @param partition The partition.
+     *
+     * @return The end of the partition.
+     */
+    public int getPartitionEnd(final int partition) {
+        return partitions[partition + 1];
+    }
+
+    /**
+     * Multiply a row of the matrix by a vector.
+     *
+     * @param row The row.
+     * @param vector The vector, indexed by column.
+     *
+     * @return The sum of the entries of the row multiplied by the matching
+     * elements of the vector.
+     */
+    public double multiplyRow(final int row, final double[] vector) {
+        double product = 0;
+        if (values == null) {
+            for (int index = offsets[row]; index < offsets[row + 1]; index++) {
+                product += vector[columns[index]];
+            }
+        } else {
+            for (int index = offsets[row]; index < offsets[row + 1]; index++) {
+                product += values[index] * vector[columns[index]];
+            }
+        }
+        return product;
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utilities for calculating scores on a graph based on shortest paths, using
+ * Brandes' algorithm over the {@link AdjacencySnapshot} of the graph.
+ * <p>
+ * {@link PathScoringUtilities} keeps a set of vertices for every vertex, so its
+ * memory grows with the square of the number of vertices. Here a breadth first
+ * search is run from each source vertex instead, and each worker only needs a
+ * few arrays the size of the graph. The sources are shared between workers on
+ * the common fork join pool, and the scores of each worker are summed at the
+ * end.
+ * <p>
+ * Betweenness and closeness scores can be estimated from a random sample of
+ * sources, or pivots, with the result scaled up to all sources. Since each
+ * source contributes a bounded amount to each score, Hoeffding's inequality
+ * gives a bound on the error of the estimate, which is reported with the
+ * scores.
+ * <p>
+ * Scores follow the standard definitions, which PathScoringUtilities only
+ * matches on graphs with a single shortest path between each pair of vertices:
+ * a vertex on some but not all of the shortest paths between two vertices gets
+ * the fraction of those paths it is on, and farness is the sum of the
+ * distances to the other vertices. Vertices of the same weakly connected
+ * component share a component. Every graph is scored this way, whatever its
+ * size, so that the scores of a graph don't depend on how many vertices it
+ * has.
+ *
+ * @author algol
+ */
+public final class BrandesPathScoring {
+
+    /**
+     * The probability that every estimated score is within the reported error
+     * bound of the exact score.
+     */
+    public static final double CONFIDENCE = 0.95;
+
+    private static final String SCORETYPE_ERROR_FORMAT = "The requested ScoreType, %s, is not supported.";
+    private static final String OUT_OF_BOUNDS_EXCEPTION_STRING = "The 'selected' attribute does not exist on the given graph.";
+
+    private BrandesPathScoring() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Calculate a score for each vertex of a graph.
+     * <p>
+     * If includeConnectionsIn and includeConnectionsOut are both true, the
+     * direction of transactions is ignored. Otherwise a vertex reaches its
+     * neighbours along the transactions in the requested direction, and along
+     * undirected transactions if treatUndirectedBidirectional is true.
+     *
+     * @param graph The graph.
+     * @param scoreType The score to calculate, one of BETWEENNESS, CLOSENESS,
+     * FARNESS, HARMONIC_CLOSENESS, HARMONIC_FARNESS or ECCENTRICITY.
+     * @param includeConnectionsIn Follow transactions into a vertex.
+     * @param includeConnectionsOut Follow transactions out of a vertex.
+     * @param treatUndirectedBidirectional Follow undirected transactions either
+     * way.
+     * @param selectedOnly Only count paths between selected vertices.
+     * @param sampleSize The number of sources to estimate the scores from, or 0
+     * to calculate exact scores. Eccentricity is always exact.
+     * @param random The source of randomness used to choose the sample.
+     *
+     * @return The scores.
+     *
+     * @throws InterruptedException If the calculation is interrupted.
+     */
+    public static PathScores calculateScores(final GraphReadMethods graph, final ScoreType scoreType,
+            final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional,
+            final boolean selectedOnly, final int sampleSize, final Random random) throws InterruptedException {
+        final int vertexCount = graph.getVertexCount();
+        final boolean undirected = includeConnectionsIn && includeConnectionsOut;
+
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        if (selectedOnly && selectedAttribute == GraphConstants.NOT_FOUND) {
+            throw new ArrayIndexOutOfBoundsException(OUT_OF_BOUNDS_EXCEPTION_STRING);
+        }
+        final boolean[] selected = new boolean[vertexCount];
+        for (int position = 0; position < vertexCount; position++) {
+            selected[position] = !selectedOnly || graph.getBooleanValue(selectedAttribute, graph.getVertex(position));
+        }
+
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.getSnapshot(graph);
+        final Adjacency forward = snapshot.getAdjacency(includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional);
+        final Adjacency reverse = snapshot.getAdjacency(includeConnectionsOut, includeConnectionsIn, treatUndirectedBidirectional);
+
+        // every pair of vertices contributes to both of them for undirected harmonic scores
+        final boolean harmonicPairs = undirected && (scoreType == ScoreType.HARMONIC_CLOSENESS || scoreType == ScoreType.HARMONIC_FARNESS);
+        final int[] sources = switch (scoreType) {
+            case BETWEENNESS, CLOSENESS, FARNESS, HARMONIC_CLOSENESS, HARMONIC_FARNESS ->
+                harmonicPairs ? range(vertexCount) : selectedPositions(selected);
+            case ECCENTRICITY ->
+                range(vertexCount);
+            default ->
+                throw new IllegalArgumentException(String.format(SCORETYPE_ERROR_FORMAT, scoreType));
+        };
+
+        final int[] pivots = scoreType != ScoreType.ECCENTRICITY && sampleSize > 0 && sampleSize < sources.length
+                ? sample(sources, sampleSize, random) : sources;
+        final double sampleScale = pivots.length == 0 ? 0 : (double) sources.length / pivots.length;
+
+        final List<Worker> workers = run(pivots, () -> new Worker(scoreType, forward, reverse, selected, harmonicPairs));
+
+        // sum the scores of the workers in double precision before scaling them
+        final double[] totals = new double[vertexCount];
+        int maxDistance = 0;
+        for (final Worker worker : workers) {
+            for (int position = 0; position < vertexCount; position++) {
+                totals[position] = scoreType == ScoreType.ECCENTRICITY
+                        ? Math.max(totals[position], worker.scores[position])
+                        : totals[position] + worker.scores[position];
+                if (harmonicPairs && selected[position]) {
+                    totals[position] += worker.pairScores[position];
+                }
+            }
+            maxDistance = Math.max(maxDistance, worker.maxDistance);
+        }
+
+        final float[] scores = new float[vertexCount];
+        final double errorRange;
+        switch (scoreType) {
+            case BETWEENNESS -> {
+                scale(totals, sampleScale, scores);
+                errorRange = selectedPositions(selected).length;
+            }
+            case FARNESS -> {
+                scale(totals, sampleScale, scores);
+                // no path is longer than the diameter, which is at most twice the furthest distance from a pivot
+                errorRange = 2.0 * maxDistance;
+            }
+            case CLOSENESS -> {
+                scale(totals, sampleScale, scores);
+                for (int position = 0; position < vertexCount; position++) {
+                    scores[position] = scores[position] == 0 ? 0 : 1 / scores[position];
+                }
+                errorRange = Double.NaN;
+            }
+            case HARMONIC_FARNESS -> {
+                scale(totals, sampleScale, scores);
+                errorRange = harmonicPairs ? 2 : 1;
+            }
+            case HARMONIC_CLOSENESS -> {
+                scale(totals, sampleScale / vertexCount, scores);
+                errorRange = (harmonicPairs ? 2.0 : 1.0) / vertexCount;
+            }
+            case ECCENTRICITY -> {
+                scale(totals, 1, scores);
+                errorRange = 0;
+            }
+            default ->
+                throw new IllegalArgumentException(String.format(SCORETYPE_ERROR_FORMAT, scoreType));
+        }
+
+        final double errorBound;
+        if (pivots.length == sources.length) {
+            errorBound = 0;
+        } else {
+            // Hoeffding's inequality for the mean of the pivots, with a union bound over every vertex
+            final double epsilon = Math.sqrt(Math.log(2.0 * Math.max(1, vertexCount) / (1 - CONFIDENCE)) / (2.0 * pivots.length));
+            errorBound = sources.length * errorRange * epsilon;
+        }
+
+        final int[] components = new int[vertexCount];
+        final int componentCount = forward.components(components);
+        final int[] componentSizes = new int[componentCount];
+        final int[] selectedComponentSizes = new int[componentCount];
+        for (int position = 0; position < vertexCount; position++) {
+            componentSizes[components[position]]++;
+            if (selected[position]) {
+                selectedComponentSizes[components[position]]++;
+            }
+        }
+
+        return new PathScores(scores, components, componentSizes, selectedComponentSizes, sources.length, pivots.length, errorBound);
+    }
+
+    /**
+     * Traverse the graph from each pivot, sharing the pivots between one worker
+     * per thread of the common pool.
+     *
+     * @param pivots The positions of the vertices to traverse from.
+     * @param workerFactory Creates a worker.
+     *
+     * @return The workers, holding the scores they accumulated.
+     *
+     * @throws InterruptedException If the calculation is interrupted.
+     */
+    private static List<Worker> run(final int[] pivots, final WorkerFactory workerFactory) throws InterruptedException {
+        final int parallelism = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), pivots.length));
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        final List<Future<Worker>> futures = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            futures.add(ForkJoinPool.commonPool().submit(() -> {
+                final Worker worker = workerFactory.create();
+                int index;
+                while (!cancelled.get() && (index = next.getAndIncrement()) < pivots.length) {
+                    worker.traverse(pivots[index]);
+                }
+                return worker;
+            }));
+        }
+
+        final List<Worker> workers = new ArrayList<>(parallelism);
+        try {
+            for (final Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+        } catch (final InterruptedException ex) {
+            cancelled.set(true);
+            throw ex;
+        } catch (final ExecutionException ex) {
+            cancelled.set(true);
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        return workers;
+    }
+
+    private static void scale(final double[] totals, final double scale, final float[] scores) {
+        for (int position = 0; position < scores.length; position++) {
+            scores[position] = (float) (totals[position] * scale);
+        }
+    }
+
+    private static int[] range(final int count) {
+        final int[] positions = new int[count];
+        Arrays.setAll(positions, position -> position);
+        return positions;
+    }
+
+    private static int[] selectedPositions(final boolean[] selected) {
+        int count = 0;
+        for (final boolean isSelected : selected) {
+            if (isSelected) {
+                count++;
+            }
+        }
+
+        final int[] positions = new int[count];
+        int index = 0;
+        for (int position = 0; position < selected.length; position++) {
+            if (selected[position]) {
+                positions[index++] = position;
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Choose a random sample of sources without replacement.
+     *
+     * @param sources The sources to choose from.
+     * @param sampleSize The number of sources to choose.
+     * @param random The source of randomness.
+     *
+     * @return The chosen sources.
+     */
+    private static int[] sample(final int[] sources, final int sampleSize, final Random random) {
+        final int[] shuffled = sources.clone();
+        for (int i = 0; i < sampleSize; i++) {
+            final int j = i + random.nextInt(shuffled.length - i);
+            final int swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+
+        return Arrays.copyOf(shuffled, sampleSize);
+    }
+
+    @FunctionalInterface
+    private interface WorkerFactory {
+
+        Worker create();
+    }
+
+    /**
+     * Traverses the graph from one pivot at a time, accumulating scores.
+     * <p>
+     * The arrays indexed by position are only reset for the vertices reached
+     * from each pivot, so small components stay cheap to traverse.
+     */
+    private static final class Worker {
+
+        private final ScoreType scoreType;
+        private final Adjacency forward;
+        private final Adjacency reverse;
+        private final boolean[] selected;
+        private final int[] distances;
+        private final int[] order;
+        private final double[] paths;
+        private final double[] dependencies;
+        private final double[] scores;
+        private final double[] pairScores;
+        private int reached;
+        private int maxDistance;
+
+        Worker(final ScoreType scoreType, final Adjacency forward, final Adjacency reverse, final boolean[] selected, final boolean harmonicPairs) {
+            final int vertexCount = forward.vertexCount();
+            this.scoreType = scoreType;
+            this.forward = forward;
+            this.reverse = reverse;
+            this.selected = selected;
+            this.distances = new int[vertexCount];
+            Arrays.fill(distances, -1);
+            this.order = new int[vertexCount];
+            this.paths = scoreType == ScoreType.BETWEENNESS ? new double[vertexCount] : null;
+            this.dependencies = scoreType == ScoreType.BETWEENNESS ? new double[vertexCount] : null;
+            this.scores = new double[vertexCount];
+            this.pairScores = harmonicPairs ? new double[vertexCount] : null;
+        }
+
+        void traverse(final int pivot) {
+            switch (scoreType) {
+                case BETWEENNESS ->
+                    accumulateDependencies(pivot);
+                case ECCENTRICITY ->
+                    scores[pivot] = distances[order[search(pivot, forward) - 1]];
+                default ->
+                    accumulateDistances(pivot);
+            }
+        }
+
+        /**
+         * Breadth first search from a pivot.
+         *
+         * @param pivot The position to search from.
+         * @param adjacency The connections to follow.
+         *
+         * @return The number of vertices reached, which are in order[0] to
+         * order[count - 1] in order of distance.
+         */
+        private int search(final int pivot, final Adjacency adjacency) {
+            reset();
+            distances[pivot] = 0;
+            order[0] = pivot;
+            int count = 1;
+            if (paths != null) {
+                paths[pivot] = 1;
+            }
+
+            for (int head = 0; head < count; head++) {
+                final int position = order[head];
+                final int distance = distances[position] + 1;
+                for (int index = adjacency.offsets()[position]; index < adjacency.offsets()[position + 1]; index++) {
+                    final int neighbour = adjacency.targets()[index];
+                    if (distances[neighbour] < 0) {
+                        distances[neighbour] = distance;
+                        order[count++] = neighbour;
+                    }
+                    if (paths != null && distances[neighbour] == distance) {
+                        paths[neighbour] += paths[position];
+                    }
+                }
+            }
+
+            reached = count;
+            return count;
+        }
+
+        private void reset() {
+            for (int i = 0; i < reached; i++) {
+                final int position = order[i];
+                distances[position] = -1;
+                if (paths != null) {
+                    paths[position] = 0;
+                    dependencies[position] = 0;
+                }
+            }
+            reached = 0;
+        }
+
+        /**
+         * Brandes' dependency accumulation: working back from the furthest
+         * vertex, each vertex passes its dependency on to the vertices before
+         * it on a shortest path, in proportion to the number of shortest paths
+         * through them.
+         */
+        private void accumulateDependencies(final int pivot) {
+            final int count = search(pivot, forward);
+            for (int i = count - 1; i > 0; i--) {
+                final int position = order[i];
+                final double dependency = (selected[position] ? 1 : 0) + dependencies[position];
+                final int previousDistance = distances[position] - 1;
+                for (int index = reverse.offsets()[position]; index < reverse.offsets()[position + 1]; index++) {
+                    final int predecessor = reverse.targets()[index];
+                    if (distances[predecessor] == previousDistance) {
+                        dependencies[predecessor] += paths[predecessor] / paths[position] * dependency;
+                    }
+                }
+                scores[position] += dependencies[position];
+            }
+        }
+
+        /**
+         * Search backwards from a pivot, so that the distance of each vertex
+         * reached is its distance to the pivot.
+         */
+        private void accumulateDistances(final int pivot) {
+            final int count = search(pivot, reverse);
+            final boolean pivotSelected = selected[pivot];
+            for (int i = 1; i < count; i++) {
+                final int position = order[i];
+                final int distance = distances[position];
+                switch (scoreType) {
+                    case CLOSENESS, FARNESS ->
+                        scores[position] += distance;
+                    default -> {
+                        if (pivotSelected) {
+                            scores[position] += 1.0 / distance;
+                        }
+                        if (pairScores != null) {
+                            pairScores[position] += 1.0 / distance;
+                        }
+                    }
+                }
+            }
+            if (count > 1) {
+                maxDistance = Math.max(maxDistance, distances[order[count - 1]]);
+            }
+        }
+    }
+}
@@ -15,13 +15,14 @@
  */
 package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
 
-import au.gov.asd.tac.constellation.graph.GraphConstants;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
 import au.gov.asd.tac.constellation.plugins.parameters.ParameterChange;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
@@ -30,9 +31,6 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterTyp
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
 import org.openide.util.NbBundle.Messages;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -127,40 +125,24 @@ public class DegreeCentralityPlugin extends SimpleEditPlugin {
         final int vertexSelectedAttributeId = VisualConcept.VertexAttribute.SELECTED.get(graph);
 
         // calculate degree for every vertex on the graph
-        int maxDegree = 0;
-        final Map<Integer, Float> degrees = new HashMap<>();
         final int vertexCount = graph.getVertexCount();
+        final boolean[] selected = new boolean[vertexCount];
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-            final int vertexId = graph.getVertex(vertexPosition);
+            selected[vertexPosition] = !selectedOnly || graph.getBooleanValue(vertexSelectedAttributeId, graph.getVertex(vertexPosition));
+        }
 
+        int maxDegree = 0;
+        final float[] degrees = new float[vertexCount];
+        final Adjacency adjacency = AdjacencySnapshot.getAdjacency(graph, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional);
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             int degree = 0;
-            for (int neighbourPosition = 0; neighbourPosition < graph.getVertexNeighbourCount(vertexId); neighbourPosition++) {
-                final int neighbourId = graph.getVertexNeighbour(vertexId, neighbourPosition);
-
-                if (vertexId == neighbourId) {
-                    continue;
-                }
-
-                boolean isValidLink = false;
-                if (!selectedOnly || graph.getBooleanValue(vertexSelectedAttributeId, neighbourId)) {
-                    final int linkId = graph.getLink(vertexId, neighbourId);
-                    for (int linkEdgePosition = 0; linkEdgePosition < graph.getLinkEdgeCount(linkId); linkEdgePosition++) {
-                        final int edgeId = graph.getLinkEdge(linkId, linkEdgePosition);
-                        final int edgeDirection = graph.getEdgeDirection(edgeId);
-                        if ((treatUndirectedBidirectional && edgeDirection == GraphConstants.UNDIRECTED)
-                                || (includeConnectionsIn && graph.getEdgeSourceVertex(edgeId) == neighbourId)
-                                || (includeConnectionsOut && graph.getEdgeDestinationVertex(edgeId) == neighbourId)) {
-                            isValidLink = true;
-                            break;
-                        }
-                    }
-                }
-                if (isValidLink) {
+            for (int index = adjacency.offsets()[vertexPosition]; index < adjacency.offsets()[vertexPosition + 1]; index++) {
+                if (selected[adjacency.targets()[index]]) {
                     degree++;
                 }
             }
 
-            degrees.put(vertexId, (float) degree);
+            degrees[vertexPosition] = degree;
             maxDegree = Math.max(degree, maxDegree);
         }
 
@@ -175,13 +157,14 @@ public class DegreeCentralityPlugin extends SimpleEditPlugin {
         }
 
         // update the graph with degree values
-        for (final Entry<Integer, Float> entry : degrees.entrySet()) {
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            final int vertexId = graph.getVertex(vertexPosition);
             if (normaliseByPossible) {
-                graph.setFloatValue(degreeAttribute, entry.getKey(), entry.getValue() / (vertexCount - 1));
+                graph.setFloatValue(degreeAttribute, vertexId, degrees[vertexPosition] / (vertexCount - 1));
             } else if (normaliseByAvailable && maxDegree > 0) {
-                graph.setFloatValue(degreeAttribute, entry.getKey(), entry.getValue() / maxDegree);
+                graph.setFloatValue(degreeAttribute, vertexId, degrees[vertexPosition] / maxDegree);
             } else {
-                graph.setFloatValue(degreeAttribute, entry.getKey(), entry.getValue());
+                graph.setFloatValue(degreeAttribute, vertexId, degrees[vertexPosition]);
             }
         }
     }
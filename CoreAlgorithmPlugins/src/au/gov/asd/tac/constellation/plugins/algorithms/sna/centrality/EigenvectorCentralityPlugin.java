@@ -20,6 +20,10 @@ import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.PowerIteration;
+import au.gov.asd.tac.constellation.plugins.algorithms.PowerIteration.Normalisation;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
 import au.gov.asd.tac.constellation.plugins.parameters.ParameterChange;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
@@ -32,7 +36,6 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterTyp
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import java.util.Arrays;
 import org.openide.util.NbBundle.Messages;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -108,56 +111,30 @@ public class EigenvectorCentralityPlugin extends SimpleEditPlugin {
 
         assert !normaliseByPossible || !normaliseByAvailable : "You should only select one method of normalisation";
 
-        // initialise eigenvector values
-        final int vertexCount = graph.getVertexCount();
-        final double[] tempEigenvectors = new double[graph.getVertexCapacity()];
-        final double[] eigenvectors = new double[graph.getVertexCapacity()];
-        Arrays.fill(eigenvectors, (double) 1 / vertexCount);
-
         // calculate eigenvector for each vertex
+        final int vertexCount = graph.getVertexCount();
+        final SparseMatrix adjacency = SparseMatrix.fromAdjacency(AdjacencySnapshot.getAdjacency(graph, true, true, true));
+        final Normalisation normalisation;
+        if (normaliseByPossible) {
+            normalisation = Normalisation.SUM;
+        } else if (normaliseByAvailable) {
+            normalisation = Normalisation.MAX;
+        } else {
+            normalisation = Normalisation.NONE;
+        }
+        final PowerIteration eigenvectors = new PowerIteration(vertexCount, 1.0 / vertexCount, normalisation);
         for (int iteration = 0; iteration < iterations; iteration++) {
-            Arrays.fill(tempEigenvectors, 0);
-
-            double sumEigenvector = 0;
-            double maxEigenvector = 0;
-            double delta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-
-                final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
-                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < neighbourCount; vertexNeighbourPosition++) {
-                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-                    if (vertexId != neighbourId) {
-                        tempEigenvectors[vertexPosition] += eigenvectors[neighbourPosition];
-                    }
-                }
-
-                sumEigenvector += tempEigenvectors[vertexPosition];
-                maxEigenvector = Math.max(tempEigenvectors[vertexPosition], maxEigenvector);
-                delta += Math.abs(eigenvectors[vertexPosition] - tempEigenvectors[vertexPosition]);
-            }
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                if (normaliseByPossible) {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition] / sumEigenvector;
-                } else if (normaliseByAvailable && maxEigenvector > 0) {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition] / maxEigenvector;
-                } else {
-                    eigenvectors[vertexPosition] = tempEigenvectors[vertexPosition];
-                }
-            }
-
-            if (delta < epsilon) {
+            if (eigenvectors.step(adjacency) < epsilon) {
                 break;
             }
         }
 
         // update the graph with eigenvector values
+        final double[] scores = eigenvectors.getScores();
         final int eigenvectorAttribute = EIGENVECTOR_ATTRIBUTE.ensure(graph);
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             final int vertexId = graph.getVertex(vertexPosition);
-            graph.setFloatValue(eigenvectorAttribute, vertexId, (float) eigenvectors[vertexPosition]);
+            graph.setFloatValue(eigenvectorAttribute, vertexId, (float) scores[vertexPosition]);
         }
     }
 }
@@ -20,6 +20,10 @@ import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.PowerIteration;
+import au.gov.asd.tac.constellation.plugins.algorithms.PowerIteration.Normalisation;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
 import au.gov.asd.tac.constellation.plugins.parameters.ParameterChange;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
@@ -32,8 +36,6 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterTyp
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import java.util.ArrayList;
-import java.util.List;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -124,64 +126,30 @@ public class KatzCentralityPlugin extends SimpleEditPlugin {
 
         assert !normaliseByPossible || !normaliseByAvailable : "You should only select one method of normalisation";
 
-        // initialise katz values
+        // calculate katz for each vertex
         final int vertexCount = graph.getVertexCount();
-        final List<Double> tempKatz = new ArrayList<>();
-        final List<Double> katz = new ArrayList<>();
-        for (int i = 0; i < vertexCount; i++) {
-            tempKatz.add(0.0);
-            katz.add(1.0 / vertexCount);
+        final SparseMatrix adjacency = SparseMatrix.fromAdjacency(AdjacencySnapshot.getAdjacency(graph, true, true, true));
+        final Normalisation normalisation;
+        if (normaliseByPossible) {
+            normalisation = Normalisation.EUCLIDEAN;
+        } else if (normaliseByAvailable) {
+            normalisation = Normalisation.MAX;
+        } else {
+            normalisation = Normalisation.NONE;
         }
-        
-        // calculate katz for each vertex
+        final PowerIteration katz = new PowerIteration(vertexCount, 1.0 / vertexCount, normalisation);
         for (int iteration = 0; iteration < iterations; iteration++) {
-            for (int i = 0; i < vertexCount; i++) {
-                tempKatz.set(i, 0.0);
-            }
-            
-            double sumSquaredKatz = 0;
-            double maxKatz = 0;
-            double delta = 0;
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                final int vertexId = graph.getVertex(vertexPosition);
-
-                final int neighbourCount = graph.getVertexNeighbourCount(vertexId);
-                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < neighbourCount; vertexNeighbourPosition++) {
-                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-                    if (vertexId != neighbourId) {                        
-                        tempKatz.set(neighbourPosition, tempKatz.get(neighbourPosition) + katz.get(vertexPosition));
-                    }
-                }
-            }
-
-            for (int vertexPosition = 0; vertexPosition < graph.getVertexCount(); vertexPosition++) {
-                tempKatz.set(vertexPosition, alpha * tempKatz.get(vertexPosition) + beta);
-                sumSquaredKatz += Math.pow(tempKatz.get(vertexPosition), 2);
-                maxKatz = Math.max(tempKatz.get(vertexPosition), maxKatz);
-                delta += Math.abs(katz.get(vertexPosition) - tempKatz.get(vertexPosition));
-            }
-
-            for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
-                if (normaliseByPossible) {
-                    katz.set(vertexPosition, tempKatz.get(vertexPosition) / Math.sqrt(sumSquaredKatz));
-                } else if (normaliseByAvailable && maxKatz > 0) {
-                    katz.set(vertexPosition, tempKatz.get(vertexPosition) / maxKatz);
-                } else {
-                    katz.set(vertexPosition, tempKatz.get(vertexPosition));
-                }
-            }
-
-            if (delta < epsilon) {
+            if (katz.step(adjacency, katz.getScores(), (row, product) -> alpha * product + beta) < epsilon) {
                 break;
             }
         }
 
         // update the graph with katz values
+        final double[] scores = katz.getScores();
         final int katzAttribute = KATZ_ATTRIBUTE.ensure(graph);
         for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
             final int vertexId = graph.getVertex(vertexPosition);
-            graph.setFloatValue(katzAttribute, vertexId, Float.parseFloat(katz.get(vertexPosition).toString()));
+            graph.setFloatValue(katzAttribute, vertexId, (float) scores[vertexPosition]);
         }
     }
 }
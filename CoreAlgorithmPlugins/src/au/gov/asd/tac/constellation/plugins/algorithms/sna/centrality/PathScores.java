@@ -0,0 +1,52 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+/**
+ * The result of a path based score calculation.
+ * <p>
+ * Scores are indexed by vertex position. Each vertex also belongs to a
+ * component, which is used when normalising scores separately for each
+ * connected component.
+ *
+ * @param scores The score of each vertex, by position.
+ * @param components The component of each vertex, by position.
+ * @param componentSizes The number of vertices in each component.
+ * @param selectedComponentSizes The number of vertices in each component that
+ * take part in the calculation, which is all of them unless the calculation was
+ * restricted to selected vertices.
+ * @param sources The number of vertices that paths could start from.
+ * @param pivots The number of vertices that paths were actually traversed from.
+ * This is less than the number of sources when scores were estimated from a
+ * sample.
+ * @param errorBound The largest absolute error of any score at
+ * {@link BrandesPathScoring#CONFIDENCE}, 0 if the scores are exact, or NaN if
+ * no bound is known.
+ *
+ * @author algol
+ */
+public record PathScores(float[] scores, int[] components, int[] componentSizes, int[] selectedComponentSizes,
+        int sources, int pivots, double errorBound) {
+
+    /**
+     * Were the scores estimated from a sample of sources?
+     *
+     * @return True if the scores are estimates, false if they are exact.
+     */
+    public boolean isSampled() {
+        return pivots < sources;
+    }
+}
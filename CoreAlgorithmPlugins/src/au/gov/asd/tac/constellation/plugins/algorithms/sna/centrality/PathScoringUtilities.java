@@ -21,6 +21,7 @@ import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Random;
 
 /**
  * Utilities for calculating scores on a graph based on shortest paths. This
@@ -89,6 +90,31 @@ public class PathScoringUtilities {
         }
     }
 
+    /**
+     * Calculate a score for each vertex of a graph with
+     * {@link BrandesPathScoring}, which gives tied shortest paths a share of
+     * the credit and works in memory that grows linearly with the graph.
+     *
+     * @param graph The graph.
+     * @param scoreType The score to calculate.
+     * @param includeConnectionsIn Follow transactions into a vertex.
+     * @param includeConnectionsOut Follow transactions out of a vertex.
+     * @param treatUndirectedBidirectional Follow undirected transactions either
+     * way.
+     * @param selectedOnly Only count paths between selected vertices.
+     * @param sampleSize The number of vertices to estimate the scores from, or
+     * 0 to calculate exact scores.
+     *
+     * @return The scores.
+     *
+     * @throws InterruptedException If the calculation is interrupted.
+     */
+    public static PathScores calculatePathScores(final GraphReadMethods graph, final ScoreType scoreType,
+            final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional,
+            final boolean selectedOnly, final int sampleSize) throws InterruptedException {
+        return BrandesPathScoring.calculateScores(graph, scoreType, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional, selectedOnly, sampleSize, new Random());
+    }
+
     public static BitSet[] calculateSubgraphPaths(final GraphReadMethods graph, final BitSet subgraph,
             final boolean includeConnectionsIn, final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional) {
         if (includeConnectionsIn && includeConnectionsOut) {
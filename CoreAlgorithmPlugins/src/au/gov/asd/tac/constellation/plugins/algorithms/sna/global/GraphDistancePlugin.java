@@ -20,18 +20,21 @@ import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.ShortestPathSearch;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
-import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import au.gov.asd.tac.constellation.utilities.datastructure.Tuple;
-import java.util.BitSet;
+import java.util.stream.IntStream;
 import org.openide.util.NbBundle.Messages;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
  * Calculates graph diameter and radius, as well as the average path distance.
+ * <p>
+ * Transactions are followed in either direction, with a breadth first
+ * {@link ShortestPathSearch} from every vertex.
  *
  * @author canis_majoris
  */
@@ -47,16 +50,27 @@ public class GraphDistancePlugin extends SimpleEditPlugin {
     @Override
     public void edit(final GraphWriteMethods graph, final PluginInteraction interaction, final PluginParameters parameters) throws InterruptedException {
 
-        // calculate eccentricities
-        final Tuple<BitSet[], float[]> eccResult = PathScoringUtilities.calculateScores(graph, PathScoringUtilities.ScoreType.ECCENTRICITY, true, true, true, false);
-        final Tuple<BitSet[], float[]> disResult = PathScoringUtilities.calculateScores(graph, PathScoringUtilities.ScoreType.AVERAGE_DISTANCE, true, true, true, false);
-        final float[] ecc = eccResult.getSecond();
-        final float[] dis = disResult.getSecond();
+        // calculate the eccentricity of each vertex and its total distance to the vertices it reaches
+        final ShortestPathSearch search = new ShortestPathSearch(AdjacencySnapshot.getAdjacency(graph, true, true, true), null);
+        final int n = search.getVertexCount();
+        final float[] ecc = new float[n];
+        final double[] dis = new double[n];
+        search.forEachSource(IntStream.range(0, n).toArray(), null, (source, distances, reached, reachedCount) -> {
+            double eccentricity = 0;
+            double total = 0;
+            for (int index = 0; index < reachedCount; index++) {
+                final double distance = distances[reached[index]];
+                eccentricity = Math.max(distance, eccentricity);
+                total += distance;
+            }
+            ecc[source] = (float) eccentricity;
+            dis[source] = total;
+        });
 
         // calculate the maximum eccentricity
         float maxEccentricity = Float.MIN_VALUE;
         float minEccentricity = Float.MAX_VALUE;
-        float sum = 0F;
+        double sum = 0;
         for (final float eccentricity : ecc) {
             if (minEccentricity > eccentricity) {
                 minEccentricity = eccentricity;
@@ -65,11 +79,10 @@ public class GraphDistancePlugin extends SimpleEditPlugin {
                 maxEccentricity = eccentricity;
             }
         }
-        for (final float distance : dis) {
+        for (final double distance : dis) {
             sum += distance;
         }
-        final int n = graph.getVertexCount();
-        final float averageDistance = sum / (n * (n - 1));
+        final float averageDistance = (float) (sum / ((double) n * (n - 1)));
         final int radiusAttributeId = RADIUS.ensure(graph);
         final int diameterAttributeId = DIAMETER.ensure(graph);
         final int averageDistanceAttributeId = AVERAGE_DISTANCE.ensure(graph);
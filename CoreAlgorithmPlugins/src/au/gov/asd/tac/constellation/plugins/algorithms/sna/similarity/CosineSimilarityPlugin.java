@@ -15,30 +15,26 @@
  */
 package au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity;
 
-import au.gov.asd.tac.constellation.graph.GraphConstants;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
 import au.gov.asd.tac.constellation.graph.schema.visual.VisualSchemaPluginRegistry;
-import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginException;
 import au.gov.asd.tac.constellation.plugins.PluginExecution;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.algorithms.sna.SnaConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity.SimilarityEngine.Similarities;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
+import au.gov.asd.tac.constellation.plugins.parameters.types.FloatParameterType;
+import au.gov.asd.tac.constellation.plugins.parameters.types.FloatParameterType.FloatParameterValue;
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType;
 import au.gov.asd.tac.constellation.plugins.parameters.types.IntegerParameterType.IntegerParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import org.openide.util.NbBundle;
 import org.openide.util.lookup.ServiceProvider;
 
@@ -60,6 +56,8 @@ public class CosineSimilarityPlugin extends SimpleEditPlugin {
     public static final String TREAT_UNDIRECTED_BIDIRECTIONAL_PARAMETER_ID = PluginParameter.buildId(CosineSimilarityPlugin.class, "treat_undirected_bidirectional");
     public static final String MINIMUM_COMMON_FEATURES_PARAMETER_ID = PluginParameter.buildId(CosineSimilarityPlugin.class, "minimum_common_features");
     public static final String SELECTED_ONLY_PARAMETER_ID = PluginParameter.buildId(CosineSimilarityPlugin.class, "selected_only");
+    public static final String TOP_K_PARAMETER_ID = PluginParameter.buildId(CosineSimilarityPlugin.class, "top_k");
+    public static final String MINIMUM_SCORE_PARAMETER_ID = PluginParameter.buildId(CosineSimilarityPlugin.class, "minimum_score");
 
     @Override
     public PluginParameters createParameters() {
@@ -96,6 +94,19 @@ public class CosineSimilarityPlugin extends SimpleEditPlugin {
         selectedOnlyParameter.setBooleanValue(false);
         parameters.addParameter(selectedOnlyParameter);
 
+        final PluginParameter<IntegerParameterValue> topKParameter = IntegerParameterType.build(TOP_K_PARAMETER_ID);
+        topKParameter.setName("Top K");
+        topKParameter.setDescription("Only keep the pairs that are among the k highest scoring pairs of either of their nodes, or 0 to keep every pair");
+        topKParameter.setIntegerValue(0);
+        IntegerParameterType.setMinimum(topKParameter, 0);
+        parameters.addParameter(topKParameter);
+
+        final PluginParameter<FloatParameterValue> minimumScoreParameter = FloatParameterType.build(MINIMUM_SCORE_PARAMETER_ID);
+        minimumScoreParameter.setName("Minimum Score");
+        minimumScoreParameter.setDescription("Only keep the pairs with at least this score");
+        minimumScoreParameter.setFloatValue(0F);
+        parameters.addParameter(minimumScoreParameter);
+
         return parameters;
     }
 
@@ -106,136 +117,34 @@ public class CosineSimilarityPlugin extends SimpleEditPlugin {
         final boolean treatUndirectedBidirectional = parameters.getBooleanValue(TREAT_UNDIRECTED_BIDIRECTIONAL_PARAMETER_ID);
         final int minCommonFeatures = parameters.getParameters().get(MINIMUM_COMMON_FEATURES_PARAMETER_ID).getIntegerValue();
         final boolean selectedOnly = parameters.getBooleanValue(SELECTED_ONLY_PARAMETER_ID);
+        final int topK = parameters.getIntegerValue(TOP_K_PARAMETER_ID);
+        final float minimumScore = parameters.getFloatValue(MINIMUM_SCORE_PARAMETER_ID);
 
-        final int vertexSelectedAttributeId = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        final SimilarityEngine engine = new SimilarityEngine(graph, includeConnectionsIn, includeConnectionsOut, treatUndirectedBidirectional);
+        engine.setMinimumCommonNeighbours(minCommonFeatures);
+        engine.setSelectedOnly(selectedOnly);
+        engine.setTopK(topK);
+        engine.setMinimumScore(minimumScore);
 
-        // map each vertex to its neighbour count
+        // the weight of a neighbour is the number of transactions to it, other than similarity transactions
         final int vertexCount = graph.getVertexCount();
-        final List<VertexWithNeighbours> verticiesWithNeighbours = new ArrayList<>();
-
-        VertexWithNeighbours currentVertexWithNeighbour;
-        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) { //For each vertex
-            currentVertexWithNeighbour = null;
-            final int vertexId = graph.getVertex(vertexPosition);
-
-            int vertexNeighbourCount = 0;
-            if (graph.getVertexNeighbourCount(vertexId) >= minCommonFeatures) { //Quick defeat, if there arnt enough potential neighbours to achieve the minimal common features then dont process the vertex.
-                for (int vertexNeighbourPosition = 0; vertexNeighbourPosition < graph.getVertexNeighbourCount(vertexId); vertexNeighbourPosition++) { //For each neighbour
-                    final int neighbourId = graph.getVertexNeighbour(vertexId, vertexNeighbourPosition);
-                    final int neighbourPosition = graph.getVertexPosition(neighbourId);
-
-                    if (vertexPosition == neighbourPosition) {
-                        // Exclude self
-                        continue;
-                    }
-
-                    final int linkId = graph.getLink(vertexId, neighbourId);
-                    for (int linkEdgePosition = 0; linkEdgePosition < graph.getLinkEdgeCount(linkId); linkEdgePosition++) {
-                        final int edgeId = graph.getLinkEdge(linkId, linkEdgePosition);
-                        final int edgeDirection = graph.getEdgeDirection(edgeId);
-                        final boolean isRequestedDirection = (treatUndirectedBidirectional && edgeDirection == GraphConstants.UNDIRECTED
-                                || includeConnectionsIn && graph.getEdgeDestinationVertex(edgeId) == vertexId
-                                || includeConnectionsOut && graph.getEdgeSourceVertex(edgeId) == vertexId);
-                        if (isRequestedDirection) { // If it is a neighbour we are interested in, based on whetehr we are interest in incoing or outoing neighbours.
-                            // neighbour weight vertex-neighbour = Number of transaction of correct direction between them - number of transacions of type similarity.
-                            if (currentVertexWithNeighbour == null) {
-                                currentVertexWithNeighbour = new VertexWithNeighbours(vertexId, vertexCount, graph.getBooleanValue(vertexSelectedAttributeId, vertexId));
-                            }
-
-                            final int weight = graph.getEdgeTransactionCount(edgeId) - SimilarityUtilities.countEdgeSimilarityTransactions(graph, edgeId);
-                            currentVertexWithNeighbour.addNeighbour(neighbourPosition, weight);
-                            vertexNeighbourCount += 1; // Found  valid neighbour so track this.
-                        }
-                    }
-                }
-            }
-            if (vertexNeighbourCount >= minCommonFeatures) {
-                // Add vertex to list of verticies with neighbours IFF it has enough neighbours to potentially pass the minCommonFeatures test later.
-                verticiesWithNeighbours.add(currentVertexWithNeighbour);
-            }
+        final float[] magnitudes = new float[vertexCount];
+        for (int vertexPosition = 0; vertexPosition < vertexCount; vertexPosition++) {
+            magnitudes[vertexPosition] = engine.getMagnitude(vertexPosition);
         }
-        // At this point:
-        // neighbourweights[vertexPosition][neighbourposition] = number of relevant transactions between them - number of transaction of type similarity between them.
-        // neighbours[vertexPosition] = bitset representing whetehr each vertex is a neighbour or not
-        // update = bitset representing whether the vertex has any neighbours at all.
 
+        // calculate cosine similarity for every pair of vertices sharing neighbours
+        final Similarities similarities = engine.calculate((neighbourPosition, vertexOneWeight, vertexTwoWeight) -> vertexOneWeight * vertexTwoWeight,
+                (vertexOnePosition, vertexTwoPosition, commonNeighbours, neighbourDotProduct) -> {
+                    final float neighboursMagnitude = magnitudes[vertexOnePosition] * magnitudes[vertexTwoPosition];
+                    return neighboursMagnitude == 0 ? 0F : neighbourDotProduct / neighboursMagnitude;
+                });
+
+        // add the cosine similarity of each pair to the graph
         SimilarityUtilities.setGraphAndEnsureAttributes(graph, COSINE_SIMILARITY_ATTRIBUTE);
-        // calculate cosine similarity for every pair of vertices on the graph
-        for (int leftIndex = 0; leftIndex < verticiesWithNeighbours.size() - 1; leftIndex++) {
-            final VertexWithNeighbours leftVertexWithNeighbours = verticiesWithNeighbours.get(leftIndex);
-            for (int rightIndex = leftIndex + 1; rightIndex < verticiesWithNeighbours.size(); rightIndex++) {
-                final VertexWithNeighbours rightVertexWithNeighbours = verticiesWithNeighbours.get(rightIndex);
-                if (!selectedOnly || leftVertexWithNeighbours.selected || rightVertexWithNeighbours.selected) { // if we care about selected ensure that one of the verticies is selected.
-                    // Get a bitset that tells you which vertexPositions had both verticies as a neighbour.
-                    final BitSet commonNeighbours = getCommonNeighbours(leftVertexWithNeighbours.neighbours, rightVertexWithNeighbours.neighbours);
-
-                    if (commonNeighbours.cardinality() >= minCommonFeatures) {
-                        // If passes minCommonFeatures condition
-                        final float neighbourDotProduct = getNeighbourDotProduct(leftVertexWithNeighbours, rightVertexWithNeighbours, commonNeighbours);
-                        final float neighboursMagnitude = leftVertexWithNeighbours.getMagnitude() * rightVertexWithNeighbours.getMagnitude();
-                        final float cosineSimilarity = neighboursMagnitude == 0 ? 0 : neighbourDotProduct / neighboursMagnitude;
-                        SimilarityUtilities.addScoreToGraph(leftVertexWithNeighbours.vertexId, rightVertexWithNeighbours.vertexId, cosineSimilarity);
-                    }
-                }
-            }
-        }
+        SimilarityUtilities.addScoresToGraph(similarities);
+
         // complete with schema
         PluginExecution.withPlugin(VisualSchemaPluginRegistry.COMPLETE_SCHEMA).executeNow(graph);
     }
-
-    private class VertexWithNeighbours {
-
-        private final int vertexId;
-        private final Map<Integer, Integer> neighbourWeightsMap;
-        private BitSet neighbours;
-        private final boolean selected;
-        private float magnitude;
-        private boolean recalculateMagnitude = true;
-
-        public VertexWithNeighbours(final int vertexId, final int vertexCount, final boolean selected) {
-            this.neighbourWeightsMap = new HashMap<>();
-            this.vertexId = vertexId;
-            this.selected = selected;
-            this.neighbours = new BitSet(vertexCount);
-        }
-
-        private void addNeighbour(final int neighbourPosition, final int additionalWeight) {
-            final int currentWeight = neighbourWeightsMap.getOrDefault(neighbourPosition, 0);
-            neighbourWeightsMap.put(neighbourPosition, currentWeight + additionalWeight);
-            neighbours.set(neighbourPosition, true);
-            recalculateMagnitude = true;
-        }
-
-        private float getMagnitude() {
-            if (recalculateMagnitude) {
-                magnitude = calculateMagnitude();
-            }
-            return magnitude;
-        }
-
-        private float calculateMagnitude() {
-            float mag = 0;
-            for (final int neighbourWeight : neighbourWeightsMap.values()) {
-                mag += Math.pow(neighbourWeight, 2);
-            }
-            recalculateMagnitude = false;
-            return (float) Math.sqrt(mag);
-        }
-
-    }
-
-    protected BitSet getCommonNeighbours(final BitSet leftVertexNeighbours, final BitSet rightVertexNeighbours) {
-        final BitSet intersection = (BitSet) leftVertexNeighbours.clone();
-        intersection.and(rightVertexNeighbours);
-        return intersection;
-    }
-
-    protected float getNeighbourDotProduct(final VertexWithNeighbours vertex1, final VertexWithNeighbours vertex2, final BitSet intersection) {
-        float dot = 0;
-        for (int index = intersection.nextSetBit(0); index >= 0; index = intersection.nextSetBit(index + 1)) {
-            dot += vertex1.neighbourWeightsMap.get(index) * vertex2.neighbourWeightsMap.get(index);
-        }
-        return dot;
-    }
-
 }
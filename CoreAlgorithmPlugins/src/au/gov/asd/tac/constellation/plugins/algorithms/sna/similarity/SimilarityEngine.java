@@ -0,0 +1,658 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.schema.analytic.concept.AnalyticConcept;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the pairs of vertices that share neighbours, and scores them with a
+ * similarity measure.
+ * <p>
+ * The neighbours of each vertex are held in sorted arrays, along with an
+ * inverted index listing the vertices that have each vertex as a neighbour.
+ * Rather than comparing every pair of vertices, the pairs are found by
+ * walking two steps from each vertex: through each of its neighbours to the
+ * other vertices sharing that neighbour. Each thread of the common pool
+ * accumulates the common neighbours of a range of vertices in its own arrays,
+ * so pairs with nothing in common are never looked at.
+ * <p>
+ * Alternatively, candidate pairs can be found with MinHash signatures of the
+ * neighbour sets, split into bands for locality sensitive hashing. Pairs
+ * whose neighbour sets have a Jaccard index above about 0.4 are very likely
+ * to share a band, and pairs with a low index are likely to be missed. Each
+ * candidate is scored exactly.
+ * <p>
+ * In both cases pairs are scored in order of the position of their first
+ * vertex and then their second, and the common neighbours of a pair are
+ * visited in order of position, so the results don't depend on thread
+ * timing.
+ *
+ * @author algol
+ */
+public final class SimilarityEngine {
+
+    /**
+     * The contribution of a common neighbour to the score of a pair.
+     */
+    @FunctionalInterface
+    public interface Contribution {
+
+        /**
+         * Calculate the contribution of a common neighbour.
+         *
+         * @param neighbour The position of the common neighbour.
+         * @param weightOne The weight of the neighbour for the first vertex.
+         * @param weightTwo The weight of the neighbour for the second vertex.
+         *
+         * @return The amount to add to the sum for the pair.
+         */
+        double apply(int neighbour, int weightOne, int weightTwo);
+    }
+
+    /**
+     * The score of a pair of vertices.
+     */
+    @FunctionalInterface
+    public interface PairScore {
+
+        /**
+         * Calculate the score of a pair of vertices.
+         *
+         * @param one The position of the first vertex.
+         * @param two The position of the second vertex, which is greater than
+         * the first.
+         * @param common The number of neighbours the vertices share.
+         * @param sum The sum of the contributions of the common neighbours, or
+         * 0 if there is no contribution.
+         *
+         * @return The score of the pair.
+         */
+        float apply(int one, int two, int common, float sum);
+    }
+
+    /**
+     * The scored pairs of vertices, by position, in order of their first
+     * vertex and then their second.
+     *
+     * @param ones The position of the first vertex of each pair.
+     * @param twos The position of the second vertex of each pair.
+     * @param scores The score of each pair.
+     */
+    public record Similarities(int[] ones, int[] twos, float[] scores) {
+
+        /**
+         * The number of pairs.
+         *
+         * @return The number of pairs.
+         */
+        public int size() {
+            return ones.length;
+        }
+    }
+
+    // graphs with fewer neighbour visits than this are not worth splitting up
+    private static final int MIN_PARALLEL_SIZE = 100000;
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    // 32 bands of 4 hashes, so pairs with a jaccard index above (1/32)^(1/4) are likely to be found
+    private static final int MIN_HASH_BANDS = 32;
+    private static final int MIN_HASH_ROWS = 4;
+    private static final long MIN_HASH_SEED = 0x5DEECE66DL;
+
+    private final int vertexCount;
+
+    // the neighbours of the vertex at position p are neighbours[offsets[p]] to
+    // neighbours[offsets[p + 1] - 1] in order of position, with their weights
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final int[] weights;
+
+    // the vertices having the vertex at position p as a neighbour, in order of
+    // position, with the weight of the vertex at position p for each of them
+    private final int[] sharingOffsets;
+    private final int[] sharing;
+    private final int[] sharingWeights;
+
+    private final boolean[] selected;
+
+    private int minimumCommonNeighbours = 1;
+    private boolean selectedOnly = false;
+    private boolean selectedPairsOnly = false;
+    private int topK = 0;
+    private float minimumScore = Float.NEGATIVE_INFINITY;
+    private boolean approximate = false;
+
+    /**
+     * Take the neighbours of each vertex of a graph.
+     * <p>
+     * A vertex has a neighbour if an edge between them goes in one of the
+     * requested directions and holds a transaction that isn't itself a
+     * similarity score. The weight of the neighbour is the number of such
+     * transactions. Loops are not included.
+     *
+     * @param graph The graph.
+     * @param includeConnectionsIn Include neighbours with transactions into
+     * the vertex.
+     * @param includeConnectionsOut Include neighbours with transactions out of
+     * the vertex.
+     * @param treatUndirectedBidirectional Include neighbours with undirected
+     * transactions.
+     */
+    public SimilarityEngine(final GraphReadMethods graph, final boolean includeConnectionsIn,
+            final boolean includeConnectionsOut, final boolean treatUndirectedBidirectional) {
+        vertexCount = graph.getVertexCount();
+        final int typeAttribute = AnalyticConcept.TransactionAttribute.TYPE.get(graph);
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+
+        offsets = new int[vertexCount + 1];
+        selected = new boolean[vertexCount];
+        long[] entries = new long[Math.max(16, graph.getLinkCount() * 2)];
+        int count = 0;
+        for (int position = 0; position < vertexCount; position++) {
+            final int vertexId = graph.getVertex(position);
+            selected[position] = selectedAttribute != GraphConstants.NOT_FOUND && graph.getBooleanValue(selectedAttribute, vertexId);
+
+            final int start = count;
+            final int linkCount = graph.getVertexLinkCount(vertexId);
+            for (int linkPosition = 0; linkPosition < linkCount; linkPosition++) {
+                final int linkId = graph.getVertexLink(vertexId, linkPosition);
+                final int lowVertexId = graph.getLinkLowVertex(linkId);
+                final int neighbourId = lowVertexId == vertexId ? graph.getLinkHighVertex(linkId) : lowVertexId;
+                if (neighbourId == vertexId) {
+                    continue;
+                }
+
+                int weight = 0;
+                for (int edgePosition = 0; edgePosition < graph.getLinkEdgeCount(linkId); edgePosition++) {
+                    final int edgeId = graph.getLinkEdge(linkId, edgePosition);
+                    final boolean isRequestedDirection = includeConnectionsIn && includeConnectionsOut
+                            || treatUndirectedBidirectional && graph.getEdgeDirection(edgeId) == GraphConstants.UNDIRECTED
+                            || includeConnectionsIn && graph.getEdgeDestinationVertex(edgeId) == vertexId
+                            || includeConnectionsOut && graph.getEdgeSourceVertex(edgeId) == vertexId;
+                    if (isRequestedDirection) {
+                        weight += countFeatureTransactions(graph, edgeId, typeAttribute);
+                    }
+                }
+
+                if (weight > 0) {
+                    if (count == entries.length) {
+                        entries = Arrays.copyOf(entries, entries.length * 2);
+                    }
+                    entries[count++] = ((long) graph.getVertexPosition(neighbourId) << 32) | weight;
+                }
+            }
+
+            // the neighbour is in the high bits, so this sorts by neighbour position
+            Arrays.sort(entries, start, count);
+            offsets[position + 1] = count;
+        }
+
+        neighbours = new int[count];
+        weights = new int[count];
+        sharingOffsets = new int[vertexCount + 1];
+        for (int index = 0; index < count; index++) {
+            neighbours[index] = (int) (entries[index] >>> 32);
+            weights[index] = (int) entries[index];
+            sharingOffsets[neighbours[index] + 1]++;
+        }
+        for (int position = 0; position < vertexCount; position++) {
+            sharingOffsets[position + 1] += sharingOffsets[position];
+        }
+
+        // filling the inverted index in order of position keeps each of its lists in order
+        sharing = new int[count];
+        sharingWeights = new int[count];
+        final int[] fill = Arrays.copyOf(sharingOffsets, vertexCount);
+        for (int position = 0; position < vertexCount; position++) {
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                final int slot = fill[neighbours[index]]++;
+                sharing[slot] = position;
+                sharingWeights[slot] = weights[index];
+            }
+        }
+    }
+
+    private static int countFeatureTransactions(final GraphReadMethods graph, final int edgeId, final int typeAttribute) {
+        final int transactionCount = graph.getEdgeTransactionCount(edgeId);
+        if (typeAttribute == GraphConstants.NOT_FOUND) {
+            return transactionCount;
+        }
+
+        int count = 0;
+        for (int transactionPosition = 0; transactionPosition < transactionCount; transactionPosition++) {
+            final int transactionId = graph.getEdgeTransaction(edgeId, transactionPosition);
+            if (!AnalyticConcept.TransactionType.SIMILARITY.equals(graph.getObjectValue(typeAttribute, transactionId))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Only score pairs that share at least this many neighbours. The default
+     * is 1.
+     *
+     * @param minimumCommonNeighbours The minimum number of common neighbours.
+     */
+    public void setMinimumCommonNeighbours(final int minimumCommonNeighbours) {
+        this.minimumCommonNeighbours = Math.max(1, minimumCommonNeighbours);
+    }
+
+    /**
+     * Only score pairs with at least one selected vertex.
+     *
+     * @param selectedOnly True to skip pairs of unselected vertices.
+     */
+    public void setSelectedOnly(final boolean selectedOnly) {
+        this.selectedOnly = selectedOnly;
+    }
+
+    /**
+     * Only score pairs with two selected vertices.
+     *
+     * @param selectedPairsOnly True to skip pairs with an unselected vertex.
+     */
+    public void setSelectedPairsOnly(final boolean selectedPairsOnly) {
+        this.selectedPairsOnly = selectedPairsOnly;
+    }
+
+    /**
+     * Keep only the pairs that are among the k highest scoring pairs of
+     * either of their vertices. Ties are broken in favour of the pair that
+     * comes first.
+     *
+     * @param topK The number of pairs to keep for each vertex, or 0 to keep
+     * every pair.
+     */
+    public void setTopK(final int topK) {
+        this.topK = Math.max(0, topK);
+    }
+
+    /**
+     * Keep only the pairs with at least this score.
+     *
+     * @param minimumScore The minimum score.
+     */
+    public void setMinimumScore(final float minimumScore) {
+        this.minimumScore = minimumScore;
+    }
+
+    /**
+     * Find candidate pairs with MinHash signatures rather than visiting every
+     * pair that shares a neighbour.
+     *
+     * @param approximate True to find candidate pairs with MinHash signatures.
+     */
+    public void setApproximate(final boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * The number of neighbours of a vertex.
+     *
+     * @param position The position of the vertex.
+     *
+     * @return The number of neighbours.
+     */
+    public int getDegree(final int position) {
+        return offsets[position + 1] - offsets[position];
+    }
+
+    /**
+     * The Euclidean length of the weights of the neighbours of a vertex.
+     *
+     * @param position The position of the vertex.
+     *
+     * @return The length of the weights.
+     */
+    public float getMagnitude(final int position) {
+        float magnitude = 0;
+        for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+            magnitude += Math.pow(weights[index], 2);
+        }
+        return (float) Math.sqrt(magnitude);
+    }
+
+    /**
+     * Whether one vertex has another as a neighbour.
+     *
+     * @param position The position of the vertex.
+     * @param neighbour The position of the possible neighbour.
+     *
+     * @return True if the neighbour is a neighbour of the vertex.
+     */
+    public boolean isNeighbour(final int position, final int neighbour) {
+        return Arrays.binarySearch(neighbours, offsets[position], offsets[position + 1], neighbour) >= 0;
+    }
+
+    /**
+     * Whether a vertex was selected when the neighbours were taken.
+     *
+     * @param position The position of the vertex.
+     *
+     * @return True if the vertex is selected.
+     */
+    public boolean isSelected(final int position) {
+        return selected[position];
+    }
+
+    /**
+     * Score the pairs of vertices that share neighbours.
+     *
+     * @param contribution The contribution of each common neighbour to the
+     * sum passed to the score, or null if only the number of common
+     * neighbours is needed.
+     * @param score The score of a pair.
+     *
+     * @return The pairs that pass the minimum number of common neighbours,
+     * the selection, the minimum score and the top k.
+     */
+    public Similarities calculate(final Contribution contribution, final PairScore score) {
+        final Similarities similarities = approximate
+                ? calculateCandidates(findMinHashCandidates(), contribution, score)
+                : calculateTwoHops(contribution, score);
+        return topK > 0 ? keepTopK(similarities) : similarities;
+    }
+
+    private boolean isWanted(final int one, final int two) {
+        if (selectedPairsOnly) {
+            return selected[one] && selected[two];
+        }
+        return !selectedOnly || selected[one] || selected[two];
+    }
+
+    private Similarities calculateTwoHops(final Contribution contribution, final PairScore score) {
+        // the work for a vertex is the number of vertices reached in two steps
+        final long[] work = new long[vertexCount + 1];
+        for (int position = 0; position < vertexCount; position++) {
+            long visits = 1;
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                visits += sharingOffsets[neighbours[index] + 1] - sharingOffsets[neighbours[index]];
+            }
+            work[position + 1] = work[position] + visits;
+        }
+        final int[] partitions = partition(work);
+
+        final PairList[] results = new PairList[partitions.length - 1];
+        IntStream.range(0, results.length).parallel().forEach(partition -> {
+            final PairList pairs = new PairList();
+            final int[] common = new int[vertexCount];
+            final float[] sums = new float[vertexCount];
+            final int[] touched = new int[vertexCount];
+            for (int one = partitions[partition]; one < partitions[partition + 1]; one++) {
+                if (selectedPairsOnly && !selected[one]) {
+                    continue;
+                }
+                final boolean partnerMustBeSelected = selectedPairsOnly || (selectedOnly && !selected[one]);
+
+                int touchedCount = 0;
+                for (int index = offsets[one]; index < offsets[one + 1]; index++) {
+                    final int neighbour = neighbours[index];
+                    final int end = sharingOffsets[neighbour + 1];
+
+                    // only pairs with a greater second vertex are scored from this vertex
+                    int start = Arrays.binarySearch(sharing, sharingOffsets[neighbour], end, one);
+                    start = start >= 0 ? start + 1 : -start - 1;
+                    for (int slot = start; slot < end; slot++) {
+                        final int two = sharing[slot];
+                        if (partnerMustBeSelected && !selected[two]) {
+                            continue;
+                        }
+                        if (common[two]++ == 0) {
+                            touched[touchedCount++] = two;
+                        }
+                        if (contribution != null) {
+                            sums[two] += contribution.apply(neighbour, weights[index], sharingWeights[slot]);
+                        }
+                    }
+                }
+
+                Arrays.sort(touched, 0, touchedCount);
+                for (int touchedIndex = 0; touchedIndex < touchedCount; touchedIndex++) {
+                    final int two = touched[touchedIndex];
+                    if (common[two] >= minimumCommonNeighbours) {
+                        final float pairScore = score.apply(one, two, common[two], sums[two]);
+                        if (pairScore >= minimumScore) {
+                            pairs.add(one, two, pairScore);
+                        }
+                    }
+                    common[two] = 0;
+                    sums[two] = 0;
+                }
+            }
+            results[partition] = pairs;
+        });
+
+        return PairList.concatenate(results);
+    }
+
+    private long[] findMinHashCandidates() {
+        final int hashCount = MIN_HASH_BANDS * MIN_HASH_ROWS;
+        final long[] seeds = new long[hashCount];
+        for (int hash = 0; hash < hashCount; hash++) {
+            seeds[hash] = mix(MIN_HASH_SEED + hash);
+        }
+
+        // vertices with too few neighbours can't be in a pair
+        final int[] candidates = IntStream.range(0, vertexCount)
+                .filter(position -> getDegree(position) >= minimumCommonNeighbours)
+                .toArray();
+        final int[] signatures = new int[candidates.length * hashCount];
+        IntStream.range(0, candidates.length).parallel().forEach(candidate -> {
+            final int position = candidates[candidate];
+            final int signature = candidate * hashCount;
+            Arrays.fill(signatures, signature, signature + hashCount, Integer.MAX_VALUE);
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                for (int hash = 0; hash < hashCount; hash++) {
+                    signatures[signature + hash] = Math.min(signatures[signature + hash], (int) mix(seeds[hash] ^ neighbours[index]));
+                }
+            }
+        });
+
+        // vertices with the same hash of a band of their signature are candidate pairs
+        final long[][] bandPairs = new long[MIN_HASH_BANDS][];
+        IntStream.range(0, MIN_HASH_BANDS).parallel().forEach(band -> {
+            final long[] keys = new long[candidates.length];
+            for (int candidate = 0; candidate < candidates.length; candidate++) {
+                long key = band;
+                for (int row = 0; row < MIN_HASH_ROWS; row++) {
+                    key = mix(key ^ signatures[candidate * hashCount + band * MIN_HASH_ROWS + row]);
+                }
+                keys[candidate] = (key & 0xFFFFFFFF00000000L) | candidates[candidate];
+            }
+            Arrays.sort(keys);
+
+            long[] pairs = new long[16];
+            int pairCount = 0;
+            for (int groupStart = 0, groupEnd; groupStart < keys.length; groupStart = groupEnd) {
+                groupEnd = groupStart + 1;
+                while (groupEnd < keys.length && (keys[groupEnd] >>> 32) == (keys[groupStart] >>> 32)) {
+                    groupEnd++;
+                }
+                for (int first = groupStart; first < groupEnd; first++) {
+                    for (int second = first + 1; second < groupEnd; second++) {
+                        if (pairCount == pairs.length) {
+                            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                        }
+                        pairs[pairCount++] = (keys[first] << 32) | (keys[second] & 0xFFFFFFFFL);
+                    }
+                }
+            }
+            bandPairs[band] = Arrays.copyOf(pairs, pairCount);
+        });
+
+        return Arrays.stream(bandPairs).flatMapToLong(Arrays::stream).parallel().sorted().distinct().toArray();
+    }
+
+    private Similarities calculateCandidates(final long[] candidates, final Contribution contribution, final PairScore score) {
+        final float[] scores = new float[candidates.length];
+        final boolean[] kept = new boolean[candidates.length];
+        IntStream.range(0, candidates.length).parallel().forEach(candidate -> {
+            final int one = (int) (candidates[candidate] >>> 32);
+            final int two = (int) candidates[candidate];
+            if (!isWanted(one, two)) {
+                return;
+            }
+
+            // merge the sorted neighbours of the pair to find the common neighbours in order
+            int common = 0;
+            float sum = 0;
+            int indexOne = offsets[one];
+            int indexTwo = offsets[two];
+            while (indexOne < offsets[one + 1] && indexTwo < offsets[two + 1]) {
+                if (neighbours[indexOne] < neighbours[indexTwo]) {
+                    indexOne++;
+                } else if (neighbours[indexOne] > neighbours[indexTwo]) {
+                    indexTwo++;
+                } else {
+                    common++;
+                    if (contribution != null) {
+                        sum += contribution.apply(neighbours[indexOne], weights[indexOne], weights[indexTwo]);
+                    }
+                    indexOne++;
+                    indexTwo++;
+                }
+            }
+
+            if (common >= minimumCommonNeighbours) {
+                scores[candidate] = score.apply(one, two, common, sum);
+                kept[candidate] = scores[candidate] >= minimumScore;
+            }
+        });
+
+        final PairList pairs = new PairList();
+        for (int candidate = 0; candidate < candidates.length; candidate++) {
+            if (kept[candidate]) {
+                pairs.add((int) (candidates[candidate] >>> 32), (int) candidates[candidate], scores[candidate]);
+            }
+        }
+        return pairs.toSimilarities();
+    }
+
+    private Similarities keepTopK(final Similarities similarities) {
+        final int pairCount = similarities.size();
+        final int[] pairOffsets = new int[vertexCount + 1];
+        for (int pair = 0; pair < pairCount; pair++) {
+            pairOffsets[similarities.ones()[pair] + 1]++;
+            pairOffsets[similarities.twos()[pair] + 1]++;
+        }
+        for (int position = 0; position < vertexCount; position++) {
+            pairOffsets[position + 1] += pairOffsets[position];
+        }
+
+        // sort the pairs of each vertex by descending score and then by order,
+        // packing the score into the high bits of a key and the pair into the low bits
+        final long[] keys = new long[pairCount * 2];
+        final int[] fill = Arrays.copyOf(pairOffsets, vertexCount);
+        for (int pair = 0; pair < pairCount; pair++) {
+            final int bits = Float.floatToIntBits(similarities.scores()[pair]);
+            final long descending = (long) Integer.MAX_VALUE - (bits ^ ((bits >> 31) & Integer.MAX_VALUE));
+            final long key = (descending << 31) | pair;
+            keys[fill[similarities.ones()[pair]]++] = key;
+            keys[fill[similarities.twos()[pair]]++] = key;
+        }
+
+        final boolean[] kept = new boolean[pairCount];
+        IntStream.range(0, vertexCount).parallel().forEach(position -> {
+            final int start = pairOffsets[position];
+            final int end = pairOffsets[position + 1];
+            if (end - start > topK) {
+                Arrays.sort(keys, start, end);
+            }
+            for (int index = start; index < Math.min(end, start + topK); index++) {
+                kept[(int) (keys[index] & Integer.MAX_VALUE)] = true;
+            }
+        });
+
+        final PairList pairs = new PairList();
+        for (int pair = 0; pair < pairCount; pair++) {
+            if (kept[pair]) {
+                pairs.add(similarities.ones()[pair], similarities.twos()[pair], similarities.scores()[pair]);
+            }
+        }
+        return pairs.toSimilarities();
+    }
+
+    private static int[] partition(final long[] work) {
+        final int rowCount = work.length - 1;
+        final long size = work[rowCount];
+        final int partitionCount = size < MIN_PARALLEL_SIZE ? 1
+                : (int) Math.min(rowCount, (long) ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD);
+
+        final int[] partitionStarts = new int[partitionCount + 1];
+        int row = 0;
+        for (int partition = 1; partition < partitionCount; partition++) {
+            final long share = size * partition / partitionCount;
+            while (row < rowCount && work[row] < share) {
+                row++;
+            }
+            partitionStarts[partition] = row;
+        }
+        partitionStarts[partitionCount] = rowCount;
+
+        return partitionStarts;
+    }
+
+    // the splitmix64 finaliser
+    private static long mix(final long value) {
+        long mixed = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+
+    /**
+     * A growing list of scored pairs.
+     */
+    private static final class PairList {
+
+        private int[] ones = new int[16];
+        private int[] twos = new int[16];
+        private float[] scores = new float[16];
+        private int size = 0;
+
+        private void add(final int one, final int two, final float score) {
+            if (size == ones.length) {
+                ones = Arrays.copyOf(ones, size * 2);
+                twos = Arrays.copyOf(twos, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ones[size] = one;
+            twos[size] = two;
+            scores[size] = score;
+            size++;
+        }
+
+        private Similarities toSimilarities() {
+            return new Similarities(Arrays.copyOf(ones, size), Arrays.copyOf(twos, size), Arrays.copyOf(scores, size));
+        }
+
+        private static Similarities concatenate(final PairList[] lists) {
+            final PairList all = new PairList();
+            for (final PairList list : lists) {
+                for (int index = 0; index < list.size; index++) {
+                    all.add(list.ones[index], list.twos[index], list.scores[index]);
+                }
+            }
+            return all.toSimilarities();
+        }
+    }
+}
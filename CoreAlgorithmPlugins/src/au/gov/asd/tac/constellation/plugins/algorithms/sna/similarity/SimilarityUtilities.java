@@ -56,6 +56,19 @@ public class SimilarityUtilities {
         scores.forEach((pair, score) -> addScoreToGraph(pair.getFirst(), pair.getSecond(), score));
     }
 
+    /**
+     * Adds similarity scores calculated by a {@link SimilarityEngine} to the
+     * graph while ensuring there is only ever a single similarity transaction
+     * between any pair of nodes.
+     *
+     * @param similarities - the scores of each vertex pair, by vertex position
+     */
+    public static void addScoresToGraph(final SimilarityEngine.Similarities similarities) {
+        for (int pair = 0; pair < similarities.size(); pair++) {
+            addScoreToGraph(graph.getVertex(similarities.ones()[pair]), graph.getVertex(similarities.twos()[pair]), similarities.scores()[pair]);
+        }
+    }
+
     /**
      * Adds a similarity score to the graph while ensuring there is only ever a
      * single similarity transactions between any pair of nodes.
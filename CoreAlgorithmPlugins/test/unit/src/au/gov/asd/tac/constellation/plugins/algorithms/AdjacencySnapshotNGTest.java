@@ -0,0 +1,217 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import java.util.Arrays;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test of AdjacencySnapshot.
+ *
+ * @author algol
+ */
+public class AdjacencySnapshotNGTest {
+
+    private int vxId0;
+    private int vxId1;
+    private int vxId2;
+    private int vxId3;
+    private int vxId4;
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        // create an analytic graph
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        graph = new StoreGraph(schema);
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+        vxId4 = graph.addVertex();
+
+        // add transactions
+        graph.addTransaction(vxId0, vxId1, true);
+        graph.addTransaction(vxId1, vxId2, true);
+        graph.addTransaction(vxId2, vxId1, true);
+        graph.addTransaction(vxId1, vxId3, false);
+        graph.addTransaction(vxId3, vxId4, true);
+        graph.addTransaction(vxId3, vxId4, true);
+        graph.addTransaction(vxId4, vxId4, true);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    /**
+     * Outgoing transactions and undirected transactions should be followed.
+     */
+    @Test
+    public void testOutgoing() {
+        System.out.println("testOutgoing");
+
+        final Adjacency adjacency = AdjacencySnapshot.getAdjacency(graph, false, true, true);
+        assertEquals(adjacency.vertexCount(), 5);
+        assertEquals(neighbours(adjacency, vxId0), new int[]{vxId1});
+        assertEquals(neighbours(adjacency, vxId1), new int[]{vxId2, vxId3});
+        assertEquals(neighbours(adjacency, vxId2), new int[]{vxId1});
+        assertEquals(neighbours(adjacency, vxId3), new int[]{vxId1, vxId4});
+        assertEquals(neighbours(adjacency, vxId4), new int[]{});
+        assertEquals(weight(adjacency, vxId3, vxId4), 2);
+    }
+
+    /**
+     * Incoming transactions and undirected transactions should be followed,
+     * making the adjacency the reverse of the outgoing adjacency.
+     */
+    @Test
+    public void testIncoming() {
+        System.out.println("testIncoming");
+
+        final Adjacency adjacency = AdjacencySnapshot.getAdjacency(graph, true, false, true);
+        assertEquals(neighbours(adjacency, vxId0), new int[]{});
+        assertEquals(neighbours(adjacency, vxId1), new int[]{vxId0, vxId2, vxId3});
+        assertEquals(neighbours(adjacency, vxId2), new int[]{vxId1});
+        assertEquals(neighbours(adjacency, vxId3), new int[]{vxId1});
+        assertEquals(neighbours(adjacency, vxId4), new int[]{vxId3});
+        assertEquals(weight(adjacency, vxId4, vxId3), 2);
+    }
+
+    /**
+     * Every transaction should be followed either way, and counted once in the
+     * weight of its link.
+     */
+    @Test
+    public void testUndirected() {
+        System.out.println("testUndirected");
+
+        final Adjacency adjacency = AdjacencySnapshot.getAdjacency(graph, true, true, false);
+        assertEquals(neighbours(adjacency, vxId1), new int[]{vxId0, vxId2, vxId3});
+        assertEquals(neighbours(adjacency, vxId4), new int[]{vxId3});
+        assertEquals(weight(adjacency, vxId1, vxId2), 2);
+        assertEquals(weight(adjacency, vxId2, vxId1), 2);
+        assertSame(AdjacencySnapshot.getAdjacency(graph, true, true, true), adjacency);
+    }
+
+    /**
+     * Only directed transactions should be followed by a directed adjacency.
+     */
+    @Test
+    public void testDirected() {
+        System.out.println("testDirected");
+
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.getSnapshot(graph);
+        final Adjacency outgoing = snapshot.getDirectedAdjacency(true);
+        assertEquals(neighbours(outgoing, vxId1), new int[]{vxId2});
+        assertEquals(neighbours(outgoing, vxId3), new int[]{vxId4});
+        assertEquals(weight(outgoing, vxId3, vxId4), 2);
+
+        final Adjacency incoming = snapshot.getDirectedAdjacency(false);
+        assertEquals(neighbours(incoming, vxId1), new int[]{vxId0, vxId2});
+        assertEquals(neighbours(incoming, vxId3), new int[]{});
+    }
+
+    /**
+     * The snapshot should be reused until the structure of the graph changes.
+     */
+    @Test
+    public void testCaching() {
+        System.out.println("testCaching");
+
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.getSnapshot(graph);
+        assertSame(AdjacencySnapshot.getSnapshot(graph), snapshot);
+        assertSame(snapshot.getAdjacency(false, true, true), snapshot.getAdjacency(false, true, true));
+
+        graph.addTransaction(vxId4, vxId0, true);
+        final AdjacencySnapshot changed = AdjacencySnapshot.getSnapshot(graph);
+        assertNotSame(changed, snapshot);
+        assertEquals(neighbours(changed.getAdjacency(false, true, true), vxId4), new int[]{vxId0});
+    }
+
+    /**
+     * A snapshot should not be reused after a change is undone and a different
+     * change brings the modification counters back to the same values.
+     */
+    @Test
+    public void testCachingAfterUndo() {
+        System.out.println("testCachingAfterUndo");
+
+        final int txId = graph.addTransaction(vxId4, vxId0, true);
+        final AdjacencySnapshot snapshot = AdjacencySnapshot.getSnapshot(graph);
+        final long structureModificationCounter = graph.getStructureModificationCounter();
+
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.removeTransaction(txId);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.addTransaction(vxId2, vxId0, true);
+        assertEquals(graph.getStructureModificationCounter(), structureModificationCounter);
+
+        final AdjacencySnapshot changed = AdjacencySnapshot.getSnapshot(graph);
+        assertNotSame(changed, snapshot);
+        assertEquals(neighbours(changed.getAdjacency(false, true, true), vxId4), new int[]{});
+        assertEquals(neighbours(changed.getAdjacency(false, true, true), vxId2), new int[]{vxId0, vxId1});
+    }
+
+    /**
+     * Vertices should share a component with the vertices they are connected
+     * to.
+     */
+    @Test
+    public void testComponents() {
+        System.out.println("testComponents");
+
+        final int vxId5 = graph.addVertex();
+        final int[] components = new int[graph.getVertexCount()];
+        assertEquals(AdjacencySnapshot.getAdjacency(graph, false, true, true).components(components), 2);
+        assertEquals(components[graph.getVertexPosition(vxId0)], components[graph.getVertexPosition(vxId4)]);
+        assertEquals(components[graph.getVertexPosition(vxId5)], 1);
+    }
+
+    private int[] neighbours(final Adjacency adjacency, final int vertexId) {
+        final int position = graph.getVertexPosition(vertexId);
+        final int[] neighbours = new int[adjacency.degree(position)];
+        for (int index = 0; index < neighbours.length; index++) {
+            neighbours[index] = graph.getVertex(adjacency.targets()[adjacency.offsets()[position] + index]);
+        }
+        Arrays.sort(neighbours);
+        return neighbours;
+    }
+
+    private int weight(final Adjacency adjacency, final int vertexId, final int neighbourId) {
+        final int position = graph.getVertexPosition(vertexId);
+        for (int index = adjacency.offsets()[position]; index < adjacency.offsets()[position + 1]; index++) {
+            if (adjacency.targets()[index] == graph.getVertexPosition(neighbourId)) {
+                return adjacency.weights()[index];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import au.gov.asd.tac.constellation.plugins.algorithms.PowerIteration.Normalisation;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Test of PowerIteration.
+ *
+ * @author algol
+ */
+public class PowerIterationNGTest {
+
+    /**
+     * A path of three vertices, 0 - 1 - 2.
+     */
+    private static SparseMatrix path() {
+        return new SparseMatrix(new int[]{0, 1, 3, 4}, new int[]{1, 0, 2, 1}, null);
+    }
+
+    /**
+     * Test of step method, of class PowerIteration.
+     */
+    @Test
+    public void testStep() {
+        System.out.println("testStep");
+
+        final PowerIteration iteration = new PowerIteration(3, 1, Normalisation.NONE);
+        assertEquals(iteration.step(path()), 1.0);
+        assertEquals(iteration.getScores(), new double[]{1, 2, 1}, 0);
+        assertEquals(iteration.step(path()), 2.0);
+        assertEquals(iteration.getScores(), new double[]{2, 2, 2}, 0);
+    }
+
+    /**
+     * The update should be applied before the delta is measured.
+     */
+    @Test
+    public void testStepWithUpdate() {
+        System.out.println("testStepWithUpdate");
+
+        final PowerIteration iteration = new PowerIteration(3, 1, Normalisation.NONE);
+        final double delta = iteration.step(path(), iteration.getScores(), (row, product) -> 0.5 * product + row);
+        assertEquals(iteration.getScores(), new double[]{0.5, 2, 2.5}, 0);
+        assertEquals(delta, 3.0);
+    }
+
+    /**
+     * Test of normalisation, of class PowerIteration.
+     */
+    @Test
+    public void testNormalisation() {
+        System.out.println("testNormalisation");
+
+        final PowerIteration sum = new PowerIteration(3, 1, Normalisation.SUM);
+        sum.step(path());
+        assertEquals(sum.getScores(), new double[]{0.25, 0.5, 0.25}, 1E-12);
+
+        final PowerIteration euclidean = new PowerIteration(3, 1, Normalisation.EUCLIDEAN);
+        euclidean.step(path());
+        assertEquals(euclidean.getScores(), new double[]{1 / Math.sqrt(6), 2 / Math.sqrt(6), 1 / Math.sqrt(6)}, 1E-12);
+
+        final PowerIteration max = new PowerIteration(3, 1, Normalisation.MAX);
+        max.step(path());
+        assertEquals(max.getScores(), new double[]{0.5, 1, 0.5}, 1E-12);
+
+        // a vector of zeros can't be normalised
+        final PowerIteration zeros = new PowerIteration(3, 0, Normalisation.SUM);
+        zeros.step(path());
+        assertEquals(zeros.getScores(), new double[]{0, 0, 0}, 0);
+    }
+
+    /**
+     * A large matrix should be split into partitions that cover every row, and
+     * give the same result as multiplying each row in turn.
+     */
+    @Test
+    public void testPartitions() {
+        System.out.println("testPartitions");
+
+        // a cycle through every vertex
+        final int size = 200000;
+        final int[] offsets = new int[size + 1];
+        final int[] columns = new int[size];
+        for (int row = 0; row < size; row++) {
+            offsets[row + 1] = row + 1;
+            columns[row] = (row + 1) % size;
+        }
+        final SparseMatrix cycle = new SparseMatrix(offsets, columns, null);
+        assertEquals(cycle.getPartitionStart(0), 0);
+        assertEquals(cycle.getPartitionEnd(cycle.getPartitionCount() - 1), size);
+        for (int partition = 1; partition < cycle.getPartitionCount(); partition++) {
+            assertEquals(cycle.getPartitionStart(partition), cycle.getPartitionEnd(partition - 1));
+        }
+
+        final PowerIteration iteration = new PowerIteration(size, 0, Normalisation.MAX);
+        iteration.getScores()[0] = 1;
+        iteration.step(cycle);
+        assertEquals(iteration.getScores()[size - 1], 1.0);
+        double total = 0;
+        for (final double score : iteration.getScores()) {
+            total += score;
+        }
+        assertEquals(total, 1.0);
+    }
+}
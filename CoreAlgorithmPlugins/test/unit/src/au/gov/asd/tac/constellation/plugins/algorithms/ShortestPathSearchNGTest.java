@@ -0,0 +1,139 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Test of ShortestPathSearch.
+ *
+ * @author algol
+ */
+public class ShortestPathSearchNGTest {
+
+    private static final double UNREACHABLE = ShortestPathSearch.UNREACHABLE;
+
+    /**
+     * A path 0 -> 1 -> 2 -> 3 with a shortcut 0 -> 2, and a vertex 4 that
+     * can't be reached.
+     */
+    private static Adjacency createAdjacency() {
+        return new Adjacency(new int[]{0, 2, 3, 4, 4, 5}, new int[]{1, 2, 2, 3, 0}, new int[]{1, 1, 1, 1, 1});
+    }
+
+    /**
+     * Every entry should have a length of 1 when there are no lengths.
+     */
+    @Test
+    public void testUnitLengths() throws InterruptedException {
+        System.out.println("testUnitLengths");
+
+        final ShortestPathSearch search = new ShortestPathSearch(createAdjacency(), null);
+        assertEquals(search.getDistances(0, null), new double[]{0, 1, 1, 2, UNREACHABLE});
+        assertEquals(search.getDistances(4, null), new double[]{1, 2, 2, 3, 0});
+    }
+
+    /**
+     * The lengths of the entries should be added up along the shortest path.
+     */
+    @Test
+    public void testLengths() throws InterruptedException {
+        System.out.println("testLengths");
+
+        final ShortestPathSearch search = new ShortestPathSearch(createAdjacency(), new double[]{1, 5, 1, 0.5, 2});
+        assertEquals(search.getDistances(0, null), new double[]{0, 1, 2, 2.5, UNREACHABLE});
+    }
+
+    /**
+     * A search should stop once its targets are settled, leaving vertices
+     * further away unreachable.
+     */
+    @Test
+    public void testTargets() throws InterruptedException {
+        System.out.println("testTargets");
+
+        final ShortestPathSearch search = new ShortestPathSearch(createAdjacency(), new double[]{1, 5, 1, 0.5, 2});
+        assertEquals(search.getDistances(0, new int[]{1}), new double[]{0, 1, UNREACHABLE, UNREACHABLE, UNREACHABLE});
+        assertEquals(search.getDistances(0, new int[]{2})[2], 2.0);
+    }
+
+    /**
+     * Every source should be searched, with the distances to the vertices it
+     * reaches.
+     */
+    @Test
+    public void testForEachSource() throws InterruptedException {
+        System.out.println("testForEachSource");
+
+        final ShortestPathSearch search = new ShortestPathSearch(createAdjacency(), null);
+        final double[] eccentricities = new double[search.getVertexCount()];
+        search.forEachSource(new int[]{0, 1, 2, 3, 4}, null, (source, distances, reached, reachedCount) -> {
+            for (int index = 0; index < reachedCount; index++) {
+                eccentricities[source] = Math.max(distances[reached[index]], eccentricities[source]);
+            }
+        });
+        assertEquals(eccentricities, new double[]{2, 2, 1, 0, 3});
+    }
+
+    /**
+     * Delta stepping should find the same distances as a search on a single
+     * thread, whatever the width of its buckets.
+     */
+    @Test
+    public void testDeltaStepping() throws InterruptedException {
+        System.out.println("testDeltaStepping");
+
+        // a random graph large enough to be shared between threads
+        final int vertexCount = 50000;
+        final Random random = new Random(7);
+        final List<List<Integer>> neighbours = new ArrayList<>();
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            neighbours.add(new ArrayList<>());
+        }
+        for (int entry = 0; entry < vertexCount * 3; entry++) {
+            neighbours.get(random.nextInt(vertexCount)).add(random.nextInt(vertexCount));
+        }
+        final int[] offsets = new int[vertexCount + 1];
+        final int[] targets = new int[vertexCount * 3];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] = offsets[vertex] + neighbours.get(vertex).size();
+            for (int index = 0; index < neighbours.get(vertex).size(); index++) {
+                targets[offsets[vertex] + index] = neighbours.get(vertex).get(index);
+            }
+        }
+        final Adjacency adjacency = new Adjacency(offsets, targets, new int[targets.length]);
+        final double[] lengths = new double[targets.length];
+        for (int entry = 0; entry < lengths.length; entry++) {
+            lengths[entry] = 1 + random.nextInt(20);
+        }
+
+        for (final double[] entryLengths : Arrays.asList(null, lengths)) {
+            final ShortestPathSearch sequential = new ShortestPathSearch(adjacency, entryLengths);
+            sequential.setParallel(false);
+            final double[] expected = sequential.getDistances(0, null);
+
+            final ShortestPathSearch parallel = new ShortestPathSearch(adjacency, entryLengths);
+            assertEquals(parallel.getDistances(0, null), expected);
+            parallel.setDelta(3);
+            assertEquals(parallel.getDistances(0, null), expected);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.centrality.PathScoringUtilities.ScoreType;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test of BrandesPathScoring.
+ *
+ * @author algol
+ */
+public class BrandesPathScoringNGTest {
+
+    private static final ScoreType[] SCORE_TYPES = {ScoreType.BETWEENNESS, ScoreType.CLOSENESS, ScoreType.FARNESS,
+        ScoreType.HARMONIC_CLOSENESS, ScoreType.HARMONIC_FARNESS, ScoreType.ECCENTRICITY};
+    private static final boolean[][] DIRECTIONS = {{true, true}, {false, true}, {true, false}};
+
+    private int vxId0;
+    private int vxId1;
+    private int vxId2;
+    private int vxId3;
+    private int vxId4;
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        // create an analytic graph
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        graph = new StoreGraph(schema);
+        VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+        vxId4 = graph.addVertex();
+
+        // add transactions
+        graph.addTransaction(vxId0, vxId1, true);
+        graph.addTransaction(vxId1, vxId2, true);
+        graph.addTransaction(vxId1, vxId3, true);
+        graph.addTransaction(vxId2, vxId3, true);
+        graph.addTransaction(vxId3, vxId4, true);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    /**
+     * The scores should match those of PathScoringUtilities on a graph with
+     * unique shortest paths, and PathScoringUtilities.calculatePathScores
+     * should give the scores of this class on any graph.
+     */
+    @Test
+    public void testMatchesPathScoringUtilities() throws Exception {
+        System.out.println("testMatchesPathScoringUtilities");
+
+        for (final ScoreType scoreType : SCORE_TYPES) {
+            for (final boolean[] direction : DIRECTIONS) {
+                final float[] expected = PathScoringUtilities.calculateScores(graph, scoreType, direction[0], direction[1], true, false).getSecond();
+                final PathScores result = BrandesPathScoring.calculateScores(graph, scoreType, direction[0], direction[1], true, false, 0, new Random(0));
+                for (int position = 0; position < expected.length; position++) {
+                    assertEquals(result.scores()[position], expected[position], 1E-6F, scoreType + " at position " + position);
+                }
+                assertFalse(result.isSampled());
+                assertEquals(result.errorBound(), 0.0);
+            }
+        }
+
+        // tied shortest paths from 0 to 3 and 4
+        graph.addTransaction(vxId0, vxId2, false);
+        assertMatchesCalculatePathScores();
+
+        // a cycle of six with tied paths between opposite vertices, and a second component
+        final int[] cycle = new int[6];
+        for (int i = 0; i < cycle.length; i++) {
+            cycle[i] = graph.addVertex();
+        }
+        for (int i = 0; i < cycle.length; i++) {
+            graph.addTransaction(cycle[i], cycle[(i + 1) % cycle.length], i % 2 == 0);
+        }
+        assertMatchesCalculatePathScores();
+    }
+
+    private void assertMatchesCalculatePathScores() throws InterruptedException {
+        for (final ScoreType scoreType : SCORE_TYPES) {
+            for (final boolean[] direction : DIRECTIONS) {
+                final PathScores expected = BrandesPathScoring.calculateScores(graph, scoreType, direction[0], direction[1], true, false, 0, new Random(0));
+                final PathScores result = PathScoringUtilities.calculatePathScores(graph, scoreType, direction[0], direction[1], true, false, 0);
+                for (int position = 0; position < expected.scores().length; position++) {
+                    assertEquals(result.scores()[position], expected.scores()[position], 1E-6F, scoreType + " at position " + position);
+                }
+                assertEquals(result.components(), expected.components(), scoreType.toString());
+                assertEquals(result.componentSizes(), expected.componentSizes(), scoreType.toString());
+            }
+        }
+    }
+
+    /**
+     * On a cycle of four, each pair of opposite vertices is joined by two
+     * shortest paths, and each vertex is two steps from the vertex opposite.
+     */
+    @Test
+    public void testCycleScores() throws Exception {
+        System.out.println("testCycleScores");
+
+        final StoreGraph cycleGraph = new StoreGraph(SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema());
+        final int[] cycle = new int[4];
+        for (int i = 0; i < cycle.length; i++) {
+            cycle[i] = cycleGraph.addVertex();
+        }
+        for (int i = 0; i < cycle.length; i++) {
+            cycleGraph.addTransaction(cycle[i], cycle[(i + 1) % cycle.length], true);
+        }
+
+        // each vertex gets half of each ordered pair of its neighbours
+        assertScores(cycleGraph, ScoreType.BETWEENNESS, 1F);
+        assertScores(cycleGraph, ScoreType.FARNESS, 4F);
+        assertScores(cycleGraph, ScoreType.CLOSENESS, 0.25F);
+        assertScores(cycleGraph, ScoreType.ECCENTRICITY, 2F);
+        // undirected harmonic scores count each pair from both ends
+        assertScores(cycleGraph, ScoreType.HARMONIC_FARNESS, 5F);
+        assertScores(cycleGraph, ScoreType.HARMONIC_CLOSENESS, 1.25F);
+    }
+
+    private static void assertScores(final StoreGraph graph, final ScoreType scoreType, final float expected) throws InterruptedException {
+        final PathScores result = PathScoringUtilities.calculatePathScores(graph, scoreType, true, true, true, false, 0);
+        for (int position = 0; position < graph.getVertexCount(); position++) {
+            assertEquals(result.scores()[position], expected, 1E-6F, scoreType + " at position " + position);
+        }
+    }
+
+    /**
+     * A vertex on one of two shortest paths between a pair of vertices should
+     * get half a point for the pair.
+     */
+    @Test
+    public void testBetweennessSharedPaths() throws Exception {
+        System.out.println("testBetweennessSharedPaths");
+
+        // 0 - 1 - 3 and 0 - 2 - 3 are both shortest paths, as are 0 - 1 - 3 - 4 and 0 - 2 - 3 - 4
+        graph.addTransaction(vxId0, vxId2, false);
+
+        final PathScores result = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 0, new Random(0));
+        assertEquals(result.scores()[graph.getVertexPosition(vxId0)], 0F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId1)], 2F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId2)], 2F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId3)], 6F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId4)], 0F);
+    }
+
+    /**
+     * Only paths between selected vertices should count.
+     */
+    @Test
+    public void testBetweennessSelectedOnly() throws Exception {
+        System.out.println("testBetweennessSelectedOnly");
+
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.get(graph);
+        graph.setBooleanValue(selectedAttribute, vxId0, true);
+        graph.setBooleanValue(selectedAttribute, vxId4, true);
+
+        final PathScores result = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, true, 0, new Random(0));
+        assertEquals(result.scores()[graph.getVertexPosition(vxId1)], 2F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId2)], 0F);
+        assertEquals(result.scores()[graph.getVertexPosition(vxId3)], 2F);
+    }
+
+    /**
+     * Estimates should be scaled up to all sources, and come with an error
+     * bound.
+     */
+    @Test
+    public void testSampled() throws Exception {
+        System.out.println("testSampled");
+
+        final PathScores exact = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 0, new Random(0));
+        final PathScores estimate = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 2, new Random(0));
+        assertTrue(estimate.isSampled());
+        assertEquals(estimate.pivots(), 2);
+        assertEquals(estimate.sources(), 5);
+        assertTrue(estimate.errorBound() > 0);
+        for (int position = 0; position < exact.scores().length; position++) {
+            assertTrue(Math.abs(estimate.scores()[position] - exact.scores()[position]) <= estimate.errorBound());
+        }
+
+        // a sample of every source is exact
+        final PathScores all = BrandesPathScoring.calculateScores(graph, ScoreType.BETWEENNESS, true, true, true, false, 5, new Random(0));
+        assertFalse(all.isSampled());
+        assertEquals(all.scores(), exact.scores());
+    }
+
+    /**
+     * Vertices should share a component with the vertices they are connected
+     * to.
+     */
+    @Test
+    public void testComponents() throws Exception {
+        System.out.println("testComponents");
+
+        final int vxId5 = graph.addVertex();
+        final int vxId6 = graph.addVertex();
+        graph.addTransaction(vxId5, vxId6, true);
+        graph.addVertex();
+
+        final PathScores result = BrandesPathScoring.calculateScores(graph, ScoreType.ECCENTRICITY, false, true, true, false, 0, new Random(0));
+        assertEquals(result.componentSizes(), new int[]{5, 2, 1});
+        assertEquals(result.components()[graph.getVertexPosition(vxId4)], result.components()[graph.getVertexPosition(vxId0)]);
+        assertEquals(result.components()[graph.getVertexPosition(vxId6)], result.components()[graph.getVertexPosition(vxId5)]);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.sna.similarity.SimilarityEngine.Similarities;
+import java.util.ArrayList;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test of SimilarityEngine.
+ *
+ * @author algol
+ */
+public class SimilarityEngineNGTest {
+
+    private int vertexSelectedAttribute;
+
+    private int vxId0;
+    private int vxId1;
+    private int vxId2;
+    private int vxId3;
+    private int vxId4;
+    private int vxId5;
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        // create an analytic graph
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        graph = new StoreGraph(schema);
+        vertexSelectedAttribute = VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+
+        // add vertices
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+        vxId3 = graph.addVertex();
+        vxId4 = graph.addVertex();
+        vxId5 = graph.addVertex();
+
+        // 0, 1 and 2 all point at 3 and 4, and 5 points at 4
+        graph.addTransaction(vxId0, vxId3, true);
+        graph.addTransaction(vxId0, vxId4, true);
+        graph.addTransaction(vxId1, vxId3, true);
+        graph.addTransaction(vxId1, vxId4, true);
+        graph.addTransaction(vxId1, vxId4, true);
+        graph.addTransaction(vxId2, vxId3, true);
+        graph.addTransaction(vxId2, vxId4, true);
+        graph.addTransaction(vxId5, vxId4, true);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    /**
+     * Only pairs sharing neighbours should be scored, with the number of
+     * neighbours they share.
+     */
+    @Test
+    public void testCommonNeighbours() {
+        System.out.println("testCommonNeighbours");
+
+        final SimilarityEngine engine = new SimilarityEngine(graph, false, true, true);
+        final Similarities similarities = engine.calculate(null, (one, two, common, sum) -> common);
+        assertEquals(pairs(similarities), List.of(
+                pair(vxId0, vxId1, 2), pair(vxId0, vxId2, 2), pair(vxId0, vxId5, 1),
+                pair(vxId1, vxId2, 2), pair(vxId1, vxId5, 1), pair(vxId2, vxId5, 1)));
+
+        // 3 and 4 share the vertices pointing at them
+        final SimilarityEngine incoming = new SimilarityEngine(graph, true, false, true);
+        assertEquals(pairs(incoming.calculate(null, (one, two, common, sum) -> common)), List.of(pair(vxId3, vxId4, 3)));
+    }
+
+    /**
+     * The contributions of the common neighbours should be added up, with the
+     * weights of the neighbours.
+     */
+    @Test
+    public void testContributions() {
+        System.out.println("testContributions");
+
+        final SimilarityEngine engine = new SimilarityEngine(graph, false, true, true);
+        engine.setMinimumCommonNeighbours(2);
+        final Similarities similarities = engine.calculate((neighbour, weightOne, weightTwo) -> weightOne * weightTwo, (one, two, common, sum) -> sum);
+        assertEquals(pairs(similarities), List.of(pair(vxId0, vxId1, 3), pair(vxId0, vxId2, 2), pair(vxId1, vxId2, 3)));
+        assertEquals(engine.getMagnitude(graph.getVertexPosition(vxId1)), (float) Math.sqrt(5));
+    }
+
+    /**
+     * Pairs should be skipped unless one, or both, of their vertices are
+     * selected.
+     */
+    @Test
+    public void testSelected() {
+        System.out.println("testSelected");
+
+        graph.setBooleanValue(vertexSelectedAttribute, vxId1, true);
+        graph.setBooleanValue(vertexSelectedAttribute, vxId5, true);
+
+        final SimilarityEngine engine = new SimilarityEngine(graph, false, true, true);
+        engine.setSelectedOnly(true);
+        assertEquals(pairs(engine.calculate(null, (one, two, common, sum) -> common)), List.of(
+                pair(vxId0, vxId1, 2), pair(vxId0, vxId5, 1), pair(vxId1, vxId2, 2), pair(vxId1, vxId5, 1), pair(vxId2, vxId5, 1)));
+
+        engine.setSelectedPairsOnly(true);
+        assertEquals(pairs(engine.calculate(null, (one, two, common, sum) -> common)), List.of(pair(vxId1, vxId5, 1)));
+    }
+
+    /**
+     * Only pairs with a high enough score, or among the best of one of their
+     * vertices, should be kept.
+     */
+    @Test
+    public void testPruning() {
+        System.out.println("testPruning");
+
+        final SimilarityEngine engine = new SimilarityEngine(graph, false, true, true);
+        engine.setMinimumScore(2);
+        assertEquals(pairs(engine.calculate(null, (one, two, common, sum) -> common)), List.of(
+                pair(vxId0, vxId1, 2), pair(vxId0, vxId2, 2), pair(vxId1, vxId2, 2)));
+
+        // ties go to the first pair, so every vertex keeps its pair with 0
+        engine.setMinimumScore(0);
+        engine.setTopK(1);
+        assertEquals(pairs(engine.calculate(null, (one, two, common, sum) -> common)), List.of(
+                pair(vxId0, vxId1, 2), pair(vxId0, vxId2, 2), pair(vxId0, vxId5, 1)));
+    }
+
+    /**
+     * Pairs with the same neighbours should always be found by MinHash
+     * signatures, and scored exactly.
+     */
+    @Test
+    public void testApproximate() {
+        System.out.println("testApproximate");
+
+        final SimilarityEngine engine = new SimilarityEngine(graph, false, true, true);
+        engine.setApproximate(true);
+        final List<String> pairs = pairs(engine.calculate(null, (one, two, common, sum) -> common));
+        assertTrue(pairs.containsAll(List.of(pair(vxId0, vxId1, 2), pair(vxId0, vxId2, 2), pair(vxId1, vxId2, 2))));
+        assertTrue(pairs(new SimilarityEngine(graph, false, true, true).calculate(null, (one, two, common, sum) -> common)).containsAll(pairs));
+    }
+
+    private List<String> pairs(final Similarities similarities) {
+        final List<String> pairs = new ArrayList<>();
+        for (int pair = 0; pair < similarities.size(); pair++) {
+            pairs.add(pair(graph.getVertex(similarities.ones()[pair]), graph.getVertex(similarities.twos()[pair]), similarities.scores()[pair]));
+        }
+        return pairs;
+    }
+
+    private static String pair(final int vertexOneId, final int vertexTwoId, final float score) {
+        return vertexOneId + " == " + vertexTwoId + " : " + score;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.schema.analytic.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.attribute.AbstractObjectAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.type.SchemaVertexType;
@@ -67,6 +69,23 @@ public class VertexTypeAttributeDescription extends AbstractObjectAttributeDescr
         }
     }
 
+    /**
+     * Only unordered indexes are supported, as types are ordered by name but
+     * types with the same name can differ.
+     *
+     * @param indexType the type of index.
+     * @return true if the index type is supported.
+     */
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return indexType != GraphIndexType.ORDERED;
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        return indexType == GraphIndexType.ORDERED ? NULL_GRAPH_INDEX : createObjectIndex(indexType, null);
+    }
+
     @Override
     public Object createReadObject(final IntReadable indexReadable) {
         return (ObjectReadable) () -> data[indexReadable.readInt()] != null
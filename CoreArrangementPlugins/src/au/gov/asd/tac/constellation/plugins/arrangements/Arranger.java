@@ -39,4 +39,18 @@ public interface Arranger {
      * @param b If true, the mean position of the nodes will be maintained.
      */
     public void setMaintainMean(final boolean b);
+
+    /**
+     * Create an arranger with the same settings as this one that can arrange a
+     * different graph at the same time as this one.
+     * <p>
+     * Arrangers that keep no state between calls to arrange() may return
+     * themselves.
+     *
+     * @return A copy of this arranger, or null if this arranger cannot be used
+     * concurrently.
+     */
+    public default Arranger copy() {
+        return null;
+    }
 }
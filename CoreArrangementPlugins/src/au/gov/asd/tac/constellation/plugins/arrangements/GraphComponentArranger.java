@@ -37,6 +37,11 @@ public final class GraphComponentArranger extends GraphTaxonomyArranger {
         super(inner, outer, connectionType, ComponentSubgraph.getSubgraphFactory());
     }
 
+    @Override
+    public Arranger copy() {
+        return copyWith((innerCopy, outerCopy) -> new GraphComponentArranger(innerCopy, outerCopy, connectionType));
+    }
+
     @Override
     protected GraphTaxonomy getTaxonomy(final GraphWriteMethods wg) {
         return ArrangementUtilities.getComponents(wg);
@@ -17,15 +17,22 @@ package au.gov.asd.tac.constellation.plugins.arrangements;
 
 import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.arrangements.grid.GridArranger;
 import au.gov.asd.tac.constellation.plugins.arrangements.grid.GridChoiceParameters;
+import au.gov.asd.tac.constellation.plugins.arrangements.subgraph.ComponentSubgraph;
 import au.gov.asd.tac.constellation.plugins.arrangements.subgraph.SubgraphFactory;
 import au.gov.asd.tac.constellation.plugins.arrangements.utilities.ArrangementUtilities;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 /**
  * The GraphTaxonomy arranger.
@@ -38,7 +45,10 @@ import java.util.logging.Logger;
  * to provide separate arrangers for singleton and doublet taxa: these will
  * typically also be an ArrangeInGrid instance.
  * <p>
- * These instances are applied in the arrange() method.
+ * These instances are applied in the arrange() method. Taxa whose arrangers
+ * can be copied (see {@link Arranger#copy()}) are arranged concurrently, each
+ * into its own buffer of vertex positions; the remaining taxa are arranged one
+ * after another.
  *
  * @author algol
  */
@@ -150,34 +160,49 @@ public abstract class GraphTaxonomyArranger implements Arranger {
                 }
             }
 
-            // Do the appropriate inner arrangement on each taxon.
+            // Extract the subgraph of every taxon in one pass over the graph.
             final Map<Integer, Set<Integer>> taxa = taxonomy.getTaxa();
+            final List<Integer> keys = new ArrayList<>(taxa.keySet());
+            final List<Set<Integer>> vertexSets = new ArrayList<>(keys.size());
+            final Arranger[] arrangers = new Arranger[keys.size()];
+            final String[] messages = new String[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                final int key = keys.get(i);
+                vertexSets.add(taxa.get(key));
+                if (taxonomy.isArrangeRectangularly(key)) {
+                    arrangers[i] = rectArranger;
+                    messages[i] = "Arrange grid...";
+                } else if (key == singletonsKey) {
+                    arrangers[i] = singletonArranger;
+                    messages[i] = "Arrange singletons...";
+                } else if (key == doubletsKey) {
+                    arrangers[i] = doubletArranger;
+                    messages[i] = "Arrange doublets...";
+                } else {
+                    arrangers[i] = inner;
+                    messages[i] = String.format("Arrange inner (%s)...", inner.getClass().getSimpleName());
+                }
+            }
+            final List<ComponentSubgraph> subgraphs = subgraphFactory.constructSubgraphs(wg, vertexSets);
+
+            // Do the appropriate inner arrangement on each taxon.
             final int steps = taxa.size() + 1;
+            if (interaction != null) {
+                interaction.setProgress(0, steps, "Arrange taxa...", true);
+            }
+            final boolean[] arranged = arrangeConcurrently(wg, subgraphs, arrangers);
             int step = 0;
-            for (final Map.Entry<Integer, Set<Integer>> entry : taxa.entrySet()) {
-                if (taxonomy.isArrangeRectangularly(entry.getKey())) {
-                    if (interaction != null) {
-                        interaction.setProgress(step, steps, "Arrange grid...", true);
-                    }
-                    rectArranger.arrange(subgraphFactory.constructSubgraph(wg, entry.getValue()));
-                } else if (entry.getKey() == singletonsKey) {
-                    if (interaction != null) {
-                        interaction.setProgress(step, steps, "Arrange singletons...", true);
-                    }
-                    singletonArranger.arrange(subgraphFactory.constructSubgraph(wg, entry.getValue()));
-                } else if (entry.getKey() == doubletsKey) {
-                    if (interaction != null) {
-                        interaction.setProgress(step, steps, "Arrange doublets...", true);
-                    }
-                    doubletArranger.arrange(subgraphFactory.constructSubgraph(wg, entry.getValue()));
-                } else {
+            for (final boolean b : arranged) {
+                step += b ? 1 : 0;
+            }
+            for (int i = 0; i < arrangers.length; i++) {
+                if (!arranged[i]) {
                     if (interaction != null) {
-                        final String msg = String.format("Arrange inner (%s)...", inner.getClass().getSimpleName());
-                        interaction.setProgress(step, steps, msg, true);
+                        interaction.setProgress(step, steps, messages[i], true);
                     }
-                    inner.arrange(subgraphFactory.constructSubgraph(wg, entry.getValue()));
+                    arrangers[i].arrange(subgraphs.get(i));
+                    step++;
                 }
-                step++;
             }
 
             if (interaction != null) {
@@ -212,6 +237,127 @@ public abstract class GraphTaxonomyArranger implements Arranger {
         }
     }
 
+    /**
+     * Arrange each subgraph whose arranger can be copied on its own thread.
+     * <p>
+     * Each subgraph is arranged into its own buffer of vertex positions, and
+     * the buffers are written back to the graph together on the calling thread
+     * once every arrangement has finished. An arrangement that tries to change
+     * anything other than the vertex positions is abandoned so that it can be
+     * done again directly on the graph. The alternative position attributes
+     * (x2, y2 and z2) are added to the graph first, because some arrangers
+     * always add them.
+     *
+     * @param wg The graph being arranged.
+     * @param subgraphs The subgraph of each taxon.
+     * @param arrangers The arranger for each taxon.
+     *
+     * @return Whether each taxon was arranged.
+     *
+     * @throws InterruptedException if the thread is interrupted during
+     * execution meaning that the operation has been canceled.
+     */
+    private static boolean[] arrangeConcurrently(final GraphWriteMethods wg, final List<ComponentSubgraph> subgraphs, final Arranger[] arrangers) throws InterruptedException {
+        final boolean[] arranged = new boolean[arrangers.length];
+
+        // The arrangers add the position attributes if they are missing, which can't be done concurrently.
+        if (arrangers.length < 2
+                || VisualConcept.VertexAttribute.X.get(wg) == Graph.NOT_FOUND
+                || VisualConcept.VertexAttribute.Y.get(wg) == Graph.NOT_FOUND
+                || VisualConcept.VertexAttribute.Z.get(wg) == Graph.NOT_FOUND) {
+            return arranged;
+        }
+
+        final Arranger[] copies = new Arranger[arrangers.length];
+        int copied = 0;
+        for (int i = 0; i < arrangers.length; i++) {
+            copies[i] = arrangers[i].copy();
+            copied += copies[i] != null ? 1 : 0;
+        }
+        if (copied == 0) {
+            return arranged;
+        }
+
+        // Arrangers such as BubbleTreeArranger and UncollideArrangement always add the alternative positions,
+        // so add them now rather than have every concurrent arrangement abandoned.
+        VisualConcept.VertexAttribute.X2.ensure(wg);
+        VisualConcept.VertexAttribute.Y2.ensure(wg);
+        VisualConcept.VertexAttribute.Z2.ensure(wg);
+
+        final Thread caller = Thread.currentThread();
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        IntStream.range(0, arrangers.length).parallel().forEach(i -> {
+            if (interrupted.get() || caller.isInterrupted()) {
+                return;
+            }
+            final Arranger copy = copies[i];
+            if (copy == null) {
+                return;
+            }
+
+            final ComponentSubgraph subgraph = subgraphs.get(i);
+            subgraph.bufferPositions();
+            try {
+                copy.arrange(subgraph);
+                arranged[i] = true;
+            } catch (final UnsupportedOperationException ex) {
+                subgraph.discardPositions();
+            } catch (final InterruptedException ex) {
+                subgraph.discardPositions();
+                interrupted.set(true);
+            }
+        });
+
+        for (int i = 0; i < arrangers.length; i++) {
+            if (arranged[i]) {
+                subgraphs.get(i).writePositions();
+            }
+        }
+
+        if (interrupted.get() || Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        return arranged;
+    }
+
+    /**
+     * Copy this arranger for concurrent use.
+     * <p>
+     * The copy is constructed from copies of the inner and outer arrangers, and
+     * is given copies of the rectangular, singleton, doublet and uncollide
+     * arrangers. Progress is not reported by the copy.
+     *
+     * @param <A> The type of the copy.
+     * @param constructor Constructs the copy from the inner and outer
+     * arrangers.
+     *
+     * @return The copy, or null if any of the arrangers cannot be copied.
+     */
+    protected <A extends GraphTaxonomyArranger> A copyWith(final BiFunction<Arranger, Arranger, A> constructor) {
+        final Arranger innerCopy = inner.copy();
+        final Arranger outerCopy = outer.copy();
+        final Arranger rectCopy = rectArranger.copy();
+        final Arranger singletonCopy = singletonArranger != null ? singletonArranger.copy() : null;
+        final Arranger doubletCopy = doubletArranger != null ? doubletArranger.copy() : null;
+        final Arranger uncolliderCopy = uncollider != null ? uncollider.copy() : null;
+        if (innerCopy == null || outerCopy == null || rectCopy == null
+                || (singletonArranger != null && singletonCopy == null)
+                || (doubletArranger != null && doubletCopy == null)
+                || (uncollider != null && uncolliderCopy == null)) {
+            return null;
+        }
+
+        final A copy = constructor.apply(innerCopy, outerCopy);
+        final GraphTaxonomyArranger arranger = copy;
+        arranger.rectArranger = rectCopy;
+        arranger.singletonArranger = singletonCopy;
+        arranger.doubletArranger = doubletCopy;
+        arranger.uncollider = uncolliderCopy;
+        arranger.maintainMean = maintainMean;
+        return copy;
+    }
+
     protected abstract GraphTaxonomy getTaxonomy(final GraphWriteMethods graph);
 
     @Override
@@ -85,6 +85,13 @@ public class GridArranger implements Arranger {
         forceEvenNumCols = b;
     }
 
+    @Override
+    public Arranger copy() {
+        final GridArranger copy = new GridArranger(params, forceEvenNumCols);
+        copy.setMaintainMean(maintainMean);
+        return copy;
+    }
+
     @Override
     public void arrange(final GraphWriteMethods wg) throws InterruptedException {
 
@@ -18,9 +18,16 @@ package au.gov.asd.tac.constellation.plugins.arrangements.hde;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.ShortestPathSearch;
 import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
-import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
 
 /**
  * Arrange by high dimension embedding.
@@ -30,6 +37,15 @@ import java.util.Arrays;
  * 2528 of Lecture Notes in Computer Science, pp. 207-219,<br>
  * Springer Verlag, 2002.
  * <p>
+ * Each vertex is given the distance to each of M pivots, chosen one at a time
+ * as the vertex furthest from the pivots already chosen. The breadth first
+ * search from each pivot runs over the {@link AdjacencySnapshot} of the graph,
+ * and is shared between threads on large graphs. The distances are kept as
+ * one int column per pivot, indexed by vertex position. The covariance of the
+ * columns is added up in blocks of rows, with each partition of the rows on
+ * its own thread, and the vertices are placed by projecting their distances
+ * onto the eigenvectors of the covariance with the largest eigenvalues.
+ * <p>
  * TODO: scale x,y,z after arrangement so the graph isn't cramped.
  *
  * @author algol
@@ -44,266 +60,231 @@ public class HighDimensionEmbeddingArranger implements Arranger {
     // Scale graph up so it isn't too cramped.
     private static final float SCALE = 10;
 
-    private final int dimensions;
-
-    // These should all be final, but can't be set until arrange().
-    private GraphWriteMethods wg;
-    private int[] centres;
-    private double[] mean;
-    private boolean[] known;
-    private boolean[] pivot;
-    private int[] distance;
+    // the distance from a pivot to a vertex it can't reach
+    private static final int UNREACHED = -1;
 
-    // Coordinates of each node relative to pivot.
-    private double[][] xMatrix;
+    // rows are added to the covariance this many at a time, so the block stays in cache
+    private static final int BLOCK_SIZE = 256;
+    // graphs with fewer vertices than this are not worth sharing between threads
+    private static final int MIN_PARALLEL_SIZE = 10000;
+    private static final int PARTITIONS_PER_THREAD = 4;
 
-    private static final boolean PART_ONLY = false;
-
-    private final SecureRandom random = new SecureRandom();
+    private final int dimensions;
 
     public HighDimensionEmbeddingArranger(final int dimensions) {
         this.dimensions = dimensions;
     }
 
-    private void set(final GraphWriteMethods wg) {
-        this.wg = wg;
-        final int vxCapacity = wg.getVertexCapacity();
-
-        centres = new int[M];
-        mean = new double[M];
-        known = new boolean[vxCapacity];
-        pivot = new boolean[vxCapacity];
-        distance = new int[vxCapacity];
-
-        xMatrix = new double[M][vxCapacity];
-    }
-
     @Override
-    public void arrange(final GraphWriteMethods wg) {
-        set(wg);
-
+    public void arrange(final GraphWriteMethods wg) throws InterruptedException {
         final int vxCount = wg.getVertexCount();
-        for (int position = 0; position < vxCount; position++) {
-            final int vxId = wg.getVertex(position);
-
-            distance[vxId] = Integer.MAX_VALUE;
-            pivot[vxId] = false;
-            known[vxId] = false;
+        if (vxCount == 0) {
+            return;
         }
 
-        centres[0] = wg.getVertex(0);
-        pivot[wg.getVertex(0)] = true;
-        int currx = 0;
-
-        // Find coordinates of nodes relative to first pivot.
-        positionFrom(0, xMatrix[currx]);
-
-        // For the remaining pivot points...
-        for (int m = 1; m < M; m++) {
-            // Find which point to use as pivot by searching
-            // distances for a non-pivot point at the furthest
-            // distance from that of any other pivot.
-            int pdist = 0;
-            int pnode = wg.getVertex(0);
-            for (int npos = 0; npos < vxCount; npos++) {
-                final int n = wg.getVertex(npos);
-
-                // Choose node if its distance is at least that of the current best candidate.
-                // and it is not already a pivot.
-                if (distance[n] >= pdist && !pivot[n]) {
-                    pnode = n;
-                    pdist = distance[n];
-                }
+        final int[][] distances = pivotDistances(AdjacencySnapshot.getAdjacency(wg, true, true, true));
+        final int pivotCount = distances.length;
 
-                // Clear known flag for next round.
-                known[n] = false;
+        // Centre the coordinates by subtracting the mean.
+        final double[] mean = new double[pivotCount];
+        for (int m = 0; m < pivotCount; m++) {
+            long sum = 0;
+            for (final int distance : distances[m]) {
+                sum += distance;
             }
-
-            // Mark the chosen node as a pivot.
-            centres[m] = pnode;
-            pivot[pnode] = true;
-
-            // View the graph relative to this new pivot.
-            currx++;
-            positionFrom(m, xMatrix[currx]);
+            mean[m] = (double) sum / vxCount;
         }
 
-        // Centre the coordinates by subtracting the mean.
-        currx = 0;
-        for (int a = 0; a < M; a++) {
-            mean[a] /= vxCount;
-            for (int vpos = 0; vpos < vxCount; vpos++) {
-                final int v = wg.getVertex(vpos);
+        final int partitionCount = vxCount < MIN_PARALLEL_SIZE ? 1 : ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD;
+        final double[][] sMatrix = covariance(distances, mean, partitionCount);
 
-                xMatrix[currx][v] -= mean[a];
-            }
+        // The eigenvectors of S with the largest eigenvalues give the directions in which the pivot distances vary most.
+        final double[][] uMatrix = principalAxes(sMatrix, Math.min(dimensions, pivotCount));
 
-            currx++;
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
         }
 
-        // Compute the covariance matrix.
-        // S = *X*X^T)/n.
-        final double[][] sMatrix = new double[M][M];
-
-        for (int r = 0; r < M; r++) {
-            for (int c = 0; c < M; c++) {
-                sMatrix[r][c] = 0;
-                for (int vpos = 0; vpos < vxCount; vpos++) {
-                    final int v = wg.getVertex(vpos);
-
-                    sMatrix[r][c] += xMatrix[r][v] * xMatrix[c][v];
+        // Now compute actual coordinates.
+        // pos = X * U^T, with any missing dimensions left at 0.
+        final float[][] pos = new float[3][vxCount];
+        IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+            final int end = (int) ((long) vxCount * (partition + 1) / partitionCount);
+            for (int vpos = (int) ((long) vxCount * partition / partitionCount); vpos < end; vpos++) {
+                for (int c = 0; c < uMatrix.length; c++) {
+                    double coordinate = 0;
+                    for (int m = 0; m < pivotCount; m++) {
+                        coordinate += (distances[m][vpos] - mean[m]) * uMatrix[c][m];
+                    }
+                    pos[c][vpos] = SCALE * (float) coordinate;
                 }
-
-                // Not necessary because multiplication by a constant does not change the eigenvectors?
-                // But we said we're computing the covariance matrix, so do it.
-                sMatrix[r][c] /= vxCount;
             }
-        }
+        });
 
-        if (PART_ONLY) {
-            return;
-        }
+        final int xId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.X.getName());
+        final int yId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Y.getName());
+        final int zId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Z.getName());
 
-        final double[] ui = new double[M];
-        final double[] uihat = new double[M];
+        for (int vpos = 0; vpos < vxCount; vpos++) {
+            final int n = wg.getVertex(vpos);
+            wg.setFloatValue(xId, n, pos[0][vpos]);
+            wg.setFloatValue(yId, n, pos[1][vpos]);
+            wg.setFloatValue(zId, n, pos[2][vpos]);
+        }
+    }
 
-        // Compute the first C eigenvectors of S.
-        final double[][] uMatrix = new double[dimensions][M];
+    /**
+     * Find the distance from each pivot to every vertex.
+     * <p>
+     * Each pivot depends on the distances from the ones before it, so the
+     * searches run one after another, with each large search shared between
+     * threads.
+     *
+     * @param adjacency The adjacency of the graph.
+     *
+     * @return The distances from each pivot, by vertex position.
+     */
+    static int[][] pivotDistances(final Adjacency adjacency) throws InterruptedException {
+        final int vxCount = adjacency.vertexCount();
+        final int pivotCount = Math.min(M, vxCount);
+        final ShortestPathSearch search = new ShortestPathSearch(adjacency, null);
+
+        // The distance from each vertex to its nearest pivot.
+        final int[] nearest = new int[vxCount];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        final boolean[] pivot = new boolean[vxCount];
+
+        final int[][] distances = new int[pivotCount][];
+        int pnode = 0;
+        for (int m = 0; m < pivotCount; m++) {
+            pivot[pnode] = true;
 
-        for (int u = 0; u < dimensions; u++) {
-            // Initialise uihat to a normalised random vector.
-            double norm = 0;
-            for (int r = 0; r < M; r++) {
-                uihat[r] = random.nextDouble();
-                norm += uihat[r] * uihat[r];
+            // View the graph relative to this pivot.
+            final double[] pivotDistances = search.getDistances(pnode, null);
+            final int[] column = new int[vxCount];
+            for (int vpos = 0; vpos < vxCount; vpos++) {
+                if (pivotDistances[vpos] == ShortestPathSearch.UNREACHABLE) {
+                    column[vpos] = UNREACHED;
+                } else {
+                    column[vpos] = (int) pivotDistances[vpos];
+                    nearest[vpos] = Math.min(column[vpos], nearest[vpos]);
+                }
             }
+            distances[m] = column;
 
-            norm = Math.sqrt(norm);
-            for (int s = 0; s < M; s++) {
-                uihat[s] /= norm;
+            // The next pivot is the non-pivot vertex at the furthest
+            // distance from any pivot, the last one found if there is a tie.
+            int pdist = 0;
+            for (int vpos = 0; vpos < vxCount; vpos++) {
+                if (nearest[vpos] >= pdist && !pivot[vpos]) {
+                    pnode = vpos;
+                    pdist = nearest[vpos];
+                }
             }
+        }
 
-            final double epsilon = 0.001;
-            double dot = 1000;
-            double prevDot;
-            int counter = 100;
-            do {
-                prevDot = dot;
-                System.arraycopy(uihat, 0, ui, 0, M);
-
-                // Orthogonalise ui against previous eigenvectors.
-                for (int j = 0; j < u; j++) {
-                    // Compute dot product ui*U[j].
-                    dot = 0;
-                    for (int m = 0; m < M; m++) {
-                        dot += ui[m] * uMatrix[j][m];
-                    }
-
-                    // Subtract ui = ui - (transpose(ui).uj)uj.
-                    norm = 0;
-                    for (int m = 0; m < M; m++) {
-                        ui[m] -= dot * uMatrix[j][m];
-                        norm += ui[m] * ui[m];
-                    }
+        return distances;
+    }
 
-                    for (int m = 0; m < M; m++) {
-                        ui[m] /= norm;
+    /**
+     * Compute the covariance matrix S = (X*X^T)/n of the centred distances.
+     * <p>
+     * Each partition of the vertices adds up its own matrix a block of rows at
+     * a time, copying the centred block into a buffer first, and the matrices
+     * of the partitions are added in order so the result doesn't depend on
+     * thread timing.
+     */
+    static double[][] covariance(final int[][] distances, final double[] mean, final int partitionCount) {
+        final int pivotCount = distances.length;
+        final int vxCount = distances[0].length;
+
+        final double[][][] partials = new double[partitionCount][][];
+        IntStream.range(0, partitionCount).parallel().forEach(partition -> {
+            final double[][] partial = new double[pivotCount][pivotCount];
+            final double[][] block = new double[pivotCount][BLOCK_SIZE];
+            final int end = (int) ((long) vxCount * (partition + 1) / partitionCount);
+            for (int blockStart = (int) ((long) vxCount * partition / partitionCount); blockStart < end; blockStart += BLOCK_SIZE) {
+                final int blockLength = Math.min(BLOCK_SIZE, end - blockStart);
+                for (int m = 0; m < pivotCount; m++) {
+                    for (int i = 0; i < blockLength; i++) {
+                        block[m][i] = distances[m][blockStart + i] - mean[m];
                     }
                 }
-
-                // uihat = S*ui.
-                for (int i = 0; i < M; i++) {
-                    uihat[i] = 0;
-                    for (int j = 0; j < M; j++) {
-                        uihat[i] += sMatrix[i][j] * ui[j];
+                for (int r = 0; r < pivotCount; r++) {
+                    final double[] rowBlock = block[r];
+                    for (int c = r; c < pivotCount; c++) {
+                        final double[] columnBlock = block[c];
+                        double sum = 0;
+                        for (int i = 0; i < blockLength; i++) {
+                            sum += rowBlock[i] * columnBlock[i];
+                        }
+                        partial[r][c] += sum;
                     }
                 }
-
-                // Normalise uihat amd compute uihat(normed) * ui.
-                norm = 0;
-                for (int r = 0; r < M; r++) {
-                    norm += uihat[r] * uihat[r];
-                }
-
-                norm = Math.sqrt(norm);
-
-                dot = 0;
-                for (int r = 0; r < M; r++) {
-                    uihat[r] /= norm;
-                    dot += uihat[r] * ui[r];
+            }
+            partials[partition] = partial;
+        });
+
+        final double[][] sMatrix = new double[pivotCount][pivotCount];
+        for (final double[][] partial : partials) {
+            for (int r = 0; r < pivotCount; r++) {
+                for (int c = r; c < pivotCount; c++) {
+                    sMatrix[r][c] += partial[r][c];
                 }
-            } while ((dot < (1 - epsilon) && Math.abs(dot - prevDot) > epsilon) && --counter == 0);
-
-            System.arraycopy(uihat, 0, uMatrix[u], 0, M);
+            }
         }
-
-        // Now compute actual coordinates.
-        // Initialise coordinates in case C<3.
-        final double[] pos = new double[3];
-        Arrays.fill(pos, 0);
-
-        final int xId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.X.getName());
-        final int yId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Y.getName());
-        final int zId = wg.getAttribute(GraphElementType.VERTEX, VisualConcept.VertexAttribute.Z.getName());
-
-        // pos = X * U^T.
-        for (int npos = 0; npos < vxCount; npos++) {
-            final int n = wg.getVertex(npos);
-
-            for (int c = 0; c < dimensions; c++) {
-                pos[c] = 0;
-                for (int m = 0; m < M; m++) {
-                    pos[c] += xMatrix[m][n] * uMatrix[c][m];
-                }
+        for (int r = 0; r < pivotCount; r++) {
+            for (int c = r; c < pivotCount; c++) {
+                // Not necessary because multiplication by a constant does not change the eigenvectors?
+                // But we said we're computing the covariance matrix, so do it.
+                sMatrix[r][c] /= vxCount;
+                sMatrix[c][r] = sMatrix[r][c];
             }
-
-            wg.setFloatValue(xId, n, SCALE * (float) pos[0]);
-            wg.setFloatValue(yId, n, SCALE * (float) pos[1]);
-            wg.setFloatValue(zId, n, SCALE * (float) pos[2]);
         }
+
+        return sMatrix;
     }
 
     /**
-     *
-     * @param axis The index in the centres array of the vertex id to use as an
-     * axis.
-     * @param coord
+     * Find the eigenvectors of the covariance matrix with the largest
+     * eigenvalues, each flipped so that its largest entry is positive so the
+     * same graph is always arranged the same way round.
      */
-    private void positionFrom(final int axis, final double[] coord) {
-        Arrays.fill(coord, -1);
-
-        int node = centres[axis];
-        coord[node] = 0;
-        distance[node] = 0;
-        mean[axis] = 0;
-
-        // Queue for use in breadth-first traversal.
-        final int[] queue = new int[wg.getVertexCount()];
-        int head = 0;
-        int tail = 0;
-        queue[head++] = node;
-
-        while (head != tail) {
-            node = queue[tail++];
-            final int neighbours = wg.getVertexNeighbourCount(node);
-            for (int npos = 0; npos < neighbours; npos++) {
-                final int neighbour = wg.getVertexNeighbour(node, npos);
-
-                if (coord[neighbour] < 0) {
-                    coord[neighbour] = coord[node] + 1;
-                    mean[axis] += coord[neighbour];
-                    if (distance[neighbour] > coord[neighbour]) {
-                        distance[neighbour] = (int) coord[neighbour];
-                    }
-
-                    queue[head++] = neighbour;
+    private static double[][] principalAxes(final double[][] sMatrix, final int count) {
+        final EigenDecomposition decomposition = new EigenDecomposition(MatrixUtils.createRealMatrix(sMatrix));
+        final double[] eigenvalues = decomposition.getRealEigenvalues();
+        final Integer[] order = new Integer[eigenvalues.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> -eigenvalues[i]));
+
+        final double[][] uMatrix = new double[count][];
+        for (int u = 0; u < count; u++) {
+            uMatrix[u] = decomposition.getEigenvector(order[u]).toArray();
+            double largest = 0;
+            for (final double value : uMatrix[u]) {
+                if (Math.abs(value) > Math.abs(largest)) {
+                    largest = value;
+                }
+            }
+            if (largest < 0) {
+                for (int m = 0; m < uMatrix[u].length; m++) {
+                    uMatrix[u][m] = -uMatrix[u][m];
                 }
             }
         }
+
+        return uMatrix;
     }
 
     @Override
     public void setMaintainMean(final boolean b) {
         // Required for Arranger, intentionally left blank
     }
+
+    @Override
+    public Arranger copy() {
+        return this;
+    }
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import java.util.Arrays;
+
+/**
+ * A Barnes-Hut space partitioning tree (a quadtree in 2D or an octree in 3D)
+ * used to approximate the repulsive forces between every pair of vertices in
+ * O(n log n) time rather than O(n^2).
+ * <p>
+ * Each cell of the tree records the number of bodies it contains and their
+ * centre of mass. When calculating the force on a body, a cell that is far
+ * enough away (its width divided by its distance from the body is less than
+ * theta) is treated as a single body at its centre of mass instead of being
+ * opened. A theta of 0 opens every cell and gives the exact result.
+ * <p>
+ * The tree is stored in primitive arrays indexed by cell, with the children of
+ * a cell stored in a contiguous block. Once built, the tree is read-only so the
+ * forces on different bodies can be calculated concurrently.
+ *
+ * "Barnes and Hut, 'A hierarchical O(N log N) force-calculation algorithm'"
+ *
+ * @author algol
+ */
+final class BarnesHutTree {
+
+    // Bodies closer together than the cell size at this depth share a cell.
+    private static final int MAX_DEPTH = 24;
+    private static final double EPSILON = 0.000001;
+
+    private final int dimensions;
+    private final int childCount;
+
+    private int cellCount;
+    private float[] centreX;
+    private float[] centreY;
+    private float[] centreZ;
+    private float[] halfSize;
+    private int[] firstChild;
+    private int[] body;
+    private int[] mass;
+    // The sums of the coordinates of the bodies in each cell; divide by the
+    // mass to get the centre of mass.
+    private double[] massX;
+    private double[] massY;
+    private double[] massZ;
+
+    private float[] x;
+    private float[] y;
+    private float[] z;
+
+    /**
+     * Create a new tree.
+     *
+     * @param dimensions the number of dimensions, either 2 or 3.
+     * @param bodyCapacity the expected number of bodies, used to size the
+     * initial cell storage.
+     */
+    BarnesHutTree(final int dimensions, final int bodyCapacity) {
+        if (dimensions != 2 && dimensions != 3) {
+            throw new IllegalArgumentException("Barnes-Hut tree must have 2 or 3 dimensions: " + dimensions);
+        }
+        this.dimensions = dimensions;
+        this.childCount = 1 << dimensions;
+        allocate(Math.max(childCount + 1, bodyCapacity * 2));
+    }
+
+    private void allocate(final int capacity) {
+        centreX = new float[capacity];
+        centreY = new float[capacity];
+        centreZ = new float[capacity];
+        halfSize = new float[capacity];
+        firstChild = new int[capacity];
+        body = new int[capacity];
+        mass = new int[capacity];
+        massX = new double[capacity];
+        massY = new double[capacity];
+        massZ = new double[capacity];
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > centreX.length) {
+            final int newCapacity = Math.max(capacity, centreX.length * 2);
+            centreX = Arrays.copyOf(centreX, newCapacity);
+            centreY = Arrays.copyOf(centreY, newCapacity);
+            centreZ = Arrays.copyOf(centreZ, newCapacity);
+            halfSize = Arrays.copyOf(halfSize, newCapacity);
+            firstChild = Arrays.copyOf(firstChild, newCapacity);
+            body = Arrays.copyOf(body, newCapacity);
+            mass = Arrays.copyOf(mass, newCapacity);
+            massX = Arrays.copyOf(massX, newCapacity);
+            massY = Arrays.copyOf(massY, newCapacity);
+            massZ = Arrays.copyOf(massZ, newCapacity);
+        }
+    }
+
+    private int addCell(final float cx, final float cy, final float cz, final float half) {
+        ensureCapacity(cellCount + 1);
+        final int cell = cellCount++;
+        centreX[cell] = cx;
+        centreY[cell] = cy;
+        centreZ[cell] = cz;
+        halfSize[cell] = half;
+        firstChild[cell] = -1;
+        body[cell] = -1;
+        mass[cell] = 0;
+        massX[cell] = 0;
+        massY[cell] = 0;
+        massZ[cell] = 0;
+        return cell;
+    }
+
+    /**
+     * Build the tree from the current positions of the bodies. In 2D the z
+     * coordinates are ignored.
+     * <p>
+     * The arrays are referenced, not copied, and must not be modified until
+     * all forces have been calculated.
+     *
+     * @param x the x coordinates of the bodies.
+     * @param y the y coordinates of the bodies.
+     * @param z the z coordinates of the bodies.
+     * @param bodyCount the number of bodies.
+     */
+    void build(final float[] x, final float[] y, final float[] z, final int bodyCount) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        cellCount = 0;
+
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        float maxZ = -Float.MAX_VALUE;
+        for (int b = 0; b < bodyCount; b++) {
+            minX = Math.min(minX, x[b]);
+            minY = Math.min(minY, y[b]);
+            maxX = Math.max(maxX, x[b]);
+            maxY = Math.max(maxY, y[b]);
+            if (dimensions == 3) {
+                minZ = Math.min(minZ, z[b]);
+                maxZ = Math.max(maxZ, z[b]);
+            }
+        }
+        if (dimensions == 2 || bodyCount == 0) {
+            minZ = 0;
+            maxZ = 0;
+        }
+
+        float half = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) / 2;
+        half = half * 1.001F + 1;
+        addCell((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, half);
+
+        for (int b = 0; b < bodyCount; b++) {
+            insert(b);
+        }
+    }
+
+    private void addMass(final int cell, final int b) {
+        mass[cell]++;
+        massX[cell] += x[b];
+        massY[cell] += y[b];
+        if (dimensions == 3) {
+            massZ[cell] += z[b];
+        }
+    }
+
+    private int getChildIndex(final int cell, final int b) {
+        int index = x[b] >= centreX[cell] ? 1 : 0;
+        if (y[b] >= centreY[cell]) {
+            index |= 2;
+        }
+        if (dimensions == 3 && z[b] >= centreZ[cell]) {
+            index |= 4;
+        }
+        return index;
+    }
+
+    private void split(final int cell) {
+        final float half = halfSize[cell] / 2;
+        final int first = cellCount;
+        for (int i = 0; i < childCount; i++) {
+            final float cx = centreX[cell] + ((i & 1) == 0 ? -half : half);
+            final float cy = centreY[cell] + ((i & 2) == 0 ? -half : half);
+            final float cz = dimensions == 2 ? 0 : centreZ[cell] + ((i & 4) == 0 ? -half : half);
+            addCell(cx, cy, cz, half);
+        }
+        firstChild[cell] = first;
+    }
+
+    private void insert(final int b) {
+        int cell = 0;
+        int depth = 0;
+        while (true) {
+            if (firstChild[cell] >= 0) {
+                addMass(cell, b);
+                cell = firstChild[cell] + getChildIndex(cell, b);
+                depth++;
+            } else if (mass[cell] == 0) {
+                body[cell] = b;
+                addMass(cell, b);
+                return;
+            } else if (depth >= MAX_DEPTH) {
+                // The bodies are effectively coincident so they share this cell.
+                addMass(cell, b);
+                return;
+            } else {
+                // Push the existing body down into a child and try again.
+                final int existing = body[cell];
+                split(cell);
+                body[cell] = -1;
+                final int child = firstChild[cell] + getChildIndex(cell, existing);
+                body[child] = existing;
+                addMass(child, existing);
+            }
+        }
+    }
+
+    private boolean contains(final int cell, final float px, final float py, final float pz) {
+        final float half = halfSize[cell];
+        return Math.abs(px - centreX[cell]) <= half
+                && Math.abs(py - centreY[cell]) <= half
+                && (dimensions == 2 || Math.abs(pz - centreZ[cell]) <= half);
+    }
+
+    /**
+     * Calculate the total Fruchterman-Reingold repulsion on a body from every
+     * other body and store it in the offset arrays at the index of the body.
+     *
+     * @param b the body to calculate the repulsion on.
+     * @param theta the opening criterion; 0 gives the exact result.
+     * @param k2 the square of the repulsion constant.
+     * @param offsetX the array to store the x component of the force in.
+     * @param offsetY the array to store the y component of the force in.
+     * @param offsetZ the array to store the z component of the force in.
+     */
+    void repulse(final int b, final double theta, final double k2, final float[] offsetX, final float[] offsetY, final float[] offsetZ) {
+        final float px = x[b];
+        final float py = y[b];
+        final float pz = dimensions == 3 ? z[b] : 0;
+        double fx = 0;
+        double fy = 0;
+        double fz = 0;
+
+        final int[] stack = new int[MAX_DEPTH * childCount + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int cell = stack[--top];
+            int m = mass[cell];
+            if (m == 0 || (m == 1 && body[cell] == b)) {
+                continue;
+            }
+
+            double sumX = massX[cell];
+            double sumY = massY[cell];
+            double sumZ = massZ[cell];
+            if (m > 1 && firstChild[cell] < 0 && contains(cell, px, py, pz)) {
+                // A cell of coincident bodies that includes this body, so leave this body out.
+                sumX -= px;
+                sumY -= py;
+                sumZ -= pz;
+                m--;
+            }
+            final double comX = sumX / m;
+            final double comY = sumY / m;
+            final double comZ = sumZ / m;
+
+            final double xDelta = px - comX;
+            final double yDelta = py - comY;
+            final double zDelta = pz - comZ;
+            final double distance = Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta);
+
+            if (firstChild[cell] < 0 || (2 * halfSize[cell] < theta * distance && !contains(cell, px, py, pz))) {
+                final double lenDelta = Math.max(EPSILON, distance);
+                final double force = m * k2 / lenDelta;
+                fx += (xDelta / lenDelta) * force;
+                fy += (yDelta / lenDelta) * force;
+                fz += (zDelta / lenDelta) * force;
+            } else {
+                final int first = firstChild[cell];
+                for (int i = 0; i < childCount; i++) {
+                    stack[top++] = first + i;
+                }
+            }
+        }
+
+        offsetX[b] = (float) fx;
+        offsetY[b] = (float) fy;
+        if (offsetZ != null) {
+            offsetZ[b] = (float) fz;
+        }
+    }
+}
@@ -23,45 +23,58 @@ import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
 import au.gov.asd.tac.constellation.plugins.arrangements.utilities.ArrangementUtilities;
-import java.awt.geom.Point2D;
 import java.security.SecureRandom;
-import java.util.ArrayList;
 
 /**
  * main module to arrange a graph using the FR2D algorithm
+ * <p>
+ * Repulsion between vertices is approximated with a Barnes-Hut quadtree
+ * according to theta. A theta of 0 compares every pair of vertices.
  *
  * @author algol
  */
 class FR2DArranger implements Arranger {
 
     public static final int MAX_ITERATIONS = 10;
+    public static final double DEFAULT_THETA = 0.8;
     private static final int BORDER = 1;
 
-    private double temperature;
     private static final double ATTRACTION_MULTIPLIER = 0.75 / 0.67;
     private static final double REPULSION_MULTIPLIER = 0.75 * 0.67;
-    private double attractionConstant;
-    private double repulsionConstant;
-    private static final double EPSILON = 0.000001;
 
     private GraphWriteMethods graph;
     private int vxCount;
-    private ArrayList<Point2D.Float> points;
-    private ArrayList<Point2D.Float> offsets;
+    private float[] xs;
+    private float[] ys;
+    private ForceDirectedLayout layout;
     private boolean maintainMean;
 
     private final PluginInteraction interaction;
+    private final double theta;
 
     private final SecureRandom r = new SecureRandom();
 
     /**
+     * Creates a new arranger using the default theta.
      *
-     * @param graph The graph to be laid out.
-     * @param tc The TopComponent that owns this graph, so it can be notified
-     * when the layout is finished.
+     * @param interaction The {@link PluginInteraction} that this arranger will
+     * use.
      */
     public FR2DArranger(final PluginInteraction interaction) {
+        this(interaction, DEFAULT_THETA);
+    }
+
+    /**
+     * Creates a new arranger.
+     *
+     * @param interaction The {@link PluginInteraction} that this arranger will
+     * use.
+     * @param theta The Barnes-Hut opening criterion. Larger values are faster
+     * but less accurate; 0 calculates repulsion exactly.
+     */
+    public FR2DArranger(final PluginInteraction interaction, final double theta) {
         this.interaction = interaction;
+        this.theta = theta;
     }
 
     @Override
@@ -86,57 +99,34 @@ class FR2DArranger implements Arranger {
 
     private void initialise(final int width, final int height) {
         final double forceConstant = Math.pow(height * width / (double) vxCount, 1.0 / 2.0);
-        temperature = width / 10.0;
-        attractionConstant = ATTRACTION_MULTIPLIER * forceConstant;
-        repulsionConstant = REPULSION_MULTIPLIER * forceConstant;
-
-        // Create an array of points to match the array of nodes.
-        // This means we have to allow for gaps in the array where nodes have been removed.
-        // Pre-fill the ArrayLists so we can treat them like arrays.
-        final int capacity = graph.getVertexCapacity();
-        points = new ArrayList<>(capacity);
-        offsets = new ArrayList<>(capacity);
-        for (int i = 0; i < capacity; i++) {
-            points.add(null);
-            offsets.add(null);
-        }
+        final double temperature = width / 10.0;
+        final double attractionConstant = ATTRACTION_MULTIPLIER * forceConstant;
+        final double repulsionConstant = REPULSION_MULTIPLIER * forceConstant;
 
+        // Points are indexed by vertex position.
+        xs = new float[vxCount];
+        ys = new float[vxCount];
         for (int position = 0; position < vxCount; position++) {
-            final int vxId = graph.getVertex(position);
-
             // Start each point at a random position.
-            final Point2D.Float p = new Point2D.Float(
-                    BORDER + (float) r.nextInt(width - BORDER * 2),
-                    BORDER + (float) r.nextInt(height - BORDER * 2));
-            points.set(vxId, p);
-            offsets.set(vxId, new Point2D.Float(0, 0));
+            xs[position] = BORDER + (float) r.nextInt(width - BORDER * 2);
+            ys[position] = BORDER + (float) r.nextInt(height - BORDER * 2);
         }
+
+        final int[] neighbourStart = ForceDirectedLayout.getNeighbourStart(graph);
+        final int[] neighbours = ForceDirectedLayout.getNeighbours(graph, neighbourStart);
+        layout = new ForceDirectedLayout(2, xs, ys, null, neighbourStart, neighbours,
+                attractionConstant, repulsionConstant, temperature, theta);
     }
 
     public void layout() throws InterruptedException {
         for (int i = 0; i < MAX_ITERATIONS; i++) {
             interaction.setProgress(i + 1, MAX_ITERATIONS, "Arranging...", true);
 
-            for (int position = 0; position < vxCount; position++) {
-                final int vxId = graph.getVertex(position);
+            layout.iterate(i, MAX_ITERATIONS);
 
-                repulse(vxId);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
             }
-
-            for (int position = 0; position < graph.getLinkCount(); position++) {
-                final int linkId = graph.getLink(position);
-                final int vxlId = graph.getLinkLowVertex(linkId);
-                final int vxhId = graph.getLinkHighVertex(linkId);
-                attract(vxlId, vxhId);
-            }
-
-            for (int position = 0; position < vxCount; position++) {
-                final int vxId = graph.getVertex(position);
-
-                position(vxId);
-            }
-
-            cool(i);
         }
     }
 
@@ -159,88 +149,17 @@ class FR2DArranger implements Arranger {
 
         for (int position = 0; position < vxCount; position++) {
             final int vxId = graph.getVertex(position);
-            final Point2D.Float point = points.get(vxId);
 
             graph.setFloatValue(x2Attr, vxId, graph.getFloatValue(xAttr, vxId));
             graph.setFloatValue(y2Attr, vxId, graph.getFloatValue(yAttr, vxId));
             graph.setFloatValue(z2Attr, vxId, graph.getFloatValue(zAttr, vxId));
 
-            graph.setFloatValue(xAttr, vxId, point.x);
-            graph.setFloatValue(yAttr, vxId, point.y);
+            graph.setFloatValue(xAttr, vxId, xs[position]);
+            graph.setFloatValue(yAttr, vxId, ys[position]);
             graph.setFloatValue(zAttr, vxId, 0);
         }
     }
 
-    /**
-     * Repulse a node from the other nodes.
-     *
-     * @param vxOrigin The vertex to repulse from.
-     */
-    private void repulse(final int vxOrigin) {
-        final Point2D.Float p1 = points.get(vxOrigin);
-        final Point2D.Float offset = new Point2D.Float(0, 0);
-
-        for (int position = 0; position < vxCount; position++) {
-            final int vxId = graph.getVertex(position);
-
-            if (vxId != vxOrigin) {
-                final Point2D p2 = points.get(vxId);
-                final double xDelta = p1.getX() - p2.getX();
-                final double yDelta = p1.getY() - p2.getY();
-                final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
-                final double force = (repulsionConstant * repulsionConstant) / lenDelta;
-                if (Double.isNaN(force)) {
-                    throw new IllegalArgumentException("Bad value: isNaN(force)");
-                }
-
-                offset.setLocation(
-                        offset.getX() + (xDelta / lenDelta) * force,
-                        offset.getY() + (yDelta / lenDelta) * force);
-            }
-        }
-
-        offsets.set(vxOrigin, offset);
-    }
-
-    /**
-     * Attract nodes along their edges.
-     *
-     * @param txId
-     */
-    private void attract(final int vx0Id, final int vx1Id) {
-        final Point2D point1 = points.get(vx0Id);
-        final Point2D point2 = points.get(vx1Id);
-        final double xDelta = point1.getX() - point2.getX();
-        final double yDelta = point1.getY() - point2.getY();
-        final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
-        final double force = (lenDelta * lenDelta) / attractionConstant;
-        if (Double.isNaN(force)) {
-            throw new IllegalArgumentException(String.format("Bad value: force %f %f isNan(force)", lenDelta, attractionConstant));
-        }
-
-        final double dx = (xDelta / lenDelta) * force;
-        final double dy = (yDelta / lenDelta) * force;
-        final Point2D.Float offset1 = offsets.get(vx0Id);
-        final Point2D.Float offset2 = offsets.get(vx1Id);
-        offset1.setLocation(offset1.getX() - dx, offset1.getY() - dy);
-        offset2.setLocation(offset2.getX() + dx, offset2.getY() + dy);
-    }
-
-    private void position(final int vxId) {
-        final Point2D.Float p = offsets.get(vxId);
-        final Point2D.Float xyDelta = points.get(vxId);
-        final double lenDelta = Math.max(EPSILON, Math.sqrt(p.getX() * p.getX() + p.getY() * p.getY()));
-        final double xDelta = p.getX() / lenDelta * Math.min(lenDelta, temperature);
-        final double yDelta = p.getY() / lenDelta * Math.min(lenDelta, temperature);
-        final double newX = xyDelta.getX() + xDelta;
-        final double newY = xyDelta.getY() + yDelta;
-        xyDelta.setLocation(newX, newY);
-    }
-
-    private void cool(final int i) {
-        temperature += (1.0 - i / (float) MAX_ITERATIONS);
-    }
-
     @Override
     public void setMaintainMean(final boolean b) {
         maintainMean = b;
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.util.stream.IntStream;
+
+/**
+ * The Fruchterman-Reingold iteration shared by {@link FR2DArranger} and
+ * {@link FR3DArranger}.
+ * <p>
+ * Vertices are referred to by their position in the graph. Their coordinates
+ * and the forces on them are held in primitive float arrays, and the links
+ * between them in a compressed adjacency list, so that each step of an
+ * iteration is a scan over primitive arrays that is split across the common
+ * fork-join pool.
+ * <p>
+ * Repulsion is calculated with a {@link BarnesHutTree} when theta is greater
+ * than 0, and exactly by comparing every pair of vertices otherwise.
+ *
+ * @author algol
+ */
+final class ForceDirectedLayout {
+
+    private static final double EPSILON = 0.000001;
+
+    private final int vxCount;
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final float[] offsetX;
+    private final float[] offsetY;
+    private final float[] offsetZ;
+    private final int[] neighbourStart;
+    private final int[] neighbours;
+    private final double attractionConstant;
+    private final double repulsionConstant;
+    private final double theta;
+    private final BarnesHutTree tree;
+    private double temperature;
+
+    /**
+     * Create a new layout.
+     *
+     * @param dimensions the number of dimensions, either 2 or 3.
+     * @param x the initial x coordinates, indexed by vertex position.
+     * @param y the initial y coordinates, indexed by vertex position.
+     * @param z the initial z coordinates, indexed by vertex position. This is
+     * ignored in 2D and may be null.
+     * @param neighbourStart the offset of each vertex's neighbours in the
+     * neighbours array, with a final entry equal to the total number of
+     * neighbours.
+     * @param neighbours the positions of the neighbours of each vertex, with
+     * one entry for each link.
+     * @param attractionConstant the attraction constant.
+     * @param repulsionConstant the repulsion constant.
+     * @param temperature the initial temperature.
+     * @param theta the Barnes-Hut opening criterion; 0 calculates repulsion
+     * exactly.
+     */
+    ForceDirectedLayout(final int dimensions, final float[] x, final float[] y, final float[] z,
+            final int[] neighbourStart, final int[] neighbours,
+            final double attractionConstant, final double repulsionConstant, final double temperature, final double theta) {
+        this.vxCount = x.length;
+        this.x = x;
+        this.y = y;
+        this.z = dimensions == 3 ? z : null;
+        this.offsetX = new float[vxCount];
+        this.offsetY = new float[vxCount];
+        this.offsetZ = dimensions == 3 ? new float[vxCount] : null;
+        this.neighbourStart = neighbourStart;
+        this.neighbours = neighbours;
+        this.attractionConstant = attractionConstant;
+        this.repulsionConstant = repulsionConstant;
+        this.temperature = temperature;
+        this.theta = theta;
+        this.tree = theta > 0 ? new BarnesHutTree(dimensions, vxCount) : null;
+    }
+
+    /**
+     * Build the neighbour offsets of the vertices of a graph, indexed by
+     * vertex position, for use as the neighbourStart of a layout.
+     *
+     * @param graph the graph.
+     * @return the neighbour offsets.
+     */
+    static int[] getNeighbourStart(final GraphReadMethods graph) {
+        final int count = graph.getVertexCount();
+        final int[] neighbourStart = new int[count + 1];
+        for (int position = 0; position < count; position++) {
+            neighbourStart[position + 1] = neighbourStart[position] + graph.getVertexNeighbourCount(graph.getVertex(position));
+        }
+        return neighbourStart;
+    }
+
+    /**
+     * Build the neighbour positions of the vertices of a graph for use as the
+     * neighbours of a layout.
+     *
+     * @param graph the graph.
+     * @param neighbourStart the neighbour offsets from
+     * {@link #getNeighbourStart}.
+     * @return the neighbour positions.
+     */
+    static int[] getNeighbours(final GraphReadMethods graph, final int[] neighbourStart) {
+        final int count = graph.getVertexCount();
+        final int[] neighbours = new int[neighbourStart[count]];
+        for (int position = 0; position < count; position++) {
+            final int vxId = graph.getVertex(position);
+            final int start = neighbourStart[position];
+            final int neighbourCount = neighbourStart[position + 1] - start;
+            for (int n = 0; n < neighbourCount; n++) {
+                neighbours[start + n] = graph.getVertexPosition(graph.getVertexNeighbour(vxId, n));
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * Perform a single iteration of the layout.
+     *
+     * @param iteration the number of this iteration, starting from 0.
+     * @param maxIterations the total number of iterations.
+     */
+    void iterate(final int iteration, final int maxIterations) {
+        if (tree != null) {
+            tree.build(x, y, z, vxCount);
+        }
+        IntStream.range(0, vxCount).parallel().forEach(this::repulse);
+        IntStream.range(0, vxCount).parallel().forEach(this::attract);
+        IntStream.range(0, vxCount).parallel().forEach(this::position);
+        cool(iteration, maxIterations);
+    }
+
+    /**
+     * Repulse a vertex from the other vertices.
+     *
+     * @param vertex the position of the vertex to repulse.
+     */
+    private void repulse(final int vertex) {
+        final double k2 = repulsionConstant * repulsionConstant;
+        if (tree != null) {
+            tree.repulse(vertex, theta, k2, offsetX, offsetY, offsetZ);
+            return;
+        }
+
+        final float px = x[vertex];
+        final float py = y[vertex];
+        final float pz = z == null ? 0 : z[vertex];
+        double fx = 0;
+        double fy = 0;
+        double fz = 0;
+        for (int other = 0; other < vxCount; other++) {
+            if (other != vertex) {
+                final double xDelta = px - x[other];
+                final double yDelta = py - y[other];
+                final double zDelta = z == null ? 0 : pz - z[other];
+                final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
+                final double force = k2 / lenDelta;
+                fx += (xDelta / lenDelta) * force;
+                fy += (yDelta / lenDelta) * force;
+                fz += (zDelta / lenDelta) * force;
+            }
+        }
+
+        offsetX[vertex] = (float) fx;
+        offsetY[vertex] = (float) fy;
+        if (offsetZ != null) {
+            offsetZ[vertex] = (float) fz;
+        }
+    }
+
+    /**
+     * Attract a vertex towards its neighbours. Each link is visited from both
+     * ends so that each vertex only updates its own offset.
+     *
+     * @param vertex the position of the vertex to attract.
+     */
+    private void attract(final int vertex) {
+        final float px = x[vertex];
+        final float py = y[vertex];
+        final float pz = z == null ? 0 : z[vertex];
+        double fx = 0;
+        double fy = 0;
+        double fz = 0;
+        for (int n = neighbourStart[vertex]; n < neighbourStart[vertex + 1]; n++) {
+            final int neighbour = neighbours[n];
+            if (neighbour != vertex) {
+                final double xDelta = px - x[neighbour];
+                final double yDelta = py - y[neighbour];
+                final double zDelta = z == null ? 0 : pz - z[neighbour];
+                final double lenDelta = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta));
+                final double force = (lenDelta * lenDelta) / attractionConstant;
+                fx -= (xDelta / lenDelta) * force;
+                fy -= (yDelta / lenDelta) * force;
+                fz -= (zDelta / lenDelta) * force;
+            }
+        }
+
+        offsetX[vertex] += (float) fx;
+        offsetY[vertex] += (float) fy;
+        if (offsetZ != null) {
+            offsetZ[vertex] += (float) fz;
+        }
+    }
+
+    private void position(final int vertex) {
+        final double ox = offsetX[vertex];
+        final double oy = offsetY[vertex];
+        final double oz = offsetZ == null ? 0 : offsetZ[vertex];
+        final double lenDelta = Math.max(EPSILON, Math.sqrt(ox * ox + oy * oy + oz * oz));
+        final double scale = Math.min(lenDelta, temperature) / lenDelta;
+        x[vertex] += (float) (ox * scale);
+        y[vertex] += (float) (oy * scale);
+        if (z != null) {
+            z[vertex] += (float) (oz * scale);
+        }
+    }
+
+    private void cool(final int iteration, final int maxIterations) {
+        temperature += (1.0 - iteration / (float) maxIterations);
+    }
+}
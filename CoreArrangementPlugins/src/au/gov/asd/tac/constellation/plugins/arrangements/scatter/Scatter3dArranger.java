@@ -56,6 +56,11 @@ public class Scatter3dArranger implements Arranger {
         // Method intentionally left blank Not relevant for Scatter3D
     }
 
+    @Override
+    public Arranger copy() {
+        return this;
+    }
+
     @Override
     public void arrange(final GraphWriteMethods wg) throws InterruptedException {
 
@@ -16,21 +16,36 @@
 package au.gov.asd.tac.constellation.plugins.arrangements.spectral;
 
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
-import java.util.Collection;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
 
 /**
+ * Places vertices by the spectrum of the graph between them, so that vertices
+ * close together in the graph are close together in the plane.
+ * <p>
+ * Small graphs are embedded by a weighted sum over every eigenvector of their
+ * adjacency matrix, found with a full eigen decomposition. That needs the
+ * whole n by n matrix, so larger graphs are instead placed by the two
+ * eigenvectors of the Laplacian with the smallest non-zero eigenvalues, which
+ * a {@link LaplacianEigensolver} finds over a sparse adjacency in memory
+ * linear in the size of the graph.
  *
  * @author twilight_sparkle
  */
 public class GraphSpectrumEmbedder {
 
-    public static Map<Integer, double[]> spectralEmbedding(final GraphReadMethods rg, final Set<Integer> includedVertices) {
+    // graphs with up to this many vertices are small enough for a full eigen decomposition
+    static final int DENSE_LIMIT = 500;
+
+    // spreads the unit length eigenvectors out so that vertices are a few units apart on average
+    private static final double SPACING = 2;
+
+    public static Map<Integer, double[]> spectralEmbedding(final GraphReadMethods rg, final Set<Integer> includedVertices) throws InterruptedException {
         final Map<Integer, double[]> vertexPositions = new HashMap<>();
 
         // Don't position anything if there are fewer than 3 vertices to embedd - this embedding shouldn't be used in these cases.
@@ -38,12 +53,48 @@ public class GraphSpectrumEmbedder {
             return vertexPositions;
         }
 
-        final GraphMatrix l = GraphMatrix.adjacencyFromGraph(rg, includedVertices, new HashSet<>());
+        final int[] positionToId = new int[includedVertices.size()];
+        final Adjacency adjacency = adjacencyFromGraph(rg, includedVertices, positionToId);
+        final int dimension = positionToId.length;
+
+        if (dimension <= DENSE_LIMIT) {
+            adjacencyEmbedding(adjacency, positionToId, vertexPositions);
+            return vertexPositions;
+        }
+
+        final LaplacianEigensolver.Eigenpairs eigenpairs = new LaplacianEigensolver(adjacency).solve(2);
+        final double[][] vectors = eigenpairs.vectors();
+        final double[] xVector = vectors.length > 0 ? vectors[0] : new double[dimension];
+        final double[] yVector = vectors.length > 1 ? vectors[1] : new double[dimension];
+
+        final double scale = SPACING * dimension;
+        for (int i = 0; i < dimension; i++) {
+            vertexPositions.put(positionToId[i], new double[]{scale * xVector[i], scale * yVector[i]});
+        }
+
+        return vertexPositions;
+    }
+
+    /**
+     * Embed a small graph by a weighted sum over the eigenvectors of its
+     * adjacency matrix, with each vertex scaled by the norm of its weighted
+     * eigenvector entries.
+     */
+    private static void adjacencyEmbedding(final Adjacency adjacency, final int[] positionToId, final Map<Integer, double[]> vertexPositions) {
+        final int dimension = positionToId.length;
+        final double[][] matrixEntries = new double[dimension][dimension];
+        final int[] offsets = adjacency.offsets();
+        final int[] targets = adjacency.targets();
+        for (int i = 0; i < dimension; i++) {
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                matrixEntries[i][targets[j]] = 1;
+            }
+        }
 
-        final EigenDecomposition e = new EigenDecomposition(MatrixUtils.createRealMatrix(l.laplacianMatrix));
+        final EigenDecomposition e = new EigenDecomposition(MatrixUtils.createRealMatrix(matrixEntries));
         final int numVectors = e.getRealEigenvalues().length;
 
-        for (int i = 0; i < l.dimension; i++) {
+        for (int i = 0; i < dimension; i++) {
             double xPos = 0;
             double yPos = 0;
             double norm = 0;
@@ -53,100 +104,58 @@ public class GraphSpectrumEmbedder {
                 norm += Math.abs(e.getRealEigenvalue(j)) * (Math.pow(e.getEigenvector(j).getEntry(i), 2));
             }
             norm = Math.sqrt(norm);
-            vertexPositions.put(l.matrixPositionToID.get(i), new double[]{norm * xPos, norm * yPos});
+            vertexPositions.put(positionToId[i], new double[]{norm * xPos, norm * yPos});
         }
-
-        return vertexPositions;
-
-    }
-
-    private enum MatrixType {
-
-        ADJACENCY_MATRIX,
-        LAPLACIAN_MATRIX,;
     }
 
-    private static class GraphMatrix {
-
-        private final Map<Integer, Integer> matrixPositionToID;
-        private final double[][] laplacianMatrix;
-        private final int dimension;
-
-        private GraphMatrix(final double[][] laplacianMatrix, final Map<Integer, Integer> matrixPositionToID) {
-            this.laplacianMatrix = laplacianMatrix;
-            this.matrixPositionToID = new HashMap<>(matrixPositionToID);
-            this.dimension = laplacianMatrix.length;
-        }
-
-        public static GraphMatrix adjacencyFromGraph(final GraphReadMethods rg, final Set<Integer> includedVertices, final Set<Integer> excludedLinks) {
-            return matrixFromGraph(rg, includedVertices, excludedLinks, MatrixType.ADJACENCY_MATRIX);
+    /**
+     * The adjacency of the included vertices, ignoring links to vertices that
+     * aren't included, with vertices in the order of their position in the
+     * graph.
+     */
+    private static Adjacency adjacencyFromGraph(final GraphReadMethods rg, final Set<Integer> includedVertices, final int[] positionToId) {
+        final int[] idToPosition = new int[rg.getVertexCapacity()];
+        Arrays.fill(idToPosition, -1);
+        int dimension = 0;
+        for (int i = 0; i < rg.getVertexCount(); i++) {
+            final int vxID = rg.getVertex(i);
+            if (includedVertices.contains(vxID)) {
+                idToPosition[vxID] = dimension;
+                positionToId[dimension++] = vxID;
+            }
         }
 
-        public static GraphMatrix laplacianFromGraph(final GraphReadMethods rg, final Set<Integer> includedVertices, final Set<Integer> excludedLinks) {
-            return matrixFromGraph(rg, includedVertices, excludedLinks, MatrixType.LAPLACIAN_MATRIX);
+        final int[] offsets = new int[dimension + 1];
+        for (int i = 0; i < dimension; i++) {
+            offsets[i + 1] = offsets[i] + countNeighbours(rg, positionToId[i], idToPosition);
         }
 
-        public static GraphMatrix matrixFromGraph(final GraphReadMethods rg, final Collection<Integer> includedVertices, final Collection<Integer> excludedLinks, final MatrixType type) {
-            final int numVertices = includedVertices.size();
-            final double[][] matrixEntries = new double[numVertices][];
-            for (int i = 0; i < numVertices; i++) {
-                matrixEntries[i] = new double[numVertices];
-            }
-            final Map<Integer, Integer> idToMatrixPosition = new HashMap<>();
-            final Map<Integer, Integer> matrixPositionToID = new HashMap<>();
-
-            int skips = 0;
-            for (int i = 0; i < rg.getVertexCount(); i++) {
-                final int vxID = rg.getVertex(i);
-                if (!includedVertices.contains(vxID)) {
-                    skips++;
-                    continue;
+        final int[] targets = new int[offsets[dimension]];
+        final int[] weights = new int[offsets[dimension]];
+        int index = 0;
+        for (int i = 0; i < dimension; i++) {
+            final int vxID = positionToId[i];
+            for (int j = 0; j < rg.getVertexNeighbourCount(vxID); j++) {
+                final int neighbourID = rg.getVertexNeighbour(vxID, j);
+                if (neighbourID != vxID && idToPosition[neighbourID] != -1) {
+                    targets[index] = idToPosition[neighbourID];
+                    weights[index] = rg.getLinkTransactionCount(rg.getLink(vxID, neighbourID));
+                    index++;
                 }
-                idToMatrixPosition.put(vxID, i - skips);
-                matrixPositionToID.put(i - skips, vxID);
             }
+        }
 
-            for (int i = 0; i < numVertices; i++) {
-                final int vxID = matrixPositionToID.get(i);
-                int neighbourCount = 0;
-                for (int j = 0; j < rg.getVertexNeighbourCount(vxID); j++) {
-                    final int neighbourID = rg.getVertexNeighbour(vxID, j);
-                    if (excludedLinks.contains(rg.getLink(vxID, neighbourID))) {
-                        continue;
-                    } else if (!includedVertices.contains(neighbourID)) {
-                        neighbourCount++;
-                        continue;
-                    } else if (idToMatrixPosition.get(neighbourID) == i) {
-                        continue;
-                    }
-                    neighbourCount++;
-                    if (type != null) {
-                        switch (type) {
-                            case LAPLACIAN_MATRIX:
-                                matrixEntries[i][idToMatrixPosition.get(neighbourID)] = -1;
-                                break;
-                            case ADJACENCY_MATRIX:
-                                matrixEntries[i][idToMatrixPosition.get(neighbourID)] = 1;
-                                break;
-                            default:
-                                break;
-                        }
-                    }
-                }
-                if (type != null) {
-                    switch (type) {
-                        case LAPLACIAN_MATRIX:
-                            matrixEntries[i][i] = neighbourCount;
-                            break;
-                        case ADJACENCY_MATRIX:
-                            matrixEntries[i][i] = 0;
-                            break;
-                        default:
-                            break;
-                    }
-                }
+        return new Adjacency(offsets, targets, weights);
+    }
+
+    private static int countNeighbours(final GraphReadMethods rg, final int vxID, final int[] idToPosition) {
+        int count = 0;
+        for (int j = 0; j < rg.getVertexNeighbourCount(vxID); j++) {
+            final int neighbourID = rg.getVertexNeighbour(vxID, j);
+            if (neighbourID != vxID && idToPosition[neighbourID] != -1) {
+                count++;
             }
-            return new GraphMatrix(matrixEntries, matrixPositionToID);
         }
+        return count;
     }
 }
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.spectral;
+
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.algorithms.SparseMatrix;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.apache.commons.math3.linear.EigenDecomposition;
+import org.apache.commons.math3.linear.MatrixUtils;
+
+/**
+ * Finds the eigenvectors with the smallest non-zero eigenvalues of the
+ * Laplacian of an {@link Adjacency}, the vectors a spectral embedding places
+ * vertices by.
+ * <p>
+ * The Laplacian is never built: it is applied as the degree of each vertex
+ * less the sum over its neighbours, with the rows shared between threads by
+ * the partitions of a {@link SparseMatrix}. The eigenvectors are found with
+ * LOBPCG (locally optimal block preconditioned conjugate gradient), which
+ * only keeps a few vectors of the size of the graph. The Laplacian has a zero
+ * eigenvalue for each connected component, with the vectors that are constant
+ * on one component, so those are removed from every vector before it is used.
+ * <p>
+ * {@link #solveDense} finds the same eigenvectors with a full eigen
+ * decomposition, which the solver can be checked against on small graphs.
+ *
+ * @author algol
+ */
+final class LaplacianEigensolver {
+
+    // the residual, relative to the largest possible eigenvalue, below which an eigenvector is accepted
+    private static final double TOLERANCE = 1E-5;
+    private static final int MAX_ITERATIONS = 1000;
+    // a vector that loses almost all of its length to the vectors before it adds nothing to the basis
+    private static final double DROP_TOLERANCE = 1E-10;
+    private static final long SEED = 42;
+
+    /**
+     * Eigenvalues in increasing order, with their eigenvectors indexed by
+     * vertex position.
+     *
+     * @param values The eigenvalues.
+     * @param vectors The unit length eigenvector of each eigenvalue.
+     */
+    record Eigenpairs(double[] values, double[][] vectors) {
+    }
+
+    private final Adjacency adjacency;
+    private final SparseMatrix matrix;
+    private final int size;
+    private final int[] components;
+    private final int componentCount;
+    private final int[] componentSizes;
+
+    LaplacianEigensolver(final Adjacency adjacency) {
+        this.adjacency = adjacency;
+        this.matrix = SparseMatrix.fromAdjacency(adjacency);
+        this.size = adjacency.vertexCount();
+        this.components = new int[size];
+        this.componentCount = adjacency.components(components);
+        this.componentSizes = new int[componentCount];
+        for (int position = 0; position < size; position++) {
+            componentSizes[components[position]]++;
+        }
+    }
+
+    /**
+     * The number of zero eigenvalues of the Laplacian, which is the number of
+     * connected components.
+     *
+     * @return The number of components.
+     */
+    int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Find the eigenvectors with the smallest non-zero eigenvalues using
+     * LOBPCG.
+     *
+     * @param count The number of eigenvectors to find.
+     *
+     * @return The eigenpairs, which are fewer than count if the Laplacian has
+     * fewer non-zero eigenvalues.
+     *
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    Eigenpairs solve(final int count) throws InterruptedException {
+        final int blockSize = Math.min(count, size - componentCount);
+        if (blockSize <= 0) {
+            return new Eigenpairs(new double[0], new double[0][]);
+        }
+
+        final double bound = 2.0 * maxDegree();
+        final double tolerance = TOLERANCE * Math.max(bound, 1);
+
+        // start from a repeatable random block, so an arrangement can be repeated
+        final Random random = new Random(SEED);
+        final double[][] start = new double[blockSize][size];
+        for (final double[] vector : start) {
+            for (int position = 0; position < size; position++) {
+                vector[position] = random.nextDouble() - 0.5;
+            }
+            deflate(vector);
+        }
+        final Basis basis = new Basis(blockSize);
+        for (final double[] vector : start) {
+            basis.add(vector, null);
+        }
+        basis.endBlock();
+
+        RitzBlock block = rayleighRitz(basis, blockSize);
+        final double[][] residuals = new double[blockSize][size];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            boolean converged = true;
+            for (int j = 0; j < blockSize; j++) {
+                residual(block.x[j], block.ax[j], block.values[j], residuals[j]);
+                converged &= Math.sqrt(dot(residuals[j], residuals[j])) <= tolerance;
+            }
+            if (converged) {
+                break;
+            }
+
+            // the residuals scaled by the inverse of the diagonal of the Laplacian are the new search directions
+            for (final double[] vector : residuals) {
+                for (int position = 0; position < size; position++) {
+                    vector[position] /= Math.max(adjacency.degree(position), 1);
+                }
+                deflate(vector);
+            }
+
+            final Basis next = new Basis(3 * blockSize);
+            for (int j = 0; j < blockSize; j++) {
+                next.add(block.x[j], block.ax[j]);
+            }
+            next.endBlock();
+            for (final double[] vector : residuals) {
+                next.add(vector.clone(), null);
+            }
+            if (block.p != null) {
+                for (int j = 0; j < blockSize; j++) {
+                    next.add(block.p[j], block.ap[j]);
+                }
+            }
+
+            block = rayleighRitz(next, blockSize);
+        }
+
+        for (int j = 0; j < blockSize; j++) {
+            orient(block.x[j]);
+        }
+        return new Eigenpairs(block.values, block.x);
+    }
+
+    /**
+     * Find the eigenvectors with the smallest non-zero eigenvalues from a full
+     * eigen decomposition of the Laplacian.
+     *
+     * @param count The number of eigenvectors to find.
+     *
+     * @return The eigenpairs, which are fewer than count if the Laplacian has
+     * fewer non-zero eigenvalues.
+     */
+    Eigenpairs solveDense(final int count) {
+        final int found = Math.max(Math.min(count, size - componentCount), 0);
+        if (found == 0) {
+            return new Eigenpairs(new double[0], new double[0][]);
+        }
+
+        final int[] offsets = adjacency.offsets();
+        final int[] targets = adjacency.targets();
+        final double[][] laplacian = new double[size][size];
+        for (int position = 0; position < size; position++) {
+            laplacian[position][position] = adjacency.degree(position);
+            for (int index = offsets[position]; index < offsets[position + 1]; index++) {
+                laplacian[position][targets[index]] = -1;
+            }
+        }
+
+        final EigenDecomposition decomposition = new EigenDecomposition(MatrixUtils.createRealMatrix(laplacian));
+        final double[] eigenvalues = decomposition.getRealEigenvalues();
+        final Integer[] order = new Integer[eigenvalues.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> eigenvalues[i]));
+
+        // the smallest eigenvalues are the zeros of the components
+        final double[] values = new double[found];
+        final double[][] vectors = new double[found][];
+        for (int j = 0; j < found; j++) {
+            final int index = order[componentCount + j];
+            values[j] = eigenvalues[index];
+            vectors[j] = decomposition.getEigenvector(index).toArray();
+            orient(vectors[j]);
+        }
+
+        return new Eigenpairs(values, vectors);
+    }
+
+    private int maxDegree() {
+        int maxDegree = 0;
+        for (int position = 0; position < size; position++) {
+            maxDegree = Math.max(adjacency.degree(position), maxDegree);
+        }
+        return maxDegree;
+    }
+
+    /**
+     * Find the best block of vectors in the space of a basis: the eigenvectors
+     * of the Laplacian restricted to the basis. The part of each that isn't in
+     * the current block is kept as the conjugate direction for the next step.
+     */
+    private RitzBlock rayleighRitz(final Basis basis, final int blockSize) {
+        final int m = basis.size();
+        final double[][] projected = new double[m][m];
+        for (int k = 0; k < m; k++) {
+            for (int l = k; l < m; l++) {
+                final double value = (dot(basis.vectors[k], basis.products[l]) + dot(basis.vectors[l], basis.products[k])) / 2;
+                projected[k][l] = value;
+                projected[l][k] = value;
+            }
+        }
+
+        final EigenDecomposition decomposition = new EigenDecomposition(MatrixUtils.createRealMatrix(projected));
+        final double[] eigenvalues = decomposition.getRealEigenvalues();
+        final Integer[] order = new Integer[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> eigenvalues[i]));
+
+        final RitzBlock block = new RitzBlock(blockSize, size, basis.getBlockCount() < m);
+        for (int j = 0; j < Math.min(blockSize, m); j++) {
+            final double[] coefficients = decomposition.getEigenvector(order[j]).toArray();
+            block.values[j] = eigenvalues[order[j]];
+            for (int k = 0; k < m; k++) {
+                final boolean inBlock = k < basis.getBlockCount();
+                combine(coefficients[k], basis.vectors[k], block.x[j], inBlock || block.p == null ? null : block.p[j]);
+                combine(coefficients[k], basis.products[k], block.ax[j], inBlock || block.p == null ? null : block.ap[j]);
+            }
+        }
+
+        return block;
+    }
+
+    /**
+     * Add a multiple of a vector to a target, and to a second target if it
+     * isn't null.
+     */
+    private void combine(final double coefficient, final double[] vector, final double[] target, final double[] otherTarget) {
+        forEachPartition((start, end) -> {
+            for (int position = start; position < end; position++) {
+                final double value = coefficient * vector[position];
+                target[position] += value;
+                if (otherTarget != null) {
+                    otherTarget[position] += value;
+                }
+            }
+        });
+    }
+
+    private void residual(final double[] x, final double[] ax, final double value, final double[] residual) {
+        forEachPartition((start, end) -> {
+            for (int position = start; position < end; position++) {
+                residual[position] = ax[position] - value * x[position];
+            }
+        });
+    }
+
+    /**
+     * Multiply a vector by the Laplacian.
+     */
+    private void multiply(final double[] vector, final double[] product) {
+        forEachPartition((start, end) -> {
+            for (int row = start; row < end; row++) {
+                product[row] = adjacency.degree(row) * vector[row] - matrix.multiplyRow(row, vector);
+            }
+        });
+    }
+
+    /**
+     * The dot product of two vectors, with the sums of the partitions added
+     * in order so the result doesn't depend on thread timing.
+     */
+    private double dot(final double[] a, final double[] b) {
+        final double[] sums = new double[matrix.getPartitionCount()];
+        IntStream.range(0, sums.length).parallel().forEach(partition -> {
+            double sum = 0;
+            for (int position = matrix.getPartitionStart(partition); position < matrix.getPartitionEnd(partition); position++) {
+                sum += a[position] * b[position];
+            }
+            sums[partition] = sum;
+        });
+
+        double total = 0;
+        for (final double sum : sums) {
+            total += sum;
+        }
+        return total;
+    }
+
+    private void forEachPartition(final PartitionTask task) {
+        final int partitionCount = matrix.getPartitionCount();
+        if (partitionCount == 1) {
+            task.run(0, size);
+        } else {
+            IntStream.range(0, partitionCount).parallel().forEach(partition
+                    -> task.run(matrix.getPartitionStart(partition), matrix.getPartitionEnd(partition)));
+        }
+    }
+
+    /**
+     * Remove the part of a vector in the null space of the Laplacian, by
+     * subtracting its mean over each component.
+     */
+    private void deflate(final double[] vector) {
+        final double[] sums = new double[componentCount];
+        for (int position = 0; position < size; position++) {
+            sums[components[position]] += vector[position];
+        }
+        for (int position = 0; position < size; position++) {
+            vector[position] -= sums[components[position]] / componentSizes[components[position]];
+        }
+    }
+
+    /**
+     * Flip an eigenvector so that its largest entry is positive, so that the
+     * same graph is always embedded the same way round.
+     */
+    private static void orient(final double[] vector) {
+        double largest = 0;
+        for (final double value : vector) {
+            if (Math.abs(value) > Math.abs(largest)) {
+                largest = value;
+            }
+        }
+        if (largest < 0) {
+            for (int position = 0; position < vector.length; position++) {
+                vector[position] = -vector[position];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+
+        void run(int start, int end);
+    }
+
+    /**
+     * The current block of approximate eigenvectors, their products with the
+     * Laplacian, and the conjugate directions that led to them.
+     */
+    private static final class RitzBlock {
+
+        private final double[] values;
+        private final double[][] x;
+        private final double[][] ax;
+        private final double[][] p;
+        private final double[][] ap;
+
+        private RitzBlock(final int blockSize, final int size, final boolean hasDirections) {
+            values = new double[blockSize];
+            x = new double[blockSize][size];
+            ax = new double[blockSize][size];
+            p = hasDirections ? new double[blockSize][size] : null;
+            ap = hasDirections ? new double[blockSize][size] : null;
+        }
+    }
+
+    /**
+     * An orthonormal basis, with the product of each of its vectors with the
+     * Laplacian. The first vectors added form the current block.
+     */
+    private final class Basis {
+
+        private final double[][] vectors;
+        private final double[][] products;
+        private int blockCount = 0;
+        private int size = 0;
+
+        private Basis(final int capacity) {
+            this.vectors = new double[capacity][];
+            this.products = new double[capacity][];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        /**
+         * Mark the vectors added so far as the current block.
+         */
+        private void endBlock() {
+            blockCount = size;
+        }
+
+        private int getBlockCount() {
+            return blockCount;
+        }
+
+        /**
+         * Add a vector to the basis, if it adds a new direction, after making
+         * it orthogonal to the vectors already there, twice over to limit
+         * rounding errors. The product is changed along with the vector, or
+         * calculated afterwards if it is null.
+         */
+        private void add(final double[] vector, final double[] product) {
+            final double length = Math.sqrt(dot(vector, vector));
+            for (int pass = 0; pass < 2; pass++) {
+                for (int k = 0; k < size; k++) {
+                    final double projection = dot(vectors[k], vector);
+                    combine(-projection, vectors[k], vector, null);
+                    if (product != null) {
+                        combine(-projection, products[k], product, null);
+                    }
+                }
+            }
+
+            final double newLength = Math.sqrt(dot(vector, vector));
+            if (newLength <= DROP_TOLERANCE * length || newLength == 0) {
+                return;
+            }
+            final double scale = 1 / newLength;
+            forEachPartition((start, end) -> {
+                for (int position = start; position < end; position++) {
+                    vector[position] *= scale;
+                    if (product != null) {
+                        product[position] *= scale;
+                    }
+                }
+            });
+
+            final double[] newProduct;
+            if (product != null) {
+                newProduct = product;
+            } else {
+                newProduct = new double[vector.length];
+                multiply(vector, newProduct);
+            }
+            vectors[size] = vector;
+            products[size] = newProduct;
+            size++;
+        }
+    }
+}
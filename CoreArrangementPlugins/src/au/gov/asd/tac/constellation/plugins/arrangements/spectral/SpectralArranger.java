@@ -45,6 +45,13 @@ public class SpectralArranger implements Arranger {
         maintainMean = b;
     }
 
+    @Override
+    public Arranger copy() {
+        final SpectralArranger copy = new SpectralArranger();
+        copy.setMaintainMean(maintainMean);
+        return copy;
+    }
+
     // A method to spread vertices out after an arrangement to reduce overlaps whilst preserving the structure of the graph
     // and avoiding over-exapnsion.
     // This method should probably be refactored so that it can be used by the whole arrangement framework.
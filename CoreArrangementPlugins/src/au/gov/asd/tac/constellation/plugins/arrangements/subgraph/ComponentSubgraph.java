@@ -15,6 +15,7 @@
  */
 package au.gov.asd.tac.constellation.plugins.arrangements.subgraph;
 
+import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphAttributeMerger;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphIndexResult;
@@ -24,88 +25,185 @@ import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.NativeAttributeType;
 import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
 import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
 import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.graph.value.readables.IntReadable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.IntStream;
 
 /**
  * Subgraph write methods for a connected component
+ * <p>
+ * The subgraphs of several disjoint components of one graph can be extracted
+ * together by {@link SubgraphFactory#constructSubgraphs}, which indexes the
+ * elements of the whole graph once rather than once per component.
+ * <p>
+ * While its positions are buffered (see {@link #bufferPositions()}) a subgraph
+ * reads and writes the vertex position attributes in its own storage rather
+ * than in the parent graph, so the subgraphs of disjoint components can be
+ * arranged on separate threads. Any other change to the graph made while
+ * buffering throws an {@link UnsupportedOperationException}.
  *
  * @author twilight_sparkle
  */
 public class ComponentSubgraph implements GraphWriteMethods {
 
+    private static final int NOT_BUFFERED = -1;
+
+    private static final String[] POSITION_ATTRIBUTES = {
+        VisualConcept.VertexAttribute.X.getName(),
+        VisualConcept.VertexAttribute.Y.getName(),
+        VisualConcept.VertexAttribute.Z.getName(),
+        VisualConcept.VertexAttribute.X2.getName(),
+        VisualConcept.VertexAttribute.Y2.getName(),
+        VisualConcept.VertexAttribute.Z2.getName()
+    };
+
     protected final GraphWriteMethods proxy;
 
     protected final Set<Integer> includedVertexIDs;
     protected final int[] vertexList;
-    protected final int[] vertexPositions;
-    protected int[] linkList = null;
-    protected int[] linkPositions = null;
-    protected int[] edgeList = null;
-    protected int[] edgePositions = null;
-    protected int[] transactionList = null;
-    protected int[] transactionPositions = null;
+
+    private final SubgraphPartition partition;
+    private final int subgraph;
+
+    private int[] bufferedAttributes = null;
+    private float[][] buffers = null;
+
+    /**
+     * Construct the subgraphs of disjoint sets of vertices in one pass over
+     * the parent graph.
+     *
+     * @param factory The factory to fall back to if the sets overlap.
+     * @param wg The parent graph.
+     * @param vertexSets The vertices of each subgraph.
+     * @param constructor The constructor of a subgraph within a partition.
+     *
+     * @return The subgraphs in the order of the vertex sets.
+     */
+    static List<ComponentSubgraph> constructPartitioned(final SubgraphFactory factory, final GraphWriteMethods wg,
+            final List<Set<Integer>> vertexSets, final PartitionedConstructor constructor) {
+        final SubgraphPartition partition = SubgraphPartition.build(wg, vertexSets);
+        final List<ComponentSubgraph> subgraphs = new ArrayList<>(vertexSets.size());
+        for (int s = 0; s < vertexSets.size(); s++) {
+            subgraphs.add(partition != null
+                    ? constructor.construct(wg, vertexSets.get(s), partition, s)
+                    : factory.constructSubgraph(wg, vertexSets.get(s)));
+        }
+
+        return subgraphs;
+    }
+
+    @FunctionalInterface
+    interface PartitionedConstructor {
+
+        ComponentSubgraph construct(final GraphWriteMethods proxy, final Set<Integer> includedVertexIDs, final SubgraphPartition partition, final int subgraph);
+    }
 
     public static SubgraphFactory getSubgraphFactory() {
-        return (final GraphWriteMethods wg, final Set<Integer> vertexIDs) -> new ComponentSubgraph(wg, vertexIDs);
+        return new SubgraphFactory() {
+            @Override
+            public ComponentSubgraph constructSubgraph(final GraphWriteMethods wg, final Set<Integer> vertexIDs) {
+                return new ComponentSubgraph(wg, vertexIDs);
+            }
+
+            @Override
+            public List<ComponentSubgraph> constructSubgraphs(final GraphWriteMethods wg, final List<Set<Integer>> vertexSets) {
+                return constructPartitioned(this, wg, vertexSets, ComponentSubgraph::new);
+            }
+        };
     }
 
     public ComponentSubgraph(final GraphWriteMethods proxy, final Set<Integer> includedVertexIDs) {
+        this(proxy, includedVertexIDs, SubgraphPartition.build(proxy, List.of(includedVertexIDs)), 0);
+    }
+
+    ComponentSubgraph(final GraphWriteMethods proxy, final Set<Integer> includedVertexIDs, final SubgraphPartition partition, final int subgraph) {
         this.proxy = proxy;
         this.includedVertexIDs = includedVertexIDs;
-        vertexList = new int[includedVertexIDs.size()];
-        vertexPositions = new int[proxy.getVertexCapacity()];
-        int pos = 0;
-        for (final int vert : includedVertexIDs) {
-            vertexPositions[vert] = pos;
-            vertexList[pos++] = vert;
+        this.partition = partition;
+        this.subgraph = subgraph;
+        vertexList = partition.getVertexList(subgraph);
+    }
+
+    /**
+     * Hold the vertex positions of this subgraph in local buffers until
+     * {@link #writePositions()} or {@link #discardPositions()} is called.
+     * <p>
+     * The float x, y, z, x2, y2 and z2 vertex attributes are buffered. While
+     * buffering, no other attribute values and no part of the structure of the
+     * graph may be changed.
+     */
+    public void bufferPositions() {
+        final int[] attributes = new int[POSITION_ATTRIBUTES.length];
+        int count = 0;
+        for (final String name : POSITION_ATTRIBUTES) {
+            final int attribute = proxy.getAttribute(GraphElementType.VERTEX, name);
+            if (attribute != Graph.NOT_FOUND && FloatAttributeDescription.ATTRIBUTE_NAME.equals(proxy.getAttributeType(attribute))) {
+                attributes[count++] = attribute;
+            }
         }
-    }
 
-    private void calculateLinks() {
-        int pos = 0;
-        linkPositions = new int[proxy.getLinkCapacity()];
-        linkList = new int[proxy.getLinkCount()];
-        for (int i = 0; i < proxy.getLinkCount(); i++) {
-            final int lxID = proxy.getLink(i);
-            if (linkExists(lxID)) {
-                linkPositions[lxID] = pos;
-                linkList[pos++] = lxID;
+        final float[][] values = new float[count][vertexList.length];
+        for (int b = 0; b < count; b++) {
+            for (int position = 0; position < vertexList.length; position++) {
+                values[b][position] = proxy.getFloatValue(attributes[b], vertexList[position]);
             }
         }
-        linkList = Arrays.copyOf(linkList, pos);
-    }
-
-    private void calculateEdges() {
-        int pos = 0;
-        edgePositions = new int[proxy.getEdgeCapacity()];
-        edgeList = new int[proxy.getEdgeCount()];
-        for (int i = 0; i < proxy.getEdgeCount(); i++) {
-            final int exID = proxy.getEdge(i);
-            if (edgeExists(exID)) {
-                edgePositions[exID] = pos;
-                edgeList[pos++] = exID;
+
+        bufferedAttributes = Arrays.copyOf(attributes, count);
+        buffers = values;
+    }
+
+    /**
+     * Write the buffered vertex positions to the parent graph and stop
+     * buffering.
+     */
+    public void writePositions() {
+        final int[] attributes = bufferedAttributes;
+        final float[][] values = buffers;
+        discardPositions();
+        for (int b = 0; b < attributes.length; b++) {
+            for (int position = 0; position < vertexList.length; position++) {
+                proxy.setFloatValue(attributes[b], vertexList[position], values[b][position]);
             }
         }
-        edgeList = Arrays.copyOf(edgeList, pos);
-    }
-
-    private void calculateTransactions() {
-        int pos = 0;
-        transactionPositions = new int[proxy.getTransactionCapacity()];
-        transactionList = new int[proxy.getTransactionCount()];
-        for (int i = 0; i < proxy.getTransactionCount(); i++) {
-            final int txID = proxy.getTransaction(i);
-            if (transactionExists(txID)) {
-                transactionPositions[txID] = pos;
-                transactionList[pos++] = txID;
+    }
+
+    /**
+     * Stop buffering without changing the parent graph.
+     */
+    public void discardPositions() {
+        bufferedAttributes = null;
+        buffers = null;
+    }
+
+    private int bufferIndex(final int attribute) {
+        if (buffers != null) {
+            for (int b = 0; b < bufferedAttributes.length; b++) {
+                if (bufferedAttributes[b] == attribute) {
+                    return b;
+                }
             }
         }
-        transactionList = Arrays.copyOf(transactionList, pos);
+        return NOT_BUFFERED;
+    }
+
+    private void checkNotBuffering() {
+        if (buffers != null) {
+            throw new UnsupportedOperationException("Only vertex positions can be changed while they are buffered");
+        }
+    }
+
+    private void checkNotBuffered(final int attribute) {
+        if (bufferIndex(attribute) != NOT_BUFFERED) {
+            throw new UnsupportedOperationException("Buffered vertex positions can only be read as float, double or object values");
+        }
     }
 
     @Override
@@ -135,26 +233,17 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public int getLink(final int position) {
-        if (linkList == null) {
-            calculateLinks();
-        }
-        return linkList[position];
+        return partition.getLinks().lists()[subgraph][position];
     }
 
     @Override
     public int getEdge(final int position) {
-        if (edgeList == null) {
-            calculateEdges();
-        }
-        return edgeList[position];
+        return partition.getEdges().lists()[subgraph][position];
     }
 
     @Override
     public int getTransaction(final int position) {
-        if (transactionList == null) {
-            calculateTransactions();
-        }
-        return transactionList[position];
+        return partition.getTransactions().lists()[subgraph][position];
     }
 
     @Override
@@ -164,55 +253,37 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public int getLinkCount() {
-        if (linkList == null) {
-            calculateLinks();
-        }
-        return linkList.length;
+        return partition.getLinks().lists()[subgraph].length;
     }
 
     @Override
     public int getEdgeCount() {
-        if (edgeList == null) {
-            calculateEdges();
-        }
-        return edgeList.length;
+        return partition.getEdges().lists()[subgraph].length;
     }
 
     @Override
     public int getTransactionCount() {
-        if (transactionList == null) {
-            calculateTransactions();
-        }
-        return transactionList.length;
+        return partition.getTransactions().lists()[subgraph].length;
     }
 
     @Override
     public int getVertexPosition(final int vertex) {
-        return vertexPositions[vertex];
+        return partition.getVertexPosition(vertex);
     }
 
     @Override
     public int getLinkPosition(final int link) {
-        if (linkList == null) {
-            calculateLinks();
-        }
-        return linkPositions[link];
+        return partition.getLinks().positions()[proxy.getLinkPosition(link)];
     }
 
     @Override
     public int getEdgePosition(final int edge) {
-        if (edgeList == null) {
-            calculateEdges();
-        }
-        return edgePositions[edge];
+        return partition.getEdges().positions()[proxy.getEdgePosition(edge)];
     }
 
     @Override
     public int getTransactionPosition(final int transaction) {
-        if (transactionList == null) {
-            calculateTransactions();
-        }
-        return transactionPositions[transaction];
+        return partition.getTransactions().positions()[proxy.getTransactionPosition(transaction)];
     }
 
     @Override
@@ -285,6 +356,11 @@ public class ComponentSubgraph implements GraphWriteMethods {
         return proxy.getValueModificationCounter(attribute);
     }
 
+    @Override
+    public long getUndoCounter() {
+        return proxy.getUndoCounter();
+    }
+
     @Override
     public int getEdgeCapacity() {
         return proxy.getEdgeCapacity();
@@ -472,26 +548,38 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public int addAttribute(final GraphElementType elementType, final String attributeType, final String label, final String description, final Object defaultValue, final String attributeMergerId) {
+        if (buffers != null) {
+            // Adding an attribute that already exists is allowed; it does not change the graph.
+            final int attribute = proxy.getAttribute(elementType, label);
+            if (attribute == Graph.NOT_FOUND || !proxy.getAttributeType(attribute).equals(attributeType)) {
+                checkNotBuffering();
+            }
+            return attribute;
+        }
         return proxy.addAttribute(elementType, attributeType, label, description, defaultValue, attributeMergerId);
     }
 
     @Override
     public void removeAttribute(final int attribute) {
+        checkNotBuffering();
         proxy.removeAttribute(attribute);
     }
 
     @Override
     public void updateAttributeName(final int attribute, final String newName) {
+        checkNotBuffering();
         proxy.updateAttributeName(attribute, newName);
     }
 
     @Override
     public void updateAttributeDescription(final int attribute, final String newDescription) {
+        checkNotBuffering();
         proxy.updateAttributeDescription(attribute, newDescription);
     }
 
     @Override
     public void updateAttributeDefaultValue(final int attribute, final Object newObject) {
+        checkNotBuffering();
         proxy.updateAttributeDefaultValue(attribute, newObject);
     }
 
@@ -527,46 +615,61 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public byte getByteValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getByteValue(attribute, id);
     }
 
     @Override
     public short getShortValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getShortValue(attribute, id);
     }
 
     @Override
     public int getIntValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getIntValue(attribute, id);
     }
 
     @Override
     public long getLongValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getLongValue(attribute, id);
     }
 
     @Override
     public float getFloatValue(final int attribute, final int id) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED) {
+            return buffers[b][getVertexPosition(id)];
+        }
         return proxy.getFloatValue(attribute, id);
     }
 
     @Override
     public double getDoubleValue(final int attribute, final int id) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED) {
+            return buffers[b][getVertexPosition(id)];
+        }
         return proxy.getDoubleValue(attribute, id);
     }
 
     @Override
     public boolean getBooleanValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getBooleanValue(attribute, id);
     }
 
     @Override
     public char getCharValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getCharValue(attribute, id);
     }
 
     @Override
     public String getStringValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.getStringValue(attribute, id);
     }
 
@@ -576,77 +679,111 @@ public class ComponentSubgraph implements GraphWriteMethods {
     }
 
     @Override
+    @SuppressWarnings("unchecked") // Buffered attributes are float attributes.
     public <T> T getObjectValue(final int attribute, final int id) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED) {
+            return (T) Float.valueOf(buffers[b][getVertexPosition(id)]);
+        }
         return proxy.<T>getObjectValue(attribute, id);
     }
 
     @Override
     public void clearValue(final int attribute, final int id) {
+        checkNotBuffering();
         proxy.clearValue(attribute, id);
     }
 
     @Override
     public void setByteValue(final int attribute, final int id, final byte value) {
+        checkNotBuffering();
         proxy.setByteValue(attribute, id, value);
     }
 
     @Override
     public void setShortValue(final int attribute, final int id, final short value) {
+        checkNotBuffering();
         proxy.setShortValue(attribute, id, value);
     }
 
     @Override
     public void setIntValue(final int attribute, final int id, final int value) {
+        checkNotBuffering();
         proxy.setIntValue(attribute, id, value);
     }
 
     @Override
     public void setLongValue(final int attribute, final int id, final long value) {
+        checkNotBuffering();
         proxy.setLongValue(attribute, id, value);
     }
 
     @Override
     public void setFloatValue(final int attribute, final int id, final float value) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED) {
+            buffers[b][getVertexPosition(id)] = value;
+            return;
+        }
+        checkNotBuffering();
         proxy.setFloatValue(attribute, id, value);
     }
 
     @Override
     public void setDoubleValue(final int attribute, final int id, final double value) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED) {
+            buffers[b][getVertexPosition(id)] = (float) value;
+            return;
+        }
+        checkNotBuffering();
         proxy.setDoubleValue(attribute, id, value);
     }
 
     @Override
     public void setBooleanValue(final int attribute, final int id, final boolean value) {
+        checkNotBuffering();
         proxy.setBooleanValue(attribute, id, value);
     }
 
     @Override
     public void setCharValue(final int attribute, final int id, final char value) {
+        checkNotBuffering();
         proxy.setCharValue(attribute, id, value);
     }
 
     @Override
     public void setStringValue(final int attribute, final int id, final String value) {
+        checkNotBuffering();
         proxy.setStringValue(attribute, id, value);
     }
 
     @Override
     public void setObjectValue(final int attribute, final int id, final Object value) {
+        final int b = bufferIndex(attribute);
+        if (b != NOT_BUFFERED && value instanceof Number number) {
+            buffers[b][getVertexPosition(id)] = number.floatValue();
+            return;
+        }
+        checkNotBuffering();
         proxy.setObjectValue(attribute, id, value);
     }
 
     @Override
     public void setPrimaryKey(final GraphElementType elementType, final int... attributes) {
+        checkNotBuffering();
         proxy.setPrimaryKey(elementType, attributes);
     }
 
     @Override
     public void validateKey(final GraphElementType elementType, final boolean allowMerging) {
+        checkNotBuffering();
         proxy.validateKey(elementType, allowMerging);
     }
 
     @Override
     public void validateKey(final GraphElementType elementType, final int element, final boolean allowMerging) {
+        checkNotBuffering();
         proxy.validateKey(elementType, element, allowMerging);
     }
 
@@ -682,11 +819,13 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public Object createWriteAttributeObject(final int attribute, final IntReadable indexReadable) {
+        checkNotBuffering();
         return proxy.createWriteAttributeObject(attribute, indexReadable);
     }
 
     @Override
     public Object createReadAttributeObject(final int attribute, final IntReadable indexReadable) {
+        checkNotBuffering();
         return proxy.createReadAttributeObject(attribute, indexReadable);
     }
 
@@ -722,6 +861,7 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public void executeGraphOperation(final GraphOperation operation) {
+        checkNotBuffering();
         proxy.executeGraphOperation(operation);
     }
 
@@ -732,6 +872,7 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public void setAttributeIndexType(final int attribute, final GraphIndexType indexType) {
+        checkNotBuffering();
         proxy.setAttributeIndexType(attribute, indexType);
     }
 
@@ -777,6 +918,7 @@ public class ComponentSubgraph implements GraphWriteMethods {
 
     @Override
     public boolean isDefaultValue(final int attribute, final int id) {
+        checkNotBuffered(attribute);
         return proxy.isDefaultValue(attribute, id);
     }
 
@@ -17,6 +17,7 @@ package au.gov.asd.tac.constellation.plugins.arrangements.subgraph;
 
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -28,20 +29,41 @@ public final class InducedSubgraph extends ComponentSubgraph {
     public InducedSubgraph(final GraphWriteMethods proxy, final Set<Integer> includedVertexIDs) {
         super(proxy, includedVertexIDs);
 
-        final int vertexCapacity = getVertexCapacity();
-        vertexNeighbours = new int[vertexCapacity][];
-        vertexLinks = new int[vertexCapacity][];
-        vertexEdges = new int[vertexCapacity][];
-        vertexTransactions = new int[vertexCapacity][];
+        final int vertexCount = getVertexCount();
+        vertexNeighbours = new int[vertexCount][];
+        vertexLinks = new int[vertexCount][];
+        vertexEdges = new int[vertexCount][];
+        vertexTransactions = new int[vertexCount][];
     }
 
+    private InducedSubgraph(final GraphWriteMethods proxy, final Set<Integer> includedVertexIDs, final SubgraphPartition partition, final int subgraph) {
+        super(proxy, includedVertexIDs, partition, subgraph);
+
+        final int vertexCount = getVertexCount();
+        vertexNeighbours = new int[vertexCount][];
+        vertexLinks = new int[vertexCount][];
+        vertexEdges = new int[vertexCount][];
+        vertexTransactions = new int[vertexCount][];
+    }
+
+    // The neighbourhoods of each vertex, indexed by vertex position.
     private final int[][] vertexNeighbours;
     private final int[][] vertexLinks;
     private final int[][] vertexEdges;
     private final int[][] vertexTransactions;
 
     public static SubgraphFactory getSubgraphFactory() {
-        return (final GraphWriteMethods wg, final Set<Integer> vertexIDs) -> new InducedSubgraph(wg, vertexIDs);
+        return new SubgraphFactory() {
+            @Override
+            public ComponentSubgraph constructSubgraph(final GraphWriteMethods wg, final Set<Integer> vertexIDs) {
+                return new InducedSubgraph(wg, vertexIDs);
+            }
+
+            @Override
+            public List<ComponentSubgraph> constructSubgraphs(final GraphWriteMethods wg, final List<Set<Integer>> vertexSets) {
+                return constructPartitioned(this, wg, vertexSets, InducedSubgraph::new);
+            }
+        };
     }
 
     private void calculateNeighbours(final int vertex) {
@@ -53,7 +75,7 @@ public final class InducedSubgraph extends ComponentSubgraph {
                 neighbours[pos++] = neighbourID;
             }
         }
-        vertexNeighbours[vertex] = Arrays.copyOf(neighbours, pos);
+        vertexNeighbours[getVertexPosition(vertex)] = Arrays.copyOf(neighbours, pos);
     }
 
     private void calculateLinks(final int vertex) {
@@ -66,7 +88,7 @@ public final class InducedSubgraph extends ComponentSubgraph {
                 links[pos++] = lxID;
             }
         }
-        vertexLinks[vertex] = Arrays.copyOf(links, pos);
+        vertexLinks[getVertexPosition(vertex)] = Arrays.copyOf(links, pos);
     }
 
     private void calculateEdges(final int vertex) {
@@ -79,7 +101,7 @@ public final class InducedSubgraph extends ComponentSubgraph {
                 edges[pos++] = exID;
             }
         }
-        vertexEdges[vertex] = Arrays.copyOf(edges, pos);
+        vertexEdges[getVertexPosition(vertex)] = Arrays.copyOf(edges, pos);
     }
 
     private void calculateTransactions(final int vertex) {
@@ -92,70 +114,70 @@ public final class InducedSubgraph extends ComponentSubgraph {
                 transactions[pos++] = txID;
             }
         }
-        vertexTransactions[vertex] = Arrays.copyOf(transactions, pos);
+        vertexTransactions[getVertexPosition(vertex)] = Arrays.copyOf(transactions, pos);
     }
 
     @Override
     public int getVertexNeighbourCount(final int vertex) {
-        if (vertexNeighbours[vertex] == null) {
+        if (vertexNeighbours[getVertexPosition(vertex)] == null) {
             calculateNeighbours(vertex);
         }
-        return vertexNeighbours[vertex].length;
+        return vertexNeighbours[getVertexPosition(vertex)].length;
     }
 
     @Override
     public int getVertexNeighbour(final int vertex, final int position) {
-        if (vertexNeighbours[vertex] == null) {
+        if (vertexNeighbours[getVertexPosition(vertex)] == null) {
             calculateNeighbours(vertex);
         }
-        return vertexNeighbours[vertex][position];
+        return vertexNeighbours[getVertexPosition(vertex)][position];
     }
 
     @Override
     public int getVertexLinkCount(final int vertex) {
-        if (vertexLinks[vertex] == null) {
+        if (vertexLinks[getVertexPosition(vertex)] == null) {
             calculateLinks(vertex);
         }
-        return vertexLinks[vertex].length;
+        return vertexLinks[getVertexPosition(vertex)].length;
     }
 
     @Override
     public int getVertexLink(final int vertex, final int position) {
-        if (vertexLinks[vertex] == null) {
+        if (vertexLinks[getVertexPosition(vertex)] == null) {
             calculateLinks(vertex);
         }
-        return vertexLinks[vertex][position];
+        return vertexLinks[getVertexPosition(vertex)][position];
     }
 
     @Override
     public int getVertexEdgeCount(final int vertex) {
-        if (vertexEdges[vertex] == null) {
+        if (vertexEdges[getVertexPosition(vertex)] == null) {
             calculateEdges(vertex);
         }
-        return vertexEdges[vertex].length;
+        return vertexEdges[getVertexPosition(vertex)].length;
     }
 
     @Override
     public int getVertexEdge(final int vertex, final int position) {
-        if (vertexEdges[vertex] == null) {
+        if (vertexEdges[getVertexPosition(vertex)] == null) {
             calculateEdges(vertex);
         }
-        return vertexEdges[vertex][position];
+        return vertexEdges[getVertexPosition(vertex)][position];
     }
 
     @Override
     public int getVertexTransactionCount(final int vertex, final int direction) {
-        if (vertexTransactions[vertex] == null) {
+        if (vertexTransactions[getVertexPosition(vertex)] == null) {
             calculateTransactions(vertex);
         }
-        return vertexTransactions[vertex].length;
+        return vertexTransactions[getVertexPosition(vertex)].length;
     }
 
     @Override
     public int getVertexTransaction(final int vertex, final int direction, final int position) {
-        if (vertexTransactions[vertex] == null) {
+        if (vertexTransactions[getVertexPosition(vertex)] == null) {
             calculateTransactions(vertex);
         }
-        return vertexTransactions[vertex][position];
+        return vertexTransactions[getVertexPosition(vertex)][position];
     }
 }
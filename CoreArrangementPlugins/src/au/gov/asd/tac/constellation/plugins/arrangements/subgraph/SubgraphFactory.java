@@ -16,6 +16,8 @@
 package au.gov.asd.tac.constellation.plugins.arrangements.subgraph;
 
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -26,4 +28,25 @@ public interface SubgraphFactory {
 
     public ComponentSubgraph constructSubgraph(final GraphWriteMethods wg, final Set<Integer> includedVertexIDs);
 
+    /**
+     * Construct the subgraphs induced by several sets of vertices.
+     * <p>
+     * Factories for subgraphs that share an index of the parent graph override
+     * this to build the subgraphs of disjoint sets in a single pass over the
+     * parent graph.
+     *
+     * @param wg The parent graph.
+     * @param vertexSets The vertices of each subgraph.
+     *
+     * @return The subgraphs in the order of the vertex sets.
+     */
+    public default List<ComponentSubgraph> constructSubgraphs(final GraphWriteMethods wg, final List<Set<Integer>> vertexSets) {
+        final List<ComponentSubgraph> subgraphs = new ArrayList<>(vertexSets.size());
+        for (final Set<Integer> includedVertexIDs : vertexSets) {
+            subgraphs.add(constructSubgraph(wg, includedVertexIDs));
+        }
+
+        return subgraphs;
+    }
+
 }
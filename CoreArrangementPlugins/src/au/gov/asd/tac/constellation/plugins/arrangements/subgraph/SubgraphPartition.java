@@ -0,0 +1,163 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.subgraph;
+
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The element lists of a collection of disjoint subgraphs of one graph.
+ * <p>
+ * Every index is built by a single pass over the elements of the parent graph,
+ * so extracting the subgraphs of all the taxa of a taxonomy costs the same as
+ * extracting one. All arrays are indexed by the position of an element in the
+ * parent graph rather than by its id, so nested partitions of a subgraph are
+ * sized by the subgraph rather than by the capacity of the original graph.
+ * <p>
+ * The link, edge and transaction indices are built the first time any of the
+ * subgraphs asks for them; this may happen on several threads at once.
+ *
+ * @author algol
+ */
+final class SubgraphPartition {
+
+    private static final int NONE = -1;
+
+    private final GraphReadMethods proxy;
+    private final int subgraphCount;
+
+    // The subgraph owning each vertex of the proxy, or NONE.
+    private final int[] vertexOwners;
+    private final int[] vertexPositions;
+    private final int[][] vertexLists;
+
+    private ElementIndex links = null;
+    private ElementIndex edges = null;
+    private ElementIndex transactions = null;
+
+    /**
+     * The elements of one type in each subgraph.
+     *
+     * @param positions The position of each element of the proxy in its
+     * subgraph, by position in the proxy.
+     * @param lists The elements of each subgraph in proxy order.
+     */
+    record ElementIndex(int[] positions, int[][] lists) {
+    }
+
+    private SubgraphPartition(final GraphReadMethods proxy, final int subgraphCount) {
+        this.proxy = proxy;
+        this.subgraphCount = subgraphCount;
+
+        final int vertexCount = proxy.getVertexCount();
+        vertexOwners = new int[vertexCount];
+        vertexPositions = new int[vertexCount];
+        vertexLists = new int[subgraphCount][];
+        Arrays.fill(vertexOwners, NONE);
+    }
+
+    /**
+     * Partition a graph into the subgraphs induced by the given vertex sets.
+     *
+     * @param proxy The graph to partition.
+     * @param vertexSets The vertices of each subgraph.
+     *
+     * @return The partition, or null if the vertex sets are not disjoint.
+     */
+    static SubgraphPartition build(final GraphReadMethods proxy, final List<Set<Integer>> vertexSets) {
+        final SubgraphPartition partition = new SubgraphPartition(proxy, vertexSets.size());
+        for (int s = 0; s < vertexSets.size(); s++) {
+            final int[] vertices = new int[vertexSets.get(s).size()];
+            int pos = 0;
+            for (final int vxId : vertexSets.get(s)) {
+                final int proxyPosition = proxy.getVertexPosition(vxId);
+                if (partition.vertexOwners[proxyPosition] != NONE) {
+                    return null;
+                }
+                partition.vertexOwners[proxyPosition] = s;
+                partition.vertexPositions[proxyPosition] = pos;
+                vertices[pos++] = vxId;
+            }
+            partition.vertexLists[s] = vertices;
+        }
+
+        return partition;
+    }
+
+    int[] getVertexList(final int subgraph) {
+        return vertexLists[subgraph];
+    }
+
+    int getVertexPosition(final int vertex) {
+        return vertexPositions[proxy.getVertexPosition(vertex)];
+    }
+
+    synchronized ElementIndex getLinks() {
+        if (links == null) {
+            links = index(proxy.getLinkCount(), proxy::getLink, proxy::getLinkLowVertex, proxy::getLinkHighVertex);
+        }
+        return links;
+    }
+
+    synchronized ElementIndex getEdges() {
+        if (edges == null) {
+            edges = index(proxy.getEdgeCount(), proxy::getEdge, proxy::getEdgeSourceVertex, proxy::getEdgeDestinationVertex);
+        }
+        return edges;
+    }
+
+    synchronized ElementIndex getTransactions() {
+        if (transactions == null) {
+            transactions = index(proxy.getTransactionCount(), proxy::getTransaction, proxy::getTransactionSourceVertex, proxy::getTransactionDestinationVertex);
+        }
+        return transactions;
+    }
+
+    /**
+     * Assign each element of the proxy whose ends are both in the same subgraph
+     * to that subgraph.
+     */
+    private ElementIndex index(final int count, final IntUnaryOperator element, final IntUnaryOperator end1, final IntUnaryOperator end2) {
+        final int[] owners = new int[count];
+        final int[] positions = new int[count];
+        final int[] sizes = new int[subgraphCount];
+        for (int i = 0; i < count; i++) {
+            final int id = element.applyAsInt(i);
+            final int owner = vertexOwners[proxy.getVertexPosition(end1.applyAsInt(id))];
+            if (owner != NONE && owner == vertexOwners[proxy.getVertexPosition(end2.applyAsInt(id))]) {
+                owners[i] = owner;
+                positions[i] = sizes[owner]++;
+            } else {
+                owners[i] = NONE;
+            }
+        }
+
+        final int[][] lists = new int[subgraphCount][];
+        for (int s = 0; s < subgraphCount; s++) {
+            lists[s] = new int[sizes[s]];
+        }
+        for (int i = 0; i < count; i++) {
+            if (owners[i] != NONE) {
+                lists[owners[i]][positions[i]] = element.applyAsInt(i);
+            }
+        }
+
+        return new ElementIndex(positions, lists);
+    }
+}
@@ -402,4 +402,11 @@ public class BubbleTreeArranger implements Arranger {
     public void setMaintainMean(final boolean b) {
         maintainMean = b;
     }
+
+    @Override
+    public Arranger copy() {
+        final BubbleTreeArranger copy = new BubbleTreeArranger(roots, isMinimal);
+        copy.setMaintainMean(maintainMean);
+        return copy;
+    }
 }
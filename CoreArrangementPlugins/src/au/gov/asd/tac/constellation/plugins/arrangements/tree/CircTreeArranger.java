@@ -69,6 +69,13 @@ public final class CircTreeArranger implements Arranger {
         maintainMean = b;
     }
 
+    @Override
+    public Arranger copy() {
+        final CircTreeArranger copy = new CircTreeArranger(params);
+        copy.setMaintainMean(maintainMean);
+        return copy;
+    }
+
     @Override
     public void arrange(final GraphWriteMethods graph) throws InterruptedException {
         this.graph = graph;
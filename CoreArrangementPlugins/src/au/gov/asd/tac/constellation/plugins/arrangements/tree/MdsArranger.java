@@ -722,4 +722,9 @@ public class MdsArranger implements Arranger {
     public void setMaintainMean(final boolean b) {
         // Required for Arranger, intentionally left blank
     }
+
+    @Override
+    public Arranger copy() {
+        return this;
+    }
 }
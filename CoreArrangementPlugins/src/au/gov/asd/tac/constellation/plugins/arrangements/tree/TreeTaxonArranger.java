@@ -54,6 +54,15 @@ public class TreeTaxonArranger extends GraphTaxonomyArranger {
         this.putSingletonTaxaWithSameNeighborsTogether = putSingletonTaxaWithSameNeighborsTogether;
     }
 
+    @Override
+    public Arranger copy() {
+        final TreeTaxonArranger copy = copyWith(TreeTaxonArranger::new);
+        if (copy != null) {
+            copy.setPutSingletonTaxaWithSameNeighborsTogether(putSingletonTaxaWithSameNeighborsTogether);
+        }
+        return copy;
+    }
+
     @Override
     public GraphTaxonomy getTaxonomy(final GraphWriteMethods graph) {
         final GraphTaxonomy taxByTrees = TaxFromTrees.getTaxonomy(graph, false);
@@ -20,15 +20,11 @@ import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.graph.visual.utilities.LooseOctree;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.BoundingBox2D;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.Orb2D;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d2.QuadTree;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.BoundingBox3D;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.Octree;
-import au.gov.asd.tac.constellation.plugins.arrangements.uncollide.d3.Orb3D;
 import au.gov.asd.tac.constellation.plugins.arrangements.utilities.ArrangementUtilities;
+import au.gov.asd.tac.constellation.utilities.graphics.IntArray;
 
 public class UncollideArrangement implements Arranger {
 
@@ -71,59 +67,37 @@ public class UncollideArrangement implements Arranger {
         final int vxCount = wg.getVertexCount();
 
         if (vxCount > 0) {
-            if (dimensions == 2) {
-                final Orb2D[] orbs = new Orb2D[vxCount];
-                for (int position = 0; position < vxCount; position++) {
-                    final int vxId = wg.getVertex(position);
-
-                    orbs[position] = new Orb2D(wg.getFloatValue(xId, vxId), wg.getFloatValue(yId, vxId), rId != Graph.NOT_FOUND ? wg.getFloatValue(rId, vxId) : 1);
-                }
-
-                uncollide2d(orbs, 2000);
-
-                // Move x,y,z to x2,y2,z2.
-                // Set x,y to uncollided x,y.
-                // Deliberately leave the z value alone: someone may be doing a 2D uncollide on a 3D graph.
-                for (int position = 0; position < vxCount; position++) {
-                    final int vxId = wg.getVertex(position);
+            final float[] xs = new float[vxCount];
+            final float[] ys = new float[vxCount];
+            final float[] zs = new float[vxCount];
+            final float[] rs = new float[vxCount];
+            for (int position = 0; position < vxCount; position++) {
+                final int vxId = wg.getVertex(position);
+
+                xs[position] = wg.getFloatValue(xId, vxId);
+                ys[position] = wg.getFloatValue(yId, vxId);
+                zs[position] = dimensions == 2 ? 0 : wg.getFloatValue(zId, vxId);
+                rs[position] = rId != Graph.NOT_FOUND ? wg.getFloatValue(rId, vxId) : 1;
+            }
 
-                    final Orb2D orb = orbs[position];
+            uncollide(xs, ys, zs, rs, 2000);
 
-                    if (setXyz2) {
-                        wg.setFloatValue(x2Id, vxId, wg.getFloatValue(xId, vxId));
-                        wg.setFloatValue(y2Id, vxId, wg.getFloatValue(yId, vxId));
-                        wg.setFloatValue(z2Id, vxId, wg.getFloatValue(zId, vxId));
-                    }
+            // Move x,y,z to x2,y2,z2.
+            // Set x,y(,z) to uncollided x,y(,z).
+            // Deliberately leave the z value alone in 2D: someone may be doing a 2D uncollide on a 3D graph.
+            for (int position = 0; position < vxCount; position++) {
+                final int vxId = wg.getVertex(position);
 
-                    wg.setFloatValue(xId, vxId, orb.getX());
-                    wg.setFloatValue(yId, vxId, orb.getY());
+                if (setXyz2) {
+                    wg.setFloatValue(x2Id, vxId, wg.getFloatValue(xId, vxId));
+                    wg.setFloatValue(y2Id, vxId, wg.getFloatValue(yId, vxId));
+                    wg.setFloatValue(z2Id, vxId, wg.getFloatValue(zId, vxId));
                 }
-            } else {
-                final Orb3D[] orbs = new Orb3D[vxCount];
-                for (int position = 0; position < vxCount; position++) {
-                    final int vxId = wg.getVertex(position);
-
-                    orbs[position] = new Orb3D(wg.getFloatValue(xId, vxId), wg.getFloatValue(yId, vxId), wg.getFloatValue(zId, vxId), rId != Graph.NOT_FOUND ? wg.getFloatValue(rId, vxId) : 1);
-                }
-
-                uncollide3d(orbs, 2000);
-
-                // Move x,y,z to x2,y2,z2.
-                // Set x,y,z to uncollided x,y,z.
-                for (int position = 0; position < vxCount; position++) {
-                    final int vxId = wg.getVertex(position);
-
-                    final Orb3D orb = orbs[position];
 
-                    if (setXyz2) {
-                        wg.setFloatValue(x2Id, vxId, wg.getFloatValue(xId, vxId));
-                        wg.setFloatValue(y2Id, vxId, wg.getFloatValue(yId, vxId));
-                        wg.setFloatValue(z2Id, vxId, wg.getFloatValue(zId, vxId));
-                    }
-
-                    wg.setFloatValue(xId, vxId, orb.getX());
-                    wg.setFloatValue(yId, vxId, orb.getY());
-                    wg.setFloatValue(zId, vxId, orb.getZ());
+                wg.setFloatValue(xId, vxId, xs[position]);
+                wg.setFloatValue(yId, vxId, ys[position]);
+                if (dimensions != 2) {
+                    wg.setFloatValue(zId, vxId, zs[position]);
                 }
             }
 
@@ -133,61 +107,81 @@ public class UncollideArrangement implements Arranger {
         }
     }
 
-    private void uncollide2d(final Orb2D[] orbs, final int iter) throws InterruptedException {
-        int maxCollided = -1;
-        boolean isEnd = false;
-        for (int i = 0; i < iter && !isEnd; i++) {
-            final BoundingBox2D.Box2D bb = BoundingBox2D.getBox(orbs);
-            final QuadTree qt = new QuadTree(bb);
-            for (final Orb2D orb : orbs) {
-                qt.insert(orb);
-            }
-
-            // Vary the padding to see if we can make things use fewer steps.
-            final float padding = 1;
-
-            int totalCollided = 0;
-            for (final Orb2D orb : orbs) {
-                final int collided = qt.uncollide(orb, Math.max(padding, minPadding));
-                totalCollided += collided;
-            }
-
-            if (interaction != null) {
-                maxCollided = Math.max(maxCollided, totalCollided);
-                final String msg = String.format("2D step %3d; pad %f; collisions %6d of %6d", i, padding, maxCollided - totalCollided, maxCollided);
-                interaction.setProgress(maxCollided - totalCollided, maxCollided, msg, true);
-            }
-
-            isEnd = totalCollided == 0;
-
-            if (Thread.interrupted()) {
-                throw new InterruptedException();
-            }
+    /**
+     * Push overlapping orbs apart until none of them overlap.
+     * <p>
+     * The orbs are indexed once, and the index follows them as they are
+     * nudged, so each step only looks at the orbs near each orb.
+     */
+    private void uncollide(final float[] xs, final float[] ys, final float[] zs, final float[] rs, final int iter) throws InterruptedException {
+        final int orbCount = xs.length;
+        float minX = xs[0];
+        float minY = ys[0];
+        float minZ = zs[0];
+        float maxX = xs[0];
+        float maxY = ys[0];
+        float maxZ = zs[0];
+        for (int orb = 1; orb < orbCount; orb++) {
+            minX = Math.min(minX, xs[orb]);
+            minY = Math.min(minY, ys[orb]);
+            minZ = Math.min(minZ, zs[orb]);
+            maxX = Math.max(maxX, xs[orb]);
+            maxY = Math.max(maxY, ys[orb]);
+            maxZ = Math.max(maxZ, zs[orb]);
         }
-    }
+        final LooseOctree tree = new LooseOctree(orbCount, minX, minY, minZ, maxX, maxY, maxZ);
+        for (int orb = 0; orb < orbCount; orb++) {
+            tree.insert(orb, xs[orb], ys[orb], zs[orb], rs[orb]);
+        }
+
+        // Vary the padding to see if we can make things use fewer steps.
+        final float padding = dimensions == 2 ? Math.max(1, minPadding) : 1;
 
-    private void uncollide3d(final Orb3D[] orbs, final int iter) throws InterruptedException {
+        final IntArray possibles = new IntArray();
         int maxCollided = -1;
         boolean isEnd = false;
         for (int i = 0; i < iter && !isEnd; i++) {
-            final BoundingBox3D.Box3D bb = BoundingBox3D.getBox(orbs);
-            final Octree qt = new Octree(bb);
-            for (final Orb3D orb : orbs) {
-                qt.insert(orb);
-            }
-
-            // Vary the padding to see if we can make things use fewer steps.
-            final float padding = 1;
-
             int totalCollided = 0;
-            for (final Orb3D orb : orbs) {
-                final int collided = qt.uncollide(orb, padding);
-                totalCollided += collided;
+            for (int orb = 0; orb < orbCount; orb++) {
+                possibles.clear();
+                tree.forEachWithin(xs[orb], ys[orb], zs[orb], rs[orb] + padding, possibles::add);
+
+                // We need to deal with pathological cases such as everything at the same x,y point,
+                // or everything co-linear.
+                // We add a perturbation so points go different ways at different stages.
+                float perturbation = 1e-4F;
+                for (int p = 0; p < possibles.size(); p++) {
+                    final int possible = possibles.get(p);
+                    if (orb != possible) {
+                        float x = xs[orb] - xs[possible];
+                        float y = ys[orb] - ys[possible];
+                        float z = zs[orb] - zs[possible];
+                        final double ll = x * x + y * y + z * z;
+                        final double r = rs[possible] + rs[orb] + padding;
+                        if (ll <= r * r) {
+                            final double l = Math.sqrt(ll);
+                            totalCollided++;
+                            final float nudge = l != 0 ? (float) Math.min((l - r) / l * 0.5, -0.1) : -0.1F;
+                            x = x * nudge + perturbation;
+                            y = y * nudge + perturbation;
+                            z = dimensions == 2 ? 0 : z * nudge + perturbation;
+                            perturbation = -perturbation;
+                            xs[orb] -= x;
+                            ys[orb] -= y;
+                            zs[orb] -= z;
+                            xs[possible] += x;
+                            ys[possible] += y;
+                            zs[possible] += z;
+                            tree.move(possible, xs[possible], ys[possible], zs[possible], rs[possible]);
+                        }
+                    }
+                }
+                tree.move(orb, xs[orb], ys[orb], zs[orb], rs[orb]);
             }
 
             if (interaction != null) {
                 maxCollided = Math.max(maxCollided, totalCollided);
-                final String msg = String.format("3D step %3d; pad %f; collisions %6d of %6d", i, padding, maxCollided - totalCollided, maxCollided);
+                final String msg = String.format("%dD step %3d; pad %f; collisions %6d of %6d", dimensions, i, padding, maxCollided - totalCollided, maxCollided);
                 interaction.setProgress(maxCollided - totalCollided, maxCollided, msg, true);
             }
 
@@ -203,4 +197,12 @@ public class UncollideArrangement implements Arranger {
     public void setMaintainMean(final boolean b) {
         maintainMean = b;
     }
+
+    @Override
+    public Arranger copy() {
+        final UncollideArrangement copy = new UncollideArrangement(dimensions, setXyz2);
+        copy.setMinPadding(minPadding);
+        copy.setMaintainMean(maintainMean);
+        return copy;
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.hde;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.arrangements.subgraph.ComponentSubgraph;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * High Dimension Embedding Arranger Test.
+ *
+ * @author algol
+ */
+public class HighDimensionEmbeddingArrangerNGTest {
+
+    /**
+     * On a path the first pivot is the first vertex, and each pivot after it
+     * is the vertex furthest from the pivots before it.
+     */
+    @Test
+    public void testPivotDistancesPath() throws InterruptedException {
+        System.out.println("testPivotDistancesPath");
+        final int n = 9;
+        final int[] offsets = new int[n + 1];
+        final int[] targets = new int[2 * (n - 1)];
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                targets[index++] = i - 1;
+            }
+            if (i < n - 1) {
+                targets[index++] = i + 1;
+            }
+            offsets[i + 1] = index;
+        }
+        final int[] weights = new int[targets.length];
+
+        final int[][] distances = HighDimensionEmbeddingArranger.pivotDistances(new Adjacency(offsets, targets, weights));
+        assertEquals(distances.length, n);
+
+        // the pivots are 0, 8, then 4 as the middle vertex, then 6 as the last of 2 and 6
+        final int[] expectedPivots = {0, 8, 4, 6};
+        for (int m = 0; m < expectedPivots.length; m++) {
+            for (int i = 0; i < n; i++) {
+                assertEquals(distances[m][i], Math.abs(i - expectedPivots[m]));
+            }
+        }
+    }
+
+    /**
+     * Splitting the vertices between partitions, and into blocks, should give
+     * the same covariance as adding up every vertex in turn.
+     */
+    @Test
+    public void testCovariance() {
+        System.out.println("testCovariance");
+        final int pivotCount = 7;
+        final int n = 1000;
+        final Random random = new Random(3);
+        final int[][] distances = new int[pivotCount][n];
+        final double[] mean = new double[pivotCount];
+        for (int m = 0; m < pivotCount; m++) {
+            for (int i = 0; i < n; i++) {
+                distances[m][i] = random.nextInt(20);
+                mean[m] += distances[m][i];
+            }
+            mean[m] /= n;
+        }
+
+        final double[][] single = HighDimensionEmbeddingArranger.covariance(distances, mean, 1);
+        final double[][] partitioned = HighDimensionEmbeddingArranger.covariance(distances, mean, 5);
+        for (int r = 0; r < pivotCount; r++) {
+            for (int c = 0; c < pivotCount; c++) {
+                double expected = 0;
+                for (int i = 0; i < n; i++) {
+                    expected += (distances[r][i] - mean[r]) * (distances[c][i] - mean[c]);
+                }
+                expected /= n;
+                assertEquals(single[r][c], expected, 1E-9);
+                assertEquals(partitioned[r][c], expected, 1E-9);
+            }
+        }
+    }
+
+    /**
+     * Components of the same size but different shapes should each be
+     * arranged by their own links, as if they were graphs of their own.
+     */
+    @Test
+    public void testArrangeComponents() throws InterruptedException {
+        System.out.println("testArrangeComponents");
+        final StoreGraph graph = positionedGraph();
+        final int[] path = addPath(graph);
+        final int[] star = addStar(graph);
+
+        final ComponentSubgraph pathSubgraph = new ComponentSubgraph(graph, toSet(path));
+        final ComponentSubgraph starSubgraph = new ComponentSubgraph(graph, toSet(star));
+        final HighDimensionEmbeddingArranger arranger = new HighDimensionEmbeddingArranger(3);
+        arranger.arrange(pathSubgraph);
+        arranger.arrange(starSubgraph);
+
+        final StoreGraph pathGraph = positionedGraph();
+        final int[] expectedPath = addPath(pathGraph);
+        arranger.arrange(pathGraph);
+        assertPositions(graph, path, pathGraph, expectedPath);
+
+        final StoreGraph starGraph = positionedGraph();
+        final int[] expectedStar = addStar(starGraph);
+        arranger.arrange(starGraph);
+        assertPositions(graph, star, starGraph, expectedStar);
+    }
+
+    private static StoreGraph positionedGraph() {
+        final StoreGraph graph = new StoreGraph();
+        VisualConcept.VertexAttribute.X.ensure(graph);
+        VisualConcept.VertexAttribute.Y.ensure(graph);
+        VisualConcept.VertexAttribute.Z.ensure(graph);
+        return graph;
+    }
+
+    private static int[] addPath(final StoreGraph graph) {
+        final int[] vxIds = new int[5];
+        for (int i = 0; i < vxIds.length; i++) {
+            vxIds[i] = graph.addVertex();
+            if (i > 0) {
+                graph.addTransaction(vxIds[i - 1], vxIds[i], false);
+            }
+        }
+        return vxIds;
+    }
+
+    private static int[] addStar(final StoreGraph graph) {
+        final int[] vxIds = new int[5];
+        for (int i = 0; i < vxIds.length; i++) {
+            vxIds[i] = graph.addVertex();
+            if (i > 0) {
+                graph.addTransaction(vxIds[0], vxIds[i], false);
+            }
+        }
+        return vxIds;
+    }
+
+    private static Set<Integer> toSet(final int[] vxIds) {
+        final Set<Integer> set = new HashSet<>();
+        for (final int vxId : vxIds) {
+            set.add(vxId);
+        }
+        return set;
+    }
+
+    private static void assertPositions(final StoreGraph graph, final int[] vxIds, final StoreGraph expectedGraph, final int[] expectedVxIds) {
+        final SchemaAttribute[] attributes = {VisualConcept.VertexAttribute.X, VisualConcept.VertexAttribute.Y, VisualConcept.VertexAttribute.Z};
+        for (final SchemaAttribute attribute : attributes) {
+            final int attr = attribute.get(graph);
+            final int expectedAttr = attribute.get(expectedGraph);
+            for (int i = 0; i < vxIds.length; i++) {
+                assertEquals(graph.getFloatValue(attr, vxIds[i]), expectedGraph.getFloatValue(expectedAttr, expectedVxIds[i]), 1E-4F);
+            }
+        }
+    }
+}
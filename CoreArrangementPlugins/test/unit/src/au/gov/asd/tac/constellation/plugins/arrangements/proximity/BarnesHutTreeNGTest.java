@@ -0,0 +1,138 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.proximity;
+
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Barnes Hut Tree Test.
+ *
+ * @author algol
+ */
+public class BarnesHutTreeNGTest {
+
+    private static final int BODY_COUNT = 500;
+    private static final double K2 = 4;
+
+    /**
+     * A theta of 0 opens every cell, so the 2D tree should give the same
+     * repulsion as comparing every pair of bodies.
+     */
+    @Test
+    public void testRepulseExact2D() {
+        System.out.println("testRepulseExact2D");
+        assertRepulsion(2, 0, 0.0001);
+    }
+
+    /**
+     * A theta of 0 opens every cell, so the 3D tree should give the same
+     * repulsion as comparing every pair of bodies.
+     */
+    @Test
+    public void testRepulseExact3D() {
+        System.out.println("testRepulseExact3D");
+        assertRepulsion(3, 0, 0.0001);
+    }
+
+    /**
+     * The default theta should approximate the exact repulsion.
+     */
+    @Test
+    public void testRepulseApproximate() {
+        System.out.println("testRepulseApproximate");
+        assertRepulsion(2, FR2DArranger.DEFAULT_THETA, 0.1);
+        assertRepulsion(3, FR3DArranger.DEFAULT_THETA, 0.1);
+    }
+
+    /**
+     * Coincident bodies should not repulse themselves or produce infinite
+     * forces.
+     */
+    @Test
+    public void testRepulseCoincident() {
+        System.out.println("testRepulseCoincident");
+        final float[] x = {1, 1, 1, 5};
+        final float[] y = {1, 1, 1, 5};
+        final float[] z = {1, 1, 1, 5};
+        final float[] offsetX = new float[4];
+        final float[] offsetY = new float[4];
+        final float[] offsetZ = new float[4];
+
+        final BarnesHutTree tree = new BarnesHutTree(3, 4);
+        tree.build(x, y, z, 4);
+        for (int b = 0; b < 4; b++) {
+            tree.repulse(b, 0, K2, offsetX, offsetY, offsetZ);
+            assertTrue(Float.isFinite(offsetX[b]));
+            assertTrue(Float.isFinite(offsetY[b]));
+            assertTrue(Float.isFinite(offsetZ[b]));
+        }
+        assertTrue(offsetX[3] > 0);
+        assertEquals(offsetX[3], offsetY[3], 0.0001);
+        assertEquals(offsetX[3], offsetZ[3], 0.0001);
+    }
+
+    private static void assertRepulsion(final int dimensions, final double theta, final double tolerance) {
+        final Random random = new Random(42);
+        final float[] x = new float[BODY_COUNT];
+        final float[] y = new float[BODY_COUNT];
+        final float[] z = new float[BODY_COUNT];
+        for (int b = 0; b < BODY_COUNT; b++) {
+            x[b] = random.nextFloat() * 100;
+            y[b] = random.nextFloat() * 100;
+            z[b] = dimensions == 3 ? random.nextFloat() * 100 : 0;
+        }
+
+        final float[] offsetX = new float[BODY_COUNT];
+        final float[] offsetY = new float[BODY_COUNT];
+        final float[] offsetZ = new float[BODY_COUNT];
+        final BarnesHutTree tree = new BarnesHutTree(dimensions, BODY_COUNT);
+        tree.build(x, y, z, BODY_COUNT);
+
+        // Individual forces can nearly cancel out, so compare the total error
+        // against the total force.
+        double totalError = 0;
+        double totalForce = 0;
+        for (int b = 0; b < BODY_COUNT; b++) {
+            tree.repulse(b, theta, K2, offsetX, offsetY, offsetZ);
+
+            double fx = 0;
+            double fy = 0;
+            double fz = 0;
+            for (int other = 0; other < BODY_COUNT; other++) {
+                if (other != b) {
+                    final double xDelta = x[b] - x[other];
+                    final double yDelta = y[b] - y[other];
+                    final double zDelta = z[b] - z[other];
+                    final double lenDelta = Math.sqrt(xDelta * xDelta + yDelta * yDelta + zDelta * zDelta);
+                    final double force = K2 / lenDelta;
+                    fx += (xDelta / lenDelta) * force;
+                    fy += (yDelta / lenDelta) * force;
+                    fz += (zDelta / lenDelta) * force;
+                }
+            }
+
+            final double errorX = offsetX[b] - fx;
+            final double errorY = offsetY[b] - fy;
+            final double errorZ = dimensions == 3 ? offsetZ[b] - fz : 0;
+            totalError += Math.sqrt(errorX * errorX + errorY * errorY + errorZ * errorZ);
+            totalForce += Math.sqrt(fx * fx + fy * fy + fz * fz);
+        }
+        assertTrue(totalError <= tolerance * totalForce, "Total error " + totalError + " exceeds tolerance of total force " + totalForce);
+    }
+}
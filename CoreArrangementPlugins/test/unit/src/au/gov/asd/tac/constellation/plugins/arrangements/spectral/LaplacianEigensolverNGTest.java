@@ -0,0 +1,145 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.spectral;
+
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * Laplacian Eigensolver Test.
+ *
+ * @author algol
+ */
+public class LaplacianEigensolverNGTest {
+
+    /**
+     * The eigenvalues of the Laplacian of a path of n vertices are 2 - 2
+     * cos(k pi / n), for k from 0 to n - 1.
+     */
+    @Test
+    public void testSolvePath() throws InterruptedException {
+        System.out.println("testSolvePath");
+        final int n = 40;
+        final List<Set<Integer>> neighbours = emptyNeighbours(n);
+        for (int i = 1; i < n; i++) {
+            link(neighbours, i - 1, i);
+        }
+        final LaplacianEigensolver instance = new LaplacianEigensolver(toAdjacency(neighbours));
+        assertEquals(instance.getComponentCount(), 1);
+
+        final LaplacianEigensolver.Eigenpairs sparse = instance.solve(2);
+        final LaplacianEigensolver.Eigenpairs dense = instance.solveDense(2);
+        for (int k = 1; k <= 2; k++) {
+            final double expected = 2 - 2 * Math.cos(k * Math.PI / n);
+            assertEquals(sparse.values()[k - 1], expected, 1E-8);
+            assertEquals(dense.values()[k - 1], expected, 1E-8);
+        }
+    }
+
+    /**
+     * The sparse solver should find the same eigenvectors as a full eigen
+     * decomposition, skipping the zero eigenvalue of each component.
+     */
+    @Test
+    public void testSolveMatchesDense() throws InterruptedException {
+        System.out.println("testSolveMatchesDense");
+        final int n = 150;
+        final int componentCount = 3;
+        final Random random = new Random(7);
+        final List<Set<Integer>> neighbours = emptyNeighbours(n);
+        for (int i = componentCount; i < n; i++) {
+            // vertices with the same remainder are in the same component
+            link(neighbours, i - componentCount, i);
+            for (int j = 0; j < 2; j++) {
+                final int other = random.nextInt(n / componentCount) * componentCount + i % componentCount;
+                if (other != i) {
+                    link(neighbours, i, other);
+                }
+            }
+        }
+        final LaplacianEigensolver instance = new LaplacianEigensolver(toAdjacency(neighbours));
+        assertEquals(instance.getComponentCount(), componentCount);
+
+        final LaplacianEigensolver.Eigenpairs sparse = instance.solve(2);
+        final LaplacianEigensolver.Eigenpairs dense = instance.solveDense(2);
+        assertEquals(sparse.values().length, 2);
+        for (int k = 0; k < 2; k++) {
+            assertEquals(sparse.values()[k], dense.values()[k], 1E-6);
+            double cosine = 0;
+            for (int i = 0; i < n; i++) {
+                cosine += sparse.vectors()[k][i] * dense.vectors()[k][i];
+            }
+            // both are oriented with their largest entry positive
+            assertEquals(cosine, 1, 1E-6);
+        }
+    }
+
+    /**
+     * A triangle has only two non-zero eigenvalues, both 3.
+     */
+    @Test
+    public void testSolveFewerEigenvalues() throws InterruptedException {
+        System.out.println("testSolveFewerEigenvalues");
+        final List<Set<Integer>> neighbours = emptyNeighbours(3);
+        link(neighbours, 0, 1);
+        link(neighbours, 1, 2);
+        link(neighbours, 2, 0);
+        final LaplacianEigensolver instance = new LaplacianEigensolver(toAdjacency(neighbours));
+
+        final LaplacianEigensolver.Eigenpairs sparse = instance.solve(3);
+        assertEquals(sparse.values().length, 2);
+        assertEquals(sparse.values()[0], 3, 1E-8);
+        assertEquals(sparse.values()[1], 3, 1E-8);
+        assertEquals(instance.solveDense(3).values().length, 2);
+    }
+
+    private static List<Set<Integer>> emptyNeighbours(final int n) {
+        final List<Set<Integer>> neighbours = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            neighbours.add(new TreeSet<>());
+        }
+        return neighbours;
+    }
+
+    private static void link(final List<Set<Integer>> neighbours, final int a, final int b) {
+        neighbours.get(a).add(b);
+        neighbours.get(b).add(a);
+    }
+
+    private static Adjacency toAdjacency(final List<Set<Integer>> neighbours) {
+        final int n = neighbours.size();
+        final int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + neighbours.get(i).size();
+        }
+        final int[] targets = new int[offsets[n]];
+        final int[] weights = new int[offsets[n]];
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            for (final int neighbour : neighbours.get(i)) {
+                targets[index] = neighbour;
+                weights[index++] = 1;
+            }
+        }
+        return new Adjacency(offsets, targets, weights);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.arrangements.subgraph;
+
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.attribute.SchemaAttribute;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.arrangements.AbstractInclusionGraph.Connections;
+import au.gov.asd.tac.constellation.plugins.arrangements.Arranger;
+import au.gov.asd.tac.constellation.plugins.arrangements.GraphComponentArranger;
+import au.gov.asd.tac.constellation.plugins.arrangements.grid.GridArranger;
+import java.util.List;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Component Subgraph Test.
+ *
+ * @author algol
+ */
+public class ComponentSubgraphNGTest {
+
+    private StoreGraph graph;
+    private int xAttr;
+    private int selectedAttr;
+    private int[] vxIds;
+
+    /**
+     * A triangle of vertices 0, 1 and 2, a pair of vertices 3 and 4 with two
+     * transactions between them, and an isolated vertex 5.
+     */
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+        xAttr = VisualConcept.VertexAttribute.X.ensure(graph);
+        VisualConcept.VertexAttribute.Y.ensure(graph);
+        VisualConcept.VertexAttribute.Z.ensure(graph);
+        selectedAttr = VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+
+        vxIds = new int[6];
+        for (int i = 0; i < vxIds.length; i++) {
+            vxIds[i] = graph.addVertex();
+            graph.setFloatValue(xAttr, vxIds[i], i);
+        }
+        graph.addTransaction(vxIds[0], vxIds[1], true);
+        graph.addTransaction(vxIds[1], vxIds[2], true);
+        graph.addTransaction(vxIds[2], vxIds[0], true);
+        graph.addTransaction(vxIds[3], vxIds[4], true);
+        graph.addTransaction(vxIds[4], vxIds[3], true);
+    }
+
+    /**
+     * Subgraphs constructed together should contain the same elements as
+     * subgraphs constructed one at a time.
+     */
+    @Test
+    public void testConstructSubgraphs() {
+        System.out.println("testConstructSubgraphs");
+        final List<Set<Integer>> vertexSets = List.of(
+                Set.of(vxIds[0], vxIds[1], vxIds[2]),
+                Set.of(vxIds[3], vxIds[4]),
+                Set.of(vxIds[5]));
+        final List<ComponentSubgraph> subgraphs = ComponentSubgraph.getSubgraphFactory().constructSubgraphs(graph, vertexSets);
+        assertEquals(subgraphs.size(), 3);
+
+        final int[] linkCounts = {3, 1, 0};
+        final int[] edgeCounts = {3, 2, 0};
+        final int[] transactionCounts = {3, 2, 0};
+        for (int s = 0; s < subgraphs.size(); s++) {
+            final ComponentSubgraph subgraph = subgraphs.get(s);
+            final ComponentSubgraph single = new ComponentSubgraph(graph, vertexSets.get(s));
+            assertEquals(subgraph.getVertexCount(), vertexSets.get(s).size());
+            assertEquals(subgraph.getLinkCount(), linkCounts[s]);
+            assertEquals(subgraph.getEdgeCount(), edgeCounts[s]);
+            assertEquals(subgraph.getTransactionCount(), transactionCounts[s]);
+            assertEquals(single.getTransactionCount(), transactionCounts[s]);
+            for (int position = 0; position < subgraph.getVertexCount(); position++) {
+                assertEquals(subgraph.getVertexPosition(subgraph.getVertex(position)), position);
+            }
+            for (int position = 0; position < subgraph.getLinkCount(); position++) {
+                assertEquals(subgraph.getLinkPosition(subgraph.getLink(position)), position);
+                assertEquals(subgraph.getLink(position), single.getLink(position));
+            }
+            for (int position = 0; position < subgraph.getTransactionCount(); position++) {
+                assertEquals(subgraph.getTransactionPosition(subgraph.getTransaction(position)), position);
+            }
+        }
+    }
+
+    /**
+     * Overlapping vertex sets can't share an index, but should still be
+     * constructed.
+     */
+    @Test
+    public void testConstructOverlappingSubgraphs() {
+        System.out.println("testConstructOverlappingSubgraphs");
+        final List<Set<Integer>> vertexSets = List.of(
+                Set.of(vxIds[0], vxIds[1]),
+                Set.of(vxIds[1], vxIds[2]));
+        final List<ComponentSubgraph> subgraphs = InducedSubgraph.getSubgraphFactory().constructSubgraphs(graph, vertexSets);
+        assertEquals(subgraphs.get(0).getLinkCount(), 1);
+        assertEquals(subgraphs.get(1).getLinkCount(), 1);
+        assertEquals(subgraphs.get(1).getVertexNeighbourCount(vxIds[1]), 1);
+        assertEquals(subgraphs.get(1).getVertexNeighbour(vxIds[1], 0), vxIds[2]);
+    }
+
+    /**
+     * Buffered positions should only reach the graph when they are written.
+     */
+    @Test
+    public void testBufferPositions() {
+        System.out.println("testBufferPositions");
+        final ComponentSubgraph subgraph = new ComponentSubgraph(graph, Set.of(vxIds[3], vxIds[4]));
+        subgraph.bufferPositions();
+        assertEquals(subgraph.getFloatValue(xAttr, vxIds[4]), 4F);
+
+        subgraph.setFloatValue(xAttr, vxIds[4], 10F);
+        subgraph.setDoubleValue(xAttr, vxIds[3], 9.0);
+        assertEquals(subgraph.getFloatValue(xAttr, vxIds[4]), 10F);
+        assertEquals(subgraph.<Float>getObjectValue(xAttr, vxIds[3]), 9F);
+        assertEquals(graph.getFloatValue(xAttr, vxIds[4]), 4F);
+
+        subgraph.writePositions();
+        assertEquals(graph.getFloatValue(xAttr, vxIds[3]), 9F);
+        assertEquals(graph.getFloatValue(xAttr, vxIds[4]), 10F);
+        assertEquals(graph.getFloatValue(xAttr, vxIds[5]), 5F);
+    }
+
+    /**
+     * Only the vertex positions may change while they are buffered.
+     */
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testBufferingRejectsOtherChanges() {
+        System.out.println("testBufferingRejectsOtherChanges");
+        final ComponentSubgraph subgraph = new ComponentSubgraph(graph, Set.of(vxIds[5]));
+        subgraph.bufferPositions();
+        subgraph.setBooleanValue(selectedAttr, vxIds[5], true);
+    }
+
+    /**
+     * Arranging components concurrently should give the same positions as
+     * arranging them one at a time.
+     */
+    @Test
+    public void testConcurrentArrangement() throws InterruptedException {
+        System.out.println("testConcurrentArrangement");
+        final StoreGraph sequential = new StoreGraph(graph);
+
+        new GraphComponentArranger(new GridArranger(), new GridArranger(), Connections.LINKS).arrange(graph);
+
+        // An arranger that can't be copied is always run on the calling thread.
+        final Arranger grid = new GridArranger();
+        final Arranger uncopyable = new Arranger() {
+            @Override
+            public void arrange(final GraphWriteMethods wg) throws InterruptedException {
+                grid.arrange(wg);
+            }
+
+            @Override
+            public void setMaintainMean(final boolean b) {
+                grid.setMaintainMean(b);
+            }
+        };
+        new GraphComponentArranger(uncopyable, new GridArranger(), Connections.LINKS).arrange(sequential);
+
+        for (final int vxId : vxIds) {
+            for (final SchemaAttribute attribute : List.of(VisualConcept.VertexAttribute.X, VisualConcept.VertexAttribute.Y, VisualConcept.VertexAttribute.Z)) {
+                assertEquals(graph.getFloatValue(attribute.get(graph), vxId), sequential.getFloatValue(attribute.get(sequential), vxId));
+            }
+        }
+    }
+}
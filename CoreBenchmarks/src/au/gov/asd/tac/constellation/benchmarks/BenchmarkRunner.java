@@ -0,0 +1,62 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks in this module and writes the results as JSON so
+ * that runs can be compared by other tools.
+ * <p>
+ * This is run by the {@code benchmark} target of this module's build script.
+ * The first argument is a regular expression selecting the benchmarks to run,
+ * and the second is the file to write the results to. Any further arguments
+ * override benchmark parameters and have the form
+ * {@code name=value1,value2}, for example {@code vertices=100000}.
+ *
+ * @author algol
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = ".*";
+    private static final String DEFAULT_RESULTS = "benchmark-results.json";
+
+    private BenchmarkRunner() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+        final String results = args.length > 1 ? args[1] : DEFAULT_RESULTS;
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + ".*" + include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results);
+        for (int i = 2; i < args.length; i++) {
+            final int equals = args[i].indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected a parameter of the form name=value1,value2 but found " + args[i]);
+            }
+            options.param(args[i].substring(0, equals), args[i].substring(equals + 1).split(","));
+        }
+        new Runner(options.build()).run();
+    }
+}
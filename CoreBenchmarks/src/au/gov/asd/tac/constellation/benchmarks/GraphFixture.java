@@ -0,0 +1,100 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.analytic.AnalyticSchemaFactory;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import au.gov.asd.tac.constellation.plugins.PluginExecution;
+import au.gov.asd.tac.constellation.plugins.parameters.types.MultiChoiceParameterType.MultiChoiceParameterValue;
+import au.gov.asd.tac.constellation.testing.construction.PreferentialAttachmentGraphBuilderPlugin;
+import au.gov.asd.tac.constellation.testing.construction.SmallWorldGraphBuilderPlugin;
+import java.util.List;
+
+/**
+ * The graphs that the benchmarks run against, built with the graph builders
+ * from Core Testing.
+ * <p>
+ * The graphs use the analytic schema, so vertices and transactions have the
+ * usual attributes and primary keys. The builders use their own random number
+ * generators, so the graphs differ from run to run but have the same shape for
+ * the same number of vertices.
+ *
+ * @author algol
+ */
+public enum GraphFixture {
+
+    /**
+     * A scale free graph where each new vertex is attached to two existing
+     * vertices, chosen with probability proportional to their degree.
+     */
+    PREFERENTIAL_ATTACHMENT {
+        @Override
+        protected void build(final StoreGraph graph, final int vertices, final MultiChoiceParameterValue types) throws InterruptedException, PluginException {
+            PluginExecution.withPlugin(new PreferentialAttachmentGraphBuilderPlugin())
+                    .withParameter(PreferentialAttachmentGraphBuilderPlugin.N_PARAMETER_ID, vertices)
+                    .withParameter(PreferentialAttachmentGraphBuilderPlugin.M_PARAMETER_ID, 2)
+                    .withParameter(PreferentialAttachmentGraphBuilderPlugin.RANDOM_WEIGHTS_PARAMETER_ID, false)
+                    .withParameter(PreferentialAttachmentGraphBuilderPlugin.NODE_TYPES_PARAMETER_ID, types)
+                    .withParameter(PreferentialAttachmentGraphBuilderPlugin.TRANSACTION_TYPES_PARAMETER_ID, types)
+                    .executeNow(graph);
+        }
+    },
+    /**
+     * A ring lattice where each vertex is attached to its four nearest
+     * neighbours, with a tenth of the edges rewired at random.
+     */
+    SMALL_WORLD {
+        @Override
+        protected void build(final StoreGraph graph, final int vertices, final MultiChoiceParameterValue types) throws InterruptedException, PluginException {
+            PluginExecution.withPlugin(new SmallWorldGraphBuilderPlugin())
+                    .withParameter(SmallWorldGraphBuilderPlugin.N_PARAMETER_ID, vertices)
+                    .withParameter(SmallWorldGraphBuilderPlugin.K_PARAMETER_ID, 4)
+                    .withParameter(SmallWorldGraphBuilderPlugin.P_PARAMETER_ID, 0.1F)
+                    .withParameter(SmallWorldGraphBuilderPlugin.BUILD_MODE_PARAMETER_ID, "Default")
+                    .withParameter(SmallWorldGraphBuilderPlugin.RANDOM_WEIGHTS_PARAMETER_ID, false)
+                    .withParameter(SmallWorldGraphBuilderPlugin.NODE_TYPES_PARAMETER_ID, types)
+                    .withParameter(SmallWorldGraphBuilderPlugin.TRANSACTION_TYPES_PARAMETER_ID, types)
+                    .executeNow(graph);
+        }
+    };
+
+    private static final List<String> TYPES = List.of("Unknown");
+
+    protected abstract void build(final StoreGraph graph, final int vertices, final MultiChoiceParameterValue types) throws InterruptedException, PluginException;
+
+    /**
+     * Create a new graph with the specified number of vertices.
+     *
+     * @param vertices the number of vertices in the graph.
+     * @return a new graph.
+     * @throws InterruptedException if the builder is interrupted.
+     * @throws PluginException if the builder fails.
+     */
+    public StoreGraph create(final int vertices) throws InterruptedException, PluginException {
+        final Schema schema = SchemaFactoryUtilities.getSchemaFactory(AnalyticSchemaFactory.ANALYTIC_SCHEMA_ID).createSchema();
+        final StoreGraph graph = new StoreGraph(schema);
+        schema.newGraph(graph);
+
+        final MultiChoiceParameterValue types = new MultiChoiceParameterValue();
+        types.setChoices(TYPES);
+        build(graph, vertices, types);
+        graph.validateKeys();
+        return graph;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.algorithms;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import au.gov.asd.tac.constellation.plugins.PluginExecution;
+import au.gov.asd.tac.constellation.plugins.algorithms.Adjacency;
+import au.gov.asd.tac.constellation.plugins.algorithms.AdjacencySnapshot;
+import au.gov.asd.tac.constellation.plugins.algorithms.AlgorithmPluginRegistry;
+import au.gov.asd.tac.constellation.plugins.algorithms.ShortestPathSearch;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ShortestPathSearch} from a single source, on one thread and
+ * with delta stepping, with and without lengths, as well as searches from many
+ * sources and the paths between selected vertices found by the Shortest Paths
+ * and Directed Shortest Paths plugins.
+ * <p>
+ * Both fixtures have about two transactions for each vertex, so the default
+ * of 500,000 vertices gives graphs of about a million transactions.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShortestPathsBenchmark {
+
+    private static final int SELECTED_VERTICES = 8;
+
+    @Param({"PREFERENTIAL_ATTACHMENT", "SMALL_WORLD"})
+    private GraphFixture fixture;
+
+    @Param({"500000"})
+    private int vertices;
+
+    private StoreGraph graph;
+    private Adjacency adjacency;
+    private double[] lengths;
+    private int[] sources;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException {
+        graph = fixture.create(vertices);
+        adjacency = AdjacencySnapshot.getAdjacency(graph, true, true, true);
+
+        final Random random = new Random(0);
+        lengths = new double[adjacency.targets().length];
+        for (int entry = 0; entry < lengths.length; entry++) {
+            lengths[entry] = 1 + random.nextInt(100);
+        }
+
+        sources = new int[64];
+        for (int index = 0; index < sources.length; index++) {
+            sources[index] = random.nextInt(graph.getVertexCount());
+        }
+    }
+
+    private double[] search(final double[] entryLengths, final boolean parallel) throws InterruptedException {
+        final ShortestPathSearch search = new ShortestPathSearch(adjacency, entryLengths);
+        search.setParallel(parallel);
+        return search.getDistances(sources[0], null);
+    }
+
+    @Benchmark
+    public double[] breadthFirst() throws InterruptedException {
+        return search(null, false);
+    }
+
+    @Benchmark
+    public double[] breadthFirstDeltaStepping() throws InterruptedException {
+        return search(null, true);
+    }
+
+    @Benchmark
+    public double[] dijkstra() throws InterruptedException {
+        return search(lengths, false);
+    }
+
+    @Benchmark
+    public double[] dijkstraDeltaStepping() throws InterruptedException {
+        return search(lengths, true);
+    }
+
+    @Benchmark
+    public double manySources() throws InterruptedException {
+        final DoubleAdder total = new DoubleAdder();
+        new ShortestPathSearch(adjacency, null).forEachSource(sources, null, (source, distances, reached, reachedCount) -> {
+            for (int index = 0; index < reachedCount; index++) {
+                total.add(distances[reached[index]]);
+            }
+        });
+        return total.sum();
+    }
+
+    /**
+     * Select the first few sources, and only them, and run the given plugin to
+     * select the paths between them. The plugins select the paths they find,
+     * so the selection is reset every time.
+     */
+    private StoreGraph selectPaths(final String pluginName) throws InterruptedException, PluginException {
+        final int selectedAttribute = VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+        final int vxCount = graph.getVertexCount();
+        for (int position = 0; position < vxCount; position++) {
+            graph.setBooleanValue(selectedAttribute, graph.getVertex(position), false);
+        }
+        for (int index = 0; index < SELECTED_VERTICES; index++) {
+            graph.setBooleanValue(selectedAttribute, graph.getVertex(sources[index]), true);
+        }
+
+        PluginExecution.withPlugin(pluginName).executeNow(graph);
+        return graph;
+    }
+
+    @Benchmark
+    public StoreGraph selectShortestPaths() throws InterruptedException, PluginException {
+        return selectPaths(AlgorithmPluginRegistry.SHORTEST_PATHS);
+    }
+
+    @Benchmark
+    public StoreGraph selectDirectedShortestPaths() throws InterruptedException, PluginException {
+        return selectPaths(AlgorithmPluginRegistry.DIRECTED_SHORTEST_PATHS);
+    }
+}
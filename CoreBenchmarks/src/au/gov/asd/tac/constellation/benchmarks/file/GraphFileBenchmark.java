@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.file;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonWriter;
+import au.gov.asd.tac.constellation.graph.file.io.GraphParseException;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import au.gov.asd.tac.constellation.utilities.gui.TextIoProgress;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing a graph in the .star format with {@link GraphJsonWriter}
+ * and reading it back with {@link GraphJsonReader}.
+ * <p>
+ * The graph is written to and read from memory so that the results don't
+ * depend on the disk.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphFileBenchmark {
+
+    @Param({"PREFERENTIAL_ATTACHMENT", "SMALL_WORLD"})
+    private GraphFixture fixture;
+
+    @Param({"10000", "100000"})
+    private int vertices;
+
+    private StoreGraph graph;
+    private byte[] file;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException, IOException {
+        graph = fixture.create(vertices);
+        file = write().toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream write() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(file == null ? 1 << 20 : file.length);
+        new GraphJsonWriter().writeGraphToZip(graph, out, new TextIoProgress(false));
+        return out;
+    }
+
+    @Benchmark
+    public Graph read() throws IOException, GraphParseException {
+        return new GraphJsonReader().readGraphZip("benchmark", new ByteArrayInputStream(file), new TextIoProgress(false));
+    }
+}
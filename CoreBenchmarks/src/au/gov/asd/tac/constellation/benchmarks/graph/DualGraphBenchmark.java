@@ -0,0 +1,111 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.locking.CommitMode;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the read and write cycles of a {@link DualGraph}, and in particular
+ * how the time taken to commit an edit that sets attribute values grows with
+ * the size of the edit and of the graph in each {@link CommitMode}.
+ * <p>
+ * The fixtures with a million vertices take a while to build, so select
+ * smaller ones with {@code -p vertices=100000} when only the trend is needed.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DualGraphBenchmark {
+
+    @Param({"PREFERENTIAL_ATTACHMENT"})
+    private GraphFixture fixture;
+
+    @Param({"100000", "1000000"})
+    private int vertices;
+
+    @Param({"1", "1000", "100000"})
+    private int editSize;
+
+    @Param({"REPLAY", "ADAPTIVE"})
+    private CommitMode commitMode;
+
+    private DualGraph graph;
+    private int xAttribute;
+    private int[] vxIds;
+    private int next;
+    private float value;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException {
+        final StoreGraph storeGraph = fixture.create(vertices);
+        xAttribute = VisualConcept.VertexAttribute.X.get(storeGraph);
+        vxIds = new int[storeGraph.getVertexCount()];
+        for (int position = 0; position < vxIds.length; position++) {
+            vxIds[position] = storeGraph.getVertex(position);
+        }
+
+        graph = new DualGraph(storeGraph.getSchema(), storeGraph);
+        graph.setCommitMode(commitMode);
+    }
+
+    @Benchmark
+    public float readLock() {
+        final ReadableGraph rg = graph.getReadableGraph();
+        try {
+            return rg.getFloatValue(xAttribute, vxIds[0]);
+        } finally {
+            rg.release();
+        }
+    }
+
+    @Benchmark
+    public void commitValues() throws InterruptedException {
+        final WritableGraph wg = graph.getWritableGraph("Benchmark", true);
+        try {
+            value++;
+            for (int i = 0; i < editSize; i++) {
+                wg.setFloatValue(xAttribute, vxIds[next], value);
+                next = (next + 1) % vxIds.length;
+            }
+        } finally {
+            wg.commit();
+        }
+    }
+}
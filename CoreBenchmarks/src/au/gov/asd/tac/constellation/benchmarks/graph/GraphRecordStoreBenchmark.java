@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures copying a graph into a record store with
+ * {@link GraphRecordStoreUtilities#getAll} and adding that record store to a
+ * new graph with {@link GraphRecordStoreUtilities#addRecordStoreToGraph}, as
+ * happens when data is copied between graphs or imported.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphRecordStoreBenchmark {
+
+    @Param({"PREFERENTIAL_ATTACHMENT", "SMALL_WORLD"})
+    private GraphFixture fixture;
+
+    @Param({"10000", "100000"})
+    private int vertices;
+
+    private StoreGraph graph;
+    private GraphRecordStore recordStore;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException {
+        graph = fixture.create(vertices);
+        recordStore = getAll();
+    }
+
+    @Benchmark
+    public GraphRecordStore getAll() {
+        return GraphRecordStoreUtilities.getAll(graph, false, true);
+    }
+
+    @Benchmark
+    public StoreGraph addRecordStoreToGraph() {
+        final Schema schema = graph.getSchema().getFactory().createSchema();
+        final StoreGraph added = new StoreGraph(schema);
+        schema.newGraph(added);
+        GraphRecordStoreUtilities.addRecordStoreToGraph(added, recordStore, false, false, null);
+        added.validateKeys();
+        return added;
+    }
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
+import au.gov.asd.tac.constellation.graph.processing.RecordStore;
+import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionType;
+import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionTypeUtilities;
+import au.gov.asd.tac.constellation.graph.schema.type.SchemaVertexTypeUtilities;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The map based implementation of
+ * {@link GraphRecordStoreUtilities#addRecordStoreToGraph} that collected the
+ * values of each record into new maps, kept as the baseline for
+ * {@link RecordStoreIngestBenchmark}.
+ *
+ * @author algol
+ */
+final class LegacyRecordStoreIngest {
+
+    private LegacyRecordStoreIngest() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    private static final int NO_ELEMENT = -1;
+    private static final String TYPE_KEY = "Type<string>";
+
+    private static final String ID = GraphRecordStoreUtilities.ID;
+    private static final String GHOST = GraphRecordStoreUtilities.GHOST;
+    private static final String DIRECTED_KEY = GraphRecordStoreUtilities.DIRECTED_KEY;
+    private static final String COMPLETE_WITH_SCHEMA_KEY = GraphRecordStoreUtilities.COMPLETE_WITH_SCHEMA_KEY;
+    private static final String DELETE_KEY = GraphRecordStoreUtilities.DELETE_KEY;
+
+    private static final Charset UTF8 = StandardCharsets.UTF_8;
+
+    private static final Logger LOGGER = Logger.getLogger(LegacyRecordStoreIngest.class.getName());
+
+    private static final List<String> LabelTypes = Arrays.asList(
+            "source.Identifier",
+            "source.Label",
+            "destination.Identifier",
+            "destination.Label",
+            "source.Type",
+            "destination.Type"
+    );
+    private static final List<String> ApprovedTypes = SchemaVertexTypeUtilities.getTypes().stream().map(i -> i.getName()).collect(Collectors.toList());
+
+    private static int addVertex(final GraphWriteMethods graph, final Map<String, String> values,
+            final Map<String, Integer> vertexMap, final boolean initializeWithSchema, boolean completeWithSchema,
+            final List<Integer> newVertices, final Set<Integer> ghostVertices, final List<String> vertexIdAttributes) {
+        String idValue = values.remove(ID);
+
+        // If the idValue has not been set and we have vertexIdAttributes then create an idValue automatically
+        if (idValue == null && vertexIdAttributes != null) {
+            final StringBuilder idBuilder = new StringBuilder();
+            String delimiter = "";
+
+            // If the vertexIdAttributes is not null but empty then use all attributes of the vertex
+            if (vertexIdAttributes.isEmpty()) {
+                for (final Entry<String, String> e : values.entrySet()) {
+                    idBuilder.append(delimiter).append(e.getKey()).append("=");
+                    if (e.getValue() != null) {
+                        for (final byte b : e.getValue().getBytes(UTF8)) {
+                            int i = b;
+                            if (i < 0) {
+                                i += 256;
+                            }
+                            if (i < 16) {
+                                idBuilder.append('0');
+                            }
+                            idBuilder.append(Integer.toHexString(i));
+                        }
+                        delimiter = ",";
+                    }
+                }
+            } else { // Otherwise use the specified attributes to create the idValue
+                for (final String attribute : vertexIdAttributes) {
+                    final String value = values.get(attribute);
+                    if (value != null) {
+                        idBuilder.append(delimiter).append(attribute).append("=");
+                        for (final byte b : value.getBytes(UTF8)) {
+                            int i = b;
+                            if (i < 0) {
+                                i += 256;
+                            }
+                            if (i < 16) {
+                                idBuilder.append('0');
+                            }
+                            idBuilder.append(Integer.toHexString(i));
+                        }
+                        delimiter = ",";
+                    }
+                }
+            }
+
+            idValue = idBuilder.length() == 0 ? "***" : idBuilder.toString();
+        }
+
+        final int vertex = getVertex(graph, idValue, vertexMap, initializeWithSchema, newVertices);
+
+        if (values.remove(DELETE_KEY) != null) {
+            graph.removeVertex(vertex);
+            return NO_ELEMENT;
+        }
+
+        if (values.remove(GHOST) != null) {
+            ghostVertices.add(vertex);
+        }
+
+        final String completeWithSchemaValue = values.remove(COMPLETE_WITH_SCHEMA_KEY);
+        if (completeWithSchemaValue != null) {
+            completeWithSchema = Boolean.parseBoolean(completeWithSchemaValue);
+        }
+
+        copyValues(graph, GraphElementType.VERTEX, vertex, values);
+
+        if (completeWithSchema && graph.getSchema() != null) {
+            graph.getSchema().completeVertex(graph, vertex);
+        }
+
+        return vertex;
+    }
+
+    private static int getVertex(final GraphWriteMethods graph, final String id, final Map<String, Integer> vertexMap,
+            final boolean initializeWithSchema, final List<Integer> newVertices) {
+        if (StringUtils.isNotBlank(id)) {
+            try {
+                Integer vertex = Integer.valueOf(id);
+                if (graph.vertexExists(vertex)) {
+                    return vertex;
+                }
+            } catch (final NumberFormatException ex) {
+                // it's a non-integer id being passed but that's ok, continue on
+            }
+
+            Integer vertex = vertexMap.get(id);
+            if (vertex != null) {
+                if (graph.vertexExists(vertex)) {
+                    // if we hit here, it is because the vertex already exists on the graph but the graph doesn't have a vertex id attribute
+                    // (since it skipped the earlier existence check due to the non-integer id generated in the super-fuction)
+                    return vertex;
+                }
+                // if we hit here, we are likely trying to copy a vertex from another graph including its original id
+                // calling addVertex ensrure the graph has capacity to handle the id
+                vertex = graph.addVertex(vertex);
+            } else {
+                vertex = graph.addVertex();
+                vertexMap.put(id, vertex);
+            }
+
+            if (initializeWithSchema) {
+                graph.getSchema().newVertex(graph, vertex);
+            }
+            newVertices.add(vertex);
+            return vertex;
+        }
+
+        final int vertex = graph.addVertex();
+        if (initializeWithSchema) {
+            graph.getSchema().newVertex(graph, vertex);
+        }
+        newVertices.add(vertex);
+
+        return vertex;
+    }
+
+    private static int addTransaction(final GraphWriteMethods graph, final int source, final int destination,
+            final Map<String, String> values, final Map<String, Integer> transactionMap,
+            final boolean initializeWithSchema, boolean completeWithSchema) {
+        final String type = values.get(TYPE_KEY);
+        final String directedValue = values.get(DIRECTED_KEY);
+        boolean directed = true;
+        if (directedValue != null) {
+            directed = !"False".equalsIgnoreCase(directedValue);
+        } else {
+            final SchemaTransactionType transactionType = SchemaTransactionTypeUtilities.getType(type);
+            if (transactionType != null) {
+                directed = transactionType.isDirected();
+            }
+        }
+
+        final String completeWithSchemaValue = values.remove(COMPLETE_WITH_SCHEMA_KEY);
+        if (completeWithSchemaValue != null) {
+            completeWithSchema = Boolean.parseBoolean(completeWithSchemaValue);
+        }
+
+        final String idValue = values.remove(ID);
+        final int transaction = getTransaction(graph, idValue, source, destination, directed, transactionMap, initializeWithSchema);
+
+        if (values.remove(DELETE_KEY) != null) {
+            graph.removeTransaction(transaction);
+            return NO_ELEMENT;
+        }
+
+        if (transaction == NO_ELEMENT) { // TODO: should this check be done before the delete?
+            return NO_ELEMENT;
+        }
+
+        copyValues(graph, GraphElementType.TRANSACTION, transaction, values);
+
+        if (completeWithSchema && graph.getSchema() != null) {
+            graph.getSchema().completeTransaction(graph, transaction);
+        }
+
+        return transaction;
+    }
+
+    private static int getTransaction(final GraphWriteMethods graph, final String id, final int source,
+            final int destination, final boolean directed, final Map<String, Integer> transactionMap,
+            final boolean initializeWithSchema) {
+        if (StringUtils.isNotBlank(id)) {
+            try {
+                final Integer transaction = Integer.valueOf(id);
+                if (graph.transactionExists(transaction)) {
+                    return transaction;
+                }
+            } catch (final NumberFormatException ex) {
+                // it's a non-integer id being passed but that's ok, continue on
+            }
+
+            Integer transaction = transactionMap.get(id);
+            if (transaction != null) {
+                if (graph.transactionExists(transaction)) {
+                    // if we hit here, it is because the transaction already exists on the graph but the graph doesn't have a transaction id attribute
+                    // (since it skipped the earlier existence check due to the null id being passed)
+                    return transaction;
+                }
+                // if we hit here, we are likely trying to copy a transaction from another graph including its original id
+                // calling addTransaction ensures the graph has capacity to handle the id
+                transaction = graph.addTransaction(transaction, source, destination, directed);
+            } else if (source == NO_ELEMENT || destination == NO_ELEMENT) {
+                return NO_ELEMENT;
+            } else {
+                transaction = graph.addTransaction(source, destination, directed);
+                transactionMap.put(id, transaction);
+            }
+
+            if (initializeWithSchema) {
+                graph.getSchema().newTransaction(graph, transaction);
+            }
+            return transaction;
+        }
+
+        final int transaction = graph.addTransaction(source, destination, directed);
+        if (initializeWithSchema) {
+            graph.getSchema().newTransaction(graph, transaction);
+        }
+        return transaction;
+    }
+
+    private static void copyValues(final GraphWriteMethods graph, final GraphElementType elementType, final int element,
+            final Map<String, String> values) {
+        /**
+         * check whether a transaction type is inconsistent with the direction attribute, if so make a custom type
+         */
+        if (GraphElementType.TRANSACTION.equals(elementType)) {
+            final String requestedDirected = values.remove(DIRECTED_KEY);
+            if (requestedDirected != null) {
+                final String type = values.get(TYPE_KEY);
+                final SchemaTransactionType currentType = SchemaTransactionTypeUtilities.getType(type);
+                if (currentType != null) {
+                    final boolean directed = Boolean.parseBoolean(requestedDirected);
+                    // if the requested direction is different to the type's direction then make a new type
+                    if (Boolean.TRUE.equals(currentType.isDirected()) != directed) {
+                        final String typeName = String.format("%s (%s)", currentType, directed ? "directed" : "undirected");
+                        final SchemaTransactionType modifiedType = new SchemaTransactionType.Builder(currentType, typeName)
+                                .setDirected(Boolean.valueOf(requestedDirected))
+                                .build();
+
+                        if (!SchemaTransactionTypeUtilities.containsType(modifiedType)) {
+                            SchemaTransactionTypeUtilities.addCustomType(modifiedType, false);
+                        }
+                        values.put(TYPE_KEY, modifiedType.getName());
+                    }
+                }
+            }
+        }
+
+        values.entrySet().stream().forEach(entry -> {
+            String key = entry.getKey();
+            String type = "string";
+            if (key.endsWith(">")) {
+                final int typeStart = key.lastIndexOf('<');
+                if (typeStart > 0) {
+                    type = key.substring(typeStart + 1, key.length() - 1);
+                    key = key.substring(0, typeStart);
+                }
+            }
+
+            // TODO: look at ensure(true/false)
+            int attribute = graph.getAttribute(elementType, key);
+            if (attribute == Graph.NOT_FOUND) {
+                attribute = graph.getSchema() != null ? graph.getSchema().getFactory().ensureAttribute(graph, elementType, key) : Graph.NOT_FOUND;
+                if (attribute == Graph.NOT_FOUND) {
+                    attribute = graph.addAttribute(elementType, type, key, key, null, null);
+                }
+            }
+
+            try {
+                graph.setStringValue(attribute, element, entry.getValue());
+            } catch (final Exception ex) {
+                // keeping this as an Exception to catch broad exceptions that can be thrown due to bad data
+                LOGGER.log(Level.SEVERE, "Discarding unexpected value {0} seen in attribute {1}", new Object[]{entry.getValue(), graph.getAttributeName(attribute)});
+            }
+        });
+    }
+
+    static List<Integer> addRecordStoreToGraph(final GraphWriteMethods graph, final RecordStore recordStore,
+            final boolean initializeWithSchema, final boolean completeWithSchema, final List<String> vertexIdAttributes,
+            Map<String, Integer> vertexMap, Map<String, Integer> transactionMap) {
+        final List<Integer> newVertices = new ArrayList<>();
+        final Set<Integer> ghostVertices = new HashSet<>();
+
+        recordStore.reset();
+        final List<String> keys = recordStore instanceof GraphRecordStore graphRecordStore
+                ? graphRecordStore.keysWithType() : recordStore.keys();
+
+        if (vertexMap == null) {
+            vertexMap = new HashMap<>();
+        }
+        if (transactionMap == null) {
+            transactionMap = new HashMap<>();
+        }
+
+        while (recordStore.next()) {
+            final Map<String, String> sourceValues = new TreeMap<>();
+            final Map<String, String> destinationValues = new TreeMap<>();
+            final Map<String, String> transactionValues = new TreeMap<>();
+            for (final String key : keys) {
+                if (recordStore.hasValue(key)) {
+                    String value = recordStore.get(key);
+                    final int dividerPosition = key.indexOf('.');
+
+                    if (dividerPosition > 0) {
+                        final String keyDescriptor = key.substring(0, dividerPosition).toLowerCase();
+                        final String keyAttribute = key.substring(dividerPosition + 1);
+                        final String[] parts = keyDescriptor.split("\\.");
+                        final String label = key.split("<")[0];
+
+                        if (LabelTypes.indexOf(label) > -1) {
+                            value = normalizeType(value);
+                        }
+
+                        switch (parts[0]) {
+                            case "source" ->
+                                sourceValues.put(keyAttribute, value);
+                            case "destination" ->
+                                destinationValues.put(keyAttribute, value);
+                            case "transaction" ->
+                                transactionValues.put(keyAttribute, value);
+                            default -> {
+                                // do nothing
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (sourceValues.isEmpty() && destinationValues.isEmpty() && transactionValues.containsKey(ID)) {
+                // This will not add a new transaction to the graph (as source and destination are both -1), but if the transaction exists already it will be returned allowing it to be selected.
+                addTransaction(graph, NO_ELEMENT, NO_ELEMENT, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
+            } else if (!sourceValues.isEmpty() && !destinationValues.isEmpty()) {
+                final int source = addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
+                final int destination = addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
+                addTransaction(graph, source, destination, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
+            } else if (!sourceValues.isEmpty()) {
+                addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
+            } else if (!destinationValues.isEmpty()) {
+                addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
+            }
+        }
+
+        // Ghost vertices only exist to allow transactions to be present. If, after merging has occurred, a ghost
+        // vertex still exists in the graph (ie has not been merged with another vertex) then is should be removed.
+        if (!ghostVertices.isEmpty()) {
+            graph.validateKey(GraphElementType.VERTEX, true);
+            for (final Integer vertex : ghostVertices) {
+                if (graph.vertexExists(vertex)) {
+                    graph.removeVertex(vertex);
+                }
+            }
+        }
+
+        return newVertices;
+    }
+
+    private static String normalizeType(final String vxLabel) {
+        if (vxLabel != null) {
+            final String[] parts = vxLabel.split("<");
+            final String type = parts.length != 2 ? parts[0] : parts[1].substring(0, parts[1].length() - 1);
+            // Identify a type that is spelt the same regardless of case.
+            if (ApprovedTypes.indexOf(type) == -1) {
+                final Optional<String> foundType = ApprovedTypes.stream().filter(i -> i.equalsIgnoreCase(type)).findFirst();
+                if (foundType.isPresent()) {
+                    return parts.length != 2 ? foundType.get() : parts[0] + "<" + foundType.get() + ">";
+                }
+            }
+        }
+        return vxLabel;
+    }
+}
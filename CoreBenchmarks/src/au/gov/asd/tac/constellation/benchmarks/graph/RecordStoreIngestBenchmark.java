@@ -0,0 +1,101 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures adding a record store of transactions to an empty graph with
+ * {@link GraphRecordStoreUtilities#addRecordStoreToGraph}, compared with the
+ * map based implementation it replaced.
+ * <p>
+ * Each record describes a source vertex, a destination vertex and a
+ * transaction between them, with a handful of attributes on each, similar to
+ * the record stores produced by data access plugins. The vertices are drawn
+ * from a pool a tenth the size of the record store so that most records merge
+ * with existing vertices.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordStoreIngestBenchmark {
+
+    private static final String[] TYPES = {"Person", "email", "Online Identifier", "PHONE NUMBER", "Country"};
+
+    @Param({"10000", "100000"})
+    private int records;
+
+    private GraphRecordStore recordStore;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final int vertices = Math.max(1, records / 10);
+        recordStore = new GraphRecordStore();
+        for (int r = 0; r < records; r++) {
+            final int source = random.nextInt(vertices);
+            final int destination = random.nextInt(vertices);
+            recordStore.add();
+            recordStore.set(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, "vx" + source);
+            recordStore.set(GraphRecordStoreUtilities.SOURCE + "Identifier", "name" + source + "<" + TYPES[source % TYPES.length] + ">");
+            recordStore.set(GraphRecordStoreUtilities.SOURCE + "Label", "Name " + source);
+            recordStore.set(GraphRecordStoreUtilities.SOURCE + "Score<float>", Float.toString(random.nextFloat()));
+            recordStore.set(GraphRecordStoreUtilities.DESTINATION + GraphRecordStoreUtilities.ID, "vx" + destination);
+            recordStore.set(GraphRecordStoreUtilities.DESTINATION + "Identifier", "name" + destination + "<" + TYPES[destination % TYPES.length] + ">");
+            recordStore.set(GraphRecordStoreUtilities.DESTINATION + "Label", "Name " + destination);
+            recordStore.set(GraphRecordStoreUtilities.DESTINATION + "Score<float>", Float.toString(random.nextFloat()));
+            recordStore.set(GraphRecordStoreUtilities.TRANSACTION + "Type", "Communication");
+            recordStore.set(GraphRecordStoreUtilities.TRANSACTION + "Count<integer>", Integer.toString(random.nextInt(100)));
+            if (r % 3 == 0) {
+                recordStore.set(GraphRecordStoreUtilities.TRANSACTION + "Comment", "comment " + r);
+            }
+        }
+    }
+
+    @Benchmark
+    public StoreGraph compiledPlan() {
+        final StoreGraph graph = new StoreGraph();
+        GraphRecordStoreUtilities.addRecordStoreToGraph(graph, recordStore, false, false, null);
+        return graph;
+    }
+
+    @Benchmark
+    public StoreGraph mapPerRecord() {
+        final StoreGraph graph = new StoreGraph();
+        LegacyRecordStoreIngest.addRecordStoreToGraph(graph, recordStore, false, false, null, null, null);
+        return graph;
+    }
+}
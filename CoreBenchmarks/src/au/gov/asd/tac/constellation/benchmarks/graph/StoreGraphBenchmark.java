@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the basic operations of a {@link StoreGraph}: building one,
+ * walking its structure, reading attribute values and copying it.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreGraphBenchmark {
+
+    @Param({"PREFERENTIAL_ATTACHMENT", "SMALL_WORLD"})
+    private GraphFixture fixture;
+
+    @Param({"10000", "100000"})
+    private int vertices;
+
+    private StoreGraph graph;
+    private int[] sources;
+    private int[] destinations;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException {
+        graph = fixture.create(vertices);
+
+        // Remember the fixture's structure by position so that it can be rebuilt.
+        final int transactionCount = graph.getTransactionCount();
+        sources = new int[transactionCount];
+        destinations = new int[transactionCount];
+        for (int position = 0; position < transactionCount; position++) {
+            final int transaction = graph.getTransaction(position);
+            sources[position] = graph.getVertexPosition(graph.getTransactionSourceVertex(transaction));
+            destinations[position] = graph.getVertexPosition(graph.getTransactionDestinationVertex(transaction));
+        }
+    }
+
+    @Benchmark
+    public StoreGraph build() {
+        final StoreGraph built = new StoreGraph(graph.getVertexCount(), 0, 0, sources.length, 0);
+        final int[] vxIds = new int[graph.getVertexCount()];
+        for (int position = 0; position < vxIds.length; position++) {
+            vxIds[position] = built.addVertex();
+        }
+        for (int position = 0; position < sources.length; position++) {
+            built.addTransaction(vxIds[sources[position]], vxIds[destinations[position]], true);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public long traverse() {
+        long total = 0;
+        final int vertexCount = graph.getVertexCount();
+        for (int position = 0; position < vertexCount; position++) {
+            final int vxId = graph.getVertex(position);
+            final int neighbourCount = graph.getVertexNeighbourCount(vxId);
+            for (int neighbour = 0; neighbour < neighbourCount; neighbour++) {
+                total += graph.getVertexNeighbour(vxId, neighbour);
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void readValues(final Blackhole blackhole) {
+        final int identifierAttribute = VisualConcept.VertexAttribute.IDENTIFIER.get(graph);
+        final int xAttribute = VisualConcept.VertexAttribute.X.get(graph);
+        final int vertexCount = graph.getVertexCount();
+        for (int position = 0; position < vertexCount; position++) {
+            final int vxId = graph.getVertex(position);
+            blackhole.consume(graph.getStringValue(identifierAttribute, vxId));
+            blackhole.consume(graph.getFloatValue(xAttribute, vxId));
+        }
+    }
+
+    @Benchmark
+    public GraphReadMethods copy() {
+        return graph.copy();
+    }
+}
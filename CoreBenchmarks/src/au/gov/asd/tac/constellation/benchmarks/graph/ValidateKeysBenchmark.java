@@ -0,0 +1,89 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.benchmarks.graph;
+
+import au.gov.asd.tac.constellation.benchmarks.GraphFixture;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.plugins.PluginException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link StoreGraph#validateKeys()} after the primary keys of some of
+ * the vertices have changed, which happens at the end of every edit that sets
+ * key attributes.
+ * <p>
+ * Before each call the identifiers of the next {@code changed} vertices are
+ * given new unique values, which takes them out of the key index.
+ *
+ * @author algol
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateKeysBenchmark {
+
+    @Param({"PREFERENTIAL_ATTACHMENT", "SMALL_WORLD"})
+    private GraphFixture fixture;
+
+    @Param({"100000"})
+    private int vertices;
+
+    @Param({"1", "1000", "100000"})
+    private int changed;
+
+    private StoreGraph graph;
+    private int identifierAttribute;
+    private int next;
+    private long generation;
+
+    @Setup
+    public void setup() throws InterruptedException, PluginException {
+        graph = fixture.create(vertices);
+        identifierAttribute = VisualConcept.VertexAttribute.IDENTIFIER.get(graph);
+    }
+
+    @Setup(Level.Invocation)
+    public void changeKeys() {
+        generation++;
+        final int vertexCount = graph.getVertexCount();
+        for (int i = 0; i < changed; i++) {
+            final int vxId = graph.getVertex(next);
+            graph.setStringValue(identifierAttribute, vxId, "Node_" + vxId + "_" + generation);
+            next = (next + 1) % vertexCount;
+        }
+    }
+
+    @Benchmark
+    public void validateKeys() {
+        graph.validateKeys();
+    }
+}
@@ -17,7 +17,11 @@ package au.gov.asd.tac.constellation.views.find.plugins;
 
 import au.gov.asd.tac.constellation.graph.Attribute;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeRegistry;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
 import au.gov.asd.tac.constellation.plugins.PluginInteraction;
@@ -27,9 +31,11 @@ import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
 import au.gov.asd.tac.constellation.views.find.state.FindViewConcept;
 import au.gov.asd.tac.constellation.views.find.utilities.ActiveFindResultsList;
 import au.gov.asd.tac.constellation.views.find.utilities.BasicFindReplaceParameters;
+import au.gov.asd.tac.constellation.views.find.utilities.FindIndex;
 import au.gov.asd.tac.constellation.views.find.utilities.FindResult;
 import au.gov.asd.tac.constellation.views.find.utilities.FindResultsList;
 import au.gov.asd.tac.constellation.views.find.utilities.FindViewUtilities;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -138,15 +144,23 @@ public class BasicFindPlugin extends SimpleEditPlugin {
          * find result to the foundResults list
          */
         for (final Attribute a : selectedAttributes) {
+            final int attributeId = graph.getAttribute(elementType, a.getName());
             // if the attribute exists on the current graph
-            if (graph.getAttribute(elementType, a.getName()) >= 0) {
-                // for all elements on the graph of the given type
-                for (int i = 0; i < elementCount; i++) {
+            if (attributeId >= 0) {
+                // an exact search of an indexed attribute only needs to look at the elements found by the index,
+                // other searches for text only need to look at the candidates found by the find index,
+                // otherwise look at all elements on the graph of the given type
+                int[] indexedElements = getIndexedElements(graph, attributeId);
+                if (indexedElements == null) {
+                    indexedElements = FindIndex.getIndex(graph).getCandidates(graph, elementType, attributeId, findString, regex);
+                }
+                final int count = indexedElements != null ? indexedElements.length : elementCount;
+                for (int i = 0; i < count; i++) {
 
                     // get the current element
-                    final int currElement = elementType.getElement(graph, i);
+                    final int currElement = indexedElements != null ? indexedElements[i] : elementType.getElement(graph, i);
                     // get string value of it graph elements attribute
-                    final String value = graph.getStringValue(graph.getAttribute(elementType, a.getName()), currElement);
+                    final String value = graph.getStringValue(attributeId, currElement);
                     // if the value isnt null
                     if (value != null) {
 
@@ -209,6 +223,36 @@ public class BasicFindPlugin extends SimpleEditPlugin {
         }
     }
 
+    /**
+     * Look up the elements whose value of a string attribute is exactly the
+     * find string, if the attribute is indexed and the search is an exact,
+     * case sensitive search for plain text.
+     *
+     * @param graph the graph.
+     * @param attribute the attribute to search.
+     * @return the matching elements in ascending order, or null if the
+     * elements can't be found using an index.
+     */
+    private int[] getIndexedElements(final GraphReadMethods graph, final int attribute) {
+        if (regex || ignorecase || !matchWholeWord || graph.getAttributeIndexType(attribute) == GraphIndexType.NONE
+                || AttributeRegistry.getDefault().getNativeType(graph.getAttributeDataType(attribute)) != String.class) {
+            return null;
+        }
+
+        final GraphIndexResult result = graph.getElementsWithAttributeValue(attribute, findString);
+        if (result == null) {
+            return null;
+        }
+
+        final int[] elements = new int[result.getCount()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = result.getNextElement();
+        }
+        Arrays.sort(elements);
+
+        return elements;
+    }
+
     /**
      * Completes the steps required to select the FindResults within the
      * findInCurrentSelectionList. Its split into a separate function to reduce
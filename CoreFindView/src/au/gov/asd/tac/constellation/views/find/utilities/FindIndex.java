@@ -0,0 +1,469 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.find.utilities;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A full text index of the string values of graph attributes, used by the Find
+ * View to narrow down the elements that a search has to look at.
+ * <p>
+ * The values of an attribute are indexed by the trigrams (three character
+ * substrings) they contain, after case folding, so the same index serves case
+ * sensitive and case insensitive searches. A search for text, or for a regular
+ * expression containing literal text, only needs to look at the elements whose
+ * values contain every trigram of that text. The candidates found by the index
+ * are a superset of the matches, so they still need to be checked against the
+ * search pattern.
+ * <p>
+ * The index of an attribute is built the first time it is needed, and rebuilt
+ * when the structure of the graph or the values of the attribute have changed
+ * according to the graph's modification counters. Indexes are kept for the
+ * most recently searched graphs only.
+ *
+ * @author algol
+ */
+public class FindIndex {
+
+    // Attributes with fewer elements are quick enough to scan.
+    private static final int MIN_INDEXED_ELEMENTS = 10000;
+    private static final int MAX_INDEXED_GRAPHS = 4;
+    private static final int TRIGRAM = 3;
+
+    private static final Map<String, FindIndex> INDEXES = new LinkedHashMap<>(MAX_INDEXED_GRAPHS, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, FindIndex> eldest) {
+            return size() > MAX_INDEXED_GRAPHS;
+        }
+    };
+
+    private final int minIndexedElements;
+    private final Map<String, AttributeIndex> attributeIndexes = new HashMap<>();
+
+    FindIndex(final int minIndexedElements) {
+        this.minIndexedElements = minIndexedElements;
+    }
+
+    /**
+     * Get the find index of a graph.
+     *
+     * @param graph the graph.
+     * @return the find index of the graph.
+     */
+    public static FindIndex getIndex(final GraphReadMethods graph) {
+        synchronized (INDEXES) {
+            return INDEXES.computeIfAbsent(graph.getId(), id -> new FindIndex(MIN_INDEXED_ELEMENTS));
+        }
+    }
+
+    /**
+     * Find the elements whose values of a string attribute could match a
+     * search.
+     *
+     * @param graph the graph.
+     * @param elementType the element type of the attribute.
+     * @param attribute the attribute.
+     * @param findString the text or regular expression being searched for.
+     * @param regex true if the find string is a regular expression.
+     * @return the candidate elements in the order they are in the graph, or
+     * null if the index can't narrow down the search, in which case all of the
+     * elements have to be checked.
+     */
+    public synchronized int[] getCandidates(final GraphReadMethods graph, final GraphElementType elementType, final int attribute,
+            final String findString, final boolean regex) {
+        final List<String> literals = regex ? getRequiredLiterals(findString) : List.of(findString);
+        if (literals == null || literals.stream().allMatch(literal -> literal.length() < TRIGRAM)
+                || elementType.getElementCount(graph) < minIndexedElements) {
+            return null;
+        }
+
+        final String key = elementType.name() + ":" + attribute;
+        AttributeIndex index = attributeIndexes.get(key);
+        if (index == null || !index.isCurrent(graph, attribute)) {
+            index = new AttributeIndex(graph, elementType, attribute);
+            attributeIndexes.put(key, index);
+        }
+
+        return index.getCandidates(literals);
+    }
+
+    /**
+     * Get literal text which must appear in any string matched by a regular
+     * expression.
+     * <p>
+     * This is a conservative analysis: anything that isn't plain text, such
+     * as groups, character classes and escape sequences other than escaped
+     * punctuation, ends the current literal, and a quantifier that allows
+     * zero occurrences removes the preceding character from it.
+     *
+     * @param regex a regular expression.
+     * @return the required literals, or null if the expression contains an
+     * alternation, so that no text is required.
+     */
+    static List<String> getRequiredLiterals(final String regex) {
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i++);
+            switch (c) {
+                case '|' -> {
+                    return null;
+                }
+                case '\\' -> {
+                    if (i == regex.length()) {
+                        return literals;
+                    }
+                    final char escaped = regex.charAt(i++);
+                    if (escaped == 'Q') {
+                        final int end = regex.indexOf("\\E", i);
+                        literal.append(regex, i, end == -1 ? regex.length() : end);
+                        i = end == -1 ? regex.length() : end + 2;
+                    } else if (Character.isLetterOrDigit(escaped)) {
+                        addLiteral(literals, literal);
+                        i = skipEscapeOperand(regex, escaped, i);
+                    } else {
+                        literal.append(escaped);
+                    }
+                }
+                case '?', '*' -> {
+                    dropLast(literal);
+                    addLiteral(literals, literal);
+                }
+                case '{' -> {
+                    dropLast(literal);
+                    addLiteral(literals, literal);
+                    i = skipPast(regex, i, '}');
+                }
+                case '[' -> {
+                    addLiteral(literals, literal);
+                    i = skipCharacterClass(regex, i);
+                }
+                case '(' -> {
+                    addLiteral(literals, literal);
+                    if (hasCommentsFlag(regex, i)) {
+                        // Whitespace in the rest of the expression isn't literal.
+                        return null;
+                    }
+                    i = skipGroup(regex, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                }
+                case '+', '.', '^', '$', ')' ->
+                    addLiteral(literals, literal);
+                default ->
+                    literal.append(c);
+            }
+        }
+        addLiteral(literals, literal);
+
+        return literals;
+    }
+
+    private static void addLiteral(final List<String> literals, final StringBuilder literal) {
+        if (!literal.isEmpty()) {
+            literals.add(literal.toString());
+            literal.setLength(0);
+        }
+    }
+
+    private static void dropLast(final StringBuilder literal) {
+        if (!literal.isEmpty()) {
+            literal.setLength(literal.length() - 1);
+        }
+    }
+
+    private static boolean hasCommentsFlag(final String regex, final int start) {
+        if (start >= regex.length() || regex.charAt(start) != '?') {
+            return false;
+        }
+        for (int i = start + 1; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == 'x') {
+                return true;
+            } else if (!Character.isLetter(c) && c != '-') {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Skip the characters that follow the letter or digit of an escape
+     * sequence as part of it, such as the digits of a hexadecimal or octal
+     * escape or the name of a property, so that they aren't taken as literal
+     * text.
+     * <p>
+     * Skipping too much only means less literal text is required, so digits
+     * after a back reference are all skipped.
+     *
+     * @return the position after the escape sequence.
+     */
+    private static int skipEscapeOperand(final String regex, final char escaped, final int start) {
+        final boolean braced = start < regex.length() && regex.charAt(start) == '{';
+        return switch (escaped) {
+            case 'x' ->
+                braced ? skipPast(regex, start, '}') : Math.min(start + 2, regex.length());
+            case 'u' ->
+                Math.min(start + 4, regex.length());
+            case 'c' ->
+                Math.min(start + 1, regex.length());
+            case 'k' ->
+                start < regex.length() && regex.charAt(start) == '<' ? skipPast(regex, start, '>') : start;
+            case 'p', 'P' ->
+                braced ? skipPast(regex, start, '}') : Math.min(start + 1, regex.length());
+            case 'N', 'b' ->
+                braced ? skipPast(regex, start, '}') : start;
+            case '0' ->
+                skipDigits(regex, start, 3);
+            default ->
+                Character.isDigit(escaped) ? skipDigits(regex, start, regex.length()) : start;
+        };
+    }
+
+    private static int skipDigits(final String regex, final int start, final int max) {
+        int i = start;
+        while (i < regex.length() && i - start < max && Character.isDigit(regex.charAt(i))) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static int skipPast(final String regex, final int start, final char end) {
+        final int ix = regex.indexOf(end, start);
+        return ix == -1 ? regex.length() : ix + 1;
+    }
+
+    private static int skipCharacterClass(final String regex, final int start) {
+        int depth = 1;
+        int i = start;
+        // A ] straight after the opening [ or [^ is part of the class.
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        while (i < regex.length() && depth > 0) {
+            final char c = regex.charAt(i++);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+        }
+
+        return Math.min(i, regex.length());
+    }
+
+    /**
+     * Skip to the end of a group.
+     *
+     * @return the position after the group, or -1 if the group contains an
+     * alternation, which could make text outside the group optional.
+     */
+    private static int skipGroup(final String regex, final int start) {
+        int depth = 1;
+        int i = start;
+        while (i < regex.length() && depth > 0) {
+            final char c = regex.charAt(i++);
+            switch (c) {
+                case '\\' ->
+                    i++;
+                case '[' ->
+                    i = skipCharacterClass(regex, i);
+                case '(' ->
+                    depth++;
+                case ')' ->
+                    depth--;
+                case '|' -> {
+                    return -1;
+                }
+                default -> {
+                    // part of the group
+                }
+            }
+        }
+
+        return Math.min(i, regex.length());
+    }
+
+    /**
+     * Fold the case of a character in the same way as a case insensitive
+     * regular expression compares characters.
+     */
+    private static char fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int trigram(final CharSequence text, final int start) {
+        final long trigram = ((long) fold(text.charAt(start)) << 32) | ((long) fold(text.charAt(start + 1)) << 16) | fold(text.charAt(start + 2));
+        // Collisions only add candidates, which are checked anyway.
+        return (int) ((trigram * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static class AttributeIndex {
+
+        private final long structureModificationCounter;
+        private final long attributeModificationCounter;
+        private final long valueModificationCounter;
+        private final long undoCounter;
+
+        private final int[] elements;
+        private final int[] trigrams;
+        private final int[] offsets;
+        private final int[] positions;
+
+        AttributeIndex(final GraphReadMethods graph, final GraphElementType elementType, final int attribute) {
+            structureModificationCounter = graph.getStructureModificationCounter();
+            attributeModificationCounter = graph.getAttributeModificationCounter();
+            valueModificationCounter = graph.getValueModificationCounter(attribute);
+            undoCounter = graph.getUndoCounter();
+
+            // Collect (trigram, position) pairs, then sort them to group the
+            // positions of each trigram.
+            final int elementCount = elementType.getElementCount(graph);
+            elements = new int[elementCount];
+            long[] pairs = new long[elementCount * 8];
+            int pairCount = 0;
+            for (int position = 0; position < elementCount; position++) {
+                final int element = elementType.getElement(graph, position);
+                elements[position] = element;
+                final String value = graph.getStringValue(attribute, element);
+                if (value != null) {
+                    final int trigramCount = value.length() - TRIGRAM + 1;
+                    if (trigramCount > 0) {
+                        if (pairCount + trigramCount > pairs.length) {
+                            pairs = Arrays.copyOf(pairs, Math.max(pairCount + trigramCount, pairs.length * 2));
+                        }
+                        for (int i = 0; i < trigramCount; i++) {
+                            pairs[pairCount++] = ((long) trigram(value, i) << 32) | position;
+                        }
+                    }
+                }
+            }
+            Arrays.parallelSort(pairs, 0, pairCount);
+
+            int trigramCount = 0;
+            int positionCount = 0;
+            for (int i = 0; i < pairCount; i++) {
+                if (i == 0 || pairs[i] != pairs[i - 1]) {
+                    positionCount++;
+                    if (i == 0 || (int) (pairs[i] >> 32) != (int) (pairs[i - 1] >> 32)) {
+                        trigramCount++;
+                    }
+                }
+            }
+
+            trigrams = new int[trigramCount];
+            offsets = new int[trigramCount + 1];
+            positions = new int[positionCount];
+            int t = -1;
+            int p = 0;
+            for (int i = 0; i < pairCount; i++) {
+                if (i == 0 || pairs[i] != pairs[i - 1]) {
+                    final int trigram = (int) (pairs[i] >> 32);
+                    if (t == -1 || trigrams[t] != trigram) {
+                        trigrams[++t] = trigram;
+                        offsets[t] = p;
+                    }
+                    positions[p++] = (int) pairs[i];
+                }
+            }
+            offsets[trigramCount] = p;
+        }
+
+        boolean isCurrent(final GraphReadMethods graph, final int attribute) {
+            return structureModificationCounter == graph.getStructureModificationCounter()
+                    && attributeModificationCounter == graph.getAttributeModificationCounter()
+                    && valueModificationCounter == graph.getValueModificationCounter(attribute)
+                    && undoCounter == graph.getUndoCounter();
+        }
+
+        int[] getCandidates(final List<String> literals) {
+            // Start with the trigram with the fewest positions, so the
+            // intersection is small from the beginning.
+            final List<Integer> postings = new ArrayList<>();
+            for (final String literal : literals) {
+                for (int i = 0; i + TRIGRAM <= literal.length(); i++) {
+                    final int ix = Arrays.binarySearch(trigrams, trigram(literal, i));
+                    if (ix < 0) {
+                        return new int[0];
+                    }
+                    if (!postings.contains(ix)) {
+                        postings.add(ix);
+                    }
+                }
+            }
+            postings.sort((a, b) -> Integer.compare(offsets[a + 1] - offsets[a], offsets[b + 1] - offsets[b]));
+
+            final int first = postings.get(0);
+            int[] candidates = Arrays.copyOfRange(positions, offsets[first], offsets[first + 1]);
+            int candidateCount = candidates.length;
+            for (int i = 1; i < postings.size() && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, offsets[postings.get(i)], offsets[postings.get(i) + 1]);
+            }
+
+            final int[] result = new int[candidateCount];
+            for (int i = 0; i < candidateCount; i++) {
+                result[i] = elements[candidates[i]];
+            }
+
+            return result;
+        }
+
+        /**
+         * Keep the candidates that are also in a range of positions. Both are
+         * sorted, and the candidates are usually much smaller, so each
+         * candidate is found with a galloping search.
+         */
+        private int intersect(final int[] candidates, final int candidateCount, final int from, final int to) {
+            int kept = 0;
+            int low = from;
+            for (int i = 0; i < candidateCount && low < to; i++) {
+                final int candidate = candidates[i];
+                int step = 1;
+                int high = low;
+                while (high < to && positions[high] < candidate) {
+                    low = high + 1;
+                    high += step;
+                    step <<= 1;
+                }
+                final int ix = Arrays.binarySearch(positions, low, Math.min(high + 1, to), candidate);
+                if (ix >= 0) {
+                    candidates[kept++] = candidate;
+                    low = ix + 1;
+                } else {
+                    low = -ix - 1;
+                }
+            }
+
+            return kept;
+        }
+    }
+}
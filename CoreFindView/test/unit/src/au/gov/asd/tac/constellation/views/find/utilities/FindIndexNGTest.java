@@ -0,0 +1,126 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.find.utilities;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ * Find Index Test.
+ *
+ * @author algol
+ */
+public class FindIndexNGTest {
+
+    /**
+     * Test that the literal text required by a regular expression is found.
+     */
+    @Test
+    public void testGetRequiredLiterals() {
+        System.out.println("getRequiredLiterals");
+
+        assertEquals(FindIndex.getRequiredLiterals("hello"), List.of("hello"));
+        assertEquals(FindIndex.getRequiredLiterals("^abc.*def$"), List.of("abc", "def"));
+        assertEquals(FindIndex.getRequiredLiterals("colou?r"), List.of("colo", "r"));
+        assertEquals(FindIndex.getRequiredLiterals("ab+c"), List.of("ab", "c"));
+        assertEquals(FindIndex.getRequiredLiterals("x\\d{2,3}y[a-z]+\\.com"), List.of("x", "y", ".com"));
+        assertEquals(FindIndex.getRequiredLiterals("(?i)foo(bar)?baz"), List.of("foo", "baz"));
+        assertEquals(FindIndex.getRequiredLiterals("\\Qa.b\\Ec"), List.of("a.bc"));
+        assertNull(FindIndex.getRequiredLiterals("cat|dog"));
+        assertNull(FindIndex.getRequiredLiterals("the (cat|dog)"));
+        assertNull(FindIndex.getRequiredLiterals("(?x)a b"));
+
+        // The operands of escape sequences aren't literal text.
+        assertEquals(FindIndex.getRequiredLiterals("\\x41bc"), List.of("bc"));
+        assertEquals(FindIndex.getRequiredLiterals("\\x{1F600}smile"), List.of("smile"));
+        assertEquals(FindIndex.getRequiredLiterals("\\u0041bcd"), List.of("bcd"));
+        assertEquals(FindIndex.getRequiredLiterals("\\0101bc"), List.of("bc"));
+        assertEquals(FindIndex.getRequiredLiterals("\\cAbc"), List.of("bc"));
+        assertEquals(FindIndex.getRequiredLiterals("(?<word>ab)c\\k<word>d"), List.of("c", "d"));
+        assertEquals(FindIndex.getRequiredLiterals("\\pLabc\\p{Lu}def"), List.of("abc", "def"));
+        assertEquals(FindIndex.getRequiredLiterals("(a)\\12x"), List.of("x"));
+    }
+
+    /**
+     * Test that the candidates found by the index include every match, and
+     * that the index is rebuilt when values change.
+     */
+    @Test
+    public void testGetCandidates() {
+        System.out.println("getCandidates");
+
+        final StoreGraph graph = new StoreGraph();
+        final int attribute = graph.addAttribute(GraphElementType.VERTEX, "string", "Label", null, null, null);
+        final int[] vertices = new int[6];
+        final String[] labels = {"Alpha Centauri", "alphabet", "Beta", null, "gamma alpha", "ALPHA"};
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex();
+            graph.setStringValue(attribute, vertices[i], labels[i]);
+        }
+
+        final FindIndex index = new FindIndex(0);
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "alpha", false),
+                new int[]{vertices[0], vertices[1], vertices[4], vertices[5]});
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "^bet.*", true), new int[]{vertices[1], vertices[2]});
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "delta", false), new int[0]);
+        assertNull(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "al", false));
+
+        graph.setStringValue(attribute, vertices[2], "Delta");
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "delta", false), new int[]{vertices[2]});
+
+        graph.removeVertex(vertices[1]);
+        final int[] candidates = index.getCandidates(graph, GraphElementType.VERTEX, attribute, "alpha", false);
+        Arrays.sort(candidates);
+        assertEquals(candidates, new int[]{vertices[0], vertices[4], vertices[5]});
+
+        // A value found by an escape sequence should be a candidate.
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "\\x44elta", true), new int[]{vertices[2]});
+    }
+
+    /**
+     * Test that the index is rebuilt when a value change is undone and a
+     * different value change brings the modification counters back to the
+     * same values.
+     */
+    @Test
+    public void testGetCandidatesAfterUndo() {
+        System.out.println("getCandidatesAfterUndo");
+
+        final StoreGraph graph = new StoreGraph();
+        final int attribute = graph.addAttribute(GraphElementType.VERTEX, "string", "Label", null, null, null);
+        final int vertex0 = graph.addVertex();
+        final int vertex1 = graph.addVertex();
+        graph.setStringValue(attribute, vertex0, "Alpha");
+        final long valueModificationCounter = graph.getValueModificationCounter(attribute);
+
+        final FindIndex index = new FindIndex(0);
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "alpha", false), new int[]{vertex0});
+
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.setStringValue(attribute, vertex0, null);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.setStringValue(attribute, vertex1, "Alpha");
+        assertEquals(graph.getValueModificationCounter(attribute), valueModificationCounter);
+
+        assertEquals(index.getCandidates(graph, GraphElementType.VERTEX, attribute, "alpha", false), new int[]{vertex1});
+    }
+}
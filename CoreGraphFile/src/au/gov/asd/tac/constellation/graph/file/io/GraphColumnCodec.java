@@ -0,0 +1,298 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ByteAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ShortAttributeDescription;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encode and decode the values of a primitive attribute as a binary column.
+ * <p>
+ * A column holds the value of the attribute for every element of its type, in
+ * position order, as a little-endian array of the attribute's native type.
+ * Booleans are written as one byte per element, either 0 or 1. Columns are
+ * written to their own entries of a graph zip file, alongside the chunks of
+ * JSON that hold the other attribute values of the elements.
+ *
+ * @author algol
+ */
+public final class GraphColumnCodec {
+
+    private GraphColumnCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Can attributes of the given type be written as a binary column?
+     *
+     * @param attributeType The name of the attribute type.
+     *
+     * @return True if the attribute type has a primitive native type that can
+     * be written as a column, false otherwise.
+     */
+    public static boolean isSupported(final String attributeType) {
+        return getValueSize(attributeType) > 0;
+    }
+
+    /**
+     * The number of bytes taken by a value of the given attribute type in a
+     * column.
+     *
+     * @param attributeType The name of the attribute type.
+     *
+     * @return The number of bytes in a value, or 0 if the attribute type can't
+     * be written as a column.
+     */
+    public static int getValueSize(final String attributeType) {
+        return switch (attributeType) {
+            case FloatAttributeDescription.ATTRIBUTE_NAME -> Float.BYTES;
+            case DoubleAttributeDescription.ATTRIBUTE_NAME -> Double.BYTES;
+            case IntegerAttributeDescription.ATTRIBUTE_NAME -> Integer.BYTES;
+            case LongAttributeDescription.ATTRIBUTE_NAME -> Long.BYTES;
+            case ShortAttributeDescription.ATTRIBUTE_NAME -> Short.BYTES;
+            case ByteAttributeDescription.ATTRIBUTE_NAME, BooleanAttributeDescription.ATTRIBUTE_NAME -> Byte.BYTES;
+            case null -> 0;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Encode the values of an attribute of vertices or transactions as a
+     * column.
+     *
+     * @param graph The graph.
+     * @param elementType The element type of the attribute, either VERTEX or
+     * TRANSACTION.
+     * @param attributeId The id of the attribute.
+     * @param attributeType The name of the attribute type.
+     *
+     * @return The encoded column.
+     */
+    public static byte[] encode(final GraphReadMethods graph, final GraphElementType elementType, final int attributeId, final String attributeType) {
+        final int[] elements = getElements(graph, elementType);
+        final ByteBuffer buffer = ByteBuffer.allocate(elements.length * getValueSize(attributeType)).order(ByteOrder.LITTLE_ENDIAN);
+        switch (attributeType) {
+            case FloatAttributeDescription.ATTRIBUTE_NAME -> {
+                final float[] values = new float[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getFloatValue(attributeId, elements[i]);
+                }
+                buffer.asFloatBuffer().put(values);
+            }
+            case DoubleAttributeDescription.ATTRIBUTE_NAME -> {
+                final double[] values = new double[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getDoubleValue(attributeId, elements[i]);
+                }
+                buffer.asDoubleBuffer().put(values);
+            }
+            case IntegerAttributeDescription.ATTRIBUTE_NAME -> {
+                final int[] values = new int[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getIntValue(attributeId, elements[i]);
+                }
+                buffer.asIntBuffer().put(values);
+            }
+            case LongAttributeDescription.ATTRIBUTE_NAME -> {
+                final long[] values = new long[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getLongValue(attributeId, elements[i]);
+                }
+                buffer.asLongBuffer().put(values);
+            }
+            case ShortAttributeDescription.ATTRIBUTE_NAME -> {
+                final short[] values = new short[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getShortValue(attributeId, elements[i]);
+                }
+                buffer.asShortBuffer().put(values);
+            }
+            case ByteAttributeDescription.ATTRIBUTE_NAME -> {
+                final byte[] values = new byte[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getByteValue(attributeId, elements[i]);
+                }
+                buffer.put(values);
+            }
+            case BooleanAttributeDescription.ATTRIBUTE_NAME -> {
+                final byte[] values = new byte[elements.length];
+                for (int i = 0; i < elements.length; i++) {
+                    values[i] = graph.getBooleanValue(attributeId, elements[i]) ? (byte) 1 : (byte) 0;
+                }
+                buffer.put(values);
+            }
+            default -> throw new IllegalArgumentException("Attribute type " + attributeType + " can't be written as a column");
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Decode a column and set the values of an attribute.
+     *
+     * @param graph The graph.
+     * @param attributeId The id of the attribute.
+     * @param attributeType The name of the attribute type.
+     * @param elements The ids of the elements the values belong to, in the
+     * order they were written.
+     * @param elementCount The number of elements in the column.
+     * @param column The encoded column.
+     *
+     * @throws GraphParseException If the column doesn't hold a value for each
+     * element, or the attribute type can't be read from a column.
+     */
+    public static void decode(final GraphWriteMethods graph, final int attributeId, final String attributeType, final int[] elements, final int elementCount,
+            final ByteBuffer column) throws GraphParseException {
+        final int valueSize = getValueSize(attributeType);
+        if (valueSize == 0) {
+            throw new GraphParseException("Attribute type " + attributeType + " can't be read from a column");
+        }
+        if (column.remaining() != (long) elementCount * valueSize) {
+            final String msg = String.format("Expected a column of %d bytes for attribute type %s, found %d", (long) elementCount * valueSize, attributeType, column.remaining());
+            throw new GraphParseException(msg);
+        }
+
+        final ByteBuffer buffer = column.slice().order(ByteOrder.LITTLE_ENDIAN);
+        switch (attributeType) {
+            case FloatAttributeDescription.ATTRIBUTE_NAME -> {
+                final float[] values = new float[elementCount];
+                buffer.asFloatBuffer().get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setFloatValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case DoubleAttributeDescription.ATTRIBUTE_NAME -> {
+                final double[] values = new double[elementCount];
+                buffer.asDoubleBuffer().get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setDoubleValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case IntegerAttributeDescription.ATTRIBUTE_NAME -> {
+                final int[] values = new int[elementCount];
+                buffer.asIntBuffer().get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setIntValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case LongAttributeDescription.ATTRIBUTE_NAME -> {
+                final long[] values = new long[elementCount];
+                buffer.asLongBuffer().get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setLongValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case ShortAttributeDescription.ATTRIBUTE_NAME -> {
+                final short[] values = new short[elementCount];
+                buffer.asShortBuffer().get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setShortValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case ByteAttributeDescription.ATTRIBUTE_NAME -> {
+                final byte[] values = new byte[elementCount];
+                buffer.get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setByteValue(attributeId, elements[i], values[i]);
+                }
+            }
+            case BooleanAttributeDescription.ATTRIBUTE_NAME -> {
+                final byte[] values = new byte[elementCount];
+                buffer.get(values);
+                for (int i = 0; i < elementCount; i++) {
+                    graph.setBooleanValue(attributeId, elements[i], values[i] != 0);
+                }
+            }
+            default -> throw new GraphParseException("Attribute type " + attributeType + " can't be read from a column");
+        }
+    }
+
+    /**
+     * Encode the structure of the vertices or transactions of a graph.
+     * <p>
+     * The vertex structure is the id of each vertex. The transaction structure
+     * is the id of each transaction, then the id of the source vertex of each
+     * transaction, then the id of the destination vertex of each transaction,
+     * then whether each transaction is directed (1) or not (0). Each is a
+     * little-endian int array in position order, so that the structure of a
+     * graph can be rebuilt without reading the JSON chunks.
+     *
+     * @param graph The graph.
+     * @param elementType Either VERTEX or TRANSACTION.
+     *
+     * @return The encoded structure.
+     */
+    public static byte[] encodeStructure(final GraphReadMethods graph, final GraphElementType elementType) {
+        final int[] elements = getElements(graph, elementType);
+        if (elementType == GraphElementType.VERTEX) {
+            final ByteBuffer buffer = ByteBuffer.allocate(elements.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asIntBuffer().put(elements);
+            return buffer.array();
+        }
+
+        final int[] sources = new int[elements.length];
+        final int[] destinations = new int[elements.length];
+        final int[] directed = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            sources[i] = graph.getTransactionSourceVertex(elements[i]);
+            destinations[i] = graph.getTransactionDestinationVertex(elements[i]);
+            directed[i] = graph.getTransactionDirection(elements[i]) != GraphConstants.UNDIRECTED ? 1 : 0;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * elements.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(elements).put(sources).put(destinations).put(directed);
+        return buffer.array();
+    }
+
+    /**
+     * The ids of the vertices or transactions of a graph, in position order.
+     *
+     * @param graph The graph.
+     * @param elementType Either VERTEX or TRANSACTION.
+     *
+     * @return The ids of the elements.
+     */
+    private static int[] getElements(final GraphReadMethods graph, final GraphElementType elementType) {
+        final int[] elements;
+        switch (elementType) {
+            case VERTEX -> {
+                elements = new int[graph.getVertexCount()];
+                for (int position = 0; position < elements.length; position++) {
+                    elements[position] = graph.getVertex(position);
+                }
+            }
+            case TRANSACTION -> {
+                elements = new int[graph.getTransactionCount()];
+                for (int position = 0; position < elements.length; position++) {
+                    elements[position] = graph.getTransaction(position);
+                }
+            }
+            default -> throw new IllegalArgumentException("Only vertex and transaction attributes can be written as columns");
+        }
+
+        return elements;
+    }
+}
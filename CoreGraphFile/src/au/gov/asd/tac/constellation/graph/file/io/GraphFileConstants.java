@@ -65,4 +65,60 @@ public final class GraphFileConstants {
      * Field indicating whether the transaction is directed or not.
      */
     public static final String DIR = "tx_dir_";
+
+    /**
+     * Field giving the number of chunk entries holding the data of a graph
+     * section, in place of the "data" field.
+     */
+    public static final String CHUNKS = "chunks";
+
+    /**
+     * Field listing the labels of the attributes of a graph section whose
+     * values are held in binary column entries rather than in the chunks.
+     */
+    public static final String COLUMNS = "columns";
+
+    /**
+     * The file extension of binary column entries.
+     */
+    public static final String COLUMN_EXTENSION = ".bin";
+
+    /**
+     * The name of the ZipEntry holding a chunk of the data of a graph section.
+     *
+     * @param section The name of the graph section, e.g. "vertex".
+     * @param chunk The index of the chunk in the section.
+     *
+     * @return The name of the ZipEntry.
+     */
+    public static String getChunkEntryName(final String section, final int chunk) {
+        return String.format("%s/%06d%s%s", section, chunk, FILE_EXTENSION, FileExtensionConstants.GZIP);
+    }
+
+    /**
+     * The name of the ZipEntry holding a binary column of attribute values of
+     * a graph section.
+     *
+     * @param section The name of the graph section, e.g. "vertex".
+     * @param column The index of the attribute in the section's list of
+     * columns.
+     *
+     * @return The name of the ZipEntry.
+     */
+    public static String getColumnEntryName(final String section, final int column) {
+        return String.format("%s/column_%04d%s", section, column, COLUMN_EXTENSION);
+    }
+
+    /**
+     * The name of the ZipEntry holding the binary structure of a graph
+     * section.
+     *
+     * @param section The name of the graph section, either "vertex" or
+     * "transaction".
+     *
+     * @return The name of the ZipEntry.
+     */
+    public static String getStructureEntryName(final String section) {
+        return String.format("%s/structure%s", section, COLUMN_EXTENSION);
+    }
 }
@@ -43,16 +43,30 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.openide.util.Lookup;
@@ -66,6 +80,9 @@ public final class GraphJsonReader {
 
     private static final Logger LOGGER = Logger.getLogger(GraphJsonReader.class.getName());
 
+    // Thread safe, so shared by the threads parsing chunks.
+    private static final MappingJsonFactory JSON_FACTORY = new MappingJsonFactory();
+
     // After each interval of this many elements, report to the user.
     private static final int REPORT_INTERVAL = 10000;
 
@@ -79,6 +96,9 @@ public final class GraphJsonReader {
     private long structModCount;
     private final Map<Integer, Long> attrValCount = new HashMap<>();
     private GraphByteReader byteReader;
+    private MappedZipFile mappedZip;
+    // The sections whose data is left in the file, when reading lazily.
+    private List<LazySection> lazySections;
 
     private static final String ATTRIBUTE_MOD_COUNT = "attribute_mod_count";
     private static final String GLOBAL_MOD_COUNT = "global_mod_count";
@@ -263,10 +283,229 @@ public final class GraphJsonReader {
      * @throws GraphParseException On graph parsing errors.
      */
     public Graph readGraph(final InputStream in, final long entrySize, final IoProgress progress) throws IOException, InterruptedException, GraphParseException {
+        final StoreGraph storeGraph = readStoreGraph(in, entrySize, progress);
+
+        graph = new DualGraph(storeGraph.getSchema().getFactory().createSchema(), storeGraph);
+
+        if (progress != null) {
+            progress.finish();
+        }
+
+        return graph;
+    }
+
+    /**
+     * Open a graph zip file lazily, for inspection only.
+     * <p>
+     * Only the graph's attributes and graph values are read when it is opened.
+     * The vertices and transactions are not read: the structure entries of the
+     * file are mapped and the graph reads the ends of its transactions from
+     * them. The values of vertex, transaction and meta attributes are read
+     * from the file when they are first asked for: primitive attributes
+     * written as binary columns are mapped from the file, and the values of
+     * the other attributes of a section are read from its chunks together.
+     * This needs a file written with binary columns; the data of other files,
+     * and of files that need to be updated to the current version, is read
+     * when they are opened.
+     * <p>
+     * Custom icons in the file are not copied to the user's icon directory.
+     *
+     * @param graphFile The graph zip file.
+     * @param progress A progress indicator.
+     *
+     * @return A read only graph, whose file must be closed with
+     * {@link LazyGraph#closeFile} when it is no longer needed.
+     *
+     * @throws IOException If an I/O error occurs.
+     * @throws GraphParseException On graph parsing errors.
+     */
+    public LazyGraph readGraphLazily(final File graphFile, final IoProgress progress) throws IOException, GraphParseException {
+        // The graph keeps reading from the file after it is opened, so give it a reader of its own.
+        return new GraphJsonReader().openLazily(graphFile, progress);
+    }
+
+    private LazyGraph openLazily(final File graphFile, final IoProgress progress) throws IOException, GraphParseException {
+        progress.start(100);
+        mappedZip = new MappedZipFile(graphFile);
+        try {
+            byteReader = mappedZip.createByteReader();
+
+            // Only files written with binary columns have a structure to map.
+            final ByteBuffer vertexStructure = readEntry(GraphFileConstants.getStructureEntryName(IoUtilities.getGraphElementTypeString(GraphElementType.VERTEX)));
+            final ByteBuffer transactionStructure = readEntry(GraphFileConstants.getStructureEntryName(IoUtilities.getGraphElementTypeString(GraphElementType.TRANSACTION)));
+            if (vertexStructure != null && transactionStructure != null) {
+                lazySections = new ArrayList<>();
+            }
+
+            final String graphEntry = "graph" + GraphFileConstants.FILE_EXTENSION;
+            final StoreGraph storeGraph;
+            try (final InputStream in = mappedZip.getInputStream(graphEntry)) {
+                if (in == null) {
+                    final String msg = "Entry " + graphEntry + " not found in graph file";
+                    throw new GraphParseException(msg);
+                }
+                storeGraph = readStoreGraph(new BufferedInputStream(in), -1, progress);
+            } catch (final IllegalStateException ex) {
+                throw new GraphParseException(ex.getMessage(), ex);
+            }
+
+            if (lazySections == null) {
+                // Everything was read, so the file isn't needed any more.
+                final LazyGraph lazyGraph = createReadGraph(graphFile, storeGraph);
+                mappedZip.close();
+                return lazyGraph;
+            }
+
+            return createLazyGraph(graphFile, storeGraph, vertexStructure, transactionStructure);
+        } catch (final IOException | GraphParseException | RuntimeException ex) {
+            mappedZip.close();
+            throw ex;
+        } finally {
+            lazySections = null;
+            progress.finish();
+        }
+    }
+
+    /**
+     * Create a lazily read graph whose structure is mapped from the file.
+     *
+     * @param graphFile The graph zip file.
+     * @param storeGraph The attributes and graph values read from the file.
+     * @param vertexStructure The vertex structure entry.
+     * @param transactionStructure The transaction structure entry.
+     *
+     * @return The graph.
+     *
+     * @throws GraphParseException If the structure is invalid.
+     */
+    private LazyGraph createLazyGraph(final File graphFile, final StoreGraph storeGraph, final ByteBuffer vertexStructure, final ByteBuffer transactionStructure)
+            throws GraphParseException {
+        final IntBuffer vertexIds = vertexStructure.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        final IntBuffer transactions = transactionStructure.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        if (transactions.remaining() % 4 != 0) {
+            throw new GraphParseException("Invalid transaction structure in graph file");
+        }
+        final int transactionCount = transactions.remaining() / 4;
+        final IntBuffer transactionIds = transactions.slice(0, transactionCount);
+        final IntBuffer sources = transactions.slice(transactionCount, transactionCount);
+        final IntBuffer destinations = transactions.slice(2 * transactionCount, transactionCount);
+        final IntBuffer directed = transactions.slice(3 * transactionCount, transactionCount);
+
+        final int[] vertexPositions = getPositions(vertexIds);
+        for (int transaction = 0; transaction < transactionCount; transaction++) {
+            if (!isVertex(sources.get(transaction), vertexIds.limit(), vertexPositions) || !isVertex(destinations.get(transaction), vertexIds.limit(), vertexPositions)) {
+                throw new GraphParseException("Invalid transaction structure in graph file");
+            }
+        }
+
+        final LazyGraph lazyGraph = new LazyGraph(storeGraph, graphFile, mappedZip, vertexIds.limit(), sources, destinations, directed, vertexPositions);
+        final Map<Integer, Integer> vertexMap = new FilePositions(vertexIds, vertexPositions);
+        final Map<Integer, Integer> transactionMap = new FilePositions(transactionIds, null);
+        for (final LazySection section : lazySections) {
+            deferSection(lazyGraph, section, vertexMap, transactionMap);
+        }
+
+        return lazyGraph;
+    }
+
+    /**
+     * Create a read only graph from a graph that has been read into memory.
+     *
+     * @param graphFile The graph zip file.
+     * @param storeGraph The graph.
+     *
+     * @return The graph.
+     *
+     * @throws GraphParseException If the ids of the elements of the graph are
+     * not their positions.
+     */
+    private static LazyGraph createReadGraph(final File graphFile, final StoreGraph storeGraph) throws GraphParseException {
+        final int vertexCount = storeGraph.getVertexCount();
+        for (int position = 0; position < vertexCount; position++) {
+            if (storeGraph.getVertex(position) != position) {
+                throw new GraphParseException("Unable to open the graph read only after it was updated");
+            }
+        }
+
+        final int transactionCount = storeGraph.getTransactionCount();
+        final int[] sources = new int[transactionCount];
+        final int[] destinations = new int[transactionCount];
+        final int[] directed = new int[transactionCount];
+        for (int position = 0; position < transactionCount; position++) {
+            if (storeGraph.getTransaction(position) != position) {
+                throw new GraphParseException("Unable to open the graph read only after it was updated");
+            }
+            sources[position] = storeGraph.getTransactionSourceVertex(position);
+            destinations[position] = storeGraph.getTransactionDestinationVertex(position);
+            directed[position] = storeGraph.getTransactionDirection(position) != Graph.FLAT ? 1 : 0;
+        }
+
+        return new LazyGraph(storeGraph, graphFile, null, vertexCount, IntBuffer.wrap(sources), IntBuffer.wrap(destinations), IntBuffer.wrap(directed), null);
+    }
+
+    /**
+     * Index the positions of the vertices or transactions of a graph by their
+     * ids in the file.
+     *
+     * @param fileIds The id in the file of the element at each position.
+     *
+     * @return The position of each id, Graph.NOT_FOUND for ids that aren't
+     * used, or null if the ids are the same as the positions.
+     *
+     * @throws GraphParseException If an id is negative or used more than once.
+     */
+    private static int[] getPositions(final IntBuffer fileIds) throws GraphParseException {
+        final int count = fileIds.limit();
+        int maxId = -1;
+        boolean isIdentity = true;
+        for (int position = 0; position < count; position++) {
+            final int id = fileIds.get(position);
+            if (id < 0) {
+                throw new GraphParseException("Invalid element id in graph file structure: " + id);
+            }
+            maxId = Math.max(maxId, id);
+            isIdentity &= id == position;
+        }
+        if (isIdentity) {
+            return null;
+        }
+
+        final int[] positions = new int[maxId + 1];
+        Arrays.fill(positions, Graph.NOT_FOUND);
+        for (int position = 0; position < count; position++) {
+            final int id = fileIds.get(position);
+            if (positions[id] != Graph.NOT_FOUND) {
+                throw new GraphParseException("Duplicate element id in graph file structure: " + id);
+            }
+            positions[id] = position;
+        }
+        return positions;
+    }
+
+    private static boolean isVertex(final int fileId, final int vertexCount, final int[] vertexPositions) {
+        if (vertexPositions == null) {
+            return fileId >= 0 && fileId < vertexCount;
+        }
+        return fileId >= 0 && fileId < vertexPositions.length && vertexPositions[fileId] != Graph.NOT_FOUND;
+    }
+
+    /**
+     * Read a graph file into a StoreGraph.
+     *
+     * @param in The InputStream to read from.
+     * @param entrySize The size of the file being read (-1 if unknown).
+     * @param progress A progress indicator.
+     *
+     * @return A new StoreGraph.
+     *
+     * @throws IOException If an I/O error occurs.
+     * @throws GraphParseException On graph parsing errors.
+     */
+    private StoreGraph readStoreGraph(final InputStream in, final long entrySize, final IoProgress progress) throws IOException, GraphParseException {
         final ImmutableObjectCache immutableObjectCache = new ImmutableObjectCache();
 
         // Use a combination of stream and tree-model parsing.
-        jp = new MappingJsonFactory().createParser(in);
+        jp = JSON_FACTORY.createParser(in);
 
         final Map<Integer, Integer> vertexMap = new HashMap<>();
         final Map<Integer, Integer> transactionMap = new HashMap<>();
@@ -377,6 +616,12 @@ public final class GraphJsonReader {
             }
         });
 
+        // Update providers expect the whole graph to be in memory, so a graph that needs updating can't be read lazily.
+        if (lazySections != null && UpdateProviderManager.getRegisteredProviders().entrySet().stream().anyMatch(e -> e.getKey().appliesToGraph(storeGraph)
+                && e.getValue().containsKey(versionedItems.getOrDefault(e.getKey().getName(), UpdateProvider.DEFAULT_VERSION)))) {
+            lazySections = null;
+        }
+
         try {
             // Depending on the version number, different things could happen.
             // **************************
@@ -502,15 +747,9 @@ public final class GraphJsonReader {
             LOGGER.log(Level.WARNING, msg, ex);
         }
 
-        graph = new DualGraph(schemaFactory.createSchema(), storeGraph);
-
-        if (progress != null) {
-            progress.finish();
-        }
-
         LOGGER.log(Level.FINE, "immutableObjectCache={0}", immutableObjectCache);
 
-        return graph;
+        return storeGraph;
     }
 
     /**
@@ -666,93 +905,89 @@ public final class GraphJsonReader {
 
         current = jp.nextToken();
         final String inData = jp.getCurrentName();
-        if (current != JsonToken.FIELD_NAME || !"data".equals(inData)) {
-            final String msg = String.format("Expected 'data', found '%s'", current);
-            throw new GraphParseException(msg);
-        }
+        if (version >= 3 && current == JsonToken.FIELD_NAME && GraphFileConstants.CHUNKS.equals(inData)) {
+            current = jp.nextToken();
+            if (current != JsonToken.VALUE_NUMBER_INT) {
+                final String msg = String.format("Expected '%s' chunk count, found '%s'", elementTypeLabel, current);
+                throw new GraphParseException(msg);
+            }
 
-        current = jp.nextToken();
-        if (current != JsonToken.START_ARRAY) {
-            final String msg = String.format("Expected '%s' data array start, found '%s'", elementTypeLabel, current);
-            throw new GraphParseException(msg);
-        }
+            final int chunkCount = jp.getIntValue();
 
-        while (jp.nextToken() != JsonToken.END_ARRAY) {
-            // Read the object into a tree model.
-            final JsonNode node = jp.readValueAsTree();
-            final int id;
-            switch (elementType) {
-                case VERTEX -> {
-                    final JsonNode idNode = node.get(GraphFileConstants.VX_ID);
-                    if (idNode == null) {
-                        final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.VX_ID, jp.getCurrentLocation());
-                        throw new GraphParseException(msg);
-                    }       final int jsonId = idNode.intValue();
-                    id = graph.addVertex();
-                    vertexPositions.put(jsonId, id);
+            // The labels of the attributes held in binary columns are optional.
+            final List<String> columns = new ArrayList<>();
+            current = jp.nextToken();
+            if (current == JsonToken.FIELD_NAME && GraphFileConstants.COLUMNS.equals(jp.getCurrentName())) {
+                current = jp.nextToken();
+                if (current != JsonToken.START_ARRAY) {
+                    final String msg = String.format("Expected '%s' columns array start, found '%s'", elementTypeLabel, current);
+                    throw new GraphParseException(msg);
                 }
-                case TRANSACTION -> {
-                    final JsonNode idNode = node.get(GraphFileConstants.TX_ID);
-                    // We can't test for null and throw an exception here: putting the txId in the file is an afterthought,
-                    // so lots of existing graphs won't have it.
-                    final JsonNode srcNode = node.get(GraphFileConstants.SRC);
-                    if (srcNode == null) {
-                        final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.SRC, jp.getCurrentLocation());
-                        throw new GraphParseException(msg);
-                    }       
-                    final JsonNode dstNode = node.get(GraphFileConstants.DST);
-                    if (dstNode == null) {
-                        final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.DST, jp.getCurrentLocation());
-                        throw new GraphParseException(msg);
-                    }       
-                    final JsonNode dirNode = node.get(GraphFileConstants.DIR);
-                    if (dirNode == null) {
-                        final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.DIR, jp.getCurrentLocation());
-                        throw new GraphParseException(msg);
-                    }       
-                    // Map the ids in the JSON file to the vertex ids in the graph.
-                    final int jsonId = idNode != null ? idNode.intValue() : Graph.NOT_FOUND;
-                    final int jsonSrc = srcNode.intValue();
-                    final int jsonDst = dstNode.intValue();
-                    final int src = vertexPositions.get(jsonSrc);
-                    final int dst = vertexPositions.get(jsonDst);
-                    final boolean directed = dirNode.booleanValue();
-                    id = graph.addTransaction(src, dst, directed);
-                    if (jsonId != Graph.NOT_FOUND) {
-                        transactionPositions.put(jsonId, id);
-                    }                          
+                while ((current = jp.nextToken()) == JsonToken.VALUE_STRING) {
+                    columns.add(jp.getText());
                 }
-                case GRAPH, META -> id = 0;
-                case null -> id = Graph.NOT_FOUND;
-                default -> id = Graph.NOT_FOUND;
-            }
-
-            for (final Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
-                final Map.Entry<String, JsonNode> entry = it.next();
-                final String label = entry.getKey();
-                final JsonNode jnode = entry.getValue();
-                final AttrInfo ai = attributes.get(label);
-                if (ai != null && providers.containsKey(ai.attrType)) {
-                    final AbstractGraphIOProvider ioProvider = providers.get(ai.attrType);
-                    ioProvider.readObject(ai.attrId, id, jnode, graph, vertexPositions, transactionPositions, byteReader, immutableObjectCache);
-                } else if (ai != null) {
-                    throw new Exception("No IO provider found for attribute type: " + ai.attrType);
+                if (current != JsonToken.END_ARRAY) {
+                    final String msg = String.format("Expected '%s' column label, found '%s'", elementTypeLabel, current);
+                    throw new GraphParseException(msg);
                 }
+                current = jp.nextToken();
             }
 
-            if (++counter % REPORT_INTERVAL == 0) {
-                final String msg = String.format("Vertices: %d; Transactions %d", graph.getVertexCount(), graph.getTransactionCount());
-                final long charOffset = jp.getCurrentLocation().getByteOffset();
-                if (entrySize != -1 && charOffset != -1 && ph != null) {
-                    final int workunit = (int) (100 * (charOffset / (double) entrySize));
-                    ph.progress(msg, workunit);
-                } else if (ph != null) {
-                    ph.progress(msg);
+            if (lazySections != null) {
+                // When reading lazily, the structure is mapped from the file and the data is left there.
+                lazySections.add(new LazySection(elementType, chunkCount, columns, attributes, null));
+            } else {
+                final int[] elements = readChunks(graph, elementType, chunkCount, attributes, vertexPositions, transactionPositions, ph, immutableObjectCache, null);
+                for (int column = 0; column < columns.size(); column++) {
+                    readColumn(graph, elementType, column, attributes.get(columns.get(column)), columns.get(column), elements);
+                }
+            }
+        } else {
+            if (current != JsonToken.FIELD_NAME || !"data".equals(inData)) {
+                final String msg = String.format("Expected 'data', found '%s'", current);
+                throw new GraphParseException(msg);
+            }
+
+            current = jp.nextToken();
+            if (current != JsonToken.START_ARRAY) {
+                final String msg = String.format("Expected '%s' data array start, found '%s'", elementTypeLabel, current);
+                throw new GraphParseException(msg);
+            }
+
+            if (lazySections != null && elementType != GraphElementType.GRAPH) {
+                if (elementType != GraphElementType.META) {
+                    final String msg = String.format("Expected '%s' chunks in a graph file with a structure", elementTypeLabel);
+                    throw new GraphParseException(msg);
+                }
+
+                // Meta values can refer to vertices and transactions, which aren't in the graph yet, so they are read later.
+                final List<JsonNode> nodes = new ArrayList<>();
+                while (jp.nextToken() != JsonToken.END_ARRAY) {
+                    nodes.add(jp.readValueAsTree());
+                }
+                lazySections.add(new LazySection(elementType, 0, List.of(), attributes, nodes));
+            } else {
+                while (jp.nextToken() != JsonToken.END_ARRAY) {
+                    // Read the object into a tree model.
+                    final JsonNode node = jp.readValueAsTree();
+                    readElement(graph, elementType, node, attributes, vertexPositions, transactionPositions, immutableObjectCache);
+
+                    if (++counter % REPORT_INTERVAL == 0) {
+                        final String msg = String.format("Vertices: %d; Transactions %d", graph.getVertexCount(), graph.getTransactionCount());
+                        final long charOffset = jp.getCurrentLocation().getByteOffset();
+                        if (entrySize != -1 && charOffset != -1 && ph != null) {
+                            final int workunit = (int) (100 * (charOffset / (double) entrySize));
+                            ph.progress(msg, workunit);
+                        } else if (ph != null) {
+                            ph.progress(msg);
+                        }
+                    }
                 }
             }
+
+            current = jp.nextToken();
         }
 
-        current = jp.nextToken();
         if (current != JsonToken.END_OBJECT) {
             final String msg = String.format("Expected '%s' END_OBJECT after data, found '%s'", elementTypeLabel, current);
             throw new GraphParseException(msg);
@@ -765,6 +1000,401 @@ public final class GraphJsonReader {
         }
     }
 
+    /**
+     * Add an element read from a JSON file to the graph and set its attribute
+     * values.
+     *
+     * @param graph The graph being read.
+     * @param elementType The element type of the element.
+     * @param node The JSON object describing the element.
+     * @param attributes The attributes of the element type, by label.
+     * @param vertexPositions The mapping of vertex ids in the file to vertex
+     * ids in the graph.
+     * @param transactionPositions The mapping of transaction ids in the file to
+     * transaction ids in the graph.
+     * @param immutableObjectCache The cache used to deduplicate values.
+     *
+     * @return The id of the element in the graph.
+     *
+     * @throws Exception If the element can't be read.
+     */
+    private int readElement(final GraphWriteMethods graph, final GraphElementType elementType, final JsonNode node, final Map<String, AttrInfo> attributes,
+            final Map<Integer, Integer> vertexPositions, final Map<Integer, Integer> transactionPositions, final ImmutableObjectCache immutableObjectCache) throws Exception {
+        final int id;
+        switch (elementType) {
+            case VERTEX -> {
+                final JsonNode idNode = node.get(GraphFileConstants.VX_ID);
+                if (idNode == null) {
+                    final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.VX_ID, jp.getCurrentLocation());
+                    throw new GraphParseException(msg);
+                }       final int jsonId = idNode.intValue();
+                id = graph.addVertex();
+                vertexPositions.put(jsonId, id);
+            }
+            case TRANSACTION -> {
+                final JsonNode idNode = node.get(GraphFileConstants.TX_ID);
+                // We can't test for null and throw an exception here: putting the txId in the file is an afterthought,
+                // so lots of existing graphs won't have it.
+                final JsonNode srcNode = node.get(GraphFileConstants.SRC);
+                if (srcNode == null) {
+                    final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.SRC, jp.getCurrentLocation());
+                    throw new GraphParseException(msg);
+                }       
+                final JsonNode dstNode = node.get(GraphFileConstants.DST);
+                if (dstNode == null) {
+                    final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.DST, jp.getCurrentLocation());
+                    throw new GraphParseException(msg);
+                }       
+                final JsonNode dirNode = node.get(GraphFileConstants.DIR);
+                if (dirNode == null) {
+                    final String msg = String.format(DID_NOT_FIND_FORMAT, GraphFileConstants.DIR, jp.getCurrentLocation());
+                    throw new GraphParseException(msg);
+                }       
+                // Map the ids in the JSON file to the vertex ids in the graph.
+                final int jsonId = idNode != null ? idNode.intValue() : Graph.NOT_FOUND;
+                final int jsonSrc = srcNode.intValue();
+                final int jsonDst = dstNode.intValue();
+                final int src = vertexPositions.get(jsonSrc);
+                final int dst = vertexPositions.get(jsonDst);
+                final boolean directed = dirNode.booleanValue();
+                id = graph.addTransaction(src, dst, directed);
+                if (jsonId != Graph.NOT_FOUND) {
+                    transactionPositions.put(jsonId, id);
+                }                          
+            }
+            case GRAPH, META -> id = 0;
+            case null -> id = Graph.NOT_FOUND;
+            default -> id = Graph.NOT_FOUND;
+        }
+
+        readValues(graph, id, node, attributes, vertexPositions, transactionPositions, immutableObjectCache);
+
+        return id;
+    }
+
+    /**
+     * Set the attribute values of an element read from a JSON file.
+     *
+     * @param graph The graph being read.
+     * @param id The id of the element in the graph.
+     * @param node The JSON object describing the element.
+     * @param attributes The attributes of the element type, by label.
+     * @param vertexPositions The mapping of vertex ids in the file to vertex
+     * ids in the graph.
+     * @param transactionPositions The mapping of transaction ids in the file to
+     * transaction ids in the graph.
+     * @param immutableObjectCache The cache used to deduplicate values.
+     *
+     * @throws Exception If a value can't be read.
+     */
+    private void readValues(final GraphWriteMethods graph, final int id, final JsonNode node, final Map<String, AttrInfo> attributes,
+            final Map<Integer, Integer> vertexPositions, final Map<Integer, Integer> transactionPositions, final ImmutableObjectCache immutableObjectCache) throws Exception {
+        for (final Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+            final Map.Entry<String, JsonNode> entry = it.next();
+            final String label = entry.getKey();
+            final JsonNode jnode = entry.getValue();
+            final AttrInfo ai = attributes.get(label);
+            if (ai != null && providers.containsKey(ai.attrType)) {
+                final AbstractGraphIOProvider ioProvider = providers.get(ai.attrType);
+                ioProvider.readObject(ai.attrId, id, jnode, graph, vertexPositions, transactionPositions, byteReader, immutableObjectCache);
+            } else if (ai != null) {
+                throw new Exception("No IO provider found for attribute type: " + ai.attrType);
+            }
+        }
+    }
+
+    /**
+     * Read the data of a graph section that was written to separate chunk
+     * entries of the graph zip file.
+     * <p>
+     * The chunks are decompressed and parsed in parallel, a few at a time
+     * ahead of the one being added to the graph, and their elements are added
+     * to the graph in order on the calling thread.
+     *
+     * @param graph The graph being read.
+     * @param elementType The element type of the section.
+     * @param chunkCount The number of chunks in the section.
+     * @param attributes The attributes of the element type, by label.
+     * @param vertexPositions The mapping of vertex ids in the file to vertex
+     * ids in the graph.
+     * @param transactionPositions The mapping of transaction ids in the file to
+     * transaction ids in the graph.
+     * @param ph Progress handle.
+     * @param immutableObjectCache The cache used to deduplicate values.
+     * @param existing If not null, the ids of the elements already added to
+     * the graph, in the order they were written; only their values are read.
+     *
+     * @return The ids of the elements read, in the order they were written.
+     *
+     * @throws Exception If a chunk is missing or can't be read.
+     */
+    private int[] readChunks(final GraphWriteMethods graph, final GraphElementType elementType, final int chunkCount, final Map<String, AttrInfo> attributes,
+            final Map<Integer, Integer> vertexPositions, final Map<Integer, Integer> transactionPositions, final IoProgress ph, final ImmutableObjectCache immutableObjectCache,
+            final int[] existing) throws Exception {
+        if (byteReader == null) {
+            throw new GraphParseException("Graph data split into chunks can only be read from a graph zip file");
+        }
+
+        final String elementTypeLabel = IoUtilities.getGraphElementTypeString(elementType);
+        final int window = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+        final Deque<CompletableFuture<JsonNode>> pending = new ArrayDeque<>();
+        int[] elements = new int[0];
+        int elementCount = 0;
+        int next = 0;
+        try {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                while (next < chunkCount && pending.size() < window) {
+                    final String entryName = GraphFileConstants.getChunkEntryName(elementTypeLabel, next++);
+                    final ExtendedBuffer buffer = byteReader.read(entryName);
+                    if (buffer == null) {
+                        throw new GraphParseException("Entry " + entryName + " not found in graph file");
+                    }
+                    pending.add(CompletableFuture.supplyAsync(() -> parseChunk(buffer)));
+                }
+
+                final JsonNode nodes;
+                try {
+                    nodes = pending.removeFirst().join();
+                } catch (final CompletionException ex) {
+                    throw ex.getCause() instanceof Exception cause ? cause : ex;
+                }
+                if (!nodes.isArray()) {
+                    final String msg = String.format("Expected '%s' chunk %d to be an array", elementTypeLabel, chunk);
+                    throw new GraphParseException(msg);
+                }
+
+                if (existing != null) {
+                    if (elementCount + nodes.size() > existing.length) {
+                        throw new GraphParseException(String.format("Found more '%s' elements in the chunks than in the structure", elementTypeLabel));
+                    }
+                    for (final JsonNode node : nodes) {
+                        readValues(graph, existing[elementCount++], node, attributes, vertexPositions, transactionPositions, immutableObjectCache);
+                    }
+                } else {
+                    if (elements.length < elementCount + nodes.size()) {
+                        elements = Arrays.copyOf(elements, Math.max(elementCount + nodes.size(), elements.length * 2));
+                    }
+                    for (final JsonNode node : nodes) {
+                        elements[elementCount++] = readElement(graph, elementType, node, attributes, vertexPositions, transactionPositions, immutableObjectCache);
+                    }
+                }
+
+                if (ph != null) {
+                    final String msg = String.format("Vertices: %d; Transactions %d", graph.getVertexCount(), graph.getTransactionCount());
+                    ph.progress(msg);
+                }
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(false));
+        }
+
+        return existing != null ? existing : Arrays.copyOf(elements, elementCount);
+    }
+
+    /**
+     * Set the values of an attribute of a graph section that were written to a
+     * binary column entry of the graph zip file.
+     *
+     * @param graph The graph being read.
+     * @param elementType The element type of the section.
+     * @param column The index of the column in the section.
+     * @param ai The attribute held in the column.
+     * @param label The label of the attribute.
+     * @param elements The ids of the elements of the section, in the order
+     * they were written.
+     *
+     * @throws Exception If the column is missing or can't be read.
+     */
+    private void readColumn(final GraphWriteMethods graph, final GraphElementType elementType, final int column, final AttrInfo ai, final String label,
+            final int[] elements) throws Exception {
+        if (ai == null) {
+            throw new GraphParseException("Column found for unknown attribute " + label);
+        }
+
+        final String entryName = GraphFileConstants.getColumnEntryName(IoUtilities.getGraphElementTypeString(elementType), column);
+        final ByteBuffer buffer = readEntry(entryName);
+        if (buffer == null) {
+            throw new GraphParseException("Entry " + entryName + " not found in graph file");
+        }
+        GraphColumnCodec.decode(graph, ai.attrId, ai.attrType, elements, elements.length, buffer);
+    }
+
+    /**
+     * Read an entry of the graph zip file, mapping it from the file if it is
+     * being read lazily.
+     *
+     * @param entryName The name of the entry.
+     *
+     * @return The contents of the entry, or null if there is no such entry.
+     *
+     * @throws IOException If the entry can't be read.
+     */
+    private ByteBuffer readEntry(final String entryName) throws IOException {
+        if (mappedZip != null) {
+            final ByteBuffer mapped = mappedZip.map(entryName);
+            if (mapped != null || !mappedZip.contains(entryName)) {
+                return mapped;
+            }
+        }
+
+        final ExtendedBuffer buffer = byteReader != null ? byteReader.read(entryName) : null;
+        return buffer != null ? ByteBuffer.wrap(buffer.getData()) : null;
+    }
+
+    /**
+     * Leave the data of a section of a lazily read graph to be read when it is
+     * first needed.
+     * <p>
+     * Each column is read on its own; the attributes held in the chunks, or in
+     * the data of the meta section, are read together.
+     *
+     * @param lazyGraph The graph being read.
+     * @param section The section.
+     * @param vertexPositions The mapping of vertex ids in the file to vertex
+     * ids in the graph.
+     * @param transactionPositions The mapping of transaction ids in the file to
+     * transaction ids in the graph.
+     */
+    private void deferSection(final LazyGraph lazyGraph, final LazySection section, final Map<Integer, Integer> vertexPositions,
+            final Map<Integer, Integer> transactionPositions) {
+        final int elementCount = switch (section.elementType()) {
+            case VERTEX -> lazyGraph.getVertexCount();
+            case TRANSACTION -> lazyGraph.getTransactionCount();
+            default -> 1;
+        };
+
+        // The ids of the elements of the graph are their positions.
+        final LazyGraph.Loader dataLoader;
+        if (section.nodes() != null) {
+            dataLoader = g -> {
+                final ImmutableObjectCache immutableObjectCache = new ImmutableObjectCache();
+                for (final JsonNode node : section.nodes()) {
+                    readValues(g, 0, node, section.attributes(), vertexPositions, transactionPositions, immutableObjectCache);
+                }
+            };
+        } else {
+            dataLoader = g -> readChunks(g, section.elementType(), section.chunkCount(), section.attributes(), vertexPositions, transactionPositions,
+                    null, new ImmutableObjectCache(), IntStream.range(0, elementCount).toArray());
+        }
+        section.attributes().forEach((label, ai) -> {
+            if (!section.columns().contains(label)) {
+                lazyGraph.defer(ai.attrId, dataLoader);
+            }
+        });
+
+        for (int column = 0; column < section.columns().size(); column++) {
+            final int index = column;
+            final String label = section.columns().get(column);
+            final AttrInfo ai = section.attributes().get(label);
+            if (ai != null) {
+                lazyGraph.defer(ai.attrId, g -> readColumn(g, section.elementType(), index, ai, label, IntStream.range(0, elementCount).toArray()));
+            }
+        }
+    }
+
+    /**
+     * Decompress and parse a chunk of a graph zip file.
+     *
+     * @param buffer The contents of the chunk entry.
+     *
+     * @return The JSON array of elements in the chunk.
+     */
+    private static JsonNode parseChunk(final ExtendedBuffer buffer) {
+        try (final InputStream in = new GZIPInputStream(buffer.getInputStream(), 1 << 16); final JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return parser.readValueAsTree();
+        } catch (final IOException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * A section of a lazily read graph whose data has not been read yet.
+     *
+     * @param elementType The element type of the section.
+     * @param chunkCount The number of chunks in the section.
+     * @param columns The labels of the attributes held in binary columns.
+     * @param attributes The attributes of the section, by label.
+     * @param nodes The data of the section, if it isn't held in chunks.
+     */
+    private record LazySection(GraphElementType elementType, int chunkCount, List<String> columns, Map<String, AttrInfo> attributes, List<JsonNode> nodes) {
+    }
+
+    /**
+     * The positions of the vertices or transactions of a lazily read graph, by
+     * their ids in the file.
+     * <p>
+     * The positions of transactions are only needed by a few attribute types,
+     * so they are indexed when they are first looked up.
+     */
+    private static final class FilePositions extends AbstractMap<Integer, Integer> {
+
+        private final IntBuffer fileIds;
+        private int[] positions;
+        private boolean isIndexed;
+
+        /**
+         * Create the positions of elements from their ids in the file.
+         *
+         * @param fileIds The id in the file of the element at each position.
+         * @param positions The position of each id, as returned by
+         * getPositions, or null to index them when they are first needed.
+         */
+        FilePositions(final IntBuffer fileIds, final int[] positions) {
+            this.fileIds = fileIds;
+            this.positions = positions;
+            isIndexed = positions != null;
+        }
+
+        private int[] getIndex() {
+            if (!isIndexed) {
+                try {
+                    positions = getPositions(fileIds);
+                } catch (final GraphParseException ex) {
+                    throw new IllegalStateException(ex.getMessage(), ex);
+                }
+                isIndexed = true;
+            }
+            return positions;
+        }
+
+        @Override
+        public Integer get(final Object key) {
+            if (!(key instanceof Integer id) || id < 0) {
+                return null;
+            }
+            final int[] index = getIndex();
+            if (index == null) {
+                return id < fileIds.limit() ? id : null;
+            }
+            return id < index.length && index[id] != Graph.NOT_FOUND ? index[id] : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return fileIds.limit();
+        }
+
+        @Override
+        public Set<Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, Integer>> iterator() {
+                    return IntStream.range(0, fileIds.limit()).mapToObj(position -> Map.entry(fileIds.get(position), position)).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return fileIds.limit();
+                }
+            };
+        }
+    }
+
     /**
      * Maintain attribute information.
      */
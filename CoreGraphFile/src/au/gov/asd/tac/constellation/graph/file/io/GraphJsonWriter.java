@@ -36,19 +36,28 @@ import au.gov.asd.tac.constellation.utilities.text.StringUtilities;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.apache.commons.io.IOUtils;
@@ -67,18 +76,24 @@ public final class GraphJsonWriter implements Cancellable {
     /**
      * The current file format version.
      */
-    public static final int VERSION = 2;
+    public static final int VERSION = 3;
+    /**
+     * The maximum number of elements in each chunk of a graph zip file.
+     */
+    public static final int CHUNK_SIZE = 50000;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     private static final List<GraphElementType> ELEMENT_TYPES_FILE_ORDER = Arrays.asList(GraphElementType.GRAPH, GraphElementType.VERTEX, GraphElementType.TRANSACTION, GraphElementType.META);
     private static final int REPORT_INTERVAL = 10000;
     private IoProgress progress;
     private int counter;
     private volatile boolean isCancelled;
+    private boolean binaryColumns = true;
     private final GraphByteWriter byteWriter;
     private final HashMap<String, AbstractGraphIOProvider> graphIoProviders = new HashMap<>();
 
     private static final String DEFAULT_FIELD = "default";
 
-    private final List<String> customIconList = new ArrayList<>();
+    private final Set<String> customIconList = ConcurrentHashMap.newKeySet();
 
     /**
      * Construct a new GraphJsonWriter.
@@ -90,6 +105,21 @@ public final class GraphJsonWriter implements Cancellable {
         }
     }
 
+    /**
+     * Set whether the values of primitive vertex and transaction attributes are
+     * written to binary columns when a graph is written to a zip file.
+     * <p>
+     * Binary columns are smaller and much faster to read and write, but can't
+     * be read by tools that expect all values to be in the JSON. They are
+     * written by default.
+     *
+     * @param binaryColumns True to write binary columns, false to write all
+     * values as JSON.
+     */
+    public void setBinaryColumns(final boolean binaryColumns) {
+        this.binaryColumns = binaryColumns;
+    }
+
     /**
      * Serialise a graph to a file with all elements written.
      * <p>
@@ -163,6 +193,13 @@ public final class GraphJsonWriter implements Cancellable {
      * <p>
      * The OutputStream will be wrapped in a ZipOutputStream and the graph and
      * any ancillary files will be written as ZipEntry files.
+     * <p>
+     * The data of the vertex and transaction sections is split into chunks of
+     * at most {@link #CHUNK_SIZE} elements, each of which is written as a
+     * separately compressed ZipEntry. If binary columns are enabled, the values
+     * of primitive attributes are written to a ZipEntry per attribute instead
+     * (see {@link GraphColumnCodec}). The chunks and columns are encoded in
+     * parallel and written to the zip file in order.
      *
      * @param graph The graph to serialise.
      * @param out The OutputStream to write a zip file to.
@@ -175,13 +212,18 @@ public final class GraphJsonWriter implements Cancellable {
      */
     public boolean writeGraphToZip(final GraphReadMethods graph, final OutputStream out, final IoProgress progress, final List<GraphElementType> elementTypes) throws IOException {
         this.progress = progress;
+        startProgress(graph);
 
         try (final ZipOutputStream zout = new ZipOutputStream(out)) {
+            final List<Part> chunks = new ArrayList<>();
             final ZipEntry zentry = new ZipEntry("graph" + GraphFileConstants.FILE_EXTENSION);
             zout.putNextEntry(zentry);
-            writeGraphToStream(graph, zout, false, elementTypes);
+            writeJson(graph, zout, false, elementTypes, chunks);
             zout.closeEntry();
             try {
+                if (!isCancelled) {
+                    writeParts(graph, zout, chunks);
+                }
                 if (!isCancelled) {
                     for (final Entry<String, File> entry : byteWriter.getFileMap().entrySet()) {
                         final String reference = entry.getKey();
@@ -215,6 +257,10 @@ public final class GraphJsonWriter implements Cancellable {
             } finally {
                 byteWriter.reset();
             }
+        } finally {
+            if (progress != null) {
+                progress.finish();
+            }
         }
 
         return isCancelled;
@@ -249,21 +295,50 @@ public final class GraphJsonWriter implements Cancellable {
      * @throws IOException If an I/O error occurs.
      */
     public boolean writeGraphToStream(final GraphReadMethods graph, final OutputStream out, final boolean verbose, final List<GraphElementType> elementTypes) throws IOException {
+        startProgress(graph);
+        try {
+            writeJson(graph, out, verbose, elementTypes, null);
+        } finally {
+            if (progress != null) {
+                progress.finish();
+            }
+        }
+
+        return isCancelled;
+    }
+
+    private void startProgress(final GraphReadMethods graph) {
+        counter = 0;
+        isCancelled = false;
+        customIconList.clear();
+
+        if (progress != null) {
+            progress.start(graph.getVertexCount() + graph.getTransactionCount());
+        }
+    }
+
+    /**
+     * Write the JSON document describing a graph.
+     *
+     * @param graph The graph to serialise.
+     * @param out The OutputStream to write to.
+     * @param verbose Determines whether to write default values of attributes
+     * or not.
+     * @param elementTypes The GraphElementTypes to serialise.
+     * @param chunks If not null, the data of the vertex, transaction and meta
+     * sections is not written to the document; the chunks to write it to are
+     * added to this list instead.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeJson(final GraphReadMethods graph, final OutputStream out, final boolean verbose, final List<GraphElementType> elementTypes, final List<Part> chunks) throws IOException {
         // Get a new JSON writer.
         // Don't close the underlying zip stream automatically.
-        final JsonGenerator jg = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+        final JsonGenerator jg = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
         jg.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
         jg.useDefaultPrettyPrinter();
 
-        counter = 0;
-        isCancelled = false;
-
         try {
-            final int total = graph.getVertexCount() + graph.getTransactionCount();
-            if (progress != null) {
-                progress.start(total);
-            }
-
             jg.writeStartArray();
 
             jg.writeStartObject();
@@ -293,7 +368,7 @@ public final class GraphJsonWriter implements Cancellable {
             jg.writeEndObject();
             for (final GraphElementType elementType : ELEMENT_TYPES_FILE_ORDER) {
                 if (!isCancelled) {
-                    writeElements(jg, graph, elementType, verbose, elementTypes.contains(elementType));
+                    writeElements(jg, graph, elementType, verbose, elementTypes.contains(elementType), chunks);
                 }
             }
 
@@ -302,13 +377,7 @@ public final class GraphJsonWriter implements Cancellable {
             LOGGER.log(Level.SEVERE, ex.getLocalizedMessage(), ex);
         } finally {
             jg.close();
-
-            if (progress != null) {
-                progress.finish();
-            }
         }
-
-        return isCancelled;
     }
 
     /**
@@ -319,10 +388,12 @@ public final class GraphJsonWriter implements Cancellable {
      * @param elementType The GraphElementType being written.
      * @param writeData If false, write out the attributes but not the data for
      * the given element type.
+     * @param chunks If not null, the chunks and columns that the data of a
+     * vertex or transaction section is written to instead of the document.
      *
      * @throws IOException
      */
-    private void writeElements(final JsonGenerator jg, final GraphReadMethods graph, final GraphElementType elementType, final boolean verbose, final boolean writeData) throws Exception {
+    private void writeElements(final JsonGenerator jg, final GraphReadMethods graph, final GraphElementType elementType, final boolean verbose, final boolean writeData, final List<Part> chunks) throws Exception {
         final String elementTypeLabel = IoUtilities.getGraphElementTypeString(elementType);
 
         if (progress != null) {
@@ -400,13 +471,91 @@ public final class GraphJsonWriter implements Cancellable {
 
         jg.writeEndObject();
 
+        final int elementCount = switch (elementType) {
+            case VERTEX -> graph.getVertexCount();
+            case TRANSACTION -> graph.getTransactionCount();
+            default -> 1;
+        };
+
         // Write the main graph data (graph, vertex, transaction).
         jg.writeStartObject();
-        jg.writeArrayFieldStart("data");
+        if (writeData && chunks != null && (elementType == GraphElementType.VERTEX || elementType == GraphElementType.TRANSACTION)) {
+            // Primitive attributes go to their own columns, the rest to the chunks.
+            final List<Attribute> chunkAttrs = new ArrayList<>();
+            final List<Attribute> columnAttrs = new ArrayList<>();
+            for (final Attribute attr : attrs) {
+                if (binaryColumns && GraphColumnCodec.isSupported(attr.getAttributeType())) {
+                    columnAttrs.add(attr);
+                } else {
+                    chunkAttrs.add(attr);
+                }
+            }
 
-        if (!writeData) {
-            // Do nothing
-        } else if (elementType == GraphElementType.GRAPH || elementType == GraphElementType.META) {
+            // With binary columns, the structure is also written so that it can be read without the chunks.
+            if (binaryColumns) {
+                chunks.add(new Structure(GraphFileConstants.getStructureEntryName(elementTypeLabel), elementType));
+            }
+
+            // Refer to the chunks and columns that the data will be written to.
+            final int chunkCount = (elementCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            jg.writeNumberField(GraphFileConstants.CHUNKS, chunkCount);
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                final int start = chunk * CHUNK_SIZE;
+                chunks.add(new Chunk(GraphFileConstants.getChunkEntryName(elementTypeLabel, chunk), elementType, chunkAttrs, ioProviders, verbose,
+                        start, Math.min(elementCount, start + CHUNK_SIZE)));
+            }
+            if (!columnAttrs.isEmpty()) {
+                jg.writeArrayFieldStart(GraphFileConstants.COLUMNS);
+                for (int column = 0; column < columnAttrs.size(); column++) {
+                    final Attribute attr = columnAttrs.get(column);
+                    jg.writeString(attr.getName());
+                    chunks.add(new Column(GraphFileConstants.getColumnEntryName(elementTypeLabel, column), elementType, attr.getId(), attr.getAttributeType()));
+                }
+                jg.writeEndArray();
+            }
+        } else {
+            jg.writeArrayFieldStart("data");
+            if (writeData) {
+                for (int position = 0; position < elementCount; position++) {
+                    writeElement(jg, graph, elementType, position, attrs, ioProviders, verbose);
+
+                    if (elementType == GraphElementType.VERTEX || elementType == GraphElementType.TRANSACTION) {
+                        counter++;
+                        if (counter % REPORT_INTERVAL == 0 && isCancelled) {
+                            return;
+                        } else if (counter % REPORT_INTERVAL == 0 && progress != null) {
+                            progress.progress(counter);
+                        }
+                    }
+                }
+            }
+            jg.writeEndArray();
+        }
+        jg.writeEndObject();
+
+        jg.writeEndArray();
+        jg.writeEndObject();
+    }
+
+    /**
+     * Write a single element of a Graph to JSON.
+     *
+     * @param jg The JsonGenerator to use for writing.
+     * @param graph The graph.
+     * @param elementType The GraphElementType being written.
+     * @param position The position of the element being written.
+     * @param attrs The attributes to write.
+     * @param ioProviders The I/O providers of the attributes, indexed by
+     * attribute id.
+     * @param verbose Determines whether to write default values of attributes
+     * or not.
+     *
+     * @throws Exception If an attribute has no I/O provider, or an I/O error
+     * occurs.
+     */
+    private void writeElement(final JsonGenerator jg, final GraphReadMethods graph, final GraphElementType elementType, final int position,
+            final List<Attribute> attrs, final AbstractGraphIOProvider[] ioProviders, final boolean verbose) throws Exception {
+        if (elementType == GraphElementType.GRAPH || elementType == GraphElementType.META) {
             jg.writeStartObject();
             for (final Attribute attr : attrs) {
                 final AbstractGraphIOProvider ioProvider = ioProviders[attr.getId()];
@@ -426,78 +575,139 @@ public final class GraphJsonWriter implements Cancellable {
 
             jg.writeEndObject();
         } else if (elementType == GraphElementType.VERTEX) {
-            customIconList.clear();
-            for (int position = 0; position < graph.getVertexCount(); position++) {
-                final int vxId = graph.getVertex(position);
-
-                jg.writeStartObject();
-                jg.writeNumberField(GraphFileConstants.VX_ID, vxId);
-                for (final Attribute attr : attrs) {
-                    if ("icon".equals(attr.getName())) {
-                        // get each of the custom icon images present in the graph being saved
-                        final String attrData = graph.getStringValue(attr.getId(), vxId);
-                        if (!customIconList.contains(attrData) && DefaultCustomIconProvider.containsIcon(attrData)) {
-                            // confirmed that the icon is part of the custom set
-                            // store it in a custom list (no duplication)
-                            customIconList.add(attrData);
-                        }
-                    }
-                    final AbstractGraphIOProvider ioProvider = ioProviders[attr.getId()];
-                    if (ioProvider != null) {
-                        // Get the provider to write its data into an ObjectNode.
-                        // If they didn't write anything, don't write the data to the JSON.
-                        ioProvider.writeObject(attr, vxId, jg, graph, byteWriter, verbose);
-                    } else {
-                        throw new Exception("No IO provider found for attribute type: " + attr.getAttributeType());
-                    }
+            final int vxId = graph.getVertex(position);
 
+            jg.writeStartObject();
+            jg.writeNumberField(GraphFileConstants.VX_ID, vxId);
+            for (final Attribute attr : attrs) {
+                if ("icon".equals(attr.getName())) {
+                    // get each of the custom icon images present in the graph being saved
+                    final String attrData = graph.getStringValue(attr.getId(), vxId);
+                    if (!customIconList.contains(attrData) && DefaultCustomIconProvider.containsIcon(attrData)) {
+                        // confirmed that the icon is part of the custom set
+                        // store it in a custom list (no duplication)
+                        customIconList.add(attrData);
+                    }
                 }
-
-                jg.writeEndObject();
-
-                counter++;
-                if (counter % REPORT_INTERVAL == 0 && isCancelled) {
-                    return;
-                } else if (counter % REPORT_INTERVAL == 0 && progress != null) {
-                    progress.progress(counter);
+                final AbstractGraphIOProvider ioProvider = ioProviders[attr.getId()];
+                if (ioProvider != null) {
+                    // Get the provider to write its data into an ObjectNode.
+                    // If they didn't write anything, don't write the data to the JSON.
+                    ioProvider.writeObject(attr, vxId, jg, graph, byteWriter, verbose);
+                } else {
+                    throw new Exception("No IO provider found for attribute type: " + attr.getAttributeType());
                 }
+
             }
+
+            jg.writeEndObject();
         } else if (elementType == GraphElementType.TRANSACTION) {
-            for (int position = 0; position < graph.getTransactionCount(); position++) {
-                final int txId = graph.getTransaction(position);
-
-                jg.writeStartObject();
-                jg.writeNumberField(GraphFileConstants.TX_ID, txId);
-                jg.writeNumberField(GraphFileConstants.SRC, graph.getTransactionSourceVertex(txId));
-                jg.writeNumberField(GraphFileConstants.DST, graph.getTransactionDestinationVertex(txId));
-                jg.writeBooleanField(GraphFileConstants.DIR, graph.getTransactionDirection(txId) != Graph.UNDIRECTED);
-                for (final Attribute attr : attrs) {
-                    final AbstractGraphIOProvider ioProvider = ioProviders[attr.getId()];
-                    if (ioProvider != null) {
-                        // Get the provider to write its data into an ObjectNode.
-                        // If they didn't write anything, don't write the data to the JSON.
-                        ioProvider.writeObject(attr, txId, jg, graph, byteWriter, verbose);
-                    } else {
-                        throw new Exception("No IO provider found for attribute type: " + attr.getAttributeType());
-                    }
+            final int txId = graph.getTransaction(position);
+
+            jg.writeStartObject();
+            jg.writeNumberField(GraphFileConstants.TX_ID, txId);
+            jg.writeNumberField(GraphFileConstants.SRC, graph.getTransactionSourceVertex(txId));
+            jg.writeNumberField(GraphFileConstants.DST, graph.getTransactionDestinationVertex(txId));
+            jg.writeBooleanField(GraphFileConstants.DIR, graph.getTransactionDirection(txId) != Graph.UNDIRECTED);
+            for (final Attribute attr : attrs) {
+                final AbstractGraphIOProvider ioProvider = ioProviders[attr.getId()];
+                if (ioProvider != null) {
+                    // Get the provider to write its data into an ObjectNode.
+                    // If they didn't write anything, don't write the data to the JSON.
+                    ioProvider.writeObject(attr, txId, jg, graph, byteWriter, verbose);
+                } else {
+                    throw new Exception("No IO provider found for attribute type: " + attr.getAttributeType());
                 }
+            }
+
+            jg.writeEndObject();
+        }
+    }
 
-                jg.writeEndObject();
+    /**
+     * Encode the chunks and columns of element data in parallel and write them
+     * to the zip file in order.
+     * <p>
+     * Only a few parts more than there are threads are encoded ahead of the
+     * one being written, so the encoded parts held in memory are bounded.
+     *
+     * @param graph The graph.
+     * @param zout The zip file to write to.
+     * @param parts The chunks and columns to write.
+     *
+     * @throws IOException If a part can't be encoded or written.
+     */
+    private void writeParts(final GraphReadMethods graph, final ZipOutputStream zout, final List<Part> parts) throws IOException {
+        final int window = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+        final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (final Part part : parts) {
+                while (next < parts.size() && pending.size() < window) {
+                    final Part toEncode = parts.get(next++);
+                    pending.add(CompletableFuture.supplyAsync(() -> switch (toEncode) {
+                        case Chunk chunk -> encodeChunk(graph, chunk);
+                        case Column column -> GraphColumnCodec.encode(graph, column.elementType(), column.attributeId(), column.attributeType());
+                        case Structure structure -> GraphColumnCodec.encodeStructure(graph, structure.elementType());
+                    }));
+                }
 
-                counter++;
-                if (counter % REPORT_INTERVAL == 0 && isCancelled) {
+                final byte[] bytes;
+                try {
+                    bytes = pending.removeFirst().join();
+                } catch (final CompletionException ex) {
+                    throw ex.getCause() instanceof IOException ioe ? ioe : new IOException(ex.getCause());
+                }
+                if (isCancelled) {
                     return;
-                } else if (counter % REPORT_INTERVAL == 0 && progress != null) {
-                    progress.progress(counter);
+                }
+
+                // Chunks are already compressed, and columns and structure are
+                // left as they are so that they can be mapped from the file.
+                final CRC32 crc = new CRC32();
+                crc.update(bytes);
+                final ZipEntry entry = new ZipEntry(part.name());
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(bytes.length);
+                entry.setCompressedSize(bytes.length);
+                entry.setCrc(crc.getValue());
+                zout.putNextEntry(entry);
+                zout.write(bytes);
+                zout.closeEntry();
+
+                if (part instanceof Chunk chunk) {
+                    counter += chunk.end() - chunk.start();
+                    if (progress != null) {
+                        progress.progress(counter);
+                    }
                 }
             }
+        } finally {
+            pending.forEach(future -> future.cancel(false));
         }
+    }
 
-        jg.writeEndArray();
-        jg.writeEndObject();
+    /**
+     * Encode a chunk of element data as a gzipped JSON array of elements.
+     *
+     * @param graph The graph.
+     * @param chunk The chunk to encode.
+     *
+     * @return The encoded chunk.
+     */
+    private byte[] encodeChunk(final GraphReadMethods graph, final Chunk chunk) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes, 1 << 16); final JsonGenerator jg = JSON_FACTORY.createGenerator(gzip, JsonEncoding.UTF8)) {
+            jg.writeStartArray();
+            for (int position = chunk.start(); position < chunk.end() && !isCancelled; position++) {
+                writeElement(jg, graph, chunk.elementType(), position, chunk.attrs(), chunk.ioProviders(), chunk.verbose());
+            }
+            jg.writeEndArray();
+        } catch (final Exception ex) {
+            throw new CompletionException(ex);
+        }
 
-        jg.writeEndArray();
-        jg.writeEndObject();
+        return bytes.toByteArray();
     }
 
     /**
@@ -517,4 +727,33 @@ public final class GraphJsonWriter implements Cancellable {
 
         return true;
     }
+
+    /**
+     * Part of the element data that is written to its own ZipEntry.
+     */
+    private sealed interface Part permits Chunk, Column, Structure {
+
+        String name();
+    }
+
+    /**
+     * A range of elements of one type, by position, that is written to its own
+     * ZipEntry.
+     */
+    private record Chunk(String name, GraphElementType elementType, List<Attribute> attrs, AbstractGraphIOProvider[] ioProviders, boolean verbose, int start, int end) implements Part {
+    }
+
+    /**
+     * The values of a primitive attribute that are written to their own
+     * ZipEntry as a binary column.
+     */
+    private record Column(String name, GraphElementType elementType, int attributeId, String attributeType) implements Part {
+    }
+
+    /**
+     * The structure of the vertices or transactions that is written to its own
+     * ZipEntry in binary.
+     */
+    private record Structure(String name, GraphElementType elementType) implements Part {
+    }
 }
@@ -0,0 +1,1160 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.DuplicateKeyException;
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphAttributeMerger;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
+import au.gov.asd.tac.constellation.graph.GraphKey;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.NativeAttributeType;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
+import au.gov.asd.tac.constellation.graph.monitor.GraphChangeListener;
+import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
+import au.gov.asd.tac.constellation.graph.schema.Schema;
+import au.gov.asd.tac.constellation.graph.value.readables.IntReadable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import javax.swing.undo.UndoManager;
+
+/**
+ * A read only graph opened from a graph zip file whose attribute values are
+ * read when they are first needed.
+ * <p>
+ * When it is opened by {@link GraphJsonReader#readGraphLazily}, only the
+ * attributes and graph values are read. The vertices and transactions are not
+ * copied into memory: the sources, destinations and directions of the
+ * transactions are read from the structure entries that are mapped from the
+ * file. The links and edges, which the file doesn't hold, are worked out from
+ * the transactions the first time they are asked for.
+ * <p>
+ * The values of a vertex or transaction attribute are read from the file the
+ * first time any of them are asked for: a binary column is mapped from the
+ * file and copied into memory, and the attributes whose values are held in the
+ * JSON chunks of a section are read together. Until then the graph holds no
+ * memory for the values that have not been read, so views that only look at
+ * some of the attributes of a large graph can start straight away.
+ * <p>
+ * The ids of the vertices and transactions are their positions. The graph is
+ * its own {@link ReadableGraph}, so it can be shown by views that read from a
+ * {@link Graph}; asking for a writable graph throws an
+ * UnsupportedOperationException. Values are read under a lock, so the graph
+ * can be read from several threads, and reading them does not change the
+ * modification counters of the graph.
+ * <p>
+ * The file is kept open until {@link #closeFile} is called; values that have
+ * not been read by then can no longer be read.
+ *
+ * @author algol
+ */
+public class LazyGraph implements Graph, ReadableGraph {
+
+    private static final String READ_ONLY = "A graph opened lazily is read only";
+
+    // Holds the attributes, keys, modification counters and graph values, but no vertices or transactions.
+    private final StoreGraph store;
+    private final File file;
+    private final MappedZipFile zip;
+    private final int vertexCount;
+    // The vertex ids in the file of the ends of each transaction, and whether it is directed.
+    private final IntBuffer sources;
+    private final IntBuffer destinations;
+    private final IntBuffer directed;
+    // The position of each vertex id in the file, or null if they are the same.
+    private final int[] vertexPositions;
+    // The values of the vertex and transaction attributes that have been read.
+    private final AttributeDescription[] columns;
+    private final GraphIndex[] indices;
+    private final Map<Integer, Loader> pending;
+    private final Object lock;
+    private volatile LazyTopology topology;
+
+    /**
+     * Reads the values of one or more attributes into the graph.
+     */
+    @FunctionalInterface
+    interface Loader {
+
+        void load(final GraphWriteMethods graph) throws Exception;
+    }
+
+    /**
+     * Create a graph from its structure.
+     *
+     * @param store The attributes of the graph and the values of its GRAPH and
+     * META attributes, with no vertices or transactions. The values of vertex
+     * and transaction attributes are read from the store until a loader has
+     * been set for them.
+     * @param file The file the graph was opened from.
+     * @param zip The graph zip file to read values from, or null if all of the
+     * values were read when it was opened.
+     * @param vertexCount The number of vertices.
+     * @param sources The vertex id in the file of the source of each
+     * transaction.
+     * @param destinations The vertex id in the file of the destination of each
+     * transaction.
+     * @param directed Non-zero for each transaction that is directed.
+     * @param vertexPositions The position of each vertex id in the file, or
+     * null if they are the same.
+     */
+    LazyGraph(final StoreGraph store, final File file, final MappedZipFile zip, final int vertexCount, final IntBuffer sources, final IntBuffer destinations,
+            final IntBuffer directed, final int[] vertexPositions) {
+        this.store = store;
+        this.file = file;
+        this.zip = zip;
+        this.vertexCount = vertexCount;
+        this.sources = sources;
+        this.destinations = destinations;
+        this.directed = directed;
+        this.vertexPositions = vertexPositions;
+        columns = new AttributeDescription[store.getAttributeCapacity()];
+        indices = new GraphIndex[columns.length];
+        Arrays.fill(indices, AttributeDescription.NULL_GRAPH_INDEX);
+        pending = new ConcurrentHashMap<>();
+        lock = new Object();
+    }
+
+    /**
+     * Share the state of another graph.
+     *
+     * @param graph The graph.
+     */
+    private LazyGraph(final LazyGraph graph) {
+        store = graph.store;
+        file = graph.file;
+        zip = graph.zip;
+        vertexCount = graph.vertexCount;
+        sources = graph.sources;
+        destinations = graph.destinations;
+        directed = graph.directed;
+        vertexPositions = graph.vertexPositions;
+        columns = graph.columns;
+        indices = graph.indices;
+        pending = graph.pending;
+        lock = graph.lock;
+    }
+
+    /**
+     * Leave the values of an attribute to be read when they are first needed.
+     *
+     * @param attribute The id of the attribute.
+     * @param loader Reads the values of the attribute. A loader may be shared
+     * by several attributes, in which case their values are read together.
+     */
+    void defer(final int attribute, final Loader loader) {
+        pending.put(attribute, loader);
+    }
+
+    /**
+     * The file this graph was opened from.
+     *
+     * @return The graph zip file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Have the values of the given attribute been read from the file?
+     *
+     * @param attribute The id of the attribute.
+     *
+     * @return True if the values of the attribute are in memory, false if
+     * they will be read from the file when they are first needed.
+     */
+    public boolean isLoaded(final int attribute) {
+        return !pending.containsKey(attribute);
+    }
+
+    /**
+     * Read the values of all of the attributes that have not been read yet.
+     */
+    public void loadAll() {
+        for (final Loader loader : Set.copyOf(pending.values())) {
+            load(loader);
+        }
+    }
+
+    /**
+     * Close the file this graph was opened from.
+     * <p>
+     * The structure of the graph is mapped from the file, so the graph can't
+     * be read at all once the file is closed.
+     *
+     * @throws IOException If the file can't be closed.
+     */
+    public void closeFile() throws IOException {
+        if (zip != null) {
+            zip.close();
+        }
+    }
+
+    /**
+     * The values of a vertex or transaction attribute, read from the file if
+     * they haven't been already.
+     *
+     * @param attribute The id of the attribute.
+     *
+     * @return The values of the attribute, or null if they are held by the
+     * store.
+     */
+    AttributeDescription getColumn(final int attribute) {
+        if (!pending.isEmpty()) {
+            final Loader loader = pending.get(attribute);
+            if (loader != null) {
+                load(loader);
+            }
+        }
+        return columns[attribute];
+    }
+
+    /**
+     * The links and edges of the graph, worked out when they are first needed.
+     *
+     * @return The links and edges of the graph.
+     */
+    LazyTopology getTopology() {
+        LazyTopology result = topology;
+        if (result == null) {
+            synchronized (lock) {
+                result = topology;
+                if (result == null) {
+                    result = new LazyTopology(this);
+                    topology = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void load(final Loader loader) {
+        synchronized (lock) {
+            // Another thread may have read the values while this one was waiting.
+            final List<Integer> attributes = pending.entrySet().stream()
+                    .filter(entry -> entry.getValue() == loader)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (attributes.isEmpty()) {
+                return;
+            }
+
+            final Map<Integer, AttributeDescription> loading = new HashMap<>();
+            for (final int attribute : attributes) {
+                loading.put(attribute, createColumn(attribute));
+            }
+
+            try {
+                loader.load(new ColumnWriter(this, loading));
+            } catch (final Exception ex) {
+                throw new IllegalStateException("Unable to read attribute values from " + file, ex);
+            }
+
+            loading.forEach((attribute, column) -> {
+                final GraphIndexType indexType = store.getAttributeIndexType(attribute);
+                if (indexType != GraphIndexType.NONE && column.supportsIndexType(indexType)) {
+                    final GraphIndex index = column.createIndex(indexType);
+                    final int count = getElementCount(attribute);
+                    for (int id = 0; id < count; id++) {
+                        index.addElement(id);
+                    }
+                    indices[attribute] = index;
+                }
+                columns[attribute] = column;
+            });
+
+            // Removing the attributes publishes their values to other threads.
+            attributes.forEach(pending::remove);
+        }
+    }
+
+    private AttributeDescription createColumn(final int attribute) {
+        final AttributeDescription column;
+        try {
+            column = store.getAttributeDataType(attribute).getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to create attribute " + store.getAttributeName(attribute), ex);
+        }
+        column.setGraph(this);
+        column.setDefault(store.getAttributeDefaultValue(attribute));
+        column.setCapacity(getElementCount(attribute));
+        return column;
+    }
+
+    private int getElementCount(final int attribute) {
+        return switch (store.getAttributeElementType(attribute)) {
+            case VERTEX -> vertexCount;
+            case TRANSACTION -> getTransactionCount();
+            default -> 1;
+        };
+    }
+
+    private int getVertexPositionInFile(final int fileId) {
+        return vertexPositions == null ? fileId : vertexPositions[fileId];
+    }
+
+    @Override
+    public ReadableGraph getReadableGraph() {
+        return this;
+    }
+
+    @Override
+    public void release() {
+        // Nothing is locked, so there is nothing to release.
+    }
+
+    @Override
+    public WritableGraph getWritableGraph(final String name, final boolean significant) throws InterruptedException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public WritableGraph getWritableGraph(final String name, final boolean significant, final Object editor) throws InterruptedException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public WritableGraph getWritableGraphNow(final String name, final boolean significant) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public WritableGraph getWritableGraphNow(final String name, final boolean significant, final Object editor) {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void addGraphChangeListener(final GraphChangeListener listener) {
+        // The graph never changes.
+    }
+
+    @Override
+    public void removeGraphChangeListener(final GraphChangeListener listener) {
+        // The graph never changes.
+    }
+
+    @Override
+    public void setUndoManager(final UndoManager undoManager) {
+        // The graph is never edited, so there is nothing to undo.
+    }
+
+    @Override
+    public String getId() {
+        return store.getId();
+    }
+
+    @Override
+    public Schema getSchema() {
+        return store.getSchema();
+    }
+
+    @Override
+    public boolean isRecordingEdit() {
+        return false;
+    }
+
+    @Override
+    public long getGlobalModificationCounter() {
+        return store.getGlobalModificationCounter();
+    }
+
+    @Override
+    public long getAttributeModificationCounter() {
+        return store.getAttributeModificationCounter();
+    }
+
+    @Override
+    public long getStructureModificationCounter() {
+        return store.getStructureModificationCounter();
+    }
+
+    @Override
+    public long getValueModificationCounter(final int attribute) {
+        return store.getValueModificationCounter(attribute);
+    }
+
+    @Override
+    public long getUndoCounter() {
+        return store.getUndoCounter();
+    }
+
+    @Override
+    public GraphReadMethods copy() {
+        return copy(store.getId());
+    }
+
+    @Override
+    public GraphReadMethods copy(final String id) {
+        loadAll();
+        final StoreGraph copy = new StoreGraph(id, store.getSchema() == null ? null : store.getSchema().getFactory().createSchema(), store);
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            copy.addVertex();
+        }
+        final int transactionCount = getTransactionCount();
+        for (int transaction = 0; transaction < transactionCount; transaction++) {
+            copy.addTransaction(getTransactionSourceVertex(transaction), getTransactionDestinationVertex(transaction),
+                    getTransactionDirection(transaction) != Graph.FLAT);
+        }
+
+        // The graph values were copied with the store, and the rest are copied after the elements have been added.
+        for (final GraphElementType elementType : List.of(GraphElementType.VERTEX, GraphElementType.TRANSACTION, GraphElementType.META)) {
+            final int attributeCount = store.getAttributeCount(elementType);
+            for (int position = 0; position < attributeCount; position++) {
+                final int attribute = store.getAttribute(elementType, position);
+                final int count = getElementCount(attribute);
+                for (int element = 0; element < count; element++) {
+                    if (!isDefaultValue(attribute, element)) {
+                        copy.setObjectValue(attribute, element, getObjectValue(attribute, element));
+                    }
+                }
+            }
+        }
+
+        copy.setModificationCounters(store.getGlobalModificationCounter(), store.getStructureModificationCounter(), store.getAttributeModificationCounter());
+        for (final GraphElementType elementType : GraphElementType.values()) {
+            final int attributeCount = store.getAttributeCount(elementType);
+            for (int position = 0; position < attributeCount; position++) {
+                final int attribute = store.getAttribute(elementType, position);
+                copy.setValueModificationCounter(attribute, store.getValueModificationCounter(attribute));
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public int getEdgeCapacity() {
+        return getEdgeCount();
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return getTopology().getEdgeCount();
+    }
+
+    @Override
+    public int getEdge(final int position) {
+        return position;
+    }
+
+    @Override
+    public int getEdgePosition(final int edge) {
+        return edge;
+    }
+
+    @Override
+    public long getEdgeUID(final int edge) {
+        return edge;
+    }
+
+    @Override
+    public int getEdgeDirection(final int edge) {
+        return getTopology().getEdgeDirection(edge);
+    }
+
+    @Override
+    public int getEdgeSourceVertex(final int edge) {
+        return getTopology().getEdgeSourceVertex(edge);
+    }
+
+    @Override
+    public int getEdgeDestinationVertex(final int edge) {
+        return getTopology().getEdgeDestinationVertex(edge);
+    }
+
+    @Override
+    public int getEdgeLink(final int edge) {
+        return getTopology().getEdgeLink(edge);
+    }
+
+    @Override
+    public int getEdgeTransactionCount(final int edgeId) {
+        return getTopology().getEdgeTransactionCount(edgeId);
+    }
+
+    @Override
+    public int getEdgeTransaction(final int edgeId, final int position) {
+        return getTopology().getEdgeTransaction(edgeId, position);
+    }
+
+    @Override
+    public boolean edgeExists(final int edgeId) {
+        return edgeId >= 0 && edgeId < getEdgeCount();
+    }
+
+    @Override
+    public int getLink(final int position) {
+        return position;
+    }
+
+    @Override
+    public int getLinkPosition(final int link) {
+        return link;
+    }
+
+    @Override
+    public long getLinkUID(final int link) {
+        return link;
+    }
+
+    @Override
+    public int getLinkCapacity() {
+        return getLinkCount();
+    }
+
+    @Override
+    public int getLinkCount() {
+        return getTopology().getLinkCount();
+    }
+
+    @Override
+    public int getLinkLowVertex(final int link) {
+        return getTopology().getLinkLowVertex(link);
+    }
+
+    @Override
+    public int getLinkHighVertex(final int link) {
+        return getTopology().getLinkHighVertex(link);
+    }
+
+    @Override
+    public int getLinkEdgeCount(final int link) {
+        return getTopology().getLinkEdgeCount(link);
+    }
+
+    @Override
+    public int getLinkEdge(final int link, final int position) {
+        return getTopology().getLinkEdge(link, position);
+    }
+
+    @Override
+    public int getLinkEdgeCount(final int link, final int direction) {
+        return getTopology().getLinkEdgeCount(link, direction);
+    }
+
+    @Override
+    public int getLinkEdge(final int link, final int direction, final int position) {
+        return position == 0 ? getTopology().findLinkEdge(link, direction) : Graph.NOT_FOUND;
+    }
+
+    @Override
+    public int getLinkTransaction(final int link, final int position) {
+        return getTopology().getLinkTransaction(link, position);
+    }
+
+    @Override
+    public int getLinkTransaction(final int link, final int direction, final int position) {
+        final LazyTopology links = getTopology();
+        return links.getEdgeTransaction(links.findLinkEdge(link, direction), position);
+    }
+
+    @Override
+    public int getLinkTransactionCount(final int link) {
+        return getTopology().getLinkTransactionCount(link);
+    }
+
+    @Override
+    public int getLinkTransactionCount(final int link, final int direction) {
+        final LazyTopology links = getTopology();
+        final int edge = links.findLinkEdge(link, direction);
+        return edge == Graph.NOT_FOUND ? 0 : links.getEdgeTransactionCount(edge);
+    }
+
+    @Override
+    public int getTransaction(final int position) {
+        return position;
+    }
+
+    @Override
+    public int getTransactionPosition(final int transaction) {
+        return transaction;
+    }
+
+    @Override
+    public long getTransactionUID(final int transaction) {
+        return transaction;
+    }
+
+    @Override
+    public int getTransactionCapacity() {
+        return getTransactionCount();
+    }
+
+    @Override
+    public int getTransactionCount() {
+        return sources.limit();
+    }
+
+    @Override
+    public int getTransactionDirection(final int transaction) {
+        if (directed.get(transaction) == 0) {
+            return Graph.FLAT;
+        }
+        return getVertexPositionInFile(sources.get(transaction)) <= getVertexPositionInFile(destinations.get(transaction)) ? Graph.UPHILL : Graph.DOWNHILL;
+    }
+
+    @Override
+    public int getTransactionLink(final int transaction) {
+        return getTopology().getTransactionLink(transaction);
+    }
+
+    @Override
+    public int getTransactionEdge(final int transaction) {
+        return getTopology().getTransactionEdge(transaction);
+    }
+
+    @Override
+    public int getVertex(final int position) {
+        return position;
+    }
+
+    @Override
+    public int getVertexCapacity() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int getVertexLink(final int vertex, final int position) {
+        return getTopology().getVertexLink(vertex, position);
+    }
+
+    @Override
+    public int getVertexLinkCount(final int vertex) {
+        return getTopology().getVertexLinkCount(vertex);
+    }
+
+    @Override
+    public int getVertexNeighbourCount(final int vertex) {
+        return getTopology().getVertexLinkCount(vertex);
+    }
+
+    @Override
+    public int getVertexEdgeCount(final int vertex) {
+        return getTopology().getVertexEdgeCount(vertex);
+    }
+
+    @Override
+    public int getVertexEdge(final int vertex, final int position) {
+        return getTopology().getVertexEdge(vertex, position);
+    }
+
+    @Override
+    public int getVertexEdgeCount(final int vertex, final int direction) {
+        return getTopology().getVertexEdgeCount(vertex, direction);
+    }
+
+    @Override
+    public int getVertexEdge(final int vertex, final int direction, final int position) {
+        return getTopology().getVertexEdge(vertex, direction, position);
+    }
+
+    @Override
+    public int getVertexNeighbour(final int vertex, final int position) {
+        return getTopology().getVertexNeighbour(vertex, position);
+    }
+
+    @Override
+    public int getVertexTransaction(final int vertex, final int position) {
+        return getTopology().getVertexTransaction(vertex, position);
+    }
+
+    @Override
+    public int getVertexTransaction(final int vertex, final int direction, final int position) {
+        return getTopology().getVertexTransaction(vertex, direction, position);
+    }
+
+    @Override
+    public int getVertexTransactionCount(final int vertex) {
+        return getTopology().getVertexTransactionCount(vertex);
+    }
+
+    @Override
+    public int getVertexTransactionCount(final int vertex, final int direction) {
+        return getTopology().getVertexTransactionCount(vertex, direction);
+    }
+
+    @Override
+    public int getVertexPosition(final int vertex) {
+        return vertex;
+    }
+
+    @Override
+    public long getVertexUID(final int vertex) {
+        return vertex;
+    }
+
+    @Override
+    public int getLink(final int vertex1, final int vertex2) {
+        return getTopology().getLink(vertex1, vertex2);
+    }
+
+    @Override
+    public int getTransactionSourceVertex(final int transaction) {
+        final int source = getVertexPositionInFile(sources.get(transaction));
+        // Like StoreGraph, the source of an undirected transaction is its low vertex.
+        return directed.get(transaction) != 0 ? source : Math.min(source, getVertexPositionInFile(destinations.get(transaction)));
+    }
+
+    @Override
+    public int getTransactionDestinationVertex(final int transaction) {
+        final int destination = getVertexPositionInFile(destinations.get(transaction));
+        return directed.get(transaction) != 0 ? destination : Math.max(destination, getVertexPositionInFile(sources.get(transaction)));
+    }
+
+    @Override
+    public boolean linkExists(final int link) {
+        return link >= 0 && link < getLinkCount();
+    }
+
+    @Override
+    public boolean transactionExists(final int transaction) {
+        return transaction >= 0 && transaction < getTransactionCount();
+    }
+
+    @Override
+    public boolean vertexExists(final int vertex) {
+        return vertex >= 0 && vertex < vertexCount;
+    }
+
+    @Override
+    public int getAttributeCount(final GraphElementType elementType) {
+        return store.getAttributeCount(elementType);
+    }
+
+    @Override
+    public int getAttributeCapacity() {
+        return store.getAttributeCapacity();
+    }
+
+    @Override
+    public int getAttribute(final GraphElementType elementType, final int position) {
+        return store.getAttribute(elementType, position);
+    }
+
+    @Override
+    public int getAttribute(final GraphElementType elementType, final String name) {
+        return store.getAttribute(elementType, name);
+    }
+
+    @Override
+    public NativeAttributeType getNativeAttributeType(final int attribute) {
+        return store.getNativeAttributeType(attribute);
+    }
+
+    @Override
+    public String getAttributeName(final int attribute) {
+        return store.getAttributeName(attribute);
+    }
+
+    @Override
+    public String getAttributeType(final int attribute) {
+        return store.getAttributeType(attribute);
+    }
+
+    @Override
+    public String getAttributeDescription(final int attribute) {
+        return store.getAttributeDescription(attribute);
+    }
+
+    @Override
+    public GraphElementType getAttributeElementType(final int attribute) {
+        return store.getAttributeElementType(attribute);
+    }
+
+    @Override
+    public Class<? extends AttributeDescription> getAttributeDataType(final int attribute) {
+        return store.getAttributeDataType(attribute);
+    }
+
+    @Override
+    public GraphAttributeMerger getAttributeMerger(final int attribute) {
+        return store.getAttributeMerger(attribute);
+    }
+
+    @Override
+    public Object getAttributeDefaultValue(final int attribute) {
+        return store.getAttributeDefaultValue(attribute);
+    }
+
+    @Override
+    public long getAttributeUID(final int attribute) {
+        return store.getAttributeUID(attribute);
+    }
+
+    @Override
+    public Object createReadAttributeObject(final int attribute, final IntReadable indexReadable) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.createReadObject(indexReadable) : store.createReadAttributeObject(attribute, indexReadable);
+    }
+
+    @Override
+    public boolean isDefaultValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.isClear(id) : store.isDefaultValue(attribute, id);
+    }
+
+    @Override
+    public byte getByteValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getByte(id) : store.getByteValue(attribute, id);
+    }
+
+    @Override
+    public short getShortValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getShort(id) : store.getShortValue(attribute, id);
+    }
+
+    @Override
+    public int getIntValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getInt(id) : store.getIntValue(attribute, id);
+    }
+
+    @Override
+    public long getLongValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getLong(id) : store.getLongValue(attribute, id);
+    }
+
+    @Override
+    public float getFloatValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getFloat(id) : store.getFloatValue(attribute, id);
+    }
+
+    @Override
+    public double getDoubleValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getDouble(id) : store.getDoubleValue(attribute, id);
+    }
+
+    @Override
+    public boolean getBooleanValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getBoolean(id) : store.getBooleanValue(attribute, id);
+    }
+
+    @Override
+    public char getCharValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getChar(id) : store.getCharValue(attribute, id);
+    }
+
+    @Override
+    public String getStringValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.getString(id) : store.getStringValue(attribute, id);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getObjectValue(final int attribute, final int id) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? (T) column.getObject(id) : store.getObjectValue(attribute, id);
+    }
+
+    @Override
+    public boolean isPrimaryKey(final int attribute) {
+        return store.isPrimaryKey(attribute);
+    }
+
+    @Override
+    public String acceptsStringValue(final int attribute, final String value) {
+        return store.acceptsStringValue(attribute, value);
+    }
+
+    @Override
+    public Object copyAttribute(final int attribute) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? column.saveData() : store.copyAttribute(attribute);
+    }
+
+    @Override
+    public GraphKey getPrimaryKeyValue(final GraphElementType elementType, final int id) {
+        final int[] primaryKeyAttributes = store.getPrimaryKey(elementType);
+        if (primaryKeyAttributes.length == 0) {
+            return null;
+        }
+
+        final Object[] elements = new Object[primaryKeyAttributes.length];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = getObjectValue(primaryKeyAttributes[i], id);
+        }
+        if (elementType == GraphElementType.VERTEX) {
+            return new GraphKey(elements);
+        }
+
+        final GraphKey sourceKey = getPrimaryKeyValue(GraphElementType.VERTEX, getTransactionSourceVertex(id));
+        final GraphKey destinationKey = getPrimaryKeyValue(GraphElementType.VERTEX, getTransactionDestinationVertex(id));
+        return new GraphKey(sourceKey, destinationKey, getTransactionDirection(id) == Graph.FLAT, elements);
+    }
+
+    @Override
+    public int[] getPrimaryKey(final GraphElementType elementType) {
+        return store.getPrimaryKey(elementType);
+    }
+
+    @Override
+    public boolean attributeSupportsIndexType(final int attribute, final GraphIndexType indexType) {
+        return store.attributeSupportsIndexType(attribute, indexType);
+    }
+
+    @Override
+    public GraphIndexType getAttributeIndexType(final int attribute) {
+        return store.getAttributeIndexType(attribute);
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValue(final int attribute, final Object value) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? indices[attribute].getElementsWithAttributeValue(value) : store.getElementsWithAttributeValue(attribute, value);
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValueRange(final int attribute, final Object start, final Object end) {
+        final AttributeDescription column = getColumn(attribute);
+        return column != null ? indices[attribute].getElementsWithAttributeValueRange(start, end) : store.getElementsWithAttributeValueRange(attribute, start, end);
+    }
+
+    @Override
+    public IntStream vertexStream() {
+        return IntStream.range(0, vertexCount);
+    }
+
+    @Override
+    public IntStream linkStream() {
+        return IntStream.range(0, getLinkCount());
+    }
+
+    @Override
+    public IntStream edgeStream() {
+        return IntStream.range(0, getEdgeCount());
+    }
+
+    @Override
+    public IntStream transactionStream() {
+        return IntStream.range(0, getTransactionCount());
+    }
+
+    /**
+     * The graph a loader writes the values of its attributes to.
+     * <p>
+     * The values are written to the columns being read, which aren't seen by
+     * the rest of the graph until they have all been read. Everything else is
+     * read only.
+     */
+    private static final class ColumnWriter extends LazyGraph implements GraphWriteMethods {
+
+        private final LazyGraph graph;
+        private final Map<Integer, AttributeDescription> loading;
+
+        ColumnWriter(final LazyGraph graph, final Map<Integer, AttributeDescription> loading) {
+            super(graph);
+            this.graph = graph;
+            this.loading = loading;
+        }
+
+        @Override
+        AttributeDescription getColumn(final int attribute) {
+            final AttributeDescription column = loading.get(attribute);
+            return column != null ? column : graph.getColumn(attribute);
+        }
+
+        @Override
+        LazyTopology getTopology() {
+            return graph.getTopology();
+        }
+
+        private AttributeDescription getLoadingColumn(final int attribute) {
+            final AttributeDescription column = loading.get(attribute);
+            if (column == null) {
+                throw new UnsupportedOperationException(READ_ONLY);
+            }
+            return column;
+        }
+
+        @Override
+        public Object createWriteAttributeObject(final int attribute, final IntReadable indexReadable) {
+            return getLoadingColumn(attribute).createWriteObject(this, attribute, indexReadable);
+        }
+
+        @Override
+        public void clearValue(final int attribute, final int id) {
+            getLoadingColumn(attribute).clear(id);
+        }
+
+        @Override
+        public void setByteValue(final int attribute, final int id, final byte value) {
+            getLoadingColumn(attribute).setByte(id, value);
+        }
+
+        @Override
+        public void setShortValue(final int attribute, final int id, final short value) {
+            getLoadingColumn(attribute).setShort(id, value);
+        }
+
+        @Override
+        public void setIntValue(final int attribute, final int id, final int value) {
+            getLoadingColumn(attribute).setInt(id, value);
+        }
+
+        @Override
+        public void setLongValue(final int attribute, final int id, final long value) {
+            getLoadingColumn(attribute).setLong(id, value);
+        }
+
+        @Override
+        public void setFloatValue(final int attribute, final int id, final float value) {
+            getLoadingColumn(attribute).setFloat(id, value);
+        }
+
+        @Override
+        public void setDoubleValue(final int attribute, final int id, final double value) {
+            getLoadingColumn(attribute).setDouble(id, value);
+        }
+
+        @Override
+        public void setBooleanValue(final int attribute, final int id, final boolean value) {
+            getLoadingColumn(attribute).setBoolean(id, value);
+        }
+
+        @Override
+        public void setCharValue(final int attribute, final int id, final char value) {
+            getLoadingColumn(attribute).setChar(id, value);
+        }
+
+        @Override
+        public void setStringValue(final int attribute, final int id, final String value) {
+            getLoadingColumn(attribute).setString(id, value);
+        }
+
+        @Override
+        public void setObjectValue(final int attribute, final int id, final Object value) {
+            getLoadingColumn(attribute).setObject(id, value);
+        }
+
+        @Override
+        public void setPrimaryKey(final GraphElementType elementType, final int... attributes) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void validateKey(final GraphElementType elementType, final boolean allowMerging) throws DuplicateKeyException {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void validateKey(final GraphElementType elementType, final int element, final boolean allowMerging) throws DuplicateKeyException {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int addVertex() {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int addVertex(final int vertex) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void removeVertex(final int vertex) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int addTransaction(final int sourceVertex, final int destinationVertex, final boolean directed) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int addTransaction(final int transaction, final int sourceVertex, final int destinationVertex, final boolean directed) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void removeTransaction(final int transaction) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void setTransactionSourceVertex(final int transaction, final int newSourceVertex) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void setTransactionDestinationVertex(final int transaction, final int newDestinationVertex) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public int addAttribute(final GraphElementType elementType, final String attributeType, final String label, final String description,
+                final Object defaultValue, final String attributeMergerId) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void removeAttribute(final int attribute) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void updateAttributeName(final int attribute, final String newName) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void updateAttributeDescription(final int attribute, final String newDescription) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void updateAttributeDefaultValue(final int attribute, final Object newObject) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void executeGraphOperation(final GraphOperation operation) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        @Override
+        public void setAttributeIndexType(final int attribute, final GraphIndexType indexType) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+
+/**
+ * The links and edges of a {@link LazyGraph}, and the links, edges and
+ * transactions of each of its vertices.
+ * <p>
+ * A graph file holds the source, destination and direction of each
+ * transaction, but not the links and edges, which are derived from them. They
+ * are worked out here with a few counting sorts of the transactions and held
+ * in flat arrays indexed by link, edge and vertex, in the same way as
+ * StoreGraph numbers them: a link is a pair of vertices, and an edge is the
+ * transactions of a link that go in the same direction.
+ *
+ * @author algol
+ */
+final class LazyTopology {
+
+    // The low and high vertex of each link, ordered by low then high vertex.
+    private final int[] linkLows;
+    private final int[] linkHighs;
+    // The first link of each low vertex.
+    private final int[] lowLinkStarts;
+    // The first edge of each link.
+    private final int[] linkEdgeStarts;
+    private final int[] edgeLinks;
+    private final int[] edgeDirections;
+    // The first transaction of each edge in the transactions ordered by edge.
+    private final int[] edgeTransactionStarts;
+    private final int[] orderedTransactions;
+    private final int[] transactionEdges;
+
+    private final Incidences vertexLinks;
+    private final Incidences vertexEdges;
+    private final Incidences vertexTransactions;
+
+    /**
+     * Derive the links and edges of a graph from its transactions.
+     *
+     * @param graph The graph. Its element ids must be the same as their
+     * positions.
+     */
+    LazyTopology(final GraphReadMethods graph) {
+        final int vertexCount = graph.getVertexCount();
+        final int transactionCount = graph.getTransactionCount();
+
+        final int[] lows = new int[transactionCount];
+        final int[] highs = new int[transactionCount];
+        final int[] directions = new int[transactionCount];
+        for (int transaction = 0; transaction < transactionCount; transaction++) {
+            final int source = graph.getTransactionSourceVertex(transaction);
+            final int destination = graph.getTransactionDestinationVertex(transaction);
+            lows[transaction] = Math.min(source, destination);
+            highs[transaction] = Math.max(source, destination);
+            directions[transaction] = graph.getTransactionDirection(transaction);
+        }
+
+        // A stable sort by each key in turn orders the transactions by link, then direction.
+        final int[] identity = new int[transactionCount];
+        for (int transaction = 0; transaction < transactionCount; transaction++) {
+            identity[transaction] = transaction;
+        }
+        orderedTransactions = sort(sort(sort(identity, directions, 3), highs, vertexCount), lows, vertexCount);
+
+        int linkCount = 0;
+        int edgeCount = 0;
+        for (int i = 0; i < transactionCount; i++) {
+            final int transaction = orderedTransactions[i];
+            final int previous = i == 0 ? -1 : orderedTransactions[i - 1];
+            if (previous == -1 || lows[transaction] != lows[previous] || highs[transaction] != highs[previous]) {
+                linkCount++;
+                edgeCount++;
+            } else if (directions[transaction] != directions[previous]) {
+                edgeCount++;
+            }
+        }
+
+        linkLows = new int[linkCount];
+        linkHighs = new int[linkCount];
+        linkEdgeStarts = new int[linkCount + 1];
+        edgeLinks = new int[edgeCount];
+        edgeDirections = new int[edgeCount];
+        edgeTransactionStarts = new int[edgeCount + 1];
+        transactionEdges = new int[transactionCount];
+        int link = -1;
+        int edge = -1;
+        for (int i = 0; i < transactionCount; i++) {
+            final int transaction = orderedTransactions[i];
+            final int previous = i == 0 ? -1 : orderedTransactions[i - 1];
+            final boolean newLink = previous == -1 || lows[transaction] != lows[previous] || highs[transaction] != highs[previous];
+            if (newLink) {
+                link++;
+                linkLows[link] = lows[transaction];
+                linkHighs[link] = highs[transaction];
+                linkEdgeStarts[link] = edge + 1;
+            }
+            if (newLink || directions[transaction] != directions[previous]) {
+                edge++;
+                edgeLinks[edge] = link;
+                edgeDirections[edge] = directions[transaction];
+                edgeTransactionStarts[edge] = i;
+            }
+            transactionEdges[transaction] = edge;
+        }
+        linkEdgeStarts[linkCount] = edgeCount;
+        edgeTransactionStarts[edgeCount] = transactionCount;
+
+        lowLinkStarts = new int[vertexCount + 1];
+        for (final int low : linkLows) {
+            lowLinkStarts[low + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            lowLinkStarts[vertex + 1] += lowLinkStarts[vertex];
+        }
+
+        final int[] edgeLows = new int[edgeCount];
+        final int[] edgeHighs = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeLows[e] = linkLows[edgeLinks[e]];
+            edgeHighs[e] = linkHighs[edgeLinks[e]];
+        }
+
+        vertexLinks = new Incidences(vertexCount, 1, linkLows, linkHighs, null);
+        vertexEdges = new Incidences(vertexCount, 3, edgeLows, edgeHighs, edgeDirections);
+        vertexTransactions = new Incidences(vertexCount, 3, lows, highs, directions);
+    }
+
+    /**
+     * A stable counting sort of elements by a key.
+     *
+     * @param elements The elements to sort.
+     * @param keys The key of each element.
+     * @param range The keys are less than this.
+     *
+     * @return The sorted elements.
+     */
+    private static int[] sort(final int[] elements, final int[] keys, final int range) {
+        final int[] starts = new int[range + 1];
+        for (final int element : elements) {
+            starts[keys[element] + 1]++;
+        }
+        for (int key = 0; key < range; key++) {
+            starts[key + 1] += starts[key];
+        }
+        final int[] sorted = new int[elements.length];
+        for (final int element : elements) {
+            sorted[starts[keys[element]]++] = element;
+        }
+        return sorted;
+    }
+
+    int getLinkCount() {
+        return linkLows.length;
+    }
+
+    int getLinkLowVertex(final int link) {
+        return linkLows[link];
+    }
+
+    int getLinkHighVertex(final int link) {
+        return linkHighs[link];
+    }
+
+    int getLink(final int vertex1, final int vertex2) {
+        final int low = Math.min(vertex1, vertex2);
+        final int high = Math.max(vertex1, vertex2);
+        int start = lowLinkStarts[low];
+        int end = lowLinkStarts[low + 1] - 1;
+        while (start <= end) {
+            final int middle = (start + end) >>> 1;
+            if (linkHighs[middle] < high) {
+                start = middle + 1;
+            } else if (linkHighs[middle] > high) {
+                end = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return Graph.NOT_FOUND;
+    }
+
+    int getLinkEdgeCount(final int link) {
+        return linkEdgeStarts[link + 1] - linkEdgeStarts[link];
+    }
+
+    int getLinkEdge(final int link, final int position) {
+        return linkEdgeStarts[link] + position;
+    }
+
+    int getLinkEdgeCount(final int link, final int direction) {
+        return findLinkEdge(link, direction) == Graph.NOT_FOUND ? 0 : 1;
+    }
+
+    /**
+     * The edge of a link that goes in the given direction.
+     *
+     * @param link The link.
+     * @param direction The direction, relative to the low vertex of the link.
+     *
+     * @return The edge, or Graph.NOT_FOUND if the link has no such edge.
+     */
+    int findLinkEdge(final int link, final int direction) {
+        for (int edge = linkEdgeStarts[link]; edge < linkEdgeStarts[link + 1]; edge++) {
+            if (edgeDirections[edge] == direction) {
+                return edge;
+            }
+        }
+        return Graph.NOT_FOUND;
+    }
+
+    int getLinkTransactionCount(final int link) {
+        return edgeTransactionStarts[linkEdgeStarts[link + 1]] - edgeTransactionStarts[linkEdgeStarts[link]];
+    }
+
+    int getLinkTransaction(final int link, final int position) {
+        return orderedTransactions[edgeTransactionStarts[linkEdgeStarts[link]] + position];
+    }
+
+    int getEdgeCount() {
+        return edgeLinks.length;
+    }
+
+    int getEdgeLink(final int edge) {
+        return edgeLinks[edge];
+    }
+
+    int getEdgeDirection(final int edge) {
+        return edgeDirections[edge];
+    }
+
+    int getEdgeSourceVertex(final int edge) {
+        final int link = edgeLinks[edge];
+        return edgeDirections[edge] == Graph.DOWNHILL ? linkHighs[link] : linkLows[link];
+    }
+
+    int getEdgeDestinationVertex(final int edge) {
+        final int link = edgeLinks[edge];
+        return edgeDirections[edge] == Graph.DOWNHILL ? linkLows[link] : linkHighs[link];
+    }
+
+    int getEdgeTransactionCount(final int edge) {
+        return edgeTransactionStarts[edge + 1] - edgeTransactionStarts[edge];
+    }
+
+    int getEdgeTransaction(final int edge, final int position) {
+        return orderedTransactions[edgeTransactionStarts[edge] + position];
+    }
+
+    int getTransactionEdge(final int transaction) {
+        return transactionEdges[transaction];
+    }
+
+    int getTransactionLink(final int transaction) {
+        return edgeLinks[transactionEdges[transaction]];
+    }
+
+    int getVertexLinkCount(final int vertex) {
+        return vertexLinks.getCount(vertex);
+    }
+
+    int getVertexLink(final int vertex, final int position) {
+        return vertexLinks.get(vertex, position) >>> 1;
+    }
+
+    int getVertexNeighbour(final int vertex, final int position) {
+        final int entry = vertexLinks.get(vertex, position);
+        return (entry & 1) == 0 ? linkHighs[entry >>> 1] : linkLows[entry >>> 1];
+    }
+
+    int getVertexEdgeCount(final int vertex) {
+        return vertexEdges.getCount(vertex);
+    }
+
+    int getVertexEdge(final int vertex, final int position) {
+        return vertexEdges.get(vertex, position) >>> 1;
+    }
+
+    int getVertexEdgeCount(final int vertex, final int direction) {
+        return vertexEdges.getCount(vertex, direction);
+    }
+
+    int getVertexEdge(final int vertex, final int direction, final int position) {
+        return vertexEdges.get(vertex, direction, position) >>> 1;
+    }
+
+    int getVertexTransactionCount(final int vertex) {
+        return vertexTransactions.getCount(vertex);
+    }
+
+    int getVertexTransaction(final int vertex, final int position) {
+        return vertexTransactions.get(vertex, position) >>> 1;
+    }
+
+    int getVertexTransactionCount(final int vertex, final int direction) {
+        return vertexTransactions.getCount(vertex, direction);
+    }
+
+    int getVertexTransaction(final int vertex, final int direction, final int position) {
+        return vertexTransactions.get(vertex, direction, position) >>> 1;
+    }
+
+    /**
+     * The elements that each vertex is an end of, grouped by vertex and then
+     * by the direction of the element relative to the vertex.
+     * <p>
+     * Each entry is the element shifted left one bit, with the low bit set if
+     * the vertex is the high end of the element.
+     */
+    private static final class Incidences {
+
+        private final int directionCount;
+        private final int[] starts;
+        private final int[] entries;
+
+        /**
+         * Index elements by their ends.
+         *
+         * @param vertexCount The number of vertices.
+         * @param directionCount The number of directions to group by: 3 for
+         * outgoing, incoming and undirected, or 1 to not group.
+         * @param lows The low vertex of each element.
+         * @param highs The high vertex of each element.
+         * @param directions The direction of each element relative to its low
+         * vertex, or null if they are not grouped by direction.
+         */
+        Incidences(final int vertexCount, final int directionCount, final int[] lows, final int[] highs, final int[] directions) {
+            this.directionCount = directionCount;
+            starts = new int[vertexCount * directionCount + 1];
+            for (int element = 0; element < lows.length; element++) {
+                starts[getKey(lows[element], directions, element, false) + 1]++;
+                starts[getKey(highs[element], directions, element, true) + 1]++;
+            }
+            for (int key = 0; key < starts.length - 1; key++) {
+                starts[key + 1] += starts[key];
+            }
+
+            final int[] next = new int[starts.length - 1];
+            System.arraycopy(starts, 0, next, 0, next.length);
+            entries = new int[2 * lows.length];
+            for (int element = 0; element < lows.length; element++) {
+                entries[next[getKey(lows[element], directions, element, false)]++] = element << 1;
+                entries[next[getKey(highs[element], directions, element, true)]++] = element << 1 | 1;
+            }
+        }
+
+        private int getKey(final int vertex, final int[] directions, final int element, final boolean high) {
+            if (directions == null) {
+                return vertex;
+            }
+            // An element that goes uphill from its low vertex is outgoing from the low vertex and incoming to the high vertex.
+            final int direction = directions[element];
+            final int category = direction == Graph.FLAT ? Graph.UNDIRECTED : (high ? 1 - direction : direction);
+            return vertex * directionCount + category;
+        }
+
+        int getCount(final int vertex) {
+            return starts[(vertex + 1) * directionCount] - starts[vertex * directionCount];
+        }
+
+        int getCount(final int vertex, final int direction) {
+            final int key = vertex * directionCount + direction;
+            return starts[key + 1] - starts[key];
+        }
+
+        int get(final int vertex, final int position) {
+            return entries[starts[vertex * directionCount] + position];
+        }
+
+        int get(final int vertex, final int direction, final int position) {
+            return entries[starts[vertex * directionCount + direction] + position];
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.io;
+
+import au.gov.asd.tac.constellation.graph.attribute.io.GraphByteReader;
+import au.gov.asd.tac.constellation.graph.attribute.io.GraphByteWriter;
+import au.gov.asd.tac.constellation.utilities.stream.ExtendedBuffer;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A zip file whose uncompressed entries can be memory mapped.
+ * <p>
+ * {@link ZipFile} doesn't say where the data of an entry starts, so the
+ * central directory is read here to find the local header of each entry. Only
+ * entries that are STORED can be mapped; the others are read through a
+ * ZipFile as usual.
+ *
+ * @author algol
+ */
+final class MappedZipFile implements Closeable {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_SIZE = 56;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_SIZE = 30;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private final File file;
+    private final FileChannel channel;
+    private final ZipFile zipFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Open a zip file.
+     *
+     * @param file The zip file.
+     *
+     * @throws IOException If the file can't be read or is not a zip file.
+     */
+    MappedZipFile(final File file) throws IOException {
+        this.file = file;
+        zipFile = new ZipFile(file);
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        } catch (final IOException ex) {
+            zipFile.close();
+            throw ex;
+        }
+
+        try {
+            readCentralDirectory();
+        } catch (final IOException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The file this zip file was opened from.
+     *
+     * @return The file.
+     */
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * Does the zip file have an entry with the given name?
+     *
+     * @param name The name of the entry.
+     *
+     * @return True if the entry exists, false otherwise.
+     */
+    boolean contains(final String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Memory map the data of a STORED entry.
+     *
+     * @param name The name of the entry.
+     *
+     * @return A read only little-endian buffer holding the data of the entry,
+     * or null if there is no STORED entry with the given name.
+     *
+     * @throws IOException If the entry can't be mapped.
+     */
+    ByteBuffer map(final String name) throws IOException {
+        final Entry entry = entries.get(name);
+        if (entry == null || entry.method() != ZipEntry.STORED) {
+            return null;
+        }
+        if (entry.size() > Integer.MAX_VALUE) {
+            throw new IOException("Entry " + name + " is too large to map");
+        }
+
+        // The local header may have a different extra field to the central directory.
+        final ByteBuffer header = read(entry.localHeaderOffset(), LOCAL_SIZE);
+        if (header.getInt(0) != LOCAL_SIGNATURE) {
+            throw new IOException("Bad local header for entry " + name);
+        }
+        final long dataOffset = entry.localHeaderOffset() + LOCAL_SIZE + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, entry.size()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Read an entry of the zip file.
+     *
+     * @param name The name of the entry.
+     *
+     * @return A stream of the (uncompressed) data of the entry, or null if
+     * there is no entry with the given name.
+     *
+     * @throws IOException If the entry can't be read.
+     */
+    InputStream getInputStream(final String name) throws IOException {
+        final ZipEntry entry = zipFile.getEntry(name);
+        return entry != null ? zipFile.getInputStream(entry) : null;
+    }
+
+    /**
+     * A GraphByteReader that reads entries from this zip file as they are
+     * asked for, rather than reading the whole file up front.
+     *
+     * @return A new GraphByteReader.
+     */
+    GraphByteReader createByteReader() {
+        return new GraphByteReader() {
+            @Override
+            public ExtendedBuffer read(final String reference) throws IOException {
+                try (final InputStream in = getInputStream(reference)) {
+                    if (in == null) {
+                        return null;
+                    }
+                    final ExtendedBuffer buffer = new ExtendedBuffer(1 << 16);
+                    try {
+                        GraphByteWriter.copy(in, buffer.getOutputStream());
+                    } finally {
+                        buffer.getOutputStream().close();
+                    }
+                    return buffer;
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    /**
+     * Find the central directory from the end of central directory record,
+     * and read the location of each entry.
+     *
+     * @throws IOException If the central directory can't be read.
+     */
+    private void readCentralDirectory() throws IOException {
+        final long fileSize = channel.size();
+        final int tailSize = (int) Math.min(fileSize, END_SIZE + 0xFFFF);
+        final ByteBuffer tail = read(fileSize - tailSize, tailSize);
+
+        // The record ends with a variable length comment, so search backwards.
+        int end = tailSize - END_SIZE;
+        while (end >= 0 && tail.getInt(end) != END_SIGNATURE) {
+            end--;
+        }
+        if (end < 0) {
+            throw new IOException("End of central directory not found in " + file);
+        }
+
+        long entryCount = Short.toUnsignedInt(tail.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+        if (entryCount == 0xFFFF || directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC) {
+            final long locatorOffset = fileSize - tailSize + end - ZIP64_LOCATOR_SIZE;
+            final ByteBuffer locator = read(locatorOffset, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) != ZIP64_LOCATOR_SIGNATURE) {
+                throw new IOException("Zip64 end of central directory locator not found in " + file);
+            }
+            final ByteBuffer zip64End = read(locator.getLong(8), ZIP64_END_SIZE);
+            if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                throw new IOException("Zip64 end of central directory not found in " + file);
+            }
+            entryCount = zip64End.getLong(32);
+            directorySize = zip64End.getLong(40);
+            directoryOffset = zip64End.getLong(48);
+        }
+
+        final ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset, directorySize).order(ByteOrder.LITTLE_ENDIAN);
+        int position = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (directory.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new IOException("Bad central directory header in " + file);
+            }
+            final int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            long size = Integer.toUnsignedLong(directory.getInt(position + 24));
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+            final int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            final int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            final int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+
+            final byte[] nameBytes = new byte[nameLength];
+            directory.get(position + CENTRAL_SIZE, nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // Sizes and offsets that don't fit are in the Zip64 extra field, in this order.
+            int extra = position + CENTRAL_SIZE + nameLength;
+            final int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                final int id = Short.toUnsignedInt(directory.getShort(extra));
+                final int length = Short.toUnsignedInt(directory.getShort(extra + 2));
+                if (id == ZIP64_EXTRA_ID) {
+                    int field = extra + 4;
+                    if (size == ZIP64_MAGIC) {
+                        size = directory.getLong(field);
+                        field += Long.BYTES;
+                    }
+                    if (Integer.toUnsignedLong(directory.getInt(position + 20)) == ZIP64_MAGIC) {
+                        field += Long.BYTES;
+                    }
+                    if (localHeaderOffset == ZIP64_MAGIC) {
+                        localHeaderOffset = directory.getLong(field);
+                    }
+                }
+                extra += 4 + length;
+            }
+
+            entries.put(name, new Entry(method, size, localHeaderOffset));
+            position += CENTRAL_SIZE + nameLength + extraLength + commentLength;
+        }
+    }
+
+    /**
+     * Read part of the file.
+     *
+     * @param offset The offset to read from.
+     * @param length The number of bytes to read.
+     *
+     * @return A little-endian buffer holding the bytes read.
+     *
+     * @throws IOException If the bytes can't be read.
+     */
+    private ByteBuffer read(final long offset, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file " + file);
+            }
+        }
+        return buffer.clear();
+    }
+
+    /**
+     * The location of an entry in the zip file.
+     */
+    private record Entry(int method, long size, long localHeaderOffset) {
+    }
+}
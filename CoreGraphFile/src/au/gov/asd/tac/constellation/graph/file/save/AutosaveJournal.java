@@ -0,0 +1,479 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.file.save;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonWriter;
+import au.gov.asd.tac.constellation.graph.file.io.GraphParseException;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import au.gov.asd.tac.constellation.graph.locking.GraphEditListener;
+import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
+import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
+import au.gov.asd.tac.constellation.utilities.gui.IoProgress;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A journal of the edits made to a graph since it was last autosaved in full.
+ * <p>
+ * Writing a complete copy of a large graph on every autosave is slow and uses
+ * a lot of memory, so after a full autosave (the snapshot) the edits committed
+ * to the graph are appended to a journal file instead. Recovering the graph
+ * reads the snapshot and replays the journal on it.
+ * <p>
+ * Only edits that set attribute values are journaled. Those edits refer to
+ * elements and attributes by id, which are not preserved when the snapshot is
+ * read, so the journal starts with the ids of the elements and attributes in
+ * the snapshot and they are mapped to the ids in the recovered graph when the
+ * journal is replayed. Any other edit, such as adding or removing elements,
+ * means that a new snapshot is needed, as does a journal that has grown to
+ * more than half the size of the snapshot.
+ *
+ * @author algol
+ */
+public final class AutosaveJournal implements GraphEditListener {
+
+    private static final Logger LOGGER = Logger.getLogger(AutosaveJournal.class.getName());
+
+    private static final int MAGIC = 0x434A4E31; // CJN1
+    private static final byte EXECUTE = 1;
+    private static final byte UNDO = 2;
+
+    private static final Map<Graph, AutosaveJournal> JOURNALS = new WeakHashMap<>();
+
+    private final List<UndoGraphEdit> edits = new ArrayList<>();
+    private final List<Boolean> undone = new ArrayList<>();
+    private boolean snapshotNeeded = true;
+
+    private AutosaveJournal() {
+    }
+
+    /**
+     * Get the journal of a graph, starting one if the graph doesn't have one.
+     *
+     * @param graph a graph.
+     * @return the journal of the graph, or null if the edits of the graph
+     * can't be journaled.
+     */
+    public static AutosaveJournal getJournal(final Graph graph) {
+        if (!(graph instanceof DualGraph dualGraph)) {
+            return null;
+        }
+
+        synchronized (JOURNALS) {
+            return JOURNALS.computeIfAbsent(graph, g -> {
+                final AutosaveJournal journal = new AutosaveJournal();
+                dualGraph.addGraphEditListener(journal);
+                return journal;
+            });
+        }
+    }
+
+    @Override
+    public synchronized void editExecuted(final UndoGraphEdit edit) {
+        addEdit(edit, false);
+    }
+
+    @Override
+    public synchronized void editUndone(final UndoGraphEdit edit) {
+        addEdit(edit, true);
+    }
+
+    private void addEdit(final UndoGraphEdit edit, final boolean undo) {
+        if (snapshotNeeded) {
+            return;
+        }
+
+        if (edit.isValueOnly()) {
+            edits.add(edit);
+            undone.add(undo);
+        } else {
+            snapshotNeeded = true;
+            edits.clear();
+            undone.clear();
+        }
+    }
+
+    /**
+     * Append the edits made since the last autosave to the journal file.
+     *
+     * @param snapshotFile the snapshot that the journal applies to.
+     * @param journalFile the journal file.
+     * @return true if the edits were appended, false if a new snapshot needs to
+     * be written instead.
+     */
+    public boolean append(final File snapshotFile, final File journalFile) {
+        final UndoGraphEdit[] pendingEdits;
+        final Boolean[] pendingUndone;
+        synchronized (this) {
+            if (snapshotNeeded || !snapshotFile.exists() || !journalFile.exists()
+                    || journalFile.length() > snapshotFile.length() / 2) {
+                return false;
+            }
+            pendingEdits = edits.toArray(new UndoGraphEdit[0]);
+            pendingUndone = undone.toArray(new Boolean[0]);
+            edits.clear();
+            undone.clear();
+        }
+
+        // Serialise the edits before appending any of them, so that a failure
+        // doesn't leave part of the edits in the journal.
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            final ByteArrayOutputStream editBytes = new ByteArrayOutputStream();
+            for (int i = 0; i < pendingEdits.length; i++) {
+                editBytes.reset();
+                try (final DataOutputStream editOut = new DataOutputStream(editBytes)) {
+                    pendingEdits[i].write(editOut);
+                }
+                out.writeByte(pendingUndone[i] ? UNDO : EXECUTE);
+                out.writeInt(editBytes.size());
+                editBytes.writeTo(out);
+            }
+        } catch (final IOException ex) {
+            // Most likely an attribute value that can't be serialised.
+            LOGGER.log(Level.FINE, "Unable to journal edit, a full autosave is needed", ex);
+            snapshotNeeded();
+            return false;
+        }
+
+        try (final FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            bytes.writeTo(out);
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to append to autosave journal", ex);
+            snapshotNeeded();
+            return false;
+        }
+
+        return true;
+    }
+
+    private synchronized void snapshotNeeded() {
+        snapshotNeeded = true;
+        edits.clear();
+        undone.clear();
+    }
+
+    /**
+     * Take a copy of a graph for a snapshot, and start journaling the edits
+     * made to the graph after the copy.
+     * <p>
+     * The copy is taken while holding the write lock of the graph, so that no
+     * edit can be committed between the copy and the start of the journal.
+     *
+     * @param graph the graph.
+     * @return a copy of the graph.
+     * @throws InterruptedException if the write lock of the graph can't be
+     * acquired.
+     */
+    public GraphReadMethods copy(final Graph graph) throws InterruptedException {
+        final WritableGraph wg = graph.getWritableGraph("Autosave", false);
+        try {
+            final GraphReadMethods copy = wg.copy();
+            synchronized (this) {
+                snapshotNeeded = false;
+                edits.clear();
+                undone.clear();
+            }
+            return copy;
+        } finally {
+            wg.rollBack();
+        }
+    }
+
+    /**
+     * Start a new journal file for a snapshot.
+     * <p>
+     * The journal starts with the ids of the elements and attributes of the
+     * graph, in the order that they are written to the snapshot.
+     *
+     * @param snapshot the graph written to the snapshot.
+     * @param journalFile the journal file.
+     * @throws IOException if the journal can't be written.
+     */
+    public void start(final GraphReadMethods snapshot, final File journalFile) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile)))) {
+            out.writeInt(MAGIC);
+
+            final int vertexCount = snapshot.getVertexCount();
+            out.writeInt(vertexCount);
+            for (int position = 0; position < vertexCount; position++) {
+                out.writeInt(snapshot.getVertex(position));
+            }
+
+            final int transactionCount = snapshot.getTransactionCount();
+            out.writeInt(transactionCount);
+            for (int position = 0; position < transactionCount; position++) {
+                out.writeInt(snapshot.getTransaction(position));
+            }
+
+            out.writeInt(snapshot.getAttributeCapacity());
+            for (final GraphElementType elementType : GraphElementType.values()) {
+                final int attributeCount = snapshot.getAttributeCount(elementType);
+                out.writeInt(attributeCount);
+                for (int position = 0; position < attributeCount; position++) {
+                    final int attribute = snapshot.getAttribute(elementType, position);
+                    out.writeInt(attribute);
+                    out.writeUTF(snapshot.getAttributeName(attribute));
+                }
+            }
+        } catch (final IOException ex) {
+            snapshotNeeded();
+            throw ex;
+        }
+    }
+
+    /**
+     * Get the journal file of an autosaved graph.
+     *
+     * @param snapshotFile the .star file of the autosaved graph.
+     * @return the journal file of the autosaved graph, which may not exist.
+     */
+    public static File getJournalFile(final File snapshotFile) {
+        final String path = snapshotFile.getPath();
+        final String base = path.endsWith(FileExtensionConstants.STAR) ? path.substring(0, path.length() - FileExtensionConstants.STAR.length()) : path;
+        return new File(base + FileExtensionConstants.STAR_JOURNAL);
+    }
+
+    /**
+     * Bring the snapshot of an autosaved graph up to date by replaying its
+     * journal on it and writing it again, so that the snapshot can be used on
+     * its own.
+     * <p>
+     * The journal is replayed on a copy of the recovered graph so that no write
+     * lock is needed. The updated snapshot is written to a temporary file that
+     * then replaces the snapshot, so a failure leaves the original snapshot
+     * intact. Reading and writing a large graph is slow, so this should not be
+     * called from the EDT.
+     *
+     * @param snapshotFile the .star file of the autosaved graph.
+     * @param progress a progress indicator.
+     * @throws IOException if the snapshot or the journal can't be read or
+     * written.
+     */
+    public static void consolidate(final File snapshotFile, final IoProgress progress) throws IOException {
+        final File journalFile = getJournalFile(snapshotFile);
+        if (!journalFile.exists()) {
+            return;
+        }
+
+        final Graph graph;
+        try {
+            graph = new GraphJsonReader().readGraphZip(snapshotFile, progress);
+        } catch (final GraphParseException ex) {
+            throw new IOException(ex);
+        }
+        final GraphWriteMethods copy;
+        final ReadableGraph rg = graph.getReadableGraph();
+        try {
+            copy = (GraphWriteMethods) rg.copy();
+        } finally {
+            rg.release();
+        }
+        if (replay(copy, journalFile) > 0) {
+            final File tempFile = new File(snapshotFile.getPath() + ".tmp");
+            try {
+                if (!new GraphJsonWriter().writeGraphToZip(copy, tempFile.getPath(), progress)) {
+                    throw new IOException("Writing the consolidated autosave was cancelled");
+                }
+                Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        }
+        Files.delete(journalFile.toPath());
+    }
+
+    /**
+     * Replay a journal on a graph recovered from its snapshot.
+     * <p>
+     * A journal that was only partly written, for example because of a crash,
+     * is replayed up to the last complete edit.
+     *
+     * @param graph the graph read from the snapshot.
+     * @param journalFile the journal file.
+     * @return the number of edits that were replayed.
+     * @throws IOException if the journal can't be read.
+     * @throws InterruptedException if the graph can't be locked.
+     */
+    public static int replay(final Graph graph, final File journalFile) throws IOException, InterruptedException {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+
+        final WritableGraph wg = graph.getWritableGraph("Recover Autosave", false);
+        try {
+            return replay(wg, journalFile);
+        } finally {
+            wg.commit();
+        }
+    }
+
+    /**
+     * Replay a journal on a graph recovered from its snapshot, which the
+     * caller has already made writable.
+     *
+     * @param graph the graph read from the snapshot.
+     * @param journalFile the journal file.
+     * @return the number of edits that were replayed.
+     * @throws IOException if the journal can't be read.
+     */
+    public static int replay(final GraphWriteMethods graph, final File journalFile) throws IOException {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an autosave journal: " + journalFile);
+            }
+
+            final IdMapping mapping = new IdMapping(graph, in);
+            int count = 0;
+            while (true) {
+                final byte type;
+                final byte[] bytes;
+                try {
+                    type = in.readByte();
+                    bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                } catch (final EOFException ex) {
+                    break;
+                }
+
+                final UndoGraphEdit edit;
+                try {
+                    edit = new UndoGraphEdit(new DataInputStream(new ByteArrayInputStream(bytes)))
+                            .remap(mapping::mapAttribute, mapping::mapElement);
+                } catch (final Exception ex) {
+                    LOGGER.log(Level.WARNING, "Unable to read autosave journal edit, stopping", ex);
+                    break;
+                }
+
+                try {
+                    if (type == UNDO) {
+                        edit.undo(graph);
+                    } else {
+                        edit.execute(graph);
+                    }
+                } catch (final RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Unable to replay autosave journal edit, stopping", ex);
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The mapping from the ids of elements and attributes when the snapshot was
+     * written to their ids in the recovered graph. Each journaled edit is
+     * remapped with this before it is replayed, and values of attributes or
+     * elements that are not in the recovered graph are dropped.
+     */
+    private static class IdMapping {
+
+        private final int[] vertices;
+        private final int[] transactions;
+        private final int[] attributes;
+        private final GraphElementType[] attributeTypes;
+
+        IdMapping(final GraphReadMethods graph, final DataInputStream in) throws IOException {
+            vertices = readElements(in, graph.getVertexCount(), graph::getVertex);
+            transactions = readElements(in, graph.getTransactionCount(), graph::getTransaction);
+
+            final int attributeCapacity = in.readInt();
+            attributes = new int[attributeCapacity];
+            attributeTypes = new GraphElementType[attributeCapacity];
+            Arrays.fill(attributes, Graph.NOT_FOUND);
+            for (final GraphElementType elementType : GraphElementType.values()) {
+                final int attributeCount = in.readInt();
+                for (int position = 0; position < attributeCount; position++) {
+                    final int attribute = in.readInt();
+                    final String name = in.readUTF();
+                    if (attribute >= 0 && attribute < attributeCapacity) {
+                        attributes[attribute] = graph.getAttribute(elementType, name);
+                        attributeTypes[attribute] = elementType;
+                    }
+                }
+            }
+        }
+
+        private static int[] readElements(final DataInputStream in, final int count, final IntUnaryOperator element) throws IOException {
+            final int snapshotCount = in.readInt();
+            final int[] snapshotIds = new int[snapshotCount];
+            int capacity = 0;
+            for (int position = 0; position < snapshotCount; position++) {
+                snapshotIds[position] = in.readInt();
+                capacity = Math.max(capacity, snapshotIds[position] + 1);
+            }
+
+            // The snapshot is read in the order it was written, so elements
+            // at the same position are the same element.
+            final int[] mapping = new int[capacity];
+            Arrays.fill(mapping, Graph.NOT_FOUND);
+            for (int position = 0; position < Math.min(snapshotCount, count); position++) {
+                mapping[snapshotIds[position]] = element.applyAsInt(position);
+            }
+            return mapping;
+        }
+
+        private int mapAttribute(final int attribute) {
+            return attribute >= 0 && attribute < attributes.length ? attributes[attribute] : Graph.NOT_FOUND;
+        }
+
+        private int mapElement(final int attribute, final int id) {
+            final int[] mapping = switch (attributeTypes[attribute]) {
+                case VERTEX ->
+                    vertices;
+                case TRANSACTION ->
+                    transactions;
+                default ->
+                    null;
+            };
+            if (mapping == null) {
+                return id;
+            }
+            return id >= 0 && id < mapping.length ? mapping[id] : Graph.NOT_FOUND;
+        }
+    }
+}
@@ -105,7 +105,7 @@ public final class AutosaveUtilities {
      * Delete a pair of autosave files.
      * <p>
      * If the .star is given, the matching .star_auto will be deleted, and vice
-     * versa.
+     * versa. The journal of the autosave is also deleted.
      *
      * @param f A .star or .star_auto to be deleted.
      */
@@ -130,6 +130,12 @@ public final class AutosaveUtilities {
             } catch (final IOException ex) {
                 //TODO: Handle case where file not successfully deleted
             }
+
+            try {
+                Files.deleteIfExists(AutosaveJournal.getJournalFile(new File(path.endsWith(FileExtensionConstants.STAR) ? path : filepath)).toPath());
+            } catch (final IOException ex) {
+                //TODO: Handle case where file not successfully deleted
+            }
         }
     }
 
@@ -233,6 +239,19 @@ public final class AutosaveUtilities {
             }
         }
 
+        // Find journals without a .star.
+        for (final File journal : getAutosaves(FileExtensionConstants.STAR_JOURNAL)) {
+            final String journals = journal.getPath();
+            final File star = new File(journals.substring(0, journals.length() - FileExtensionConstants.STAR_JOURNAL.length()) + FileExtensionConstants.STAR);
+            if (!star.exists()) {
+                try {
+                    Files.delete(Path.of(journals));
+                } catch (final IOException ex) {
+                    //TODO: Handle case where file not successfully deleted
+                }
+            }
+        }
+
         // Find .star_auto files without a .star.
         for (final File auto : getAutosaves(FileExtensionConstants.STAR_AUTOSAVE)) {
             final String autos = auto.getPath();
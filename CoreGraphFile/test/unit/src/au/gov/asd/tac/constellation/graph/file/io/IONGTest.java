@@ -18,8 +18,16 @@ package au.gov.asd.tac.constellation.graph.file.io;
 import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphAttributeMerger;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ByteAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ShortAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
 import au.gov.asd.tac.constellation.graph.mergers.ConcatenatedSetGraphAttributeMerger;
 import au.gov.asd.tac.constellation.utilities.gui.TextIoProgress;
@@ -142,4 +150,229 @@ public class IONGTest {
             assert rg.getAttributeMerger(noMergerAttributeId) == null;
         }
     }
+
+    /**
+     * Saving and loading a graph with more elements than fit in one chunk, so
+     * that the vertex and transaction data are split over several entries.
+     *
+     * @throws IOException
+     * @throws GraphParseException
+     */
+    @Test
+    public void saveLoadChunked() throws IOException, GraphParseException {
+        System.out.println("saveLoadChunked");
+        final File graphFile = File.createTempFile("chunked", ".star");
+
+        final int vertexCount = GraphJsonWriter.CHUNK_SIZE * 2 + 1;
+        final StoreGraph graph = new StoreGraph();
+        final int nameAttrId = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", "name", null, null);
+        final int labelAttrId = graph.addAttribute(GraphElementType.TRANSACTION, StringAttributeDescription.ATTRIBUTE_NAME, "label", "label", null, null);
+        int previous = Graph.NOT_FOUND;
+        for (int i = 0; i < vertexCount; i++) {
+            final int vxId = graph.addVertex();
+            graph.setStringValue(nameAttrId, vxId, "V" + i);
+            if (previous != Graph.NOT_FOUND) {
+                final int txId = graph.addTransaction(previous, vxId, true);
+                graph.setStringValue(labelAttrId, txId, "T" + i);
+            }
+            previous = vxId;
+        }
+
+        new GraphJsonWriter().writeGraphToZip(graph, graphFile.getPath(), new TextIoProgress(false));
+
+        try {
+            final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+            try (final ReadableGraph rg = newGraph.getReadableGraph()) {
+                Assert.assertEquals(rg.getVertexCount(), vertexCount);
+                Assert.assertEquals(rg.getTransactionCount(), vertexCount - 1);
+
+                final int newNameAttrId = rg.getAttribute(GraphElementType.VERTEX, "name");
+                final int newLabelAttrId = rg.getAttribute(GraphElementType.TRANSACTION, "label");
+                for (int position = 0; position < vertexCount; position++) {
+                    Assert.assertEquals(rg.getStringValue(newNameAttrId, rg.getVertex(position)), "V" + position);
+                }
+                for (int position = 0; position < vertexCount - 1; position++) {
+                    final int txId = rg.getTransaction(position);
+                    final String source = rg.getStringValue(newNameAttrId, rg.getTransactionSourceVertex(txId));
+                    final String destination = rg.getStringValue(newNameAttrId, rg.getTransactionDestinationVertex(txId));
+                    Assert.assertEquals(rg.getStringValue(newLabelAttrId, txId), destination.replace('V', 'T'));
+                    Assert.assertEquals(Integer.parseInt(destination.substring(1)), Integer.parseInt(source.substring(1)) + 1);
+                }
+            }
+        } finally {
+            graphFile.delete();
+        }
+    }
+
+    /**
+     * Saving and loading primitive attributes written as binary columns.
+     *
+     * @throws IOException
+     * @throws GraphParseException
+     */
+    @Test
+    public void saveLoadBinaryColumns() throws IOException, GraphParseException {
+        System.out.println("saveLoadBinaryColumns");
+        final File graphFile = File.createTempFile("columns", ".star");
+
+        final StoreGraph graph = new StoreGraph();
+        final int floatAttrId = graph.addAttribute(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "float", "float", 1.5F, null);
+        final int doubleAttrId = graph.addAttribute(GraphElementType.VERTEX, DoubleAttributeDescription.ATTRIBUTE_NAME, "double", "double", null, null);
+        final int intAttrId = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "integer", "integer", null, null);
+        final int longAttrId = graph.addAttribute(GraphElementType.VERTEX, LongAttributeDescription.ATTRIBUTE_NAME, "long", "long", null, null);
+        final int shortAttrId = graph.addAttribute(GraphElementType.VERTEX, ShortAttributeDescription.ATTRIBUTE_NAME, "short", "short", null, null);
+        final int byteAttrId = graph.addAttribute(GraphElementType.VERTEX, ByteAttributeDescription.ATTRIBUTE_NAME, "byte", "byte", null, null);
+        final int booleanAttrId = graph.addAttribute(GraphElementType.TRANSACTION, BooleanAttributeDescription.ATTRIBUTE_NAME, "boolean", "boolean", null, null);
+        final int nameAttrId = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", "name", null, null);
+
+        final int vertexCount = 5;
+        int previous = Graph.NOT_FOUND;
+        for (int i = 0; i < vertexCount; i++) {
+            final int vxId = graph.addVertex();
+            if (i != 2) {
+                graph.setFloatValue(floatAttrId, vxId, i * 0.25F);
+            }
+            graph.setDoubleValue(doubleAttrId, vxId, i * Math.PI);
+            graph.setIntValue(intAttrId, vxId, -i);
+            graph.setLongValue(longAttrId, vxId, Long.MAX_VALUE - i);
+            graph.setShortValue(shortAttrId, vxId, (short) (i * 100));
+            graph.setByteValue(byteAttrId, vxId, (byte) -i);
+            graph.setStringValue(nameAttrId, vxId, "V" + i);
+            if (previous != Graph.NOT_FOUND) {
+                final int txId = graph.addTransaction(previous, vxId, true);
+                graph.setBooleanValue(booleanAttrId, txId, i % 2 == 0);
+            }
+            previous = vxId;
+        }
+
+        new GraphJsonWriter().writeGraphToZip(graph, graphFile.getPath(), new TextIoProgress(false));
+
+        try {
+            final Graph newGraph = new GraphJsonReader().readGraphZip(graphFile, new TextIoProgress(false));
+            try (final ReadableGraph rg = newGraph.getReadableGraph()) {
+                Assert.assertEquals(rg.getVertexCount(), vertexCount);
+                final int newFloatAttrId = rg.getAttribute(GraphElementType.VERTEX, "float");
+                final int newDoubleAttrId = rg.getAttribute(GraphElementType.VERTEX, "double");
+                final int newIntAttrId = rg.getAttribute(GraphElementType.VERTEX, "integer");
+                final int newLongAttrId = rg.getAttribute(GraphElementType.VERTEX, "long");
+                final int newShortAttrId = rg.getAttribute(GraphElementType.VERTEX, "short");
+                final int newByteAttrId = rg.getAttribute(GraphElementType.VERTEX, "byte");
+                final int newBooleanAttrId = rg.getAttribute(GraphElementType.TRANSACTION, "boolean");
+                final int newNameAttrId = rg.getAttribute(GraphElementType.VERTEX, "name");
+                for (int position = 0; position < vertexCount; position++) {
+                    final int vxId = rg.getVertex(position);
+                    Assert.assertEquals(rg.getStringValue(newNameAttrId, vxId), "V" + position);
+                    Assert.assertEquals(rg.getFloatValue(newFloatAttrId, vxId), position == 2 ? 1.5F : position * 0.25F);
+                    Assert.assertEquals(rg.getDoubleValue(newDoubleAttrId, vxId), position * Math.PI);
+                    Assert.assertEquals(rg.getIntValue(newIntAttrId, vxId), -position);
+                    Assert.assertEquals(rg.getLongValue(newLongAttrId, vxId), Long.MAX_VALUE - position);
+                    Assert.assertEquals(rg.getShortValue(newShortAttrId, vxId), (short) (position * 100));
+                    Assert.assertEquals(rg.getByteValue(newByteAttrId, vxId), (byte) -position);
+                }
+                for (int position = 0; position < vertexCount - 1; position++) {
+                    final int txId = rg.getTransaction(position);
+                    final int destination = Integer.parseInt(rg.getStringValue(newNameAttrId, rg.getTransactionDestinationVertex(txId)).substring(1));
+                    Assert.assertEquals(rg.getBooleanValue(newBooleanAttrId, txId), destination % 2 == 0);
+                }
+            }
+        } finally {
+            graphFile.delete();
+        }
+    }
+
+    /**
+     * Opening a graph lazily reads the structure straight away and the values
+     * of each attribute when they are first asked for.
+     *
+     * @throws IOException
+     * @throws GraphParseException
+     */
+    @Test
+    public void openLazily() throws IOException, GraphParseException {
+        System.out.println("openLazily");
+        final File graphFile = File.createTempFile("lazy", ".star");
+
+        final StoreGraph graph = new StoreGraph();
+        final int xAttrId = graph.addAttribute(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "x", "x", null, null);
+        final int nameAttrId = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", "name", null, null);
+        final int weightAttrId = graph.addAttribute(GraphElementType.TRANSACTION, IntegerAttributeDescription.ATTRIBUTE_NAME, "weight", "weight", null, null);
+        final int vertexCount = 10;
+        final int[] vxIds = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vxIds[i] = graph.addVertex();
+            graph.setFloatValue(xAttrId, vxIds[i], i * 2F);
+            graph.setStringValue(nameAttrId, vxIds[i], "V" + i);
+        }
+        // Remove a vertex so that the ids in the file are not the same as the positions.
+        graph.removeVertex(vxIds[0]);
+        for (int i = 2; i < vertexCount; i++) {
+            final int txId = graph.addTransaction(vxIds[i - 1], vxIds[i], i % 2 == 0);
+            graph.setIntValue(weightAttrId, txId, i);
+        }
+
+        new GraphJsonWriter().writeGraphToZip(graph, graphFile.getPath(), new TextIoProgress(false));
+
+        final LazyGraph lazyGraph = new GraphJsonReader().readGraphLazily(graphFile, new TextIoProgress(false));
+        try {
+            Assert.assertEquals(lazyGraph.getVertexCount(), vertexCount - 1);
+            Assert.assertEquals(lazyGraph.getTransactionCount(), vertexCount - 2);
+            Assert.assertEquals(lazyGraph.getLinkCount(), vertexCount - 2);
+
+            final int newXAttrId = lazyGraph.getAttribute(GraphElementType.VERTEX, "x");
+            final int newNameAttrId = lazyGraph.getAttribute(GraphElementType.VERTEX, "name");
+            final int newWeightAttrId = lazyGraph.getAttribute(GraphElementType.TRANSACTION, "weight");
+            Assert.assertFalse(lazyGraph.isLoaded(newXAttrId));
+            Assert.assertFalse(lazyGraph.isLoaded(newNameAttrId));
+            Assert.assertFalse(lazyGraph.isLoaded(newWeightAttrId));
+            final long modificationCounter = lazyGraph.getGlobalModificationCounter();
+
+            final int vxId = lazyGraph.getVertex(0);
+            Assert.assertEquals(lazyGraph.getFloatValue(newXAttrId, vxId), 2F);
+            Assert.assertTrue(lazyGraph.isLoaded(newXAttrId));
+            Assert.assertFalse(lazyGraph.isLoaded(newNameAttrId));
+            Assert.assertEquals(lazyGraph.getStringValue(newNameAttrId, vxId), "V1");
+            Assert.assertTrue(lazyGraph.isLoaded(newNameAttrId));
+            Assert.assertEquals(lazyGraph.getGlobalModificationCounter(), modificationCounter);
+
+            for (int position = 0; position < lazyGraph.getTransactionCount(); position++) {
+                final int txId = lazyGraph.getTransaction(position);
+                final String source = lazyGraph.getStringValue(newNameAttrId, lazyGraph.getTransactionSourceVertex(txId));
+                final String destination = lazyGraph.getStringValue(newNameAttrId, lazyGraph.getTransactionDestinationVertex(txId));
+                final int weight = lazyGraph.getIntValue(newWeightAttrId, txId);
+                Assert.assertEquals(source, "V" + (weight - 1));
+                Assert.assertEquals(destination, "V" + weight);
+                Assert.assertEquals(lazyGraph.getTransactionDirection(txId) != Graph.UNDIRECTED, weight % 2 == 0);
+
+                // Each transaction is on a link and edge of its own.
+                final int linkId = lazyGraph.getTransactionLink(txId);
+                Assert.assertEquals(lazyGraph.getLink(lazyGraph.getTransactionSourceVertex(txId), lazyGraph.getTransactionDestinationVertex(txId)), linkId);
+                Assert.assertEquals(lazyGraph.getLinkTransactionCount(linkId), 1);
+                Assert.assertEquals(lazyGraph.getLinkTransaction(linkId, 0), txId);
+                final int edgeId = lazyGraph.getTransactionEdge(txId);
+                Assert.assertEquals(lazyGraph.getEdgeLink(edgeId), linkId);
+                Assert.assertEquals(lazyGraph.getEdgeSourceVertex(edgeId), lazyGraph.getTransactionSourceVertex(txId));
+                Assert.assertEquals(lazyGraph.getEdgeTransaction(edgeId, 0), txId);
+            }
+
+            // The vertices are in a chain, so the first has one neighbour and the next have two.
+            Assert.assertEquals(lazyGraph.getEdgeCount(), vertexCount - 2);
+            Assert.assertEquals(lazyGraph.getVertexNeighbourCount(vxId), 1);
+            Assert.assertEquals(lazyGraph.getStringValue(newNameAttrId, lazyGraph.getVertexNeighbour(vxId, 0)), "V2");
+            final int nextVxId = lazyGraph.getVertex(1);
+            Assert.assertEquals(lazyGraph.getVertexTransactionCount(nextVxId), 2);
+            Assert.assertEquals(lazyGraph.getVertexTransactionCount(nextVxId, Graph.INCOMING), 1);
+            Assert.assertEquals(lazyGraph.getVertexTransactionCount(nextVxId, Graph.UNDIRECTED), 1);
+
+            // The graph is read only, and can be copied into memory.
+            Assert.assertSame(lazyGraph.getReadableGraph(), lazyGraph);
+            Assert.expectThrows(UnsupportedOperationException.class, () -> lazyGraph.getWritableGraphNow("edit", true));
+            final GraphReadMethods copy = lazyGraph.copy();
+            Assert.assertEquals(copy.getVertexCount(), vertexCount - 1);
+            Assert.assertEquals(copy.getLinkCount(), vertexCount - 2);
+            Assert.assertEquals(copy.getIntValue(newWeightAttrId, copy.getTransaction(0)), 2);
+        } finally {
+            lazyGraph.closeFile();
+            graphFile.delete();
+        }
+    }
 }
@@ -267,6 +267,24 @@ public interface GraphReadMethods extends GraphConstants {
      */
     long getValueModificationCounter(final int attribute);
 
+    /**
+     * Returns the undo counter. This counter is changed every time changes to
+     * the graph are undone, and never goes back to a value it had before.
+     * Because undoing a change reverts the modification counters, a different
+     * change made after an undo can bring them back to values they had before,
+     * with different contents. Anything that remembers the modification
+     * counters to tell whether the graph has changed should remember this
+     * counter as well, and treat the graph as changed if it is different.
+     * <p>
+     * Graphs whose changes are never undone can keep the default, which always
+     * returns 0.
+     *
+     * @return the undo counter.
+     */
+    default long getUndoCounter() {
+        return 0;
+    }
+
     /**
      * Creates a complete deep copy of the graph that has the same id as this
      * graph. The copy is represented by a GraphReadMethods object meaning that
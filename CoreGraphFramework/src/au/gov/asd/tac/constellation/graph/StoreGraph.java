@@ -68,6 +68,14 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
     private static final int[] CATEGORY_TO_STATE = new int[]{6, 4, 5, 1, 3, 7, 2};
     private static final int[] STATE_TO_CATEGORY = new int[]{-1, 3, 6, 4, 1, 2, 0, 5};
 
+    // The number of attribute values that can be copied from another graph in
+    // roughly the time it takes to replay a single operation of an edit.
+    private static final int COLUMN_COPY_RATIO = 16;
+
+    // The number of attribute values that can be copied in roughly the time it
+    // takes to add a single element to the index of an attribute.
+    private static final int INDEX_REBUILD_COST = 4;
+
     private final ElementStore vStore;
     private final ElementStore lStore;
     private final ElementStore eStore;
@@ -314,6 +322,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         this.globalModificationCounter = original.globalModificationCounter;
         this.attributeModificationCounter = original.attributeModificationCounter;
         this.structureModificationCounter = original.structureModificationCounter;
+        this.undoCounter = original.undoCounter;
 
         this.lastFiredModificationCount = original.lastFiredModificationCount;
 
@@ -396,6 +405,74 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         validateKey(GraphElementType.TRANSACTION, true);
     }
 
+    /**
+     * Brings this graph into the same state as the source graph by copying the
+     * attribute columns whose values have changed on the source.
+     * <p>
+     * The copy is only performed when both graphs have the same structure and
+     * attributes, none of the changed attributes are part of a primary key,
+     * and copying the changed columns is cheaper than replaying an edit of the
+     * specified size. Otherwise this graph is left unchanged. Changed
+     * attributes that are indexed have their index rebuilt from the copied
+     * column, and the cost of that is included.
+     *
+     * @param source the graph to copy changed attribute columns from.
+     * @param editSize the number of operations in the edit that changed the
+     * source.
+     * @return true if this graph is now in the same state as the source, false
+     * if it has not been changed.
+     */
+    @Override
+    public boolean synchronise(final LockingTarget source, final int editSize) {
+        if (!(source instanceof StoreGraph sourceGraph)
+                || sourceGraph.structureModificationCounter != structureModificationCounter
+                || sourceGraph.attributeModificationCounter != attributeModificationCounter) {
+            return false;
+        }
+
+        final int attributeCount = aStore.getCount();
+        final int[] changedAttributes = new int[attributeCount];
+        int changedCount = 0;
+        long copySize = 0;
+        for (int position = 0; position < attributeCount; position++) {
+            final int attribute = aStore.getElement(position);
+            if (attributeModificationCounters[attribute] != sourceGraph.attributeModificationCounters[attribute]) {
+                if (primaryKeyLookup[attribute] >= 0 || attributeIndexTypes[attribute] != sourceGraph.attributeIndexTypes[attribute]) {
+                    return false;
+                }
+                changedAttributes[changedCount++] = attribute;
+                copySize += attributeDescriptions[attribute].getCapacity();
+                if (attributeIndexTypes[attribute] != GraphIndexType.NONE) {
+                    copySize += (long) attributes[attribute].getElementType().getElementCount(this) * INDEX_REBUILD_COST;
+                }
+            }
+        }
+
+        if (copySize > (long) editSize * COLUMN_COPY_RATIO) {
+            return false;
+        }
+
+        for (int i = 0; i < changedCount; i++) {
+            final int attribute = changedAttributes[i];
+            final AttributeDescription description = attributeDescriptions[attribute];
+            final int capacity = description.getCapacity();
+            description.restoreData(sourceGraph.attributeDescriptions[attribute].saveData());
+
+            // The source may have grown its element capacity during an earlier edit that was rolled back
+            if (description.getCapacity() != capacity) {
+                description.setCapacity(capacity);
+            }
+            if (attributeIndexTypes[attribute] != GraphIndexType.NONE) {
+                attributeIndices[attribute] = description.createIndex(attributeIndexTypes[attribute]);
+                addElementsToIndex(attribute);
+            }
+            attributeModificationCounters[attribute] = sourceGraph.attributeModificationCounters[attribute];
+        }
+        globalModificationCounter = sourceGraph.globalModificationCounter;
+
+        return true;
+    }
+
     @Override
     public void executeGraphOperation(final GraphOperation operation) {
         if (operation.isMoreEfficient()) {
@@ -550,6 +627,11 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         return attributeModificationCounters[attribute];
     }
 
+    @Override
+    public long getUndoCounter() {
+        return undoCounter;
+    }
+
     @Override
     public int getVertexCapacity() {
         return vStore.getCapacity();
@@ -2275,6 +2357,7 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
 
     protected void restore(final int attribute, final int id, final ParameterReadAccess access) {
         attributeDescriptions[attribute].restore(id, access);
+        attributeIndices[attribute].updateElement(id);
         attributeModificationCounters[attribute] += operationMode.getModificationIncrement();
         globalModificationCounter += operationMode.getModificationIncrement();
     }
@@ -2285,6 +2368,10 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
 
     protected void restoreData(final int attribute, final Object savedData) {
         attributeDescriptions[attribute].restoreData(savedData);
+        if (attributeIndexTypes[attribute] != GraphIndexType.NONE) {
+            attributeIndices[attribute] = attributeDescriptions[attribute].createIndex(attributeIndexTypes[attribute]);
+            addElementsToIndex(attribute);
+        }
         attributeModificationCounters[attribute] += operationMode.getModificationIncrement();
         globalModificationCounter += operationMode.getModificationIncrement();
     }
@@ -2323,14 +2410,8 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
             final AttributeDescription attributeDescription = attributeDescriptions[attribute];
             if (attributeDescription.supportsIndexType(indexType)) {
                 attributeIndexTypes[attribute] = indexType;
-                final GraphIndex index = attributeIndices[attribute] = attributeDescription.createIndex(indexType);
-
-                final GraphElementType elementType = attributes[attribute].getElementType();
-                final int elementCount = elementType.getElementCount(this);
-                for (int i = 0; i < elementCount; i++) {
-                    final int element = elementType.getElement(this, i);
-                    index.addElement(element);
-                }
+                attributeIndices[attribute] = attributeDescription.createIndex(indexType);
+                addElementsToIndex(attribute);
 
                 if (graphEdit != null) {
                     graphEdit.setAttributeIndexType(attribute, oldIndexType, indexType);
@@ -2339,6 +2420,16 @@ public class StoreGraph extends LockingTarget implements GraphWriteMethods, Seri
         }
     }
 
+    private void addElementsToIndex(final int attribute) {
+        final GraphIndex index = attributeIndices[attribute];
+        final GraphElementType elementType = attributes[attribute].getElementType();
+        final int elementCount = elementType.getElementCount(this);
+        for (int i = 0; i < elementCount; i++) {
+            final int element = elementType.getElement(this, i);
+            index.addElement(element);
+        }
+    }
+
     public AttributeRegistry getAttributeRegistry() {
         return attributeRegistry;
     }
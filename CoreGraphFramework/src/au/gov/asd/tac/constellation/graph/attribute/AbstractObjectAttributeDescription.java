@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.locking.ParameterReadAccess;
@@ -25,6 +27,7 @@ import au.gov.asd.tac.constellation.graph.value.variables.ObjectVariable;
 import java.lang.reflect.InvocationTargetException;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Describes an attribute backed by a class which extends Object. This provides
@@ -194,6 +197,27 @@ public abstract class AbstractObjectAttributeDescription<T extends Object> exten
         data = Arrays.copyOf(arrayData, arrayData.length);
     }
 
+    /**
+     * Create an unordered or ordered index on the values of this attribute.
+     * Descriptions whose values have a consistent hashCode() and equals() can
+     * support indexes by returning this from {@link #createIndex createIndex()}.
+     *
+     * @param indexType the type of index.
+     * @param comparator the order of the values for an ordered index.
+     * @return the index, or {@link AttributeDescription#NULL_GRAPH_INDEX} for
+     * {@link GraphIndexType#NONE}.
+     */
+    protected GraphIndex createObjectIndex(final GraphIndexType indexType, final Comparator<Object> comparator) {
+        return switch (indexType) {
+            case UNORDERED ->
+                new ObjectValueIndex(data.length, id -> data[id], this::convertFromObject, null);
+            case ORDERED ->
+                new ObjectValueIndex(data.length, id -> data[id], this::convertFromObject, comparator);
+            default ->
+                NULL_GRAPH_INDEX;
+        };
+    }
+
     @Override
     public Object createReadObject(final IntReadable indexReadable) {
         return (ObjectReadable) () -> data[indexReadable.readInt()];
@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
@@ -27,6 +29,9 @@ import org.openide.util.lookup.ServiceProvider;
  * descriptions which extend this class will need to explicitly override these
  * methods to throw an {@link IllegalArgumentException}. This may be changed in
  * the future.
+ * <p>
+ * Unordered indexes are supported, using the hashCode() and equals() of the
+ * values.
  *
  * @author cygnus_x-1
  */
@@ -44,4 +49,14 @@ public class ObjectAttributeDescription extends AbstractObjectAttributeDescripti
     public ObjectAttributeDescription(final String name) {
         super(name, Object.class, DEFAULT_VALUE);
     }
+
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return indexType != GraphIndexType.ORDERED;
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        return indexType == GraphIndexType.ORDERED ? NULL_GRAPH_INDEX : createObjectIndex(indexType, null);
+    }
 }
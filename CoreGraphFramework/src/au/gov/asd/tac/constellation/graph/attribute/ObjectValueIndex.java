@@ -0,0 +1,234 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.attribute;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * An index on an attribute whose values are objects.
+ * <p>
+ * Elements are grouped into buckets by value, held in a hash map for an
+ * unordered index or a tree map for an ordered index. Each element remembers
+ * the bucket it is in, so the index can be updated after the value of an
+ * element has changed, or when it is changed back by an undo.
+ *
+ * @author algol
+ */
+class ObjectValueIndex implements GraphIndex {
+
+    private static final int INITIAL_BUCKET_SIZE = 4;
+
+    private final IntFunction<Object> values;
+    private final UnaryOperator<Object> converter;
+    private final Map<Object, Bucket> buckets;
+    private Bucket nullBucket = null;
+
+    private Bucket[] elementBuckets;
+    private int[] elementPositions;
+
+    /**
+     * Create a new index.
+     *
+     * @param capacity the initial element capacity of the index.
+     * @param values provides the current value of an element.
+     * @param converter converts a value being searched for to the type of the
+     * attribute values in the same way as setObject(), throwing an
+     * IllegalArgumentException if it can't be converted.
+     * @param comparator the order of the values for an ordered index, or null
+     * for an unordered index.
+     */
+    ObjectValueIndex(final int capacity, final IntFunction<Object> values, final UnaryOperator<Object> converter, final Comparator<Object> comparator) {
+        this.values = values;
+        this.converter = converter;
+        this.buckets = comparator == null ? new HashMap<>() : new TreeMap<>(comparator);
+        elementBuckets = new Bucket[capacity];
+        elementPositions = new int[capacity];
+    }
+
+    @Override
+    public void addElement(final int element) {
+        if (elementBuckets[element] != null) {
+            removeElement(element);
+        }
+
+        final Object value = values.apply(element);
+        final Bucket bucket;
+        if (value == null) {
+            if (nullBucket == null) {
+                nullBucket = new Bucket(null);
+            }
+            bucket = nullBucket;
+        } else {
+            bucket = buckets.computeIfAbsent(value, Bucket::new);
+        }
+        bucket.add(element);
+    }
+
+    @Override
+    public void removeElement(final int element) {
+        final Bucket bucket = elementBuckets[element];
+        if (bucket != null) {
+            bucket.remove(element);
+            if (bucket.size == 0) {
+                if (bucket == nullBucket) {
+                    nullBucket = null;
+                } else {
+                    buckets.remove(bucket.value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void updateElement(final int element) {
+        final Bucket bucket = elementBuckets[element];
+        final Object value = values.apply(element);
+        if (bucket == null || (value == null ? bucket != nullBucket : !value.equals(bucket.value))) {
+            removeElement(element);
+            addElement(element);
+        }
+    }
+
+    @Override
+    public GraphIndexResult getElementsWithAttributeValue(final Object value) {
+        final Object key;
+        try {
+            key = converter.apply(value);
+        } catch (final IllegalArgumentException ex) {
+            // No element can have a value that isn't of the attribute type.
+            return new IndexResult(new int[0], 0);
+        }
+
+        final Bucket bucket = key == null ? nullBucket : buckets.get(key);
+        return bucket == null
+                ? new IndexResult(new int[0], 0)
+                : new IndexResult(Arrays.copyOf(bucket.elements, bucket.size), bucket.size);
+    }
+
+    /**
+     * Elements with a null value are never in a range. A null start or end
+     * leaves that end of the range unbounded.
+     *
+     * @param start the beginning of the range (inclusive).
+     * @param end the end of the range (exclusive).
+     * @return the elements with values in the range, or null if this is an
+     * unordered index.
+     */
+    @Override
+    public GraphIndexResult getElementsWithAttributeValueRange(final Object start, final Object end) {
+        if (!(buckets instanceof NavigableMap<Object, Bucket> tree)) {
+            return null;
+        }
+
+        final NavigableMap<Object, Bucket> range;
+        try {
+            final Object from = start == null ? null : converter.apply(start);
+            final Object to = end == null ? null : converter.apply(end);
+            if (from == null) {
+                range = to == null ? tree : tree.headMap(to, false);
+            } else if (to == null) {
+                range = tree.tailMap(from, true);
+            } else if (tree.comparator().compare(from, to) >= 0) {
+                return new IndexResult(new int[0], 0);
+            } else {
+                range = tree.subMap(from, true, to, false);
+            }
+        } catch (final IllegalArgumentException ex) {
+            return new IndexResult(new int[0], 0);
+        }
+
+        int count = 0;
+        for (final Bucket bucket : range.values()) {
+            count += bucket.size;
+        }
+        final int[] elements = new int[count];
+        int position = 0;
+        for (final Bucket bucket : range.values()) {
+            System.arraycopy(bucket.elements, 0, elements, position, bucket.size);
+            position += bucket.size;
+        }
+
+        return new IndexResult(elements, count);
+    }
+
+    @Override
+    public void expandCapacity(final int newCapacity) {
+        if (newCapacity > elementBuckets.length) {
+            elementBuckets = Arrays.copyOf(elementBuckets, newCapacity);
+            elementPositions = Arrays.copyOf(elementPositions, newCapacity);
+        }
+    }
+
+    private class Bucket {
+
+        private final Object value;
+        private int[] elements = new int[INITIAL_BUCKET_SIZE];
+        private int size = 0;
+
+        Bucket(final Object value) {
+            this.value = value;
+        }
+
+        void add(final int element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elementBuckets[element] = this;
+            elementPositions[element] = size;
+            elements[size++] = element;
+        }
+
+        void remove(final int element) {
+            final int position = elementPositions[element];
+            final int last = elements[--size];
+            elements[position] = last;
+            elementPositions[last] = position;
+            elementBuckets[element] = null;
+        }
+    }
+
+    private static class IndexResult implements GraphIndexResult {
+
+        private final int[] elements;
+        private final int count;
+        private int position = 0;
+
+        IndexResult(final int[] elements, final int count) {
+            this.elements = elements;
+            this.count = count;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public int getNextElement() {
+            return position < count ? elements[position++] : Graph.NOT_FOUND;
+        }
+    }
+}
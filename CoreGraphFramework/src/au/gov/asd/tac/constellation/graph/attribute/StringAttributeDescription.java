@@ -15,6 +15,8 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.GraphIndex;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.NativeAttributeType;
@@ -24,6 +26,8 @@ import au.gov.asd.tac.constellation.graph.value.readables.IntReadable;
 import au.gov.asd.tac.constellation.graph.value.readables.StringReadable;
 import au.gov.asd.tac.constellation.graph.value.variables.StringVariable;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.UnaryOperator;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
@@ -38,6 +42,9 @@ import org.openide.util.lookup.ServiceProvider;
  * type being requested. The {@link #getBoolean getBoolean()} method will yield
  * false for null or empty strings, otherwise
  * {@link Boolean#parseBoolean Boolean.parseBoolean()}.
+ * <p>
+ * Both unordered and ordered indexes are supported, ordered by
+ * {@link String#compareTo String.compareTo()}.
  *
  * @author cygnus_x-1
  */
@@ -49,6 +56,10 @@ public final class StringAttributeDescription extends AbstractAttributeDescripti
     public static final NativeAttributeType NATIVE_TYPE = NativeAttributeType.OBJECT;
     private static final String DEFAULT_VALUE = null;
 
+    // Convert search values in the same way as setObject().
+    private static final UnaryOperator<Object> STRING_CONVERTER = value -> value != null ? String.valueOf(value) : null;
+    private static final Comparator<Object> STRING_ORDER = Comparator.comparing(String.class::cast);
+
     private String[] data = new String[0];
     private String defaultValue = DEFAULT_VALUE;
 
@@ -259,6 +270,23 @@ public final class StringAttributeDescription extends AbstractAttributeDescripti
         data = Arrays.copyOf(sd, sd.length);
     }
 
+    @Override
+    public boolean supportsIndexType(final GraphIndexType indexType) {
+        return true;
+    }
+
+    @Override
+    public GraphIndex createIndex(final GraphIndexType indexType) {
+        return switch (indexType) {
+            case UNORDERED ->
+                new ObjectValueIndex(data.length, id -> data[id], STRING_CONVERTER, null);
+            case ORDERED ->
+                new ObjectValueIndex(data.length, id -> data[id], STRING_CONVERTER, STRING_ORDER);
+            default ->
+                NULL_GRAPH_INDEX;
+        };
+    }
+
     @Override
     public Object createReadObject(final IntReadable indexReadable) {
         return (StringReadable) () -> data[indexReadable.readInt()];
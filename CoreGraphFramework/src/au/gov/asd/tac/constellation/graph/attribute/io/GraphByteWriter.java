@@ -24,9 +24,9 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provide a mechanism for GraphIOProviders to write data to ancillary files in
@@ -35,6 +35,7 @@ import java.util.UUID;
  * Each GraphIOProvider will be offered a GraphByteWriter instance to send data
  * to. The GraphByteWriter will accumulate the various data streams and
  * (eventually) write them to the graph zip file as separate ZipEntry files.
+ * Data may be written from several threads at once.
  *
  * @author algol
  */
@@ -50,7 +51,7 @@ public final class GraphByteWriter {
      * Construct a new instance.
      */
     public GraphByteWriter() {
-        fileMap = new HashMap<>();
+        fileMap = new ConcurrentHashMap<>();
     }
 
     /**
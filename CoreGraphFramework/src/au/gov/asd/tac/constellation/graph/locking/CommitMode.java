@@ -0,0 +1,40 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.locking;
+
+/**
+ * A CommitMode determines how the {@link LockingManager} brings the reading
+ * graph up to date with the writing graph when a write lock is committed or
+ * flushed.
+ *
+ * @author sirius
+ */
+public enum CommitMode {
+
+    /**
+     * Replay mode. The complete edit recorded on the writing graph is executed
+     * again on the reading graph. The cost of each commit is proportional to
+     * the number of operations performed during the edit.
+     */
+    REPLAY,
+    /**
+     * Adaptive mode. When an edit only sets attribute values and copying the
+     * changed attribute columns from the writing graph is cheaper than
+     * replaying every operation, only the changed columns are copied to the
+     * reading graph. All other edits are replayed as in {@link #REPLAY} mode.
+     */
+    ADAPTIVE;
+}
@@ -57,6 +57,10 @@ import javax.swing.undo.UndoManager;
  * <li>The dual graph now grants a write lock on the new writing graph to the next waiting thread.
  * </ol>
  * <p>
+ * Before the swap, the old reading graph is brought up to date with the writing graph. By default, edits that only set
+ * attribute values are applied by copying the changed attribute columns when this is cheaper than replaying each
+ * operation of the edit. See {@link CommitMode}.
+ * <p>
  * If the writing thread chooses to roll back its changes then the writing graph is reverted back to the state of the
  * reading graph. In this case the graphs do not need to be swapped and a new write lock can be granted on the original
  * writing graph.
@@ -207,8 +211,39 @@ public class DualGraph implements Graph, Serializable {
         return lockingManager.tryStartWriting(name, significant, editor);
     }
 
+    /**
+     * Sets how the reading graph is brought up to date with the writing graph when changes are committed.
+     *
+     * @param commitMode the new commit mode.
+     */
+    public void setCommitMode(final CommitMode commitMode) {
+        lockingManager.setCommitMode(commitMode);
+    }
+
+    public CommitMode getCommitMode() {
+        return lockingManager.getCommitMode();
+    }
+
     @Override
     public void setUndoManager(final UndoManager undoManager) {
         lockingManager.setUndoManager(undoManager);
     }
+
+    /**
+     * Adds a listener that is told about every edit that changes the committed state of this graph.
+     *
+     * @param listener the listener to add.
+     */
+    public void addGraphEditListener(final GraphEditListener listener) {
+        lockingManager.addGraphEditListener(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addGraphEditListener(GraphEditListener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeGraphEditListener(final GraphEditListener listener) {
+        lockingManager.removeGraphEditListener(listener);
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.locking;
+
+import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
+
+/**
+ * A GraphEditListener is told about every edit that changes the committed
+ * state of a {@link DualGraph}, in the order the edits are applied.
+ * <p>
+ * Listeners are called while the global write lock of the graph is held, so
+ * they must return quickly and must not try to access the graph. Executing
+ * the edits passed to a listener, in order, against a copy of the graph taken
+ * before the first of them reproduces the current state of the graph.
+ *
+ * @author sirius
+ */
+public interface GraphEditListener {
+
+    /**
+     * Called when an edit has been committed or flushed, or has been redone.
+     *
+     * @param edit the finished edit.
+     */
+    void editExecuted(final UndoGraphEdit edit);
+
+    /**
+     * Called when an edit has been undone.
+     *
+     * @param edit the edit that has been undone.
+     */
+    void editUndone(final UndoGraphEdit edit);
+}
@@ -23,6 +23,7 @@ import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
@@ -56,6 +57,8 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
     private LockingEdit currentEdit = null;
     private LockingEdit initialEdit = null;
     private UndoManager undoManager;
+    private volatile CommitMode commitMode = CommitMode.ADAPTIVE;
+    private final CopyOnWriteArrayList<GraphEditListener> graphEditListeners = new CopyOnWriteArrayList<>();
     public static final String UNDO = "Undo";
     public static final String REDO = "Redo";
 
@@ -70,6 +73,22 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
         this.undoManager = undoManager;
     }
 
+    public final void setCommitMode(final CommitMode commitMode) {
+        this.commitMode = commitMode;
+    }
+
+    public final CommitMode getCommitMode() {
+        return commitMode;
+    }
+
+    public final void addGraphEditListener(final GraphEditListener listener) {
+        graphEditListeners.addIfAbsent(listener);
+    }
+
+    public final void removeGraphEditListener(final GraphEditListener listener) {
+        graphEditListeners.remove(listener);
+    }
+
     private final class Context {
 
         private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
@@ -219,6 +238,24 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
             }
         }
 
+        /**
+         * Bring the specified target up to date with the writing target. In
+         * {@link CommitMode#ADAPTIVE} mode, edits that only set attribute
+         * values give the target the chance to copy the changed data directly
+         * from the writing target. Otherwise, this edit is replayed on the
+         * target.
+         *
+         * @param target the target to bring up to date.
+         * @param source the writing target that this edit has been made on.
+         */
+        private void synchronise(final T target, final T source) {
+            if (!(commitMode == CommitMode.ADAPTIVE && followingChildren == null && graphEdit.isValueOnly()
+                    && target.synchronise(source, graphEdit.getEditSize()))) {
+                execute(target);
+            }
+            target.copyUndoCounter(source);
+        }
+
         private void undo(final T target) {
             if (followingChildren != null) {
                 for (int i = followingChildren.size() - 1; i >= 0; i--) {
@@ -229,6 +266,30 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
             graphEdit.undo((GraphWriteMethods) target);
         }
 
+        private void fireExecuted() {
+            for (final GraphEditListener listener : graphEditListeners) {
+                listener.editExecuted(graphEdit);
+            }
+
+            if (followingChildren != null) {
+                for (final LockingEdit followingChild : followingChildren) {
+                    followingChild.fireExecuted();
+                }
+            }
+        }
+
+        private void fireUndone() {
+            if (followingChildren != null) {
+                for (int i = followingChildren.size() - 1; i >= 0; i--) {
+                    followingChildren.get(i).fireUndone();
+                }
+            }
+
+            for (final GraphEditListener listener : graphEditListeners) {
+                listener.editUndone(graphEdit);
+            }
+        }
+
         public LockingEdit(final String name, final boolean significant, final Object editor) {
             this.name = name;
             this.significant = significant;
@@ -260,12 +321,14 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
                         undo(originalReadContext.target);
                         originalReadContext.target.validateKeys();
                         originalReadContext.target.setOperationMode(GraphOperationMode.EXECUTE);
+                        originalReadContext.target.copyUndoCounter(writeContext.target);
                     } finally {
                         originalReadContext.lock.writeLock().unlock();
                     }
 
                     // Switch the write context
                     writeContext = originalReadContext;
+                    fireUndone();
                 } finally {
                     // Unlock the global write lock so new write requests can begin on the new write context
                     globalWriteLock.unlock();
@@ -319,6 +382,7 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
                     // Switch the write context
                     writeContext = originalReadContext;
+                    fireExecuted();
                 } finally {
                     // Unlock the global write lock so new write requests can begin on the new write context
                     globalWriteLock.unlock();
@@ -402,13 +466,14 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
                 originalReadContext.lock.writeLock().lock();
                 try {
-                    execute(originalReadContext.target);
+                    synchronise(originalReadContext.target, writeContext.target);
                     originalReadContext.target.validateKeys();
                 } finally {
                     originalReadContext.lock.writeLock().unlock();
                 }
 
                 writeContext = originalReadContext;
+                fireExecuted();
 
                 if (undoManager != null) {
                     SwingUtilities.invokeLater(() -> undoManager.undoableEditHappened(new UndoableEditEvent(LockingManager.this, LockingEdit.this)));
@@ -443,13 +508,14 @@ public class LockingManager<T extends LockingTarget> implements Serializable {
 
                 originalReadContext.lock.writeLock().lock();
                 try {
-                    execute(originalReadContext.target);
+                    synchronise(originalReadContext.target, writeContext.target);
                     originalReadContext.target.validateKeys();
                 } finally {
                     originalReadContext.lock.writeLock().unlock();
                 }
 
                 writeContext = originalReadContext;
+                fireExecuted();
 
                 if (undoManager != null) {
                     SwingUtilities.invokeLater(() -> undoManager.undoableEditHappened(new UndoableEditEvent(LockingManager.this, LockingEdit.this)));
@@ -18,6 +18,7 @@ package au.gov.asd.tac.constellation.graph.locking;
 import au.gov.asd.tac.constellation.graph.DuplicateKeyException;
 import static au.gov.asd.tac.constellation.graph.locking.LockingManager.VERBOSE;
 import au.gov.asd.tac.constellation.graph.undo.GraphEdit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -32,6 +33,11 @@ public abstract class LockingTarget implements ReadingInterface {
     Lock lock;
     protected GraphOperationMode operationMode = GraphOperationMode.EXECUTE;
 
+    // Shared by all targets so that an undo never gives a target a value that any target has had before.
+    private static final AtomicLong UNDO_COUNTER = new AtomicLong();
+    protected long undoCounter = 0;
+    private long undoModificationCounter;
+
     private static final Logger LOGGER = Logger.getLogger(LockingTarget.class.getName());
 
     @Override
@@ -52,7 +58,54 @@ public abstract class LockingTarget implements ReadingInterface {
 
     public abstract void setGraphEdit(final GraphEdit graphEdit);
 
+    /**
+     * Attempt to bring this target into the same state as the specified source
+     * target by copying the data that has changed on the source, rather than
+     * replaying the edit that changed it.
+     * <p>
+     * This is only ever called when this target was in the same state as the
+     * source before the source was modified by an edit that only set attribute
+     * values. Targets that cannot synchronise themselves in this way should
+     * return false, in which case the edit will be replayed instead.
+     *
+     * @param source the target to copy changed data from.
+     * @param editSize the number of operations in the edit that changed the
+     * source.
+     * @return true if this target is now in the same state as the source, false
+     * if it has not been changed and the edit should be replayed.
+     */
+    public boolean synchronise(final LockingTarget source, final int editSize) {
+        return false;
+    }
+
+    /**
+     * Set the mode that operations on this target are performed in.
+     * <p>
+     * Every operation undone reverts the modification counter, so if it is
+     * different when this target leaves {@link GraphOperationMode#UNDO} mode
+     * then something was undone and the undo counter takes a new value.
+     * Nothing changes if nothing was undone, as when an empty edit is rolled
+     * back.
+     *
+     * @param operationMode the new operation mode.
+     */
     public void setOperationMode(final GraphOperationMode operationMode) {
+        if (operationMode == GraphOperationMode.UNDO && this.operationMode != GraphOperationMode.UNDO) {
+            undoModificationCounter = getModificationCounter();
+        } else if (operationMode != GraphOperationMode.UNDO && this.operationMode == GraphOperationMode.UNDO
+                && getModificationCounter() != undoModificationCounter) {
+            undoCounter = UNDO_COUNTER.incrementAndGet();
+        }
         this.operationMode = operationMode;
     }
+
+    /**
+     * Take the undo counter of a target that this target has been brought
+     * into the same state as.
+     *
+     * @param source the target that this target is now in the same state as.
+     */
+    void copyUndoCounter(final LockingTarget source) {
+        undoCounter = source.undoCounter;
+    }
 }
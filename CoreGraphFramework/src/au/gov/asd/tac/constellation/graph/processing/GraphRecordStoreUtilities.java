@@ -21,14 +21,15 @@ import au.gov.asd.tac.constellation.graph.GraphAttribute;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
-import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionType;
-import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionTypeUtilities;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.type.SchemaVertexTypeUtilities;
 import au.gov.asd.tac.constellation.graph.utilities.CompositeTransactionId;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -37,12 +38,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 
@@ -57,8 +54,8 @@ public class GraphRecordStoreUtilities {
         throw new IllegalStateException("Utility class");
     }
 
-    private static final int NO_ELEMENT = -1;
-    private static final String TYPE_KEY = "Type<string>";
+    static final int NO_ELEMENT = -1;
+    static final String TYPE_KEY = "Type<string>";
 
     public static final String COPY = "copy.";
     public static final String SOURCE = "source.";
@@ -75,10 +72,6 @@ public class GraphRecordStoreUtilities {
     private static final String FALSE = "false";
     private static final String NUMBER_STRING_STRING_FORMAT = "%d:%s:%s";
 
-    private static final Charset UTF8 = StandardCharsets.UTF_8;
-
-    private static final Logger LOGGER = Logger.getLogger(GraphRecordStoreUtilities.class.getName());
-
     // Columns that contain the type, either through the Identifier or Type.
     private static final List<String> LabelTypes = Arrays.asList(
             "source.Identifier",
@@ -90,83 +83,7 @@ public class GraphRecordStoreUtilities {
     );
     private static final List<String> ApprovedTypes = SchemaVertexTypeUtilities.getTypes().stream().map(i -> i.getName()).collect(Collectors.toList());
 
-    private static int addVertex(final GraphWriteMethods graph, final Map<String, String> values,
-            final Map<String, Integer> vertexMap, final boolean initializeWithSchema, boolean completeWithSchema,
-            final List<Integer> newVertices, final Set<Integer> ghostVertices, final List<String> vertexIdAttributes) {
-        String idValue = values.remove(ID);
-
-        // If the idValue has not been set and we have vertexIdAttributes then create an idValue automatically
-        if (idValue == null && vertexIdAttributes != null) {
-            final StringBuilder idBuilder = new StringBuilder();
-            String delimiter = "";
-
-            // If the vertexIdAttributes is not null but empty then use all attributes of the vertex
-            if (vertexIdAttributes.isEmpty()) {
-                for (final Entry<String, String> e : values.entrySet()) {
-                    idBuilder.append(delimiter).append(e.getKey()).append("=");
-                    if (e.getValue() != null) {
-                        for (final byte b : e.getValue().getBytes(UTF8)) {
-                            int i = b;
-                            if (i < 0) {
-                                i += 256;
-                            }
-                            if (i < 16) {
-                                idBuilder.append('0');
-                            }
-                            idBuilder.append(Integer.toHexString(i));
-                        }
-                        delimiter = ",";
-                    }
-                }
-            } else { // Otherwise use the specified attributes to create the idValue
-                for (final String attribute : vertexIdAttributes) {
-                    final String value = values.get(attribute);
-                    if (value != null) {
-                        idBuilder.append(delimiter).append(attribute).append("=");
-                        for (final byte b : value.getBytes(UTF8)) {
-                            int i = b;
-                            if (i < 0) {
-                                i += 256;
-                            }
-                            if (i < 16) {
-                                idBuilder.append('0');
-                            }
-                            idBuilder.append(Integer.toHexString(i));
-                        }
-                        delimiter = ",";
-                    }
-                }
-            }
-
-            idValue = idBuilder.length() == 0 ? "***" : idBuilder.toString();
-        }
-
-        final int vertex = getVertex(graph, idValue, vertexMap, initializeWithSchema, newVertices);
-
-        if (values.remove(DELETE_KEY) != null) {
-            graph.removeVertex(vertex);
-            return NO_ELEMENT;
-        }
-
-        if (values.remove(GHOST) != null) {
-            ghostVertices.add(vertex);
-        }
-
-        final String completeWithSchemaValue = values.remove(COMPLETE_WITH_SCHEMA_KEY);
-        if (completeWithSchemaValue != null) {
-            completeWithSchema = Boolean.parseBoolean(completeWithSchemaValue);
-        }
-
-        copyValues(graph, GraphElementType.VERTEX, vertex, values);
-
-        if (completeWithSchema && graph.getSchema() != null) {
-            graph.getSchema().completeVertex(graph, vertex);
-        }
-
-        return vertex;
-    }
-
-    private static int getVertex(final GraphWriteMethods graph, final String id, final Map<String, Integer> vertexMap,
+    static int getVertex(final GraphWriteMethods graph, final String id, final Map<String, Integer> vertexMap,
             final boolean initializeWithSchema, final List<Integer> newVertices) {
         if (StringUtils.isNotBlank(id)) {
             try {
@@ -209,48 +126,7 @@ public class GraphRecordStoreUtilities {
         return vertex;
     }
 
-    private static int addTransaction(final GraphWriteMethods graph, final int source, final int destination,
-            final Map<String, String> values, final Map<String, Integer> transactionMap,
-            final boolean initializeWithSchema, boolean completeWithSchema) {
-        final String type = values.get(TYPE_KEY);
-        final String directedValue = values.get(DIRECTED_KEY);
-        boolean directed = true;
-        if (directedValue != null) {
-            directed = !"False".equalsIgnoreCase(directedValue);
-        } else {
-            final SchemaTransactionType transactionType = SchemaTransactionTypeUtilities.getType(type);
-            if (transactionType != null) {
-                directed = transactionType.isDirected();
-            }
-        }
-
-        final String completeWithSchemaValue = values.remove(COMPLETE_WITH_SCHEMA_KEY);
-        if (completeWithSchemaValue != null) {
-            completeWithSchema = Boolean.parseBoolean(completeWithSchemaValue);
-        }
-
-        final String idValue = values.remove(ID);
-        final int transaction = getTransaction(graph, idValue, source, destination, directed, transactionMap, initializeWithSchema);
-
-        if (values.remove(DELETE_KEY) != null) {
-            graph.removeTransaction(transaction);
-            return NO_ELEMENT;
-        }
-
-        if (transaction == NO_ELEMENT) { // TODO: should this check be done before the delete?
-            return NO_ELEMENT;
-        }
-
-        copyValues(graph, GraphElementType.TRANSACTION, transaction, values);
-
-        if (completeWithSchema && graph.getSchema() != null) {
-            graph.getSchema().completeTransaction(graph, transaction);
-        }
-
-        return transaction;
-    }
-
-    private static int getTransaction(final GraphWriteMethods graph, final String id, final int source,
+    static int getTransaction(final GraphWriteMethods graph, final String id, final int source,
             final int destination, final boolean directed, final Map<String, Integer> transactionMap,
             final boolean initializeWithSchema) {
         if (StringUtils.isNotBlank(id)) {
@@ -293,63 +169,6 @@ public class GraphRecordStoreUtilities {
         return transaction;
     }
 
-    private static void copyValues(final GraphWriteMethods graph, final GraphElementType elementType, final int element,
-            final Map<String, String> values) {
-        /**
-         * check whether a transaction type is inconsistent with the direction attribute, if so make a custom type
-         */
-        if (GraphElementType.TRANSACTION.equals(elementType)) {
-            final String requestedDirected = values.remove(DIRECTED_KEY);
-            if (requestedDirected != null) {
-                final String type = values.get(TYPE_KEY);
-                final SchemaTransactionType currentType = SchemaTransactionTypeUtilities.getType(type);
-                if (currentType != null) {
-                    final boolean directed = Boolean.parseBoolean(requestedDirected);
-                    // if the requested direction is different to the type's direction then make a new type
-                    if (Boolean.TRUE.equals(currentType.isDirected()) != directed) {
-                        final String typeName = String.format("%s (%s)", currentType, directed ? "directed" : "undirected");
-                        final SchemaTransactionType modifiedType = new SchemaTransactionType.Builder(currentType, typeName)
-                                .setDirected(Boolean.valueOf(requestedDirected))
-                                .build();
-
-                        if (!SchemaTransactionTypeUtilities.containsType(modifiedType)) {
-                            SchemaTransactionTypeUtilities.addCustomType(modifiedType, false);
-                        }
-                        values.put(TYPE_KEY, modifiedType.getName());
-                    }
-                }
-            }
-        }
-
-        values.entrySet().stream().forEach(entry -> {
-            String key = entry.getKey();
-            String type = "string";
-            if (key.endsWith(">")) {
-                final int typeStart = key.lastIndexOf('<');
-                if (typeStart > 0) {
-                    type = key.substring(typeStart + 1, key.length() - 1);
-                    key = key.substring(0, typeStart);
-                }
-            }
-
-            // TODO: look at ensure(true/false)
-            int attribute = graph.getAttribute(elementType, key);
-            if (attribute == Graph.NOT_FOUND) {
-                attribute = graph.getSchema() != null ? graph.getSchema().getFactory().ensureAttribute(graph, elementType, key) : Graph.NOT_FOUND;
-                if (attribute == Graph.NOT_FOUND) {
-                    attribute = graph.addAttribute(elementType, type, key, key, null, null);
-                }
-            }
-
-            try {
-                graph.setStringValue(attribute, element, entry.getValue());
-            } catch (final Exception ex) {
-                // keeping this as an Exception to catch broad exceptions that can be thrown due to bad data
-                LOGGER.log(Level.SEVERE, "Discarding unexpected value {0} seen in attribute {1}", new Object[]{entry.getValue(), graph.getAttributeName(attribute)});
-            }
-        });
-    }
-
     /**
      * Adds the contents of the specified {@link RecordStore} to the specified graph.
      *
@@ -393,8 +212,6 @@ public class GraphRecordStoreUtilities {
         final Set<Integer> ghostVertices = new HashSet<>();
 
         recordStore.reset();
-        final List<String> keys = recordStore instanceof GraphRecordStore graphRecordStore
-                ? graphRecordStore.keysWithType() : recordStore.keys();
 
         if (vertexMap == null) {
             vertexMap = new HashMap<>();
@@ -403,52 +220,10 @@ public class GraphRecordStoreUtilities {
             transactionMap = new HashMap<>();
         }
 
+        final RecordStoreIngestPlan plan = new RecordStoreIngestPlan(graph, recordStore, initializeWithSchema, completeWithSchema,
+                vertexIdAttributes, vertexMap, transactionMap, newVertices, ghostVertices);
         while (recordStore.next()) {
-            final Map<String, String> sourceValues = new TreeMap<>();
-            final Map<String, String> destinationValues = new TreeMap<>();
-            final Map<String, String> transactionValues = new TreeMap<>();
-            for (final String key : keys) {
-                if (recordStore.hasValue(key)) {
-                    String value = recordStore.get(key);
-                    final int dividerPosition = key.indexOf('.');
-
-                    if (dividerPosition > 0) {
-                        final String keyDescriptor = key.substring(0, dividerPosition).toLowerCase();
-                        final String keyAttribute = key.substring(dividerPosition + 1);
-                        final String[] parts = keyDescriptor.split("\\.");
-                        final String label = key.split("<")[0];
-
-                        if (LabelTypes.indexOf(label) > -1) {
-                            value = normalizeType(value);
-                        }
-
-                        switch (parts[0]) {
-                            case "source" ->
-                                sourceValues.put(keyAttribute, value);
-                            case "destination" ->
-                                destinationValues.put(keyAttribute, value);
-                            case "transaction" ->
-                                transactionValues.put(keyAttribute, value);
-                            default -> {
-                                // do nothing
-                            }
-                        }
-                    }
-                }
-            }
-
-            if (sourceValues.isEmpty() && destinationValues.isEmpty() && transactionValues.containsKey(ID)) {
-                // This will not add a new transaction to the graph (as source and destination are both -1), but if the transaction exists already it will be returned allowing it to be selected.
-                addTransaction(graph, NO_ELEMENT, NO_ELEMENT, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
-            } else if (!sourceValues.isEmpty() && !destinationValues.isEmpty()) {
-                final int source = addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-                final int destination = addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-                addTransaction(graph, source, destination, transactionValues, transactionMap, initializeWithSchema, completeWithSchema);
-            } else if (!sourceValues.isEmpty()) {
-                addVertex(graph, sourceValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-            } else if (!destinationValues.isEmpty()) {
-                addVertex(graph, destinationValues, vertexMap, initializeWithSchema, completeWithSchema, newVertices, ghostVertices, vertexIdAttributes);
-            }
+            plan.addRecord();
         }
 
         // Ghost vertices only exist to allow transactions to be present. If, after merging has occurred, a ghost
@@ -500,6 +275,26 @@ public class GraphRecordStoreUtilities {
         return recordstore;
     }
 
+    /**
+     * Populate a new {@link TypedRecordStore} with the attribute values of vertices, transactions and their endpoint
+     * vertices. Integer, long, float, double and boolean attributes are copied without being converted to strings.
+     *
+     * @param graph A {@link GraphReadMethods} from which the {@link RecordStore} will be created.
+     * @param singletonsOnly Only include singleton vertices. This is useful when building a RecordStore that reflects
+     * the graph structure.
+     * @param selectedOnly A boolean value specifying whether or not to only include selected graph elements in the
+     * {@link RecordStore}.
+     * @param disassociateIds If true, the ids of the graph elements in the created {@link RecordStore} will be distinct
+     * from the ids of the graph elements on the graph.
+     * @return A {@link TypedRecordStore} representing the graph's vertices and transactions.
+     */
+    public static TypedRecordStore getTypedAll(final GraphReadMethods graph, final boolean singletonsOnly,
+            final boolean selectedOnly, final boolean disassociateIds) {
+        final TypedRecordStore recordStore = getVertices(graph, singletonsOnly, selectedOnly, disassociateIds, new int[]{0}, -1, new TypedRecordStore());
+        recordStore.add(getTransactions(graph, selectedOnly, disassociateIds, new int[]{0}, -1, new TypedRecordStore()));
+        return recordStore;
+    }
+
     /**
      * Populate a new {@link RecordStore} with the attribute values of any selected vertices, transactions and their
      * endpoint vertices.
@@ -547,13 +342,56 @@ public class GraphRecordStoreUtilities {
      */
     public static GraphRecordStore getVertices(final GraphReadMethods graph, final boolean singletonsOnly,
             final boolean selectedOnly, final boolean disassociateIds, final int[] offset, final int limit) {
-        final GraphRecordStore recordStore = new GraphRecordStore();
+        return getVertices(graph, singletonsOnly, selectedOnly, disassociateIds, offset, limit, new GraphRecordStore());
+    }
+
+    /**
+     * Populate a new {@link TypedRecordStore} with the attribute values of the vertices. Integer, long, float, double
+     * and boolean attributes are copied without being converted to strings.
+     *
+     * @param graph A {@link GraphReadMethods} from which {@link RecordStore} will be created.
+     * @param singletonsOnly Only include singleton vertices.
+     * @param selectedOnly A boolean value specifying whether or not to only include selected graph elements in the
+     * {@link RecordStore}.
+     * @param disassociateIds If true, the ids of the graph elements in the created {@link RecordStore} will be distinct
+     * from the ids of the graph elements on the graph.
+     * @return A {@link TypedRecordStore} representing the graph's vertices.
+     */
+    public static TypedRecordStore getTypedVertices(final GraphReadMethods graph, final boolean singletonsOnly,
+            final boolean selectedOnly, final boolean disassociateIds) {
+        return getVertices(graph, singletonsOnly, selectedOnly, disassociateIds, new int[]{0}, -1, new TypedRecordStore());
+    }
+
+    /**
+     * Populate a new {@link TypedRecordStore} with the attribute values of the vertices, starting at the specified
+     * offset and limited to the specified number of results. Integer, long, float, double and boolean attributes are
+     * copied without being converted to strings.
+     *
+     * @param graph A {@link GraphReadMethods} from which {@link RecordStore} will be created.
+     * @param singletonsOnly Only include singleton vertices.
+     * @param selectedOnly A boolean value specifying whether or not to only include selected graph elements in the
+     * {@link RecordStore}.
+     * @param disassociateIds If true, the ids of the graph elements in the created {@link RecordStore} will be distinct
+     * from the ids of the graph elements on the graph.
+     * @param offset An array of integers, where the zeroth value represents the vertex position from which to begin
+     * collection.
+     * @param limit An integer value representing the maximum number of vertices to collect.
+     * @return A {@link TypedRecordStore} representing the graph's vertices.
+     */
+    public static TypedRecordStore getTypedVertices(final GraphReadMethods graph, final boolean singletonsOnly,
+            final boolean selectedOnly, final boolean disassociateIds, final int[] offset, final int limit) {
+        return getVertices(graph, singletonsOnly, selectedOnly, disassociateIds, offset, limit, new TypedRecordStore());
+    }
 
+    private static <R extends RecordStore> R getVertices(final GraphReadMethods graph, final boolean singletonsOnly,
+            final boolean selectedOnly, final boolean disassociateIds, final int[] offset, final int limit, final R recordStore) {
         final int attributeCount = graph.getAttributeCount(GraphElementType.VERTEX);
         final Attribute[] attributes = new Attribute[attributeCount];
+        final String[] keys = new String[attributeCount];
         for (int a = 0; a < attributeCount; a++) {
             final int attributeId = graph.getAttribute(GraphElementType.VERTEX, a);
             attributes[a] = new GraphAttribute(graph, attributeId);
+            keys[a] = SOURCE + attributes[a].getName() + "<" + attributes[a].getAttributeType() + ">";
         }
 
         final int selected = graph.getAttribute(GraphElementType.VERTEX, SELECTED_ATTRIBUTE_NAME);
@@ -565,9 +403,8 @@ public class GraphRecordStoreUtilities {
             if ((!selectedOnly || graph.getBooleanValue(selected, vxId)) && (!singletonsOnly || graph.getVertexNeighbourCount(vxId) == 0)) {
                 recordStore.add();
 
-                for (final Attribute attribute : attributes) {
-                    final String type = attribute.getAttributeType();
-                    recordStore.set(SOURCE + attribute.getName() + "<" + type + ">", graph.getStringValue(attribute.getId(), vxId));
+                for (int a = 0; a < attributeCount; a++) {
+                    setValue(graph, recordStore, keys[a], attributes[a], vxId);
                 }
 
                 recordStore.set(SOURCE + ID, disassociateIds ? "id-" + vxId : String.valueOf(vxId));
@@ -757,20 +594,65 @@ public class GraphRecordStoreUtilities {
      * @return A {@link RecordStore} representing the graph's transactions.
      */
     public static GraphRecordStore getTransactions(final GraphReadMethods graph, final boolean selectedOnly, final boolean disassociateIds, final int[] offset, final int limit) {
-        final GraphRecordStore recordStore = new GraphRecordStore();
+        return getTransactions(graph, selectedOnly, disassociateIds, offset, limit, new GraphRecordStore());
+    }
 
+    /**
+     * Populate a new {@link TypedRecordStore} with the attribute values of the transactions and their endpoint
+     * vertices. Integer, long, float, double and boolean attributes are copied without being converted to strings.
+     *
+     * @param graph A {@link GraphReadMethods} from which the RecordStore will be created.
+     * @param selectedOnly A boolean value specifying whether or not to only include selected transactions in the
+     * {@link RecordStore}.
+     * @param disassociateIds If true, the ids of the transactions in the created {@link RecordStore} will be distinct
+     * from the ids of the transactions on the graph.
+     * @return A {@link TypedRecordStore} representing the graph's transactions.
+     */
+    public static TypedRecordStore getTypedTransactions(final GraphReadMethods graph, final boolean selectedOnly, final boolean disassociateIds) {
+        return getTransactions(graph, selectedOnly, disassociateIds, new int[]{0}, -1, new TypedRecordStore());
+    }
+
+    /**
+     * Populate a new {@link TypedRecordStore} with the attribute values of the transactions and their endpoint
+     * vertices, starting at the specified offset and limited to the specified number of results. Integer, long, float,
+     * double and boolean attributes are copied without being converted to strings.
+     *
+     * @param graph A {@link GraphReadMethods} from which the RecordStore will be created.
+     * @param selectedOnly A boolean value specifying whether or not to only include selected transactions in the
+     * {@link RecordStore}.
+     * @param disassociateIds If true, the ids of the transactions in the created {@link RecordStore} will be distinct
+     * from the ids of the transactions on the graph.
+     * @param offset An array of integers, where the zeroth value represents the transaction position from which to
+     * begin collection
+     * @param limit An integer value representing the maximum number of transactions to collect.
+     * @return A {@link TypedRecordStore} representing the graph's transactions.
+     */
+    public static TypedRecordStore getTypedTransactions(final GraphReadMethods graph, final boolean selectedOnly, final boolean disassociateIds,
+            final int[] offset, final int limit) {
+        return getTransactions(graph, selectedOnly, disassociateIds, offset, limit, new TypedRecordStore());
+    }
+
+    private static <R extends RecordStore> R getTransactions(final GraphReadMethods graph, final boolean selectedOnly, final boolean disassociateIds,
+            final int[] offset, final int limit, final R recordStore) {
         final int transactionAttributeCount = graph.getAttributeCount(GraphElementType.TRANSACTION);
         final Attribute[] transactionAttributes = new Attribute[transactionAttributeCount];
+        final String[] transactionKeys = new String[transactionAttributeCount];
         for (int a = 0; a < transactionAttributeCount; a++) {
             final int attributeId = graph.getAttribute(GraphElementType.TRANSACTION, a);
             transactionAttributes[a] = new GraphAttribute(graph, attributeId);
+            transactionKeys[a] = TRANSACTION + transactionAttributes[a].getName() + "<" + transactionAttributes[a].getAttributeType() + ">";
         }
 
         final int vertexAttributeCount = graph.getAttributeCount(GraphElementType.VERTEX);
         final Attribute[] vertexAttributes = new Attribute[vertexAttributeCount];
+        final String[] sourceKeys = new String[vertexAttributeCount];
+        final String[] destinationKeys = new String[vertexAttributeCount];
         for (int a = 0; a < vertexAttributeCount; a++) {
             final int attributeId = graph.getAttribute(GraphElementType.VERTEX, a);
             vertexAttributes[a] = new GraphAttribute(graph, attributeId);
+            final String typedName = vertexAttributes[a].getName() + "<" + vertexAttributes[a].getAttributeType() + ">";
+            sourceKeys[a] = SOURCE + typedName;
+            destinationKeys[a] = DESTINATION + typedName;
         }
 
         final int selected = graph.getAttribute(GraphElementType.TRANSACTION, SELECTED_ATTRIBUTE_NAME);
@@ -784,15 +666,13 @@ public class GraphRecordStoreUtilities {
             if (!selectedOnly || graph.getBooleanValue(selected, txId)) {
                 recordStore.add();
 
-                for (final Attribute transactionAttribute : transactionAttributes) {
-                    final String type = transactionAttribute.getAttributeType();
-                    recordStore.set(TRANSACTION + transactionAttribute.getName() + "<" + type + ">", graph.getStringValue(transactionAttribute.getId(), txId));
+                for (int a = 0; a < transactionAttributeCount; a++) {
+                    setValue(graph, recordStore, transactionKeys[a], transactionAttributes[a], txId);
                 }
 
-                for (final Attribute vertexAttribute : vertexAttributes) {
-                    final String type = vertexAttribute.getAttributeType();
-                    recordStore.set(SOURCE + vertexAttribute.getName() + "<" + type + ">", graph.getStringValue(vertexAttribute.getId(), source));
-                    recordStore.set(DESTINATION + vertexAttribute.getName() + "<" + type + ">", graph.getStringValue(vertexAttribute.getId(), destination));
+                for (int a = 0; a < vertexAttributeCount; a++) {
+                    setValue(graph, recordStore, sourceKeys[a], vertexAttributes[a], source);
+                    setValue(graph, recordStore, destinationKeys[a], vertexAttributes[a], destination);
                 }
                 if (graph.getTransactionDirection(txId) == Graph.UNDIRECTED) {
                     recordStore.set(TRANSACTION + DIRECTED_KEY, FALSE);
@@ -816,6 +696,42 @@ public class GraphRecordStoreUtilities {
         return recordStore;
     }
 
+    /**
+     * Copy the value of an attribute to the current record of a {@link RecordStore}. Values of primitive attributes
+     * are copied to a {@link TypedRecordStore} without being converted to strings.
+     */
+    private static void setValue(final GraphReadMethods graph, final RecordStore recordStore, final String key,
+            final Attribute attribute, final int element) {
+        if (recordStore instanceof TypedRecordStore typedRecordStore) {
+            switch (attribute.getAttributeType()) {
+                case IntegerAttributeDescription.ATTRIBUTE_NAME -> {
+                    typedRecordStore.setInt(key, graph.getIntValue(attribute.getId(), element));
+                    return;
+                }
+                case LongAttributeDescription.ATTRIBUTE_NAME -> {
+                    typedRecordStore.setLong(key, graph.getLongValue(attribute.getId(), element));
+                    return;
+                }
+                case FloatAttributeDescription.ATTRIBUTE_NAME -> {
+                    typedRecordStore.setFloat(key, graph.getFloatValue(attribute.getId(), element));
+                    return;
+                }
+                case DoubleAttributeDescription.ATTRIBUTE_NAME -> {
+                    typedRecordStore.setDouble(key, graph.getDoubleValue(attribute.getId(), element));
+                    return;
+                }
+                case BooleanAttributeDescription.ATTRIBUTE_NAME -> {
+                    typedRecordStore.setBoolean(key, graph.getBooleanValue(attribute.getId(), element));
+                    return;
+                }
+                default -> {
+                    // copied as a string below
+                }
+            }
+        }
+        recordStore.set(key, graph.getStringValue(attribute.getId(), element));
+    }
+
     /**
      * Populate a new {@link RecordStore} with the attribute values of the selected transactions.
      *
@@ -1117,25 +1033,30 @@ public class GraphRecordStoreUtilities {
     }
 
     /**
-     * Normalize a type to existing schema types based on case sensitivity e.g. person, PERSON, Person, will all
-     * normalize to the schema Type Person.
+     * Find the schema type that is spelt the same as a type regardless of case.
      *
-     * @param vxLabel The {@link String} representing the complete label of a vertex e.g. def@example2.com&lt;email&gt;.
-     * @return The normalized type e.g. Email
+     * @param type The name of a type.
+     * @return The name of the matching schema type, or the given type if it is already a schema type or no schema
+     * type matches.
      */
-    private static String normalizeType(final String vxLabel) {
-        if (vxLabel != null) {
-            final String[] parts = vxLabel.split("<");
-            final String type = parts.length != 2 ? parts[0] : parts[1].substring(0, parts[1].length() - 1);
-            // Identify a type that is spelt the same regardless of case.
-            if (ApprovedTypes.indexOf(type) == -1) {
-                final Optional<String> foundType = ApprovedTypes.stream().filter(i -> i.equalsIgnoreCase(type)).findFirst();
-                if (foundType.isPresent()) {
-                    return parts.length != 2 ? foundType.get() : parts[0] + "<" + foundType.get() + ">";
-                }
+    static String getApprovedType(final String type) {
+        if (ApprovedTypes.indexOf(type) == -1) {
+            final Optional<String> foundType = ApprovedTypes.stream().filter(i -> i.equalsIgnoreCase(type)).findFirst();
+            if (foundType.isPresent()) {
+                return foundType.get();
             }
         }
-        return vxLabel;
+        return type;
+    }
+
+    /**
+     * Whether the values of a record store key contain a vertex type which should be normalized.
+     *
+     * @param key A record store key e.g. source.Identifier&lt;string&gt;.
+     * @return True if values of the key should be normalized with the schema types.
+     */
+    static boolean isLabelTypeKey(final String key) {
+        return LabelTypes.indexOf(key.split("<")[0]) > -1;
     }
 
     /**
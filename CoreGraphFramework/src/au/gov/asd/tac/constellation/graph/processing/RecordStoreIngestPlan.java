@@ -0,0 +1,531 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.processing;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore.ColumnType;
+import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionType;
+import au.gov.asd.tac.constellation.graph.schema.type.SchemaTransactionTypeUtilities;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A compiled plan for adding the records of a {@link RecordStore} to a graph.
+ * <p>
+ * {@link GraphRecordStoreUtilities#addRecordStoreToGraph} used to split every
+ * key of every record to work out which element it belonged to, collect the
+ * values of each element into a new map, and look up each attribute by name.
+ * None of that depends on the record, so this class does it once for the keys
+ * of the record store: each key is assigned to a slot of the source,
+ * destination or transaction element, the special keys such as
+ * {@link GraphRecordStoreUtilities#ID} are located, and graph attribute ids are
+ * resolved the first time each slot is written and then cached. Each record is
+ * then copied into reusable per-element arrays.
+ * <p>
+ * When the record store is a {@link TypedRecordStore}, values of primitive
+ * columns are written to attributes of the same type with the typed setters of
+ * the graph, so they are never converted to strings.
+ * <p>
+ * The values of an element are visited in the natural order of their keys, as
+ * they were when collected into a {@link TreeMap}, so attributes are created
+ * and generated vertex ids are built in the same order as before.
+ *
+ * @author algol
+ */
+final class RecordStoreIngestPlan {
+
+    private static final Logger LOGGER = Logger.getLogger(RecordStoreIngestPlan.class.getName());
+
+    // Limit the number of label types remembered, as a label without a type is its own type.
+    private static final int TYPE_CACHE_LIMIT = 1024;
+
+    private final GraphWriteMethods graph;
+    private final RecordStore recordStore;
+    private final TypedRecordStore typedRecordStore;
+    private final boolean initializeWithSchema;
+    private final boolean completeWithSchema;
+    private final List<String> vertexIdAttributes;
+    private final Map<String, Integer> vertexMap;
+    private final Map<String, Integer> transactionMap;
+    private final List<Integer> newVertices;
+    private final Set<Integer> ghostVertices;
+
+    private final ElementLayout source;
+    private final ElementLayout destination;
+    private final ElementLayout transaction;
+
+    // The keys that are copied to an element, and where they are copied to.
+    private final String[] columnKeys;
+    private final ElementLayout[] columnLayouts;
+    private final int[] columnSlots;
+    private final boolean[] columnNormalized;
+    private final ColumnType[] columnTypes;
+
+    private final Map<String, String> typeCache = new HashMap<>();
+
+    /**
+     * Compile a plan for adding the records of a record store to a graph.
+     *
+     * @param graph the graph to add records to.
+     * @param recordStore the record store.
+     * @param initializeWithSchema whether new elements are initialised with
+     * the schema.
+     * @param completeWithSchema whether elements are completed with the schema
+     * by default.
+     * @param vertexIdAttributes the attributes used to create a vertex id when
+     * none is given, or null.
+     * @param vertexMap the map of record vertex ids to graph vertex ids.
+     * @param transactionMap the map of record transaction ids to graph
+     * transaction ids.
+     * @param newVertices the list to add new vertices to.
+     * @param ghostVertices the set to add ghost vertices to.
+     */
+    RecordStoreIngestPlan(final GraphWriteMethods graph, final RecordStore recordStore, final boolean initializeWithSchema,
+            final boolean completeWithSchema, final List<String> vertexIdAttributes, final Map<String, Integer> vertexMap,
+            final Map<String, Integer> transactionMap, final List<Integer> newVertices, final Set<Integer> ghostVertices) {
+        this.graph = graph;
+        this.recordStore = recordStore;
+        this.typedRecordStore = recordStore instanceof TypedRecordStore typed ? typed : null;
+        this.initializeWithSchema = initializeWithSchema;
+        this.completeWithSchema = completeWithSchema;
+        this.vertexIdAttributes = vertexIdAttributes;
+        this.vertexMap = vertexMap;
+        this.transactionMap = transactionMap;
+        this.newVertices = newVertices;
+        this.ghostVertices = ghostVertices;
+
+        final List<String> keys;
+        if (recordStore instanceof GraphRecordStore graphRecordStore) {
+            keys = graphRecordStore.keysWithType();
+        } else if (typedRecordStore != null) {
+            keys = typedRecordStore.keysWithType();
+        } else {
+            keys = recordStore.keys();
+        }
+
+        final Map<String, List<Integer>> sourceKeys = new TreeMap<>();
+        final Map<String, List<Integer>> destinationKeys = new TreeMap<>();
+        final Map<String, List<Integer>> transactionKeys = new TreeMap<>();
+        final List<Integer> columns = new ArrayList<>();
+        for (int k = 0; k < keys.size(); k++) {
+            final String key = keys.get(k);
+            final int dividerPosition = key.indexOf('.');
+            if (dividerPosition > 0) {
+                final Map<String, List<Integer>> elementKeys = switch (key.substring(0, dividerPosition).toLowerCase()) {
+                    case "source" ->
+                        sourceKeys;
+                    case "destination" ->
+                        destinationKeys;
+                    case "transaction" ->
+                        transactionKeys;
+                    default ->
+                        null;
+                };
+                if (elementKeys != null) {
+                    elementKeys.computeIfAbsent(key.substring(dividerPosition + 1), attribute -> new ArrayList<>()).add(columns.size());
+                    columns.add(k);
+                }
+            }
+        }
+
+        columnKeys = new String[columns.size()];
+        columnLayouts = new ElementLayout[columns.size()];
+        columnSlots = new int[columns.size()];
+        columnNormalized = new boolean[columns.size()];
+        columnTypes = new ColumnType[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            final String key = keys.get(columns.get(c));
+            columnKeys[c] = key;
+            columnNormalized[c] = GraphRecordStoreUtilities.isLabelTypeKey(key);
+            columnTypes[c] = typedRecordStore != null && !columnNormalized[c] ? typedRecordStore.getColumnType(key) : ColumnType.STRING;
+        }
+
+        source = new ElementLayout(GraphElementType.VERTEX, sourceKeys);
+        destination = new ElementLayout(GraphElementType.VERTEX, destinationKeys);
+        transaction = new ElementLayout(GraphElementType.TRANSACTION, transactionKeys);
+    }
+
+    /**
+     * Add the current record of the record store to the graph.
+     */
+    void addRecord() {
+        source.clear();
+        destination.clear();
+        transaction.clear();
+
+        for (int c = 0; c < columnKeys.length; c++) {
+            if (recordStore.hasValue(columnKeys[c])) {
+                if (columnTypes[c] != ColumnType.STRING && !typedRecordStore.isNull(columnKeys[c])) {
+                    columnLayouts[c].putTyped(columnSlots[c], c);
+                } else {
+                    final String value = recordStore.get(columnKeys[c]);
+                    columnLayouts[c].put(columnSlots[c], columnNormalized[c] ? normalizeType(value) : value);
+                }
+            }
+        }
+
+        if (source.presentCount == 0 && destination.presentCount == 0 && transaction.isPresent(transaction.idSlot)) {
+            // This will not add a new transaction to the graph (as source and destination are both -1), but if the transaction exists already it will be returned allowing it to be selected.
+            addTransaction(GraphRecordStoreUtilities.NO_ELEMENT, GraphRecordStoreUtilities.NO_ELEMENT);
+        } else if (source.presentCount > 0 && destination.presentCount > 0) {
+            final int sourceVertex = addVertex(source);
+            final int destinationVertex = addVertex(destination);
+            addTransaction(sourceVertex, destinationVertex);
+        } else if (source.presentCount > 0) {
+            addVertex(source);
+        } else if (destination.presentCount > 0) {
+            addVertex(destination);
+        } else {
+            // Nothing to add
+        }
+    }
+
+    private String normalizeType(final String vxLabel) {
+        if (vxLabel == null) {
+            return null;
+        }
+
+        final String[] parts = vxLabel.split("<");
+        final String type = parts.length != 2 ? parts[0] : parts[1].substring(0, parts[1].length() - 1);
+        String approvedType = typeCache.get(type);
+        if (approvedType == null) {
+            approvedType = GraphRecordStoreUtilities.getApprovedType(type);
+            if (typeCache.size() < TYPE_CACHE_LIMIT) {
+                typeCache.put(type, approvedType);
+            }
+        }
+
+        if (approvedType.equals(type)) {
+            return vxLabel;
+        }
+        return parts.length != 2 ? approvedType : parts[0] + "<" + approvedType + ">";
+    }
+
+    private int addVertex(final ElementLayout layout) {
+        String idValue = layout.take(layout.idSlot);
+
+        // If the idValue has not been set and we have vertexIdAttributes then create an idValue automatically
+        if (idValue == null && vertexIdAttributes != null) {
+            final StringBuilder idBuilder = new StringBuilder();
+            String delimiter = "";
+
+            // If the vertexIdAttributes is not null but empty then use all attributes of the vertex
+            if (vertexIdAttributes.isEmpty()) {
+                for (int slot = 0; slot < layout.slotCount; slot++) {
+                    if (layout.present[slot]) {
+                        idBuilder.append(delimiter).append(layout.slotKeys[slot]).append("=");
+                        final String value = layout.value(slot);
+                        if (value != null) {
+                            appendHex(idBuilder, value);
+                            delimiter = ",";
+                        }
+                    }
+                }
+            } else { // Otherwise use the specified attributes to create the idValue
+                for (int i = 0; i < layout.idAttributeSlots.length; i++) {
+                    final String value = layout.get(layout.idAttributeSlots[i]);
+                    if (value != null) {
+                        idBuilder.append(delimiter).append(vertexIdAttributes.get(i)).append("=");
+                        appendHex(idBuilder, value);
+                        delimiter = ",";
+                    }
+                }
+            }
+
+            idValue = idBuilder.length() == 0 ? "***" : idBuilder.toString();
+        }
+
+        final int vertex = GraphRecordStoreUtilities.getVertex(graph, idValue, vertexMap, initializeWithSchema, newVertices);
+
+        if (layout.take(layout.deleteSlot) != null) {
+            graph.removeVertex(vertex);
+            return GraphRecordStoreUtilities.NO_ELEMENT;
+        }
+
+        if (layout.take(layout.ghostSlot) != null) {
+            ghostVertices.add(vertex);
+        }
+
+        boolean complete = completeWithSchema;
+        final String completeWithSchemaValue = layout.take(layout.completeWithSchemaSlot);
+        if (completeWithSchemaValue != null) {
+            complete = Boolean.parseBoolean(completeWithSchemaValue);
+        }
+
+        copyValues(layout, vertex);
+
+        if (complete && graph.getSchema() != null) {
+            graph.getSchema().completeVertex(graph, vertex);
+        }
+
+        return vertex;
+    }
+
+    private int addTransaction(final int sourceVertex, final int destinationVertex) {
+        final ElementLayout layout = transaction;
+        final String type = layout.get(layout.typeSlot);
+        final String directedValue = layout.get(layout.directedSlot);
+        boolean directed = true;
+        if (directedValue != null) {
+            directed = !"False".equalsIgnoreCase(directedValue);
+        } else {
+            final SchemaTransactionType transactionType = SchemaTransactionTypeUtilities.getType(type);
+            if (transactionType != null) {
+                directed = transactionType.isDirected();
+            }
+        }
+
+        boolean complete = completeWithSchema;
+        final String completeWithSchemaValue = layout.take(layout.completeWithSchemaSlot);
+        if (completeWithSchemaValue != null) {
+            complete = Boolean.parseBoolean(completeWithSchemaValue);
+        }
+
+        final String idValue = layout.take(layout.idSlot);
+        final int transactionId = GraphRecordStoreUtilities.getTransaction(graph, idValue, sourceVertex, destinationVertex, directed, transactionMap, initializeWithSchema);
+
+        if (layout.take(layout.deleteSlot) != null) {
+            graph.removeTransaction(transactionId);
+            return GraphRecordStoreUtilities.NO_ELEMENT;
+        }
+
+        if (transactionId == GraphRecordStoreUtilities.NO_ELEMENT) {
+            return GraphRecordStoreUtilities.NO_ELEMENT;
+        }
+
+        // check whether a transaction type is inconsistent with the direction attribute, if so make a custom type
+        final String requestedDirected = layout.take(layout.directedSlot);
+        if (requestedDirected != null) {
+            final SchemaTransactionType currentType = SchemaTransactionTypeUtilities.getType(layout.get(layout.typeSlot));
+            if (currentType != null) {
+                final boolean requestedDirection = Boolean.parseBoolean(requestedDirected);
+                // if the requested direction is different to the type's direction then make a new type
+                if (Boolean.TRUE.equals(currentType.isDirected()) != requestedDirection) {
+                    final String typeName = String.format("%s (%s)", currentType, requestedDirection ? "directed" : "undirected");
+                    final SchemaTransactionType modifiedType = new SchemaTransactionType.Builder(currentType, typeName)
+                            .setDirected(Boolean.valueOf(requestedDirected))
+                            .build();
+
+                    if (!SchemaTransactionTypeUtilities.containsType(modifiedType)) {
+                        SchemaTransactionTypeUtilities.addCustomType(modifiedType, false);
+                    }
+                    layout.put(layout.typeSlot, modifiedType.getName());
+                }
+            }
+        }
+
+        copyValues(layout, transactionId);
+
+        if (complete && graph.getSchema() != null) {
+            graph.getSchema().completeTransaction(graph, transactionId);
+        }
+
+        return transactionId;
+    }
+
+    private void copyValues(final ElementLayout layout, final int element) {
+        for (int slot = 0; slot < layout.slotCount; slot++) {
+            if (layout.present[slot]) {
+                final int attribute = layout.getAttribute(slot);
+                final int column = layout.typedColumns[slot];
+                try {
+                    if (column >= 0 && layout.attributeMatchesColumn[slot]) {
+                        setTypedValue(attribute, element, column);
+                    } else {
+                        graph.setStringValue(attribute, element, layout.value(slot));
+                    }
+                } catch (final Exception ex) {
+                    // keeping this as an Exception to catch broad exceptions that can be thrown due to bad data
+                    LOGGER.log(Level.SEVERE, "Discarding unexpected value {0} seen in attribute {1}", new Object[]{layout.value(slot), graph.getAttributeName(attribute)});
+                }
+            }
+        }
+    }
+
+    private void setTypedValue(final int attribute, final int element, final int column) {
+        final String key = columnKeys[column];
+        switch (columnTypes[column]) {
+            case INT ->
+                graph.setIntValue(attribute, element, typedRecordStore.getInt(key));
+            case LONG ->
+                graph.setLongValue(attribute, element, typedRecordStore.getLong(key));
+            case FLOAT ->
+                graph.setFloatValue(attribute, element, typedRecordStore.getFloat(key));
+            case DOUBLE ->
+                graph.setDoubleValue(attribute, element, typedRecordStore.getDouble(key));
+            case BOOLEAN ->
+                graph.setBooleanValue(attribute, element, typedRecordStore.getBoolean(key));
+            default ->
+                graph.setStringValue(attribute, element, recordStore.get(key));
+        }
+    }
+
+    private static void appendHex(final StringBuilder idBuilder, final String value) {
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            final int i = b & 0xFF;
+            if (i < 16) {
+                idBuilder.append('0');
+            }
+            idBuilder.append(Integer.toHexString(i));
+        }
+    }
+
+    /**
+     * The slots of one element (the source vertex, destination vertex or
+     * transaction) of a record, and the values of the current record.
+     */
+    private final class ElementLayout {
+
+        private final GraphElementType elementType;
+        private final int slotCount;
+        private final String[] slotKeys;
+        private final String[] attributeNames;
+        private final String[] attributeTypes;
+        private final int[] attributeIds;
+        private final boolean[] attributeResolved;
+        private final boolean[] attributeMatchesColumn;
+
+        private final int idSlot;
+        private final int ghostSlot;
+        private final int deleteSlot;
+        private final int completeWithSchemaSlot;
+        private final int directedSlot;
+        private final int typeSlot;
+        private final int[] idAttributeSlots;
+
+        private final String[] values;
+        // The typed column holding the value of each slot, or -1 if the value is in values.
+        private final int[] typedColumns;
+        private final boolean[] present;
+        private int presentCount;
+
+        private ElementLayout(final GraphElementType elementType, final Map<String, List<Integer>> keys) {
+            this.elementType = elementType;
+            this.slotCount = keys.size();
+            this.slotKeys = keys.keySet().toArray(new String[slotCount]);
+            this.attributeNames = new String[slotCount];
+            this.attributeTypes = new String[slotCount];
+            this.attributeIds = new int[slotCount];
+            this.attributeResolved = new boolean[slotCount];
+            this.attributeMatchesColumn = new boolean[slotCount];
+            this.values = new String[slotCount];
+            this.typedColumns = new int[slotCount];
+            this.present = new boolean[slotCount];
+
+            final List<String> slotKeyList = Arrays.asList(slotKeys);
+            for (int slot = 0; slot < slotCount; slot++) {
+                String name = slotKeys[slot];
+                String type = "string";
+                if (name.endsWith(">")) {
+                    final int typeStart = name.lastIndexOf('<');
+                    if (typeStart > 0) {
+                        type = name.substring(typeStart + 1, name.length() - 1);
+                        name = name.substring(0, typeStart);
+                    }
+                }
+                attributeNames[slot] = name;
+                attributeTypes[slot] = type;
+
+                for (final int column : keys.get(slotKeys[slot])) {
+                    columnLayouts[column] = this;
+                    columnSlots[column] = slot;
+                }
+            }
+
+            idSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.ID);
+            ghostSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.GHOST);
+            deleteSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.DELETE_KEY);
+            completeWithSchemaSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.COMPLETE_WITH_SCHEMA_KEY);
+            directedSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.DIRECTED_KEY);
+            typeSlot = slotKeyList.indexOf(GraphRecordStoreUtilities.TYPE_KEY);
+
+            idAttributeSlots = vertexIdAttributes == null ? new int[0]
+                    : vertexIdAttributes.stream().mapToInt(slotKeyList::indexOf).toArray();
+        }
+
+        private void clear() {
+            Arrays.fill(present, false);
+            Arrays.fill(values, null);
+            Arrays.fill(typedColumns, -1);
+            presentCount = 0;
+        }
+
+        private void put(final int slot, final String value) {
+            if (!present[slot]) {
+                present[slot] = true;
+                presentCount++;
+            }
+            values[slot] = value;
+            typedColumns[slot] = -1;
+        }
+
+        private void putTyped(final int slot, final int column) {
+            put(slot, null);
+            typedColumns[slot] = column;
+        }
+
+        private String value(final int slot) {
+            return typedColumns[slot] >= 0 ? recordStore.get(columnKeys[typedColumns[slot]]) : values[slot];
+        }
+
+        private boolean isPresent(final int slot) {
+            return slot >= 0 && present[slot];
+        }
+
+        private String get(final int slot) {
+            return isPresent(slot) ? value(slot) : null;
+        }
+
+        /**
+         * Remove a value from the current record so that it isn't copied to
+         * an attribute.
+         */
+        private String take(final int slot) {
+            if (!isPresent(slot)) {
+                return null;
+            }
+            present[slot] = false;
+            return value(slot);
+        }
+
+        private int getAttribute(final int slot) {
+            if (!attributeResolved[slot]) {
+                final String name = attributeNames[slot];
+                int attribute = graph.getAttribute(elementType, name);
+                if (attribute == Graph.NOT_FOUND) {
+                    attribute = graph.getSchema() != null ? graph.getSchema().getFactory().ensureAttribute(graph, elementType, name) : Graph.NOT_FOUND;
+                    if (attribute == Graph.NOT_FOUND) {
+                        attribute = graph.addAttribute(elementType, attributeTypes[slot], name, name, null, null);
+                    }
+                }
+                attributeIds[slot] = attribute;
+                attributeMatchesColumn[slot] = attributeTypes[slot].equals(graph.getAttributeType(attribute));
+                attributeResolved[slot] = true;
+            }
+            return attributeIds[slot];
+        }
+    }
+}
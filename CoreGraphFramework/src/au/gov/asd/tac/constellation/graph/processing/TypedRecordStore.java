@@ -0,0 +1,832 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.processing;
+
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.DoubleAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.LongAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A columnar implementation of {@link RecordStore} which stores the values of
+ * numeric and boolean columns as primitives.
+ * <p>
+ * Like {@link GraphRecordStore}, keys may carry the type of their values, eg
+ * source.Count&lt;integer&gt;, and may be looked up with or without the type.
+ * The type of a key decides how its column is stored: integer, long, float,
+ * double and boolean columns are held in primitive arrays, and all other
+ * columns are held as indexes into a dictionary of the distinct strings in the
+ * column. Each column has a bitmap of the records that have a value and a
+ * bitmap of the records whose value is null.
+ * <p>
+ * The {@link RecordStore} methods read and write values as strings, converting
+ * them to and from the column type. A string that can't be parsed as the type
+ * of its column turns the column into a string column, so that no value is
+ * ever lost. The typed accessors such as {@link #getInt(String)} and
+ * {@link #setInt(String, int)} read and write primitive columns directly
+ * without the conversion.
+ *
+ * @author algol
+ */
+public class TypedRecordStore implements RecordStore {
+
+    /**
+     * The ways a column of a TypedRecordStore can be stored.
+     */
+    public enum ColumnType {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        BOOLEAN,
+        STRING;
+
+        /**
+         * Get the column type used to store values of an attribute type.
+         *
+         * @param attributeType the name of an attribute type, eg integer.
+         * @return the column type for the attribute type.
+         */
+        public static ColumnType forAttributeType(final String attributeType) {
+            return switch (attributeType) {
+                case IntegerAttributeDescription.ATTRIBUTE_NAME ->
+                    INT;
+                case LongAttributeDescription.ATTRIBUTE_NAME ->
+                    LONG;
+                case FloatAttributeDescription.ATTRIBUTE_NAME ->
+                    FLOAT;
+                case DoubleAttributeDescription.ATTRIBUTE_NAME ->
+                    DOUBLE;
+                case BooleanAttributeDescription.ATTRIBUTE_NAME ->
+                    BOOLEAN;
+                default ->
+                    STRING;
+            };
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Columns by key with type, in the order they were created.
+    private final Map<String, Column> typedColumns = new LinkedHashMap<>();
+    // Columns by key without type.
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private int size = 0;
+    private int capacity = INITIAL_CAPACITY;
+    private int currentRecord = -1;
+
+    private Column getColumn(final String key) {
+        final Column column = typedColumns.get(key);
+        return column != null ? column : columns.get(key);
+    }
+
+    private Column getOrCreateColumn(final String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+
+        Column column = getColumn(key);
+        if (column == null) {
+            final String typedKey;
+            final String untypedKey;
+            final String type;
+            final int typeIndex = key.indexOf('<');
+            if (typeIndex == -1) {
+                untypedKey = key;
+                typedKey = key + "<" + StringAttributeDescription.ATTRIBUTE_NAME + ">";
+                type = StringAttributeDescription.ATTRIBUTE_NAME;
+            } else {
+                typedKey = key;
+                untypedKey = key.substring(0, typeIndex);
+                type = key.endsWith(">") ? key.substring(typeIndex + 1, key.length() - 1) : StringAttributeDescription.ATTRIBUTE_NAME;
+            }
+            column = new Column(ColumnType.forAttributeType(type));
+            typedColumns.put(typedKey, column);
+            columns.put(untypedKey, column);
+        }
+        return column;
+    }
+
+    private void checkRecord(final int record) {
+        if (record < 0 || record >= size) {
+            throw new IllegalArgumentException("Invalid record: " + record);
+        }
+    }
+
+    /**
+     * Get the keys of this record store with their types, eg
+     * source.Identifier&lt;string&gt;.
+     *
+     * @return the keys of this record store with their types.
+     */
+    public List<String> keysWithType() {
+        return new ArrayList<>(typedColumns.keySet());
+    }
+
+    /**
+     * Get how the values of a key are stored.
+     *
+     * @param key the key, with or without its type.
+     * @return the type of the column holding the values of the key, or null if
+     * there is no such column.
+     */
+    public ColumnType getColumnType(final String key) {
+        final Column column = getColumn(key);
+        return column == null ? null : column.type;
+    }
+
+    /**
+     * Check whether a record has no value, or a null value, for a key.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return true if the record has no value or a null value for the key.
+     */
+    public boolean isNull(final int record, final String key) {
+        final Column column = getColumn(key);
+        return column == null || !column.hasValue(record) || column.isNull(record);
+    }
+
+    /**
+     * Check whether the current record has no value, or a null value, for a
+     * key.
+     *
+     * @param key the key.
+     * @return true if the current record has no value or a null value for the
+     * key.
+     */
+    public boolean isNull(final String key) {
+        return isNull(currentRecord, key);
+    }
+
+    /**
+     * Get a value of an integer column.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return the value, or 0 if the record has no value or a null value.
+     * @throws IllegalArgumentException if the column is not an integer column.
+     */
+    public int getInt(final int record, final String key) {
+        final Column column = getTypedColumn(key, ColumnType.INT);
+        return column.isNull(record) ? 0 : column.ints[record];
+    }
+
+    public int getInt(final String key) {
+        return getInt(currentRecord, key);
+    }
+
+    /**
+     * Get a value of an integer or long column.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return the value, or 0 if the record has no value or a null value.
+     * @throws IllegalArgumentException if the column is not an integer or long
+     * column.
+     */
+    public long getLong(final int record, final String key) {
+        final Column column = getColumn(key);
+        if (column == null || (column.type != ColumnType.INT && column.type != ColumnType.LONG)) {
+            throw new IllegalArgumentException(String.format("Key %s is not an integer or long column", key));
+        }
+        if (column.isNull(record)) {
+            return 0;
+        }
+        return column.type == ColumnType.INT ? column.ints[record] : column.longs[record];
+    }
+
+    public long getLong(final String key) {
+        return getLong(currentRecord, key);
+    }
+
+    /**
+     * Get a value of a float column.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return the value, or 0 if the record has no value or a null value.
+     * @throws IllegalArgumentException if the column is not a float column.
+     */
+    public float getFloat(final int record, final String key) {
+        final Column column = getTypedColumn(key, ColumnType.FLOAT);
+        return column.isNull(record) ? 0 : column.floats[record];
+    }
+
+    public float getFloat(final String key) {
+        return getFloat(currentRecord, key);
+    }
+
+    /**
+     * Get a value of a numeric column as a double.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return the value, or 0 if the record has no value or a null value.
+     * @throws IllegalArgumentException if the column is not a numeric column.
+     */
+    public double getDouble(final int record, final String key) {
+        final Column column = getColumn(key);
+        if (column == null || column.type == ColumnType.BOOLEAN || column.type == ColumnType.STRING) {
+            throw new IllegalArgumentException(String.format("Key %s is not a numeric column", key));
+        }
+        if (column.isNull(record)) {
+            return 0;
+        }
+        return switch (column.type) {
+            case INT ->
+                column.ints[record];
+            case LONG ->
+                column.longs[record];
+            case FLOAT ->
+                column.floats[record];
+            default ->
+                column.doubles[record];
+        };
+    }
+
+    public double getDouble(final String key) {
+        return getDouble(currentRecord, key);
+    }
+
+    /**
+     * Get a value of a boolean column.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @return the value, or false if the record has no value or a null value.
+     * @throws IllegalArgumentException if the column is not a boolean column.
+     */
+    public boolean getBoolean(final int record, final String key) {
+        final Column column = getTypedColumn(key, ColumnType.BOOLEAN);
+        return !column.isNull(record) && getBit(column.booleans, record);
+    }
+
+    public boolean getBoolean(final String key) {
+        return getBoolean(currentRecord, key);
+    }
+
+    private Column getTypedColumn(final String key, final ColumnType type) {
+        final Column column = getColumn(key);
+        if (column == null || column.type != type) {
+            throw new IllegalArgumentException(String.format("Key %s is not a column of type %s", key, type));
+        }
+        return column;
+    }
+
+    /**
+     * Set a value of a key. If the key is not an integer column, the value is
+     * set as a string.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @param value the value.
+     */
+    public void setInt(final int record, final String key, final int value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key);
+        switch (column.type) {
+            case INT -> {
+                column.ensureCapacity(record);
+                column.ints[record] = value;
+                column.setPresent(record);
+            }
+            case LONG ->
+                setLong(record, key, value);
+            case DOUBLE ->
+                setDouble(record, key, value);
+            default ->
+                column.set(record, Integer.toString(value));
+        }
+    }
+
+    public void setInt(final String key, final int value) {
+        setInt(currentRecord, key, value);
+    }
+
+    /**
+     * Set a value of a key. If the key is not a long column, the value is set
+     * as a string.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @param value the value.
+     */
+    public void setLong(final int record, final String key, final long value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key);
+        if (column.type == ColumnType.LONG) {
+            column.ensureCapacity(record);
+            column.longs[record] = value;
+            column.setPresent(record);
+        } else {
+            column.set(record, Long.toString(value));
+        }
+    }
+
+    public void setLong(final String key, final long value) {
+        setLong(currentRecord, key, value);
+    }
+
+    /**
+     * Set a value of a key. If the key is not a float column, the value is set
+     * as a string.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @param value the value.
+     */
+    public void setFloat(final int record, final String key, final float value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key);
+        if (column.type == ColumnType.FLOAT) {
+            column.ensureCapacity(record);
+            column.floats[record] = value;
+            column.setPresent(record);
+        } else {
+            column.set(record, Float.toString(value));
+        }
+    }
+
+    public void setFloat(final String key, final float value) {
+        setFloat(currentRecord, key, value);
+    }
+
+    /**
+     * Set a value of a key. If the key is not a double column, the value is set
+     * as a string.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @param value the value.
+     */
+    public void setDouble(final int record, final String key, final double value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key);
+        if (column.type == ColumnType.DOUBLE) {
+            column.ensureCapacity(record);
+            column.doubles[record] = value;
+            column.setPresent(record);
+        } else {
+            column.set(record, Double.toString(value));
+        }
+    }
+
+    public void setDouble(final String key, final double value) {
+        setDouble(currentRecord, key, value);
+    }
+
+    /**
+     * Set a value of a key. If the key is not a boolean column, the value is
+     * set as a string.
+     *
+     * @param record the record.
+     * @param key the key.
+     * @param value the value.
+     */
+    public void setBoolean(final int record, final String key, final boolean value) {
+        checkRecord(record);
+        final Column column = getOrCreateColumn(key);
+        if (column.type == ColumnType.BOOLEAN) {
+            column.booleans = setBit(column.booleans, record, value);
+            column.setPresent(record);
+        } else {
+            column.set(record, Boolean.toString(value));
+        }
+    }
+
+    public void setBoolean(final String key, final boolean value) {
+        setBoolean(currentRecord, key, value);
+    }
+
+    @Override
+    public int add() {
+        currentRecord = size++;
+        if (size > capacity) {
+            capacity <<= 1;
+        }
+        return currentRecord;
+    }
+
+    @Override
+    public void add(final RecordStore recordStore) {
+        if (recordStore instanceof TypedRecordStore typedRecordStore) {
+            final int first = size;
+            for (int record = 0; record < typedRecordStore.size(); record++) {
+                add();
+            }
+            for (final Map.Entry<String, Column> entry : typedRecordStore.typedColumns.entrySet()) {
+                final Column from = entry.getValue();
+                final Column to = getOrCreateColumn(entry.getKey());
+                for (int record = 0; record < typedRecordStore.size(); record++) {
+                    if (from.hasValue(record)) {
+                        to.copy(first + record, from, record);
+                    }
+                }
+            }
+        } else {
+            final List<String> keys = recordStore instanceof GraphRecordStore graphRecordStore
+                    ? graphRecordStore.keysWithType() : recordStore.keys();
+            for (int record = 0; record < recordStore.size(); record++) {
+                final int newRecord = add();
+                for (final String key : keys) {
+                    if (recordStore.hasValue(record, key)) {
+                        set(newRecord, key, recordStore.get(record, key));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int index() {
+        return currentRecord;
+    }
+
+    @Override
+    public boolean next() {
+        if (++currentRecord >= size) {
+            currentRecord = size;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        currentRecord = -1;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    @Override
+    public boolean hasValue(final String key) {
+        return hasValue(currentRecord, key);
+    }
+
+    @Override
+    public boolean hasValue(final int record, final String key) {
+        final Column column = getColumn(key);
+        return column != null && column.hasValue(record);
+    }
+
+    @Override
+    public String get(final String key) {
+        return get(currentRecord, key);
+    }
+
+    @Override
+    public String get(final int record, final String key) {
+        final Column column = getColumn(key);
+        return column == null ? null : column.get(record);
+    }
+
+    @Override
+    public void set(final String key, final String value) {
+        set(currentRecord, key, value);
+    }
+
+    @Override
+    public void set(final int record, final String key, final String value) {
+        checkRecord(record);
+        getOrCreateColumn(key).set(record, value);
+    }
+
+    @Override
+    public void set(final String key, final Object value) {
+        set(currentRecord, key, value);
+    }
+
+    @Override
+    public void set(final int record, final String key, final Object value) {
+        switch (value) {
+            case Integer i ->
+                setInt(record, key, i);
+            case Long l ->
+                setLong(record, key, l);
+            case Float f ->
+                setFloat(record, key, f);
+            case Double d ->
+                setDouble(record, key, d);
+            case Boolean b ->
+                setBoolean(record, key, b);
+            case null ->
+                set(record, key, (String) null);
+            default ->
+                set(record, key, value.toString());
+        }
+    }
+
+    @Override
+    public List<String> keys() {
+        return new ArrayList<>(columns.keySet());
+    }
+
+    @Override
+    public List<String> values() {
+        return values(currentRecord);
+    }
+
+    @Override
+    public List<String> values(final int record) {
+        final List<String> values = new ArrayList<>(typedColumns.size());
+        for (final Column column : typedColumns.values()) {
+            values.add(column.get(record));
+        }
+        return values;
+    }
+
+    @Override
+    public List<String> getAll(final String key) {
+        final Column column = getColumn(key);
+        final List<String> result = new ArrayList<>(size);
+        for (int record = 0; record < size; record++) {
+            result.add(column == null ? null : column.get(record));
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "Typed Record Store with " + size + " rows and " + typedColumns.size() + " columns.";
+    }
+
+    @Override
+    public String toStringVerbose() {
+        final StringBuilder out = new StringBuilder();
+        for (int record = 0; record < size; record++) {
+            boolean first = true;
+            for (final Map.Entry<String, Column> e : typedColumns.entrySet()) {
+                if (e.getValue().hasValue(record)) {
+                    if (!first) {
+                        out.append(", ");
+                    } else {
+                        first = false;
+                    }
+                    out.append(e.getKey());
+                    out.append(" = ");
+                    out.append(e.getValue().get(record));
+                }
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    private static boolean getBit(final long[] bits, final int index) {
+        final int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private long[] setBit(long[] bits, final int index, final boolean value) {
+        final int word = index >>> 6;
+        if (word >= bits.length) {
+            if (!value) {
+                return bits;
+            }
+            bits = Arrays.copyOf(bits, Math.max(word + 1, (capacity + 63) >>> 6));
+        }
+        if (value) {
+            bits[word] |= 1L << index;
+        } else {
+            bits[word] &= ~(1L << index);
+        }
+        return bits;
+    }
+
+    /**
+     * The values of one column. Only the array for the type of the column is
+     * allocated.
+     */
+    private final class Column {
+
+        private ColumnType type;
+        private long[] present = new long[0];
+        private long[] nulls = new long[0];
+
+        private int[] ints;
+        private long[] longs;
+        private float[] floats;
+        private double[] doubles;
+        private long[] booleans;
+
+        private int[] codes;
+        private List<String> dictionary;
+        private Map<String, Integer> dictionaryIndex;
+
+        private Column(final ColumnType type) {
+            this.type = type;
+            switch (type) {
+                case INT ->
+                    ints = new int[0];
+                case LONG ->
+                    longs = new long[0];
+                case FLOAT ->
+                    floats = new float[0];
+                case DOUBLE ->
+                    doubles = new double[0];
+                case BOOLEAN ->
+                    booleans = new long[0];
+                default -> {
+                    codes = new int[0];
+                    dictionary = new ArrayList<>();
+                    dictionaryIndex = new HashMap<>();
+                }
+            }
+        }
+
+        private boolean hasValue(final int record) {
+            return record >= 0 && getBit(present, record);
+        }
+
+        private boolean isNull(final int record) {
+            return record < 0 || !getBit(present, record) || getBit(nulls, record);
+        }
+
+        private void setPresent(final int record) {
+            present = setBit(present, record, true);
+            nulls = setBit(nulls, record, false);
+        }
+
+        private void ensureCapacity(final int record) {
+            final int length = switch (type) {
+                case INT ->
+                    ints.length;
+                case LONG ->
+                    longs.length;
+                case FLOAT ->
+                    floats.length;
+                case DOUBLE ->
+                    doubles.length;
+                case STRING ->
+                    codes.length;
+                default ->
+                    Integer.MAX_VALUE;
+            };
+            if (record >= length) {
+                final int newLength = Math.max(record + 1, capacity);
+                switch (type) {
+                    case INT ->
+                        ints = Arrays.copyOf(ints, newLength);
+                    case LONG ->
+                        longs = Arrays.copyOf(longs, newLength);
+                    case FLOAT ->
+                        floats = Arrays.copyOf(floats, newLength);
+                    case DOUBLE ->
+                        doubles = Arrays.copyOf(doubles, newLength);
+                    case STRING ->
+                        codes = Arrays.copyOf(codes, newLength);
+                    default -> {
+                        // booleans are grown by setBit
+                    }
+                }
+            }
+        }
+
+        private String get(final int record) {
+            if (isNull(record)) {
+                return null;
+            }
+            return switch (type) {
+                case INT ->
+                    Integer.toString(ints[record]);
+                case LONG ->
+                    Long.toString(longs[record]);
+                case FLOAT ->
+                    Float.toString(floats[record]);
+                case DOUBLE ->
+                    Double.toString(doubles[record]);
+                case BOOLEAN ->
+                    Boolean.toString(getBit(booleans, record));
+                case STRING ->
+                    dictionary.get(codes[record]);
+            };
+        }
+
+        private void set(final int record, final String value) {
+            if (value == null) {
+                present = setBit(present, record, true);
+                nulls = setBit(nulls, record, true);
+                return;
+            }
+
+            ensureCapacity(record);
+            try {
+                switch (type) {
+                    case INT ->
+                        ints[record] = Integer.parseInt(value);
+                    case LONG ->
+                        longs[record] = Long.parseLong(value);
+                    case FLOAT ->
+                        floats[record] = Float.parseFloat(value);
+                    case DOUBLE ->
+                        doubles[record] = Double.parseDouble(value);
+                    case BOOLEAN -> {
+                        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                            throw new NumberFormatException(value);
+                        }
+                        booleans = setBit(booleans, record, Boolean.parseBoolean(value));
+                    }
+                    case STRING ->
+                        codes[record] = encode(value);
+                }
+            } catch (final NumberFormatException ex) {
+                // Keep the value as it was given rather than lose it.
+                convertToString();
+                ensureCapacity(record);
+                codes[record] = encode(value);
+            }
+            setPresent(record);
+        }
+
+        private void copy(final int record, final Column from, final int fromRecord) {
+            if (from.isNull(fromRecord)) {
+                set(record, null);
+            } else if (from.type != type) {
+                set(record, from.get(fromRecord));
+            } else {
+                ensureCapacity(record);
+                switch (type) {
+                    case INT ->
+                        ints[record] = from.ints[fromRecord];
+                    case LONG ->
+                        longs[record] = from.longs[fromRecord];
+                    case FLOAT ->
+                        floats[record] = from.floats[fromRecord];
+                    case DOUBLE ->
+                        doubles[record] = from.doubles[fromRecord];
+                    case BOOLEAN ->
+                        booleans = setBit(booleans, record, getBit(from.booleans, fromRecord));
+                    case STRING ->
+                        codes[record] = encode(from.dictionary.get(from.codes[fromRecord]));
+                }
+                setPresent(record);
+            }
+        }
+
+        private int encode(final String value) {
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                dictionaryIndex.put(value, code);
+            }
+            return code;
+        }
+
+        private void convertToString() {
+            if (type == ColumnType.STRING) {
+                return;
+            }
+
+            final String[] values = new String[size];
+            for (int record = 0; record < size; record++) {
+                values[record] = get(record);
+            }
+            type = ColumnType.STRING;
+            ints = null;
+            longs = null;
+            floats = null;
+            doubles = null;
+            booleans = null;
+            codes = new int[capacity];
+            dictionary = new ArrayList<>();
+            dictionaryIndex = new HashMap<>();
+            for (int record = 0; record < size; record++) {
+                if (values[record] != null) {
+                    codes[record] = encode(values[record]);
+                }
+            }
+        }
+    }
+}
@@ -20,8 +20,11 @@ import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
 import java.io.DataInputStream;
-import java.io.DataOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +48,10 @@ public class UndoGraphEdit implements GraphEdit {
         state = new UndoGraphEditState(in);
     }
 
+    private UndoGraphEdit(final UndoGraphEditState state) {
+        this.state = state;
+    }
+
     @Override
     public void addChild(final GraphEdit childEdit) {
         final int childIndex = state.addObject(childEdit);
@@ -57,6 +64,46 @@ public class UndoGraphEdit implements GraphEdit {
         state.finish();
     }
 
+    /**
+     * Returns the total number of graph operations recorded by this edit,
+     * including those recorded by any child edits.
+     *
+     * @return the total number of graph operations recorded by this edit.
+     */
+    public int getEditSize() {
+        return state.getEditSize();
+    }
+
+    /**
+     * Returns true if this edit, including any child edits, only sets
+     * attribute values and leaves the structure, attributes, primary keys and
+     * indices of the graph unchanged.
+     *
+     * @return true if this edit only sets attribute values.
+     */
+    public boolean isValueOnly() {
+        return state.isValueOnly();
+    }
+
+    /**
+     * Creates a new edit that sets the same attribute values as this edit, but
+     * on the attributes and elements given by the specified mappings. Values
+     * whose attribute or element is mapped to
+     * {@link au.gov.asd.tac.constellation.graph.GraphConstants#NOT_FOUND} are
+     * dropped.
+     *
+     * @param attributeMapping maps the id of an attribute in this edit to the
+     * id of the same attribute in the target graph.
+     * @param elementMapping maps an attribute id and the id of an element in
+     * this edit to the id of the same element in the target graph.
+     * @return a new, finished edit with the mapped ids.
+     * @throws IllegalStateException if this edit is not value only.
+     * @see #isValueOnly()
+     */
+    public UndoGraphEdit remap(final IntUnaryOperator attributeMapping, final IntBinaryOperator elementMapping) {
+        return new UndoGraphEdit(state.remap(attributeMapping, elementMapping));
+    }
+
     @Override
     public void execute(final GraphWriteMethods graph) {
         state.execute(graph);
@@ -321,7 +368,19 @@ public class UndoGraphEdit implements GraphEdit {
                 state.getCurrentId(), state.getCurrentInt(), state.getCurrentLong(), objectIndex);
     }
 
-    public void write(final DataOutputStream out) throws Exception {
+    /**
+     * Write this edit, including any child edits, so that it can be read back
+     * with {@link #UndoGraphEdit(DataInputStream)}.
+     * <p>
+     * Attribute values and other objects recorded by the edit must be strings,
+     * boxed primitives or arrays, or be {@link java.io.Serializable}.
+     *
+     * @param out the output to write to.
+     * @throws IOException if the edit can't be written, including a
+     * {@link java.io.NotSerializableException} if it records an object that
+     * can't be written.
+     */
+    public void write(final DataOutput out) throws IOException {
         state.write(out);
     }
 }
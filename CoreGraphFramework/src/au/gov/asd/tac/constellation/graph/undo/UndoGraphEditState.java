@@ -15,18 +15,36 @@
  */
 package au.gov.asd.tac.constellation.graph.undo;
 
+import au.gov.asd.tac.constellation.graph.GraphConstants;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.AttributeRegistry;
 import au.gov.asd.tac.constellation.graph.operations.GraphOperation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.openide.util.Lookup;
 
 /**
  *
@@ -40,6 +58,25 @@ public class UndoGraphEditState {
 
     private static final boolean PRINT_STATS = false;
 
+    private static final byte NULL_OBJECT = 0;
+    private static final byte STRING_OBJECT = 1;
+    private static final byte INTEGER_OBJECT = 2;
+    private static final byte LONG_OBJECT = 3;
+    private static final byte FLOAT_OBJECT = 4;
+    private static final byte DOUBLE_OBJECT = 5;
+    private static final byte BOOLEAN_OBJECT = 6;
+    private static final byte INT_ARRAY_OBJECT = 7;
+    private static final byte OBJECT_ARRAY_OBJECT = 8;
+    private static final byte EDIT_OBJECT = 9;
+    private static final byte SERIALIZABLE_OBJECT = 10;
+
+    private static final int MAX_SERIALIZED_DEPTH = 32;
+    private static final long MAX_SERIALIZED_REFERENCES = 100_000;
+    private static final Set<String> SERIALIZABLE_PACKAGES = Set.of("java.lang", "java.util", "java.time", "java.time.zone");
+    private static final String CONSTELLATION_PACKAGE_PREFIX = "au.gov.asd.tac.constellation.";
+
+    private static Set<Class<?>> attributeNativeClasses = null;
+
     private static final int REPEAT_MASK = 3;
     private static final int REPEAT_SHIFT = 5;
     private static final int OPERATION_MASK = 0x1F;
@@ -122,31 +159,21 @@ public class UndoGraphEditState {
             longStack[i] = in.readLong();
         }
 
-        final Map<Integer, Class<?>> classMap = new HashMap<>();
-        classMap.put(0, null);
-
         objectCount = in.readInt();
-        byte[] buffer = new byte[1024];
+        objectStack = new Object[objectCount];
         for (int i = 0; i < objectCount; i++) {
-            final int objectClassIndex = in.readInt();
-            final Class<?> objectClass;
-            if (classMap.containsKey(objectClassIndex)) {
-                objectClass = classMap.get(objectClassIndex);
-            } else {
-                final int classLength = in.readInt();
-                if (classLength > buffer.length) {
-                    buffer = Arrays.copyOf(buffer, classLength);
-                }
-                in.read(buffer, 0, classLength);
-                final String objectName = new String(buffer, 0, classLength, UTF8);
-                objectClass = Class.forName(objectName);
-            }
-            classMap.put(objectClassIndex, objectClass);
-            objectMap.put(objectClass, objectClassIndex);
+            objectStack[i] = readObject(in);
         }
 
-        objectStack = new Object[objectCount];
-        Arrays.setAll(objectStack, classMap::get);
+        finalAttribute = in.readInt();
+        finalId = in.readInt();
+        finalInt = in.readInt();
+        finalObject = in.readInt();
+        finalFloat = in.readInt();
+        finalLong = in.readLong();
+        finalDouble = in.readLong();
+
+        objectMap = null;
     }
 
     public byte[] getByteStack() {
@@ -359,6 +386,164 @@ public class UndoGraphEditState {
         }
     }
 
+    /**
+     * Returns the total number of graph operations recorded in this state,
+     * counting each repeat of a run-length encoded operation and including the
+     * operations recorded by any child edits.
+     * <p>
+     * This gives a measure of how much work will be done when this state is
+     * executed against a graph.
+     *
+     * @return the total number of graph operations recorded in this state.
+     */
+    public int getEditSize() {
+        int count = 0;
+        for (int i = 0; i < operationCount; i++) {
+            final int operation = operationStack[i];
+            if ((operation & OPERATION_MASK) != UndoGraphEditOperation.EXECUTE_CHILD.ordinal()) {
+                count += ((operation >>> REPEAT_SHIFT) & REPEAT_MASK) + 1;
+            }
+        }
+        for (int i = 0; i < objectCount; i++) {
+            if (objectStack[i] instanceof UndoGraphEdit childEdit) {
+                count += childEdit.getEditSize();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if every operation recorded in this state, including those
+     * recorded by any child edits, only sets attribute values. Such a state
+     * does not change the structure, attributes, primary keys or indices of a
+     * graph, so its effect on a graph can be fully described by the attribute
+     * values it changes.
+     *
+     * @return true if this state only sets attribute values.
+     */
+    public boolean isValueOnly() {
+        for (int i = 0; i < operationCount; i++) {
+            final int operation = operationStack[i] & OPERATION_MASK;
+            if (operation == UndoGraphEditOperation.EXECUTE_CHILD.ordinal()) {
+                continue;
+            }
+            if (operation < UndoGraphEditOperation.SET_BYTE_VALUE.ordinal()
+                    || operation > UndoGraphEditOperation.SET_OBJECT_VALUE_TO_NULL.ordinal()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < objectCount; i++) {
+            final Object object = objectStack[i];
+            if (object instanceof GraphEdit && !(object instanceof UndoGraphEdit childEdit && childEdit.isValueOnly())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a new state that sets the same attribute values as this state,
+     * but on the attributes and elements given by the specified mappings.
+     * Values whose attribute or element is mapped to
+     * {@link GraphConstants#NOT_FOUND} are dropped. Child edits are mapped in
+     * the same way.
+     * <p>
+     * This allows an edit recorded against one graph to be applied to a copy
+     * of that graph in which the attributes and elements have different ids.
+     * Only value only states can be mapped.
+     *
+     * @param attributeMapping maps the id of an attribute in this state to the
+     * id of the same attribute in the target graph.
+     * @param elementMapping maps an attribute id and the id of an element in
+     * this state to the id of the same element in the target graph.
+     * @return a new, finished state with the mapped ids.
+     * @throws IllegalStateException if this state is not value only.
+     * @see #isValueOnly()
+     */
+    public UndoGraphEditState remap(final IntUnaryOperator attributeMapping, final IntBinaryOperator elementMapping) {
+        if (!isValueOnly()) {
+            throw new IllegalStateException("Only value only edits can be remapped");
+        }
+
+        final UndoGraphEditState remapped = new UndoGraphEditState();
+
+        bytePointer = 0;
+        shortPointer = 0;
+        intPointer = 0;
+        longPointer = 0;
+
+        currentAttribute = 0;
+        currentId = 0;
+        currentInt = 0;
+        currentObject = 0;
+        currentFloat = 0;
+        currentLong = 0L;
+        currentDouble = 0L;
+
+        for (int operationIndex = 0; operationIndex < operationCount; operationIndex++) {
+            final int operation = operationStack[operationIndex];
+            final UndoGraphEditOperation graphEditOperation = UndoGraphEditOperation.values()[operation & OPERATION_MASK];
+            final int runCount = ((operation >>> REPEAT_SHIFT) & REPEAT_MASK) + 1;
+            for (int run = 0; run < runCount; run++) {
+                graphEditOperation.updateExecute(this, operation);
+                remapOperation(graphEditOperation, remapped, attributeMapping, elementMapping);
+            }
+        }
+
+        remapped.finish();
+        return remapped;
+    }
+
+    /**
+     * Records the operation that has just been decoded into the current fields
+     * of this state into the specified state, with its attribute and element
+     * mapped. The arguments mirror those used when the operation was first
+     * recorded by {@link UndoGraphEdit}.
+     */
+    private void remapOperation(final UndoGraphEditOperation operation, final UndoGraphEditState remapped,
+            final IntUnaryOperator attributeMapping, final IntBinaryOperator elementMapping) {
+        if (operation == UndoGraphEditOperation.EXECUTE_CHILD) {
+            final UndoGraphEdit childEdit = ((UndoGraphEdit) objectStack[currentObject]).remap(attributeMapping, elementMapping);
+            final int childIndex = remapped.addObject(childEdit);
+            operation.addOperation(remapped, remapped.getCurrentAttribute(), remapped.getCurrentId(),
+                    remapped.getCurrentInt(), remapped.getCurrentLong(), childIndex);
+            return;
+        }
+
+        final int attribute = attributeMapping.applyAsInt(currentAttribute);
+        if (attribute == GraphConstants.NOT_FOUND) {
+            return;
+        }
+        final int id = elementMapping.applyAsInt(currentAttribute, currentId);
+        if (id == GraphConstants.NOT_FOUND) {
+            return;
+        }
+
+        switch (operation) {
+            case SET_BYTE_VALUE, SET_SHORT_VALUE, SET_INT_VALUE, SET_CHAR_VALUE ->
+                operation.addOperation(remapped, attribute, id, currentInt, remapped.getCurrentLong(), remapped.getCurrentObject());
+            case SET_LONG_VALUE ->
+                operation.addOperation(remapped, attribute, id, remapped.getCurrentInt(), currentLong, remapped.getCurrentObject());
+            case SET_FLOAT_VALUE ->
+                operation.addOperation(remapped, attribute, id, currentFloat, 0, 0);
+            case SET_DOUBLE_VALUE ->
+                operation.addOperation(remapped, attribute, id, 0, currentDouble, 0);
+            case SET_BOOLEAN_VALUE_TRUE, SET_BOOLEAN_VALUE_FALSE ->
+                operation.addOperation(remapped, attribute, id, remapped.getCurrentInt(), remapped.getCurrentLong(), remapped.getCurrentObject());
+            case SET_OBJECT_VALUE_FROM_NULL, SET_OBJECT_VALUE_TO_NULL -> {
+                final int objectIndex = remapped.addObject(objectStack[currentObject]);
+                operation.addOperation(remapped, attribute, id, remapped.getCurrentInt(), remapped.getCurrentLong(), objectIndex);
+            }
+            case SET_OBJECT_VALUE -> {
+                final int oldIndex = remapped.addObject(objectStack[currentInt]);
+                final int newIndex = remapped.addObject(objectStack[currentObject]);
+                operation.addOperation(remapped, attribute, id, oldIndex, remapped.getCurrentLong(), newIndex);
+            }
+            default ->
+                throw new IllegalStateException("Unexpected operation: " + operation);
+        }
+    }
+
     public void printStats() {
         bytePointer = 0;
         shortPointer = 0;
@@ -495,25 +680,218 @@ public class UndoGraphEditState {
             out.writeLong(longStack[i]);
         }
 
-        final Map<Class<?>, Integer> classMap = new HashMap<>();
-        classMap.put(null, 0);
-
         out.writeInt(objectCount);
         for (int i = 0; i < objectCount; i++) {
-            final Object object = objectStack[i];
-            final Class<?> objectClass = object == null ? null : object.getClass();
-            if (classMap.containsKey(objectClass)) {
-                out.writeInt(classMap.get(objectClass));
-            } else {
-                out.writeInt(classMap.size());
-                if (objectClass != null) {
-                    final String className = objectClass.getCanonicalName();
-                    byte[] utf8 = className.getBytes(UTF8);
-                    out.write(utf8.length);
-                    out.write(utf8);
+            writeObject(out, objectStack[i]);
+        }
+
+        out.writeInt(finalAttribute);
+        out.writeInt(finalId);
+        out.writeInt(finalInt);
+        out.writeInt(finalObject);
+        out.writeInt(finalFloat);
+        out.writeLong(finalLong);
+        out.writeLong(finalDouble);
+    }
+
+    private static void writeObject(final DataOutput out, final Object object) throws IOException {
+        switch (object) {
+            case null ->
+                out.writeByte(NULL_OBJECT);
+            case String string -> {
+                out.writeByte(STRING_OBJECT);
+                writeBytes(out, string.getBytes(UTF8));
+            }
+            case Integer value -> {
+                out.writeByte(INTEGER_OBJECT);
+                out.writeInt(value);
+            }
+            case Long value -> {
+                out.writeByte(LONG_OBJECT);
+                out.writeLong(value);
+            }
+            case Float value -> {
+                out.writeByte(FLOAT_OBJECT);
+                out.writeFloat(value);
+            }
+            case Double value -> {
+                out.writeByte(DOUBLE_OBJECT);
+                out.writeDouble(value);
+            }
+            case Boolean value -> {
+                out.writeByte(BOOLEAN_OBJECT);
+                out.writeBoolean(value);
+            }
+            case int[] values -> {
+                out.writeByte(INT_ARRAY_OBJECT);
+                out.writeInt(values.length);
+                for (final int value : values) {
+                    out.writeInt(value);
+                }
+            }
+            case Object[] values -> {
+                out.writeByte(OBJECT_ARRAY_OBJECT);
+                out.writeInt(values.length);
+                for (final Object value : values) {
+                    writeObject(out, value);
+                }
+            }
+            case UndoGraphEdit childEdit -> {
+                out.writeByte(EDIT_OBJECT);
+                childEdit.write(out);
+            }
+            case Serializable serializable -> {
+                out.writeByte(SERIALIZABLE_OBJECT);
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (final ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+                    objectOut.writeObject(serializable);
+                }
+                writeBytes(out, bytes.toByteArray());
+            }
+            default ->
+                throw new NotSerializableException(object.getClass().getName());
+        }
+    }
+
+    private static Object readObject(final DataInputStream in) throws Exception {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL_OBJECT -> {
+                return null;
+            }
+            case STRING_OBJECT -> {
+                return new String(readBytes(in), UTF8);
+            }
+            case INTEGER_OBJECT -> {
+                return in.readInt();
+            }
+            case LONG_OBJECT -> {
+                return in.readLong();
+            }
+            case FLOAT_OBJECT -> {
+                return in.readFloat();
+            }
+            case DOUBLE_OBJECT -> {
+                return in.readDouble();
+            }
+            case BOOLEAN_OBJECT -> {
+                return in.readBoolean();
+            }
+            case INT_ARRAY_OBJECT -> {
+                final int[] values = new int[in.readInt()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = in.readInt();
+                }
+                return values;
+            }
+            case OBJECT_ARRAY_OBJECT -> {
+                final Object[] values = new Object[in.readInt()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = readObject(in);
+                }
+                return values;
+            }
+            case EDIT_OBJECT -> {
+                return new UndoGraphEdit(in);
+            }
+            case SERIALIZABLE_OBJECT -> {
+                try (final ObjectInputStream objectIn = new ModuleObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    return objectIn.readObject();
+                }
+            }
+            default ->
+                throw new StreamCorruptedException("Unknown object type: " + type);
+        }
+    }
+
+    private static void writeBytes(final DataOutput out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Decides whether a class may be deserialised as part of an object
+     * attribute value. Only primitives, the core value types of the JDK,
+     * Constellation classes and the native types of registered attributes are
+     * allowed, so that a journal or edit read from disk cannot instantiate
+     * arbitrary classes.
+     *
+     * @param info the class and graph limits of the object being read.
+     * @return the status of the object being read.
+     */
+    private static ObjectInputFilter.Status filterSerializedClass(final ObjectInputFilter.FilterInfo info) {
+        if (info.depth() > MAX_SERIALIZED_DEPTH || info.references() > MAX_SERIALIZED_REFERENCES) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+
+        Class<?> serialClass = info.serialClass();
+        if (serialClass == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        while (serialClass.isArray()) {
+            serialClass = serialClass.getComponentType();
+        }
+
+        return isAttributeValueClass(serialClass) ? ObjectInputFilter.Status.ALLOWED : ObjectInputFilter.Status.REJECTED;
+    }
+
+    private static boolean isAttributeValueClass(final Class<?> serialClass) {
+        if (serialClass.isPrimitive()) {
+            return true;
+        }
+        final String packageName = serialClass.getPackageName();
+        if (SERIALIZABLE_PACKAGES.contains(packageName) || packageName.startsWith(CONSTELLATION_PACKAGE_PREFIX)) {
+            return true;
+        }
+        for (final Class<?> nativeClass : getAttributeNativeClasses()) {
+            if (nativeClass.isAssignableFrom(serialClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static synchronized Set<Class<?>> getAttributeNativeClasses() {
+        if (attributeNativeClasses == null) {
+            final AttributeRegistry registry = AttributeRegistry.getDefault();
+            final Set<Class<?>> nativeClasses = new HashSet<>();
+            for (final Class<? extends AttributeDescription> attributeDescription : registry.getAttributes().values()) {
+                try {
+                    final Class<?> nativeClass = registry.getNativeType(attributeDescription);
+                    if (nativeClass != null && nativeClass != Object.class) {
+                        nativeClasses.add(nativeClass);
+                    }
+                } catch (final IllegalArgumentException ex) {
+                    LOGGER.log(Level.WARNING, ex.getMessage(), ex);
                 }
-                classMap.put(objectClass, classMap.size());
             }
+            attributeNativeClasses = nativeClasses;
+        }
+        return attributeNativeClasses;
+    }
+
+    /**
+     * Resolve classes using the system class loader of the platform, so that
+     * attribute values defined by any module can be read, and reject any class
+     * that is not an attribute value type.
+     */
+    private static class ModuleObjectInputStream extends ObjectInputStream {
+
+        ModuleObjectInputStream(final InputStream in) throws IOException {
+            super(in);
+            setObjectInputFilter(UndoGraphEditState::filterSerializedClass);
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            final ClassLoader classLoader = Lookup.getDefault().lookup(ClassLoader.class);
+            return classLoader != null ? Class.forName(desc.getName(), false, classLoader) : super.resolveClass(desc);
         }
     }
 }
@@ -15,13 +15,19 @@
  */
 package au.gov.asd.tac.constellation.graph;
 
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
 import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.times;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 
 /**
@@ -56,4 +62,125 @@ public class StoreGraphNGTest {
             assertEquals(stats.getCurrentCount(), 0);
         }
     }
+
+    /**
+     * Test of synchronise method, of class StoreGraph, when only values have
+     * been changed on the source.
+     */
+    @Test
+    public void testSynchroniseChangedValues() {
+        System.out.println("testSynchroniseChangedValues");
+        final StoreGraph source = new StoreGraph();
+        final int attribute = source.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "count", null, 0, null);
+        final int untouchedAttribute = source.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "untouched", null, 0, null);
+        for (int i = 0; i < 100; i++) {
+            source.addVertex();
+        }
+        final StoreGraph target = new StoreGraph(source);
+
+        for (int position = 0; position < source.getVertexCount(); position++) {
+            source.setIntValue(attribute, source.getVertex(position), position + 1);
+        }
+
+        // A small edit is cheaper to replay than copying the changed column
+        assertFalse(target.synchronise(source, 1));
+        assertEquals(target.getIntValue(attribute, target.getVertex(0)), 0);
+
+        assertTrue(target.synchronise(source, source.getVertexCount()));
+        for (int position = 0; position < target.getVertexCount(); position++) {
+            assertEquals(target.getIntValue(attribute, target.getVertex(position)), position + 1);
+        }
+        assertEquals(target.getValueModificationCounter(attribute), source.getValueModificationCounter(attribute));
+        assertEquals(target.getValueModificationCounter(untouchedAttribute), source.getValueModificationCounter(untouchedAttribute));
+        assertEquals(target.getGlobalModificationCounter(), source.getGlobalModificationCounter());
+    }
+
+    /**
+     * Test of synchronise method, of class StoreGraph, when the values of an
+     * indexed attribute have been changed on the source. The index of the
+     * target should be rebuilt with the copied values.
+     */
+    @Test
+    public void testSynchroniseIndexedValues() {
+        System.out.println("testSynchroniseIndexedValues");
+        final StoreGraph source = new StoreGraph();
+        final int attribute = source.addAttribute(GraphElementType.VERTEX, BooleanAttributeDescription.ATTRIBUTE_NAME, "selected", null, false, null);
+        source.setAttributeIndexType(attribute, GraphIndexType.UNORDERED);
+        for (int i = 0; i < 100; i++) {
+            source.addVertex();
+        }
+        final StoreGraph target = new StoreGraph(source);
+
+        for (int position = 0; position < source.getVertexCount(); position += 2) {
+            source.setBooleanValue(attribute, source.getVertex(position), true);
+        }
+
+        assertTrue(target.synchronise(source, source.getVertexCount()));
+        final GraphIndexResult selected = target.getElementsWithAttributeValue(attribute, true);
+        assertEquals(selected.getCount(), source.getVertexCount() / 2);
+        for (int i = 0; i < selected.getCount(); i++) {
+            assertTrue(target.getBooleanValue(attribute, selected.getNextElement()));
+        }
+        assertEquals(target.getValueModificationCounter(attribute), source.getValueModificationCounter(attribute));
+    }
+
+    /**
+     * Test of synchronise method, of class StoreGraph, when the structure of
+     * the source has changed.
+     */
+    @Test
+    public void testSynchroniseChangedStructure() {
+        System.out.println("testSynchroniseChangedStructure");
+        final StoreGraph source = new StoreGraph();
+        final int attribute = source.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "count", null, 0, null);
+        final StoreGraph target = new StoreGraph(source);
+
+        final int vertex = source.addVertex();
+        source.setIntValue(attribute, vertex, 1);
+
+        assertFalse(target.synchronise(source, Integer.MAX_VALUE));
+        assertEquals(target.getVertexCount(), 0);
+        assertEquals(target.getGlobalModificationCounter() + 2, source.getGlobalModificationCounter());
+    }
+
+    /**
+     * Test of getUndoCounter method, of class StoreGraph. The counter should
+     * change whenever changes are undone, so that the modification counters
+     * and the undo counter together never describe two different graphs.
+     */
+    @Test
+    public void testGetUndoCounter() {
+        System.out.println("testGetUndoCounter");
+        final StoreGraph graph = new StoreGraph();
+        final int vertex = graph.addVertex();
+        final long structureModificationCounter = graph.getStructureModificationCounter();
+        final long undoCounter = graph.getUndoCounter();
+
+        // Undo adding a vertex, then add another one.
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.removeVertex(vertex);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.addVertex();
+        assertEquals(graph.getStructureModificationCounter(), structureModificationCounter);
+        assertNotEquals(graph.getUndoCounter(), undoCounter);
+
+        // Redoing doesn't change the counter, and neither does an undo that undoes nothing.
+        final long afterUndo = graph.getUndoCounter();
+        graph.setOperationMode(GraphOperationMode.REDO);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        assertEquals(graph.getUndoCounter(), afterUndo);
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        assertEquals(graph.getUndoCounter(), afterUndo);
+
+        // Undoing again never gives an earlier value.
+        final int otherVertex = graph.addVertex();
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.removeVertex(otherVertex);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        assertTrue(graph.getUndoCounter() > afterUndo);
+
+        // Copies are in the same state, so they have the same counter.
+        assertEquals(new StoreGraph(graph).getUndoCounter(), graph.getUndoCounter());
+    }
 }
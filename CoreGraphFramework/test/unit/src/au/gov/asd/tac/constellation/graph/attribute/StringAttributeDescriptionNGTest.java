@@ -15,12 +15,28 @@
  */
 package au.gov.asd.tac.constellation.graph.attribute;
 
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphIndexResult;
+import au.gov.asd.tac.constellation.graph.GraphIndexType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.locking.DualGraph;
+import au.gov.asd.tac.constellation.graph.locking.GraphEditListener;
 import au.gov.asd.tac.constellation.graph.locking.ParameterReadAccess;
 import au.gov.asd.tac.constellation.graph.locking.ParameterWriteAccess;
+import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
 import au.gov.asd.tac.constellation.graph.utilities.MultiValueStore;
+import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
@@ -519,4 +535,146 @@ public class StringAttributeDescriptionNGTest {
         Object savedData = new String[1];
         instance.restoreData(savedData);
     }
+
+    /**
+     * Test of supportsIndexType method, of class StringAttributeDescription.
+     */
+    @Test
+    public void testSupportsIndexType() {
+        System.out.println("supportsIndexType");
+
+        assertTrue(instance.supportsIndexType(GraphIndexType.UNORDERED));
+        assertTrue(instance.supportsIndexType(GraphIndexType.ORDERED));
+    }
+
+    /**
+     * Test that an index on a string attribute follows changes to values and
+     * elements.
+     */
+    @Test
+    public void testIndex() {
+        System.out.println("index");
+
+        final StoreGraph graph = new StoreGraph();
+        final int attribute = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "name", null, null, null);
+        graph.setAttributeIndexType(attribute, GraphIndexType.ORDERED);
+        final int[] vertices = new int[100];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex();
+            graph.setStringValue(attribute, vertices[i], "v" + (i % 10));
+        }
+
+        assertEquals(getElements(graph.getElementsWithAttributeValue(attribute, "v3")).size(), 10);
+        assertEquals(getElements(graph.getElementsWithAttributeValueRange(attribute, "v2", "v5")).size(), 30);
+        assertEquals(getElements(graph.getElementsWithAttributeValue(attribute, "v10")).size(), 0);
+
+        graph.setStringValue(attribute, vertices[3], "other");
+        graph.removeVertex(vertices[13]);
+        graph.setStringValue(attribute, vertices[23], null);
+        final Set<Integer> v3 = getElements(graph.getElementsWithAttributeValue(attribute, "v3"));
+        assertEquals(v3.size(), 7);
+        assertFalse(v3.contains(vertices[3]));
+        assertEquals(getElements(graph.getElementsWithAttributeValue(attribute, "other")), Set.of(vertices[3]));
+        assertEquals(getElements(graph.getElementsWithAttributeValue(attribute, null)), Set.of(vertices[23]));
+
+        final int added = graph.addVertex();
+        graph.setStringValue(attribute, added, "v3");
+        assertTrue(getElements(graph.getElementsWithAttributeValue(attribute, "v3")).contains(added));
+
+        graph.setAttributeIndexType(attribute, GraphIndexType.UNORDERED);
+        assertEquals(getElements(graph.getElementsWithAttributeValue(attribute, "v3")).size(), 8);
+        assertNull(graph.getElementsWithAttributeValueRange(attribute, "v2", "v5"));
+    }
+
+    /**
+     * Test that an index on the label of a DualGraph follows a value edit when
+     * it is undone and redone, on both the graph that is read and the graph
+     * that is written next.
+     *
+     * @throws InterruptedException
+     * @throws InvocationTargetException
+     */
+    @Test
+    public void testIndexUndoRedo() throws InterruptedException, InvocationTargetException {
+        System.out.println("indexUndoRedo");
+
+        final DualGraph graph = new DualGraph(null);
+        final UndoManager undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+
+        // undo and redo happen on another thread, which tells listeners once both graphs have been updated
+        final Semaphore replayed = new Semaphore(0);
+        graph.addGraphEditListener(new GraphEditListener() {
+            @Override
+            public void editExecuted(final UndoGraphEdit edit) {
+                replayed.release();
+            }
+
+            @Override
+            public void editUndone(final UndoGraphEdit edit) {
+                replayed.release();
+            }
+        });
+
+        final int attribute;
+        final int vertex;
+        WritableGraph wg = graph.getWritableGraph("Add Label", true);
+        try {
+            attribute = wg.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "Label", null, null, null);
+            wg.setAttributeIndexType(attribute, GraphIndexType.UNORDERED);
+            vertex = wg.addVertex();
+            wg.setStringValue(attribute, vertex, "before");
+        } finally {
+            wg.commit();
+        }
+
+        wg = graph.getWritableGraph("Edit Label", true);
+        try {
+            wg.setStringValue(attribute, vertex, "after");
+        } finally {
+            wg.commit();
+        }
+        assertLabelIndex(graph, attribute, vertex, "after", "before");
+
+        // the edits reach the undo manager on the EDT
+        SwingUtilities.invokeAndWait(() -> {
+            // wait for the edits to be added
+        });
+
+        replayed.drainPermits();
+        undoManager.undo();
+        assertTrue(replayed.tryAcquire(10, TimeUnit.SECONDS));
+        assertLabelIndex(graph, attribute, vertex, "before", "after");
+
+        undoManager.redo();
+        assertTrue(replayed.tryAcquire(10, TimeUnit.SECONDS));
+        assertLabelIndex(graph, attribute, vertex, "after", "before");
+    }
+
+    private static void assertLabelIndex(final DualGraph graph, final int attribute, final int vertex, final String label, final String oldLabel) throws InterruptedException {
+        try (final ReadableGraph rg = graph.getReadableGraph()) {
+            assertEquals(rg.getStringValue(attribute, vertex), label);
+            assertEquals(getElements(rg.getElementsWithAttributeValue(attribute, label)), Set.of(vertex));
+            assertTrue(getElements(rg.getElementsWithAttributeValue(attribute, oldLabel)).isEmpty());
+        }
+
+        final WritableGraph wg = graph.getWritableGraph("Check Label", false);
+        try {
+            assertEquals(wg.getStringValue(attribute, vertex), label);
+            assertEquals(getElements(wg.getElementsWithAttributeValue(attribute, label)), Set.of(vertex));
+            assertTrue(getElements(wg.getElementsWithAttributeValue(attribute, oldLabel)).isEmpty());
+        } finally {
+            wg.rollBack();
+        }
+    }
+
+    private static Set<Integer> getElements(final GraphIndexResult result) {
+        final Set<Integer> elements = new HashSet<>();
+        for (int i = result.getCount(); i > 0; i--) {
+            elements.add(result.getNextElement());
+        }
+        assertEquals(result.getNextElement(), Graph.NOT_FOUND);
+
+        return elements;
+    }
 }
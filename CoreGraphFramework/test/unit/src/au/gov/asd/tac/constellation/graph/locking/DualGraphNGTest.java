@@ -15,13 +15,26 @@
  */
 package au.gov.asd.tac.constellation.graph.locking;
 
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.ReadableGraph;
+import au.gov.asd.tac.constellation.graph.WritableGraph;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.undo.GraphEditListener;
+import au.gov.asd.tac.constellation.graph.undo.UndoGraphEdit;
 import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import javax.swing.undo.UndoManager;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.times;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
 import org.testng.annotations.Test;
 
 /**
@@ -55,4 +68,141 @@ public class DualGraphNGTest {
             assertEquals(stats.getCurrentCount(), 0);
         }
     }
+
+    /**
+     * Tests that both graphs of a DualGraph end up with the same values and
+     * modification counters when a large edit that only sets values is
+     * committed in each commit mode.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testCommitValueOnlyEdit() throws InterruptedException {
+        System.out.println("testCommitValueOnlyEdit");
+        for (final CommitMode commitMode : CommitMode.values()) {
+            final int vertexCount = 1000;
+            final DualGraph graph = new DualGraph(null);
+            graph.setCommitMode(commitMode);
+            assertEquals(commitMode, graph.getCommitMode());
+
+            final int[] vertices = new int[vertexCount];
+            final int attribute;
+            WritableGraph wg = graph.getWritableGraph("Setup", true);
+            try {
+                attribute = wg.addAttribute(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "x", null, 0F, null);
+                for (int i = 0; i < vertexCount; i++) {
+                    vertices[i] = wg.addVertex();
+                }
+            } finally {
+                wg.commit();
+            }
+
+            final long modCount;
+            final long valueModCount;
+            wg = graph.getWritableGraph("Set Values", true);
+            try {
+                for (int i = 0; i < vertexCount; i++) {
+                    wg.setFloatValue(attribute, vertices[i], i);
+                }
+                modCount = wg.getGlobalModificationCounter();
+                valueModCount = wg.getValueModificationCounter(attribute);
+            } finally {
+                wg.commit();
+            }
+
+            final ReadableGraph rg = graph.getReadableGraph();
+            try {
+                assertEquals(modCount, rg.getGlobalModificationCounter());
+                for (int i = 0; i < vertexCount; i++) {
+                    assertEquals((float) i, rg.getFloatValue(attribute, vertices[i]));
+                }
+            } finally {
+                rg.release();
+            }
+
+            // The write graph is now the graph that was brought up to date during the commit
+            wg = graph.getWritableGraph("Check Values", true);
+            try {
+                assertEquals(modCount, wg.getGlobalModificationCounter());
+                assertEquals(valueModCount, wg.getValueModificationCounter(attribute));
+                for (int i = 0; i < vertexCount; i++) {
+                    assertEquals((float) i, wg.getFloatValue(attribute, vertices[i]));
+                }
+            } finally {
+                wg.rollBack();
+            }
+        }
+    }
+
+    /**
+     * Tests that rolling back an edit that changed nothing leaves the undo
+     * counter alone, and that both graphs of a DualGraph have the same undo
+     * counter after an undo.
+     *
+     * @throws InterruptedException
+     * @throws InvocationTargetException
+     */
+    @Test
+    public void testUndoCounter() throws InterruptedException, InvocationTargetException {
+        System.out.println("testUndoCounter");
+        final DualGraph graph = new DualGraph(null);
+        final UndoManager undoManager = new UndoManager();
+        graph.setUndoManager(undoManager);
+
+        // Undo happens on another thread, which tells listeners once both graphs have been updated
+        final Semaphore undone = new Semaphore(0);
+        graph.addGraphEditListener(new GraphEditListener() {
+            @Override
+            public void editExecuted(final UndoGraphEdit edit) {
+                // Only undo is waited for
+            }
+
+            @Override
+            public void editUndone(final UndoGraphEdit edit) {
+                undone.release();
+            }
+        });
+
+        WritableGraph wg = graph.getWritableGraph("Add Vertex", true);
+        try {
+            wg.addVertex();
+        } finally {
+            wg.commit();
+        }
+
+        final long undoCounter;
+        wg = graph.getWritableGraph("Nothing", false);
+        try {
+            undoCounter = wg.getUndoCounter();
+        } finally {
+            wg.rollBack();
+        }
+        wg = graph.getWritableGraph("Nothing", false);
+        try {
+            assertEquals(undoCounter, wg.getUndoCounter());
+        } finally {
+            wg.rollBack();
+        }
+
+        // The edit reaches the undo manager on the EDT
+        SwingUtilities.invokeAndWait(() -> {
+            // wait for the edit to be added
+        });
+        undoManager.undo();
+        assertTrue(undone.tryAcquire(10, TimeUnit.SECONDS));
+
+        final long readUndoCounter;
+        try (final ReadableGraph rg = graph.getReadableGraph()) {
+            assertEquals(0, rg.getVertexCount());
+            readUndoCounter = rg.getUndoCounter();
+        }
+        assertFalse(readUndoCounter == undoCounter);
+        wg = graph.getWritableGraph("Check Undo Counter", false);
+        try {
+            assertEquals(0, wg.getVertexCount());
+            assertEquals(readUndoCounter, wg.getUndoCounter());
+        } finally {
+            wg.rollBack();
+        }
+    }
 }
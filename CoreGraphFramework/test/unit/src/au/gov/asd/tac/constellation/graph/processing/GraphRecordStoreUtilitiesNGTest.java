@@ -15,6 +15,7 @@
  */
 package au.gov.asd.tac.constellation.graph.processing;
 
+import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.StoreGraph;
 import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
@@ -277,4 +278,60 @@ public class GraphRecordStoreUtilitiesNGTest {
         assertEquals(vx1, newGraph.getTransactionSourceVertex(tx1));
     }
 
+    @Test
+    public void addRecordStoreToGraphWithSparseRecords() {
+        final StoreGraph newGraph = new StoreGraph();
+        final RecordStore recordStore = new GraphRecordStore();
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, "a");
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Name", "Alice");
+        recordStore.set(GraphRecordStoreUtilities.DESTINATION + GraphRecordStoreUtilities.ID, "b");
+        recordStore.set(GraphRecordStoreUtilities.TRANSACTION + "Weight<integer>", "5");
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.DESTINATION + GraphRecordStoreUtilities.ID, "c");
+        recordStore.set(GraphRecordStoreUtilities.DESTINATION + "Name", "Carol");
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, "b");
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Name", "Bob");
+
+        final Map<String, Integer> vertexMap = new HashMap<>();
+        final Map<String, Integer> transactionMap = new HashMap<>();
+        final List<Integer> vertices = GraphRecordStoreUtilities.addRecordStoreToGraph(newGraph, recordStore, false, false, null, vertexMap, transactionMap);
+        assertEquals(vertices.size(), 3);
+        assertEquals(newGraph.getVertexCount(), 3);
+        assertEquals(newGraph.getTransactionCount(), 1);
+
+        final int nameAttribute = newGraph.getAttribute(GraphElementType.VERTEX, "Name");
+        assertEquals(newGraph.getStringValue(nameAttribute, vertexMap.get("a")), "Alice");
+        assertEquals(newGraph.getStringValue(nameAttribute, vertexMap.get("b")), "Bob");
+        assertEquals(newGraph.getStringValue(nameAttribute, vertexMap.get("c")), "Carol");
+        assertEquals(newGraph.getAttribute(GraphElementType.VERTEX, "[id]"), Graph.NOT_FOUND);
+
+        final int weightAttribute = newGraph.getAttribute(GraphElementType.TRANSACTION, "Weight");
+        assertEquals(newGraph.getAttributeType(weightAttribute), "integer");
+        assertEquals(newGraph.getIntValue(weightAttribute, newGraph.getTransaction(0)), 5);
+    }
+
+    @Test
+    public void addRecordStoreToGraphWithGeneratedIds() {
+        final StoreGraph newGraph = new StoreGraph();
+        final RecordStore recordStore = new GraphRecordStore();
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Name", "x");
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Colour", "red");
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Colour", "red");
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Name", "x");
+        recordStore.add();
+        recordStore.set(GraphRecordStoreUtilities.SOURCE + "Name", "y");
+
+        final Map<String, Integer> vertexMap = new HashMap<>();
+        final List<Integer> vertices = GraphRecordStoreUtilities.addRecordStoreToGraph(newGraph, recordStore, false, false, new ArrayList<>(), vertexMap, new HashMap<>());
+        assertEquals(vertices.size(), 2);
+        assertEquals(newGraph.getVertexCount(), 2);
+        // the generated id uses the typed attribute keys in order, with their values hex encoded
+        assertEquals(vertexMap.get("Colour<string>=726564,Name<string>=78"), vertices.get(0));
+        assertEquals(vertexMap.get("Name<string>=79"), vertices.get(1));
+    }
+
 }
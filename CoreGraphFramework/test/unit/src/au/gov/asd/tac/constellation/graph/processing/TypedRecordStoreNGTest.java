@@ -0,0 +1,155 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.processing;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore.ColumnType;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Typed RecordStore Test.
+ *
+ * @author algol
+ */
+public class TypedRecordStoreNGTest {
+
+    /**
+     * Test that columns are stored according to the type of their key, and
+     * can be read as strings or typed values.
+     */
+    @Test
+    public void testTypedColumns() {
+        System.out.println("testTypedColumns");
+
+        final TypedRecordStore instance = new TypedRecordStore();
+        for (int i = 0; i < 1000; i++) {
+            instance.add();
+            instance.set("count<integer>", Integer.toString(i));
+            instance.setFloat("score<float>", i / 2F);
+            instance.setBoolean("flag<boolean>", i % 2 == 0);
+            instance.set("name", "name" + (i % 3));
+        }
+
+        assertEquals(instance.getColumnType("count"), ColumnType.INT);
+        assertEquals(instance.getColumnType("score<float>"), ColumnType.FLOAT);
+        assertEquals(instance.getColumnType("flag"), ColumnType.BOOLEAN);
+        assertEquals(instance.getColumnType("name<string>"), ColumnType.STRING);
+        assertEquals(instance.keys(), Arrays.asList("count", "score", "flag", "name"));
+        assertEquals(instance.keysWithType(), Arrays.asList("count<integer>", "score<float>", "flag<boolean>", "name<string>"));
+
+        assertEquals(instance.getInt(999, "count"), 999);
+        assertEquals(instance.getLong(999, "count<integer>"), 999L);
+        assertEquals(instance.get(999, "count"), "999");
+        assertEquals(instance.getFloat(3, "score"), 1.5F);
+        assertEquals(instance.get(3, "score"), "1.5");
+        assertTrue(instance.getBoolean(998, "flag"));
+        assertEquals(instance.get(999, "flag"), "false");
+        assertEquals(instance.get(4, "name"), "name1");
+    }
+
+    /**
+     * Test that missing and null values are distinguished as they are by
+     * GraphRecordStore.
+     */
+    @Test
+    public void testNullValues() {
+        System.out.println("testNullValues");
+
+        final TypedRecordStore instance = new TypedRecordStore();
+        instance.add();
+        instance.set("count<integer>", (String) null);
+        instance.add();
+        instance.setInt("count<integer>", 5);
+        instance.add();
+
+        assertTrue(instance.hasValue(0, "count"));
+        assertTrue(instance.isNull(0, "count"));
+        assertNull(instance.get(0, "count"));
+        assertEquals(instance.getInt(0, "count"), 0);
+        assertFalse(instance.isNull(1, "count"));
+        assertFalse(instance.hasValue(2, "count"));
+        assertTrue(instance.isNull(2, "count"));
+        assertEquals(instance.getAll("count"), Arrays.asList(null, "5", null));
+    }
+
+    /**
+     * Test that a value which can't be parsed as the type of its column turns
+     * the column into a string column without losing any values.
+     */
+    @Test
+    public void testUnparsableValue() {
+        System.out.println("testUnparsableValue");
+
+        final TypedRecordStore instance = new TypedRecordStore();
+        instance.add();
+        instance.setInt("count<integer>", 1);
+        instance.add();
+        instance.set("count<integer>", "many");
+        instance.add();
+        instance.set("count<integer>", (String) null);
+
+        assertEquals(instance.getColumnType("count"), ColumnType.STRING);
+        assertEquals(instance.getAll("count"), Arrays.asList("1", "many", null));
+        assertTrue(instance.hasValue(2, "count"));
+    }
+
+    /**
+     * Test that typed values survive a round trip from a graph to a
+     * TypedRecordStore and back to a graph.
+     */
+    @Test
+    public void testGraphRoundTrip() {
+        System.out.println("testGraphRoundTrip");
+
+        final StoreGraph graph = new StoreGraph();
+        final int countAttribute = graph.addAttribute(GraphElementType.VERTEX, "integer", "Count", null, 0, null);
+        final int weightAttribute = graph.addAttribute(GraphElementType.VERTEX, "double", "Weight", null, 0.0, null);
+        final int labelAttribute = graph.addAttribute(GraphElementType.VERTEX, "string", "Label", null, null, null);
+        for (int i = 0; i < 10; i++) {
+            final int vertex = graph.addVertex();
+            graph.setIntValue(countAttribute, vertex, i * 1000);
+            graph.setDoubleValue(weightAttribute, vertex, i / 3.0);
+            graph.setStringValue(labelAttribute, vertex, i % 2 == 0 ? "even" : null);
+        }
+
+        final TypedRecordStore recordStore = GraphRecordStoreUtilities.getTypedVertices(graph, false, false, false);
+        assertEquals(recordStore.size(), 10);
+        assertEquals(recordStore.getColumnType(GraphRecordStoreUtilities.SOURCE + "Count"), ColumnType.INT);
+        assertEquals(recordStore.getColumnType(GraphRecordStoreUtilities.SOURCE + "Weight"), ColumnType.DOUBLE);
+        assertEquals(recordStore.getInt(7, GraphRecordStoreUtilities.SOURCE + "Count<integer>"), 7000);
+
+        final StoreGraph copy = new StoreGraph();
+        final List<Integer> vertices = GraphRecordStoreUtilities.addRecordStoreToGraph(copy, recordStore, false, false, null);
+        assertEquals(vertices.size(), 10);
+        final int copyCount = copy.getAttribute(GraphElementType.VERTEX, "Count");
+        final int copyWeight = copy.getAttribute(GraphElementType.VERTEX, "Weight");
+        final int copyLabel = copy.getAttribute(GraphElementType.VERTEX, "Label");
+        assertEquals(copy.getAttributeType(copyCount), "integer");
+        for (int i = 0; i < 10; i++) {
+            final int vertex = vertices.get(i);
+            assertEquals(copy.getIntValue(copyCount, vertex), i * 1000);
+            assertEquals(copy.getDoubleValue(copyWeight, vertex), i / 3.0);
+            assertEquals(copy.getStringValue(copyLabel, vertex), i % 2 == 0 ? "even" : null);
+        }
+    }
+}
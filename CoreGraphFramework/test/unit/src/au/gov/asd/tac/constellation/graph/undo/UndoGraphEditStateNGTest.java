@@ -0,0 +1,228 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.undo;
+
+import au.gov.asd.tac.constellation.graph.GraphConstants;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.BooleanAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.FloatAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.ObjectAttributeDescription;
+import au.gov.asd.tac.constellation.graph.attribute.StringAttributeDescription;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.time.LocalDate;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test writing and reading an {@link UndoGraphEditState}, and remapping the
+ * ids it refers to.
+ *
+ * @author algol
+ */
+public class UndoGraphEditStateNGTest {
+
+    private static final LocalDate OLD_DATE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate NEW_DATE = LocalDate.of(2026, 10, 18);
+
+    private StoreGraph graph;
+    private int intAttribute;
+    private int floatAttribute;
+    private int booleanAttribute;
+    private int stringAttribute;
+    private int objectAttribute;
+    private int vertex0;
+    private int vertex1;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+        intAttribute = graph.addAttribute(GraphElementType.VERTEX, IntegerAttributeDescription.ATTRIBUTE_NAME, "int", "", 0, null);
+        floatAttribute = graph.addAttribute(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "float", "", 0F, null);
+        booleanAttribute = graph.addAttribute(GraphElementType.VERTEX, BooleanAttributeDescription.ATTRIBUTE_NAME, "boolean", "", false, null);
+        stringAttribute = graph.addAttribute(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "string", "", null, null);
+        objectAttribute = graph.addAttribute(GraphElementType.VERTEX, ObjectAttributeDescription.ATTRIBUTE_NAME, "object", "", null, null);
+
+        vertex0 = graph.addVertex();
+        vertex1 = graph.addVertex();
+        for (final int vertex : new int[]{vertex0, vertex1}) {
+            graph.setIntValue(intAttribute, vertex, 3);
+            graph.setFloatValue(floatAttribute, vertex, 1.5F);
+            graph.setStringValue(stringAttribute, vertex, "old");
+            graph.setObjectValue(objectAttribute, vertex, OLD_DATE);
+        }
+    }
+
+    /**
+     * Record an edit that changes every value of vertex0, with the change to
+     * the object value made by a child edit.
+     */
+    private UndoGraphEdit recordEdit() {
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        edit.setIntValue(intAttribute, vertex0, 3, 7);
+        edit.setFloatValue(floatAttribute, vertex0, 1.5F, -2.25F);
+        edit.setBooleanValue(booleanAttribute, vertex0, false, true);
+        edit.setObjectValue(stringAttribute, vertex0, "old", "new");
+
+        final UndoGraphEdit childEdit = new UndoGraphEdit();
+        childEdit.setObjectValue(objectAttribute, vertex0, OLD_DATE, NEW_DATE);
+        childEdit.finish();
+        edit.addChild(childEdit);
+
+        edit.finish();
+        return edit;
+    }
+
+    private static UndoGraphEdit writeAndRead(final UndoGraphEdit edit) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            edit.write(out);
+        }
+        return new UndoGraphEdit(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private void assertOldValues(final int vertex) {
+        assertEquals(graph.getIntValue(intAttribute, vertex), 3);
+        assertEquals(graph.getFloatValue(floatAttribute, vertex), 1.5F);
+        assertFalse(graph.getBooleanValue(booleanAttribute, vertex));
+        assertEquals(graph.getStringValue(stringAttribute, vertex), "old");
+        assertEquals(graph.getObjectValue(objectAttribute, vertex), OLD_DATE);
+    }
+
+    private void assertNewValues(final int vertex) {
+        assertEquals(graph.getIntValue(intAttribute, vertex), 7);
+        assertEquals(graph.getFloatValue(floatAttribute, vertex), -2.25F);
+        assertTrue(graph.getBooleanValue(booleanAttribute, vertex));
+        assertEquals(graph.getStringValue(stringAttribute, vertex), "new");
+        assertEquals(graph.getObjectValue(objectAttribute, vertex), NEW_DATE);
+    }
+
+    /**
+     * An edit that has been written and read again sets the same values as the
+     * original edit, and undoes them.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testWriteAndRead() throws Exception {
+        System.out.println("testWriteAndRead");
+
+        final UndoGraphEdit edit = writeAndRead(recordEdit());
+        assertTrue(edit.isValueOnly());
+
+        edit.execute(graph);
+        assertNewValues(vertex0);
+        assertOldValues(vertex1);
+
+        edit.undo(graph);
+        assertOldValues(vertex0);
+        assertOldValues(vertex1);
+    }
+
+    /**
+     * A remapped edit sets the values of the mapped elements, including those
+     * set by child edits, and undoes them.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRemap() throws Exception {
+        System.out.println("testRemap");
+
+        final UndoGraphEdit edit = writeAndRead(recordEdit())
+                .remap(attribute -> attribute, (attribute, id) -> id == vertex0 ? vertex1 : GraphConstants.NOT_FOUND);
+
+        edit.execute(graph);
+        assertOldValues(vertex0);
+        assertNewValues(vertex1);
+
+        edit.undo(graph);
+        assertOldValues(vertex0);
+        assertOldValues(vertex1);
+    }
+
+    /**
+     * Values of attributes that are mapped to NOT_FOUND are dropped.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRemapDropsMissingAttributes() throws Exception {
+        System.out.println("testRemapDropsMissingAttributes");
+
+        final UndoGraphEdit edit = recordEdit()
+                .remap(attribute -> attribute == intAttribute ? GraphConstants.NOT_FOUND : attribute, (attribute, id) -> id);
+
+        edit.execute(graph);
+        assertEquals(graph.getIntValue(intAttribute, vertex0), 3);
+        assertEquals(graph.getFloatValue(floatAttribute, vertex0), -2.25F);
+        assertEquals(graph.getObjectValue(objectAttribute, vertex0), NEW_DATE);
+    }
+
+    /**
+     * Only value only edits can be remapped.
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testRemapStructureEdit() {
+        System.out.println("testRemapStructureEdit");
+
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        edit.addVertex(vertex0);
+        edit.finish();
+        edit.remap(attribute -> attribute, (attribute, id) -> id);
+    }
+
+    /**
+     * A serialised object value of a class that is not an attribute value type
+     * can't be read.
+     *
+     * @throws Exception
+     */
+    @Test(expectedExceptions = InvalidClassException.class)
+    public void testReadRejectedClass() throws Exception {
+        System.out.println("testReadRejectedClass");
+
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        edit.setObjectValue(objectAttribute, vertex0, null, new File("rejected"));
+        edit.finish();
+        writeAndRead(edit);
+    }
+
+    /**
+     * A value that can't be serialised can't be written.
+     *
+     * @throws IOException
+     */
+    @Test(expectedExceptions = IOException.class)
+    public void testWriteUnserializableValue() throws IOException {
+        System.out.println("testWriteUnserializableValue");
+
+        final UndoGraphEdit edit = new UndoGraphEdit();
+        edit.setObjectValue(objectAttribute, vertex0, null, new Object());
+        edit.finish();
+        edit.write(new DataOutputStream(new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.node.gui;
+
+import au.gov.asd.tac.constellation.graph.file.GraphDataObject;
+import au.gov.asd.tac.constellation.graph.file.GraphObjectUtilities;
+import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
+import au.gov.asd.tac.constellation.graph.file.io.LazyGraph;
+import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
+import au.gov.asd.tac.constellation.utilities.gui.TextIoProgress;
+import au.gov.asd.tac.constellation.utilities.gui.filechooser.FileChooser;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileFilter;
+import org.apache.commons.lang3.StringUtils;
+import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.awt.ActionID;
+import org.openide.awt.ActionReference;
+import org.openide.awt.ActionRegistration;
+import org.openide.awt.StatusDisplayer;
+import org.openide.filesystems.FileChooserBuilder;
+import org.openide.util.NbBundle.Messages;
+
+/**
+ * Open a graph file read only as a {@link LazyGraph}.
+ * <p>
+ * The graph is shown in a {@link SimpleGraphTopComponent}, so the views that
+ * follow the active graph (such as the Table View, Histogram and Find and
+ * Replace) read it in place; only the attribute columns they ask for are read
+ * from the file.
+ *
+ * @author algol
+ */
+@ActionID(category = "File", id = "au.gov.asd.tac.constellation.graph.node.gui.InspectGraphFileAction")
+@ActionRegistration(displayName = "#CTL_InspectGraphFileAction")
+@ActionReference(path = "Menu/Experimental/Tools", position = 100)
+@Messages("CTL_InspectGraphFileAction=Inspect Graph File...")
+public final class InspectGraphFileAction implements ActionListener {
+
+    private static final Logger LOGGER = Logger.getLogger(InspectGraphFileAction.class.getName());
+
+    private static final String TITLE = "Inspect Graph File";
+
+    @Override
+    public void actionPerformed(final ActionEvent e) {
+        FileChooser.openOpenDialog(getInspectFileChooser()).thenAccept(optionalFile -> optionalFile.ifPresent(file -> new LazyGraphFileOpener(file).execute()));
+    }
+
+    /**
+     * Creates a new file chooser.
+     *
+     * @return the created file chooser.
+     */
+    public FileChooserBuilder getInspectFileChooser() {
+        return new FileChooserBuilder(TITLE)
+                .setTitle(TITLE)
+                .setAcceptAllFileFilterUsed(false)
+                .setFilesOnly(true)
+                .setFileFilter(new FileFilter() {
+                    @Override
+                    public boolean accept(final File file) {
+                        return (file.isFile() && StringUtils.endsWithIgnoreCase(file.getName(), FileExtensionConstants.STAR))
+                                || file.isDirectory();
+                    }
+
+                    @Override
+                    public String getDescription() {
+                        return "Constellation Files (" + FileExtensionConstants.STAR + ")";
+                    }
+                });
+    }
+
+    private static class LazyGraphFileOpener extends SwingWorker<LazyGraph, Void> {
+
+        private final File file;
+        private final long t0;
+
+        LazyGraphFileOpener(final File file) {
+            this.file = file;
+            this.t0 = System.currentTimeMillis();
+        }
+
+        @Override
+        protected LazyGraph doInBackground() throws Exception {
+            return new GraphJsonReader().readGraphLazily(file, new TextIoProgress(true));
+        }
+
+        @Override
+        protected void done() {
+            final LazyGraph graph;
+            try {
+                graph = get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException ex) {
+                LOGGER.log(Level.SEVERE, ex.getLocalizedMessage(), ex);
+                final NotifyDescriptor d = new NotifyDescriptor.Message(String.format("Error opening graph:%n%s", ex.getCause().getMessage()), NotifyDescriptor.ERROR_MESSAGE);
+                DialogDisplayer.getDefault().notify(d);
+                return;
+            }
+
+            StatusDisplayer.getDefault().setStatusText(String.format("%s opened read only (%.1fs)", file.getName(), (System.currentTimeMillis() - t0) / 1000F));
+            final String name = StringUtils.removeEndIgnoreCase(file.getName(), FileExtensionConstants.STAR);
+            final GraphDataObject gdo = GraphObjectUtilities.createMemoryDataObject(name, true);
+            final SimpleGraphTopComponent vtc = new SimpleGraphTopComponent(gdo, graph);
+            vtc.open();
+            vtc.requestActive();
+        }
+    }
+}
@@ -19,13 +19,17 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.file.GraphDataObject;
 import au.gov.asd.tac.constellation.graph.file.GraphObjectUtilities;
+import au.gov.asd.tac.constellation.graph.file.io.LazyGraph;
 import au.gov.asd.tac.constellation.graph.locking.DualGraph;
 import au.gov.asd.tac.constellation.graph.monitor.GraphChangeEvent;
 import au.gov.asd.tac.constellation.graph.monitor.GraphChangeListener;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
 import au.gov.asd.tac.constellation.utilities.memory.MemoryManager;
+import java.io.IOException;
 import java.lang.ref.Cleaner;
 import java.lang.ref.Cleaner.Cleanable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.openide.awt.ActionID;
 import org.openide.awt.ActionReference;
 import org.openide.awt.ActionReferences;
@@ -68,6 +72,8 @@ import org.openide.windows.TopComponent;
 })
 public final class SimpleGraphTopComponent extends CloneableTopComponent implements GraphChangeListener, UndoRedo.Provider {
 
+    private static final Logger LOGGER = Logger.getLogger(SimpleGraphTopComponent.class.getName());
+
     private final InstanceContent content;
     private final Graph graph;
     private final GraphNode graphNode;
@@ -374,5 +380,14 @@ public final class SimpleGraphTopComponent extends CloneableTopComponent impleme
         content.remove(graphNode);
 
         graphNode.destroy();
+
+        // A lazily opened graph keeps its file open to read the remaining columns.
+        if (graph instanceof LazyGraph lazyGraph) {
+            try {
+                lazyGraph.closeFile();
+            } catch (final IOException ex) {
+                LOGGER.log(Level.WARNING, ex.getLocalizedMessage(), ex);
+            }
+        }
     }
 }
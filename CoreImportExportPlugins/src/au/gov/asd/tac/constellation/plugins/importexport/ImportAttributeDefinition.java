@@ -140,15 +140,41 @@ public class ImportAttributeDefinition {
     }
 
     public void setValue(final GraphWriteMethods graph, final int elementId, final String[] row, final int rowIndex) {
+        if (hasValue()) {
+            graph.setStringValue(getOverriddenAttributeId(), elementId, translateValue(row, rowIndex));
+        }
+    }
+
+    /**
+     * Returns true if this definition sets a value on the graph, that is if it
+     * is assigned to a column, to the row id or has a default value.
+     *
+     * @return true if this definition sets a value on the graph.
+     */
+    public boolean hasValue() {
+        return (columnIndex == ImportConstants.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN && defaultValue != null)
+                || columnIndex >= 0 || columnIndex == rowIDColumnIndex;
+    }
+
+    /**
+     * Extract and translate the value that {@link #setValue} would set for a
+     * row, without touching the graph. This allows rows to be translated on a
+     * different thread to the one writing to the graph.
+     * <p>
+     * This should only be called if {@link #hasValue()} returns true.
+     *
+     * @param row the row of the table.
+     * @param rowIndex the index of the row in the table.
+     * @return the translated value.
+     */
+    public String translateValue(final String[] row, final int rowIndex) {
         if (columnIndex == ImportConstants.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN && defaultValue != null) {
-            graph.setStringValue(getOverriddenAttributeId(), elementId, translator.translate(defaultValue, parameters));
+            return translator.translate(defaultValue, parameters);
         } else if (columnIndex >= 0) {
             final String cell = columnIndex < row.length ? row[columnIndex] : "";
-            graph.setStringValue(getOverriddenAttributeId(), elementId, translator.translate(cell, parameters));
-        } else if (columnIndex == rowIDColumnIndex) {
-            graph.setStringValue(getOverriddenAttributeId(), elementId, Integer.toString(rowIndex));
+            return translator.translate(cell, parameters);
         } else {
-            // Do nothing
+            return Integer.toString(rowIndex);
         }
     }
 
@@ -39,6 +39,7 @@ import au.gov.asd.tac.constellation.plugins.importexport.ImportDefinition;
 import au.gov.asd.tac.constellation.plugins.importexport.RowFilter;
 import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.ImportFileParser;
 import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.InputSource;
+import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.RowReader;
 import au.gov.asd.tac.constellation.plugins.logging.ConstellationLoggerHelper;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
@@ -90,6 +91,7 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
 
     public static final String IMPORTED_ROWS = "IMPORTED_ROWS";
     public static final String SKIPPED_ROWS = "SKIPPED_ROWS";
+    private static final String TOTAL_ROWS = "TOTAL_ROWS";
 
     @Override
     public PluginParameters createParameters() {
@@ -241,7 +243,7 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
         final List<String> emptyFiles = new ArrayList<>();
         final List<String> invalidFiles = new ArrayList<>();
         final List<String> emptyRunConfigs = new ArrayList<>();
-        Map<String, Integer> results;
+        final Map<String, Integer> results = new HashMap<>();
         int totalRows = 0;
         int totalImportedRows = 0;
         int totalSkippedRows = 0;
@@ -254,17 +256,20 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
                     && definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
                 emptyRunConfigs.add(definition.getDefinitionName());
             }
+
+            // Determine if a positional attribute has been defined, if so update the overall flag
+            final boolean isPositional = attributeDefintionIsPositional(definition.getDefinitions(AttributeType.SOURCE_VERTEX), definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
+            positionalAtrributesExist = (positionalAtrributesExist || isPositional);
         }
 
         for (final File file : files) {
             interaction.setProgress(0, 0, "Reading File: " + file.getName(), true);
-            List<String[]> data = null;
-            int importedRowsPerFile = 0;
-            int skippedRowsPerFile = 0;
+            dataSize = 0;
+            results.clear();
 
             try {
-                data = parser.parse(new InputSource(file), parserParameters);
-                dataSize = filesIncludeHeaders ? data.size() - 1 : data.size();
+                importFile(parser.open(new InputSource(file), parserParameters), definitions, graph, initialiseWithSchema, skipInvalidRows, interaction, file.getName(), results);
+                dataSize = filesIncludeHeaders ? results.get(TOTAL_ROWS) - 1 : results.get(TOTAL_ROWS);
                 totalRows = totalRows + Integer.max(0, dataSize);
 
                 if (dataSize > 0) {
@@ -281,39 +286,14 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
                 LOGGER.log(Level.INFO, errorMsg);
                 invalidFiles.add(file.getName());
             } catch (IOException ex) {
-                final String errorMsg = file.getPath() + " could not be parsed. Removing file during import.";
+                final String errorMsg = file.getPath() + " could not be parsed after " + results.getOrDefault(TOTAL_ROWS, 0) + " rows. Importing no further rows from this file.";
                 LOGGER.log(Level.INFO, errorMsg);
                 invalidFiles.add(file.getName());
             }
 
-            if (data != null) {
-                for (final ImportDefinition definition : definitions) {
-
-                    if (definition.getDefinitions(AttributeType.SOURCE_VERTEX).isEmpty()) {
-                        // No source vertex definitions are set, the only option left is destination vertexes being mapped.
-                        // Process destination vertexes if defintions are defined, otherwise there is nothing to do.
-                        if (!definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
-                            results = processDestinationVertices(definition, graph, data, initialiseWithSchema, skipInvalidRows, interaction, file.getName());
-                            importedRowsPerFile += results.get(IMPORTED_ROWS);
-                            skippedRowsPerFile += results.get(SKIPPED_ROWS);
-                        }
-                    } else if (definition.getDefinitions(AttributeType.DESTINATION_VERTEX).isEmpty()) {
-                        // Source defintions exist, but no destination definitions exist. Process the source definitions.
-                        results = processSourceVertices(definition, graph, data, initialiseWithSchema, skipInvalidRows, interaction, file.getName());
-                        importedRowsPerFile += results.get(IMPORTED_ROWS);
-                        skippedRowsPerFile += results.get(SKIPPED_ROWS);
-                    } else {
-                        // Both source and destination defintions exist, process them.
-                        results = processTransactions(definition, graph, data, initialiseWithSchema, skipInvalidRows, interaction, file.getName());
-                        importedRowsPerFile += results.get(IMPORTED_ROWS);
-                        skippedRowsPerFile += results.get(SKIPPED_ROWS);
-                    }
-
-                    // Determine if a positional attribute has been defined, if so update the overall flag
-                    final boolean isPositional = attributeDefintionIsPositional(definition.getDefinitions(AttributeType.SOURCE_VERTEX), definition.getDefinitions(AttributeType.DESTINATION_VERTEX));
-                    positionalAtrributesExist = (positionalAtrributesExist || isPositional);
-                }
-            }
+            // Rows imported before a read error are already in the graph, so they are counted too.
+            final int importedRowsPerFile = results.getOrDefault(IMPORTED_ROWS, 0);
+            final int skippedRowsPerFile = results.getOrDefault(SKIPPED_ROWS, 0);
             totalImportedRows += importedRowsPerFile;
             totalSkippedRows += skippedRowsPerFile;
 
@@ -362,152 +342,273 @@ public class ImportDelimitedPlugin extends SimpleEditPlugin {
         return destAttributeDefinitions.stream().map(attribute -> attribute.getAttribute().getName()).anyMatch(name -> (VisualConcept.VertexAttribute.X.getName().equals(name) || VisualConcept.VertexAttribute.Y.getName().equals(name) || VisualConcept.VertexAttribute.Z.getName().equals(name)));
     }
 
-    private static Map<String, Integer> processSourceVertices(final ImportDefinition definition, final GraphWriteMethods graph, final List<String[]> data, final boolean initialiseWithSchema,
-            final boolean skipInvalidRows, final PluginInteraction interaction, final String source) throws InterruptedException, PluginException {
-        return processVertices(definition, graph, data, AttributeType.SOURCE_VERTEX, initialiseWithSchema, skipInvalidRows, interaction, source);
-    }
-
-    private static Map<String, Integer> processDestinationVertices(final ImportDefinition definition, final GraphWriteMethods graph, final List<String[]> data, final boolean initialiseWithSchema,
-            final boolean skipInvalidRows, final PluginInteraction interaction, final String source) throws InterruptedException, PluginException {
-        return processVertices(definition, graph, data, AttributeType.DESTINATION_VERTEX, initialiseWithSchema, skipInvalidRows, interaction, source);
-    }
-
-    private static Map<String, Integer> processVertices(final ImportDefinition definition, final GraphWriteMethods graph, final List<String[]> data, final AttributeType attributeType,
-            final boolean initialiseWithSchema, final boolean skipInvalidRows, final PluginInteraction interaction, final String source) throws InterruptedException, PluginException {
-        final List<ImportAttributeDefinition> attributeDefinitions = definition.getDefinitions(attributeType);
-
-        addAttributes(graph, GraphElementType.VERTEX, attributeDefinitions);
-
-        int currentRow = 0;
-        int importedRows = 0;
-        int skippedRow = 0;
-        final Map<String, Integer> results = new HashMap<>();
-        final int totalRows = data.size() - definition.getFirstRow();
+    /**
+     * Import the rows of a file for each of the import definitions.
+     * <p>
+     * The file is streamed through an {@link ImportRowPipeline}: rows are read
+     * and translated in batches on worker threads, and the translated values
+     * are written to the graph in batches on this thread. Only a bounded
+     * number of batches are held in memory at once, so the memory used does
+     * not depend on the size of the file.
+     *
+     * @param reader a reader for the rows of the file; this will be closed.
+     * @param definitions the import definitions.
+     * @param graph the graph to import into.
+     * @param initialiseWithSchema true if the schema should complete the new
+     * elements.
+     * @param skipInvalidRows true if rows that can't be imported should be
+     * skipped rather than failing the import.
+     * @param interaction the plugin interaction to report progress to.
+     * @param source the name of the file.
+     * @param results receives the number of rows read from the file, and the
+     * number of rows imported and skipped across all of the definitions. These
+     * are recorded even if reading the file fails part way through, as the
+     * rows before the failure have already been imported.
+     */
+    private static void importFile(final RowReader reader, final List<ImportDefinition> definitions, final GraphWriteMethods graph,
+            final boolean initialiseWithSchema, final boolean skipInvalidRows, final PluginInteraction interaction, final String source,
+            final Map<String, Integer> results) throws IOException, InterruptedException, PluginException {
+        final List<DefinitionImporter> importers = new ArrayList<>();
+        boolean threadSafe = true;
+        for (final ImportDefinition definition : definitions) {
+            final DefinitionImporter importer = new DefinitionImporter(definition, graph, initialiseWithSchema, skipInvalidRows);
+            if (importer.hasVertices()) {
+                importers.add(importer);
+                threadSafe &= importer.isThreadSafe();
+            }
+        }
 
-        final RowFilter filter = definition.getRowFilter();
+        // Translators that aren't thread safe still benefit from reading and translating on separate threads.
+        final int workerCount = threadSafe ? Runtime.getRuntime().availableProcessors() : 1;
+
+        int rowCount = 0;
+        try (final ImportRowPipeline<TranslatedBatch> pipeline = new ImportRowPipeline<>(reader,
+                (firstRow, rows) -> translateBatch(importers, firstRow, rows), workerCount, ImportRowPipeline.BATCH_SIZE)) {
+            TranslatedBatch batch;
+            while ((batch = pipeline.take()) != null) {
+                for (int r = 0; r < batch.rows.size(); r++) {
+                    final int rowIndex = batch.firstRow + r;
+                    for (int d = 0; d < importers.size(); d++) {
+                        importers.get(d).write(graph, batch.rows.get(r), rowIndex, batch.values[d][r], batch.errors[d][r]);
+                    }
+                }
 
-        for (int i = definition.getFirstRow(); i < data.size(); i++) {
-            interaction.setProgress(++currentRow, totalRows, "Importing Vertices: " + source, true);
+                rowCount = batch.firstRow + batch.rows.size();
+                interaction.setProgress(rowCount, 0, "Importing Rows: " + source + " (" + rowCount + " rows)", true);
+            }
+        } finally {
+            int importedRows = 0;
+            int skippedRows = 0;
+            for (final DefinitionImporter importer : importers) {
+                importedRows += importer.importedRows;
+                skippedRows += importer.skippedRows;
+            }
 
-            final String[] row = data.get(i);
-            int vertexId = -1;
+            results.put(TOTAL_ROWS, rowCount);
+            results.put(IMPORTED_ROWS, importedRows);
+            results.put(SKIPPED_ROWS, skippedRows);
+        }
+    }
 
-            try {
+    private static TranslatedBatch translateBatch(final List<DefinitionImporter> importers, final int firstRow, final List<String[]> rows) {
+        final TranslatedBatch batch = new TranslatedBatch(firstRow, rows, importers.size());
+        for (int d = 0; d < importers.size(); d++) {
+            final DefinitionImporter importer = importers.get(d);
+            for (int r = 0; r < rows.size(); r++) {
+                final int rowIndex = firstRow + r;
+                if (rowIndex >= importer.definition.getFirstRow()) {
+                    try {
+                        batch.values[d][r] = importer.translate(rows.get(r), rowIndex - 1);
+                    } catch (final DateTimeException | IllegalArgumentException | SecurityException ex) {
+                        batch.errors[d][r] = ex;
+                    }
+                }
+            }
+        }
 
-                if (filter == null || filter.passesFilter(i - 1, row)) {
+        return batch;
+    }
 
-                    vertexId = graph.addVertex();
-                    for (final ImportAttributeDefinition attributeDefinition : attributeDefinitions) {
-                        attributeDefinition.setValue(graph, vertexId, row, (i - 1));
-                    }
+    /**
+     * A batch of rows and their translated values for each import definition.
+     */
+    private static final class TranslatedBatch {
+
+        private final int firstRow;
+        private final List<String[]> rows;
+        private final String[][][] values;
+        private final RuntimeException[][] errors;
+
+        private TranslatedBatch(final int firstRow, final List<String[]> rows, final int definitionCount) {
+            this.firstRow = firstRow;
+            this.rows = rows;
+            this.values = new String[definitionCount][rows.size()][];
+            this.errors = new RuntimeException[definitionCount][rows.size()];
+        }
+    }
 
-                    if (initialiseWithSchema && graph.getSchema() != null) {
-                        graph.getSchema().completeVertex(graph, vertexId);
+    /**
+     * Imports rows into the graph for a single import definition, either as
+     * vertices if only one of the source or destination vertex is defined or
+     * as transactions if both are defined.
+     * <p>
+     * The values of a row are translated by {@link #translate}, which doesn't
+     * touch the graph and can be called from worker threads, and then written
+     * to the graph by {@link #write}.
+     */
+    private static final class DefinitionImporter {
+
+        private static final int SOURCE = 0;
+        private static final int DESTINATION = 1;
+        private static final int TRANSACTION = 2;
+
+        private final ImportDefinition definition;
+        private final boolean transactions;
+        private final boolean hasVertices;
+        private final int directedIx;
+        private final boolean initialiseWithSchema;
+        private final boolean skipInvalidRows;
+        private final RowFilter filter;
+
+        // The attribute definitions to set, in the order they are set, and the element each one applies to.
+        private final List<ImportAttributeDefinition> attributeDefinitions = new ArrayList<>();
+        private final List<Integer> elements = new ArrayList<>();
+
+        private int importedRows = 0;
+        private int skippedRows = 0;
+
+        private DefinitionImporter(final ImportDefinition definition, final GraphWriteMethods graph, final boolean initialiseWithSchema, final boolean skipInvalidRows) {
+            this.definition = definition;
+            this.initialiseWithSchema = initialiseWithSchema;
+            this.skipInvalidRows = skipInvalidRows;
+            this.filter = definition.getRowFilter();
+
+            final List<ImportAttributeDefinition> sourceVertexDefinitions = definition.getDefinitions(AttributeType.SOURCE_VERTEX);
+            final List<ImportAttributeDefinition> destinationVertexDefinitions = definition.getDefinitions(AttributeType.DESTINATION_VERTEX);
+            final List<ImportAttributeDefinition> transactionDefinitions = definition.getDefinitions(AttributeType.TRANSACTION);
+
+            hasVertices = !sourceVertexDefinitions.isEmpty() || !destinationVertexDefinitions.isEmpty();
+            transactions = !sourceVertexDefinitions.isEmpty() && !destinationVertexDefinitions.isEmpty();
+
+            int directed = ImportConstants.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN;
+            if (transactions) {
+                for (int i = 0; i < transactionDefinitions.size(); i++) {
+                    if (transactionDefinitions.get(i).getAttribute().getName().equals(DelimitedImportController.DIRECTED)) {
+                        directed = transactionDefinitions.get(i).getColumnIndex();
+                        break;
                     }
+                }
 
-                    // Count the number of processed rows to notify in the status message
-                    ++importedRows;
+                addAttributes(graph, GraphElementType.VERTEX, sourceVertexDefinitions);
+                addAttributes(graph, GraphElementType.VERTEX, destinationVertexDefinitions);
+                addAttributes(graph, GraphElementType.TRANSACTION, transactionDefinitions);
 
-                }
-            } catch (final DateTimeException | IllegalArgumentException | SecurityException ex) {
-                if (skipInvalidRows) {
-                    if (vertexId != -1) {
-                        graph.removeVertex(vertexId);
+                for (final ImportAttributeDefinition attributeDefinition : transactionDefinitions) {
+                    if (attributeDefinition.getOverriddenAttributeId() != Graph.NOT_FOUND) {
+                        addAttributeDefinition(attributeDefinition, TRANSACTION);
                     }
-                    ++skippedRow;
-                } else {
-                    final PluginException plugEx = new PluginException(PluginNotificationLevel.ERROR, "Unable to complete import due to error with data. " + ex.getMessage() + ". The file can be imported if you select the Skip Invalid Rows checkbox next to the Import button.");
-                    plugEx.setStackTrace(ex.getStackTrace());
-                    throw plugEx;
                 }
+                destinationVertexDefinitions.forEach(attributeDefinition -> addAttributeDefinition(attributeDefinition, DESTINATION));
+                sourceVertexDefinitions.forEach(attributeDefinition -> addAttributeDefinition(attributeDefinition, SOURCE));
+            } else if (hasVertices) {
+                // Only one of the source or destination vertex definitions is set, so import vertices.
+                final List<ImportAttributeDefinition> vertexDefinitions = sourceVertexDefinitions.isEmpty() ? destinationVertexDefinitions : sourceVertexDefinitions;
+                addAttributes(graph, GraphElementType.VERTEX, vertexDefinitions);
+                vertexDefinitions.forEach(attributeDefinition -> addAttributeDefinition(attributeDefinition, SOURCE));
+            } else {
+                // Nothing to import.
             }
+            this.directedIx = directed;
         }
-        results.put(IMPORTED_ROWS, importedRows);
-        results.put(SKIPPED_ROWS, skippedRow);
-        return results;
-    }
 
-    private static Map<String, Integer> processTransactions(final ImportDefinition definition, final GraphWriteMethods graph, final List<String[]> data, final boolean initialiseWithSchema, final boolean skipInvalidRows, final PluginInteraction interaction, final String source) throws InterruptedException, PluginException {
-        final List<ImportAttributeDefinition> sourceVertexDefinitions = definition.getDefinitions(AttributeType.SOURCE_VERTEX);
-        final List<ImportAttributeDefinition> destinationVertexDefinitions = definition.getDefinitions(AttributeType.DESTINATION_VERTEX);
-        final List<ImportAttributeDefinition> transactionDefinitions = definition.getDefinitions(AttributeType.TRANSACTION);
-
-        int directedIx = ImportConstants.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN;
-        for (int i = 0; i < transactionDefinitions.size(); i++) {
-            if (transactionDefinitions.get(i).getAttribute().getName().equals(DelimitedImportController.DIRECTED)) {
-                directedIx = transactionDefinitions.get(i).getColumnIndex();
-                break;
+        private void addAttributeDefinition(final ImportAttributeDefinition attributeDefinition, final int element) {
+            if (attributeDefinition.hasValue()) {
+                attributeDefinitions.add(attributeDefinition);
+                elements.add(element);
             }
         }
 
-        addAttributes(graph, GraphElementType.VERTEX, sourceVertexDefinitions);
-        addAttributes(graph, GraphElementType.VERTEX, destinationVertexDefinitions);
-        addAttributes(graph, GraphElementType.TRANSACTION, transactionDefinitions);
-
-        int currentRow = 0;
-        int importedRows = 0;
-        int skippedRow = 0;
-        final Map<String, Integer> results = new HashMap<>();
-        final int totalRows = data.size() - definition.getFirstRow();
+        private boolean hasVertices() {
+            return hasVertices;
+        }
 
-        final RowFilter filter = definition.getRowFilter();
+        private boolean isThreadSafe() {
+            return attributeDefinitions.stream().allMatch(attributeDefinition -> attributeDefinition.getTranslator().isThreadSafe());
+        }
 
-        for (int i = definition.getFirstRow(); i < data.size(); i++) {
-            interaction.setProgress(++currentRow, totalRows, "Importing Transactions: " + source, true);
+        private String[] translate(final String[] row, final int rowIndex) {
+            final String[] values = new String[attributeDefinitions.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = attributeDefinitions.get(i).translateValue(row, rowIndex);
+            }
 
-            final String[] row = data.get(i);
+            return values;
+        }
 
-            if (filter == null || filter.passesFilter(i - 1, row)) {
+        private void write(final GraphWriteMethods graph, final String[] row, final int rowIndex, final String[] values, final RuntimeException error) throws PluginException {
+            if (rowIndex < definition.getFirstRow() || (filter != null && !filter.passesFilter(rowIndex - 1, row))) {
+                return;
+            }
 
-                final int sourceVertexId = graph.addVertex();
-                final int destinationVertexId = graph.addVertex();
+            if (error != null) {
+                skipInvalidRow(error);
+                return;
+            }
 
+            final int sourceVertexId = graph.addVertex();
+            final int destinationVertexId = transactions ? graph.addVertex() : Graph.NOT_FOUND;
+            final int transactionId;
+            if (transactions) {
                 final boolean isDirected = directedIx == ImportConstants.ATTRIBUTE_NOT_ASSIGNED_TO_COLUMN || Boolean.parseBoolean(row[directedIx]);
-                final int transactionId = graph.addTransaction(sourceVertexId, destinationVertexId, isDirected);
-
-                try {
-                    for (final ImportAttributeDefinition attributeDefinition : transactionDefinitions) {
-                        if (attributeDefinition.getOverriddenAttributeId() != Graph.NOT_FOUND) {
-                            attributeDefinition.setValue(graph, transactionId, row, (i - 1));
-                        }
-                    }
+                transactionId = graph.addTransaction(sourceVertexId, destinationVertexId, isDirected);
+            } else {
+                transactionId = Graph.NOT_FOUND;
+            }
 
-                    for (final ImportAttributeDefinition attributeDefinition : destinationVertexDefinitions) {
-                        attributeDefinition.setValue(graph, destinationVertexId, row, (i - 1));
-                    }
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    final int elementId = switch (elements.get(i)) {
+                        case TRANSACTION ->
+                            transactionId;
+                        case DESTINATION ->
+                            destinationVertexId;
+                        default ->
+                            sourceVertexId;
+                    };
+                    graph.setStringValue(attributeDefinitions.get(i).getOverriddenAttributeId(), elementId, values[i]);
+                }
 
-                    for (final ImportAttributeDefinition attributeDefinition : sourceVertexDefinitions) {
-                        attributeDefinition.setValue(graph, sourceVertexId, row, (i - 1));
-                    }
-                    if (initialiseWithSchema && graph.getSchema() != null) {
-                        graph.getSchema().completeVertex(graph, sourceVertexId);
+                if (initialiseWithSchema && graph.getSchema() != null) {
+                    graph.getSchema().completeVertex(graph, sourceVertexId);
+                    if (transactions) {
                         graph.getSchema().completeVertex(graph, destinationVertexId);
                         graph.getSchema().completeTransaction(graph, transactionId);
                     }
+                }
 
-                    // Count the number of processed rows to notify in the status message
-                    ++importedRows;
-
-                } catch (final DateTimeException | IllegalArgumentException | SecurityException ex) {
-                    if (skipInvalidRows) {
+                // Count the number of processed rows to notify in the status message
+                ++importedRows;
+            } catch (final DateTimeException | IllegalArgumentException | SecurityException ex) {
+                if (skipInvalidRows) {
+                    if (transactions) {
                         graph.removeTransaction(transactionId);
-                        graph.removeVertex(sourceVertexId);
                         graph.removeVertex(destinationVertexId);
-                        ++skippedRow;
-                    } else {
-                        final PluginException plugEx = new PluginException(PluginNotificationLevel.ERROR, "Unable to complete import due to error with data. " + ex.getMessage() + ". The file can be imported if you select the Skip Invalid Rows checkbox next to the Import button.");
-                        plugEx.setStackTrace(ex.getStackTrace());
-                        throw plugEx;
                     }
+                    graph.removeVertex(sourceVertexId);
                 }
+                skipInvalidRow(ex);
             }
-
         }
 
-        results.put(IMPORTED_ROWS, importedRows);
-        results.put(SKIPPED_ROWS, skippedRow);
-
-        return results;
+        private void skipInvalidRow(final RuntimeException ex) throws PluginException {
+            if (skipInvalidRows) {
+                ++skippedRows;
+            } else {
+                final PluginException plugEx = new PluginException(PluginNotificationLevel.ERROR, "Unable to complete import due to error with data. " + ex.getMessage() + ". The file can be imported if you select the Skip Invalid Rows checkbox next to the Import button.");
+                plugEx.setStackTrace(ex.getStackTrace());
+                throw plugEx;
+            }
+        }
     }
 
     /**
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.importexport.delimited;
+
+import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.RowReader;
+import au.gov.asd.tac.constellation.utilities.threadpool.ConstellationGlobalThreadPool;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded producer/consumer pipeline that reads the rows of a table in
+ * batches, translates each batch on a pool of worker threads, and hands the
+ * translated batches to a single consumer in the order they were read.
+ * <p>
+ * A reader thread reads batches of rows from a {@link RowReader} and submits
+ * each batch to the worker pool. The resulting futures are placed on a bounded
+ * queue, so the reader blocks once the consumer falls behind and only a fixed
+ * number of batches are ever held in memory, regardless of the size of the
+ * file. The consumer, typically the thread holding the graph write lock, calls
+ * {@link #take()} to receive each translated batch.
+ *
+ * @param <T> the type of a translated batch.
+ *
+ * @author algol
+ */
+final class ImportRowPipeline<T> implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ImportRowPipeline.class.getName());
+
+    /**
+     * The default number of rows in a batch.
+     */
+    static final int BATCH_SIZE = 1024;
+
+    /**
+     * Translates a batch of rows. Implementations will be called concurrently
+     * for different batches unless the pipeline has a single worker thread.
+     *
+     * @param <T> the type of a translated batch.
+     */
+    @FunctionalInterface
+    interface BatchTranslator<T> {
+
+        /**
+         * Translates a batch of rows.
+         *
+         * @param firstRow the index in the table of the first row in the
+         * batch.
+         * @param rows the rows in the batch.
+         * @return the translated batch.
+         */
+        T translate(final int firstRow, final List<String[]> rows);
+    }
+
+    private final RowReader reader;
+    private final BatchTranslator<T> translator;
+    private final int batchSize;
+    private final BlockingQueue<Future<T>> batches;
+    private final ExecutorService workers;
+    private final Future<?> readerTask;
+    private boolean finished = false;
+
+    /**
+     * Create and start a new pipeline.
+     *
+     * @param reader the reader to read rows from. The pipeline closes the
+     * reader when it has finished reading.
+     * @param translator the translator to apply to each batch of rows.
+     * @param workerCount the number of worker threads to translate batches
+     * on.
+     * @param batchSize the number of rows in each batch.
+     */
+    ImportRowPipeline(final RowReader reader, final BatchTranslator<T> translator, final int workerCount, final int batchSize) {
+        this.reader = reader;
+        this.translator = translator;
+        this.batchSize = batchSize;
+        this.batches = new ArrayBlockingQueue<>(Math.max(2, workerCount * 2));
+        this.workers = ConstellationGlobalThreadPool.getThreadPool().getFixedThreadPool("Import Rows", Math.max(1, workerCount));
+        this.readerTask = ConstellationGlobalThreadPool.getThreadPool().getCachedThreadPool().submit(this::read);
+    }
+
+    private void read() {
+        try {
+            try (reader) {
+                int rowCount = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    final List<String[]> rows = reader.readRows(batchSize);
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+
+                    final int firstRow = rowCount;
+                    rowCount += rows.size();
+                    batches.put(workers.submit(() -> translator.translate(firstRow, rows)));
+                }
+            }
+
+            batches.put(CompletableFuture.completedFuture(null));
+        } catch (final IOException | RuntimeException ex) {
+            putFailure(ex);
+        } catch (final InterruptedException ex) {
+            // The pipeline has been closed.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putFailure(final Exception ex) {
+        final CompletableFuture<T> failure = new CompletableFuture<>();
+        failure.completeExceptionally(ex);
+        try {
+            batches.put(failure);
+        } catch (final InterruptedException ie) {
+            LOGGER.log(Level.FINE, "Import pipeline closed while reporting a failure", ex);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the next translated batch, waiting for it to be read and
+     * translated if necessary. Batches are returned in the order they were
+     * read.
+     *
+     * @return the next translated batch, or null if there are no more rows.
+     * @throws IOException if an error occurred while reading the file.
+     * @throws InterruptedException if the thread was interrupted while
+     * waiting.
+     */
+    T take() throws IOException, InterruptedException {
+        if (finished) {
+            return null;
+        }
+
+        final Future<T> batch = batches.take();
+        try {
+            final T translated = batch.get();
+            if (translated == null) {
+                finished = true;
+            }
+
+            return translated;
+        } catch (final ExecutionException ex) {
+            finished = true;
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException ioex) {
+                throw ioex;
+            } else if (cause instanceof RuntimeException rex) {
+                throw rex;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Stops reading and translating, discarding any batches that haven't been
+     * taken.
+     */
+    @Override
+    public void close() {
+        readerTask.cancel(true);
+        workers.shutdownNow();
+        batches.clear();
+    }
+}
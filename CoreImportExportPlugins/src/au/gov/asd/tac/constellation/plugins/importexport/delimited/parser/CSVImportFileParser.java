@@ -21,7 +21,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import javax.swing.filechooser.FileFilter;
 import org.apache.commons.csv.CSVFormat;
@@ -49,47 +49,46 @@ public class CSVImportFileParser extends ImportFileParser {
 
     @Override
     public List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException {
-        final ArrayList<String[]> results = new ArrayList<>();
-
-        try (final CSVParser csvFileParser = getCSVParser(input)) {
-            for (final CSVRecord csvRecord : csvFileParser) {
-                final String[] line = new String[csvRecord.size()];
-
-                for (int i = 0; i < csvRecord.size(); i++) {
-                    line[i] = csvRecord.get(i);
-                }
-
-                results.add(line);
-            }
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(Integer.MAX_VALUE);
         }
-
-        return results;
     }
 
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
         // Leave the header on, as the importer expects this as the first entry.
-        final ArrayList<String[]> results = new ArrayList<>();
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(limit);
+        }
+    }
 
-        try (final CSVParser csvFileParser = getCSVParser(input)) {
-            int count = 0;
+    @Override
+    public RowReader open(final InputSource input, final PluginParameters parameters) throws IOException {
+        final CSVParser csvFileParser = getCSVParser(input);
+        final Iterator<CSVRecord> records = csvFileParser.iterator();
 
-            for (final CSVRecord csvRecord : csvFileParser) {
+        return new RowReader() {
+            @Override
+            public String[] readRow() {
+                if (!records.hasNext()) {
+                    return null;
+                }
+
+                final CSVRecord csvRecord = records.next();
                 final String[] line = new String[csvRecord.size()];
 
                 for (int i = 0; i < csvRecord.size(); i++) {
                     line[i] = csvRecord.get(i);
                 }
 
-                results.add(line);
-
-                if (++count >= limit) {
-                    return results;
-                }
+                return line;
             }
-        }
 
-        return results;
+            @Override
+            public void close() throws IOException {
+                csvFileParser.close();
+            }
+        };
     }
 
     /**
@@ -157,6 +157,25 @@ public abstract class ImportFileParser {
      */
     public abstract List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException;
 
+    /**
+     * Opens the file and returns a {@link RowReader} that reads the rows of the
+     * resulting table one at a time. The caller is responsible for closing the
+     * RowReader.
+     * <p>
+     * The default implementation reads the entire file using
+     * {@link #parse(InputSource, PluginParameters)}. Subclasses that can read
+     * a file incrementally should override this method so that large files
+     * can be imported in constant memory.
+     *
+     * @param input Input file
+     * @param parameters the parameters that configure the parse operation.
+     * @return a RowReader that reads the rows of the resulting table.
+     * @throws IOException if an error occurred while opening the file.
+     */
+    public RowReader open(final InputSource input, final PluginParameters parameters) throws IOException {
+        return RowReader.of(parse(input, parameters));
+    }
+
     /**
      * Reads only {@code limit} lines and returns a List of String arrays, each
      * of which represents a row in the resulting table.
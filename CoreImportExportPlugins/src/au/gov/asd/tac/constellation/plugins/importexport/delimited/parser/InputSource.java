@@ -15,6 +15,7 @@
  */
 package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -30,15 +31,24 @@ public class InputSource {
 
     private final File file;
     private final InputStream inputStream;
+    private final byte[] data;
 
     public InputSource(final File file) {
         this.file = file;
         this.inputStream = null;
+        this.data = null;
     }
 
     public InputSource(final InputStream inputStream) {
         this.file = null;
         this.inputStream = inputStream;
+        this.data = null;
+    }
+
+    private InputSource(final byte[] data) {
+        this.file = null;
+        this.inputStream = null;
+        this.data = data;
     }
 
     public File getFile() {
@@ -54,6 +64,23 @@ public class InputSource {
             return new FileInputStream(file);
         }
 
+        if (data != null) {
+            return new ByteArrayInputStream(data);
+        }
+
         return null;
     }
+
+    /**
+     * Returns an InputSource whose input stream can be opened more than once,
+     * for parsers that need several passes over the data. A file can simply be
+     * reopened, so this InputSource is returned; an input stream is read into
+     * memory.
+     *
+     * @return an InputSource that can be read more than once.
+     * @throws IOException if an error occurred while reading the input stream.
+     */
+    public InputSource getRepeatableSource() throws IOException {
+        return inputStream == null ? this : new InputSource(inputStream.readAllBytes());
+    }
 }
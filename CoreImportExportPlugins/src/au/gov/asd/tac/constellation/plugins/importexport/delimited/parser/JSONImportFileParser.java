@@ -19,14 +19,13 @@ import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
 import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -75,11 +74,8 @@ public class JSONImportFileParser extends ImportFileParser {
     // Flag to indicate that no suitable list has been found to extract via the importer.
     public static final int NO_LIST_LEVEL = Integer.MAX_VALUE;
 
-    // The list to extract values from. If null, no lists were found. Refer to header comments for logic in selecting list.
-    private JsonNode selectedList = null;
-    // Depth of the selectedList in JSON structure, used in determining best placed list.
-    private int selectedListDepth = NO_LIST_LEVEL;
-    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     private static final Pattern START_END_QUOTES_REGEX = Pattern.compile("(^\")|(\"$)");
 
     /**
@@ -90,110 +86,144 @@ public class JSONImportFileParser extends ImportFileParser {
     }
 
     /**
-     * Private function with the sole purpose of determine that the supplied
-     * parent node is an array and that all entries found within it are Objects
-     * (i.e. isObject() returns true). This ensures all elements are built up of
-     * key/value pairs which map well to column headings and values.
+     * Private function that streams through the JSON file looking for all
+     * array nodes that meet the following criteria: 1. List must have 1 or
+     * more rows of data. 2. All rows within the list must contain 'complex'
+     * JSON objects. These objects are characterized with a set of one or more
+     * 'field' key/value pairs contained within braces '{}'. Integers, Strings
+     * etc are not permitted as these do not translate to columns. Only the
+     * entries of candidate lists are read into memory, one at a time, to check
+     * them.
+     * <p>
+     * If the file contains more than one top level value, it is treated as
+     * newline delimited JSON, and the top level values are the list.
      *
-     * @param parent Node to check children of as per description.
-     * @return true if parent is an Array containing 1 or more Object JSON
-     * nodes, and no other children. As this function is designed to only be
-     * called by lookForChildArrays it can be assumed that parent is an array
-     * and not empty as this is checked in lookForChildArrays.
+     * @param input Input file
+     * @return the location of the best list found within the JSON structure.
+     * @throws IOException if the file is not valid JSON or no valid list was
+     * found.
      */
-    private boolean checkAllArrayItemsAreObjects(final JsonNode parent) {
-
-        // Get the first child of the list and ensure all children are same type.
-        // We only want a list of lists or a list of objects.
-        JsonNode firstChild = parent.get(0);
-
-        // We now know we have an ArrayNode, check all entries in the array are
-        // ObjectNodes or all entries are ArrayNodes, if any are not, return
-        // false.
-        if (firstChild.isObject()) {
-            for (final JsonNode childNode : parent) {
-                if (!childNode.isObject() || childNode.size() == 0) {
-                    return false;
-                }
+    private static ListLocation findList(final InputSource input) throws IOException {
+        final ListLocation location = new ListLocation();
+        try (final JsonParser parser = MAPPER.getFactory().createParser(input.getInputStream())) {
+            final boolean unwrapped = startTopLevelValues(parser);
+            if (isEndOfTopLevelValues(parser, unwrapped)) {
+                throw new IOException(WARN_NO_VALID_LIST);
             }
-            return true;
-        } else if (firstChild.isArray()) {
-            for (final JsonNode childNode : parent) {
-                if (!childNode.isArray()) {
-                    return false;
-                }
 
-                if (firstChild.size() != childNode.size() || firstChild.size() == 0) {
-                    return false;
+            // The shape of the list of top level values, used if this turns out
+            // to be newline delimited JSON.
+            final ListShape topLevelShape = new ListShape();
+            if (parser.currentToken() == JsonToken.START_ARRAY) {
+                // Top level node is an array, check whether it is a valid list.
+                final ListShape shape = new ListShape();
+                boolean flat = true;
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    final JsonNode entry = MAPPER.readTree(parser);
+                    shape.add(entry);
+                    flat &= !entry.isContainerNode();
                 }
-
-                // also confirm the list only contains primitive values, otherwise
-                // due to list entries not being named, its not possible to align
-                // content.
-                for (final JsonNode grandchildNode : childNode) {
-                    if (grandchildNode.isArray() || grandchildNode.isObject()) {
-                        return false;
-                    }
+                if (shape.isValid()) {
+                    location.select(new ArrayList<>(), 1);
                 }
+                topLevelShape.add(false, true, shape.size, flat);
+            } else if (parser.currentToken() == JsonToken.START_OBJECT) {
+                // Top level node is not an array, go searching
+                final int fields = lookForChildArrays(parser, new ArrayList<>(), 0, location);
+                topLevelShape.add(true, false, fields, false);
+            } else {
+                topLevelShape.add(false, false, 0, false);
             }
-            return true;
-        } else {
-            // Do nothing
+
+            // Maps newline delimited JSON to valid JSON in the format
+            // {"results": [<ndjson>]}
+            parser.nextToken();
+            if (!isEndOfTopLevelValues(parser, unwrapped)) {
+                do {
+                    topLevelShape.add(MAPPER.readTree(parser));
+                    parser.nextToken();
+                } while (!isEndOfTopLevelValues(parser, unwrapped));
+
+                location.path = null;
+                location.topLevel = topLevelShape.isValid();
+            }
+        } catch (final JsonParseException ex) {
+            // Catch case whre invalid JSON file has been supplied gracefully
+            throw new IOException(WARN_INVALID_JSON);
+        }
+
+        if (location.path == null && !location.topLevel) {
+            throw new IOException(WARN_NO_VALID_LIST);
         }
-        return false;
+        return location;
     }
 
     /**
-     * Private function that navigates the JSON tree looking for all array nodes
-     * that meet the following criteria: 1. List must have 1 or more rows of
-     * data. 2. All rows within the list must contain 'complex' JSON objects.
-     * These objects are characterized with a set of one or more 'field'
-     * key/value pairs contained within braces '{}'. Integers, Strings etc are
-     * not permitted as these do not translate to columns. Function is
-     * responsible for populating the private variables selectedList and
-     * selectedListDepth to highlight the identified best list found within the
-     * JSON structure.
+     * Moves the parser to the start of the first top level value. As with
+     * Jackson's MappingIterator, if the file holds a list, its entries are
+     * read as the top level values.
      *
-     * @param node The node to begin search at.
-     * @param path The path to the given node in the overall JSON structure.
-     * @param depth The depth into the overall JSON structure of the node.
+     * @param parser The parser, positioned before the start of the file.
+     * @return true if the top level values are the entries of a list.
      */
-    private void lookForChildArrays(final JsonNode node, final String path, final int depth) throws IOException {
-        if (node.isArray()) {
-            if (node.size() > 0 && checkAllArrayItemsAreObjects(node)) {
-                // Process node content. IF errors are detected an IOException is
-                // thrown so only successful case needs to be handled. On success
-                // update details of list to use.
-                selectedList = node;
-                selectedListDepth = 1;
-            }
-        } else if (node.size() > 0) {
-            // Top level node is not an array, go searching
-            for (Iterator<Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
-                final Map.Entry<String, JsonNode> entry = it.next();
+    private static boolean startTopLevelValues(final JsonParser parser) throws IOException {
+        final boolean unwrapped = parser.nextToken() == JsonToken.START_ARRAY;
+        if (unwrapped) {
+            parser.nextToken();
+        }
+        return unwrapped;
+    }
 
-                // We are only interested in arrays that contain at least one
-                // ObjectNode entry, an ObjectNode contains one or more fields
-                if (entry.getValue().isArray() && depth < selectedListDepth
-                        && entry.getValue().size() > 0
-                        && checkAllArrayItemsAreObjects(entry.getValue())) {
-
-                    // Passed all checks and is current best candidate list, update
-                    // globals capturing this information.
-                    selectedList = entry.getValue();
-                    selectedListDepth = depth;
-
-                } else if (entry.getValue().isObject() && depth < selectedListDepth) {
-                    // The node is not an array buy is another container, dive into
-                    // it and see if there is any list
-                    lookForChildArrays(entry.getValue(), path + "/" + entry.getKey(), (depth + 1));
-                } else {
-                    // Do nothing
+    private static boolean isEndOfTopLevelValues(final JsonParser parser, final boolean unwrapped) {
+        final JsonToken token = parser.currentToken();
+        return token == null || (unwrapped && token == JsonToken.END_ARRAY);
+    }
+
+    /**
+     * Private function that navigates the fields of a JSON object looking for
+     * valid lists, as described in {@link #findList}. The first valid list
+     * found closest to the root node of the JSON structure is recorded in the
+     * given location.
+     *
+     * @param parser The parser, positioned at the start of the object. On
+     * return it is positioned at the end of the object.
+     * @param path The path to the object in the overall JSON structure.
+     * @param depth The depth into the overall JSON structure of the object.
+     * @param location The location of the best list found so far.
+     * @return the number of fields in the object.
+     */
+    private static int lookForChildArrays(final JsonParser parser, final List<String> path, final int depth, final ListLocation location) throws IOException {
+        int fields = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            fields++;
+            final String name = parser.currentName();
+            final JsonToken token = parser.nextToken();
+
+            // We are only interested in arrays that contain at least one
+            // ObjectNode entry, an ObjectNode contains one or more fields
+            if (token == JsonToken.START_ARRAY && depth < location.depth) {
+                final ListShape shape = new ListShape();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    shape.add(MAPPER.readTree(parser));
                 }
+                if (shape.isValid()) {
+                    // Passed all checks and is current best candidate list,
+                    // record its location.
+                    final List<String> listPath = new ArrayList<>(path);
+                    listPath.add(name);
+                    location.select(listPath, depth);
+                }
+            } else if (token == JsonToken.START_OBJECT && depth < location.depth) {
+                // The node is not an array buy is another container, dive into
+                // it and see if there is any list
+                path.add(name);
+                lookForChildArrays(parser, path, depth + 1, location);
+                path.remove(path.size() - 1);
+            } else {
+                parser.skipChildren();
             }
-        } else {
-            // Do nothing
         }
+        return fields;
     }
 
     /**
@@ -235,43 +265,41 @@ public class JSONImportFileParser extends ImportFileParser {
     }
 
     /**
-     * Private wrapper function designed to create a comprehensive list of
-     * column names within the JSON structure starting at the supplied parent
-     * node. This function requires the list to have already been validated, as
-     * is done by lookForChildArrays, which only identifies valid lists.
+     * Private function designed to create a comprehensive list of column names
+     * for the list at the given location. This function requires the list to
+     * have already been validated, as is done by findList, which only
+     * identifies valid lists.
      *
-     * @param parent The parent node to start column name extraction from.
-     * @param existingColumns List of already identified columns. This list is
-     * added to if new column names are identified. If null, then the list is
-     * created, this would be the case upon the first call.
-     * @param prefix Path prefix, this is used to help build up a fully
-     * qualified column name relative to the list origin.
-     * @return Updated list of known column headers.
+     * @param input Input file
+     * @param location The location of the list.
+     * @return The list of column headers.
      */
-    private ArrayList<String> extractAllColNames(final JsonNode parent, ArrayList<String> existingColumns, final String prefix) {
-        // Ensure existingColumns is created if it wasn't already.
-        if (existingColumns == null) {
-            existingColumns = new ArrayList<>();
-        }
-
-        // Check the first entry in the collection which will either be a list or
-        // and object. All collection members will be of the same type due to
-        // earlier validation.
-        if (parent.get(0) != null && parent.get(0).isArray()) {
-            // This is a list of lists (rows).
-            // Treat first list as column headers.
-            for (final JsonNode listNode : parent.get(0)) {
-                // In future there may be an option to select if first row is
-                // column names or actual data, for now use it as column
-                // headings.
-                existingColumns.add(listNode.toString());
-            }
-        } else {
-            // The list is a list of complex objects, extract unique names from
-            // each of these.
-            for (final JsonNode node : parent) {
-                extractColNamesFromFields(node, existingColumns, prefix);
+    private ArrayList<String> extractAllColNames(final InputSource input, final ListLocation location) throws IOException {
+        final ArrayList<String> existingColumns = new ArrayList<>();
+
+        try (final ListReader reader = new ListReader(input, location)) {
+            // Check the first entry in the collection which will either be a
+            // list or and object. All collection members will be of the same
+            // type due to earlier validation.
+            final JsonNode first = reader.next();
+            if (first != null && first.isArray()) {
+                // This is a list of lists (rows).
+                // Treat first list as column headers.
+                for (final JsonNode listNode : first) {
+                    // In future there may be an option to select if first row
+                    // is column names or actual data, for now use it as
+                    // column headings.
+                    existingColumns.add(listNode.toString());
+                }
+            } else {
+                // The list is a list of complex objects, extract unique names
+                // from each of these.
+                for (JsonNode node = first; node != null; node = reader.next()) {
+                    extractColNamesFromFields(node, existingColumns, "");
+                }
             }
+        } catch (final JsonParseException ex) {
+            throw new IOException(WARN_INVALID_JSON);
         }
         return existingColumns;
     }
@@ -333,13 +361,13 @@ public class JSONImportFileParser extends ImportFileParser {
     }
 
     /**
-     * Top level processing function. This function is called by both the
-     * overloaded base class functions parse and preview to avoid code
-     * duplication. This function uses the other private functions found in this
-     * class to do the following: 1. identify the best available list within the
-     * overall JSON file to use 2. for the identified list, recursively build up
-     * a list of candidate columns 3. loop through each list entry and extract
-     * values into a list of data to return.
+     * Opens the JSON file and returns a RowReader over the best list within
+     * it. The file is read three times: 1. identify the best available list
+     * within the overall JSON file to use 2. for the identified list,
+     * recursively build up a list of candidate columns 3. read each list entry
+     * as a row is requested and extract its values. Only one list entry is
+     * held in memory at a time, so large files can be imported without
+     * reading the whole JSON tree.
      *
      * Key Considerations: Refer to the following sample JSON example to
      * demonstrate key processing considerations.
@@ -376,89 +404,53 @@ public class JSONImportFileParser extends ImportFileParser {
      * case with individual rows have incomplete or differing fields.
      *
      * @param input Input file
-     * @param limit How many rows to return
-     * @return a List of String arrays, each of which represents a row in the
-     * resulting table.
+     * @param parameters the parameters that configure the parse operation.
+     * @return a RowReader whose first row is the column headings.
+     * @throws IOException if the file is not valid JSON or no valid list was
+     * found.
      */
-    private List<String[]> getResults(final InputSource input, final int limit) throws IOException {
-        try {
-            final ArrayList<String[]> results = new ArrayList<>();
-            ObjectMapper mapper = new ObjectMapper();
-            InputStream in = input.getInputStream();
-
-            // Get root node and try to find a valid candidate list. If no list
-            // is found there will be no data to import.
-            selectedList = null;
-            selectedListDepth = NO_LIST_LEVEL;
-            final JsonNode root;
-            final ArrayNode childNode = mapper.createArrayNode();
-            JsonNode node = null;
-            int counter = 0;
-
-            // read in all JSON object from input
-            final MappingIterator<JsonNode> it = mapper.readerFor(JsonNode.class)
-                    .readValues(in);
-            while (it.hasNextValue()) {
-                node = it.nextValue();
-                childNode.add(node);
-                counter++;
-            }
-            // Maps newline delimited JSON to valid JSON in the format
-            // {"results": [<ndjson>]}
-            switch(counter){
-                case 0 -> throw new IOException(WARN_NO_VALID_LIST);
-                case 1 -> root = node;
-                default -> {
-                    // Changes the ndJSON to valid JSON
-                    final ObjectMapper newJSON = new ObjectMapper();
-                    final ObjectNode rootNode = newJSON.createObjectNode();
-                    rootNode.set("results", childNode);
-                    root = rootNode;
-                }
-            }
-            lookForChildArrays(root, "", 0);
-
-            if (selectedList != null) {
-
-                // A valid list is found, extract its fully qualified column
-                // names and store them in a dictionary mapping them to column
-                // number.
-                ArrayList<String> columns = extractAllColNames(selectedList, null, "");
-                Map<String, Integer> columnMap = new HashMap<>();
-                columns.forEach(column -> columnMap.put(column, columnMap.size()));
-
-                // Add a heading row to the return data
-                String[] headings = new String[columns.size()];
-                headings = columns.toArray(headings);
-                results.add(headings);
-
-                // Now process all records and add them to the return data based
-                // on column indexes
-                for (final JsonNode listNode : selectedList) {
-                    if (listNode.isObject() || listNode != selectedList.get(0)) {
-
-                        // If we are dealing with a list of lists, the first row is used
-                        // as column headings, so skip over it.
-                        String[] line = getLineContent(listNode, columnMap, "", null);
-                        results.add(line);
-
-                        if (results.size() > limit && limit > 0) {
-                            break;
-                        }
+    @Override
+    public RowReader open(final InputSource input, final PluginParameters parameters) throws IOException {
+        final InputSource source = input.getRepeatableSource();
+        final ListLocation location = findList(source);
+
+        // A valid list is found, extract its fully qualified column names and
+        // store them in a dictionary mapping them to column number.
+        final ArrayList<String> columns = extractAllColNames(source, location);
+        final Map<String, Integer> columnMap = new HashMap<>();
+        columns.forEach(column -> columnMap.put(column, columnMap.size()));
+
+        final ListReader reader = new ListReader(source, location);
+        return new RowReader() {
+            private boolean headings = true;
+
+            @Override
+            public String[] readRow() throws IOException {
+                if (headings) {
+                    // Add a heading row to the return data. If we are dealing
+                    // with a list of lists, the first row is used as column
+                    // headings, so skip over it.
+                    headings = false;
+                    final JsonNode first = reader.next();
+                    if (first != null && first.isObject()) {
+                        reader.pushBack(first);
                     }
+                    return columns.toArray(new String[columns.size()]);
+                }
+
+                try {
+                    final JsonNode listNode = reader.next();
+                    return listNode == null ? null : getLineContent(listNode, columnMap, "", null);
+                } catch (final JsonParseException ex) {
+                    throw new IOException(WARN_INVALID_JSON);
                 }
-            } else {
-                throw new IOException(WARN_NO_VALID_LIST);
             }
-            return results;
-        } catch (final JsonParseException ex) {
-            // Catch case whre invalid JSON file has been supplied gracefully
-            throw new IOException(WARN_INVALID_JSON);
-        } catch (final Exception ex) {
-            // Catch case whre invalid file content has been supplied gracefully (IOException)
-            // along with any unexpected exceptions
-            throw ex;
-        }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
     }
 
     /**
@@ -473,7 +465,9 @@ public class JSONImportFileParser extends ImportFileParser {
      */
     @Override
     public List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException {
-        return getResults(input, 0);
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(Integer.MAX_VALUE);
+        }
     }
 
     /**
@@ -489,7 +483,10 @@ public class JSONImportFileParser extends ImportFileParser {
      */
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
-        return getResults(input, limit);
+        // The heading row is not counted against the limit.
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(limit > 0 && limit < Integer.MAX_VALUE ? limit + 1 : Integer.MAX_VALUE);
+        }
     }
 
     /**
@@ -512,4 +509,151 @@ public class JSONImportFileParser extends ImportFileParser {
             }
         };
     }
+
+    /**
+     * The location of the list to extract values from. Refer to header
+     * comments for logic in selecting list.
+     */
+    private static final class ListLocation {
+
+        // The field names leading to the list from the root node, or null if
+        // no list was found.
+        private List<String> path = null;
+        // Depth of the list in JSON structure, used in determining best placed
+        // list.
+        private int depth = NO_LIST_LEVEL;
+        // True if the list is the sequence of top level values of a newline
+        // delimited JSON file.
+        private boolean topLevel = false;
+
+        private void select(final List<String> path, final int depth) {
+            this.path = path;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Checks the entries of a candidate list one at a time. A list is valid if
+     * it is not empty and all of its entries are Objects (i.e. isObject()
+     * returns true) with at least one field, or all of its entries are equal
+     * sized, non empty lists containing basic data types only. This ensures
+     * all entries are built up of values which map well to column headings.
+     */
+    private static final class ListShape {
+
+        private int size = 0;
+        private boolean valid = true;
+        private boolean objects;
+        private int firstSize;
+
+        private void add(final JsonNode entry) {
+            boolean flat = true;
+            for (final JsonNode child : entry) {
+                flat &= !child.isContainerNode();
+            }
+            add(entry.isObject(), entry.isArray(), entry.size(), entry.isArray() && flat);
+        }
+
+        /**
+         * Adds an entry to the list.
+         *
+         * @param isObject true if the entry is an Object.
+         * @param isArray true if the entry is a list.
+         * @param entrySize the number of fields or values in the entry.
+         * @param flat true if the entry is a list with no nested lists or
+         * objects.
+         */
+        private void add(final boolean isObject, final boolean isArray, final int entrySize, final boolean flat) {
+            if (size++ == 0) {
+                // Get the first child of the list and ensure all children are
+                // same type. We only want a list of lists or a list of objects.
+                objects = isObject;
+                firstSize = entrySize;
+                valid = isObject || isArray;
+            }
+
+            if (objects) {
+                valid &= isObject && entrySize > 0;
+            } else {
+                // Also confirm the list only contains primitive values,
+                // otherwise due to list entries not being named, its not
+                // possible to align content.
+                valid &= isArray && entrySize == firstSize && firstSize > 0 && flat;
+            }
+        }
+
+        private boolean isValid() {
+            return size > 0 && valid;
+        }
+    }
+
+    /**
+     * Reads the entries of the list at a given location one at a time.
+     */
+    private static final class ListReader implements Closeable {
+
+        private final JsonParser parser;
+        private final boolean unwrapped;
+        private final boolean topLevel;
+        private boolean started = false;
+        private boolean finished = false;
+        private JsonNode pushedBack = null;
+
+        private ListReader(final InputSource input, final ListLocation location) throws IOException {
+            parser = MAPPER.getFactory().createParser(input.getInputStream());
+            unwrapped = startTopLevelValues(parser);
+            topLevel = location.topLevel;
+            if (!topLevel) {
+                for (final String name : location.path) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME && !name.equals(parser.currentName())) {
+                        parser.nextToken();
+                        parser.skipChildren();
+                    }
+                    parser.nextToken();
+                }
+
+                if (parser.currentToken() != JsonToken.START_ARRAY) {
+                    parser.close();
+                    throw new IOException(WARN_NO_VALID_LIST);
+                }
+            }
+        }
+
+        /**
+         * Reads the next entry of the list.
+         *
+         * @return the next entry of the list, or null if there are no more.
+         * @throws IOException if an error occurred while reading the file.
+         */
+        private JsonNode next() throws IOException {
+            if (pushedBack != null) {
+                final JsonNode entry = pushedBack;
+                pushedBack = null;
+                return entry;
+            }
+
+            if (!finished) {
+                if (topLevel) {
+                    // The parser already starts at the first top level value.
+                    if (started) {
+                        parser.nextToken();
+                    }
+                    started = true;
+                    finished = isEndOfTopLevelValues(parser, unwrapped);
+                } else {
+                    finished = parser.nextToken() == JsonToken.END_ARRAY;
+                }
+            }
+            return finished ? null : MAPPER.readTree(parser);
+        }
+
+        private void pushBack(final JsonNode entry) {
+            pushedBack = entry;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
 }
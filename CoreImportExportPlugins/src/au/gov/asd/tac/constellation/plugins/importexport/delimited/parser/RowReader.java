@@ -0,0 +1,80 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A RowReader returns the rows of a table one at a time, allowing a file to be
+ * imported without holding the whole table in memory.
+ * <p>
+ * A RowReader is not thread safe and should be read by a single thread.
+ *
+ * @author algol
+ */
+public interface RowReader extends Closeable {
+
+    /**
+     * Reads the next row of the table.
+     *
+     * @return the next row of the table, or null if there are no more rows.
+     * @throws IOException if an error occurred while reading the file.
+     */
+    String[] readRow() throws IOException;
+
+    /**
+     * Reads up to {@code limit} rows of the table.
+     *
+     * @param limit the maximum number of rows to read.
+     * @return the rows that were read; this will be empty if there are no more
+     * rows.
+     * @throws IOException if an error occurred while reading the file.
+     */
+    default List<String[]> readRows(final int limit) throws IOException {
+        final List<String[]> rows = new ArrayList<>(Math.min(limit, 1024));
+        String[] row;
+        while (rows.size() < limit && (row = readRow()) != null) {
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Returns a RowReader over rows that have already been read into memory.
+     *
+     * @param rows the rows.
+     * @return a RowReader over the rows.
+     */
+    static RowReader of(final List<String[]> rows) {
+        final Iterator<String[]> iterator = rows.iterator();
+        return new RowReader() {
+            @Override
+            public String[] readRow() {
+                return iterator.hasNext() ? iterator.next() : null;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close
+            }
+        };
+    }
+}
@@ -21,10 +21,8 @@ import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 import javax.swing.filechooser.FileFilter;
 import org.apache.commons.lang3.StringUtils;
@@ -45,36 +43,34 @@ public class TSVImportFileParser extends ImportFileParser {
 
     @Override
     public List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException {
-        final List<String[]> result = new ArrayList<>();
-        try ( InputStream in = input.getInputStream()) {
-            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.name()));
-
-            String line = reader.readLine();
-            while (line != null) {
-                result.add(line.split(SeparatorConstants.TAB, -1));
-                line = reader.readLine();
-            }
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(Integer.MAX_VALUE);
         }
-
-        return result;
     }
 
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
-        final List<String[]> result = new ArrayList<>();
-        try ( InputStream in = input.getInputStream()) {
-            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8.name()));
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(limit);
+        }
+    }
+
+    @Override
+    public RowReader open(final InputSource input, final PluginParameters parameters) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input.getInputStream(), StandardCharsets.UTF_8.name()));
 
-            int currentRow = 0;
-            String line = reader.readLine();
-            while ((line != null) && (currentRow < limit)) {
-                result.add(line.split(SeparatorConstants.TAB, -1));
-                line = reader.readLine();
-                currentRow++;
+        return new RowReader() {
+            @Override
+            public String[] readRow() throws IOException {
+                final String line = reader.readLine();
+                return line == null ? null : line.split(SeparatorConstants.TAB, -1);
             }
-        }
 
-        return result;
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
     }
 
     /**
@@ -18,6 +18,7 @@ package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
 import au.gov.asd.tac.constellation.utilities.xml.XmlUtilities;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,16 +29,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 import javax.swing.filechooser.FileFilter;
-import javax.xml.transform.TransformerException;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.commons.lang3.StringUtils;
 import org.openide.util.lookup.ServiceProvider;
-import org.w3c.dom.Attr;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
 /**
  * A XMLImportFileParser implements an ImportFileParser that can parse XML
@@ -52,43 +50,73 @@ import org.w3c.dom.Text;
  * <p>
  * Once a row tag has been determined, each tag that descends from the row tag,
  * and each attribute of those tags are assumed to be columns.
+ * <p>
+ * The file is streamed three times: once to count the tags, once to find the
+ * columns of every row, and once to read the rows themselves. Only one row is
+ * held in memory at a time.
  *
  * @author sirius
  */
 @ServiceProvider(service = ImportFileParser.class)
 public class XMLImportFileParser extends ImportFileParser {
 
+    private static final String ERROR_READING = "Error reading XML file";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
     public XMLImportFileParser() {
         super("XML", 3);
     }
 
     @Override
     public List<String[]> parse(final InputSource input, final PluginParameters parameters) throws IOException {
-
-        try ( InputStream in = input.getInputStream()) {
-            final XmlUtilities xml = new XmlUtilities();
-            final Document document = xml.read(in, true);
-            final Element documentElement = document.getDocumentElement();
-
-            final Map<List<String>, Counter> counts = new HashMap<>();
-            final List<String> path = new ArrayList<>();
-            path.add(documentElement.getTagName());
-            exploreElement(documentElement, path, counts);
-
-            final List<String> bestTag = findRowElement(counts);
-            final Map<List<String>, List<String>> globalKeys = new HashMap<>();
-            final List<Map<List<String>, String>> table = new ArrayList<>();
-            findRowElements(documentElement, path, bestTag, globalKeys, table);
-
-            return createResult(globalKeys, table);
-        } catch (TransformerException ex) {
-            throw new IOException("Error reading XML file", ex);
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(Integer.MAX_VALUE);
         }
     }
 
     @Override
     public List<String[]> preview(final InputSource input, final PluginParameters parameters, final int limit) throws IOException {
-        return parse(input, parameters);
+        try (final RowReader reader = open(input, parameters)) {
+            return reader.readRows(limit);
+        }
+    }
+
+    @Override
+    public RowReader open(final InputSource input, final PluginParameters parameters) throws IOException {
+        final InputSource source = input.getRepeatableSource();
+        final List<String> bestTag = findRowElement(countElements(source));
+
+        // Every row has to be seen before the columns, and so the heading row,
+        // are known.
+        final Map<List<String>, List<String>> globalKeys = new HashMap<>();
+        try (final RowElementReader reader = new RowElementReader(source, bestTag)) {
+            while (reader.next(globalKeys) != null) {
+                // Only the keys are needed from this pass
+            }
+        }
+        final Map<String, List<String>> columns = createColumns(globalKeys);
+
+        final RowElementReader reader = new RowElementReader(source, bestTag);
+        return new RowReader() {
+            private boolean headings = true;
+
+            @Override
+            public String[] readRow() throws IOException {
+                if (headings) {
+                    headings = false;
+                    return columns.keySet().toArray(new String[columns.size()]);
+                }
+
+                final Map<List<String>, String> rowValues = reader.next(globalKeys);
+                return rowValues == null ? null : createRow(columns, rowValues);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
     }
 
     /**
@@ -112,58 +140,58 @@ public class XMLImportFileParser extends ImportFileParser {
         };
     }
 
-    private void exploreElement(final Element element, final List<String> path, final Map<List<String>, Counter> counts) {
-
-        final Counter counter = counts.get(path);
-        if (counter == null) {
-            counts.put(new ArrayList<>(path), new Counter());
-        } else {
-            counter.count++;
-        }
-
-        NodeList childNodeList = element.getChildNodes();
-        for (int childIndex = 0; childIndex < childNodeList.getLength(); childIndex++) {
-            final Node childNode = childNodeList.item(childIndex);
-            if (childNode instanceof Element childElement) {
-                path.add(childElement.getTagName());
-                exploreElement(childElement, path, counts);
-                path.remove(path.size() - 1);
-            }
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try {
+            // Some implementations wont support this setting
+            factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        } catch (final IllegalArgumentException ex) {
+            // Do nothing - Some implementations wont support above setting
         }
+        return factory;
     }
 
-    private void findRowElements(final Element element, final List<String> currentPath, final List<String> elementPath,
-            final Map<List<String>, List<String>> globalKeys, final List<Map<List<String>, String>> table) {
-        if (currentPath.equals(elementPath)) {
-            final Map<List<String>, String> rowValues = new HashMap<>();
-            table.add(rowValues);
+    private static String getQualifiedName(final String prefix, final String localName) {
+        return StringUtils.isEmpty(prefix) ? localName : prefix + ":" + localName;
+    }
 
-            final List<String> rowPath = new ArrayList<>();
-            final NodeList childNodeList = element.getChildNodes();
-            for (int childIndex = 0; childIndex < childNodeList.getLength(); childIndex++) {
-                final Node childNode = childNodeList.item(childIndex);
-                if (childNode instanceof Element childElement) {
-                    rowPath.add(childElement.getTagName());
-                    processRowElement(childElement, rowPath, rowValues, globalKeys);
-                    rowPath.remove(rowPath.size() - 1);
+    private static Map<List<String>, Counter> countElements(final InputSource input) throws IOException {
+        final Map<List<String>, Counter> counts = new HashMap<>();
+        final List<String> path = new ArrayList<>();
+
+        try (final InputStream in = input.getInputStream()) {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(XmlUtilities.filterControlCharacters(in));
+            try {
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            path.add(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+                            final Counter counter = counts.get(path);
+                            if (counter == null) {
+                                counts.put(new ArrayList<>(path), new Counter());
+                            } else {
+                                counter.count++;
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> path.remove(path.size() - 1);
+                        default -> {
+                            // Do nothing
+                        }
+                    }
                 }
+            } finally {
+                reader.close();
             }
-        } else {
-            final NodeList childNodeList = element.getChildNodes();
-            for (int childIndex = 0; childIndex < childNodeList.getLength(); childIndex++) {
-                final Node childNode = childNodeList.item(childIndex);
-                if (childNode instanceof Element childElement) {
-                    currentPath.add(childElement.getTagName());
-                    findRowElements(childElement, currentPath, elementPath, globalKeys, table);
-                    currentPath.remove(currentPath.size() - 1);
-                }
-            }
-
+        } catch (final XMLStreamException ex) {
+            throw new IOException(ERROR_READING, ex);
         }
+
+        return counts;
     }
 
-    private void processRowElement(final Element element, final List<String> rowPath,
-            final Map<List<String>, String> rowValues, final Map<List<String>, List<String>> globalKeys) {
+    private static void processRowElement(final XMLStreamReader reader, final List<String> rowPath,
+            final Map<List<String>, String> rowValues, final Map<List<String>, List<String>> globalKeys) throws XMLStreamException {
         List<String> globalKey = createGlobalKey(rowPath, globalKeys);
         if (rowValues.containsKey(globalKey)) {
             final String lastElement = rowPath.remove(rowPath.size() - 1);
@@ -179,17 +207,29 @@ public class XMLImportFileParser extends ImportFileParser {
             }
         }
 
+        // The attributes are only known at the start of the element, but are
+        // added after its content, as they would be from a document.
+        final Map<String, String> attributes = new HashMap<>();
+        for (int namespaceIndex = 0; namespaceIndex < reader.getNamespaceCount(); namespaceIndex++) {
+            final String prefix = reader.getNamespacePrefix(namespaceIndex);
+            final String name = StringUtils.isEmpty(prefix) ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+            attributes.put(name, reader.getNamespaceURI(namespaceIndex));
+        }
+        for (int attributeIndex = 0; attributeIndex < reader.getAttributeCount(); attributeIndex++) {
+            attributes.put(getQualifiedName(reader.getAttributePrefix(attributeIndex), reader.getAttributeLocalName(attributeIndex)), reader.getAttributeValue(attributeIndex));
+        }
+
         final StringBuilder text = new StringBuilder();
-        final NodeList childNodeList = element.getChildNodes();
-        for (int childIndex = 0; childIndex < childNodeList.getLength(); childIndex++) {
-            final Node childNode = childNodeList.item(childIndex);
-            switch (childNode) {
-                case Element childElement -> {
-                    rowPath.add(childElement.getTagName());
-                    processRowElement(childElement, rowPath, rowValues, globalKeys);
+        int event;
+        while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    rowPath.add(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+                    processRowElement(reader, rowPath, rowValues, globalKeys);
                     rowPath.remove(rowPath.size() - 1);
                 }
-                case Text textNode -> text.append(textNode.getNodeValue());
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                    text.append(reader.getText());
                 default -> {
                     // Do nothing
                 }
@@ -200,17 +240,13 @@ public class XMLImportFileParser extends ImportFileParser {
             rowValues.put(globalKey, text.toString());
         }
 
-        final NamedNodeMap attributeMap = element.getAttributes();
-        if (attributeMap.getLength() > 0) {
+        if (!attributes.isEmpty()) {
             final List<String> attributeKey = new ArrayList<>(globalKey);
-            for (int attributeIndex = 0; attributeIndex < attributeMap.getLength(); attributeIndex++) {
-                final Node attributeNode = attributeMap.item(attributeIndex);
-                if (attributeNode instanceof Attr attribute) {
-                    attributeKey.add("[" + attribute.getName() + "]");
-                    final List<String> globalAttributeKey = createGlobalKey(attributeKey, globalKeys);
-                    attributeKey.remove(attributeKey.size() - 1);
-                    rowValues.put(globalAttributeKey, attribute.getValue());
-                }
+            for (final Entry<String, String> attribute : attributes.entrySet()) {
+                attributeKey.add("[" + attribute.getKey() + "]");
+                final List<String> globalAttributeKey = createGlobalKey(attributeKey, globalKeys);
+                attributeKey.remove(attributeKey.size() - 1);
+                rowValues.put(globalAttributeKey, attribute.getValue());
             }
         }
     }
@@ -252,7 +288,7 @@ public class XMLImportFileParser extends ImportFileParser {
         return bestTag;
     }
 
-    private static List<String[]> createResult(final Map<List<String>, List<String>> globalKeys, final List<Map<List<String>, String>> table) {
+    private static Map<String, List<String>> createColumns(final Map<List<String>, List<String>> globalKeys) {
         final Map<String, List<String>> columns = new TreeMap<>();
 
         for (final List<String> path : globalKeys.keySet()) {
@@ -267,25 +303,105 @@ public class XMLImportFileParser extends ImportFileParser {
             columns.put(pathBuilder.toString(), path);
         }
 
-        final List<String[]> result = new ArrayList<>();
-        result.add(columns.keySet().toArray(new String[columns.size()]));
+        return columns;
+    }
+
+    private static String[] createRow(final Map<String, List<String>> columns, final Map<List<String>, String> rowValues) {
+        final String[] row = new String[columns.size()];
 
-        for (final Map<List<String>, String> rowValues : table) {
-            final String[] row = new String[columns.size()];
-            result.add(row);
+        int columnIndex = 0;
+
+        for (final List<String> path : columns.values()) {
+            final String value = rowValues.get(path);
+            row[columnIndex++] = value;
+        }
 
-            int columnIndex = 0;
+        return row;
+    }
 
-            for (final List<String> path : columns.values()) {
-                final String value = rowValues.get(path);
-                row[columnIndex++] = value;
+    /**
+     * Reads the row elements of an XML file one at a time.
+     */
+    private static final class RowElementReader implements Closeable {
+
+        private final InputStream in;
+        private final XMLStreamReader reader;
+        private final List<String> rowTag;
+        private final List<String> path = new ArrayList<>();
+
+        private RowElementReader(final InputSource input, final List<String> rowTag) throws IOException {
+            this.in = input.getInputStream();
+            this.rowTag = rowTag;
+            try {
+                reader = XML_INPUT_FACTORY.createXMLStreamReader(XmlUtilities.filterControlCharacters(in));
+            } catch (final XMLStreamException ex) {
+                in.close();
+                throw new IOException(ERROR_READING, ex);
             }
         }
 
-        return result;
+        /**
+         * Reads the values of the next row element.
+         *
+         * @param globalKeys the keys of the values found so far, shared
+         * between rows.
+         * @return the values of the next row element, or null if there are no
+         * more rows.
+         * @throws IOException if an error occurred while reading the file.
+         */
+        private Map<List<String>, String> next(final Map<List<String>, List<String>> globalKeys) throws IOException {
+            try {
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            path.add(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+                            if (path.equals(rowTag)) {
+                                final Map<List<String>, String> rowValues = readRowElement(globalKeys);
+                                path.remove(path.size() - 1);
+                                return rowValues;
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> path.remove(path.size() - 1);
+                        default -> {
+                            // Do nothing
+                        }
+                    }
+                }
+                return null;
+            } catch (final XMLStreamException ex) {
+                throw new IOException(ERROR_READING, ex);
+            }
+        }
+
+        private Map<List<String>, String> readRowElement(final Map<List<String>, List<String>> globalKeys) throws XMLStreamException {
+            final Map<List<String>, String> rowValues = new HashMap<>();
+            final List<String> rowPath = new ArrayList<>();
+
+            int event;
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    rowPath.add(getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+                    processRowElement(reader, rowPath, rowValues, globalKeys);
+                    rowPath.remove(rowPath.size() - 1);
+                }
+            }
+
+            return rowValues;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.close();
+            } catch (final XMLStreamException ex) {
+                throw new IOException(ERROR_READING, ex);
+            } finally {
+                in.close();
+            }
+        }
     }
 
-    private class Counter {
+    private static class Counter {
 
         private int count = 1;
 
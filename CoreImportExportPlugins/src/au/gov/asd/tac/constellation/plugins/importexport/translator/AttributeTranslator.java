@@ -187,6 +187,19 @@ public abstract class AttributeTranslator implements Comparable<AttributeTransla
      */
     public abstract String translate(final String value, final PluginParameters parameters);
 
+    /**
+     * Returns true if {@link #translate(String, PluginParameters)} can be
+     * called from multiple threads at once. The default implementation returns
+     * true. Subclasses that keep state between calls should override this
+     * method to return false.
+     *
+     * @return true if this AttributeTranslator can translate values
+     * concurrently.
+     */
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     /**
      * Gets the current values of this AttributeTranslator's parameters as a
      * String.
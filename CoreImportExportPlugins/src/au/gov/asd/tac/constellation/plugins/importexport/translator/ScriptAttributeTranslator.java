@@ -122,6 +122,17 @@ public class ScriptAttributeTranslator extends AttributeTranslator {
         }
     }
 
+    /**
+     * The compiled script and its bindings are shared between calls to
+     * translate, so values can't be translated concurrently.
+     *
+     * @return false.
+     */
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     @Override
     public String getParameterValues(final PluginParameters parameters) {
         final String script = parameters.getParameters().get(SCRIPT_PARAMETER_ID).getStringValue();
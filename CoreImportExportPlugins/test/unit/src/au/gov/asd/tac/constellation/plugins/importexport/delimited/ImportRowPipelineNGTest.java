@@ -0,0 +1,127 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.plugins.importexport.delimited;
+
+import au.gov.asd.tac.constellation.plugins.importexport.delimited.parser.RowReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Test class for ImportRowPipeline.
+ *
+ * @author algol
+ */
+public class ImportRowPipelineNGTest {
+
+    /**
+     * A RowReader that generates numbered rows and can fail after a given
+     * number of rows.
+     */
+    private static class CountingRowReader implements RowReader {
+
+        private final int rowCount;
+        private final int failAt;
+        private int row = 0;
+        private volatile boolean closed = false;
+
+        CountingRowReader(final int rowCount, final int failAt) {
+            this.rowCount = rowCount;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public String[] readRow() throws IOException {
+            if (row == failAt) {
+                throw new IOException("Failed at row " + row);
+            }
+            return row < rowCount ? new String[]{Integer.toString(row++)} : null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static List<Integer> translate(final int firstRow, final List<String[]> rows) {
+        final List<Integer> translated = new ArrayList<>();
+        for (int r = 0; r < rows.size(); r++) {
+            assertEquals(Integer.parseInt(rows.get(r)[0]), firstRow + r);
+            translated.add(firstRow + r);
+        }
+        return translated;
+    }
+
+    /**
+     * Test that take returns every row in order when batches are translated
+     * concurrently.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTakeInOrder() throws Exception {
+        System.out.println("testTakeInOrder");
+
+        final CountingRowReader reader = new CountingRowReader(10_000, -1);
+        int expected = 0;
+        try (final ImportRowPipeline<List<Integer>> pipeline = new ImportRowPipeline<>(reader, ImportRowPipelineNGTest::translate, 4, 100)) {
+            List<Integer> batch;
+            while ((batch = pipeline.take()) != null) {
+                assertTrue(batch.size() <= 100);
+                for (final int row : batch) {
+                    assertEquals(row, expected++);
+                }
+            }
+            assertNull(pipeline.take());
+        }
+
+        assertEquals(expected, 10_000);
+        assertTrue(reader.closed);
+    }
+
+    /**
+     * Test that an error reading the file is thrown by take after the rows
+     * before it have been returned.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTakeReadError() throws Exception {
+        System.out.println("testTakeReadError");
+
+        final CountingRowReader reader = new CountingRowReader(10_000, 250);
+        int rows = 0;
+        try (final ImportRowPipeline<List<Integer>> pipeline = new ImportRowPipeline<>(reader, ImportRowPipelineNGTest::translate, 2, 100)) {
+            try {
+                List<Integer> batch;
+                while ((batch = pipeline.take()) != null) {
+                    rows += batch.size();
+                }
+                throw new AssertionError("Expected an IOException");
+            } catch (final IOException ex) {
+                assertEquals(ex.getMessage(), "Failed at row 250");
+            }
+            assertNull(pipeline.take());
+        }
+
+        assertEquals(rows, 200);
+    }
+}
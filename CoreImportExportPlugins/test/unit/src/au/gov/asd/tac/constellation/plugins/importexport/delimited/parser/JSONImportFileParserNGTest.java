@@ -16,13 +16,17 @@
 package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
 
 import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.List;
 import javax.swing.filechooser.FileFilter;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -94,4 +98,35 @@ public class JSONImportFileParserNGTest {
         Files.deleteIfExists(file1.toPath());
         Files.deleteIfExists(file3.toPath());
     }
+
+    /**
+     * Test of open method, of class JSONImportFileParser. The RowReader should
+     * return the column headings followed by the rows of the shallowest valid
+     * list, and parse should return the same rows whether the source is a file
+     * or an input stream.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testOpen() throws IOException {
+        System.out.println("testOpen");
+
+        final String data = "{\"meta\": {\"version\": 1}, \"rows\": [{\"a\": 1, \"b\": {\"c\": \"x\"}}, {\"a\": 2, \"d\": true}]}";
+        final File file = File.createTempFile("fileOpen", FileExtensionConstants.JSON);
+        Files.writeString(file.toPath(), data);
+
+        final JSONImportFileParser instance = new JSONImportFileParser();
+        try (final RowReader reader = instance.open(new InputSource(file), null)) {
+            assertEquals(reader.readRow(), new String[]{"a", "b.c", "d"});
+            assertEquals(reader.readRow(), new String[]{"1", "x", null});
+            assertEquals(reader.readRow(), new String[]{"2", null, "true"});
+            assertNull(reader.readRow());
+        }
+
+        final List<String[]> rows = instance.parse(new InputSource(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8))), null);
+        assertEquals(rows.size(), 3);
+        assertEquals(rows.get(2), new String[]{"2", null, "true"});
+
+        Files.deleteIfExists(file.toPath());
+    }
 }
@@ -16,13 +16,17 @@
 package au.gov.asd.tac.constellation.plugins.importexport.delimited.parser;
 
 import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.List;
 import javax.swing.filechooser.FileFilter;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -94,4 +98,35 @@ public class XMLImportFileParserNGTest {
         Files.deleteIfExists(file1.toPath());
         Files.deleteIfExists(file3.toPath());
     }
+
+    /**
+     * Test of open method, of class XMLImportFileParser. The RowReader should
+     * return the column headings followed by each row element, and parse
+     * should return the same rows whether the source is a file or an input
+     * stream.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testOpen() throws IOException {
+        System.out.println("testOpen");
+
+        final String data = "<root><row><a>1</a><b k=\"v\">x</b></row><row><a>2</a></row></root>";
+        final File file = File.createTempFile("fileOpen", FileExtensionConstants.XML);
+        Files.writeString(file.toPath(), data);
+
+        final XMLImportFileParser instance = new XMLImportFileParser();
+        try (final RowReader reader = instance.open(new InputSource(file), null)) {
+            assertEquals(reader.readRow(), new String[]{"a", "b", "b/[k]"});
+            assertEquals(reader.readRow(), new String[]{"1", "x", "v"});
+            assertEquals(reader.readRow(), new String[]{"2", null, null});
+            assertNull(reader.readRow());
+        }
+
+        final List<String[]> rows = instance.parse(new InputSource(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8))), null);
+        assertEquals(rows.size(), 3);
+        assertEquals(rows.get(2), new String[]{"2", null, null});
+
+        Files.deleteIfExists(file.toPath());
+    }
 }
@@ -22,6 +22,7 @@ import au.gov.asd.tac.constellation.graph.file.GraphObjectUtilities;
 import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
 import au.gov.asd.tac.constellation.graph.file.io.GraphParseException;
 import au.gov.asd.tac.constellation.graph.file.opener.GraphOpener;
+import au.gov.asd.tac.constellation.graph.file.save.AutosaveJournal;
 import au.gov.asd.tac.constellation.graph.file.save.AutosaveUtilities;
 import au.gov.asd.tac.constellation.plugins.PluginException;
 import au.gov.asd.tac.constellation.plugins.PluginExecution;
@@ -117,6 +118,7 @@ public final class VisualGraphOpener extends GraphOpener {
         // Check to see if there is a more recent autosave for this file.
         // If there is, ask the user if they want to open it.
         final Properties props = AutosaveUtilities.getAutosave(f);
+        String autosaveId = null;
         if (props != null) {
             final String dtprop = props.getProperty(AutosaveUtilities.DT);
             if (dtprop != null) {
@@ -131,30 +133,11 @@ public final class VisualGraphOpener extends GraphOpener {
                     final NotifyDescriptor nd = new NotifyDescriptor(msg, "Open autosaved file?", NotifyDescriptor.YES_NO_OPTION, NotifyDescriptor.QUESTION_MESSAGE, null, null);
                     if (DialogDisplayer.getDefault().notify(nd) == NotifyDescriptor.YES_OPTION) {
                         // The user wants the more recent autosaved version.
-                        // Backup the current actual file and replace it with the autosave file.
-                        final File autosaved = new File(AutosaveUtilities.getAutosaveDir(), props.getProperty(AutosaveUtilities.ID) + FileExtensionConstants.STAR);
-                        try {
-                            // make temp copy of any backup file that exists to try if we find both autosave and main file are corrupt
-                            final File toBak = new File(f.getPath() + FileExtensionConstants.BACKUP);
-                            if (toBak.exists()) {
-                                // Make a backup of our backup which is about to be overwrtten by the Autodsave call
-                                final File toBakBak = new File(toBak.getPath() + FileExtensionConstants.BACKUP);
-                                final boolean toRenamed = toBak.renameTo(toBakBak);
-                                if (!toRenamed) {
-                                    LOGGER.log(Level.WARNING, "Unable to backup file: {0}", toBak);
-                                } else {
-                                    AutosaveUtilities.copyFile(autosaved, f);
-                                }
-                            } else {
-                                AutosaveUtilities.copyFile(autosaved, f);
-                            }
-
-                        } catch (final IOException ex) {
-                            LOGGER.log(Level.WARNING, "Copying autosaved file", ex);
-                        }
+                        // Recovering it can take a while, so it is done by the worker before the graph is read.
+                        autosaveId = props.getProperty(AutosaveUtilities.ID);
+                    } else {
+                        AutosaveUtilities.deleteAutosave(props.getProperty(AutosaveUtilities.ID));
                     }
-
-                    AutosaveUtilities.deleteAutosave(props.getProperty(AutosaveUtilities.ID));
                 }
             }
         }
@@ -163,7 +146,7 @@ public final class VisualGraphOpener extends GraphOpener {
         openingGraphs.add(Paths.get(f.getAbsolutePath()));
 
         // The file isn't already open, so open it.
-        new GraphFileOpener(gdo, null, null).execute();
+        new GraphFileOpener(gdo, null, null, autosaveId).execute();
     }
 
     @Override
@@ -193,6 +176,48 @@ public final class VisualGraphOpener extends GraphOpener {
         return new ArrayList<>(openingGraphs);
     }
 
+    /**
+     * Replace a graph file with its autosave, keeping the current file as a
+     * backup, and then remove the autosave.
+     * <p>
+     * The changes journaled since the graph was last autosaved in full are
+     * included if possible. If the journal can't be replayed, the autosave is
+     * recovered as it was last written in full.
+     *
+     * @param f The graph file.
+     * @param autosaveId The id of the autosave to recover.
+     */
+    private static void recoverAutosave(final File f, final String autosaveId) {
+        final File autosaved = new File(AutosaveUtilities.getAutosaveDir(), autosaveId + FileExtensionConstants.STAR);
+        try {
+            // include the changes journaled since the graph was autosaved
+            AutosaveJournal.consolidate(autosaved, new HandleIoProgress("Recovering autosave..."));
+        } catch (final IOException | RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Unable to replay autosave journal, recovering the last full autosave", ex);
+        }
+
+        try {
+            // make temp copy of any backup file that exists to try if we find both autosave and main file are corrupt
+            final File toBak = new File(f.getPath() + FileExtensionConstants.BACKUP);
+            if (toBak.exists()) {
+                // Make a backup of our backup which is about to be overwrtten by the Autodsave call
+                final File toBakBak = new File(toBak.getPath() + FileExtensionConstants.BACKUP);
+                final boolean toRenamed = toBak.renameTo(toBakBak);
+                if (!toRenamed) {
+                    LOGGER.log(Level.WARNING, "Unable to backup file: {0}", toBak);
+                } else {
+                    AutosaveUtilities.copyFile(autosaved, f);
+                }
+            } else {
+                AutosaveUtilities.copyFile(autosaved, f);
+            }
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Copying autosaved file", ex);
+        }
+
+        AutosaveUtilities.deleteAutosave(autosaveId);
+    }
+
     /**
      * A worker that opens the file on a background thread.
      */
@@ -201,6 +226,7 @@ public final class VisualGraphOpener extends GraphOpener {
         private final GraphDataObject gdo;
         private Graph graph;
         private final Runnable doAfter;
+        private final String autosaveId;
         private Exception gex;
         private long time;
 
@@ -211,9 +237,23 @@ public final class VisualGraphOpener extends GraphOpener {
          * @param graph The graph to write into.
          */
         GraphFileOpener(final GraphDataObject gdo, final Graph graph, Runnable doAfter) {
+            this(gdo, graph, doAfter, null);
+        }
+
+        /**
+         * Construct a new GraphFileOpener that first replaces the graph file
+         * with its autosave.
+         *
+         * @param gdo The DataObject containing the graph file.
+         * @param graph The graph to write into.
+         * @param autosaveId The id of the autosave to recover, or null to
+         * open the graph file as it is.
+         */
+        GraphFileOpener(final GraphDataObject gdo, final Graph graph, final Runnable doAfter, final String autosaveId) {
             this.gdo = gdo;
             this.graph = graph;
             this.doAfter = doAfter;
+            this.autosaveId = autosaveId;
         }
 
         @Override
@@ -222,6 +262,10 @@ public final class VisualGraphOpener extends GraphOpener {
             final File backupFile = new File(graphFile.toString().concat(FileExtensionConstants.BACKUP));
             final File backupBackupFile = new File(backupFile.toString().concat(FileExtensionConstants.BACKUP));
 
+            if (graph == null && autosaveId != null) {
+                recoverAutosave(graphFile, autosaveId);
+            }
+
             if (graph == null) {
                 HandleIoProgress ioProgressHandler = new HandleIoProgress(String.format("Reading %s...", graphFile.getName()));
                 try {
@@ -19,6 +19,7 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.file.io.GraphJsonWriter;
+import au.gov.asd.tac.constellation.graph.file.save.AutosaveJournal;
 import au.gov.asd.tac.constellation.graph.file.save.AutosaveUtilities;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
 import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
@@ -40,6 +41,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.Properties;
@@ -53,6 +55,11 @@ import org.openide.util.lookup.ServiceProvider;
  * Autosave a single graph.
  * <p>
  * The caller has to go through the graphs and pass them one by one.
+ * <p>
+ * The whole graph is only written when the graph has changed structurally
+ * since it was last autosaved, or when the journal of value changes made since
+ * then has become large. Otherwise the changes are appended to the journal of
+ * the last autosave; see {@link AutosaveJournal}.
  *
  * @author algol
  */
@@ -74,32 +81,50 @@ public final class AutosaveGraphPlugin extends SimplePlugin {
 
             interaction.setProgress(-1, -1, "Autosaving: " + graphId, true, parameters);
 
-            // We don't want to hold the user up while we're reading from a graph they might be using.
-            // Make a copy of the graph so that we can release the read lock as soon as possible.
-            GraphReadMethods copy;
-            ReadableGraph rg = graph.getReadableGraph();
+            final File saveDir = AutosaveUtilities.getAutosaveDir();
+            final String gname = graph.getId() + FileExtensionConstants.STAR;
+            final File saveFile = new File(saveDir, gname);
+            final File journalFile = AutosaveJournal.getJournalFile(saveFile);
+
             try {
-                copy = rg.copy();
-            } finally {
-                rg.release();
-            }
+                // If only attribute values have changed since the last full autosave, append the changes to its journal.
+                final AutosaveJournal journal = AutosaveJournal.getJournal(graph);
+                if (journal != null && journal.append(saveFile, journalFile)) {
+                    interaction.setProgress(1, 0, "Finished", true);
+                    StatusDisplayer.getDefault().setStatusText(String.format("Auto saved changes to %s at %s", graphId, new Date()));
+                } else {
+                    // The journal belongs to the previous autosave, so it has to go before the autosave is replaced.
+                    Files.deleteIfExists(journalFile.toPath());
 
-            interaction.setProgress(1, 0, "Finished", true);
+                    // We don't want to hold the user up while we're reading from a graph they might be using.
+                    // Make a copy of the graph so that we can release the lock as soon as possible.
+                    final GraphReadMethods copy;
+                    if (journal != null) {
+                        copy = journal.copy(graph);
+                    } else {
+                        final ReadableGraph rg = graph.getReadableGraph();
+                        try {
+                            copy = rg.copy();
+                        } finally {
+                            rg.release();
+                        }
+                    }
 
-            final File saveDir = AutosaveUtilities.getAutosaveDir();
+                    interaction.setProgress(1, 0, "Finished", true);
 
-            try {
-                final String gname = graph.getId() + FileExtensionConstants.STAR;
-                StatusDisplayer.getDefault().setStatusText(String.format("Auto saving %s as %s at %s...", graphId, gname, new Date()));
-                final File saveFile = new File(saveDir, gname);
-                new GraphJsonWriter().writeGraphToZip(copy, saveFile.getPath(), new HandleIoProgress("Autosaving..."));
+                    StatusDisplayer.getDefault().setStatusText(String.format("Auto saving %s as %s at %s...", graphId, gname, new Date()));
+                    new GraphJsonWriter().writeGraphToZip(copy, saveFile.getPath(), new HandleIoProgress("Autosaving..."));
+                    if (journal != null) {
+                        journal.start(copy, journalFile);
+                    }
 
-                ConstellationLoggerHelper.exportPropertyBuilder(
-                        this,
-                        GraphRecordStoreUtilities.getVertices(copy, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
-                        saveFile,
-                        ConstellationLoggerHelper.SUCCESS
-                );
+                    ConstellationLoggerHelper.exportPropertyBuilder(
+                            this,
+                            GraphRecordStoreUtilities.getVertices(copy, false, false, false).getAll(GraphRecordStoreUtilities.SOURCE + VisualConcept.VertexAttribute.LABEL),
+                            saveFile,
+                            ConstellationLoggerHelper.SUCCESS
+                    );
+                }
 
                 final Properties p = new Properties();
                 p.setProperty(AutosaveUtilities.ID, graph.getId());
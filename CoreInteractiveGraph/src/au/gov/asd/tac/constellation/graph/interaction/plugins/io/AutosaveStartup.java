@@ -19,6 +19,7 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
 import au.gov.asd.tac.constellation.graph.file.io.GraphParseException;
 import au.gov.asd.tac.constellation.graph.file.opener.GraphOpener;
+import au.gov.asd.tac.constellation.graph.file.save.AutosaveJournal;
 import au.gov.asd.tac.constellation.graph.file.save.AutosaveUtilities;
 import au.gov.asd.tac.constellation.utilities.file.FileExtensionConstants;
 import au.gov.asd.tac.constellation.utilities.gui.HandleIoProgress;
@@ -97,6 +98,7 @@ public final class AutosaveStartup implements Runnable {
                                             String path = f.getPath();
                                             path = path.substring(0, path.length() - 5);
                                             final Graph g = new GraphJsonReader().readGraphZip(new File(path), new HandleIoProgress(loading));
+                                            recoverJournal(g, new File(path));
                                             GraphOpener.getDefault().openGraph(g, name, false);
 
                                             AutosaveUtilities.deleteAutosave(f);
@@ -136,4 +138,23 @@ public final class AutosaveStartup implements Runnable {
             Autosaver.schedule(0);
         }
     }
+
+    /**
+     * Replay the changes made to an autosaved graph after it was written.
+     * <p>
+     * If the journal can't be read, the graph is recovered as it was when it
+     * was written.
+     *
+     * @param graph the graph read from the autosave.
+     * @param autosave the autosave file.
+     */
+    private static void recoverJournal(final Graph graph, final File autosave) {
+        try {
+            AutosaveJournal.replay(graph, AutosaveJournal.getJournalFile(autosave));
+        } catch (final IOException ex) {
+            LOGGER.log(Level.WARNING, "Unable to recover changes made after autosave", ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
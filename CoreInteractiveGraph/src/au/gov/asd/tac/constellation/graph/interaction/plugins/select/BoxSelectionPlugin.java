@@ -106,6 +106,7 @@ public final class BoxSelectionPlugin extends SimpleEditPlugin {
 
         // Do the vertex positions need mixing?
         boolean requiresMix = x2Attr != Graph.NOT_FOUND && y2Attr != Graph.NOT_FOUND && z2Attr != Graph.NOT_FOUND;
+        boolean requiresAlternate = false;
         boolean requiresVertexVisibility = vxVisibilityAttr != Graph.NOT_FOUND;
         boolean requiresTransactionVisibility = txVisibilityAttr != Graph.NOT_FOUND;
 
@@ -117,6 +118,7 @@ public final class BoxSelectionPlugin extends SimpleEditPlugin {
             yAttr = y2Attr;
             zAttr = z2Attr;
             requiresMix = false;
+            requiresAlternate = true;
         } else {
             // Do nothing
         }
@@ -124,11 +126,12 @@ public final class BoxSelectionPlugin extends SimpleEditPlugin {
         final BitSet vxIncluded = new BitSet();
 
         final int vxCount = graph.getVertexCount();
+        final int rAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
 
-        // Select the correct vertices.
-        for (int position = 0; position != vxCount; position++) {
-            final int vxId = graph.getVertex(position);
-
+        // Select the correct vertices, only looking at the vertices that the
+        // position index can't rule out.
+        final BitSet vxCandidates = SelectionFrustum.getCandidateVertices(graph, requiresMix, requiresAlternate, box, centre, rotationMatrix, cameraDistance);
+        for (int vxId = vxCandidates.nextSetBit(0); vxId >= 0; vxId = vxCandidates.nextSetBit(vxId + 1)) {
             if (requiresVertexVisibility) {
                 final float visibility = graph.getFloatValue(vxVisibilityAttr, vxId);
                 final float layerVisibility = vxLayerVisibilityAttr != Graph.NOT_FOUND ? graph.getFloatValue(vxLayerVisibilityAttr, vxId) : 1.0F;
@@ -151,7 +154,6 @@ public final class BoxSelectionPlugin extends SimpleEditPlugin {
 
             // Convert world coordinates to camera coordinates.
             final Vector3f sceneLocation = convertWorldToScene(x, y, z, centre, rotationMatrix, cameraDistance);
-            final int rAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
             final float r = graph.getFloatValue(rAttr, vxId);
 
             if (sceneLocation.getZ() < 0) {
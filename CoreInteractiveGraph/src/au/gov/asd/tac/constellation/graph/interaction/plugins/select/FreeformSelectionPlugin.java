@@ -137,6 +137,7 @@ public final class FreeformSelectionPlugin extends SimpleEditPlugin {
 
         // Do the vertex positions need mixing?
         boolean requiresMix = x2Attr != Graph.NOT_FOUND && y2Attr != Graph.NOT_FOUND && z2Attr != Graph.NOT_FOUND;
+        boolean requiresAlternate = false;
         final boolean requiresVertexVisibility = vxVisibilityAttr != Graph.NOT_FOUND;
         final boolean requiresTransactionVisibility = txVisibilityAttr != Graph.NOT_FOUND;
 
@@ -148,16 +149,19 @@ public final class FreeformSelectionPlugin extends SimpleEditPlugin {
             yAttr = y2Attr;
             zAttr = z2Attr;
             requiresMix = false;
+            requiresAlternate = true;
         } else {
             // Do nothing
         }
 
         final BitSet vxIncluded = new BitSet();
         final int vxCount = graph.getVertexCount();
+        final int rAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
 
-        // Select the correct vertices.
-        for (int position = 0; position != vxCount; position++) {
-            final int vxId = graph.getVertex(position);
+        // Select the correct vertices, only looking at the vertices that the
+        // position index can't rule out.
+        final BitSet vxCandidates = SelectionFrustum.getCandidateVertices(graph, requiresMix, requiresAlternate, box, centre, rotationMatrix, cameraDistance);
+        for (int vxId = vxCandidates.nextSetBit(0); vxId >= 0; vxId = vxCandidates.nextSetBit(vxId + 1)) {
 
             if (requiresVertexVisibility) {
                 final float visibility = graph.getFloatValue(vxVisibilityAttr, vxId);
@@ -180,7 +184,6 @@ public final class FreeformSelectionPlugin extends SimpleEditPlugin {
 
             // Convert world coordinates to camera coordinates.
             final Vector3f sceneLocation = convertWorldToScene(x, y, z, centre, rotationMatrix, cameraDistance);
-            final int rAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
             final float r = graph.getFloatValue(rAttr, vxId);
 
             if (sceneLocation.getZ() < 0) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.interaction.plugins.select;
+
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.visual.utilities.VertexPositionIndex;
+import au.gov.asd.tac.constellation.utilities.graphics.Matrix33f;
+import au.gov.asd.tac.constellation.utilities.graphics.Vector3f;
+import java.util.BitSet;
+
+/**
+ * The part of the world that can be seen through a selection box.
+ * <p>
+ * The selection plugins test each vertex by projecting it into camera
+ * coordinates and comparing it with the box. The frustum lets them ask the
+ * {@link VertexPositionIndex} for the vertices that could pass that test,
+ * rather than projecting every vertex in the graph.
+ *
+ * @author algol
+ */
+final class SelectionFrustum {
+
+    private SelectionFrustum() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Get the vertices that could be inside a selection box.
+     * <p>
+     * If the positions of the vertices are being mixed, or the graph has no
+     * positions to index, every vertex is a candidate.
+     *
+     * @param graph The graph.
+     * @param requiresMix True if the positions of the vertices are being mixed
+     * with their alternate positions.
+     * @param requiresAlternate True if the vertices are drawn at their
+     * alternate positions.
+     * @param box The left, right, top and bottom of the box in camera
+     * coordinates.
+     * @param centre The point the camera is looking at.
+     * @param rotationMatrix The rotation from world to camera coordinates.
+     * @param cameraDistance The distance from the camera to the centre.
+     *
+     * @return The ids of the candidate vertices.
+     */
+    static BitSet getCandidateVertices(final GraphReadMethods graph, final boolean requiresMix, final boolean requiresAlternate,
+            final float[] box, final Vector3f centre, final Matrix33f rotationMatrix, final float cameraDistance) {
+        final BitSet candidates = new BitSet(graph.getVertexCapacity());
+        final VertexPositionIndex index = requiresMix ? null : VertexPositionIndex.getIndex(graph, requiresAlternate);
+        if (index != null) {
+            index.forEachIntersecting(getPlanes(box, centre, rotationMatrix, cameraDistance), candidates::set);
+        } else {
+            final int vxCount = graph.getVertexCount();
+            for (int position = 0; position < vxCount; position++) {
+                candidates.set(graph.getVertex(position));
+            }
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Get the world coordinate planes bounding the part of the world seen
+     * through a box.
+     * <p>
+     * A vertex at camera coordinates (x, y, z) with radius r overlaps the box
+     * when z is negative and (x ± r) / -z and (y ± r) / -z overlap the box,
+     * which makes each side of the box a plane through the eye. The planes are
+     * found in camera coordinates and rotated back into world coordinates.
+     *
+     * @param box The left, right, top and bottom of the box in camera
+     * coordinates.
+     * @param centre The point the camera is looking at.
+     * @param rotationMatrix The rotation from world to camera coordinates.
+     * @param cameraDistance The distance from the camera to the centre.
+     *
+     * @return The planes as consecutive (a, b, c, d) quadruples.
+     */
+    static float[] getPlanes(final float[] box, final Vector3f centre, final Matrix33f rotationMatrix, final float cameraDistance) {
+        final float left = box[0];
+        final float right = box[1];
+        final float top = box[2];
+        final float bottom = box[3];
+        final float[][] cameraPlanes = {
+            {1, 0, left},
+            {-1, 0, -right},
+            {0, -1, -top},
+            {0, 1, bottom},
+            {0, 0, -1}
+        };
+
+        final float[] m = rotationMatrix.a;
+        final float[] planes = new float[cameraPlanes.length * 4];
+        for (int p = 0; p < cameraPlanes.length; p++) {
+            final float[] n = cameraPlanes[p];
+            final float a = n[0] * m[0] + n[1] * m[1] + n[2] * m[2];
+            final float b = n[0] * m[3] + n[1] * m[4] + n[2] * m[5];
+            final float c = n[0] * m[6] + n[1] * m[7] + n[2] * m[8];
+            planes[p * 4] = a;
+            planes[p * 4 + 1] = b;
+            planes[p * 4 + 2] = c;
+            planes[p * 4 + 3] = -(a * centre.getX() + b * centre.getY() + c * centre.getZ()) - cameraDistance * n[2];
+        }
+
+        return planes;
+    }
+}
@@ -21,6 +21,7 @@ import au.gov.asd.tac.constellation.graph.WritableGraph;
 import au.gov.asd.tac.constellation.graph.file.GraphDataObject;
 import au.gov.asd.tac.constellation.graph.file.GraphObjectUtilities;
 import au.gov.asd.tac.constellation.graph.file.io.GraphJsonReader;
+import au.gov.asd.tac.constellation.graph.file.save.AutosaveJournal;
 import au.gov.asd.tac.constellation.graph.file.save.AutosaveUtilities;
 import au.gov.asd.tac.constellation.graph.locking.DualGraph;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
@@ -34,6 +35,7 @@ import au.gov.asd.tac.constellation.utilities.gui.TextIoProgress;
 import java.io.File;
 import org.openide.windows.TopComponent;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
@@ -170,4 +172,52 @@ public class AutosaveGraphPluginNGTest {
             graphNode.destroy();
         }
     }
+
+    /**
+     * Test that changes to attribute values after an autosave are appended to
+     * its journal, and recovered by replaying the journal.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testExecuteJournal() throws Exception {
+        final File saveDir = AutosaveUtilities.getAutosaveDir();
+        final File saveFile = new File(saveDir, graph.getId() + FileExtensionConstants.STAR);
+        final File journalFile = AutosaveJournal.getJournalFile(saveFile);
+
+        TopComponent tc = new TopComponent();
+        tc.setName("TestName");
+        final GraphDataObject gdo = GraphObjectUtilities.createMemoryDataObject("graph", true);
+        final GraphNode graphNode = new GraphNode(graph, gdo, tc, null);
+        AutosaveGraphPlugin instance = new AutosaveGraphPlugin();
+        PluginExecution.withPlugin(instance).executeNow(graph);
+        final long snapshotModified = saveFile.lastModified();
+        final long journalLength = journalFile.length();
+
+        WritableGraph wg = graph.getWritableGraph("Move", true);
+        try {
+            wg.setFloatValue(attrX, vxId1, 2.0f);
+            wg.setBooleanValue(vAttrId, vxId2, false);
+        } finally {
+            wg.commit();
+        }
+        PluginExecution.withPlugin(instance).executeNow(graph);
+
+        try {
+            // check that the changes went to the journal rather than a new autosave
+            assertEquals(saveFile.lastModified(), snapshotModified);
+            assertTrue(journalFile.length() > journalLength);
+
+            final Graph openSavedGraph = new GraphJsonReader().readGraphZip(saveFile, new TextIoProgress(false));
+            assertEquals(AutosaveJournal.replay(openSavedGraph, journalFile), 1);
+            try (final ReadableGraph rg = openSavedGraph.getReadableGraph()) {
+                assertEquals(rg.getFloatValue(attrX, vxId1), 2.0f);
+                assertEquals(rg.getStringValue(vAttrId, vxId2), "false");
+                assertEquals(rg.getVertexCount(), 7);
+            }
+        } finally {
+            AutosaveUtilities.deleteAutosave(saveFile);
+            graphNode.destroy();
+        }
+    }
 }
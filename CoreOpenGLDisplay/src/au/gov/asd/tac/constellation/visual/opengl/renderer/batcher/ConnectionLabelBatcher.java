@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  *
@@ -169,7 +170,17 @@ public class ConnectionLabelBatcher implements SceneBatcher {
     private void fillLabels(final VisualAccess access, ConnectionGlyphStream glyphStream) throws InterruptedException {
         final ConnectionGlyphStreamContext context = new ConnectionGlyphStreamContext();
 
-        for (int link = 0; link < access.getLinkCount(); link++) {
+        // Render the distinct lines of text in parallel before buffering them in order.
+        LabelUtilities.prepareAndBufferLabels(SharedDrawable.getGlyphManager(), access.getLinkCount(), link -> {
+            final List<String> lines = new ArrayList<>();
+            for (int pos = 0; pos < access.getLinkConnectionCount(link); pos++) {
+                final int connection = access.getLinkConnection(link, pos);
+                for (int label = 0; label < access.getConnectionLabelCount(connection); label++) {
+                    lines.addAll(LabelUtilities.splitTextIntoLines(access.getConnectionLabelText(connection, label)));
+                }
+            }
+            return lines;
+        }, link -> {
             final int connectionCount = access.getLinkConnectionCount(link);
             setCurrentConnection(access.getLinkLowVertex(link), access.getLinkHighVertex(link), connectionCount, context);
             for (int pos = 0; pos < connectionCount; pos++) {
@@ -178,8 +189,7 @@ public class ConnectionLabelBatcher implements SceneBatcher {
                 final Matrix44f currentLabelInfo = access.isLabelSummary(connection) ? summaryLabelInfo : attributeLabelInfoReference;
                 bufferLabel(connection, access, glyphStream, currentLabelInfo, context);
             }
-
-        }
+        });
 
         glyphStream.trimToSize();
     }
@@ -32,6 +32,7 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 /**
  *
@@ -166,16 +167,25 @@ public class NodeLabelBatcher implements SceneBatcher {
     }
 
     private void fillTopLabels(final VisualAccess access, NodeGlyphStream glyphStream) throws InterruptedException {
-        for (int pos = 0; pos < access.getVertexCount(); pos++) {
-            bufferTopLabel(pos, access, glyphStream);
-        }
+        // Render the distinct lines of text in parallel before buffering them in order.
+        LabelUtilities.prepareAndBufferLabels(SharedDrawable.getGlyphManager(), access.getVertexCount(), pos -> {
+            final List<String> lines = new ArrayList<>();
+            for (int label = 0; label < access.getTopLabelCount(); label++) {
+                lines.addAll(LabelUtilities.splitTextIntoLines(access.getVertexTopLabelText(pos, label)));
+            }
+            return lines;
+        }, pos -> bufferTopLabel(pos, access, glyphStream));
         glyphStream.trimToSize();
     }
 
     private void fillBottomLabels(final VisualAccess access, NodeGlyphStream glyphStream) throws InterruptedException {
-        for (int pos = 0; pos < access.getVertexCount(); pos++) {
-            bufferBottomLabel(pos, access, glyphStream);
-        }
+        LabelUtilities.prepareAndBufferLabels(SharedDrawable.getGlyphManager(), access.getVertexCount(), pos -> {
+            final List<String> lines = new ArrayList<>();
+            for (int label = 0; label < access.getBottomLabelCount(); label++) {
+                lines.addAll(LabelUtilities.splitTextIntoLines(access.getVertexBottomLabelText(pos, label)));
+            }
+            return lines;
+        }, pos -> bufferBottomLabel(pos, access, glyphStream));
 
         glyphStream.trimToSize();
     }
@@ -16,7 +16,13 @@
 package au.gov.asd.tac.constellation.visual.opengl.utilities;
 
 import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
+import au.gov.asd.tac.constellation.visual.opengl.utilities.glyphs.GlyphManager;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
 
 /**
  * Utility methods and constants relating to the rendering of labels in the
@@ -46,6 +52,38 @@ public final class LabelUtilities {
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Buffer the labels of a number of elements, preparing the lines of text
+     * in the labels a chunk at a time.
+     * <p>
+     * The distinct lines of the labels of consecutive elements are collected
+     * until there are as many as the glyph manager can prepare at once. Those
+     * lines are prepared together, then the labels of those elements are
+     * buffered before the next chunk is collected, so the prepared lines are
+     * still there when they are rendered.
+     *
+     * @param glyphManager The glyph manager that renders the lines.
+     * @param count The number of elements.
+     * @param lines Gives the lines of text in the labels of an element.
+     * @param buffer Buffers the labels of an element.
+     */
+    public static void prepareAndBufferLabels(final GlyphManager glyphManager, final int count,
+            final IntFunction<Collection<String>> lines, final IntConsumer buffer) {
+        final int limit = glyphManager.getLigaturePreparationLimit();
+        final Set<String> chunk = new LinkedHashSet<>();
+        int buffered = 0;
+        for (int element = 0; element < count; element++) {
+            chunk.addAll(lines.apply(element));
+            if (chunk.size() >= limit || element == count - 1) {
+                glyphManager.prepareLigatures(chunk);
+                chunk.clear();
+                while (buffered <= element) {
+                    buffer.accept(buffered++);
+                }
+            }
+        }
+    }
+
     /**
      * Split the attribute values into lines of text that are no more than
      * MAX_LINE_LENGTH_PER_ATTRIBUTE chars long.
@@ -18,6 +18,7 @@ package au.gov.asd.tac.constellation.visual.opengl.utilities.glyphs;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.Collection;
 
 /**
  * The GlyphManager manages a series of textures that hold all glyphs for the
@@ -39,6 +40,29 @@ public interface GlyphManager {
      */
     public void renderTextAsLigatures(String text, GlyphManager.GlyphStream glyphStream, GlyphStreamContext context);
 
+    /**
+     * Prepare lines of text that are about to be rendered by
+     * renderTextAsLigatures(), so that rendering them is quicker. A
+     * GlyphManager may use this to render the text in parallel.
+     *
+     * @param texts the lines of text that are about to be rendered.
+     */
+    public default void prepareLigatures(final Collection<String> texts) {
+        // Nothing to prepare by default.
+    }
+
+    /**
+     * Returns the most lines of text worth passing to prepareLigatures() at
+     * once. Lines past this number may not be prepared, or may be forgotten
+     * before they are rendered, so callers with more lines should prepare and
+     * render them a chunk at a time.
+     *
+     * @return the most lines of text to prepare at once.
+     */
+    public default int getLigaturePreparationLimit() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Returns the number of glyphs.
      *
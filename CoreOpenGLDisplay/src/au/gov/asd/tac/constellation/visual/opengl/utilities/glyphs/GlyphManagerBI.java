@@ -15,8 +15,7 @@
  */
 package au.gov.asd.tac.constellation.visual.opengl.utilities.glyphs;
 
-import au.gov.asd.tac.constellation.utilities.datastructure.FourTuple;
-import au.gov.asd.tac.constellation.utilities.datastructure.ThreeTuple;
+import au.gov.asd.tac.constellation.utilities.graphics.IntArray;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
@@ -34,6 +33,7 @@ import java.nio.ByteBuffer;
 import java.text.AttributedCharacterIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -104,17 +104,20 @@ public final class GlyphManagerBI implements GlyphManager {
     /**
      * A LigatureContext contains all the data required to be cached to improve the performance of
      * renderTextAsLigatures.
+     * <p>
+     * The glyphs are held as consecutive (texture position, x, y) triples, where x and y are the top left corner of
+     * the glyph rectangle as drawn.
      */
     private static class LigatureContext {
 
-        private final GlyphRectangle[] glyphRectangles;
+        private final int[] glyphs;
         private final int left;
         private final int right;
         private final int top;
         private final int bottom;
 
-        public LigatureContext(final GlyphRectangle[] glyphRectangles, final int left, final int right, final int top, final int bottom) {
-            this.glyphRectangles = glyphRectangles;
+        public LigatureContext(final int[] glyphs, final int left, final int right, final int top, final int bottom) {
+            this.glyphs = glyphs;
             this.left = left;
             this.right = right;
             this.top = top;
@@ -122,10 +125,23 @@ public final class GlyphManagerBI implements GlyphManager {
         }
     }
 
+    /**
+     * The limits of the ligature cache. A typical label line costs a couple of hundred bytes, so the weight is
+     * normally reached first only by graphs with long labels.
+     */
+    static final int MAX_CACHED_LIGATURES = 100_000;
+    static final long MAX_CACHED_LIGATURE_BYTES = 32L * 1024 * 1024;
+    private static final long TYPICAL_LIGATURE_BYTES = 200;
+
     /**
      * Cache the bulk of the work renderTextAsLigature does to greatly improve performance.
      */
-    private static Map<String, LigatureContext> cache = new HashMap<>();
+    private final LigatureCache<LigatureContext> cache;
+
+    /**
+     * The buffer each thread draws text into, kept between ligatures because it is large.
+     */
+    private final ThreadLocal<BufferedImage> drawings = new ThreadLocal<>();
 
     /**
      * A default no-op GlyphStream to use when the user specifies null.
@@ -154,9 +170,22 @@ public final class GlyphManagerBI implements GlyphManager {
      * the standalone renderer, use BufferedImage.TYPE_INT_ARGB.
      */
     public GlyphManagerBI(final FontInfo[] fontsInfo, final int textureBufferSize, final int bufferType) {
+        this(fontsInfo, textureBufferSize, bufferType, MAX_CACHED_LIGATURES, MAX_CACHED_LIGATURE_BYTES);
+    }
+
+    /**
+     *
+     * @param fontsInfo The fonts (and associated info) to be used for rendering text.
+     * @param textureBufferSize The size of the texture buffer.
+     * @param bufferType The type of the drawing and texture buffers.
+     * @param maxCachedLigatures The maximum number of rendered lines of text to remember.
+     * @param maxCachedLigatureBytes The approximate maximum memory used by the remembered lines of text.
+     */
+    GlyphManagerBI(final FontInfo[] fontsInfo, final int textureBufferSize, final int bufferType, final int maxCachedLigatures, final long maxCachedLigatureBytes) {
 
         this.bufferType = bufferType;
         textureBuffer = new GlyphRectangleBuffer(textureBufferSize, textureBufferSize, bufferType);
+        cache = new LigatureCache<>(maxCachedLigatures, maxCachedLigatureBytes, ligature -> 40 + 4L * ligature.glyphs.length);
 
         setFonts(fontsInfo);
 
@@ -212,8 +241,8 @@ public final class GlyphManagerBI implements GlyphManager {
      * The most specific font (ie the font containing the fewest glyphs) should be first. This allows a different font
      * to be used for Latin characters.
      * <p>
-     * Because setting new fonts implies a complete redraw, the existing texture buffers are reset, so all strings have
-     * to be rebuilt.
+     * Because setting new fonts implies a complete redraw, the existing texture buffers and the ligature cache are
+     * reset, so all strings have to be rebuilt.
      * <p>
      * Java doesn't recognise OTF fonts; they have to be created and derived, rather than just "new Font()". This means
      * fonts such as Google's Noto CJK fonts need special treatment. Names ending in ".otf" are treated as filenames.
@@ -247,6 +276,7 @@ public final class GlyphManagerBI implements GlyphManager {
         g2d.dispose();
 
         textureBuffer.reset();
+        cache.clear();
     }
 
     /**
@@ -336,15 +366,11 @@ public final class GlyphManagerBI implements GlyphManager {
 
         // Retrieve the LigatureContext from the cache to greatly speed up
         // building these ligatures which are built every time the graph is
-        // loaded or when the graph structure changes. Note that items are not
-        // purged from this cache so there is a small build up of memory over
-        // time. Guava caching was attempted though it was slower and negating
-        // the performance improvements of caching.
+        // loaded or when the graph structure changes. The least recently used
+        // ligatures are evicted when the cache is full; their glyph images
+        // stay in the texture buffer, so rebuilding one reuses them.
         //
-        if (!cache.containsKey(text)) {
-            cache.put(text, buildLigature(text));
-        }
-        final LigatureContext ligature = cache.get(text);
+        final LigatureContext ligature = cache.get(text, this::buildLigature);
 
         // Add the background for this text.
         //
@@ -363,17 +389,63 @@ public final class GlyphManagerBI implements GlyphManager {
         // * cy centers the top and bottom vertically.
         //
         final float centre = (ligature.left + ligature.right) / 2F;
-        for (final GlyphRectangle gr : ligature.glyphRectangles) {
-            final float cx = (gr.rect.x - centre) / maxFontHeight - 0.1F;
-            final float cy = (gr.rect.y - (ligature.top + ligature.bottom) / 2F) / (maxFontHeight) + 0.5F;
-            glyphStream.addGlyph(gr.position, cx, cy, context);
+        final int[] glyphs = ligature.glyphs;
+        for (int i = 0; i < glyphs.length; i += 3) {
+            final float cx = (glyphs[i + 1] - centre) / maxFontHeight - 0.1F;
+            final float cy = (glyphs[i + 2] - (ligature.top + ligature.bottom) / 2F) / (maxFontHeight) + 0.5F;
+            glyphStream.addGlyph(glyphs[i], cx, cy, context);
         }
     }
 
+    /**
+     * Render lines of text ahead of time, using all available processors.
+     * <p>
+     * At most {@link #getLigaturePreparationLimit()} lines are rendered, in the
+     * order given, so that lines rendered here are not evicted by the lines
+     * after them before they are used.
+     *
+     * @param texts The lines of text that are about to be rendered.
+     */
+    @Override
+    public void prepareLigatures(final Collection<String> texts) {
+        final List<String> missing = texts.stream()
+                .filter(text -> !StringUtils.isBlank(text) && !cache.contains(text))
+                .limit(getLigaturePreparationLimit())
+                .toList();
+        missing.parallelStream().forEach(text -> cache.get(text, this::buildLigature));
+        LOGGER.log(Level.FINE, "Prepared {0} ligatures: {1}", new Object[]{missing.size(), cache.getStats()});
+    }
+
+    /**
+     * The number of lines the ligature cache can take at once without evicting
+     * any of them, allowing for both its limit on the number of lines and its
+     * limit on their weight.
+     *
+     * @return The number of lines that can be prepared at once.
+     */
+    @Override
+    public int getLigaturePreparationLimit() {
+        return cache.getBatchLimit(TYPICAL_LIGATURE_BYTES);
+    }
+
+    /**
+     * Get the statistics of the ligature cache.
+     *
+     * @return The statistics of the ligature cache.
+     */
+    LigatureCache.Stats getLigatureCacheStats() {
+        return cache.getStats();
+    }
+
     private LigatureContext buildLigature(final String text) {
-        final BufferedImage drawing = new BufferedImage(50 * maxFontHeight, 2 * maxFontHeight, bufferType);
+        BufferedImage drawing = drawings.get();
+        if (drawing == null || drawing.getHeight() != 2 * maxFontHeight) {
+            drawing = new BufferedImage(50 * maxFontHeight, 2 * maxFontHeight, bufferType);
+            drawings.set(drawing);
+        }
         final Graphics2D g2d = drawing.createGraphics();
         g2d.setBackground(new Color(0, 0, 0, 0));
+        g2d.clearRect(0, 0, drawing.getWidth(), drawing.getHeight());
         g2d.setColor(Color.WHITE);
 
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -390,7 +462,7 @@ public final class GlyphManagerBI implements GlyphManager {
         int right = Integer.MIN_VALUE;
         int top = Integer.MAX_VALUE;
         int bottom = Integer.MIN_VALUE;
-        final GlyphRectangle[][] glyphRectangles = new GlyphRectangle[1][0];
+        final IntArray glyphs = new IntArray();
 
         for (final FontDirectionalRun drun : FontDirectionalRun.getDirectionRuns(text)) {
             for (final FontRunSequence frun : FontRunSequence.getFontRuns(drun.run, fontsInfo)) {
@@ -452,18 +524,18 @@ public final class GlyphManagerBI implements GlyphManager {
                 // Add each merged glyph rectangle to the texture buffer.
                 // Remember the texture position and rectangle (see below).
                 //
-                final FontMetrics fm = g2d.getFontMetrics(frun.font);
-                merged.forEach(r -> { // slowest lamda
+                for (final Rectangle r : merged) {
                     // Check that the glyph doesn't extend outside the drawing texture.
                     //
                     final int y = Math.max(r.y, 0);
                     final int height = Math.min(r.height, drawing.getHeight() - y);
                     if (height > 0) {
                         final int position = textureBuffer.addRectImage(drawing.getSubimage(r.x, y, r.width, height), 0);
-                        glyphRectangles[0] = Arrays.copyOf(glyphRectangles[0], glyphRectangles[0].length + 1);
-                        glyphRectangles[0][glyphRectangles[0].length - 1] = GlyphRectangleFactory.create(position, r, fm.getAscent());
+                        glyphs.add(position);
+                        glyphs.add(r.x);
+                        glyphs.add(r.y);
                     }
-                });
+                }
 
                 if (drawRuns) {
                     g2d.setColor(Color.RED);
@@ -504,7 +576,7 @@ public final class GlyphManagerBI implements GlyphManager {
 
         g2d.dispose();
 
-        return new LigatureContext(glyphRectangles[0], left, right, top, bottom);
+        return new LigatureContext(glyphs.toArray(), left, right, top, bottom);
     }
 
     @Override
@@ -584,56 +656,4 @@ public final class GlyphManagerBI implements GlyphManager {
         final BufferedImage img = textureBuffer.get(page);
         ImageIO.write(img, "png", out);
     }
-
-    private static class GlyphRectangle {
-
-        final int position;
-        final Rectangle rect;
-        final int ascent;
-
-        GlyphRectangle(final int position, final Rectangle rect, final int ascent) {
-
-            this.position = position;
-            this.rect = rect;
-            this.ascent = ascent;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("[GlyphRectangle p=%d r=%s a=%d]", position, rect, ascent);
-        }
-    }
-
-    /**
-     * Build distinct GlyphRectangle objects
-     */
-    private static class GlyphRectangleFactory {
-
-        /**
-         * Cache the Rectangles to prevent duplicate objects
-         */
-        private static final Map<FourTuple<Integer, Integer, Integer, Integer>, Rectangle> rectangleCache = new HashMap<>();
-
-        /**
-         * Cache the GlyphRectangle to prevent duplicate objects
-         */
-        private static final Map<ThreeTuple<Integer, Integer, Integer>, GlyphRectangle> glyphRectangleCache = new HashMap<>();
-
-        public static GlyphRectangle create(final int position, final Rectangle rect, final int ascent) {
-            // Note that the Rectangle hashCode() is not unique so using the
-            // attributes to make a unique key we can use for caching.
-            final FourTuple<Integer, Integer, Integer, Integer> rectangleKey
-                    = FourTuple.create(rect.x, rect.y, rect.width, rect.height);
-
-            final ThreeTuple key = ThreeTuple.create(position, rectangleKey, ascent);
-            final GlyphRectangle rectangle = glyphRectangleCache.get(key);
-            if (rectangle == null) {
-                rectangleCache.putIfAbsent(rectangleKey, rect);
-                glyphRectangleCache.put(key, new GlyphRectangle(position, rectangleCache.get(rectangleKey), ascent));
-            }
-
-            return glyphRectangleCache.get(key);
-        }
-
-    }
 }
@@ -34,6 +34,9 @@ import java.util.Objects;
  * <p>
  * Each new rectangle is drawn at the current x,y position if there's enough
  * room, otherwise a new rectangle line is started.
+ * <p>
+ * Rectangles may be added from several threads at once; the pixels of an image
+ * are hashed before taking the lock.
  *
  * @author algol
  */
@@ -111,7 +114,7 @@ final class GlyphRectangleBuffer {
         reset();
     }
 
-    public int size() {
+    public synchronized int size() {
         return rectBuffers.size();
     }
 
@@ -120,25 +123,25 @@ final class GlyphRectangleBuffer {
      *
      * @return
      */
-    BufferedImage get(final int i) {
+    synchronized BufferedImage get(final int i) {
         return rectBuffers.get(i);
     }
 
-    public void readRectangleBuffer(final int page, final ByteBuffer buffer) {
+    public synchronized void readRectangleBuffer(final int page, final ByteBuffer buffer) {
         final BufferedImage rb = rectBuffers.get(page);
         final DataBufferByte dbb = (DataBufferByte) rb.getData().getDataBuffer();
         buffer.put(dbb.getData());
     }
 
-    public int getRectangleCount() {
+    public synchronized int getRectangleCount() {
         return rectangleCount;
     }
 
-    public float[] getRectangleCoordinates() {
+    public synchronized float[] getRectangleCoordinates() {
         return rectTextureCoordinates.clone();
     }
 
-    public void reset() {
+    public synchronized void reset() {
 
         // Start with room for an arbitrary number of rectangles
         // so we don't have to grow the array too quickly.
@@ -250,15 +253,10 @@ final class GlyphRectangleBuffer {
         //
         final int hashCode = Arrays.hashCode(img.getRGB(0, 0, w, h, null, 0, w));
 
-        Integer rectIndex = memory.get(hashCode);
-        if (rectIndex == null) {
-            rectIndex = addHashcode(hashCode, img, extra, w, h);
-        }
-
-        return rectIndex;
+        return addHashcode(hashCode, img, extra, w, h);
     }
 
-    private synchronized int addImageToBuffer(final BufferedImage img, final int rectIndex, final int extra, final int w, final int h) {
+    private int addImageToBuffer(final BufferedImage img, final int rectIndex, final int extra, final int w, final int h) {
         if ((x + w + PADDING) >= width) {
             newRectLine();
         }
@@ -350,7 +348,7 @@ final class GlyphRectangleBuffer {
         return true;
     }
 
-    private int addHashcode(final int hashCode, final BufferedImage img, final int extra, final int w, final int h) {
+    private synchronized int addHashcode(final int hashCode, final BufferedImage img, final int extra, final int w, final int h) {
         int value = memory.size();
         Integer rectIndex = memory.putIfAbsent(hashCode, value);
         if (rectIndex == null) {
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.visual.opengl.utilities.glyphs;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache of rendered lines of text, safe to use from several threads.
+ * <p>
+ * The cache is split into segments by the hash of the text, each an access
+ * ordered map with its own lock, so threads rendering different text rarely
+ * wait for each other. Each segment holds an equal share of the maximum number
+ * of entries and the maximum weight, and evicts its least recently used
+ * entries when it goes over either of them.
+ * <p>
+ * A value is built outside the lock of its segment. If two threads build the
+ * same value at the same time, the first one to finish is kept and both
+ * threads are given it.
+ *
+ * @param <V> The type of the cached values.
+ *
+ * @author algol
+ */
+final class LigatureCache<V> {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment<V>[] segments;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The numbers describing the use of a cache at a moment in time.
+     *
+     * @param hits The number of lookups that found their text in the cache.
+     * @param misses The number of lookups that had to build their value.
+     * @param evictions The number of entries evicted to stay within bounds.
+     * @param size The number of entries in the cache.
+     * @param weight The total weight of the entries in the cache.
+     */
+    record Stats(long hits, long misses, long evictions, int size, long weight) {
+
+        double hitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 1 : hits / (double) lookups;
+        }
+    }
+
+    private static final class Segment<V> {
+
+        private final LinkedHashMap<String, V> map = new LinkedHashMap<>(16, 0.75F, true);
+        private long weight;
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxEntries The maximum number of entries in the cache.
+     * @param maxWeight The maximum total weight of the entries in the cache.
+     * @param weigher Gives the weight of a value, approximately the number of
+     * bytes it holds on to.
+     */
+    @SuppressWarnings("unchecked")
+    LigatureCache(final int maxEntries, final long maxWeight, final ToLongFunction<V> weigher) {
+        if (maxEntries < SEGMENT_COUNT || maxWeight < SEGMENT_COUNT) {
+            throw new IllegalArgumentException(String.format("A ligature cache must allow at least %d entries and weight", SEGMENT_COUNT));
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    private Segment<V> segmentFor(final String text) {
+        final int h = text.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * The number of new entries that can be added at once with little chance
+     * of any of them being evicted by the others.
+     * <p>
+     * Entries are spread over the segments by the hash of their text, so some
+     * segments get more than their share. Keeping to a quarter of what the
+     * cache can hold leaves each segment room for four times its share.
+     *
+     * @param typicalWeight The weight of a typical value, used until the cache
+     * has entries to take an average weight from.
+     *
+     * @return The number of entries that can be added at once.
+     */
+    int getBatchLimit(final long typicalWeight) {
+        final Stats stats = getStats();
+        final long averageWeight = stats.size() == 0 ? typicalWeight : Math.max(1, stats.weight() / stats.size());
+        final long capacity = Math.min(maxEntries, maxWeight / averageWeight);
+        return (int) Math.max(SEGMENT_COUNT, capacity / 4);
+    }
+
+    /**
+     * Is there a value for some text in the cache?
+     * <p>
+     * This doesn't count as a use of the entry.
+     *
+     * @param text The text.
+     *
+     * @return True if the text is in the cache.
+     */
+    boolean contains(final String text) {
+        final Segment<V> segment = segmentFor(text);
+        synchronized (segment) {
+            return segment.map.containsKey(text);
+        }
+    }
+
+    /**
+     * Get the value for some text, building it if it isn't in the cache.
+     *
+     * @param text The text.
+     * @param builder Builds the value for text that isn't in the cache.
+     *
+     * @return The value.
+     */
+    V get(final String text, final Function<String, V> builder) {
+        final Segment<V> segment = segmentFor(text);
+        synchronized (segment) {
+            final V value = segment.map.get(text);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+        }
+
+        misses.increment();
+        final V built = builder.apply(text);
+        synchronized (segment) {
+            final V existing = segment.map.putIfAbsent(text, built);
+            if (existing != null) {
+                return existing;
+            }
+            segment.weight += weigh(text, built);
+            evict(segment, text);
+        }
+
+        return built;
+    }
+
+    private long weigh(final String text, final V value) {
+        // A String holds on to about 40 bytes more than its characters.
+        return 40 + 2L * text.length() + weigher.applyAsLong(value);
+    }
+
+    private void evict(final Segment<V> segment, final String added) {
+        final int segmentEntries = maxEntries / SEGMENT_COUNT;
+        final long segmentWeight = maxWeight / SEGMENT_COUNT;
+        final Iterator<Map.Entry<String, V>> it = segment.map.entrySet().iterator();
+        while ((segment.map.size() > segmentEntries || segment.weight > segmentWeight) && it.hasNext()) {
+            final Map.Entry<String, V> eldest = it.next();
+
+            // Keep the entry that was just added, even if it is too heavy on its own.
+            if (!eldest.getKey().equals(added)) {
+                segment.weight -= weigh(eldest.getKey(), eldest.getValue());
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove every entry from the cache.
+     * <p>
+     * The statistics are kept.
+     */
+    void clear() {
+        for (final Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of the cache.
+     *
+     * @return The statistics.
+     */
+    Stats getStats() {
+        int size = 0;
+        long weight = 0;
+        for (final Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+                weight += segment.weight;
+            }
+        }
+
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+}
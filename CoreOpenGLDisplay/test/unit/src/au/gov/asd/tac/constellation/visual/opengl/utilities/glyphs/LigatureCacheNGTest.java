@@ -0,0 +1,172 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.visual.opengl.utilities.glyphs;
+
+import au.gov.asd.tac.constellation.visual.opengl.utilities.LabelUtilities;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Ligature Cache Test.
+ *
+ * @author algol
+ */
+public class LigatureCacheNGTest {
+
+    /**
+     * Values should be built once, then found in the cache.
+     */
+    @Test
+    public void testGet() {
+        System.out.println("testGet");
+        final LigatureCache<String> cache = new LigatureCache<>(1000, 1_000_000, String::length);
+        final AtomicInteger builds = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(cache.get("text", text -> text + builds.incrementAndGet()), "text1");
+        }
+
+        final LigatureCache.Stats stats = cache.getStats();
+        assertEquals(builds.get(), 1);
+        assertEquals(stats.hits(), 2);
+        assertEquals(stats.misses(), 1);
+        assertEquals(stats.size(), 1);
+        assertEquals(stats.weight(), 40 + 2 * 4 + 5);
+    }
+
+    /**
+     * The cache should stay within its bounds by evicting the least recently
+     * used entries.
+     */
+    @Test
+    public void testEviction() {
+        System.out.println("testEviction");
+        final LigatureCache<String> cache = new LigatureCache<>(160, 1_000_000, String::length);
+        for (int i = 0; i < 1000; i++) {
+            cache.get("text" + i, text -> text);
+            cache.get("text0", text -> text);
+        }
+
+        final LigatureCache.Stats stats = cache.getStats();
+        assertTrue(stats.size() <= 160);
+        assertEquals(stats.evictions(), 1000 - stats.size());
+        assertTrue(cache.contains("text0"));
+        assertTrue(cache.contains("text999"));
+        assertFalse(cache.contains("text1"));
+
+        final LigatureCache<String> light = new LigatureCache<>(1000, 16 * 100, String::length);
+        for (int i = 0; i < 1000; i++) {
+            light.get(String.valueOf(i), text -> text);
+        }
+        assertTrue(light.getStats().weight() <= 16 * 100);
+
+        light.clear();
+        assertEquals(light.getStats().size(), 0);
+        assertEquals(light.getStats().weight(), 0);
+    }
+
+    /**
+     * A batch should be a quarter of what the cache can hold, by number of
+     * entries or by weight, whichever is less.
+     */
+    @Test
+    public void testBatchLimit() {
+        System.out.println("testBatchLimit");
+        final LigatureCache<String> cache = new LigatureCache<>(1000, 1_000_000, String::length);
+        assertEquals(cache.getBatchLimit(100), 250);
+        assertEquals(cache.getBatchLimit(10_000), 25);
+
+        // Once there are entries, their average weight is used.
+        cache.get("text", text -> "x".repeat(9_952));
+        assertEquals(cache.getBatchLimit(100), 25);
+    }
+
+    /**
+     * Labels buffered a chunk at a time should all be rendered from the lines
+     * prepared for them, even when there are many more lines than the cache
+     * can hold.
+     */
+    @Test
+    public void testPrepareAndBufferLabels() {
+        System.out.println("testPrepareAndBufferLabels");
+        final FontInfo[] fontsInfo = {new FontInfo(GlyphManagerBI.DEFAULT_FONT_NAME, GlyphManagerBI.DEFAULT_FONT_STYLE, 16, null, null)};
+        final GlyphManagerBI glyphManager = new GlyphManagerBI(fontsInfo, 512, BufferedImage.TYPE_BYTE_GRAY, 160, 1_000_000);
+        final int count = 500;
+        final List<String> rendered = new ArrayList<>();
+        LabelUtilities.prepareAndBufferLabels(glyphManager, count, element -> List.of("Label " + element), element -> {
+            rendered.add("Label " + element);
+            glyphManager.renderTextAsLigatures("Label " + element, null, null);
+        });
+
+        final LigatureCache.Stats stats = glyphManager.getLigatureCacheStats();
+        assertEquals(rendered, IntStream.range(0, count).mapToObj(i -> "Label " + i).toList());
+        assertEquals(stats.misses(), count);
+        assertEquals(stats.hits(), count);
+        assertTrue(stats.evictions() > 0);
+    }
+
+    /**
+     * Rendering lines in parallel and after eviction should give the same
+     * glyphs as rendering them one at a time.
+     */
+    @Test
+    public void testPrepareLigatures() {
+        System.out.println("testPrepareLigatures");
+        final FontInfo[] fontsInfo = {new FontInfo(GlyphManagerBI.DEFAULT_FONT_NAME, GlyphManagerBI.DEFAULT_FONT_STYLE, 16, null, null)};
+        final List<String> lines = IntStream.range(0, 200).mapToObj(i -> "Label " + i % 50).toList();
+
+        final GlyphManagerBI serial = new GlyphManagerBI(fontsInfo, 512, BufferedImage.TYPE_BYTE_GRAY);
+        final List<String> expected = render(serial, lines);
+
+        final GlyphManagerBI parallel = new GlyphManagerBI(fontsInfo, 512, BufferedImage.TYPE_BYTE_GRAY, 16, 1_000_000);
+        parallel.prepareLigatures(lines);
+        assertEquals(parallel.getGlyphCount(), serial.getGlyphCount());
+        assertEquals(render(parallel, lines).size(), expected.size());
+
+        // The glyphs may have been added to the texture in a different order,
+        // so compare their positions in the lines.
+        final List<String> positions = new ArrayList<>();
+        render(parallel, lines).forEach(glyph -> positions.add(glyph.substring(glyph.indexOf(' '))));
+        final List<String> expectedPositions = new ArrayList<>();
+        expected.forEach(glyph -> expectedPositions.add(glyph.substring(glyph.indexOf(' '))));
+        assertEquals(positions, expectedPositions);
+        assertEquals(parallel.getGlyphCount(), serial.getGlyphCount());
+        assertTrue(parallel.getLigatureCacheStats().evictions() > 0);
+    }
+
+    private static List<String> render(final GlyphManager glyphManager, final List<String> lines) {
+        final List<String> glyphs = new ArrayList<>();
+        final GlyphManager.GlyphStream glyphStream = new GlyphManager.GlyphStream() {
+            @Override
+            public void newLine(final float width, final GlyphStreamContext context) {
+                glyphs.add("line " + width);
+            }
+
+            @Override
+            public void addGlyph(final int glyphPosition, final float x, final float y, final GlyphStreamContext context) {
+                glyphs.add(glyphPosition + " " + x + " " + y);
+            }
+        };
+        lines.forEach(line -> glyphManager.renderTextAsLigatures(line, glyphStream, null));
+        return glyphs;
+    }
+}
@@ -470,8 +470,23 @@ public class TimelinePanel extends Region {
      * @see TimelineChart
      */
     public void clearTimeline() {
+        clearTimeline(false);
+    }
+
+    /**
+     * Method responsible for removing all content from the <code>TimelineChart</code> component.
+     *
+     * @param keepTree whether the clustering tree should be kept so the next populate from the same graph only has to
+     * apply the changes made to it since.
+     * @see TimelineChart
+     */
+    public void clearTimeline(final boolean keepTree) {
         clearTimelineData();
-        clusteringManager.cleanupVariables();
+        if (keepTree) {
+            clusteringManager.cleanupElements();
+        } else {
+            clusteringManager.cleanupVariables();
+        }
         GraphManager.getDefault().setElementSelected(false);
     }
     // </editor-fold>
@@ -19,7 +19,6 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphElementType;
 import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.WritableGraph;
-import au.gov.asd.tac.constellation.graph.attribute.DateAttributeDescription;
 import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
 import au.gov.asd.tac.constellation.plugins.PluginGraphs;
 import au.gov.asd.tac.constellation.plugins.PluginInfo;
@@ -27,7 +26,6 @@ import au.gov.asd.tac.constellation.plugins.PluginInteraction;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimplePlugin;
-import au.gov.asd.tac.constellation.utilities.temporal.TemporalConstants;
 import au.gov.asd.tac.constellation.views.timeline.TimeExtents;
 import au.gov.asd.tac.constellation.views.timeline.TimelineTopComponent;
 import java.util.ArrayList;
@@ -46,9 +44,11 @@ import java.util.Set;
  */
 public class ClusteringManager {
 
-    private final List<TreeLeaf> leaves = new ArrayList<>();
+    private TimeIndex index;
+    private boolean treeSelectedOnly;
     private TreeElement tree;
     private Set<TreeElement> elementsToDraw = new HashSet<>();
+    private final Set<TreeElement> drawnElements = new HashSet<>();
     private Set<TreeElement> elementsToUndim = new HashSet<>();
     private Set<TreeElement> oldElementsToUndim;
     private final Map<Integer, Integer> undimmedVerticesOnGraph = new HashMap<>();
@@ -56,88 +56,108 @@ public class ClusteringManager {
     private Set<TreeElement> oldElementsToUnhide;
     private final Map<Integer, Integer> unhiddenVerticesOnGraph = new HashMap<>();
 
+    /**
+     * Generate the clustering tree of the transactions of a graph by their
+     * datetime.
+     * <p>
+     * The transactions are only sorted again when the structure of the graph or
+     * the values of the datetime attribute have changed since the last call. A
+     * change of selection alone updates the selection of the transactions that
+     * changed and keeps the existing tree, unless only selected transactions
+     * are shown and the transaction selection changed.
+     *
+     * @param graph the graph.
+     * @param datetimeAttribute the name of the datetime attribute.
+     * @param selectedOnly whether to only include selected transactions.
+     * @return the extents of the tree, or null if there are no transactions
+     * with a datetime.
+     */
     public TimeExtents generateTree(final GraphReadMethods graph, final String datetimeAttribute, final boolean selectedOnly) {
-        final int transactionCount = graph.getTransactionCount();
         final int datetimeAttributeId = graph.getAttribute(GraphElementType.TRANSACTION, datetimeAttribute);
         final int selectedTransAttributeId = VisualConcept.TransactionAttribute.SELECTED.get(graph);
         final int selectedNodeAttributeId = VisualConcept.VertexAttribute.SELECTED.get(graph);
 
         // If we actually have the attributes
-        if (datetimeAttributeId != Graph.NOT_FOUND && selectedNodeAttributeId != Graph.NOT_FOUND && selectedTransAttributeId != Graph.NOT_FOUND) {
-            // Grab all of the transactions off the graph and turn into leaves:
-            for (int i = 0; i < transactionCount; i++) {
-                final int transactionID = graph.getTransaction(i);
-                final String datetimeAttributeType = graph.getAttributeType(datetimeAttributeId);
-                final Object datetimeAttributeDefault = graph.getAttributeDefaultValue(datetimeAttributeId);
-                final Object datetimeAttributeValue = graph.getObjectValue(datetimeAttributeId, transactionID);
-
-                if (TimelineTopComponent.SUPPORTED_DATETIME_ATTRIBUTE_TYPES.contains(datetimeAttributeType)
-                        && datetimeAttributeValue != null && !datetimeAttributeValue.equals(datetimeAttributeDefault)) {
-                    final int vertexA = graph.getTransactionSourceVertex(transactionID);
-                    final int vertexB = graph.getTransactionDestinationVertex(transactionID);
-
-                    final int lowerY = Math.min(vertexA, vertexB);
-                    final int upperY = Math.max(vertexA, vertexB);
-
-                    long transactionValue = graph.getLongValue(datetimeAttributeId, transactionID);
-
-                    // Dates are represented as days since epoch, whereas datetimes are represented as milliseconds since epoch
-                    if (datetimeAttributeType.equals(DateAttributeDescription.ATTRIBUTE_NAME)) {
-                        transactionValue = transactionValue * TemporalConstants.MILLISECONDS_IN_DAY;
-                    }
-
-                    final boolean isSelected = graph.getBooleanValue(selectedTransAttributeId, transactionID);
-                    if (isSelected || !selectedOnly) {
-                        final boolean nodesSelected = graph.getBooleanValue(selectedNodeAttributeId, vertexA) || graph.getBooleanValue(selectedNodeAttributeId, vertexB);
-                        leaves.add(new TreeLeaf(transactionID, transactionValue, isSelected, nodesSelected, lowerY, upperY, Math.min(vertexA, vertexB), Math.max(vertexA, vertexB)));
-                    }
-                }
+        if (datetimeAttributeId != Graph.NOT_FOUND && selectedNodeAttributeId != Graph.NOT_FOUND && selectedTransAttributeId != Graph.NOT_FOUND
+                && TimelineTopComponent.SUPPORTED_DATETIME_ATTRIBUTE_TYPES.contains(graph.getAttributeType(datetimeAttributeId))) {
+            boolean rebuildTree = index == null || selectedOnly != treeSelectedOnly;
+            if (index == null || !index.isCurrent(graph, datetimeAttributeId, selectedTransAttributeId, selectedNodeAttributeId)) {
+                index = new TimeIndex(graph, datetimeAttributeId, selectedTransAttributeId, selectedNodeAttributeId);
+                rebuildTree = true;
+            } else {
+                // Only the selection can have changed, which the tree looks up in the index:
+                final boolean transactionsChanged = index.updateTransactionSelection(graph);
+                index.updateVertexSelection(graph);
+                rebuildTree |= selectedOnly && transactionsChanged;
             }
 
-            if (leaves.isEmpty()) {
-                tree = null;
-                return null;
-            } else if (leaves.size() == 1) {
-                tree = leaves.get(0);
-                return new TimeExtents(tree.getLowerTimeExtent(), tree.getUpperTimeExtent());
+            if (rebuildTree) {
+                index.setSelectedOnly(selectedOnly);
+                treeSelectedOnly = selectedOnly;
+                tree = buildTree(graph, selectedOnly);
             }
+        } else {
+            clearTree();
+        }
 
-            Collections.sort(leaves);
-            TreeNode lastNode = null;
+        return tree != null ? new TimeExtents(tree.getLowerTimeExtent(), tree.getUpperTimeExtent()) : null;
+    }
 
-            final TreeNode[] nodes = new TreeNode[leaves.size() - 1];
+    private TreeElement buildTree(final GraphReadMethods graph, final boolean selectedOnly) {
+        drawnElements.clear();
 
-            for (int i = 0; i < (leaves.size() - 1); i++) {
-                final TreeNode nextNode = new TreeNode(leaves.get(i), leaves.get(i + 1));
-                nextNode.previous = lastNode;
-                if (lastNode != null) {
-                    lastNode.next = nextNode;
-                }
-                lastNode = nextNode;
-                nodes[i] = nextNode;
+        // The index is already sorted, so the leaves are made in order:
+        final TreeLeaf[] leaves = new TreeLeaf[selectedOnly ? index.getSelectedCount(0, index.size() - 1) : index.size()];
+        int leafCount = 0;
+        for (int position = 0; position < index.size(); position++) {
+            if (!selectedOnly || index.isSelected(position)) {
+                final int transactionID = index.getTransaction(position);
+                final int vertexA = graph.getTransactionSourceVertex(transactionID);
+                final int vertexB = graph.getTransactionDestinationVertex(transactionID);
+
+                final int lowerY = Math.min(vertexA, vertexB);
+                final int upperY = Math.max(vertexA, vertexB);
+
+                leaves[leafCount++] = new TreeLeaf(index, position, lowerY, upperY, Math.min(vertexA, vertexB), Math.max(vertexA, vertexB));
             }
+        }
+
+        if (leaves.length == 0) {
+            return null;
+        } else if (leaves.length == 1) {
+            return leaves[0];
+        }
 
-            Arrays.sort(nodes);
+        TreeNode lastNode = null;
 
-            for (int i = 0; i < nodes.length - 1; i++) {
-                final TreeNode highest = nodes[i];
+        final TreeNode[] nodes = new TreeNode[leaves.length - 1];
 
-                if (highest.previous != null) {
-                    highest.previous.setLastChild(highest);
-                    highest.previous.next = highest.next;
-                }
-                if (highest.next != null) {
-                    highest.next.setFirstChild(highest);
-                    highest.next.previous = highest.previous;
-                }
+        for (int i = 0; i < (leaves.length - 1); i++) {
+            final TreeNode nextNode = new TreeNode(index, leaves[i], leaves[i + 1]);
+            nextNode.previous = lastNode;
+            if (lastNode != null) {
+                lastNode.next = nextNode;
             }
+            lastNode = nextNode;
+            nodes[i] = nextNode;
+        }
 
-            tree = nodes[nodes.length - 1];
-        } else {
-            tree = null;
+        Arrays.sort(nodes);
+
+        for (int i = 0; i < nodes.length - 1; i++) {
+            final TreeNode highest = nodes[i];
+
+            if (highest.previous != null) {
+                highest.previous.setLastChild(highest);
+                highest.previous.next = highest.next;
+            }
+            if (highest.next != null) {
+                highest.next.setFirstChild(highest);
+                highest.next.previous = highest.previous;
+            }
         }
 
-        return tree != null ? new TimeExtents(tree.getLowerTimeExtent(), tree.getUpperTimeExtent()) : null;
+        return nodes[nodes.length - 1];
     }
 
     public void filterTree(final double pixelsPerTransaction, final long lowerTimeExtent, final long upperTimeExtent) {
@@ -168,6 +188,9 @@ public class ClusteringManager {
                 }
             }
         }
+
+        // Remember which elements may be given a chart item, so it can be replaced when the tree is reused
+        drawnElements.addAll(elementsToDraw);
     }
 
     public void dimOrHideTree(final long lowerTimeExtent, final long upperTimeExtent, int exclusionState) {
@@ -216,6 +239,20 @@ public class ClusteringManager {
 
     public void cleanupVariables() {
         clearTree();
+        cleanupElements();
+    }
+
+    /**
+     * Forget the elements drawn and excluded from the current tree, while
+     * keeping the tree itself so the next call to {@link #generateTree} only
+     * has to apply the changes made to the graph since.
+     */
+    public void cleanupElements() {
+        // The chart items of the drawn elements have been cleared from the timeline, and may show an old selection
+        for (final TreeElement element : drawnElements) {
+            element.setNodeItem(null);
+        }
+        drawnElements.clear();
         if (elementsToDraw != null) {
             elementsToDraw.clear();
         }
@@ -230,7 +267,8 @@ public class ClusteringManager {
 
     public void clearTree() {
         tree = null;
-        leaves.clear();
+        index = null;
+        drawnElements.clear();
     }
 
     @FunctionalInterface
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2010-2025 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.timeline.clustering;
+
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.attribute.DateAttributeDescription;
+import au.gov.asd.tac.constellation.utilities.temporal.TemporalConstants;
+import java.util.Arrays;
+
+/**
+ * The transactions of a graph with a datetime, sorted by that datetime, along
+ * with their selection state.
+ * <p>
+ * Every element of the clustering tree covers a contiguous range of positions
+ * in this index, so the number of selected transactions in an element, and
+ * whether any of their vertices are selected, are range queries over binary
+ * indexed trees rather than values stored up the tree. A change of selection
+ * only updates the positions of the transactions that changed, each in
+ * O(log n), leaving the tree itself untouched.
+ * <p>
+ * The index is only valid while the structure of the graph, its attributes and
+ * the values of the datetime attribute are unchanged, which
+ * {@link #isCurrent} checks with the modification counters of the graph. An
+ * undo can return those counters to values they had before, so any undo since
+ * the index was built also makes it stale.
+ *
+ * @author algol
+ */
+final class TimeIndex {
+
+    private static final int NOT_INDEXED = -1;
+
+    private final String graphId;
+    private final int datetimeAttributeId;
+    private final int selectedTransactionAttributeId;
+    private final int selectedVertexAttributeId;
+    private final long attributeModificationCount;
+    private final long structureModificationCount;
+    private final long datetimeModificationCount;
+    private final long undoCount;
+    private long transactionSelectionModificationCount;
+    private long vertexSelectionModificationCount;
+
+    // the datetimes and transactions by position, sorted by datetime
+    private final long[] datetimes;
+    private final int[] transactions;
+    // the position of each transaction by id, or NOT_INDEXED
+    private final int[] positions;
+
+    private final boolean[] transactionSelected;
+    private final boolean[] nodesSelected;
+    private final boolean[] vertexSelected;
+
+    // binary indexed trees of the selection state by position
+    private final int[] selectedCounts;
+    private final int[] nodesSelectedCounts;
+    private final int[] selectedNodesSelectedCounts;
+
+    private boolean selectedOnly = false;
+
+    TimeIndex(final GraphReadMethods graph, final int datetimeAttributeId, final int selectedTransactionAttributeId, final int selectedVertexAttributeId) {
+        this.graphId = graph.getId();
+        this.datetimeAttributeId = datetimeAttributeId;
+        this.selectedTransactionAttributeId = selectedTransactionAttributeId;
+        this.selectedVertexAttributeId = selectedVertexAttributeId;
+        this.attributeModificationCount = graph.getAttributeModificationCounter();
+        this.structureModificationCount = graph.getStructureModificationCounter();
+        this.datetimeModificationCount = graph.getValueModificationCounter(datetimeAttributeId);
+        this.undoCount = graph.getUndoCounter();
+        this.transactionSelectionModificationCount = graph.getValueModificationCounter(selectedTransactionAttributeId);
+        this.vertexSelectionModificationCount = graph.getValueModificationCounter(selectedVertexAttributeId);
+
+        final boolean isDate = graph.getAttributeType(datetimeAttributeId).equals(DateAttributeDescription.ATTRIBUTE_NAME);
+        final Object datetimeAttributeDefault = graph.getAttributeDefaultValue(datetimeAttributeId);
+
+        final int transactionCount = graph.getTransactionCount();
+        final long[] unsortedDatetimes = new long[transactionCount];
+        final int[] unsortedTransactions = new int[transactionCount];
+        int size = 0;
+        for (int i = 0; i < transactionCount; i++) {
+            final int transactionId = graph.getTransaction(i);
+            final Object datetimeAttributeValue = graph.getObjectValue(datetimeAttributeId, transactionId);
+            if (datetimeAttributeValue != null && !datetimeAttributeValue.equals(datetimeAttributeDefault)) {
+                // Dates are represented as days since epoch, whereas datetimes are represented as milliseconds since epoch
+                final long transactionValue = graph.getLongValue(datetimeAttributeId, transactionId);
+                unsortedDatetimes[size] = isDate ? transactionValue * TemporalConstants.MILLISECONDS_IN_DAY : transactionValue;
+                unsortedTransactions[size] = transactionId;
+                size++;
+            }
+        }
+
+        datetimes = Arrays.copyOf(unsortedDatetimes, size);
+        transactions = Arrays.copyOf(unsortedTransactions, size);
+        sort(datetimes, transactions);
+
+        positions = new int[graph.getTransactionCapacity()];
+        Arrays.fill(positions, NOT_INDEXED);
+        for (int position = 0; position < size; position++) {
+            positions[transactions[position]] = position;
+        }
+
+        vertexSelected = new boolean[graph.getVertexCapacity()];
+        final int vertexCount = graph.getVertexCount();
+        for (int i = 0; i < vertexCount; i++) {
+            final int vertexId = graph.getVertex(i);
+            vertexSelected[vertexId] = graph.getBooleanValue(selectedVertexAttributeId, vertexId);
+        }
+
+        transactionSelected = new boolean[size];
+        nodesSelected = new boolean[size];
+        selectedCounts = new int[size + 1];
+        nodesSelectedCounts = new int[size + 1];
+        selectedNodesSelectedCounts = new int[size + 1];
+        for (int position = 0; position < size; position++) {
+            final int transactionId = transactions[position];
+            transactionSelected[position] = graph.getBooleanValue(selectedTransactionAttributeId, transactionId);
+            nodesSelected[position] = isNodesSelected(graph, transactionId);
+            selectedCounts[position + 1] = transactionSelected[position] ? 1 : 0;
+            nodesSelectedCounts[position + 1] = nodesSelected[position] ? 1 : 0;
+            selectedNodesSelectedCounts[position + 1] = transactionSelected[position] && nodesSelected[position] ? 1 : 0;
+        }
+        initialise(selectedCounts);
+        initialise(nodesSelectedCounts);
+        initialise(selectedNodesSelectedCounts);
+    }
+
+    /**
+     * Whether this index still describes the given graph and attributes.
+     *
+     * @param graph the graph.
+     * @param datetimeAttributeId the id of the datetime attribute.
+     * @param selectedTransactionAttributeId the id of the transaction
+     * selection attribute.
+     * @param selectedVertexAttributeId the id of the vertex selection
+     * attribute.
+     * @return true if only the selection may have changed since the index was
+     * built.
+     */
+    boolean isCurrent(final GraphReadMethods graph, final int datetimeAttributeId, final int selectedTransactionAttributeId, final int selectedVertexAttributeId) {
+        return graphId.equals(graph.getId())
+                && this.datetimeAttributeId == datetimeAttributeId
+                && this.selectedTransactionAttributeId == selectedTransactionAttributeId
+                && this.selectedVertexAttributeId == selectedVertexAttributeId
+                && attributeModificationCount == graph.getAttributeModificationCounter()
+                && structureModificationCount == graph.getStructureModificationCounter()
+                && datetimeModificationCount == graph.getValueModificationCounter(datetimeAttributeId)
+                && undoCount == graph.getUndoCounter();
+    }
+
+    /**
+     * Update the selection of the indexed transactions from the graph.
+     *
+     * @param graph the graph.
+     * @return true if the selection of any indexed transaction changed.
+     */
+    boolean updateTransactionSelection(final GraphReadMethods graph) {
+        final long modificationCount = graph.getValueModificationCounter(selectedTransactionAttributeId);
+        if (modificationCount == transactionSelectionModificationCount && undoCount == graph.getUndoCounter()) {
+            return false;
+        }
+        transactionSelectionModificationCount = modificationCount;
+
+        boolean changed = false;
+        for (int position = 0; position < transactions.length; position++) {
+            final boolean selected = graph.getBooleanValue(selectedTransactionAttributeId, transactions[position]);
+            if (selected != transactionSelected[position]) {
+                transactionSelected[position] = selected;
+                final int delta = selected ? 1 : -1;
+                add(selectedCounts, position, delta);
+                if (nodesSelected[position]) {
+                    add(selectedNodesSelectedCounts, position, delta);
+                }
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * Update whether the vertices of the indexed transactions are selected
+     * from the graph.
+     *
+     * @param graph the graph.
+     * @return true if any indexed transaction now has a different answer to
+     * whether its vertices are selected.
+     */
+    boolean updateVertexSelection(final GraphReadMethods graph) {
+        final long modificationCount = graph.getValueModificationCounter(selectedVertexAttributeId);
+        if (modificationCount == vertexSelectionModificationCount && undoCount == graph.getUndoCounter()) {
+            return false;
+        }
+        vertexSelectionModificationCount = modificationCount;
+
+        boolean changed = false;
+        final int vertexCount = graph.getVertexCount();
+        for (int i = 0; i < vertexCount; i++) {
+            final int vertexId = graph.getVertex(i);
+            final boolean selected = graph.getBooleanValue(selectedVertexAttributeId, vertexId);
+            if (selected != vertexSelected[vertexId]) {
+                vertexSelected[vertexId] = selected;
+
+                // only the transactions of this vertex can be affected
+                final int vertexTransactionCount = graph.getVertexTransactionCount(vertexId);
+                for (int j = 0; j < vertexTransactionCount; j++) {
+                    final int transactionId = graph.getVertexTransaction(vertexId, j);
+                    final int position = positions[transactionId];
+                    if (position != NOT_INDEXED) {
+                        final boolean transactionNodesSelected = isNodesSelected(graph, transactionId);
+                        if (transactionNodesSelected != nodesSelected[position]) {
+                            nodesSelected[position] = transactionNodesSelected;
+                            final int delta = transactionNodesSelected ? 1 : -1;
+                            add(nodesSelectedCounts, position, delta);
+                            if (transactionSelected[position]) {
+                                add(selectedNodesSelectedCounts, position, delta);
+                            }
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    private boolean isNodesSelected(final GraphReadMethods graph, final int transactionId) {
+        return vertexSelected[graph.getTransactionSourceVertex(transactionId)]
+                || vertexSelected[graph.getTransactionDestinationVertex(transactionId)];
+    }
+
+    /**
+     * Set whether the tree built on this index only has the selected
+     * transactions, so only the vertices of those transactions count towards
+     * {@link #anyNodesSelected}.
+     *
+     * @param selectedOnly whether only selected transactions are in the tree.
+     */
+    void setSelectedOnly(final boolean selectedOnly) {
+        this.selectedOnly = selectedOnly;
+    }
+
+    int size() {
+        return transactions.length;
+    }
+
+    long getDatetime(final int position) {
+        return datetimes[position];
+    }
+
+    int getTransaction(final int position) {
+        return transactions[position];
+    }
+
+    boolean isSelected(final int position) {
+        return transactionSelected[position];
+    }
+
+    /**
+     * The number of selected transactions between two positions.
+     *
+     * @param lowerPosition the first position, inclusive.
+     * @param upperPosition the last position, inclusive.
+     * @return the number of selected transactions.
+     */
+    int getSelectedCount(final int lowerPosition, final int upperPosition) {
+        return sum(selectedCounts, upperPosition + 1) - sum(selectedCounts, lowerPosition);
+    }
+
+    /**
+     * Whether the vertices of any transaction between two positions are
+     * selected.
+     *
+     * @param lowerPosition the first position, inclusive.
+     * @param upperPosition the last position, inclusive.
+     * @return true if a vertex of any of the transactions is selected.
+     */
+    boolean anyNodesSelected(final int lowerPosition, final int upperPosition) {
+        final int[] counts = selectedOnly ? selectedNodesSelectedCounts : nodesSelectedCounts;
+        return sum(counts, upperPosition + 1) - sum(counts, lowerPosition) > 0;
+    }
+
+    private static void initialise(final int[] counts) {
+        for (int i = 1; i < counts.length; i++) {
+            final int parent = i + (i & -i);
+            if (parent < counts.length) {
+                counts[parent] += counts[i];
+            }
+        }
+    }
+
+    private static void add(final int[] counts, final int position, final int delta) {
+        for (int i = position + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    private static int sum(final int[] counts, final int end) {
+        int sum = 0;
+        for (int i = end; i > 0; i -= i & -i) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    /**
+     * A stable merge sort of transactions by datetime, which returns straight
+     * away when the transactions were added in time order.
+     */
+    private static void sort(final long[] keys, final int[] values) {
+        final int length = keys.length;
+        int sorted = 1;
+        while (sorted < length && keys[sorted - 1] <= keys[sorted]) {
+            sorted++;
+        }
+        if (sorted >= length) {
+            return;
+        }
+
+        long[] keysFrom = keys;
+        int[] valuesFrom = values;
+        long[] keysTo = new long[length];
+        int[] valuesTo = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int start = 0; start < length; start += 2 * width) {
+                final int middle = Math.min(start + width, length);
+                final int end = Math.min(start + 2 * width, length);
+                if (middle == end || keysFrom[middle - 1] <= keysFrom[middle]) {
+                    System.arraycopy(keysFrom, start, keysTo, start, end - start);
+                    System.arraycopy(valuesFrom, start, valuesTo, start, end - start);
+                    continue;
+                }
+                int left = start;
+                int right = middle;
+                for (int i = start; i < end; i++) {
+                    if (right >= end || (left < middle && keysFrom[left] <= keysFrom[right])) {
+                        keysTo[i] = keysFrom[left];
+                        valuesTo[i] = valuesFrom[left++];
+                    } else {
+                        keysTo[i] = keysFrom[right];
+                        valuesTo[i] = valuesFrom[right++];
+                    }
+                }
+            }
+            final long[] keysSwap = keysFrom;
+            keysFrom = keysTo;
+            keysTo = keysSwap;
+            final int[] valuesSwap = valuesFrom;
+            valuesFrom = valuesTo;
+            valuesTo = valuesSwap;
+        }
+        if (keysFrom != keys) {
+            System.arraycopy(keysFrom, 0, keys, 0, length);
+            System.arraycopy(valuesFrom, 0, values, 0, length);
+        }
+    }
+}
@@ -41,6 +41,20 @@ public abstract class TreeElement {
 
     public abstract boolean anyNodesSelected();
 
+    /**
+     * The first position in the {@link TimeIndex} covered by this element.
+     *
+     * @return the first position.
+     */
+    abstract int getLowerPosition();
+
+    /**
+     * The last position in the {@link TimeIndex} covered by this element.
+     *
+     * @return the last position.
+     */
+    abstract int getUpperPosition();
+
     public Interaction getInteraction() {
         return interaction;
     }
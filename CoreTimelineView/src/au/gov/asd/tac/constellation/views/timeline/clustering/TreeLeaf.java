@@ -21,6 +21,9 @@ package au.gov.asd.tac.constellation.views.timeline.clustering;
  */
 public class TreeLeaf extends TreeElement implements Comparable<TreeLeaf> {
 
+    private final TimeIndex index;
+    private final int position;
+
     private final int id;
     private final long datetime;
 
@@ -30,22 +33,15 @@ public class TreeLeaf extends TreeElement implements Comparable<TreeLeaf> {
     int vertexIdA;
     int vertexIdB;
 
-    private int selectionCount = 0;
-    private final boolean nodesSelected;
-
-    TreeLeaf(final int transactionID, final long transactionValue, final boolean isSelected, final boolean nodesSelected, final int lowerDisplayPos,
-            final int upperDisplayPos, final int vertexIdA, final int vertexIdB) {
-        this.id = transactionID;
-        this.datetime = transactionValue;
+    TreeLeaf(final TimeIndex index, final int position, final int lowerDisplayPos, final int upperDisplayPos, final int vertexIdA, final int vertexIdB) {
+        this.index = index;
+        this.position = position;
+        this.id = index.getTransaction(position);
+        this.datetime = index.getDatetime(position);
         this.lowerDisplayPos = lowerDisplayPos;
         this.upperDisplayPos = upperDisplayPos;
         this.vertexIdA = vertexIdA;
         this.vertexIdB = vertexIdB;
-
-        if (isSelected) {
-            selectionCount = 1;
-        }
-        this.nodesSelected = nodesSelected;
     }
 
     public int getId() {
@@ -83,12 +79,22 @@ public class TreeLeaf extends TreeElement implements Comparable<TreeLeaf> {
 
     @Override
     public int getSelectedCount() {
-        return selectionCount;
+        return index.isSelected(position) ? 1 : 0;
     }
 
     @Override
     public boolean anyNodesSelected() {
-        return nodesSelected;
+        return index.anyNodesSelected(position, position);
+    }
+
+    @Override
+    int getLowerPosition() {
+        return position;
+    }
+
+    @Override
+    int getUpperPosition() {
+        return position;
     }
 
     @Override
@@ -27,21 +27,25 @@ public class TreeNode extends TreeElement implements Comparable<TreeNode> {
     TreeNode next;
     TreeNode previous;
 
+    // the selection of the leaves is looked up in the index, so it can change without the tree changing
+    private final TimeIndex index;
+
     private int leafCount;
-    private int selectedLeafCount;
+    private int lowerPosition;
+    private int upperPosition;
     private long lowerTimeExtent;
     private long upperTimeExtent;
     private int lowerDisplayPos;
     private int upperDisplayPos;
-    private boolean nodesSelectedInLeaves;
 
-    public TreeNode(final TreeElement firstChild, final TreeElement lastChild) {
+    TreeNode(final TimeIndex index, final TreeElement firstChild, final TreeElement lastChild) {
+        this.index = index;
         this.firstChild = firstChild;
         this.lastChild = lastChild;
 
         leafCount = firstChild.getCount() + lastChild.getCount();
-        selectedLeafCount = firstChild.getSelectedCount() + lastChild.getSelectedCount();
-        nodesSelectedInLeaves = firstChild.anyNodesSelected() || lastChild.anyNodesSelected();
+        lowerPosition = firstChild.getLowerPosition();
+        upperPosition = lastChild.getUpperPosition();
         lowerTimeExtent = firstChild.getLowerTimeExtent();
         upperTimeExtent = lastChild.getUpperTimeExtent();
         lowerDisplayPos = Math.min(firstChild.getLowerDisplayPos(), lastChild.getLowerDisplayPos());
@@ -63,8 +67,8 @@ public class TreeNode extends TreeElement implements Comparable<TreeNode> {
         this.firstChild = firstChild;
 
         leafCount = firstChild.getCount() + lastChild.getCount();
-        selectedLeafCount = firstChild.getSelectedCount() + lastChild.getSelectedCount();
-        nodesSelectedInLeaves = firstChild.anyNodesSelected() || lastChild.anyNodesSelected();
+        lowerPosition = firstChild.getLowerPosition();
+        upperPosition = lastChild.getUpperPosition();
         lowerTimeExtent = firstChild.getLowerTimeExtent();
         upperTimeExtent = lastChild.getUpperTimeExtent();
 
@@ -76,8 +80,8 @@ public class TreeNode extends TreeElement implements Comparable<TreeNode> {
         this.lastChild = lastChild;
 
         leafCount = firstChild.getCount() + lastChild.getCount();
-        selectedLeafCount = firstChild.getSelectedCount() + lastChild.getSelectedCount();
-        nodesSelectedInLeaves = firstChild.anyNodesSelected() || lastChild.anyNodesSelected();
+        lowerPosition = firstChild.getLowerPosition();
+        upperPosition = lastChild.getUpperPosition();
         lowerTimeExtent = firstChild.getLowerTimeExtent();
         upperTimeExtent = lastChild.getUpperTimeExtent();
 
@@ -112,11 +116,21 @@ public class TreeNode extends TreeElement implements Comparable<TreeNode> {
 
     @Override
     public int getSelectedCount() {
-        return selectedLeafCount;
+        return index.getSelectedCount(lowerPosition, upperPosition);
     }
 
     @Override
     public boolean anyNodesSelected() {
-        return nodesSelectedInLeaves;
+        return index.anyNodesSelected(lowerPosition, upperPosition);
+    }
+
+    @Override
+    int getLowerPosition() {
+        return lowerPosition;
+    }
+
+    @Override
+    int getUpperPosition() {
+        return upperPosition;
     }
 }
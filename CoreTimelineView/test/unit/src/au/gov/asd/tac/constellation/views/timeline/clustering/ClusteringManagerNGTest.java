@@ -0,0 +1,232 @@
+/*
+ * Copyright 2010-2025 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.views.timeline.clustering;
+
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.attribute.ZonedDateTimeAttributeDescription;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
+import au.gov.asd.tac.constellation.graph.schema.SchemaFactoryUtilities;
+import au.gov.asd.tac.constellation.graph.schema.visual.VisualSchemaFactory;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import au.gov.asd.tac.constellation.views.timeline.TimeExtents;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test of ClusteringManager.
+ *
+ * @author algol
+ */
+public class ClusteringManagerNGTest {
+
+    private int datetimeAttribute;
+    private int vertexSelectedAttribute;
+    private int transactionSelectedAttribute;
+
+    private int vxId0;
+    private int vxId1;
+    private int vxId2;
+    private int txId0;
+    private int txId1;
+    private int txId2;
+    private int txId3;
+
+    private StoreGraph graph;
+
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph(SchemaFactoryUtilities.getSchemaFactory(VisualSchemaFactory.VISUAL_SCHEMA_ID).createSchema());
+        datetimeAttribute = graph.addAttribute(GraphElementType.TRANSACTION, ZonedDateTimeAttributeDescription.ATTRIBUTE_NAME, "DateTime",
+                "Datetime when transaction was created", ZonedDateTimeAttributeDescription.DEFAULT_VALUE, null);
+        vertexSelectedAttribute = VisualConcept.VertexAttribute.SELECTED.ensure(graph);
+        transactionSelectedAttribute = VisualConcept.TransactionAttribute.SELECTED.ensure(graph);
+
+        vxId0 = graph.addVertex();
+        vxId1 = graph.addVertex();
+        vxId2 = graph.addVertex();
+
+        // the transactions are added out of time order, and the last has no datetime
+        txId0 = graph.addTransaction(vxId0, vxId1, true);
+        txId1 = graph.addTransaction(vxId1, vxId2, true);
+        txId2 = graph.addTransaction(vxId0, vxId2, true);
+        txId3 = graph.addTransaction(vxId0, vxId1, true);
+        graph.setLongValue(datetimeAttribute, txId0, 3000L);
+        graph.setLongValue(datetimeAttribute, txId1, 1000L);
+        graph.setLongValue(datetimeAttribute, txId2, 2000L);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() throws Exception {
+        graph = null;
+    }
+
+    /**
+     * The tree should have a leaf for every transaction with a datetime, in
+     * time order.
+     */
+    @Test
+    public void testGenerateTree() {
+        System.out.println("testGenerateTree");
+
+        final ClusteringManager instance = new ClusteringManager();
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(1000L, 3000L));
+
+        final TreeElement root = getRoot(instance);
+        assertEquals(root.getCount(), 3);
+        assertEquals(root.getSelectedCount(), 0);
+        assertFalse(root.anyNodesSelected());
+
+        instance.filterTree(0, Long.MIN_VALUE, Long.MAX_VALUE);
+        final Set<TreeElement> leaves = instance.getElementsToDraw();
+        assertEquals(leaves.size(), 3);
+        for (final TreeElement leaf : leaves) {
+            assertEquals(leaf.getLowerTimeExtent(), graph.getLongValue(datetimeAttribute, ((TreeLeaf) leaf).getId()));
+        }
+
+        assertNull(instance.generateTree(graph, "Missing", false));
+    }
+
+    /**
+     * A change of selection should be seen by the existing tree, without
+     * building it again.
+     */
+    @Test
+    public void testSelectionChange() {
+        System.out.println("testSelectionChange");
+
+        final ClusteringManager instance = new ClusteringManager();
+        instance.generateTree(graph, "DateTime", false);
+        final TreeElement root = getRoot(instance);
+
+        graph.setBooleanValue(transactionSelectedAttribute, txId1, true);
+        graph.setBooleanValue(transactionSelectedAttribute, txId3, true);
+        instance.generateTree(graph, "DateTime", false);
+        assertSame(getRoot(instance), root);
+        assertEquals(root.getSelectedCount(), 1);
+        assertFalse(root.anyNodesSelected());
+
+        graph.setBooleanValue(vertexSelectedAttribute, vxId2, true);
+        instance.generateTree(graph, "DateTime", false);
+        assertSame(getRoot(instance), root);
+        assertTrue(root.anyNodesSelected());
+
+        graph.setBooleanValue(transactionSelectedAttribute, txId1, false);
+        graph.setBooleanValue(vertexSelectedAttribute, vxId2, false);
+        instance.generateTree(graph, "DateTime", false);
+        assertSame(getRoot(instance), root);
+        assertEquals(root.getSelectedCount(), 0);
+        assertFalse(root.anyNodesSelected());
+    }
+
+    /**
+     * Only the selected transactions should be in the tree when only they are
+     * shown, and only their vertices should count as selected.
+     */
+    @Test
+    public void testSelectedOnly() {
+        System.out.println("testSelectedOnly");
+
+        graph.setBooleanValue(transactionSelectedAttribute, txId0, true);
+        graph.setBooleanValue(transactionSelectedAttribute, txId2, true);
+
+        final ClusteringManager instance = new ClusteringManager();
+        assertEquals(instance.generateTree(graph, "DateTime", true), new TimeExtents(2000L, 3000L));
+        final TreeElement root = getRoot(instance);
+        assertEquals(root.getCount(), 2);
+        assertEquals(root.getSelectedCount(), 2);
+
+        // 1 and 2 are only joined by a transaction that isn't shown
+        graph.setBooleanValue(vertexSelectedAttribute, vxId1, true);
+        instance.generateTree(graph, "DateTime", true);
+        assertTrue(root.anyNodesSelected());
+        graph.setBooleanValue(vertexSelectedAttribute, vxId1, false);
+        graph.setBooleanValue(vertexSelectedAttribute, vxId2, true);
+        graph.setBooleanValue(transactionSelectedAttribute, txId2, false);
+        assertEquals(instance.generateTree(graph, "DateTime", true), new TimeExtents(3000L, 3000L));
+        assertFalse(getRoot(instance).anyNodesSelected());
+
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(1000L, 3000L));
+        assertEquals(getRoot(instance).getCount(), 3);
+        assertTrue(getRoot(instance).anyNodesSelected());
+    }
+
+    /**
+     * A change to the datetimes, or to the transactions, should build the
+     * tree again.
+     */
+    @Test
+    public void testDatetimeChange() {
+        System.out.println("testDatetimeChange");
+
+        final ClusteringManager instance = new ClusteringManager();
+        instance.generateTree(graph, "DateTime", false);
+        final TreeElement root = getRoot(instance);
+
+        graph.setLongValue(datetimeAttribute, txId3, 4000L);
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(1000L, 4000L));
+        assertNotSame(getRoot(instance), root);
+        assertEquals(getRoot(instance).getCount(), 4);
+
+        graph.removeTransaction(txId1);
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(2000L, 4000L));
+        assertEquals(getRoot(instance).getCount(), 3);
+    }
+
+    /**
+     * An undo returns the modification counters to earlier values, so a later
+     * edit can repeat the counters seen by the tree with different values.
+     */
+    @Test
+    public void testChangeAfterUndo() {
+        System.out.println("testChangeAfterUndo");
+
+        final ClusteringManager instance = new ClusteringManager();
+        graph.setBooleanValue(transactionSelectedAttribute, txId1, true);
+        instance.generateTree(graph, "DateTime", false);
+        assertEquals(getRoot(instance).getSelectedCount(), 1);
+
+        // txId3 has no datetime, so is not in the tree
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.setBooleanValue(transactionSelectedAttribute, txId1, false);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.setBooleanValue(transactionSelectedAttribute, txId3, true);
+        instance.generateTree(graph, "DateTime", false);
+        assertEquals(getRoot(instance).getSelectedCount(), 0);
+
+        graph.setLongValue(datetimeAttribute, txId3, 4000L);
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(1000L, 4000L));
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.clearValue(datetimeAttribute, txId3);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.setLongValue(datetimeAttribute, txId2, 5000L);
+        assertEquals(instance.generateTree(graph, "DateTime", false), new TimeExtents(1000L, 5000L));
+        assertEquals(getRoot(instance).getCount(), 3);
+    }
+
+    private static TreeElement getRoot(final ClusteringManager instance) {
+        instance.filterTree(Double.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+        return instance.getElementsToDraw().iterator().next();
+    }
+}
@@ -241,6 +241,19 @@ public class XmlUtilities {
         return document;
     }
 
+    /**
+     * Wraps an input stream so that control characters, which cannot be parsed
+     * reliably, are replaced with spaces. This is the filtering done by
+     * {@link #read(InputStream, boolean)}, for callers that stream the XML
+     * rather than reading it into a document.
+     *
+     * @param inputStream the input stream to filter.
+     * @return an input stream with control characters replaced by spaces.
+     */
+    public static InputStream filterControlCharacters(final InputStream inputStream) {
+        return new BadCharFilterInputStream(inputStream);
+    }
+
     /**
      * Returns the first node with given tagName
      *
@@ -646,7 +659,7 @@ public class XmlUtilities {
         row.put(columnIndex, value);
     }
 
-    private class BadCharFilterInputStream extends InputStream {
+    private static class BadCharFilterInputStream extends InputStream {
 
         final InputStream in;
 
@@ -71,17 +71,24 @@ public final class BoundingBoxUtilities {
         box.resetMinMax();
         final int nVertices = rg.getVertexCount();
         if (nVertices > 0) {
-            // Primary vertices.
+            // Primary vertices, from the position index if it is already up to date.
+            // Bringing an index up to date just for its bounds costs more than a scan.
             final int xAttr = VisualConcept.VertexAttribute.X.get(rg);
             final int yAttr = VisualConcept.VertexAttribute.Y.get(rg);
             final int zAttr = VisualConcept.VertexAttribute.Z.get(rg);
 
-            for (int position = 0; position < nVertices; position++) {
-                final int vxId = rg.getVertex(position);
-                final float x = rg.getFloatValue(xAttr, vxId);
-                final float y = rg.getFloatValue(yAttr, vxId);
-                final float z = rg.getFloatValue(zAttr, vxId);
-                box.addVertex(x, y, z);
+            final float[] bounds = VertexPositionIndex.getCurrentBounds(rg, false);
+            if (bounds != null) {
+                box.addVertex(bounds[0], bounds[1], bounds[2]);
+                box.addVertex(bounds[3], bounds[4], bounds[5]);
+            } else {
+                for (int position = 0; position < nVertices; position++) {
+                    final int vxId = rg.getVertex(position);
+                    final float x = rg.getFloatValue(xAttr, vxId);
+                    final float y = rg.getFloatValue(yAttr, vxId);
+                    final float z = rg.getFloatValue(zAttr, vxId);
+                    box.addVertex(x, y, z);
+                }
             }
 
             // Secondary vertices.
@@ -89,12 +96,18 @@ public final class BoundingBoxUtilities {
             final int y2Attr = VisualConcept.VertexAttribute.Y2.get(rg);
             final int z2Attr = VisualConcept.VertexAttribute.Z2.get(rg);
             if (x2Attr != Graph.NOT_FOUND && y2Attr != Graph.NOT_FOUND && z2Attr != Graph.NOT_FOUND) {
-                for (int position = 0; position < nVertices; position++) {
-                    final int vxId = rg.getVertex(position);
-                    final float x2 = rg.getFloatValue(x2Attr, vxId);
-                    final float y2 = rg.getFloatValue(y2Attr, vxId);
-                    final float z2 = rg.getFloatValue(z2Attr, vxId);
-                    box.addVertex2(x2, y2, z2);
+                final float[] bounds2 = VertexPositionIndex.getCurrentBounds(rg, true);
+                if (bounds2 != null) {
+                    box.addVertex2(bounds2[0], bounds2[1], bounds2[2]);
+                    box.addVertex2(bounds2[3], bounds2[4], bounds2[5]);
+                } else {
+                    for (int position = 0; position < nVertices; position++) {
+                        final int vxId = rg.getVertex(position);
+                        final float x2 = rg.getFloatValue(x2Attr, vxId);
+                        final float y2 = rg.getFloatValue(y2Attr, vxId);
+                        final float z2 = rg.getFloatValue(z2Attr, vxId);
+                        box.addVertex2(x2, y2, z2);
+                    }
                 }
 
                 if (box.getMin2().isZero() && box.getMax2().isZero()) {
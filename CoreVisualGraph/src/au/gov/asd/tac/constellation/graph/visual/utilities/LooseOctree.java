@@ -0,0 +1,684 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.utilities;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * A loose octree of spheres, identified by small non-negative integers such as
+ * vertex ids.
+ * <p>
+ * Each sphere is kept in the deepest node whose cube contains its centre and
+ * whose children are at least as big as its radius, so a node's spheres may
+ * overhang its cube by up to half its width. Spheres can be inserted, moved
+ * and removed in place, which makes the tree cheap to keep up to date while a
+ * few elements change. Spheres whose centres fall outside the root are kept in
+ * the root until there are enough of them to make rebuilding worthwhile.
+ * <p>
+ * The tree is held in primitive arrays and has no synchronisation of its own.
+ *
+ * @author algol
+ */
+public final class LooseOctree {
+
+    private static final int NONE = -1;
+    private static final int LEAF_CAPACITY = 16;
+    private static final int MAX_DEPTH = 16;
+
+    // The nodes: the centre and half width of each cube, the largest radius ever kept
+    // below it, the first of its eight children, and its own list of elements.
+    private int nodeCount;
+    private float[] nodeX;
+    private float[] nodeY;
+    private float[] nodeZ;
+    private float[] nodeHalf;
+    private float[] nodeReach;
+    private int[] nodeParent;
+    private int[] nodeDepth;
+    private int[] nodeChildren;
+    private int[] nodeHead;
+    private int[] nodeSize;
+    private int[] nodeTotal;
+
+    // The elements, each in a doubly linked list belonging to its node.
+    private float[] elementX;
+    private float[] elementY;
+    private float[] elementZ;
+    private float[] elementR;
+    private int[] elementNode;
+    private int[] elementNext;
+    private int[] elementPrevious;
+
+    private int size;
+
+    // The number of elements outside the root, and how many of them couldn't be
+    // brought inside by the last rebuild because their coordinates aren't finite.
+    private int outside;
+    private int stranded;
+
+    /**
+     * Create an empty tree covering the given bounds.
+     * <p>
+     * The bounds only decide where the tree starts splitting; elements may be
+     * inserted anywhere.
+     *
+     * @param capacity The expected upper bound of the element ids.
+     * @param minX The minimum x coordinate.
+     * @param minY The minimum y coordinate.
+     * @param minZ The minimum z coordinate.
+     * @param maxX The maximum x coordinate.
+     * @param maxY The maximum y coordinate.
+     * @param maxZ The maximum z coordinate.
+     */
+    public LooseOctree(final int capacity, final float minX, final float minY, final float minZ, final float maxX, final float maxY, final float maxZ) {
+        final int elementCapacity = Math.max(capacity, 1);
+        elementX = new float[elementCapacity];
+        elementY = new float[elementCapacity];
+        elementZ = new float[elementCapacity];
+        elementR = new float[elementCapacity];
+        elementNode = new int[elementCapacity];
+        elementNext = new int[elementCapacity];
+        elementPrevious = new int[elementCapacity];
+        Arrays.fill(elementNode, NONE);
+
+        final int initialNodes = 1 + 8 * Math.max(1, elementCapacity / LEAF_CAPACITY);
+        nodeX = new float[initialNodes];
+        nodeY = new float[initialNodes];
+        nodeZ = new float[initialNodes];
+        nodeHalf = new float[initialNodes];
+        nodeReach = new float[initialNodes];
+        nodeParent = new int[initialNodes];
+        nodeDepth = new int[initialNodes];
+        nodeChildren = new int[initialNodes];
+        nodeHead = new int[initialNodes];
+        nodeSize = new int[initialNodes];
+        nodeTotal = new int[initialNodes];
+
+        reset(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    private void reset(final float minX, final float minY, final float minZ, final float maxX, final float maxY, final float maxZ) {
+        nodeCount = 0;
+        outside = 0;
+        stranded = 0;
+        final float half = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ) / 2;
+        addNode(NONE, (minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2, Math.max(half * 1.001F, 1e-3F));
+    }
+
+    private int addNode(final int parent, final float x, final float y, final float z, final float half) {
+        if (nodeCount == nodeX.length) {
+            final int length = nodeCount * 2;
+            nodeX = Arrays.copyOf(nodeX, length);
+            nodeY = Arrays.copyOf(nodeY, length);
+            nodeZ = Arrays.copyOf(nodeZ, length);
+            nodeHalf = Arrays.copyOf(nodeHalf, length);
+            nodeReach = Arrays.copyOf(nodeReach, length);
+            nodeParent = Arrays.copyOf(nodeParent, length);
+            nodeDepth = Arrays.copyOf(nodeDepth, length);
+            nodeChildren = Arrays.copyOf(nodeChildren, length);
+            nodeHead = Arrays.copyOf(nodeHead, length);
+            nodeSize = Arrays.copyOf(nodeSize, length);
+            nodeTotal = Arrays.copyOf(nodeTotal, length);
+        }
+
+        final int node = nodeCount++;
+        nodeX[node] = x;
+        nodeY[node] = y;
+        nodeZ[node] = z;
+        nodeHalf[node] = half;
+        nodeReach[node] = 0;
+        nodeParent[node] = parent;
+        nodeDepth[node] = parent == NONE ? 0 : nodeDepth[parent] + 1;
+        nodeChildren[node] = NONE;
+        nodeHead[node] = NONE;
+        nodeSize[node] = 0;
+        nodeTotal[node] = 0;
+        return node;
+    }
+
+    private void ensureCapacity(final int element) {
+        if (element >= elementNode.length) {
+            final int oldLength = elementNode.length;
+            final int length = Math.max(element + 1, oldLength * 2);
+            elementX = Arrays.copyOf(elementX, length);
+            elementY = Arrays.copyOf(elementY, length);
+            elementZ = Arrays.copyOf(elementZ, length);
+            elementR = Arrays.copyOf(elementR, length);
+            elementNode = Arrays.copyOf(elementNode, length);
+            elementNext = Arrays.copyOf(elementNext, length);
+            elementPrevious = Arrays.copyOf(elementPrevious, length);
+            Arrays.fill(elementNode, oldLength, length, NONE);
+        }
+    }
+
+    /**
+     * The number of elements in the tree.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * One more than the largest element id the tree can currently hold
+     * without growing.
+     *
+     * @return The capacity of the tree.
+     */
+    public int getCapacity() {
+        return elementNode.length;
+    }
+
+    /**
+     * Is the given element in the tree?
+     *
+     * @param element The element id.
+     *
+     * @return True if the element is in the tree.
+     */
+    public boolean contains(final int element) {
+        return element >= 0 && element < elementNode.length && elementNode[element] != NONE;
+    }
+
+    public float getX(final int element) {
+        return elementX[element];
+    }
+
+    public float getY(final int element) {
+        return elementY[element];
+    }
+
+    public float getZ(final int element) {
+        return elementZ[element];
+    }
+
+    public float getRadius(final int element) {
+        return elementR[element];
+    }
+
+    /**
+     * Add an element to the tree, or move it if it is already there.
+     *
+     * @param element The element id.
+     * @param x The x coordinate of the centre of the element.
+     * @param y The y coordinate of the centre of the element.
+     * @param z The z coordinate of the centre of the element.
+     * @param r The radius of the element.
+     */
+    public void insert(final int element, final float x, final float y, final float z, final float r) {
+        ensureCapacity(element);
+        if (elementNode[element] != NONE) {
+            move(element, x, y, z, r);
+            return;
+        }
+
+        elementX[element] = x;
+        elementY[element] = y;
+        elementZ[element] = z;
+        elementR[element] = Math.max(r, 0);
+        size++;
+        place(element, 0);
+
+        if (outside > stranded + Math.max(LEAF_CAPACITY, size / 8)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Move an element of the tree, adding it if it isn't there.
+     *
+     * @param element The element id.
+     * @param x The new x coordinate of the centre of the element.
+     * @param y The new y coordinate of the centre of the element.
+     * @param z The new z coordinate of the centre of the element.
+     * @param r The new radius of the element.
+     */
+    public void move(final int element, final float x, final float y, final float z, final float r) {
+        final int node = element < elementNode.length ? elementNode[element] : NONE;
+        if (node == NONE) {
+            insert(element, x, y, z, r);
+            return;
+        }
+
+        // An element that stays inside its node only needs its coordinates changed.
+        final float radius = Math.max(r, 0);
+        if (node != 0 && inCube(node, x, y, z) && radius <= nodeHalf[node]) {
+            elementX[element] = x;
+            elementY[element] = y;
+            elementZ[element] = z;
+            elementR[element] = radius;
+            for (int n = node; n != NONE && nodeReach[n] < radius; n = nodeParent[n]) {
+                nodeReach[n] = radius;
+            }
+            return;
+        }
+
+        remove(element);
+        insert(element, x, y, z, radius);
+    }
+
+    /**
+     * Remove an element from the tree.
+     *
+     * @param element The element id.
+     *
+     * @return True if the element was in the tree.
+     */
+    public boolean remove(final int element) {
+        if (!contains(element)) {
+            return false;
+        }
+
+        if (elementNode[element] == 0 && !inCube(0, elementX[element], elementY[element], elementZ[element])) {
+            outside--;
+        }
+        detach(element);
+        size--;
+        return true;
+    }
+
+    /**
+     * Rebuild the tree around the elements it currently holds.
+     */
+    public void rebuild() {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        float maxZ = -Float.MAX_VALUE;
+        int count = 0;
+        for (int element = 0; element < elementNode.length; element++) {
+            if (elementNode[element] != NONE && Float.isFinite(elementX[element]) && Float.isFinite(elementY[element]) && Float.isFinite(elementZ[element])) {
+                count++;
+                minX = Math.min(minX, elementX[element]);
+                minY = Math.min(minY, elementY[element]);
+                minZ = Math.min(minZ, elementZ[element]);
+                maxX = Math.max(maxX, elementX[element]);
+                maxY = Math.max(maxY, elementY[element]);
+                maxZ = Math.max(maxZ, elementZ[element]);
+            }
+        }
+        if (count == 0) {
+            minX = minY = minZ = maxX = maxY = maxZ = 0;
+        }
+
+        reset(minX, minY, minZ, maxX, maxY, maxZ);
+        for (int element = 0; element < elementNode.length; element++) {
+            if (elementNode[element] != NONE) {
+                elementNode[element] = NONE;
+                place(element, 0);
+            }
+        }
+        stranded = outside;
+    }
+
+    private boolean inCube(final int node, final float x, final float y, final float z) {
+        final float half = nodeHalf[node];
+        return Math.abs(x - nodeX[node]) <= half && Math.abs(y - nodeY[node]) <= half && Math.abs(z - nodeZ[node]) <= half;
+    }
+
+    private int octant(final int node, final float x, final float y, final float z) {
+        return (x >= nodeX[node] ? 1 : 0) | (y >= nodeY[node] ? 2 : 0) | (z >= nodeZ[node] ? 4 : 0);
+    }
+
+    /**
+     * Put an element in the deepest node below the given node that can hold
+     * it, splitting the node if it has become too full.
+     */
+    private void place(final int element, final int from) {
+        final float x = elementX[element];
+        final float y = elementY[element];
+        final float z = elementZ[element];
+        final float r = elementR[element];
+
+        if (from == 0 && !inCube(0, x, y, z)) {
+            outside++;
+            attach(element, 0);
+            return;
+        }
+
+        int node = from;
+        while (nodeChildren[node] != NONE && r <= nodeHalf[node] / 2) {
+            node = nodeChildren[node] + octant(node, x, y, z);
+        }
+        attach(element, node);
+
+        if (nodeChildren[node] == NONE && nodeSize[node] > LEAF_CAPACITY && nodeDepth[node] < MAX_DEPTH) {
+            split(node);
+        }
+    }
+
+    private void split(final int node) {
+        final float half = nodeHalf[node] / 2;
+        final int first = nodeCount;
+        for (int octant = 0; octant < 8; octant++) {
+            addNode(node,
+                    nodeX[node] + ((octant & 1) != 0 ? half : -half),
+                    nodeY[node] + ((octant & 2) != 0 ? half : -half),
+                    nodeZ[node] + ((octant & 4) != 0 ? half : -half),
+                    half);
+        }
+        nodeChildren[node] = first;
+
+        int element = nodeHead[node];
+        while (element != NONE) {
+            final int next = elementNext[element];
+            if (elementR[element] <= half && (node != 0 || inCube(0, elementX[element], elementY[element], elementZ[element]))) {
+                detach(element);
+                place(element, first + octant(node, elementX[element], elementY[element], elementZ[element]));
+            }
+            element = next;
+        }
+    }
+
+    private void attach(final int element, final int node) {
+        final int head = nodeHead[node];
+        elementNode[element] = node;
+        elementPrevious[element] = NONE;
+        elementNext[element] = head;
+        if (head != NONE) {
+            elementPrevious[head] = element;
+        }
+        nodeHead[node] = element;
+        nodeSize[node]++;
+
+        final float r = elementR[element];
+        for (int n = node; n != NONE; n = nodeParent[n]) {
+            nodeTotal[n]++;
+            if (nodeReach[n] < r) {
+                nodeReach[n] = r;
+            }
+        }
+    }
+
+    private void detach(final int element) {
+        final int node = elementNode[element];
+        final int previous = elementPrevious[element];
+        final int next = elementNext[element];
+        if (previous != NONE) {
+            elementNext[previous] = next;
+        } else {
+            nodeHead[node] = next;
+        }
+        if (next != NONE) {
+            elementPrevious[next] = previous;
+        }
+        nodeSize[node]--;
+        for (int n = node; n != NONE; n = nodeParent[n]) {
+            nodeTotal[n]--;
+        }
+        elementNode[element] = NONE;
+    }
+
+    /**
+     * Visit every element that may intersect a convex region.
+     * <p>
+     * The region is the intersection of the half spaces
+     * {@code a*x + b*y + c*z + d >= 0}, given as consecutive (a, b, c, d)
+     * quadruples. An element is visited if its sphere reaches into every half
+     * space, so every element intersecting the region is visited, along with
+     * a few near its corners. This is enough to cull the elements of a view
+     * frustum before testing them exactly.
+     *
+     * @param planes The half spaces bounding the region.
+     * @param consumer Receives the id of each element.
+     */
+    public void forEachIntersecting(final float[] planes, final IntConsumer consumer) {
+        final int planeCount = planes.length / 4;
+        final float[] norms = new float[planeCount];
+        final float[] spans = new float[planeCount];
+        for (int p = 0; p < planeCount; p++) {
+            final float a = planes[p * 4];
+            final float b = planes[p * 4 + 1];
+            final float c = planes[p * 4 + 2];
+            norms[p] = (float) Math.sqrt(a * a + b * b + c * c);
+            spans[p] = Math.abs(a) + Math.abs(b) + Math.abs(c);
+        }
+
+        final int[] stack = new int[8 * (MAX_DEPTH + 1)];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+
+            // The root may hold elements outside its cube, so it is never culled.
+            if (node != 0) {
+                final float extent = nodeHalf[node];
+                final float reach = nodeReach[node];
+                boolean intersects = true;
+                boolean contained = true;
+                for (int p = 0; p < planeCount && intersects; p++) {
+                    final float distance = planes[p * 4] * nodeX[node] + planes[p * 4 + 1] * nodeY[node] + planes[p * 4 + 2] * nodeZ[node] + planes[p * 4 + 3];
+                    intersects = distance + extent * spans[p] + reach * norms[p] >= 0;
+                    contained &= distance - extent * spans[p] >= 0;
+                }
+                if (!intersects) {
+                    continue;
+                } else if (contained) {
+                    forEachBelow(node, consumer);
+                    continue;
+                } else {
+                    // Do nothing
+                }
+            }
+
+            for (int element = nodeHead[node]; element != NONE; element = elementNext[element]) {
+                boolean inside = true;
+                for (int p = 0; p < planeCount && inside; p++) {
+                    inside = planes[p * 4] * elementX[element] + planes[p * 4 + 1] * elementY[element] + planes[p * 4 + 2] * elementZ[element] + planes[p * 4 + 3]
+                            + elementR[element] * norms[p] >= 0;
+                }
+                if (inside) {
+                    consumer.accept(element);
+                }
+            }
+
+            top = pushChildren(node, stack, top);
+        }
+    }
+
+    /**
+     * Visit every element whose sphere intersects an axis aligned box.
+     *
+     * @param minX The minimum x coordinate of the box.
+     * @param minY The minimum y coordinate of the box.
+     * @param minZ The minimum z coordinate of the box.
+     * @param maxX The maximum x coordinate of the box.
+     * @param maxY The maximum y coordinate of the box.
+     * @param maxZ The maximum z coordinate of the box.
+     * @param consumer Receives the id of each element.
+     */
+    public void forEachInBox(final float minX, final float minY, final float minZ, final float maxX, final float maxY, final float maxZ, final IntConsumer consumer) {
+        final int[] stack = new int[8 * (MAX_DEPTH + 1)];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+            if (node != 0) {
+                final float extent = nodeHalf[node] + nodeReach[node];
+                if (nodeX[node] + extent < minX || nodeX[node] - extent > maxX
+                        || nodeY[node] + extent < minY || nodeY[node] - extent > maxY
+                        || nodeZ[node] + extent < minZ || nodeZ[node] - extent > maxZ) {
+                    continue;
+                }
+
+                // Every centre in a cube inside the box is inside the box.
+                final float half = nodeHalf[node];
+                if (nodeX[node] - half >= minX && nodeX[node] + half <= maxX
+                        && nodeY[node] - half >= minY && nodeY[node] + half <= maxY
+                        && nodeZ[node] - half >= minZ && nodeZ[node] + half <= maxZ) {
+                    forEachBelow(node, consumer);
+                    continue;
+                }
+            }
+
+            for (int element = nodeHead[node]; element != NONE; element = elementNext[element]) {
+                final float dx = elementX[element] - clamp(elementX[element], minX, maxX);
+                final float dy = elementY[element] - clamp(elementY[element], minY, maxY);
+                final float dz = elementZ[element] - clamp(elementZ[element], minZ, maxZ);
+                if (dx * dx + dy * dy + dz * dz <= elementR[element] * elementR[element]) {
+                    consumer.accept(element);
+                }
+            }
+
+            top = pushChildren(node, stack, top);
+        }
+    }
+
+    /**
+     * Visit every element whose sphere comes within a distance of a point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @param distance The distance from the point.
+     * @param consumer Receives the id of each element.
+     */
+    public void forEachWithin(final float x, final float y, final float z, final float distance, final IntConsumer consumer) {
+        final int[] stack = new int[8 * (MAX_DEPTH + 1)];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            final int node = stack[--top];
+            if (node != 0) {
+                final float reach = distance + nodeReach[node];
+                if (distanceSquaredToCube(node, x, y, z) > reach * reach) {
+                    continue;
+                }
+            }
+
+            for (int element = nodeHead[node]; element != NONE; element = elementNext[element]) {
+                final float dx = elementX[element] - x;
+                final float dy = elementY[element] - y;
+                final float dz = elementZ[element] - z;
+                final float reach = distance + elementR[element];
+                if (dx * dx + dy * dy + dz * dz <= reach * reach) {
+                    consumer.accept(element);
+                }
+            }
+
+            top = pushChildren(node, stack, top);
+        }
+    }
+
+    /**
+     * Find the elements whose centres are nearest to a point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @param k The number of elements to find.
+     *
+     * @return The ids of up to k elements, nearest first.
+     */
+    public int[] nearest(final float x, final float y, final float z, final int k) {
+        if (k <= 0 || size == 0) {
+            return new int[0];
+        }
+
+        // Nodes are searched nearest first; their distances are fixed when they are queued.
+        final float[] nodeDistances = new float[nodeCount];
+        final PriorityQueue<Integer> nodes = new PriorityQueue<>(Comparator.comparingDouble(node -> nodeDistances[node]));
+        final PriorityQueue<Integer> found = new PriorityQueue<>(Comparator.comparingDouble((Integer element) -> distanceSquared(element, x, y, z)).reversed());
+        nodes.add(0);
+        while (!nodes.isEmpty()) {
+            final int node = nodes.poll();
+            if (found.size() == k && nodeDistances[node] > distanceSquared(found.peek(), x, y, z)) {
+                break;
+            }
+
+            for (int element = nodeHead[node]; element != NONE; element = elementNext[element]) {
+                if (found.size() < k) {
+                    found.add(element);
+                } else if (distanceSquared(element, x, y, z) < distanceSquared(found.peek(), x, y, z)) {
+                    found.poll();
+                    found.add(element);
+                } else {
+                    // Do nothing
+                }
+            }
+
+            final int first = nodeChildren[node];
+            if (first != NONE) {
+                for (int child = first; child < first + 8; child++) {
+                    if (nodeTotal[child] > 0) {
+                        nodeDistances[child] = distanceSquaredToCube(child, x, y, z);
+                        nodes.add(child);
+                    }
+                }
+            }
+        }
+
+        final int[] elements = new int[found.size()];
+        for (int i = elements.length - 1; i >= 0; i--) {
+            elements[i] = found.poll();
+        }
+        return elements;
+    }
+
+    /**
+     * Visit every element in a node and its descendants.
+     */
+    private void forEachBelow(final int node, final IntConsumer consumer) {
+        final int[] stack = new int[8 * (MAX_DEPTH + 1)];
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0) {
+            final int below = stack[--top];
+            for (int element = nodeHead[below]; element != NONE; element = elementNext[element]) {
+                consumer.accept(element);
+            }
+            top = pushChildren(below, stack, top);
+        }
+    }
+
+    private int pushChildren(final int node, final int[] stack, final int top) {
+        int newTop = top;
+        final int first = nodeChildren[node];
+        if (first != NONE) {
+            for (int child = first; child < first + 8; child++) {
+                if (nodeTotal[child] > 0) {
+                    stack[newTop++] = child;
+                }
+            }
+        }
+        return newTop;
+    }
+
+    private float distanceSquared(final int element, final float x, final float y, final float z) {
+        final float dx = elementX[element] - x;
+        final float dy = elementY[element] - y;
+        final float dz = elementZ[element] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private float distanceSquaredToCube(final int node, final float x, final float y, final float z) {
+        final float half = nodeHalf[node];
+        final float dx = Math.max(Math.abs(x - nodeX[node]) - half, 0);
+        final float dy = Math.max(Math.abs(y - nodeY[node]) - half, 0);
+        final float dz = Math.max(Math.abs(z - nodeZ[node]) - half, 0);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static float clamp(final float value, final float min, final float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.utilities;
+
+import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * A spatial index of the vertices of a graph, shared by the plugins that need
+ * to find vertices by where they are drawn.
+ * <p>
+ * The index holds each vertex as a sphere in a {@link LooseOctree}, using
+ * either the x, y and z attributes or the alternate x2, y2 and z2 attributes,
+ * and the node radius. Indices are kept for the most recently used graphs. When
+ * the structure of a graph or the values of any of these attributes have
+ * changed according to their modification counters, the vertices that have
+ * moved are moved in the tree; the tree is only rebuilt when most of the
+ * vertices have moved. An undo can return the counters to earlier values, so
+ * any undo since the last update is treated as a change to the structure.
+ * <p>
+ * Queries and updates are synchronised on the index, so an index may be used
+ * by several plugins reading the same graph. Updating the index of one graph
+ * doesn't hold up the indices of other graphs.
+ *
+ * @author algol
+ */
+public final class VertexPositionIndex {
+
+    private static final int MAX_CACHED_GRAPHS = 4;
+
+    private static final Map<String, VertexPositionIndex> INDICES = new LinkedHashMap<>(MAX_CACHED_GRAPHS * 2, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, VertexPositionIndex> eldest) {
+            return size() > MAX_CACHED_GRAPHS * 2;
+        }
+    };
+
+    private LooseOctree tree = null;
+
+    private int xAttribute = Graph.NOT_FOUND;
+    private int yAttribute = Graph.NOT_FOUND;
+    private int zAttribute = Graph.NOT_FOUND;
+    private int radiusAttribute = Graph.NOT_FOUND;
+
+    private long structureModificationCounter;
+    private long xModificationCounter;
+    private long yModificationCounter;
+    private long zModificationCounter;
+    private long radiusModificationCounter;
+    private long undoCounter;
+
+    // minimum x, y, z then maximum x, y, z of the vertex centres, or null if they have changed
+    private float[] bounds = null;
+
+    private VertexPositionIndex() {
+    }
+
+    /**
+     * Get the index of the vertex positions of a graph, bringing it up to date
+     * with the graph if necessary.
+     * <p>
+     * The caller should hold a lock on the graph while calling this method and
+     * while querying the index.
+     *
+     * @param graph The graph.
+     * @param alternate If true, index the x2, y2 and z2 attributes rather than
+     * the x, y and z attributes.
+     *
+     * @return The index, or null if the graph doesn't have the position
+     * attributes.
+     */
+    public static VertexPositionIndex getIndex(final GraphReadMethods graph, final boolean alternate) {
+        final int xAttr = (alternate ? VisualConcept.VertexAttribute.X2 : VisualConcept.VertexAttribute.X).get(graph);
+        final int yAttr = (alternate ? VisualConcept.VertexAttribute.Y2 : VisualConcept.VertexAttribute.Y).get(graph);
+        final int zAttr = (alternate ? VisualConcept.VertexAttribute.Z2 : VisualConcept.VertexAttribute.Z).get(graph);
+        if (xAttr == Graph.NOT_FOUND || yAttr == Graph.NOT_FOUND || zAttr == Graph.NOT_FOUND) {
+            return null;
+        }
+        final int radiusAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
+
+        final String key = alternate ? graph.getId() + "#alternate" : graph.getId();
+        final VertexPositionIndex index;
+        synchronized (INDICES) {
+            index = INDICES.computeIfAbsent(key, k -> new VertexPositionIndex());
+        }
+
+        // Updating the index can take a while, so other graphs shouldn't wait for it.
+        index.update(graph, xAttr, yAttr, zAttr, radiusAttr);
+        return index;
+    }
+
+    /**
+     * Get the bounds of the vertex centres of a graph from its index, only if
+     * the index is already up to date with the graph.
+     * <p>
+     * This is for callers that can find the bounds another way, for whom
+     * bringing the index up to date would cost more than it saves.
+     *
+     * @param graph The graph.
+     * @param alternate If true, get the bounds of the x2, y2 and z2 attributes
+     * rather than the x, y and z attributes.
+     *
+     * @return The minimum x, y and z followed by the maximum x, y and z of the
+     * vertex centres, or null if there is no index of the graph that is up to
+     * date or there are no vertices.
+     */
+    public static float[] getCurrentBounds(final GraphReadMethods graph, final boolean alternate) {
+        final int xAttr = (alternate ? VisualConcept.VertexAttribute.X2 : VisualConcept.VertexAttribute.X).get(graph);
+        final int yAttr = (alternate ? VisualConcept.VertexAttribute.Y2 : VisualConcept.VertexAttribute.Y).get(graph);
+        final int zAttr = (alternate ? VisualConcept.VertexAttribute.Z2 : VisualConcept.VertexAttribute.Z).get(graph);
+        if (xAttr == Graph.NOT_FOUND || yAttr == Graph.NOT_FOUND || zAttr == Graph.NOT_FOUND) {
+            return null;
+        }
+        final int radiusAttr = VisualConcept.VertexAttribute.NODE_RADIUS.get(graph);
+
+        final VertexPositionIndex index;
+        synchronized (INDICES) {
+            index = INDICES.get(alternate ? graph.getId() + "#alternate" : graph.getId());
+        }
+        if (index == null) {
+            return null;
+        }
+        synchronized (index) {
+            return index.isCurrent(graph, xAttr, yAttr, zAttr, radiusAttr) ? index.getBounds() : null;
+        }
+    }
+
+    private boolean isCurrent(final GraphReadMethods graph, final int xAttr, final int yAttr, final int zAttr, final int radiusAttr) {
+        return tree != null && xAttr == xAttribute && yAttr == yAttribute && zAttr == zAttribute && radiusAttr == radiusAttribute
+                && !isStructureChanged(graph) && !isPositionChanged(graph);
+    }
+
+    private boolean isStructureChanged(final GraphReadMethods graph) {
+        return structureModificationCounter != graph.getStructureModificationCounter()
+                || undoCounter != graph.getUndoCounter();
+    }
+
+    private boolean isPositionChanged(final GraphReadMethods graph) {
+        return xModificationCounter != graph.getValueModificationCounter(xAttribute)
+                || yModificationCounter != graph.getValueModificationCounter(yAttribute)
+                || zModificationCounter != graph.getValueModificationCounter(zAttribute)
+                || (radiusAttribute != Graph.NOT_FOUND && radiusModificationCounter != graph.getValueModificationCounter(radiusAttribute));
+    }
+
+    private synchronized void update(final GraphReadMethods graph, final int xAttr, final int yAttr, final int zAttr, final int radiusAttr) {
+        if (tree == null || xAttr != xAttribute || yAttr != yAttribute || zAttr != zAttribute || radiusAttr != radiusAttribute) {
+            xAttribute = xAttr;
+            yAttribute = yAttr;
+            zAttribute = zAttr;
+            radiusAttribute = radiusAttr;
+            rebuild(graph);
+            return;
+        }
+
+        final boolean structureChanged = isStructureChanged(graph);
+        if (!structureChanged && !isPositionChanged(graph)) {
+            return;
+        }
+
+        // Moving more than a quarter of the vertices costs more than starting again.
+        final int vertexCount = graph.getVertexCount();
+        final int maxChanges = Math.max(64, vertexCount / 4);
+        int changes = 0;
+        if (structureChanged) {
+            for (int vxId = 0; vxId < tree.getCapacity(); vxId++) {
+                if (tree.contains(vxId) && !graph.vertexExists(vxId)) {
+                    tree.remove(vxId);
+                    changes++;
+                }
+            }
+        }
+        for (int position = 0; position < vertexCount && changes <= maxChanges; position++) {
+            final int vxId = graph.getVertex(position);
+            final float x = graph.getFloatValue(xAttribute, vxId);
+            final float y = graph.getFloatValue(yAttribute, vxId);
+            final float z = graph.getFloatValue(zAttribute, vxId);
+            final float r = getRadius(graph, vxId);
+            if (!tree.contains(vxId) || tree.getX(vxId) != x || tree.getY(vxId) != y || tree.getZ(vxId) != z || tree.getRadius(vxId) != r) {
+                tree.move(vxId, x, y, z, r);
+                changes++;
+            }
+        }
+
+        if (changes > maxChanges) {
+            rebuild(graph);
+        } else {
+            recordCounters(graph);
+            if (changes > 0) {
+                bounds = null;
+            }
+        }
+    }
+
+    private void rebuild(final GraphReadMethods graph) {
+        final int vertexCount = graph.getVertexCount();
+        final float[] xs = new float[vertexCount];
+        final float[] ys = new float[vertexCount];
+        final float[] zs = new float[vertexCount];
+        float minX = 0;
+        float minY = 0;
+        float minZ = 0;
+        float maxX = 0;
+        float maxY = 0;
+        float maxZ = 0;
+        for (int position = 0; position < vertexCount; position++) {
+            final int vxId = graph.getVertex(position);
+            xs[position] = graph.getFloatValue(xAttribute, vxId);
+            ys[position] = graph.getFloatValue(yAttribute, vxId);
+            zs[position] = graph.getFloatValue(zAttribute, vxId);
+            if (position == 0) {
+                minX = maxX = xs[position];
+                minY = maxY = ys[position];
+                minZ = maxZ = zs[position];
+            } else {
+                minX = Math.min(minX, xs[position]);
+                minY = Math.min(minY, ys[position]);
+                minZ = Math.min(minZ, zs[position]);
+                maxX = Math.max(maxX, xs[position]);
+                maxY = Math.max(maxY, ys[position]);
+                maxZ = Math.max(maxZ, zs[position]);
+            }
+        }
+
+        tree = new LooseOctree(graph.getVertexCapacity(), minX, minY, minZ, maxX, maxY, maxZ);
+        for (int position = 0; position < vertexCount; position++) {
+            final int vxId = graph.getVertex(position);
+            tree.insert(vxId, xs[position], ys[position], zs[position], getRadius(graph, vxId));
+        }
+        bounds = vertexCount > 0 ? new float[]{minX, minY, minZ, maxX, maxY, maxZ} : null;
+        recordCounters(graph);
+    }
+
+    private void recordCounters(final GraphReadMethods graph) {
+        structureModificationCounter = graph.getStructureModificationCounter();
+        xModificationCounter = graph.getValueModificationCounter(xAttribute);
+        yModificationCounter = graph.getValueModificationCounter(yAttribute);
+        zModificationCounter = graph.getValueModificationCounter(zAttribute);
+        radiusModificationCounter = radiusAttribute != Graph.NOT_FOUND ? graph.getValueModificationCounter(radiusAttribute) : 0;
+        undoCounter = graph.getUndoCounter();
+    }
+
+    private float getRadius(final GraphReadMethods graph, final int vxId) {
+        return radiusAttribute != Graph.NOT_FOUND ? graph.getFloatValue(radiusAttribute, vxId) : 1;
+    }
+
+    /**
+     * The number of vertices in the index.
+     *
+     * @return The number of vertices.
+     */
+    public synchronized int getVertexCount() {
+        return tree.size();
+    }
+
+    /**
+     * Get the bounds of the vertex centres.
+     *
+     * @return The minimum x, y and z followed by the maximum x, y and z of the
+     * vertex centres, or null if there are no vertices.
+     */
+    public synchronized float[] getBounds() {
+        if (bounds == null && tree.size() > 0) {
+            final float[] b = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+            for (int vxId = 0; vxId < tree.getCapacity(); vxId++) {
+                if (tree.contains(vxId)) {
+                    b[0] = Math.min(b[0], tree.getX(vxId));
+                    b[1] = Math.min(b[1], tree.getY(vxId));
+                    b[2] = Math.min(b[2], tree.getZ(vxId));
+                    b[3] = Math.max(b[3], tree.getX(vxId));
+                    b[4] = Math.max(b[4], tree.getY(vxId));
+                    b[5] = Math.max(b[5], tree.getZ(vxId));
+                }
+            }
+            bounds = b;
+        }
+        return bounds != null ? bounds.clone() : null;
+    }
+
+    /**
+     * Visit every vertex that may intersect a convex region.
+     *
+     * @param planes The half spaces {@code a*x + b*y + c*z + d >= 0} bounding
+     * the region, as consecutive (a, b, c, d) quadruples.
+     * @param consumer Receives the id of each vertex.
+     *
+     * @see LooseOctree#forEachIntersecting(float[], IntConsumer)
+     */
+    public synchronized void forEachIntersecting(final float[] planes, final IntConsumer consumer) {
+        tree.forEachIntersecting(planes, consumer);
+    }
+
+    /**
+     * Visit every vertex that intersects an axis aligned box.
+     *
+     * @param minX The minimum x coordinate of the box.
+     * @param minY The minimum y coordinate of the box.
+     * @param minZ The minimum z coordinate of the box.
+     * @param maxX The maximum x coordinate of the box.
+     * @param maxY The maximum y coordinate of the box.
+     * @param maxZ The maximum z coordinate of the box.
+     * @param consumer Receives the id of each vertex.
+     */
+    public synchronized void forEachInBox(final float minX, final float minY, final float minZ, final float maxX, final float maxY, final float maxZ, final IntConsumer consumer) {
+        tree.forEachInBox(minX, minY, minZ, maxX, maxY, maxZ, consumer);
+    }
+
+    /**
+     * Find the vertices whose centres are nearest to a point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @param k The number of vertices to find.
+     *
+     * @return The ids of up to k vertices, nearest first.
+     */
+    public synchronized int[] nearest(final float x, final float y, final float z, final int k) {
+        return tree.nearest(x, y, z, k);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.utilities;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Loose Octree Test.
+ *
+ * @author algol
+ */
+public class LooseOctreeNGTest {
+
+    private static final int COUNT = 2000;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] rs;
+    private LooseOctree tree;
+
+    /**
+     * Spheres of varied sizes scattered through a cube 100 wide, with a few
+     * large ones.
+     */
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        final Random random = new Random(42);
+        xs = new float[COUNT];
+        ys = new float[COUNT];
+        zs = new float[COUNT];
+        rs = new float[COUNT];
+        tree = new LooseOctree(COUNT, 0, 0, 0, 100, 100, 100);
+        for (int i = 0; i < COUNT; i++) {
+            xs[i] = random.nextFloat() * 100;
+            ys[i] = random.nextFloat() * 100;
+            zs[i] = random.nextFloat() * 100;
+            rs[i] = i % 100 == 0 ? 20 : random.nextFloat() * 2;
+            tree.insert(i, xs[i], ys[i], zs[i], rs[i]);
+        }
+    }
+
+    private BitSet within(final float x, final float y, final float z, final float distance) {
+        final BitSet expected = new BitSet();
+        for (int i = 0; i < COUNT; i++) {
+            if (tree.contains(i)) {
+                final float dx = xs[i] - x;
+                final float dy = ys[i] - y;
+                final float dz = zs[i] - z;
+                final float reach = distance + rs[i];
+                if (dx * dx + dy * dy + dz * dz <= reach * reach) {
+                    expected.set(i);
+                }
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * A sphere query should find exactly the spheres it reaches.
+     */
+    @Test
+    public void testForEachWithin() {
+        System.out.println("testForEachWithin");
+        final BitSet found = new BitSet();
+        tree.forEachWithin(30, 40, 50, 10, found::set);
+        assertEquals(found, within(30, 40, 50, 10));
+        assertTrue(found.cardinality() > 0);
+    }
+
+    /**
+     * A box query should find exactly the spheres that touch the box.
+     */
+    @Test
+    public void testForEachInBox() {
+        System.out.println("testForEachInBox");
+        final BitSet expected = new BitSet();
+        for (int i = 0; i < COUNT; i++) {
+            final float dx = xs[i] - Math.max(10, Math.min(30, xs[i]));
+            final float dy = ys[i] - Math.max(20, Math.min(25, ys[i]));
+            final float dz = zs[i] - Math.max(0, Math.min(100, zs[i]));
+            if (dx * dx + dy * dy + dz * dz <= rs[i] * rs[i]) {
+                expected.set(i);
+            }
+        }
+
+        final BitSet found = new BitSet();
+        tree.forEachInBox(10, 20, 0, 30, 25, 100, found::set);
+        assertEquals(found, expected);
+    }
+
+    /**
+     * A convex query should find every sphere that intersects the region.
+     */
+    @Test
+    public void testForEachIntersecting() {
+        System.out.println("testForEachIntersecting");
+
+        // The slab 40 <= x <= 60 as two planes.
+        final float[] planes = {1, 0, 0, -40, -1, 0, 0, 60};
+        final BitSet found = new BitSet();
+        tree.forEachIntersecting(planes, found::set);
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(found.get(i), xs[i] + rs[i] >= 40 && xs[i] - rs[i] <= 60);
+        }
+    }
+
+    /**
+     * The nearest elements should be found in order of distance.
+     */
+    @Test
+    public void testNearest() {
+        System.out.println("testNearest");
+        final int[] nearest = tree.nearest(50, 50, 50, 10);
+        assertEquals(nearest.length, 10);
+
+        float previous = 0;
+        for (final int element : nearest) {
+            final float distance = distance(element, 50, 50, 50);
+            assertTrue(distance >= previous);
+            previous = distance;
+        }
+        for (int i = 0; i < COUNT; i++) {
+            final int element = i;
+            if (Arrays.stream(nearest).noneMatch(e -> e == element)) {
+                assertTrue(distance(i, 50, 50, 50) >= previous);
+            }
+        }
+    }
+
+    private float distance(final int element, final float x, final float y, final float z) {
+        final float dx = xs[element] - x;
+        final float dy = ys[element] - y;
+        final float dz = zs[element] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Moved and removed elements should be found where they are now, including
+     * elements moved outside the original bounds.
+     */
+    @Test
+    public void testMoveAndRemove() {
+        System.out.println("testMoveAndRemove");
+        for (int i = 0; i < COUNT; i += 3) {
+            xs[i] = xs[i] * 3 - 100;
+            zs[i] = -zs[i];
+            tree.move(i, xs[i], ys[i], zs[i], rs[i]);
+        }
+        for (int i = 1; i < COUNT; i += 7) {
+            assertTrue(tree.remove(i));
+        }
+        assertFalse(tree.remove(1));
+        assertFalse(tree.contains(1));
+        assertEquals(tree.size(), COUNT - (COUNT + 5) / 7);
+
+        for (final float[] point : new float[][]{{-50, 50, -50}, {150, 20, -10}, {50, 50, 50}}) {
+            final BitSet found = new BitSet();
+            tree.forEachWithin(point[0], point[1], point[2], 25, found::set);
+            assertEquals(found, within(point[0], point[1], point[2], 25));
+        }
+
+        tree.rebuild();
+        final BitSet found = new BitSet();
+        tree.forEachWithin(-50, 50, -50, 25, found::set);
+        assertEquals(found, within(-50, 50, -50, 25));
+    }
+}
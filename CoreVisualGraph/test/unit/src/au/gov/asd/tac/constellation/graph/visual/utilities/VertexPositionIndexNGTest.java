@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.graph.visual.utilities;
+
+import au.gov.asd.tac.constellation.graph.StoreGraph;
+import au.gov.asd.tac.constellation.graph.locking.GraphOperationMode;
+import au.gov.asd.tac.constellation.graph.schema.visual.concept.VisualConcept;
+import java.util.BitSet;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Vertex Position Index Test.
+ *
+ * @author algol
+ */
+public class VertexPositionIndexNGTest {
+
+    private StoreGraph graph;
+    private int xAttr;
+    private int yAttr;
+    private int zAttr;
+    private int[] vxIds;
+
+    /**
+     * A row of ten vertices along the x axis, one unit apart.
+     */
+    @BeforeMethod
+    public void setUpMethod() throws Exception {
+        graph = new StoreGraph();
+        xAttr = VisualConcept.VertexAttribute.X.ensure(graph);
+        yAttr = VisualConcept.VertexAttribute.Y.ensure(graph);
+        zAttr = VisualConcept.VertexAttribute.Z.ensure(graph);
+        VisualConcept.VertexAttribute.NODE_RADIUS.ensure(graph);
+
+        vxIds = new int[10];
+        for (int i = 0; i < vxIds.length; i++) {
+            vxIds[i] = graph.addVertex();
+            graph.setFloatValue(xAttr, vxIds[i], i * 10F);
+        }
+    }
+
+    private BitSet inBox(final VertexPositionIndex index, final float minX, final float maxX) {
+        final BitSet found = new BitSet();
+        index.forEachInBox(minX, -1, -1, maxX, 1, 1, found::set);
+        return found;
+    }
+
+    /**
+     * The index should follow vertices as they are moved, added and removed.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("testUpdate");
+        final VertexPositionIndex index = VertexPositionIndex.getIndex(graph, false);
+        assertEquals(index.getVertexCount(), 10);
+        assertEquals(inBox(index, 15, 35), BitSet.valueOf(new long[]{(1L << vxIds[2]) | (1L << vxIds[3])}));
+
+        graph.setFloatValue(xAttr, vxIds[9], 25F);
+        graph.removeVertex(vxIds[3]);
+        final int vxId = graph.addVertex();
+        graph.setFloatValue(xAttr, vxId, 500F);
+        graph.setFloatValue(yAttr, vxId, 500F);
+        graph.setFloatValue(zAttr, vxId, 500F);
+
+        assertSame(VertexPositionIndex.getIndex(graph, false), index);
+        assertEquals(index.getVertexCount(), 10);
+        assertEquals(inBox(index, 15, 35), BitSet.valueOf(new long[]{(1L << vxIds[2]) | (1L << vxIds[9])}));
+        assertEquals(index.nearest(499, 499, 499, 1)[0], vxId);
+        assertEquals(index.getBounds(), new float[]{0, 0, 0, 500, 500, 500});
+    }
+
+    /**
+     * A move after an undo can bring the modification counters back to the
+     * values the index last saw, and should still be followed.
+     */
+    @Test
+    public void testUpdateAfterUndo() {
+        System.out.println("testUpdateAfterUndo");
+        final VertexPositionIndex index = VertexPositionIndex.getIndex(graph, false);
+        graph.setFloatValue(xAttr, vxIds[2], 100F);
+        assertSame(VertexPositionIndex.getIndex(graph, false), index);
+        assertEquals(inBox(index, 15, 35), BitSet.valueOf(new long[]{1L << vxIds[3]}));
+
+        graph.setOperationMode(GraphOperationMode.UNDO);
+        graph.setFloatValue(xAttr, vxIds[2], 20F);
+        graph.setOperationMode(GraphOperationMode.EXECUTE);
+        graph.setFloatValue(xAttr, vxIds[5], 25F);
+
+        assertSame(VertexPositionIndex.getIndex(graph, false), index);
+        assertEquals(inBox(index, 15, 35), BitSet.valueOf(new long[]{(1L << vxIds[2]) | (1L << vxIds[3]) | (1L << vxIds[5])}));
+    }
+
+    /**
+     * Bounds should only come from an index that is already up to date.
+     */
+    @Test
+    public void testCurrentBounds() {
+        System.out.println("testCurrentBounds");
+        assertNull(VertexPositionIndex.getCurrentBounds(graph, false));
+
+        VertexPositionIndex.getIndex(graph, false);
+        assertEquals(VertexPositionIndex.getCurrentBounds(graph, false), new float[]{0, 0, 0, 90, 0, 0});
+
+        graph.setFloatValue(xAttr, vxIds[9], 200F);
+        assertNull(VertexPositionIndex.getCurrentBounds(graph, false));
+
+        VertexPositionIndex.getIndex(graph, false);
+        assertEquals(VertexPositionIndex.getCurrentBounds(graph, false), new float[]{0, 0, 0, 200, 0, 0});
+        assertNull(VertexPositionIndex.getCurrentBounds(graph, true));
+    }
+
+    /**
+     * There is no alternate index without alternate positions.
+     */
+    @Test
+    public void testMissingAttributes() {
+        System.out.println("testMissingAttributes");
+        assertNull(VertexPositionIndex.getIndex(graph, true));
+    }
+}
@@ -225,10 +225,12 @@ public class VisualConcept extends SchemaConcept {
                 .build();
         public static final SchemaAttribute IDENTIFIER = new SchemaAttribute.Builder(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "Identifier")
                 .setDescription("The identifier of the node")
+                .setIndexType(GraphIndexType.UNORDERED)
                 .create()
                 .build();
         public static final SchemaAttribute LABEL = new SchemaAttribute.Builder(GraphElementType.VERTEX, StringAttributeDescription.ATTRIBUTE_NAME, "Label")
                 .setDescription("The label of the vertex")
+                .setIndexType(GraphIndexType.UNORDERED)
                 .create()
                 .build();
         public static final SchemaAttribute LABEL_RADIUS = new SchemaAttribute.Builder(GraphElementType.VERTEX, FloatAttributeDescription.ATTRIBUTE_NAME, "lradius")
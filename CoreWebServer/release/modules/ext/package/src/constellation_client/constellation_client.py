@@ -9,6 +9,7 @@ import os
 import requests
 import pandas as pd
 from pathlib import Path
+import struct
 import subprocess
 import sys
 import tempfile
@@ -21,7 +22,7 @@ import io
 # For example, if a new function is added, clients that require that function
 # to be present can check the version.
 #
-__version__ = 20240711
+__version__ = 20261018
 
 # The HTTP header to be used to convey the server secret (if HTTP is used).
 #
@@ -30,6 +31,17 @@ _PORT = 'port'
 
 _DEFAULT_PORT = 1517
 
+# The MIME type of the columnar RecordStore format, and the numpy dtypes of
+# its numeric column types.
+#
+_COLUMNAR = 'application/x-constellation-recordstore'
+_COLUMNAR_MAGIC = b'CRS1'
+_COLUMNAR_DTYPES = {0: '<i4', 1: '<i8', 2: '<f4', 3: '<f8'}
+_COLUMNAR_BOOLEAN = 4
+_COLUMNAR_STRING = 5
+_COLUMNAR_TYPES = {'integer': 0, 'long': 1, 'float': 2, 'double': 3, 'boolean': 4}
+_COLUMNAR_BATCH = 65536
+
 # The environment variable that contains the transport to be used.
 #
 ENV_VAR = 'CONSTELLATION_TRANSPORT'
@@ -447,6 +459,10 @@ class Constellation:
         :param attrs: A list of attribute names. If specified, only the
             listed attributes will be fetched.
         :param graph_id: The id of the graph to get data from.
+        :param columnar: If True, fetch the data in CONSTELLATION's binary
+            columnar format instead of JSON. This is much faster for large
+            graphs, and numeric and boolean columns are not converted to and
+            from text.
 
         :returns: A DataFrame containing the requested data.
         """
@@ -459,6 +475,11 @@ class Constellation:
                     value = ','.join(value)
                 args[arg] = value
 
+        if kwargs.get('columnar', False):
+            args['format'] = 'columnar'
+            df, self.types = _read_columnar(self.get_data(args))
+            return df
+
         data = self.get_data(args)
 
         # We can't create a DataFrame if there is no data.
@@ -507,6 +528,11 @@ class Constellation:
         :param reset_view: By default, CONSTELLATION will reset the view.
         Specify False to not do this.
         :param graph_id: The id of the graph to be updated.
+        :param columnar: If True, send the data in CONSTELLATION's binary
+        columnar format instead of JSON. Column names may include a
+        CONSTELLATION type, as in 'source.Count<integer>'; otherwise boolean,
+        integer and float columns are sent as boolean, integer (or long) and
+        double values, and all other columns are sent as strings.
         """
 
         args = {}
@@ -514,6 +540,11 @@ class Constellation:
             if arg in kwargs:
                 args[arg] = kwargs[arg]
 
+        if kwargs.get('columnar', False):
+            args['format'] = 'columnar'
+            self.call_service('add_recordstore', verb='post', args=args, data=_write_columnar(df), headers={'Content-Type': _COLUMNAR})
+            return
+
         j = df.to_json(orient='split', date_format='iso')
         self.call_service('add_recordstore', verb='post', args=args, data=j.encode('utf-8'), headers={'Content-Type': 'application/json'})
 
@@ -817,6 +848,150 @@ def _get_rest_helper(rest : str) -> dict:
     
     return {}
 
+def _read_columnar(data):
+    """Read a RecordStore in CONSTELLATION's columnar format.
+
+    Integer and float columns with missing values become float64 columns
+    containing NaNs, and boolean columns with missing values become object
+    columns containing None, as they do when reading JSON.
+
+    :param data: The bytes of the RecordStore.
+
+    :returns: A tuple of a DataFrame and a dictionary mapping column names
+        to CONSTELLATION type names.
+    """
+
+    view = memoryview(data)
+    if bytes(view[:4])!=_COLUMNAR_MAGIC:
+        raise ValueError('Data is not a columnar RecordStore')
+    pos = 4
+
+    def read_int():
+        nonlocal pos
+        n = struct.unpack_from('<i', view, pos)[0]
+        pos += 4
+        return n
+
+    def read_str():
+        nonlocal pos
+        n = read_int()
+        s = bytes(view[pos:pos+n]).decode('utf-8')
+        pos += n
+        return s
+
+    def read_bitmap(nrows):
+        nonlocal pos
+        nbytes = (nrows+7)//8
+        bits = np.unpackbits(np.frombuffer(view, np.uint8, nbytes, pos), bitorder='little')[:nrows].astype(bool)
+        pos += nbytes
+        return bits
+
+    names = []
+    codes = []
+    types = {}
+    for _ in range(read_int()):
+        name = read_str()
+        types[name] = read_str()
+        codes.append(view[pos])
+        pos += 1
+        names.append(name)
+
+    batches = [[] for _ in names]
+    while True:
+        nrows = read_int()
+        if nrows==0:
+            break
+        for c, code in enumerate(codes):
+            valid = read_bitmap(nrows)
+            if code in _COLUMNAR_DTYPES:
+                dtype = np.dtype(_COLUMNAR_DTYPES[code])
+                values = np.frombuffer(view, dtype, nrows, pos).astype(dtype.newbyteorder('='))
+                pos += nrows*dtype.itemsize
+                column = values if valid.all() else np.where(valid, values, np.nan)
+            elif code==_COLUMNAR_BOOLEAN:
+                values = read_bitmap(nrows)
+                column = values if valid.all() else np.where(valid, values, None)
+            else:
+                offsets = np.frombuffer(view, '<i4', nrows+1, pos)
+                pos += 4*(nrows+1)
+                strings = bytes(view[pos:pos+offsets[-1]])
+                pos += int(offsets[-1])
+                column = np.array([strings[offsets[i]:offsets[i+1]].decode('utf-8') if valid[i] else None for i in range(nrows)], dtype=object)
+            batches[c].append(column)
+
+    df = pd.DataFrame({name:np.concatenate(b) if b else [] for name, b in zip(names, batches)}, columns=names)
+    for name, t in types.items():
+        if t=='datetime':
+            df[name] = pd.to_datetime(df[name])
+
+    return df, types
+
+def _write_columnar(df):
+    """Write a DataFrame as a RecordStore in CONSTELLATION's columnar format.
+
+    :param df: The DataFrame to write.
+
+    :returns: The bytes of the RecordStore.
+    """
+
+    header = [_COLUMNAR_MAGIC, struct.pack('<i', len(df.columns))]
+    columns = []
+    for col in df.columns:
+        name = str(col)
+        series = df[col]
+        if name.endswith('>') and '<' in name:
+            ix = name.rindex('<')
+            name, t = name[:ix], name[ix+1:-1]
+        elif pd.api.types.is_bool_dtype(series):
+            t = 'boolean'
+        elif pd.api.types.is_integer_dtype(series):
+            t = 'integer' if series.empty or (series.min()>=-2**31 and series.max()<2**31) else 'long'
+        elif pd.api.types.is_float_dtype(series):
+            t = 'double'
+        else:
+            t = 'string'
+        code = _COLUMNAR_TYPES.get(t, _COLUMNAR_STRING)
+        for s in (name, t):
+            b = s.encode('utf-8')
+            header.append(struct.pack('<i', len(b)))
+            header.append(b)
+        header.append(bytes([code]))
+        columns.append((series, code))
+
+    parts = [b''.join(header)]
+    for start in range(0, len(df), _COLUMNAR_BATCH):
+        nrows = min(_COLUMNAR_BATCH, len(df)-start)
+        parts.append(struct.pack('<i', nrows))
+        for series, code in columns:
+            batch = series.iloc[start:start+nrows]
+            valid = ~batch.isna().to_numpy()
+            parts.append(np.packbits(valid, bitorder='little').tobytes())
+            if code in _COLUMNAR_DTYPES:
+                values = batch.to_numpy(dtype=float if code>=2 else object, na_value=0)
+                parts.append(np.asarray(values).astype(_COLUMNAR_DTYPES[code]).tobytes())
+            elif code==_COLUMNAR_BOOLEAN:
+                values = batch.to_numpy(dtype=object, na_value=False).astype(bool)
+                parts.append(np.packbits(values, bitorder='little').tobytes())
+            else:
+                encoded = [_columnar_str(v).encode('utf-8') if ok else b'' for v, ok in zip(batch, valid)]
+                offsets = np.zeros(nrows+1, dtype='<i4')
+                np.cumsum([len(b) for b in encoded], out=offsets[1:])
+                parts.append(offsets.tobytes())
+                parts.append(b''.join(encoded))
+    parts.append(struct.pack('<i', 0))
+
+    return b''.join(parts)
+
+def _columnar_str(value):
+    """Convert a value to a string in the same way as DataFrame.to_json()."""
+
+    if isinstance(value, pd.Timestamp):
+        return value.isoformat()
+    if isinstance(value, str):
+        return value
+
+    return json.dumps(value.tolist() if isinstance(value, np.ndarray) else value, default=str).strip('"')
+
 def _row_dict(row, names, prefix):
     """Extract the relevant names/values from a DataFrame row and convert them
     to a dictionary without the prefixes."""
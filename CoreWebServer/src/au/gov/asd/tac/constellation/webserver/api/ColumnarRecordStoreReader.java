@@ -0,0 +1,211 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.webserver.api;
+
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore.ColumnType;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Read RecordStores in the columnar binary format written by
+ * {@link ColumnarRecordStoreWriter}.
+ * <p>
+ * Each batch is read straight into the primitive columns of a
+ * {@link TypedRecordStore}, so numeric and boolean values are never converted
+ * to strings.
+ *
+ * @author algol
+ */
+public class ColumnarRecordStoreReader {
+
+    private static final ColumnType[] COLUMN_TYPES = ColumnType.values();
+
+    // The largest batch whose columns fit in an array.
+    private static final int MAX_BATCH_SIZE = Integer.MAX_VALUE / Long.BYTES - 1;
+
+    private ColumnarRecordStoreReader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Read a RecordStore.
+     *
+     * @param in the stream to read from.
+     * @return a TypedRecordStore containing the records that were read.
+     * @throws IOException if the stream can't be read.
+     * @throws RestServiceException if the stream is not a valid columnar
+     * RecordStore.
+     */
+    public static TypedRecordStore read(final InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        final byte[] magic = new byte[ColumnarRecordStoreWriter.MAGIC.length];
+        try {
+            data.readFully(magic);
+        } catch (final EOFException ex) {
+            throw new RestServiceException("Columnar RecordStore is empty");
+        }
+        if (!Arrays.equals(magic, ColumnarRecordStoreWriter.MAGIC)) {
+            throw new RestServiceException("Data is not a columnar RecordStore");
+        }
+
+        final int columnCount = readInt(data);
+        if (columnCount < 0) {
+            throw new RestServiceException("Invalid column count: " + columnCount);
+        }
+        final String[] keys = new String[columnCount];
+        final ColumnType[] types = new ColumnType[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            final String name = readString(data);
+            final String attributeType = readString(data);
+            final int type = data.readUnsignedByte();
+            if (type >= COLUMN_TYPES.length) {
+                throw new RestServiceException(String.format("Invalid type for column %s: %d", name, type));
+            }
+            keys[c] = name + "<" + attributeType + ">";
+            types[c] = COLUMN_TYPES[type];
+            if (types[c] != ColumnType.forAttributeType(attributeType)) {
+                throw new RestServiceException(String.format("Column %s of type %s can't be stored as %s", name, attributeType, types[c]));
+            }
+        }
+
+        final TypedRecordStore recordStore = new TypedRecordStore();
+        int records;
+        while ((records = readBatchSize(data)) > 0) {
+            final int first = recordStore.size();
+            for (int r = 0; r < records; r++) {
+                recordStore.add();
+            }
+
+            final int bitmapLength = (records + 7) / 8;
+            for (int c = 0; c < columnCount; c++) {
+                final String key = keys[c];
+                final byte[] validity = new byte[bitmapLength];
+                data.readFully(validity);
+                switch (types[c]) {
+                    case INT -> {
+                        final ByteBuffer values = read(data, records * Integer.BYTES);
+                        for (int r = 0; r < records; r++) {
+                            final int value = values.getInt();
+                            if (getBit(validity, r)) {
+                                recordStore.setInt(first + r, key, value);
+                            }
+                        }
+                    }
+                    case LONG -> {
+                        final ByteBuffer values = read(data, records * Long.BYTES);
+                        for (int r = 0; r < records; r++) {
+                            final long value = values.getLong();
+                            if (getBit(validity, r)) {
+                                recordStore.setLong(first + r, key, value);
+                            }
+                        }
+                    }
+                    case FLOAT -> {
+                        final ByteBuffer values = read(data, records * Float.BYTES);
+                        for (int r = 0; r < records; r++) {
+                            final float value = values.getFloat();
+                            if (getBit(validity, r)) {
+                                recordStore.setFloat(first + r, key, value);
+                            }
+                        }
+                    }
+                    case DOUBLE -> {
+                        final ByteBuffer values = read(data, records * Double.BYTES);
+                        for (int r = 0; r < records; r++) {
+                            final double value = values.getDouble();
+                            if (getBit(validity, r)) {
+                                recordStore.setDouble(first + r, key, value);
+                            }
+                        }
+                    }
+                    case BOOLEAN -> {
+                        final byte[] values = new byte[bitmapLength];
+                        data.readFully(values);
+                        for (int r = 0; r < records; r++) {
+                            if (getBit(validity, r)) {
+                                recordStore.setBoolean(first + r, key, getBit(values, r));
+                            }
+                        }
+                    }
+                    default -> {
+                        final ByteBuffer offsets = read(data, (records + 1) * Integer.BYTES);
+                        final int length = offsets.getInt(records * Integer.BYTES);
+                        if (length < 0) {
+                            throw new RestServiceException("Invalid string length in column " + key);
+                        }
+                        final byte[] bytes = new byte[length];
+                        data.readFully(bytes);
+                        for (int r = 0; r < records; r++) {
+                            final int start = offsets.getInt(r * Integer.BYTES);
+                            final int end = offsets.getInt((r + 1) * Integer.BYTES);
+                            if (getBit(validity, r)) {
+                                if (start < 0 || end < start || end > length) {
+                                    throw new RestServiceException("Invalid string offset in column " + key);
+                                }
+                                recordStore.set(first + r, key, new String(bytes, start, end - start, StandardCharsets.UTF_8));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return recordStore;
+    }
+
+    private static int readBatchSize(final DataInputStream data) throws IOException {
+        final int records = readInt(data);
+        if (records < 0 || records > MAX_BATCH_SIZE) {
+            throw new RestServiceException("Invalid record count: " + records);
+        }
+
+        return records;
+    }
+
+    private static int readInt(final DataInputStream data) throws IOException {
+        return read(data, Integer.BYTES).getInt();
+    }
+
+    private static String readString(final DataInputStream data) throws IOException {
+        final int length = readInt(data);
+        if (length < 0) {
+            throw new RestServiceException("Invalid string length: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        data.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer read(final DataInputStream data, final int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        data.readFully(bytes);
+
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static boolean getBit(final byte[] bitmap, final int bit) {
+        return (bitmap[bit >> 3] & (1 << (bit & 7))) != 0;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.webserver.api;
+
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore.ColumnType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Write RecordStores in the columnar binary format read by
+ * {@link ColumnarRecordStoreReader}.
+ * <p>
+ * The format is a header describing the columns followed by any number of
+ * batches of records, so a large RecordStore can be written a batch at a time
+ * without ever holding all of it in memory. All numbers are little-endian, so
+ * that columns can be read directly into numpy arrays.
+ * <pre>
+ * header: "CRS1", int column count, then for each column:
+ *         string key, string attribute type, byte column type
+ * batch:  int record count (zero marks the end of the stream), then for each column:
+ *         validity bitmap, values
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes. Bitmaps have one bit
+ * per record, least significant bit first, padded to a whole byte; a record
+ * has a value if its validity bit is set. The column type is the ordinal of
+ * {@link ColumnType}: 0 int, 1 long, 2 float, 3 double, 4 boolean or 5 string.
+ * Values are an array of int, long, float or double for those column types, a
+ * bitmap for boolean columns, and for string columns an array of record count
+ * + 1 int offsets followed by the UTF-8 bytes of all of the strings. The values
+ * of records without a value are undefined.
+ *
+ * @author algol
+ */
+public class ColumnarRecordStoreWriter {
+
+    static final byte[] MAGIC = {'C', 'R', 'S', '1'};
+
+    private final OutputStream out;
+    private final String[] keys;
+    private final ColumnType[] types;
+
+    /**
+     * Create a writer and write the header describing the columns.
+     *
+     * @param out the stream to write to.
+     * @param keysWithType the keys of the columns to write, with their types,
+     * eg source.Label&lt;string&gt;.
+     * @throws IOException if the header can't be written.
+     */
+    public ColumnarRecordStoreWriter(final OutputStream out, final List<String> keysWithType) throws IOException {
+        this.out = out;
+        keys = keysWithType.toArray(new String[0]);
+        types = new ColumnType[keys.length];
+
+        final byte[][] names = new byte[keys.length][];
+        final byte[][] attributeTypes = new byte[keys.length][];
+        int length = MAGIC.length + Integer.BYTES;
+        for (int c = 0; c < keys.length; c++) {
+            final int ix = keys[c].lastIndexOf('<');
+            if (ix == -1 || !keys[c].endsWith(">")) {
+                throw new IllegalArgumentException("Key has no type: " + keys[c]);
+            }
+            final String attributeType = keys[c].substring(ix + 1, keys[c].length() - 1);
+            types[c] = ColumnType.forAttributeType(attributeType);
+            names[c] = keys[c].substring(0, ix).getBytes(StandardCharsets.UTF_8);
+            attributeTypes[c] = attributeType.getBytes(StandardCharsets.UTF_8);
+            length += Integer.BYTES + names[c].length + Integer.BYTES + attributeTypes[c].length + 1;
+        }
+
+        final ByteBuffer header = allocate(length);
+        header.put(MAGIC);
+        header.putInt(keys.length);
+        for (int c = 0; c < keys.length; c++) {
+            header.putInt(names[c].length).put(names[c]);
+            header.putInt(attributeTypes[c].length).put(attributeTypes[c]);
+            header.put((byte) types[c].ordinal());
+        }
+        write(header);
+    }
+
+    /**
+     * Write all of the records in a TypedRecordStore as a batch.
+     * <p>
+     * Keys that aren't in the record store are written as columns without
+     * values. The other columns must have the same type as the key they were
+     * given to the constructor.
+     *
+     * @param recordStore the records to write.
+     * @throws IOException if the batch can't be written.
+     */
+    public void write(final TypedRecordStore recordStore) throws IOException {
+        final int records = recordStore.size();
+        if (records == 0) {
+            return;
+        }
+
+        write(allocate(Integer.BYTES).putInt(records));
+        final int bitmapLength = (records + 7) / 8;
+        for (int c = 0; c < keys.length; c++) {
+            final String key = keys[c];
+            final ColumnType type = recordStore.getColumnType(key);
+            if (type != null && type != types[c]) {
+                throw new IllegalArgumentException(String.format("Key %s is a column of type %s, not %s", key, type, types[c]));
+            }
+
+            final byte[] validity = new byte[bitmapLength];
+            for (int r = 0; r < records; r++) {
+                if (!recordStore.isNull(r, key)) {
+                    validity[r >> 3] |= (byte) (1 << (r & 7));
+                }
+            }
+            out.write(validity);
+
+            final ByteBuffer values = switch (types[c]) {
+                case INT -> {
+                    final ByteBuffer buffer = allocate(records * Integer.BYTES);
+                    for (int r = 0; r < records; r++) {
+                        buffer.putInt(type == null ? 0 : recordStore.getInt(r, key));
+                    }
+                    yield buffer;
+                }
+                case LONG -> {
+                    final ByteBuffer buffer = allocate(records * Long.BYTES);
+                    for (int r = 0; r < records; r++) {
+                        buffer.putLong(type == null ? 0 : recordStore.getLong(r, key));
+                    }
+                    yield buffer;
+                }
+                case FLOAT -> {
+                    final ByteBuffer buffer = allocate(records * Float.BYTES);
+                    for (int r = 0; r < records; r++) {
+                        buffer.putFloat(type == null ? 0 : recordStore.getFloat(r, key));
+                    }
+                    yield buffer;
+                }
+                case DOUBLE -> {
+                    final ByteBuffer buffer = allocate(records * Double.BYTES);
+                    for (int r = 0; r < records; r++) {
+                        buffer.putDouble(type == null ? 0 : recordStore.getDouble(r, key));
+                    }
+                    yield buffer;
+                }
+                case BOOLEAN -> {
+                    final ByteBuffer buffer = allocate(bitmapLength);
+                    for (int r = 0; r < records; r++) {
+                        if (type != null && recordStore.getBoolean(r, key)) {
+                            buffer.put(r >> 3, (byte) (buffer.get(r >> 3) | (1 << (r & 7))));
+                        }
+                    }
+                    yield buffer.position(bitmapLength);
+                }
+                default ->
+                    strings(recordStore, key, type != null);
+            };
+            write(values);
+        }
+    }
+
+    /**
+     * Write the end of the stream.
+     * <p>
+     * The underlying stream is flushed but not closed.
+     *
+     * @throws IOException if the end of the stream can't be written.
+     */
+    public void finish() throws IOException {
+        write(allocate(Integer.BYTES).putInt(0));
+        out.flush();
+    }
+
+    private static ByteBuffer strings(final TypedRecordStore recordStore, final String key, final boolean hasColumn) {
+        final int records = recordStore.size();
+        final byte[][] values = new byte[records][];
+        int length = 0;
+        if (hasColumn) {
+            for (int r = 0; r < records; r++) {
+                final String value = recordStore.get(r, key);
+                if (value != null) {
+                    values[r] = value.getBytes(StandardCharsets.UTF_8);
+                    length += values[r].length;
+                }
+            }
+        }
+
+        final ByteBuffer buffer = allocate((records + 1) * Integer.BYTES + length);
+        int offset = 0;
+        buffer.putInt(offset);
+        for (int r = 0; r < records; r++) {
+            if (values[r] != null) {
+                offset += values[r].length;
+            }
+            buffer.putInt(offset);
+        }
+        for (int r = 0; r < records; r++) {
+            if (values[r] != null) {
+                buffer.put(values[r]);
+            }
+        }
+
+        return buffer;
+    }
+
+    private static ByteBuffer allocate(final int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void write(final ByteBuffer buffer) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+    }
+}
@@ -33,7 +33,8 @@ import org.openide.awt.StatusDisplayer;
  * Any exceptions thrown while executing a servlet call are caught and converted
  * to an HttpServletResponse.sendError() response, as well as being logged at
  * Level.INFO (to avoid an error dialog box being displayed). Clients can see
- * the error by viewing the resulting HTML in the body of the response.
+ * the error by viewing the resulting HTML in the body of the response. If the
+ * response has already been partly sent, it is aborted instead.
  * <p>
  * Note that servlet API 3.x is required for HttpServletResponse.getStatus()
  * (which is called by HttpServletResponse.sendError()). See CoreDependencies
@@ -53,12 +54,10 @@ public class ConstellationApiServlet extends ConstellationHttpServlet {
             try {
                 get(request, response);
             } catch (final RestServiceException ex) {
-                response.reset();
-                response.sendError(ex.getHttpCode(), ex.getMessage());
+                sendError(response, ex.getHttpCode(), ex.getMessage());
                 LOGGER.log(Level.INFO, "in doGet", ex);
             } catch (final IOException | ServletException ex) {
-                response.reset();
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
+                sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
                 LOGGER.log(Level.INFO, "in doGet", ex);
             }
         }
@@ -76,11 +75,9 @@ public class ConstellationApiServlet extends ConstellationHttpServlet {
             try {
                 post(request, response);
             } catch (final RestServiceException ex) {
-                response.reset();
-                response.sendError(ex.getHttpCode(), ex.getMessage());
+                sendError(response, ex.getHttpCode(), ex.getMessage());
             } catch (final IOException | ServletException ex) {
-                response.reset();
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
+                sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
                 LOGGER.log(Level.INFO, "in doPost", ex);
             }
         }
@@ -98,11 +95,9 @@ public class ConstellationApiServlet extends ConstellationHttpServlet {
             try {
                 put(request, response);
             } catch (final RestServiceException ex) {
-                response.reset();
-                response.sendError(ex.getHttpCode(), ex.getMessage());
+                sendError(response, ex.getHttpCode(), ex.getMessage());
             } catch (final IOException | ServletException ex) {
-                response.reset();
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
+                sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.getMessage());
                 LOGGER.log(Level.INFO, "in doPut", ex);
             }
         }
@@ -112,6 +107,29 @@ public class ConstellationApiServlet extends ConstellationHttpServlet {
         // DO NOTHING
     }
 
+    /**
+     * Replace the response with an error.
+     * <p>
+     * Services stream their responses, so part of the response may already
+     * have been sent to the client. A committed response can't be replaced,
+     * so the exception is rethrown to make the server abort it rather than
+     * send the client a truncated response that looks complete.
+     *
+     * @param response the response.
+     * @param code the HTTP status code.
+     * @param message the error message.
+     * @throws IOException if the response has already been committed, or the
+     * error can't be sent.
+     */
+    private static void sendError(final HttpServletResponse response, final int code, final String message) throws IOException {
+        if (response.isCommitted()) {
+            throw new IOException(String.format("Response already committed, aborting after error %d: %s", code, message));
+        }
+
+        response.reset();
+        response.sendError(code, message);
+    }
+
     /**
      * Display the incoming REST request to provide some confidence to the user
      * and debugging for the developer :-).
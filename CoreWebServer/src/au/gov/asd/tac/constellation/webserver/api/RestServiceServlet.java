@@ -21,13 +21,17 @@ import au.gov.asd.tac.constellation.webserver.WebServer.ConstellationHttpServlet
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceRegistry;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities.HttpMethod;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
@@ -40,7 +44,9 @@ import org.openide.util.lookup.ServiceProvider;
  * is then used to parse parameters from the query section of the URL (if any).
  * <p>
  * The service is then called, passing the populated PluginParameters instance,
- * and the HTTP request's input and output streams.
+ * and the HTTP request's input and output streams. Services write their
+ * responses directly to the output stream, which is gzipped if the client
+ * accepts gzip encoding.
  *
  * The URL pattern *must* match the FileListener and Swagger/OpenAPI patterns.
  *
@@ -53,6 +59,10 @@ import org.openide.util.lookup.ServiceProvider;
         urlPatterns = {"/v2/service/*"})
 public class RestServiceServlet extends ConstellationApiServlet {
 
+    private static final int RESPONSE_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP = "gzip";
+    private static final String IMAGE_MIME_TYPE = "image/";
+
     @Override
     protected void get(final HttpServletRequest request, final HttpServletResponse response) throws ServletException, IOException {
         callService(HttpMethod.GET, request, response);
@@ -96,16 +106,63 @@ public class RestServiceServlet extends ConstellationApiServlet {
             }
         });
 
+        // A service that reads or writes more than one format can also have
+        // its format chosen by the Accept header (for the response) or the
+        // Content-Type header (for the request body).
+        //
+        if (parameters.hasParameter(RestServiceUtilities.FORMAT_PARAMETER_ID) && !paramMap.containsKey(RestServiceUtilities.FORMAT_PARAMETER_ID)) {
+            final String mimeType = httpMethod == HttpMethod.GET ? request.getHeader("Accept") : request.getContentType();
+            if (mimeType != null && mimeType.contains(RestServiceUtilities.APPLICATION_COLUMNAR_RECORDSTORE)) {
+                parameters.setStringValue(RestServiceUtilities.FORMAT_PARAMETER_ID, RestServiceUtilities.COLUMNAR_FORMAT);
+            }
+        }
+
         // Call the service.
+        // The response is streamed without a Content-Length, so the server
+        // sends it chunked as the service writes it, and compresses it if the
+        // client accepts gzip (images are already compressed).
         //
         try {
-            response.setContentType(rs.getMimeType());
+            final String mimeType = rs.getMimeType(parameters);
+            response.setContentType(mimeType);
             response.setStatus(HttpServletResponse.SC_OK);
-            rs.callService(parameters, request.getInputStream(), response.getOutputStream());
+            response.setBufferSize(RESPONSE_BUFFER_SIZE);
+            if (acceptsGzip(request) && !mimeType.startsWith(IMAGE_MIME_TYPE)) {
+                response.setHeader("Content-Encoding", GZIP);
+                response.addHeader("Vary", "Accept-Encoding");
+                final GZIPOutputStream out = new GzipResponseStream(response.getOutputStream());
+                rs.callService(parameters, request.getInputStream(), out);
+                out.finish();
+            } else {
+                rs.callService(parameters, request.getInputStream(), response.getOutputStream());
+            }
         } catch (final RestServiceException ex) {
             throw ex;
         } catch (final IOException | RuntimeException ex) {
             throw new ServletException(ex);
         }
     }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        final String acceptEncoding = request.getHeader("Accept-Encoding");
+
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ENGLISH).contains(GZIP);
+    }
+
+    /**
+     * A gzip stream that finishes rather than closes, so it can still be
+     * finished after a service has closed the stream it was given.
+     */
+    private static final class GzipResponseStream extends GZIPOutputStream {
+
+        GzipResponseStream(final OutputStream out) throws IOException {
+            super(out, RESPONSE_BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            flush();
+        }
+    }
 }
@@ -24,10 +24,12 @@ import au.gov.asd.tac.constellation.graph.attribute.IntegerAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.IntegerObjectAttributeDescription;
 import au.gov.asd.tac.constellation.graph.attribute.ZonedDateTimeAttributeDescription;
 import au.gov.asd.tac.constellation.graph.manager.GraphManager;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
 import au.gov.asd.tac.constellation.graph.schema.visual.attribute.ColorAttributeDescription;
 import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
 
 /**
  * A collection of utilities for the REST API.
@@ -50,60 +52,108 @@ public class RestUtilities {
     }
 
     /**
-     * Add a value to a column.
+     * Write a value to a column.
      *
-     * @param row The JSON array representing the column.
+     * @param json The JSON generator, positioned in the array representing the
+     * column.
      * @param type The type of the value.
      * @param value The (possibly null) value.
+     *
+     * @throws IOException If the value can't be written.
      */
-    public static void addData(final ArrayNode row, final String type, final String value) {
+    public static void writeData(final JsonGenerator json, final String type, final String value) throws IOException {
         switch (type) {
             case BooleanAttributeDescription.ATTRIBUTE_NAME, BooleanObjectAttributeDescription.ATTRIBUTE_NAME -> 
                 // A DataFrame will parse [True, False, None] to [1.0, 0.0, Nan],
                 // so implicitly convert null to False so the result is all booleans.
-                row.add(Boolean.parseBoolean(value));
+                json.writeBoolean(Boolean.parseBoolean(value));
             case ColorAttributeDescription.ATTRIBUTE_NAME -> {
                 if (value == null) {
-                    row.addNull();
+                    json.writeNull();
                 } else {
-                    final ArrayNode rgb = row.addArray();
                     final ConstellationColor cv = ConstellationColor.getColorValue(value);
-                    rgb.add(cv.getRed());
-                    rgb.add(cv.getGreen());
-                    rgb.add(cv.getBlue());
-                    rgb.add(cv.getAlpha());
+                    json.writeStartArray();
+                    json.writeNumber(cv.getRed());
+                    json.writeNumber(cv.getGreen());
+                    json.writeNumber(cv.getBlue());
+                    json.writeNumber(cv.getAlpha());
+                    json.writeEndArray();
                 }
             }
             case ZonedDateTimeAttributeDescription.ATTRIBUTE_NAME -> {
                 // A DataFrame will parse null as NaT.
                 if (value == null) {
-                    row.addNull();
+                    json.writeNull();
                 } else {
                     // Remove the trailing tz name if present.
                     final int ix = value.lastIndexOf(" [");
-                    row.add(ix == -1 ? value : value.substring(0, ix));
+                    json.writeString(ix == -1 ? value : value.substring(0, ix));
                 }
             }
             case FloatAttributeDescription.ATTRIBUTE_NAME, FloatObjectAttributeDescription.ATTRIBUTE_NAME -> {
                 // A DataFrame will parse null as NaN.
                 if (value == null) {
-                    row.addNull();
+                    json.writeNull();
                 } else {
-                    row.add(Float.parseFloat(value));
+                    json.writeNumber(Float.parseFloat(value));
                 }
             }
             case IntegerAttributeDescription.ATTRIBUTE_NAME, IntegerObjectAttributeDescription.ATTRIBUTE_NAME -> {
                 // A DataFrame will parse null as NaN, but the column will be
                 // converted to a float column.
                 if (value == null) {
-                    row.addNull();
+                    json.writeNull();
                 } else {
-                    row.add(Integer.parseInt(value));
+                    json.writeNumber(Integer.parseInt(value));
                 }
             }
             default -> 
                 // Everything else we leave as a string; nulls are fine.
-                row.add(value);
+                json.writeString(value);
         }
     }
+
+    /**
+     * Write a value of the current record of a {@link TypedRecordStore} to a
+     * column. Integer, float and boolean values are written without being
+     * converted to and from strings.
+     *
+     * @param json The JSON generator, positioned in the array representing the
+     * column.
+     * @param type The type of the value.
+     * @param recordStore The record store.
+     * @param key The key of the value in the record store.
+     *
+     * @throws IOException If the value can't be written.
+     */
+    public static void writeData(final JsonGenerator json, final String type, final TypedRecordStore recordStore, final String key) throws IOException {
+        if (!recordStore.isNull(key)) {
+            final TypedRecordStore.ColumnType columnType = recordStore.getColumnType(key);
+            switch (type) {
+                case BooleanAttributeDescription.ATTRIBUTE_NAME -> {
+                    if (columnType == TypedRecordStore.ColumnType.BOOLEAN) {
+                        json.writeBoolean(recordStore.getBoolean(key));
+                        return;
+                    }
+                }
+                case FloatAttributeDescription.ATTRIBUTE_NAME -> {
+                    if (columnType == TypedRecordStore.ColumnType.FLOAT) {
+                        json.writeNumber(recordStore.getFloat(key));
+                        return;
+                    }
+                }
+                case IntegerAttributeDescription.ATTRIBUTE_NAME -> {
+                    if (columnType == TypedRecordStore.ColumnType.INT) {
+                        json.writeNumber(recordStore.getInt(key));
+                        return;
+                    }
+                }
+                default -> {
+                    // written as a string below
+                }
+            }
+        }
+
+        writeData(json, type, recordStore.get(key));
+    }
 }
@@ -125,4 +125,19 @@ public abstract class RestService {
     public String getMimeType() {
         return RestServiceUtilities.APPLICATION_JSON;
     }
+
+    /**
+     * The MIME type of the data returned by the service for a particular set
+     * of parameters.
+     *
+     * Services that can return more than one format should override this.
+     *
+     * @param parameters The parameters passed from the service request to the
+     * service.
+     *
+     * @return A String containing a MIME type.
+     */
+    public String getMimeType(final PluginParameters parameters) {
+        return getMimeType();
+    }
 }
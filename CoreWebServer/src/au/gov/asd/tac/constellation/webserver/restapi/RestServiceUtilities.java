@@ -19,9 +19,14 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.manager.GraphManager;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.databind.node.IntNode;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -34,6 +39,8 @@ import java.util.concurrent.CompletableFuture;
  */
 public class RestServiceUtilities {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private RestServiceUtilities() {
         throw new IllegalStateException("Utility class");
     }
@@ -68,6 +75,32 @@ public class RestServiceUtilities {
      */
     public static final String APPLICATION_JSON = "application/json";
     public static final String IMAGE_PNG = "image/png";
+    public static final String APPLICATION_COLUMNAR_RECORDSTORE = "application/x-constellation-recordstore";
+
+    /**
+     * The parameter used by services that can read or write more than one
+     * format, and the formats it may have.
+     */
+    public static final String FORMAT_PARAMETER_ID = "format";
+    public static final String JSON_FORMAT = "json";
+    public static final String COLUMNAR_FORMAT = "columnar";
+
+    /**
+     * Create a JSON generator that writes to the output stream of a service.
+     * <p>
+     * Services can use this to write their response as it is produced rather
+     * than building a tree of JSON nodes first. Closing the generator flushes
+     * it but does not close the output stream.
+     *
+     * @param out The output stream of the service.
+     *
+     * @return A JsonGenerator.
+     *
+     * @throws IOException If the generator can't be created.
+     */
+    public static JsonGenerator createJsonGenerator(final OutputStream out) throws IOException {
+        return JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+    }
 
     /**
      * Convert a JSON ArrayNode to a Java List.
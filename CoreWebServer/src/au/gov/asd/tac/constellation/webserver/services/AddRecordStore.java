@@ -19,9 +19,9 @@ import au.gov.asd.tac.constellation.graph.Graph;
 import au.gov.asd.tac.constellation.graph.GraphWriteMethods;
 import au.gov.asd.tac.constellation.graph.interaction.InteractiveGraphPluginRegistry;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
-import au.gov.asd.tac.constellation.graph.processing.GraphRecordStore;
 import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
 import au.gov.asd.tac.constellation.graph.processing.RecordStore;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
 import au.gov.asd.tac.constellation.graph.schema.analytic.concept.AnalyticConcept;
 import au.gov.asd.tac.constellation.plugins.Plugin;
 import au.gov.asd.tac.constellation.plugins.PluginException;
@@ -39,6 +39,7 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.StringParameterType
 import au.gov.asd.tac.constellation.plugins.parameters.types.StringParameterValue;
 import au.gov.asd.tac.constellation.plugins.templates.PluginTags;
 import au.gov.asd.tac.constellation.plugins.templates.SimpleEditPlugin;
+import au.gov.asd.tac.constellation.webserver.api.ColumnarRecordStoreReader;
 import au.gov.asd.tac.constellation.webserver.api.RestUtilities;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
@@ -51,6 +52,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.openide.util.lookup.ServiceProvider;
@@ -128,6 +130,12 @@ public class AddRecordStore extends RestService {
         dataParam.setRequired(true);
         parameters.addParameter(dataParam);
 
+        final PluginParameter<StringParameterValue> formatParam = StringParameterType.build(RestServiceUtilities.FORMAT_PARAMETER_ID);
+        formatParam.setName("Format");
+        formatParam.setDescription("The format of the data: 'json' (the default) or 'columnar', the binary format returned by get_recordstore. Columnar is also selected by a Content-Type header of " + RestServiceUtilities.APPLICATION_COLUMNAR_RECORDSTORE + ".");
+        formatParam.setStringValue(RestServiceUtilities.JSON_FORMAT);
+        parameters.addParameter(formatParam);
+
         return parameters;
     }
 
@@ -137,15 +145,30 @@ public class AddRecordStore extends RestService {
         final boolean completeWithSchema = parameters.getBooleanValue(COMPLETE_PARAMETER_ID);
         final String arrange = parameters.getStringValue(ARRANGE_PARAMETER_ID);
         final boolean resetView = parameters.getBooleanValue(RESET_PARAMETER_ID);
-
-        final RecordStore rs = new GraphRecordStore();
-        final ObjectMapper mapper = new ObjectMapper();
-        final JsonNode json = mapper.readTree(in);
+        final String format = parameters.getStringValue(RestServiceUtilities.FORMAT_PARAMETER_ID);
 
         final Graph graph = graphId == null ? RestUtilities.getActiveGraph() : GraphNode.getGraph(graphId);
         if (graph == null) {
             throw new RestServiceException(HTTP_UNPROCESSABLE_ENTITY, "No graph with id " + graphId);
         }
+
+        final RecordStore rs;
+        if (format == null || RestServiceUtilities.JSON_FORMAT.equals(format)) {
+            rs = readJson(in);
+        } else if (RestServiceUtilities.COLUMNAR_FORMAT.equals(format)) {
+            rs = readColumnar(in);
+        } else {
+            throw new RestServiceException("Unknown format: " + format);
+        }
+
+        addToGraph(graph, rs, completeWithSchema, arrange, resetView);
+    }
+
+    private static RecordStore readJson(final InputStream in) throws IOException {
+        final RecordStore rs = new TypedRecordStore();
+        final ObjectMapper mapper = new ObjectMapper();
+        final JsonNode json = mapper.readTree(in);
+
         // We want to read a JSON document that looks like:
         //
         // {"columns":["A","B"],"data":[[1,"a"],[2,"b"],[3,"c"]]}
@@ -178,6 +201,11 @@ public class AddRecordStore extends RestService {
                 if (!jn.isNull()) {
                     if (jn.getNodeType() == JsonNodeType.ARRAY) {
                         rs.set(h, RestServiceUtilities.toList((ArrayNode) jn));
+                    } else if (jn.isNumber()) {
+                        // numbers and booleans are stored without a string round trip when the column has their type
+                        rs.set(h, jn.numberValue());
+                    } else if (jn.isBoolean()) {
+                        rs.set(h, jn.booleanValue());
                     } else {
                         rs.set(h, jn.asText());
                     }
@@ -191,7 +219,21 @@ public class AddRecordStore extends RestService {
             }
         }
 
-        addToGraph(graph, rs, completeWithSchema, arrange, resetView);
+        return rs;
+    }
+
+    private static RecordStore readColumnar(final InputStream in) throws IOException {
+        final RecordStore rs = ColumnarRecordStoreReader.read(in);
+
+        final List<String> keys = rs.keys();
+        if (keys.stream().anyMatch(key -> key.startsWith(GraphRecordStoreUtilities.TRANSACTION)) && !keys.contains(TX_SOURCE)) {
+            final int size = rs.size();
+            for (int record = 0; record < size; record++) {
+                rs.set(record, TX_SOURCE, API_SOURCE);
+            }
+        }
+
+        return rs;
     }
 
     private static void addToGraph(final Graph graph, final RecordStore recordStore, final boolean completeWithSchema, final String arrange, final boolean resetView) {
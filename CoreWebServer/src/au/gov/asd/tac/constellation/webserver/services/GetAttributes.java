@@ -26,11 +26,13 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.StringParameterValu
 import au.gov.asd.tac.constellation.webserver.api.RestUtilities;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.openide.util.lookup.ServiceProvider;
 
 /**
@@ -79,9 +81,9 @@ public class GetAttributes extends RestService {
         if (graph == null) {
             throw new RestServiceException(HTTP_UNPROCESSABLE_ENTITY, "No graph with id " + graphId);
         }
-        final ObjectMapper mapper = new ObjectMapper();
-        final ObjectNode root = mapper.createObjectNode();
-
+        // Copy the attributes out of the graph so the lock isn't held while
+        // the response is written.
+        final Map<String, String> attributes = new LinkedHashMap<>();
         final ReadableGraph rg = graph.getReadableGraph();
         try {
             final int gCount = rg.getAttributeCount(GraphElementType.GRAPH);
@@ -90,7 +92,7 @@ public class GetAttributes extends RestService {
                 final String type = rg.getAttributeType(attrId);
                 final String label = rg.getAttributeName(attrId);
 
-                root.put(String.format("graph.%s", label), type);
+                attributes.put(String.format("graph.%s", label), type);
             }
 
             final int vCount = rg.getAttributeCount(GraphElementType.VERTEX);
@@ -99,7 +101,7 @@ public class GetAttributes extends RestService {
                 final String type = rg.getAttributeType(attrId);
                 final String label = rg.getAttributeName(attrId);
 
-                root.put(String.format("source.%s", label), type);
+                attributes.put(String.format("source.%s", label), type);
             }
 
             final int tCount = rg.getAttributeCount(GraphElementType.TRANSACTION);
@@ -108,12 +110,18 @@ public class GetAttributes extends RestService {
                 final String type = rg.getAttributeType(attrId);
                 final String label = rg.getAttributeName(attrId);
 
-                root.put(String.format("transaction.%s", label), type);
+                attributes.put(String.format("transaction.%s", label), type);
             }
         } finally {
             rg.release();
         }
 
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartObject();
+            for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+                json.writeStringField(attribute.getKey(), attribute.getValue());
+            }
+            json.writeEndObject();
+        }
     }
 }
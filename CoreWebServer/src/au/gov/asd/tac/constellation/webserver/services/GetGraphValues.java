@@ -26,9 +26,8 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.StringParameterValu
 import au.gov.asd.tac.constellation.webserver.api.RestUtilities;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -80,27 +79,42 @@ public class GetGraphValues extends RestService {
         if (graph == null) {
             throw new RestServiceException(HTTP_UNPROCESSABLE_ENTITY, "No graph with id " + graphId);
         }
-        final ObjectMapper mapper = new ObjectMapper();
-        final ObjectNode root = mapper.createObjectNode();
-        final ArrayNode columns = root.putArray("columns");
-        final ArrayNode data = root.putArray("data");
-        final ArrayNode row = data.addArray();
+        // Copy the values out of the graph so the lock isn't held while
+        // the response is written.
+        final String[] types;
+        final String[] labels;
+        final String[] values;
         final ReadableGraph rg = graph.getReadableGraph();
         try {
             final int gCount = rg.getAttributeCount(GraphElementType.GRAPH);
+            types = new String[gCount];
+            labels = new String[gCount];
+            values = new String[gCount];
             for (int i = 0; i < gCount; i++) {
                 final int attrId = rg.getAttribute(GraphElementType.GRAPH, i);
-                final String type = rg.getAttributeType(attrId);
-                final String label = rg.getAttributeName(attrId);
-                String value = rg.getStringValue(attrId, 0);
-
-                columns.add(String.format("%s|%s", label, type));
-                RestUtilities.addData(row, type, value);
+                types[i] = rg.getAttributeType(attrId);
+                labels[i] = rg.getAttributeName(attrId);
+                values[i] = rg.getStringValue(attrId, 0);
             }
         } finally {
             rg.release();
         }
 
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("columns");
+            for (int i = 0; i < types.length; i++) {
+                json.writeString(String.format("%s|%s", labels[i], types[i]));
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("data");
+            json.writeStartArray();
+            for (int i = 0; i < types.length; i++) {
+                RestUtilities.writeData(json, types[i], values[i]);
+            }
+            json.writeEndArray();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
     }
 }
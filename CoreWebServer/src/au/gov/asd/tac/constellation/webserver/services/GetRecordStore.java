@@ -16,10 +16,12 @@
 package au.gov.asd.tac.constellation.webserver.services;
 
 import au.gov.asd.tac.constellation.graph.Graph;
+import au.gov.asd.tac.constellation.graph.GraphElementType;
+import au.gov.asd.tac.constellation.graph.GraphReadMethods;
 import au.gov.asd.tac.constellation.graph.ReadableGraph;
 import au.gov.asd.tac.constellation.graph.node.GraphNode;
-import au.gov.asd.tac.constellation.graph.processing.GraphRecordStore;
 import au.gov.asd.tac.constellation.graph.processing.GraphRecordStoreUtilities;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
@@ -29,19 +31,22 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.StringParameterValu
 import au.gov.asd.tac.constellation.utilities.gui.HandleIoProgress;
 import au.gov.asd.tac.constellation.utilities.gui.IoProgress;
 import au.gov.asd.tac.constellation.utilities.text.SeparatorConstants;
+import au.gov.asd.tac.constellation.webserver.api.ColumnarRecordStoreWriter;
 import au.gov.asd.tac.constellation.webserver.api.RestUtilities;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -63,6 +68,8 @@ public class GetRecordStore extends RestService {
     private static final String TX_PARAMETER_ID = "tx";
     private static final String ATTRS_PARAMETER_ID = "attrs";
 
+    private static final int COLUMNAR_BATCH_SIZE = 65536;
+
     @Override
     public String getName() {
         return NAME;
@@ -110,9 +117,20 @@ public class GetRecordStore extends RestService {
         attrsParam.setDescription("Include only these comma-separated attributes in the recordstore. Use this for much greater efficiency. (optional)");
         parameters.addParameter(attrsParam);
 
+        final PluginParameter<StringParameterValue> formatParam = StringParameterType.build(RestServiceUtilities.FORMAT_PARAMETER_ID);
+        formatParam.setName("Format");
+        formatParam.setDescription("The format of the recordstore: 'json' (the default) or 'columnar', a binary format with a column per attribute. Columnar is also selected by an Accept header of " + RestServiceUtilities.APPLICATION_COLUMNAR_RECORDSTORE + ".");
+        formatParam.setStringValue(RestServiceUtilities.JSON_FORMAT);
+        parameters.addParameter(formatParam);
+
         return parameters;
     }
 
+    @Override
+    public String getMimeType(final PluginParameters parameters) {
+        return isColumnar(parameters) ? RestServiceUtilities.APPLICATION_COLUMNAR_RECORDSTORE : getMimeType();
+    }
+
     @Override
     public void callService(final PluginParameters parameters, final InputStream in, final OutputStream out) throws IOException {
         final String graphId = parameters.getStringValue(GRAPH_ID_PARAMETER_ID);
@@ -120,6 +138,7 @@ public class GetRecordStore extends RestService {
         final boolean vx = parameters.getBooleanValue(VX_PARAMETER_ID);
         final boolean tx = parameters.getBooleanValue(TX_PARAMETER_ID);
         final String attrsParam = parameters.getStringValue(ATTRS_PARAMETER_ID);
+        final boolean columnar = isColumnar(parameters);
 
         // Allow the user to specify a specific set of attributes,
         // cutting down data transfer and processing a lot,
@@ -135,11 +154,18 @@ public class GetRecordStore extends RestService {
         final IoProgress ioph = new HandleIoProgress("External script: get RecordStore");
         ioph.start();
         ioph.progress("Building RecordStore...");
-        final GraphRecordStore recordStore;
+        final TypedRecordStore recordStore;
         final Graph graph = graphId == null ? RestUtilities.getActiveGraph() : GraphNode.getGraph(graphId);
         if (graph == null) {
             throw new RestServiceException(HTTP_UNPROCESSABLE_ENTITY, "No graph with id " + graphId);
         }
+        if (columnar) {
+            // The columnar format is written a batch at a time straight from
+            // the graph, so the whole RecordStore is never held in memory.
+            writeColumnar(graph, selected, vx, tx, attrs, out);
+            ioph.finish();
+            return;
+        }
         final ReadableGraph rg = graph.getReadableGraph();
         try {
             if ((vx && tx) || !(vx || tx)) {
@@ -147,11 +173,11 @@ public class GetRecordStore extends RestService {
                 // of the vertices: since all of the vertices with
                 // transactions are already included, we only want
                 // the rest of the vertices, ie the singletons.
-                recordStore = GraphRecordStoreUtilities.getAll(rg, true, selected, false);
+                recordStore = GraphRecordStoreUtilities.getTypedAll(rg, true, selected, false);
             } else if (vx) {
-                recordStore = GraphRecordStoreUtilities.getVertices(rg, false, selected, false);
+                recordStore = GraphRecordStoreUtilities.getTypedVertices(rg, false, selected, false);
             } else {
-                recordStore = GraphRecordStoreUtilities.getTransactions(rg, selected, false);
+                recordStore = GraphRecordStoreUtilities.getTypedTransactions(rg, selected, false);
             }
         } finally {
             rg.release();
@@ -167,63 +193,214 @@ public class GetRecordStore extends RestService {
         }
 
         if (!attrs.isEmpty() && recordStore.size() > 0) {
-            // Check that all of the user-specified attributes exist.
-            final StringJoiner buf = new StringJoiner(",");
-            for (final String key : attrs) {
-                if (!attrToTypedAttr.containsKey(key)) {
-                    buf.add(key);
-                }
-            }
-
-            if (buf.length() != 0) {
-                throw new RestServiceException("The following attributes do not exist in the record store: " + buf.toString());
-            }
+            checkAttributes(attrs, attrToTypedAttr);
         } else {
             // The user didn't specify any attributes, so use all of
             // the RecordStore keys.
             attrs.addAll(attrToTypedAttr.keySet());
         }
 
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(SerializationFeature.INDENT_OUTPUT, false);
-        mapper.configure(SerializationFeature.CLOSE_CLOSEABLE, false);
-
-        final ObjectNode root = mapper.createObjectNode();
-
-        // We want to build a JSON document that looks like:
+        // We want to write a JSON document that looks like:
         //
         // {"columns":["A","B"],"data":[[1,"a"],[2,"b"],[3,"c"]]}
         //
         // which can be read by pandas.read_json(..., orient="split").
         // (It appears that the index parameter is not required.)
-        final ArrayNode columns = root.putArray("columns");
-        final ArrayNode data = root.putArray("data");
-
+        // The document is written as it is generated rather than being
+        // built in memory first.
+        final List<String> keys = new ArrayList<>();
+        final List<String> types = new ArrayList<>();
         if (recordStore.size() > 0) {
-            ioph.progress("Building DataFrame...");
             for (final String attr : attrs) {
                 final String kt = attrToTypedAttr.get(attr);
-                columns.add(keyedName(kt));
+                keys.add(kt);
+                types.add(kt.substring(kt.lastIndexOf('<') + 1, kt.length() - 1));
             }
+        }
 
-            recordStore.reset();
-            while (recordStore.next()) {
-                final ArrayNode row = data.addArray();
-                for (final String attr : attrs) {
-                    final String kt = attrToTypedAttr.get(attr);
-                    final String type = kt.substring(kt.lastIndexOf('<') + 1, kt.length() - 1);
-                    final String value = recordStore.get(kt);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("columns");
+            for (final String kt : keys) {
+                json.writeString(keyedName(kt));
+            }
+            json.writeEndArray();
 
-                    RestUtilities.addData(row, type, value);
+            json.writeArrayFieldStart("data");
+            if (recordStore.size() > 0) {
+                ioph.progress("Building DataFrame...");
+                recordStore.reset();
+                while (recordStore.next()) {
+                    json.writeStartArray();
+                    for (int i = 0; i < keys.size(); i++) {
+                        RestUtilities.writeData(json, types.get(i), recordStore, keys.get(i));
+                    }
+                    json.writeEndArray();
                 }
             }
+            json.writeEndArray();
+            json.writeEndObject();
         }
 
-        mapper.writeValue(out, root);
-
         ioph.finish();
     }
 
+    private static boolean isColumnar(final PluginParameters parameters) {
+        final String format = parameters.getStringValue(RestServiceUtilities.FORMAT_PARAMETER_ID);
+        if (format == null || RestServiceUtilities.JSON_FORMAT.equals(format)) {
+            return false;
+        } else if (RestServiceUtilities.COLUMNAR_FORMAT.equals(format)) {
+            return true;
+        } else {
+            throw new RestServiceException("Unknown format: " + format);
+        }
+    }
+
+    /**
+     * Check that all of the user-specified attributes exist.
+     *
+     * @param attrs The user-specified attributes.
+     * @param attrToTypedAttr A mapping from "attrname" to "attrname&lt;type&gt;"
+     * for the attributes that exist.
+     */
+    private static void checkAttributes(final Set<String> attrs, final Map<String, String> attrToTypedAttr) {
+        final StringJoiner buf = new StringJoiner(",");
+        for (final String key : attrs) {
+            if (!attrToTypedAttr.containsKey(key)) {
+                buf.add(key);
+            }
+        }
+
+        if (buf.length() != 0) {
+            throw new RestServiceException("The following attributes do not exist in the record store: " + buf.toString());
+        }
+    }
+
+    /**
+     * Write the graph in the columnar format a batch at a time.
+     * <p>
+     * The records are the same as the records of the JSON RecordStore, but
+     * since the columns must be known before the first batch is written they
+     * are worked out from the graph's attributes rather than from the records.
+     * <p>
+     * The read lock is only held while each batch is copied from the graph, so
+     * a slow client doesn't stop the graph being modified while it downloads.
+     * If the structure or the attributes of the graph change between batches
+     * the records would no longer be consistent, so the download fails.
+     */
+    private static void writeColumnar(final Graph graph, final boolean selected, final boolean vx, final boolean tx,
+            final Set<String> attrs, final OutputStream out) throws IOException {
+        final boolean all = (vx && tx) || !(vx || tx);
+        final boolean vertices = all || vx;
+        final boolean transactions = all || tx;
+
+        final Map<String, String> attrToTypedAttr = new LinkedHashMap<>();
+        final long structureModificationCounter;
+        final long attributeModificationCounter;
+        ReadableGraph rg = graph.getReadableGraph();
+        try {
+            structureModificationCounter = rg.getStructureModificationCounter();
+            attributeModificationCounter = rg.getAttributeModificationCounter();
+            if (vertices) {
+                putKeys(rg, GraphElementType.VERTEX, GraphRecordStoreUtilities.SOURCE, attrToTypedAttr);
+                putKey(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, attrToTypedAttr);
+            }
+            if (transactions) {
+                putKeys(rg, GraphElementType.TRANSACTION, GraphRecordStoreUtilities.TRANSACTION, attrToTypedAttr);
+                putKeys(rg, GraphElementType.VERTEX, GraphRecordStoreUtilities.SOURCE, attrToTypedAttr);
+                putKeys(rg, GraphElementType.VERTEX, GraphRecordStoreUtilities.DESTINATION, attrToTypedAttr);
+                if (hasUndirectedTransaction(rg)) {
+                    putKey(GraphRecordStoreUtilities.TRANSACTION + GraphRecordStoreUtilities.DIRECTED_KEY, attrToTypedAttr);
+                }
+                putKey(GraphRecordStoreUtilities.TRANSACTION + GraphRecordStoreUtilities.ID, attrToTypedAttr);
+                putKey(GraphRecordStoreUtilities.SOURCE + GraphRecordStoreUtilities.ID, attrToTypedAttr);
+                putKey(GraphRecordStoreUtilities.DESTINATION + GraphRecordStoreUtilities.ID, attrToTypedAttr);
+            }
+        } finally {
+            rg.release();
+        }
+
+        final List<String> columns = new ArrayList<>();
+        if (attrs.isEmpty()) {
+            columns.addAll(attrToTypedAttr.values());
+        } else {
+            checkAttributes(attrs, attrToTypedAttr);
+            for (final String attr : attrs) {
+                columns.add(attrToTypedAttr.get(attr));
+            }
+        }
+
+        final ColumnarRecordStoreWriter writer = new ColumnarRecordStoreWriter(out, columns);
+        final int[] offset = {0};
+        while (vertices) {
+            final TypedRecordStore batch;
+            rg = graph.getReadableGraph();
+            try {
+                checkUnchanged(rg, structureModificationCounter, attributeModificationCounter);
+                if (offset[0] >= rg.getVertexCount()) {
+                    break;
+                }
+                batch = GraphRecordStoreUtilities.getTypedVertices(rg, all, selected, false, offset, COLUMNAR_BATCH_SIZE);
+            } finally {
+                rg.release();
+            }
+            writer.write(batch);
+        }
+        offset[0] = 0;
+        while (transactions) {
+            final TypedRecordStore batch;
+            rg = graph.getReadableGraph();
+            try {
+                checkUnchanged(rg, structureModificationCounter, attributeModificationCounter);
+                if (offset[0] >= rg.getTransactionCount()) {
+                    break;
+                }
+                batch = GraphRecordStoreUtilities.getTypedTransactions(rg, selected, false, offset, COLUMNAR_BATCH_SIZE);
+            } finally {
+                rg.release();
+            }
+            writer.write(batch);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Check that the elements and attributes of the graph haven't changed since
+     * the columnar download started.
+     * <p>
+     * The end of the stream hasn't been written when this fails, so the client
+     * sees an incomplete download rather than inconsistent records.
+     */
+    private static void checkUnchanged(final GraphReadMethods rg, final long structureModificationCounter, final long attributeModificationCounter) {
+        if (rg.getStructureModificationCounter() != structureModificationCounter
+                || rg.getAttributeModificationCounter() != attributeModificationCounter) {
+            throw new RestServiceException(HttpURLConnection.HTTP_CONFLICT, "The graph was modified while the RecordStore was being written");
+        }
+    }
+
+    private static void putKeys(final GraphReadMethods rg, final GraphElementType elementType, final String prefix, final Map<String, String> attrToTypedAttr) {
+        final int attributeCount = rg.getAttributeCount(elementType);
+        for (int a = 0; a < attributeCount; a++) {
+            final int attributeId = rg.getAttribute(elementType, a);
+            attrToTypedAttr.put(prefix + rg.getAttributeName(attributeId), prefix + rg.getAttributeName(attributeId) + "<" + rg.getAttributeType(attributeId) + ">");
+        }
+    }
+
+    private static void putKey(final String kt, final Map<String, String> attrToTypedAttr) {
+        attrToTypedAttr.put(kt.substring(0, kt.lastIndexOf('<')), kt);
+    }
+
+    private static boolean hasUndirectedTransaction(final GraphReadMethods rg) {
+        final int transactionCount = rg.getTransactionCount();
+        for (int position = 0; position < transactionCount; position++) {
+            if (rg.getTransactionDirection(rg.getTransaction(position)) == Graph.UNDIRECTED) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Convert a "key<type>" to "key|type" to make things slightly easier for
      * the attrWithType.
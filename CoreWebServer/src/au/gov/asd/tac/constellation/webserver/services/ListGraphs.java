@@ -20,9 +20,8 @@ import au.gov.asd.tac.constellation.graph.node.GraphNode;
 import au.gov.asd.tac.constellation.graph.schema.Schema;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -56,20 +55,20 @@ public class ListGraphs extends RestService {
 
     @Override
     public void callService(final PluginParameters parameters, final InputStream in, final OutputStream out) throws IOException {
-        final ObjectMapper mapper = new ObjectMapper();
-        final ArrayNode root = mapper.createArrayNode();
         final Map<String, Graph> graphs = GraphNode.getAllGraphs();
-        graphs.entrySet().forEach(entry -> {
-            final String id = entry.getKey();
-            final Graph graph = entry.getValue();
-            final ObjectNode obj = mapper.createObjectNode();
-            obj.put("id", id);
-            obj.put("name", GraphNode.getGraphNode(id).getDisplayName());
-            final Schema schema = graph.getSchema();
-            obj.put("schema", schema != null ? schema.getFactory().getName() : null);
-            root.add(obj);
-        });
-
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartArray();
+            for (final Map.Entry<String, Graph> entry : graphs.entrySet()) {
+                final String id = entry.getKey();
+                final Graph graph = entry.getValue();
+                json.writeStartObject();
+                json.writeStringField("id", id);
+                json.writeStringField("name", GraphNode.getGraphNode(id).getDisplayName());
+                final Schema schema = graph.getSchema();
+                json.writeStringField("schema", schema != null ? schema.getFactory().getName() : null);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
     }
 }
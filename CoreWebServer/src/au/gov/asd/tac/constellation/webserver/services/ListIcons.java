@@ -21,8 +21,8 @@ import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterTyp
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType.BooleanParameterValue;
 import au.gov.asd.tac.constellation.utilities.icon.IconManager;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -75,10 +75,12 @@ public class ListIcons extends RestService {
         final List<String> names = new ArrayList<>(IconManager.getIconNames(editable));
         names.sort(String::compareToIgnoreCase);
 
-        final ObjectMapper mapper = new ObjectMapper();
-        final ArrayNode root = mapper.createArrayNode();
-        names.forEach(root::add);
-
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartArray();
+            for (final String name : names) {
+                json.writeString(name);
+            }
+            json.writeEndArray();
+        }
     }
 }
@@ -18,8 +18,8 @@ package au.gov.asd.tac.constellation.webserver.services;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.utilities.color.ConstellationColor;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -53,11 +53,12 @@ public class ListNamedColors extends RestService {
 
     @Override
     public void callService(final PluginParameters parameters, final InputStream in, final OutputStream out) throws IOException {
-        final ObjectMapper mapper = new ObjectMapper();
-        final ObjectNode root = mapper.createObjectNode();
-        ConstellationColor.NAMED_COLOR_LIST
-                .forEach(cocol -> root.put(cocol.getName(), cocol.getHtmlColor()));
-
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartObject();
+            for (final ConstellationColor cocol : ConstellationColor.NAMED_COLOR_LIST) {
+                json.writeStringField(cocol.getName(), cocol.getHtmlColor());
+            }
+            json.writeEndObject();
+        }
     }
 }
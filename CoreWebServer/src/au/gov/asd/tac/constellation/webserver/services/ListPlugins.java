@@ -20,8 +20,8 @@ import au.gov.asd.tac.constellation.plugins.parameters.PluginParameter;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.plugins.parameters.types.BooleanParameterType;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -70,13 +70,12 @@ public class ListPlugins extends RestService {
     public void callService(final PluginParameters parameters, final InputStream in, final OutputStream out) throws IOException {
         final boolean alias = parameters.getBooleanValue(ALIAS_PARAMETER_ID);
 
-        final ObjectMapper mapper = new ObjectMapper();
-        final ArrayNode root = mapper.createArrayNode();
-        PluginRegistry.getPluginClassNames()
-                .stream()
-                .map(name -> alias ? PluginRegistry.getAlias(name) : name)
-                .forEachOrdered(name -> root.add(name));
-
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartArray();
+            for (final String name : PluginRegistry.getPluginClassNames()) {
+                json.writeString(alias ? PluginRegistry.getAlias(name) : name);
+            }
+            json.writeEndArray();
+        }
     }
 }
@@ -18,9 +18,8 @@ package au.gov.asd.tac.constellation.webserver.services;
 import au.gov.asd.tac.constellation.plugins.parameters.PluginParameters;
 import au.gov.asd.tac.constellation.webserver.restapi.RestService;
 import au.gov.asd.tac.constellation.webserver.restapi.RestServiceRegistry;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceUtilities;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -53,16 +52,15 @@ public class ListServices extends RestService {
 
     @Override
     public void callService(final PluginParameters parameters, final InputStream in, final OutputStream out) throws IOException {
-
-        final ObjectMapper mapper = new ObjectMapper();
-        final ArrayNode root = mapper.createArrayNode();
-
-        RestServiceRegistry.getServices().forEach(serviceKey -> {
-            final ObjectNode service = root.addObject();
-            service.put("name", serviceKey.name);
-            service.put("httpMethod", serviceKey.httpMethod.name());
-        });
-
-        mapper.writeValue(out, root);
+        try (final JsonGenerator json = RestServiceUtilities.createJsonGenerator(out)) {
+            json.writeStartArray();
+            for (final RestServiceRegistry.ServiceKey serviceKey : RestServiceRegistry.getServices()) {
+                json.writeStartObject();
+                json.writeStringField("name", serviceKey.name);
+                json.writeStringField("httpMethod", serviceKey.httpMethod.name());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2024 Australian Signals Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package au.gov.asd.tac.constellation.webserver.api;
+
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore;
+import au.gov.asd.tac.constellation.graph.processing.TypedRecordStore.ColumnType;
+import au.gov.asd.tac.constellation.webserver.restapi.RestServiceException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Columnar RecordStore Test.
+ *
+ * @author algol
+ */
+public class ColumnarRecordStoreNGTest {
+
+    /**
+     * Test that a RecordStore written in batches is read back with the same
+     * values and column types.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        System.out.println("testRoundTrip");
+
+        final TypedRecordStore recordStore = new TypedRecordStore();
+        for (int i = 0; i < 20; i++) {
+            recordStore.add();
+            recordStore.setInt("source.Count<integer>", i);
+            recordStore.setLong("source.Big<long>", 1L << 40 | i);
+            if (i % 3 != 0) {
+                recordStore.setDouble("source.Weight<double>", i / 4.0);
+            }
+            recordStore.setBoolean("transaction.Flag<boolean>", i % 2 == 0);
+            recordStore.set("source.Label<string>", i % 4 == 0 ? null : "\u00e9t\u00e9 " + i);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ColumnarRecordStoreWriter writer = new ColumnarRecordStoreWriter(out, Arrays.asList(
+                "source.Count<integer>", "source.Big<long>", "source.Weight<double>", "transaction.Flag<boolean>",
+                "source.Label<string>", "destination.Score<float>"));
+        writer.write(recordStore);
+        writer.write(recordStore);
+        writer.finish();
+
+        final TypedRecordStore result = ColumnarRecordStoreReader.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(result.size(), 40);
+        assertEquals(result.getColumnType("source.Count"), ColumnType.INT);
+        assertEquals(result.getColumnType("source.Big"), ColumnType.LONG);
+        assertEquals(result.getColumnType("transaction.Flag"), ColumnType.BOOLEAN);
+        for (int r = 0; r < result.size(); r++) {
+            final int i = r % 20;
+            for (final String key : recordStore.keysWithType()) {
+                assertEquals(result.get(r, key), recordStore.get(i, key), key);
+            }
+            assertFalse(result.hasValue(r, "destination.Score"));
+        }
+        assertTrue(result.getBoolean(20, "transaction.Flag"));
+        assertFalse(result.hasValue(23, "source.Weight"));
+    }
+
+    /**
+     * Test that data that isn't a columnar RecordStore is rejected.
+     *
+     * @throws IOException
+     */
+    @Test(expectedExceptions = RestServiceException.class)
+    public void testNotColumnar() throws IOException {
+        System.out.println("testNotColumnar");
+
+        ColumnarRecordStoreReader.read(new ByteArrayInputStream("{\"columns\":[]}".getBytes(StandardCharsets.UTF_8)));
+    }
+}